@@ -147,7 +147,7 @@ public class ConfigurableScenario {
     private void deleteSoftwareModules() {
         PagedList<MgmtSoftwareModule> modules;
         do {
-            modules = softwareModuleResource.getSoftwareModules(0, PAGE_SIZE, null, null).getBody();
+            modules = softwareModuleResource.getSoftwareModules(0, PAGE_SIZE, null, null, null, true).getBody();
             modules.getContent().parallelStream()
                     .forEach(module -> softwareModuleResource.deleteSoftwareModule(module.getModuleId()));
         } while (modules.getTotal() > PAGE_SIZE);
@@ -156,7 +156,8 @@ public class ConfigurableScenario {
     private void deleteDistributionSets() {
         PagedList<MgmtDistributionSet> distributionSets;
         do {
-            distributionSets = distributionSetResource.getDistributionSets(0, PAGE_SIZE, null, null).getBody();
+            distributionSets = distributionSetResource.getDistributionSets(0, PAGE_SIZE, null, null, null, true)
+                    .getBody();
             distributionSets.getContent().parallelStream()
                     .forEach(set -> distributionSetResource.deleteDistributionSet(set.getDsId()));
         } while (distributionSets.getTotal() > PAGE_SIZE);
@@ -176,7 +177,7 @@ public class ConfigurableScenario {
     private void deleteTargets() {
         PagedList<MgmtTarget> targets;
         do {
-            targets = targetResource.getTargets(0, PAGE_SIZE, null, null).getBody();
+            targets = targetResource.getTargets(0, PAGE_SIZE, null, null, null, true).getBody();
             targets.getContent().parallelStream()
                     .forEach(target -> targetResource.deleteTarget(target.getControllerId()));
         } while (targets.getTotal() > PAGE_SIZE);
@@ -194,13 +195,13 @@ public class ConfigurableScenario {
     }
 
     private void runRollouts(final Scenario scenario) {
-        distributionSetResource.getDistributionSets(0, scenario.getDistributionSets(), null, null).getBody()
-                .getContent().forEach(set -> runRollout(set, scenario));
+        distributionSetResource.getDistributionSets(0, scenario.getDistributionSets(), null, null, null, true)
+                .getBody().getContent().forEach(set -> runRollout(set, scenario));
     }
 
     private void runSemiAutomaticRollouts(final Scenario scenario) {
-        distributionSetResource.getDistributionSets(0, scenario.getDistributionSets(), null, null).getBody()
-                .getContent().forEach(set -> runSemiAutomaticRollout(set, scenario));
+        distributionSetResource.getDistributionSets(0, scenario.getDistributionSets(), null, null, null, true)
+                .getBody().getContent().forEach(set -> runSemiAutomaticRollout(set, scenario));
     }
 
     private void runSemiAutomaticRollout(final MgmtDistributionSet set, final Scenario scenario) {
@@ -268,8 +269,8 @@ public class ConfigurableScenario {
                 LOGGER.warn("Interrupted!");
                 Thread.currentThread().interrupt();
             }
-        } while (targetResource.getTargets(0, 1, null, "updateStatus==IN_SYNC").getBody().getTotal() < scenario
-                .getTargets());
+        } while (targetResource.getTargets(0, 1, null, "updateStatus==IN_SYNC", null, true).getBody()
+                .getTotal() < scenario.getTargets());
     }
 
     private void waitUntilRolloutIsReady(final Long id) {
@@ -8,20 +8,13 @@
  */
 package org.eclipse.hawkbit.artifact.repository;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
-import java.security.DigestOutputStream;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.eclipse.hawkbit.artifact.repository.ArtifactUploadPipeline.HashingInputStream;
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
 import org.slf4j.Logger;
@@ -32,8 +25,6 @@ import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.gridfs.GridFsOperations;
 
-import com.google.common.io.BaseEncoding;
-import com.google.common.io.ByteStreams;
 import com.mongodb.BasicDBObject;
 import com.mongodb.MongoClientException;
 import com.mongodb.MongoException;
@@ -68,11 +59,35 @@ public class MongoDBArtifactStore implements ArtifactRepository {
 
     private static final String ID = "_id";
 
+    /**
+     * Prefix of the file name of an upload until its SHA1 hash is known.
+     */
+    private static final String TEMP_FILENAME_PREFIX = "tmp-";
+
     @Autowired
     private GridFsOperations gridFs;
 
     MongoTemplate mongoTemplate;
 
+    private final ArtifactUploadPipeline uploadPipeline;
+
+    /**
+     * Constructor. The artifacts are hashed in the reading thread.
+     */
+    public MongoDBArtifactStore() {
+        this(ArtifactUploadPipeline.inCallingThread());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param uploadPipeline
+     *            to hash the uploaded artifacts
+     */
+    public MongoDBArtifactStore(final ArtifactUploadPipeline uploadPipeline) {
+        this.uploadPipeline = uploadPipeline;
+    }
+
     /**
      * Retrieves a {@link GridFSDBFile} from the store by it's SHA1 hash.
      *
@@ -105,21 +120,20 @@ public class MongoDBArtifactStore implements ArtifactRepository {
     @Override
     public DbArtifact store(final InputStream content, final String filename, final String contentType,
             final DbArtifactHash hash) {
-        File tempFile = null;
+        LOGGER.debug("storing file {} of content {}", filename, contentType);
+        final HashingInputStream hashingContent = uploadPipeline.open(content);
         try {
-            LOGGER.debug("storing file {} of content {}", filename, contentType);
-            tempFile = File.createTempFile("uploadFile", null);
-            try (final BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(tempFile))) {
-                try (BufferedInputStream bis = new BufferedInputStream(content)) {
-                    return store(bis, contentType, bos, tempFile, hash);
+            if (ArtifactUploadPipeline.isSha1Provided(hash)) {
+                final GridFSDBFile existing = findBySha1(hash.getSha1());
+                if (existing != null) {
+                    // the content has to be verified even if it is not stored
+                    ArtifactUploadPipeline.checkHashes(hashingContent.exhaust().getHashes(), hash);
+                    return reuse(existing);
                 }
             }
-        } catch (final IOException | MongoException e1) {
-            throw new ArtifactStoreException(e1.getMessage(), e1);
-        } finally {
-            if (tempFile != null && !tempFile.delete()) {
-                LOGGER.error("Could not delete temporary file: {}", tempFile);
-            }
+            return store(hashingContent, contentType, hash);
+        } catch (final IOException | MongoException e) {
+            throw new ArtifactStoreException(e.getMessage(), e);
         }
     }
 
@@ -132,7 +146,7 @@ public class MongoDBArtifactStore implements ArtifactRepository {
         }
     }
 
-    private void deleteArtifact(final GridFSDBFile dbFile) {
+    private void deleteArtifact(final GridFSFile dbFile) {
         if (dbFile != null) {
             try {
                 gridFs.delete(new Query().addCriteria(Criteria.where(ID).is(dbFile.getId())));
@@ -143,58 +157,45 @@ public class MongoDBArtifactStore implements ArtifactRepository {
 
     }
 
-    private DbArtifact store(final InputStream content, final String contentType, final OutputStream os,
-            final File tempFile, final DbArtifactHash hash) {
-        final GridFsArtifact storedArtifact;
+    /**
+     * Streams the content into GridFS chunks under a temporary file name and
+     * renames the file to the SHA1 hash as soon as the hashes are known.
+     */
+    private DbArtifact store(final HashingInputStream content, final String contentType,
+            final DbArtifactHash hash) throws IOException {
+        final GridFSFile file = gridFs.store(content, TEMP_FILENAME_PREFIX + UUID.randomUUID(), contentType);
+        final DbArtifactHash calculated;
         try {
-            final String sha1Hash = computeSHA1Hash(content, os, hash != null ? hash.getSha1() : null);
-            // upload if it does not exist already, check if file exists, not
-            // tenant specific.
-            final GridFSDBFile result = gridFs.findOne(new Query().addCriteria(Criteria.where(FILENAME).is(sha1Hash)));
-            if (null == result) {
-                try (FileInputStream inputStream = new FileInputStream(tempFile)) {
-                    final BasicDBObject metadata = new BasicDBObject();
-                    metadata.put(SHA1, sha1Hash);
-                    storedArtifact = map(gridFs.store(inputStream, sha1Hash, contentType, metadata));
-                }
-            } else {
-                LOGGER.info("file with sha1 hash {} already exists in database, increase reference counter", sha1Hash);
-                result.save();
-                storedArtifact = map(result);
-            }
-        } catch (final NoSuchAlgorithmException | IOException e) {
-            throw new ArtifactStoreException(e.getMessage(), e);
+            calculated = content.getHashes();
+            ArtifactUploadPipeline.checkHashes(calculated, hash);
+        } catch (final IOException | RuntimeException e) {
+            deleteArtifact(file);
+            throw e;
         }
 
-        if (hash != null && hash.getMd5() != null
-                && !storedArtifact.getHashes().getMd5().equalsIgnoreCase(hash.getMd5())) {
-            throw new HashNotMatchException("The given md5 hash " + hash.getMd5()
-                    + " not matching the calculated md5 hash " + storedArtifact.getHashes().getMd5(),
-                    HashNotMatchException.MD5);
+        // upload if it does not exist already, check if file exists, not
+        // tenant specific.
+        final GridFSDBFile existing = findBySha1(calculated.getSha1());
+        if (existing != null) {
+            deleteArtifact(file);
+            return reuse(existing);
         }
 
-        return storedArtifact;
+        file.put(FILENAME, calculated.getSha1());
+        file.setMetaData(new BasicDBObject(SHA1, calculated.getSha1()));
+        file.save();
+        return map(file);
+    }
 
+    private static DbArtifact reuse(final GridFSDBFile existing) {
+        LOGGER.info("file with sha1 hash {} already exists in database, increase reference counter",
+                existing.getFilename());
+        existing.save();
+        return map(existing);
     }
 
-    private static String computeSHA1Hash(final InputStream stream, final OutputStream os, final String providedSHA1Sum)
-            throws NoSuchAlgorithmException, IOException {
-        String sha1Hash;
-        // compute digest
-        // Exception squid:S2070 - not used for hashing sensitive
-        // data
-        @SuppressWarnings("squid:S2070")
-        final MessageDigest md = MessageDigest.getInstance("SHA-1");
-        try (final DigestOutputStream dos = new DigestOutputStream(os, md)) {
-            ByteStreams.copy(stream, dos);
-        }
-        sha1Hash = BaseEncoding.base16().lowerCase().encode(md.digest());
-        if (providedSHA1Sum != null && !providedSHA1Sum.equalsIgnoreCase(sha1Hash)) {
-            throw new HashNotMatchException(
-                    "The given sha1 hash " + providedSHA1Sum + " not matching the calculated sha1 hash " + sha1Hash,
-                    HashNotMatchException.SHA1);
-        }
-        return sha1Hash;
+    private GridFSDBFile findBySha1(final String sha1Hash) {
+        return gridFs.findOne(new Query().addCriteria(Criteria.where(FILENAME).is(sha1Hash)));
     }
 
     /**
@@ -8,6 +8,7 @@
  */
 package org.eclipse.hawkbit.artifact.repository;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -19,11 +20,21 @@ import org.springframework.context.annotation.Configuration;
 @ConditionalOnProperty(prefix = "org.eclipse.hawkbit.artifact.repository.mongo", name = "enabled", matchIfMissing = true)
 public class MongoDBArtifactStoreAutoConfiguration {
 
+    /**
+     * The shared pipeline of the application, the artifacts are hashed in the
+     * uploading thread without one.
+     */
+    @Autowired(required = false)
+    private ArtifactUploadPipeline uploadPipeline;
+
     /**
      * @return Default {@link ArtifactRepository} implementation.
      */
     @Bean
     public ArtifactRepository artifactRepository() {
-        return new MongoDBArtifactStore();
+        if (uploadPipeline == null) {
+            return new MongoDBArtifactStore();
+        }
+        return new MongoDBArtifactStore(uploadPipeline);
     }
 }
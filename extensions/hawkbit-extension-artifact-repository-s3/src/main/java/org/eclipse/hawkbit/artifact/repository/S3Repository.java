@@ -8,30 +8,33 @@
  */
 package org.eclipse.hawkbit.artifact.repository;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.DigestOutputStream;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
 
+import org.eclipse.hawkbit.artifact.repository.ArtifactUploadPipeline.HashingInputStream;
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.amazonaws.AmazonClientException;
-import com.amazonaws.RequestClientOptions;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.Headers;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.CopyPartRequest;
 import com.amazonaws.services.s3.model.DeleteObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
 import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.UploadPartRequest;
 import com.google.common.io.BaseEncoding;
 import com.google.common.io.ByteStreams;
 
@@ -47,19 +50,36 @@ import com.google.common.io.ByteStreams;
  * can store all of your objects in a single bucket, or you can organize them
  * across several buckets.
  * </p>
+ * 
+ * Artifacts which fit into a single part of
+ * {@link S3RepositoryProperties#getPartSize()} are put as one object. Larger
+ * artifacts are streamed by a multipart upload while they are hashed by the
+ * {@link ArtifactUploadPipeline}, i.e. at most one part is held in memory.
+ * The multipart upload goes directly to the SHA1 key if the client provided
+ * the SHA1 and MD5 hashes, otherwise to a temporary key which is copied within
+ * S3 as soon as the hashes are known.
  */
 public class S3Repository implements ArtifactRepository {
 
     private static final Logger LOG = LoggerFactory.getLogger(S3Repository.class);
 
-    private static final String TEMP_FILE_PREFIX = "tmp";
-    private static final String TEMP_FILE_SUFFIX = "artifactrepo";
+    private static final String TEMP_KEY_PREFIX = "tmp/";
+
+    private static final String MD5_METADATA = "md5chksum";
+
+    private static final Pattern MD5_PATTERN = Pattern.compile("[0-9a-fA-F]{32}");
+
+    /**
+     * Maximum size of an object that can be copied by a single request.
+     */
+    private static final long MAX_COPY_OBJECT_SIZE = 5L * 1024 * 1024 * 1024;
 
     private final AmazonS3 amazonS3;
     private final S3RepositoryProperties s3Properties;
+    private final ArtifactUploadPipeline uploadPipeline;
 
     /**
-     * Constructor.
+     * Constructor. The artifacts are hashed in the reading thread.
      * 
      * @param amazonS3
      *            the amazonS3 client to use
@@ -68,8 +88,25 @@ public class S3Repository implements ArtifactRepository {
      *            store in
      */
     public S3Repository(final AmazonS3 amazonS3, final S3RepositoryProperties s3Properties) {
+        this(amazonS3, s3Properties, ArtifactUploadPipeline.inCallingThread());
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param amazonS3
+     *            the amazonS3 client to use
+     * @param s3Properties
+     *            the properties which e.g. holds the name of the bucket to
+     *            store in
+     * @param uploadPipeline
+     *            to hash the uploaded artifacts
+     */
+    public S3Repository(final AmazonS3 amazonS3, final S3RepositoryProperties s3Properties,
+            final ArtifactUploadPipeline uploadPipeline) {
         this.amazonS3 = amazonS3;
         this.s3Properties = s3Properties;
+        this.uploadPipeline = uploadPipeline;
     }
 
     @Override
@@ -78,87 +115,174 @@ public class S3Repository implements ArtifactRepository {
     }
 
     @Override
-    // suppress warning, of not strong enough hashing algorithm, SHA-1 and MD5
-    // is not used security related
-    @SuppressWarnings("squid:S2070")
     public DbArtifact store(final InputStream content, final String filename, final String contentType,
             final DbArtifactHash hash) {
-        final MessageDigest mdSHA1;
-        final MessageDigest mdMD5;
+        final HashingInputStream hashingContent = uploadPipeline.open(content);
         try {
-            mdSHA1 = MessageDigest.getInstance("SHA1");
-            mdMD5 = MessageDigest.getInstance("MD5");
-        } catch (final NoSuchAlgorithmException e) {
+            if (ArtifactUploadPipeline.isSha1Provided(hash) && exists(hash.getSha1())) {
+                LOG.debug("Artifact {} already exists on S3 bucket {}, don't need to upload twice", hash.getSha1(),
+                        s3Properties.getBucketName());
+                // the content has to be verified even if it is not uploaded
+                final DbArtifactHash calculated = hashingContent.exhaust().getHashes();
+                ArtifactUploadPipeline.checkHashes(calculated, hash);
+                return createS3Artifact(calculated, contentType, hashingContent.getSize());
+            }
+
+            final byte[] firstPart = readPart(hashingContent);
+            if (firstPart.length < s3Properties.getPartSize()) {
+                return putObject(firstPart, hashingContent, contentType, hash);
+            }
+            return multipartUpload(firstPart, hashingContent, contentType, hash);
+        } catch (final IOException | AmazonClientException e) {
             throw new ArtifactStoreException(e.getMessage(), e);
         }
+    }
 
-        LOG.debug("Creating temporary file to store the inputstream to it");
-
-        final File file = createTempFile();
-        LOG.debug("Calculating sha1 and md5 hashes");
-        try (final DigestOutputStream outputstream = openFileOutputStream(file, mdSHA1, mdMD5)) {
-            ByteStreams.copy(content, outputstream);
-            outputstream.flush();
-            final String sha1Hash16 = BaseEncoding.base16().lowerCase().encode(mdSHA1.digest());
-            final String md5Hash16 = BaseEncoding.base16().lowerCase().encode(mdMD5.digest());
+    private DbArtifact putObject(final byte[] content, final HashingInputStream hashingContent,
+            final String contentType, final DbArtifactHash hash) throws IOException {
+        final DbArtifactHash calculated = hashingContent.getHashes();
+        ArtifactUploadPipeline.checkHashes(calculated, hash);
+        final S3Artifact s3Artifact = createS3Artifact(calculated, contentType, content.length);
 
-            return store(sha1Hash16, md5Hash16, contentType, file, hash);
-        } catch (final IOException e) {
-            throw new ArtifactStoreException(e.getMessage(), e);
-        } finally {
-            file.delete();
+        if (exists(calculated.getSha1())) {
+            LOG.debug("Artifact {} already exists on S3 bucket {}, don't need to upload twice", calculated.getSha1(),
+                    s3Properties.getBucketName());
+            return s3Artifact;
         }
+
+        LOG.info("Storing artifact with length {} to AWS S3 bucket {} as SHA1 {}", content.length,
+                s3Properties.getBucketName(), calculated.getSha1());
+        final ObjectMetadata objectMetadata = createObjectMetadata(calculated.getMd5(), contentType);
+        objectMetadata.setContentMD5(toBase64(calculated.getMd5()));
+        objectMetadata.setContentLength(content.length);
+        amazonS3.putObject(s3Properties.getBucketName(), calculated.getSha1(), new ByteArrayInputStream(content),
+                objectMetadata);
+        return s3Artifact;
     }
 
-    private DbArtifact store(final String sha1Hash16, final String mdMD5Hash16, final String contentType,
-            final File file, final DbArtifactHash hash) {
-        final S3Artifact s3Artifact = createS3Artifact(sha1Hash16, mdMD5Hash16, contentType, file);
-        checkHashes(s3Artifact, hash);
+    private DbArtifact multipartUpload(final byte[] firstPart, final HashingInputStream hashingContent,
+            final String contentType, final DbArtifactHash hash) throws IOException {
+        final boolean directUpload = ArtifactUploadPipeline.isSha1Provided(hash) && hash.getMd5() != null
+                && MD5_PATTERN.matcher(hash.getMd5()).matches();
+        final String key = directUpload ? hash.getSha1() : TEMP_KEY_PREFIX + UUID.randomUUID();
 
-        LOG.info("Storing file {} with length {} to AWS S3 bucket {} as SHA1 {}", file.getName(), file.length(),
-                s3Properties.getBucketName(), sha1Hash16);
+        LOG.info("Streaming artifact by multipart upload to AWS S3 bucket {} with key {}",
+                s3Properties.getBucketName(), key);
+        final String uploadId = amazonS3
+                .initiateMultipartUpload(new InitiateMultipartUploadRequest(s3Properties.getBucketName(), key,
+                        createObjectMetadata(directUpload ? hash.getMd5() : null, contentType)))
+                .getUploadId();
 
-        if (exists(sha1Hash16)) {
-            LOG.debug("Artifact {} already exists on S3 bucket {}, don't need to upload twice", sha1Hash16,
-                    s3Properties.getBucketName());
-            return s3Artifact;
+        final DbArtifactHash calculated;
+        try {
+            final List<PartETag> partETags = new ArrayList<>();
+            byte[] part = firstPart;
+            while (part.length > 0) {
+                partETags.add(uploadPart(key, uploadId, partETags.size() + 1, part));
+                part = readPart(hashingContent);
+            }
+
+            calculated = hashingContent.getHashes();
+            ArtifactUploadPipeline.checkHashes(calculated, hash);
+            amazonS3.completeMultipartUpload(
+                    new CompleteMultipartUploadRequest(s3Properties.getBucketName(), key, uploadId, partETags));
+        } catch (final IOException | RuntimeException e) {
+            amazonS3.abortMultipartUpload(new AbortMultipartUploadRequest(s3Properties.getBucketName(), key, uploadId));
+            throw e;
         }
 
-        try (final InputStream inputStream = new BufferedInputStream(new FileInputStream(file),
-                RequestClientOptions.DEFAULT_STREAM_BUFFER_SIZE)) {
-            final ObjectMetadata objectMetadata = createObjectMetadata(mdMD5Hash16, contentType, file);
-            amazonS3.putObject(s3Properties.getBucketName(), sha1Hash16, inputStream, objectMetadata);
+        if (!directUpload) {
+            moveTemporaryObject(key, calculated, contentType, hashingContent.getSize());
+        }
+        return createS3Artifact(calculated, contentType, hashingContent.getSize());
+    }
 
-            return s3Artifact;
-        } catch (final IOException | AmazonClientException e) {
-            throw new ArtifactStoreException(e.getMessage(), e);
+    private PartETag uploadPart(final String key, final String uploadId, final int partNumber, final byte[] part) {
+        return amazonS3.uploadPart(new UploadPartRequest().withBucketName(s3Properties.getBucketName())
+                .withKey(key).withUploadId(uploadId).withPartNumber(partNumber)
+                .withInputStream(new ByteArrayInputStream(part)).withPartSize(part.length)).getPartETag();
+    }
+
+    private void moveTemporaryObject(final String tempKey, final DbArtifactHash calculated, final String contentType,
+            final long size) {
+        try {
+            if (exists(calculated.getSha1())) {
+                LOG.debug("Artifact {} already exists on S3 bucket {}, don't need to upload twice",
+                        calculated.getSha1(), s3Properties.getBucketName());
+                return;
+            }
+            final ObjectMetadata objectMetadata = createObjectMetadata(calculated.getMd5(), contentType);
+            if (size <= MAX_COPY_OBJECT_SIZE) {
+                amazonS3.copyObject(new CopyObjectRequest(s3Properties.getBucketName(), tempKey,
+                        s3Properties.getBucketName(), calculated.getSha1()).withNewObjectMetadata(objectMetadata));
+            } else {
+                copyObjectInParts(tempKey, calculated.getSha1(), size, objectMetadata);
+            }
+        } finally {
+            amazonS3.deleteObject(new DeleteObjectRequest(s3Properties.getBucketName(), tempKey));
         }
     }
 
-    private S3Artifact createS3Artifact(final String sha1Hash16, final String mdMD5Hash16, final String contentType,
-            final File file) {
-        final S3Artifact s3Artifact = new S3Artifact(amazonS3, s3Properties, sha1Hash16);
-        s3Artifact.setContentType(contentType);
-        s3Artifact.setArtifactId(sha1Hash16);
-        s3Artifact.setSize(file.length());
+    private void copyObjectInParts(final String sourceKey, final String targetKey, final long size,
+            final ObjectMetadata objectMetadata) {
+        final String uploadId = amazonS3.initiateMultipartUpload(
+                new InitiateMultipartUploadRequest(s3Properties.getBucketName(), targetKey, objectMetadata))
+                .getUploadId();
+        try {
+            final List<PartETag> partETags = new ArrayList<>();
+            for (long firstByte = 0; firstByte < size; firstByte += MAX_COPY_OBJECT_SIZE) {
+                partETags.add(amazonS3.copyPart(new CopyPartRequest()
+                        .withSourceBucketName(s3Properties.getBucketName()).withSourceKey(sourceKey)
+                        .withDestinationBucketName(s3Properties.getBucketName()).withDestinationKey(targetKey)
+                        .withUploadId(uploadId).withFirstByte(firstByte)
+                        .withLastByte(Math.min(firstByte + MAX_COPY_OBJECT_SIZE, size) - 1)
+                        .withPartNumber(partETags.size() + 1)).getPartETag());
+            }
+            amazonS3.completeMultipartUpload(
+                    new CompleteMultipartUploadRequest(s3Properties.getBucketName(), targetKey, uploadId, partETags));
+        } catch (final RuntimeException e) {
+            amazonS3.abortMultipartUpload(
+                    new AbortMultipartUploadRequest(s3Properties.getBucketName(), targetKey, uploadId));
+            throw e;
+        }
+    }
+
+    private byte[] readPart(final InputStream content) throws IOException {
+        final byte[] buffer = new byte[s3Properties.getPartSize()];
+        final int read = ByteStreams.read(content, buffer, 0, buffer.length);
+        if (read == buffer.length) {
+            return buffer;
+        }
+        final byte[] part = new byte[read];
+        System.arraycopy(buffer, 0, part, 0, read);
+        return part;
+    }
+
+    private S3Artifact createS3Artifact(final DbArtifactHash hashes, final String contentType, final long size) {
+        final S3Artifact s3Artifact = new S3Artifact(amazonS3, s3Properties, hashes.getSha1());
+        s3Artifact.setArtifactId(hashes.getSha1());
+        s3Artifact.setSize(size);
         s3Artifact.setContentType(contentType);
-        s3Artifact.setHashes(new DbArtifactHash(sha1Hash16, mdMD5Hash16));
+        s3Artifact.setHashes(hashes);
         return s3Artifact;
     }
 
-    private ObjectMetadata createObjectMetadata(final String mdMD5Hash16, final String contentType, final File file) {
+    private ObjectMetadata createObjectMetadata(final String mdMD5Hash16, final String contentType) {
         final ObjectMetadata objectMetadata = new ObjectMetadata();
-        final String mdMD5Hash64 = BaseEncoding.base64().encode(BaseEncoding.base16().lowerCase().decode(mdMD5Hash16));
-        objectMetadata.setContentMD5(mdMD5Hash64);
         objectMetadata.setContentType(contentType);
-        objectMetadata.setContentLength(file.length());
-        objectMetadata.setHeader("x-amz-meta-md5chksum", mdMD5Hash64);
+        if (mdMD5Hash16 != null) {
+            objectMetadata.setHeader("x-amz-meta-" + MD5_METADATA, toBase64(mdMD5Hash16));
+        }
         if (s3Properties.isServerSideEncryption()) {
             objectMetadata.setHeader(Headers.SERVER_SIDE_ENCRYPTION, s3Properties.getServerSideEncryptionAlgorithm());
         }
         return objectMetadata;
     }
 
+    private static String toBase64(final String hash16) {
+        return BaseEncoding.base64().encode(BaseEncoding.base16().lowerCase().decode(hash16.toLowerCase()));
+    }
+
     @Override
     public void deleteBySha1(final String sha1Hash) {
         LOG.info("Deleting S3 object from bucket {} and key {}", s3Properties.getBucketName(), sha1Hash);
@@ -178,43 +302,16 @@ public class S3Repository implements ArtifactRepository {
         final S3Artifact s3Artifact = new S3Artifact(amazonS3, s3Properties, sha1);
         s3Artifact.setArtifactId(sha1);
         s3Artifact.setSize(s3ObjectMetadata.getContentLength());
-        // the MD5Content is stored in the ETag
+        // the ETag of multipart uploads is not the MD5Content, in this case it
+        // is only stored in the user meta data
+        final String md5Hash64 = s3ObjectMetadata.getUserMetaDataOf(MD5_METADATA) != null
+                ? s3ObjectMetadata.getUserMetaDataOf(MD5_METADATA) : s3ObjectMetadata.getETag();
         s3Artifact.setHashes(new DbArtifactHash(sha1,
-                BaseEncoding.base16().lowerCase().encode(BaseEncoding.base64().decode(s3ObjectMetadata.getETag()))));
+                BaseEncoding.base16().lowerCase().encode(BaseEncoding.base64().decode(md5Hash64))));
         s3Artifact.setContentType(s3ObjectMetadata.getContentType());
         return s3Artifact;
     }
 
-    private static void checkHashes(final DbArtifact artifact, final DbArtifactHash hash) {
-        if (hash == null) {
-            return;
-        }
-        if (hash.getSha1() != null && !artifact.getHashes().getSha1().equals(hash.getSha1())) {
-            throw new HashNotMatchException("The given sha1 hash " + hash.getSha1()
-                    + " does not match with the calcualted sha1 hash " + artifact.getHashes().getSha1(),
-                    HashNotMatchException.SHA1);
-        }
-        if (hash.getMd5() != null && !artifact.getHashes().getMd5().equals(hash.getMd5())) {
-            throw new HashNotMatchException("The given md5 hash " + hash.getMd5()
-                    + " does not match with the calcualted md5 hash " + artifact.getHashes().getMd5(),
-                    HashNotMatchException.MD5);
-        }
-    }
-
-    private static File createTempFile() {
-        try {
-            return File.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
-        } catch (final IOException e) {
-            throw new ArtifactStoreException("Cannot create tempfile", e);
-        }
-    }
-
-    private static DigestOutputStream openFileOutputStream(final File file, final MessageDigest mdSHA1,
-            final MessageDigest mdMD5) throws FileNotFoundException {
-        return new DigestOutputStream(
-                new DigestOutputStream(new BufferedOutputStream(new FileOutputStream(file)), mdMD5), mdSHA1);
-    }
-
     private boolean exists(final String sha1) {
         return amazonS3.doesObjectExist(s3Properties.getBucketName(), sha1);
     }
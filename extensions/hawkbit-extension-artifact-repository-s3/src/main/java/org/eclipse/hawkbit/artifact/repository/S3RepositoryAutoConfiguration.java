@@ -8,6 +8,7 @@
  */
 package org.eclipse.hawkbit.artifact.repository;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -29,6 +30,13 @@ import com.amazonaws.services.s3.AmazonS3Client;
 @EnableConfigurationProperties(S3RepositoryProperties.class)
 public class S3RepositoryAutoConfiguration {
 
+    /**
+     * The shared pipeline of the application, the artifacts are hashed in the
+     * uploading thread without one.
+     */
+    @Autowired(required = false)
+    private ArtifactUploadPipeline uploadPipeline;
+
     /**
      * The {@link DefaultAWSCredentialsProviderChain} looks for credentials in
      * this order:
@@ -78,6 +86,9 @@ public class S3RepositoryAutoConfiguration {
      */
     @Bean
     public ArtifactRepository artifactRepository(final S3RepositoryProperties s3Properties) {
-        return new S3Repository(amazonS3(), s3Properties);
+        if (uploadPipeline == null) {
+            return new S3Repository(amazonS3(), s3Properties);
+        }
+        return new S3Repository(amazonS3(), s3Properties, uploadPipeline);
     }
 }
@@ -22,6 +22,11 @@ public class S3RepositoryProperties {
     private String bucketName = "artifactrepository";
     private boolean serverSideEncryption = false;
     private String serverSideEncryptionAlgorithm = SSEAlgorithm.AES256.getAlgorithm();
+    /**
+     * Size of the parts of a multipart upload in bytes. Artifacts smaller than
+     * a part are uploaded by a single request. S3 requires at least 5 MB.
+     */
+    private int partSize = 8 * 1024 * 1024;
 
     public String getBucketName() {
         return bucketName;
@@ -46,4 +51,12 @@ public class S3RepositoryProperties {
     public void setServerSideEncryptionAlgorithm(final String serverSideEncryptionAlgorithm) {
         this.serverSideEncryptionAlgorithm = serverSideEncryptionAlgorithm;
     }
+
+    public int getPartSize() {
+        return partSize;
+    }
+
+    public void setPartSize(final int partSize) {
+        this.partSize = partSize;
+    }
 }
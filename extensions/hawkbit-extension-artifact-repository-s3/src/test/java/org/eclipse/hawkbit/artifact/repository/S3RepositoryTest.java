@@ -10,9 +10,11 @@ package org.eclipse.hawkbit.artifact.repository;
 
 import static org.fest.assertions.Assertions.assertThat;
 import static org.fest.assertions.api.Assertions.fail;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 
 import java.io.BufferedInputStream;
@@ -38,8 +40,15 @@ import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.DeleteObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
 import com.google.common.io.BaseEncoding;
 import com.google.common.io.ByteStreams;
 
@@ -98,6 +107,58 @@ public class S3RepositoryTest {
         assertThat(recordedObjectMetadata.getContentLength()).isEqualTo(rndBytes.length);
     }
 
+    @Test
+    @Description("Verifies that an artifact larger than the part size is streamed by a multipart upload to a temporary key and copied to the SHA1 key")
+    public void storeLargeArtifactByMultipartUpload() throws IOException, NoSuchAlgorithmException {
+        s3Properties.setPartSize(8);
+        final byte[] rndBytes = randomBytes();
+        final String knownSHA1 = getSha1OfBytes(rndBytes);
+        final String knownContentType = "application/octet-stream";
+
+        final InitiateMultipartUploadResult initiateResult = new InitiateMultipartUploadResult();
+        initiateResult.setUploadId("upload");
+        when(amazonS3Mock.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class)))
+                .thenReturn(initiateResult);
+        when(amazonS3Mock.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+            final UploadPartResult result = new UploadPartResult();
+            result.setPartNumber(((UploadPartRequest) invocation.getArguments()[0]).getPartNumber());
+            result.setETag("etag");
+            return result;
+        });
+
+        // test
+        storeRandomBytes(rndBytes, knownContentType);
+
+        // verify
+        Mockito.verify(amazonS3Mock, times(3)).uploadPart(any(UploadPartRequest.class));
+        Mockito.verify(amazonS3Mock).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        final ArgumentCaptor<CopyObjectRequest> copyCaptor = ArgumentCaptor.forClass(CopyObjectRequest.class);
+        Mockito.verify(amazonS3Mock).copyObject(copyCaptor.capture());
+        assertThat(copyCaptor.getValue().getDestinationKey()).isEqualTo(knownSHA1);
+        Mockito.verify(amazonS3Mock).deleteObject(any(DeleteObjectRequest.class));
+        Mockito.verify(amazonS3Mock, never()).putObject(anyString(), anyString(), any(InputStream.class),
+                any(ObjectMetadata.class));
+    }
+
+    @Test
+    @Description("Verifies that the content is not uploaded but verified if the provided SHA1 hash already exists on S3")
+    public void artifactIsNotUploadedIfProvidedHashAlreadyExists() throws NoSuchAlgorithmException, IOException {
+        final byte[] rndBytes = randomBytes();
+        final String knownSHA1 = getSha1OfBytes(rndBytes);
+
+        when(amazonS3Mock.doesObjectExist(s3Properties.getBucketName(), knownSHA1)).thenReturn(true);
+
+        // test
+        final DbArtifact artifact = storeRandomBytesAndGet(rndBytes, new DbArtifactHash(knownSHA1, null));
+
+        // verify
+        assertThat(artifact.getHashes().getSha1()).isEqualTo(knownSHA1);
+        assertThat(artifact.getSize()).isEqualTo(rndBytes.length);
+        Mockito.verify(amazonS3Mock, never()).putObject(anyString(), anyString(), any(InputStream.class),
+                any(ObjectMetadata.class));
+        Mockito.verify(amazonS3Mock, never()).initiateMultipartUpload(any(InitiateMultipartUploadRequest.class));
+    }
+
     @Test
     @Description("Verifies that the amazonS3 client is called to retrieve the correct artifact from S3 and the mapping to the DBArtifact is correct")
     public void getArtifactBySHA1Hash() {
@@ -205,6 +266,13 @@ public class S3RepositoryTest {
         }
     }
 
+    private DbArtifact storeRandomBytesAndGet(final byte[] rndBytes, final DbArtifactHash hashes)
+            throws IOException {
+        try (InputStream content = new ByteArrayInputStream(rndBytes)) {
+            return s3RepositoryUnderTest.store(content, "randomBytes", "application/octet-stream", hashes);
+        }
+    }
+
     private static String getSha1OfBytes(final byte[] bytes) throws IOException, NoSuchAlgorithmException {
         final MessageDigest messageDigest = MessageDigest.getInstance("SHA1");
 
@@ -13,16 +13,19 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
+import java.nio.file.Path;
 
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
+import org.eclipse.hawkbit.artifact.repository.model.LocalFileArtifact;
 
 import com.google.common.base.Throwables;
 
 /**
  * A {@link DbArtifact} implementation which dynamically creates a
- * {@link FileInputStream} on calling {@link #getFileInputStream()}.
+ * {@link FileInputStream} on calling {@link #getFileInputStream()}. As
+ * {@link LocalFileArtifact} it also exposes the file for zero-copy transfers.
  */
-public class ArtifactFilesystem extends DbArtifact {
+public class ArtifactFilesystem extends DbArtifact implements LocalFileArtifact {
 
     private final File file;
 
@@ -41,4 +44,9 @@ public class ArtifactFilesystem extends DbArtifact {
             throw Throwables.propagate(e);
         }
     }
+
+    @Override
+    public Path getFilePath() {
+        return file.toPath();
+    }
 }
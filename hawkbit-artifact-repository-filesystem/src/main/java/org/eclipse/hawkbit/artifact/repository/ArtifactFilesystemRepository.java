@@ -8,27 +8,21 @@
  */
 package org.eclipse.hawkbit.artifact.repository;
 
-import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.DigestOutputStream;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 
 import org.apache.commons.io.FileUtils;
-import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
+import org.eclipse.hawkbit.artifact.repository.ArtifactUploadPipeline.HashingInputStream;
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
 
 import com.google.common.base.Splitter;
-import com.google.common.io.BaseEncoding;
-import com.google.common.io.ByteStreams;
-import com.google.common.io.Files;
 
 /**
  * Implementation of the {@link ArtifactRepository} to store artifacts on the
@@ -41,22 +35,43 @@ import com.google.common.io.Files;
  * Due the limit of many file-systems of files within one directory, the files
  * are stored in different sub-directories based on the last four digits of the
  * SHA1-hash {@code (/basepath/[two digit sha1]/[two digit sha1])}.
+ * 
+ * An upload is spooled into a temporary file in the base directory, i.e. on
+ * the same file-system as the final location, so that it can be renamed
+ * atomically after the hashes have been calculated by the
+ * {@link ArtifactUploadPipeline}.
  */
 public class ArtifactFilesystemRepository implements ArtifactRepository {
 
     private static final String TEMP_FILE_PREFIX = "tmp";
     private static final String TEMP_FILE_SUFFIX = "artifactrepo";
     private final ArtifactFilesystemProperties artifactResourceProperties;
+    private final ArtifactUploadPipeline uploadPipeline;
 
     /**
-     * Constructor.
+     * Constructor. The artifacts are hashed in the reading thread.
      * 
      * @param artifactResourceProperties
      *            the properties which holds the necessary configuration for the
      *            file-system repository
      */
     public ArtifactFilesystemRepository(final ArtifactFilesystemProperties artifactResourceProperties) {
+        this(artifactResourceProperties, ArtifactUploadPipeline.inCallingThread());
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param artifactResourceProperties
+     *            the properties which holds the necessary configuration for the
+     *            file-system repository
+     * @param uploadPipeline
+     *            to hash the uploaded artifacts
+     */
+    public ArtifactFilesystemRepository(final ArtifactFilesystemProperties artifactResourceProperties,
+            final ArtifactUploadPipeline uploadPipeline) {
         this.artifactResourceProperties = artifactResourceProperties;
+        this.uploadPipeline = uploadPipeline;
     }
 
     @Override
@@ -65,24 +80,23 @@ public class ArtifactFilesystemRepository implements ArtifactRepository {
     }
 
     @Override
-    // suppress warning, of not strong enough hashing algorithm, SHA-1 and MD5
-    // is not used security related
-    @SuppressWarnings("squid:S2070")
     public ArtifactFilesystem store(final InputStream content, final String filename, final String contentType,
             final DbArtifactHash hash) {
-
-        final MessageDigest mdSHA1;
-        final MessageDigest mdMD5;
+        // validates the provided hash before it is used as a file name
+        final boolean sha1Provided = ArtifactUploadPipeline.isSha1Provided(hash);
+        final HashingInputStream hashingContent = uploadPipeline.open(content);
         try {
-            mdSHA1 = MessageDigest.getInstance("SHA1");
-            mdMD5 = MessageDigest.getInstance("MD5");
-        } catch (final NoSuchAlgorithmException e) {
+            if (sha1Provided && getFile(hash.getSha1()).exists()) {
+                // the content has to be verified even if it is not stored
+                final DbArtifactHash calculated = hashingContent.exhaust().getHashes();
+                ArtifactUploadPipeline.checkHashes(calculated, hash);
+                return createArtifact(getFile(calculated.getSha1()), calculated, hashingContent.getSize(),
+                        contentType);
+            }
+            return spool(hashingContent, contentType, hash);
+        } catch (final IOException e) {
             throw new ArtifactStoreException(e.getMessage(), e);
         }
-
-        final File file = createTempFile();
-        final DbArtifact artifact = store(content, contentType, hash, mdSHA1, mdMD5, file);
-        return renameFileToSHA1Naming(file, artifact);
     }
 
     @Override
@@ -103,78 +117,58 @@ public class ArtifactFilesystemRepository implements ArtifactRepository {
         return artifact;
     }
 
-    private DbArtifact store(final InputStream content, final String contentType, final DbArtifactHash hash,
-            final MessageDigest mdSHA1, final MessageDigest mdMD5, final File file) {
-        final DbArtifact artifact = new DbArtifact();
-        try (final DigestOutputStream outputstream = openFileOutputStream(file, mdSHA1, mdMD5)) {
-            final long artifactSize = ByteStreams.copy(content, outputstream);
-            outputstream.flush();
-            final String sha1Hash = BaseEncoding.base16().lowerCase().encode(mdSHA1.digest());
-            final String md5Hash = BaseEncoding.base16().lowerCase().encode(mdMD5.digest());
-            artifact.setArtifactId(sha1Hash);
-            artifact.setSize(artifactSize);
-            artifact.setContentType(contentType);
-            artifact.setHashes(new DbArtifactHash(sha1Hash, md5Hash));
-            checkHashes(artifact, hash);
-        } catch (final IOException e) {
-            throw new ArtifactStoreException(e.getMessage(), e);
-        } catch (final HashNotMatchException e) {
-            file.delete();
-            throw e;
+    private ArtifactFilesystem spool(final HashingInputStream content, final String contentType,
+            final DbArtifactHash hash) throws IOException {
+        final Path tempFile = createTempFile();
+        try {
+            Files.copy(content, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            final DbArtifactHash calculated = content.getHashes();
+            ArtifactUploadPipeline.checkHashes(calculated, hash);
+
+            final File fileSHA1Naming = getFile(calculated.getSha1());
+            if (!fileSHA1Naming.exists()) {
+                fileSHA1Naming.getParentFile().mkdirs();
+                moveAtomically(tempFile, fileSHA1Naming.toPath());
+            }
+            return createArtifact(fileSHA1Naming, calculated, content.getSize(), contentType);
+        } finally {
+            Files.deleteIfExists(tempFile);
         }
-        return artifact;
     }
 
-    private ArtifactFilesystem renameFileToSHA1Naming(final File file, final DbArtifact artifact) {
-        final File fileSHA1Naming = getFile(artifact.getHashes().getSha1());
-        final ArtifactFilesystem fileSystemArtifact = new ArtifactFilesystem(fileSHA1Naming);
-        if (fileSHA1Naming.exists()) {
-            FileUtils.deleteQuietly(file);
-        } else {
+    private static void moveAtomically(final Path source, final Path target) {
+        try {
             try {
-                Files.move(file, fileSHA1Naming);
-            } catch (final IOException e) {
-                throw new ArtifactStoreException("Could not store the file " + fileSHA1Naming, e);
+                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
             }
+        } catch (final IOException e) {
+            throw new ArtifactStoreException("Could not store the file " + target, e);
         }
-
-        file.delete();
-        fileSystemArtifact.setArtifactId(artifact.getArtifactId());
-        fileSystemArtifact.setContentType(artifact.getContentType());
-        fileSystemArtifact.setHashes(artifact.getHashes());
-        fileSystemArtifact.setSize(artifact.getSize());
-        return fileSystemArtifact;
     }
 
-    private DbArtifact checkHashes(final DbArtifact artifact, final DbArtifactHash hash) {
-        if (hash == null) {
-            return artifact;
-        }
-        if (hash.getSha1() != null && !artifact.getHashes().getSha1().equals(hash.getSha1())) {
-            throw new HashNotMatchException("The given sha1 hash " + hash.getSha1()
-                    + " does not match with the calcualted sha1 hash " + artifact.getHashes().getSha1(),
-                    HashNotMatchException.SHA1);
-        }
-        if (hash.getMd5() != null && !artifact.getHashes().getMd5().equals(hash.getMd5())) {
-            throw new HashNotMatchException("The given md5 hash " + hash.getMd5()
-                    + " does not match with the calcualted md5 hash " + artifact.getHashes().getMd5(),
-                    HashNotMatchException.MD5);
-        }
-        return artifact;
+    private static ArtifactFilesystem createArtifact(final File file, final DbArtifactHash hashes, final long size,
+            final String contentType) {
+        final ArtifactFilesystem fileSystemArtifact = new ArtifactFilesystem(file);
+        fileSystemArtifact.setArtifactId(hashes.getSha1());
+        fileSystemArtifact.setContentType(contentType);
+        fileSystemArtifact.setHashes(hashes);
+        fileSystemArtifact.setSize(size);
+        return fileSystemArtifact;
     }
 
-    private File createTempFile() {
+    private Path createTempFile() {
         try {
-            return File.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+            final Path basePath = Files.createDirectories(Paths.get(artifactResourceProperties.getPath()));
+            return Files.createTempFile(basePath, TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
         } catch (final IOException e) {
             throw new ArtifactStoreException("Cannot create tempfile", e);
         }
     }
 
     private File getFile(final String sha1) {
-        final File aritfactDirectory = getSha1DirectoryPath(sha1).toFile();
-        aritfactDirectory.mkdirs();
-        return new File(aritfactDirectory, sha1);
+        return new File(getSha1DirectoryPath(sha1).toFile(), sha1);
     }
 
     private Path getSha1DirectoryPath(final String sha1) {
@@ -184,10 +178,4 @@ public class ArtifactFilesystemRepository implements ArtifactRepository {
         final String folder2 = folders.get(1);
         return Paths.get(artifactResourceProperties.getPath(), folder1, folder2);
     }
-
-    private DigestOutputStream openFileOutputStream(final File file, final MessageDigest mdSHA1,
-            final MessageDigest mdMD5) throws FileNotFoundException {
-        return new DigestOutputStream(
-                new DigestOutputStream(new BufferedOutputStream(new FileOutputStream(file)), mdMD5), mdSHA1);
-    }
 }
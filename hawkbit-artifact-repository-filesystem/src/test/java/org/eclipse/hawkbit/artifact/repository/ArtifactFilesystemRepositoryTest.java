@@ -16,6 +16,7 @@ import java.util.Random;
 
 import org.apache.commons.io.IOUtils;
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
 import org.fest.assertions.api.Assertions;
 import org.junit.Test;
 
@@ -56,6 +57,41 @@ public class ArtifactFilesystemRepositoryTest {
         assertThat(artifactBySha1).isNotNull();
     }
 
+    @Test
+    @Description("Verfies that an already stored artifact is verified but not stored again if the client provides its hash")
+    public void storeExistingArtifactWithProvidedHash() {
+        final byte[] fileContent = randomBytes();
+        final ArtifactFilesystem artifact = storeRandomArtifact(fileContent);
+
+        final ArtifactFilesystem existing = artifactFilesystemRepository.store(new ByteArrayInputStream(fileContent),
+                "filename.tmp", "application/txt", new DbArtifactHash(artifact.getHashes().getSha1(), null));
+        assertThat(existing.getHashes().getSha1()).isEqualTo(artifact.getHashes().getSha1());
+        assertThat(existing.getHashes().getMd5()).isEqualTo(artifact.getHashes().getMd5());
+        assertThat(existing.getSize()).isEqualTo(fileContent.length);
+
+        try {
+            artifactFilesystemRepository.store(new ByteArrayInputStream(randomBytes()), "filename.tmp",
+                    "application/txt", new DbArtifactHash(artifact.getHashes().getSha1(), null));
+            Assertions.fail("Expected an HashNotMatchException, but didn't throw");
+        } catch (final HashNotMatchException e) {
+            assertThat(e.getHashFunction()).isEqualTo(HashNotMatchException.SHA1);
+        }
+    }
+
+    @Test
+    @Description("Verfies that a provided hash which is not a SHA1 hash is refused before it is used as a file name")
+    public void storeWithInvalidProvidedHashIsRefused() {
+        for (final String invalid : new String[] { "abc", "../../../../../../tmp/0123456789012345678901234567890" }) {
+            try {
+                artifactFilesystemRepository.store(new ByteArrayInputStream(randomBytes()), "filename.tmp",
+                        "application/txt", new DbArtifactHash(invalid, null));
+                Assertions.fail("Expected an HashNotMatchException, but didn't throw");
+            } catch (final HashNotMatchException e) {
+                assertThat(e.getHashFunction()).isEqualTo(HashNotMatchException.SHA1);
+            }
+        }
+    }
+
     @Test
     @Description("Verfies that an artifact can be deleted in the file-system repository")
     public void deleteStoredArtifactBySHA1Hash() {
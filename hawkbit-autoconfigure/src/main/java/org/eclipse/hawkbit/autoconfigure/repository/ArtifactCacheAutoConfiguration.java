@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.repository;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.artifact.repository.ArtifactCacheProperties;
+import org.eclipse.hawkbit.artifact.repository.ArtifactRepository;
+import org.eclipse.hawkbit.artifact.repository.ArtifactUploadPipeline;
+import org.eclipse.hawkbit.artifact.repository.CachingArtifactRepository;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Auto configuration of the local disk cache in front of the
+ * {@link ArtifactRepository}. The cache is only useful for remote
+ * repositories, e.g. S3 or MongoDB, and has to be enabled by
+ * {@code hawkbit.artifact.cache.enabled}. The cache is filled by the
+ * {@code artifactCacheFillExecutor} and its evicted files are deleted
+ * periodically by the {@link ScheduledExecutorService}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "hawkbit.artifact.cache", name = "enabled")
+@EnableConfigurationProperties(ArtifactCacheProperties.class)
+public class ArtifactCacheAutoConfiguration {
+
+    /**
+     * The post processor is static as it has to be instantiated before the
+     * other beans of the context.
+     * 
+     * @return the post processor that decorates the {@link ArtifactRepository}
+     *         with the {@link CachingArtifactRepository}
+     */
+    @Bean
+    public static BeanPostProcessor cachingArtifactRepositoryPostProcessor() {
+        return new CachingArtifactRepositoryPostProcessor();
+    }
+
+    private static final class CachingArtifactRepositoryPostProcessor implements BeanPostProcessor, BeanFactoryAware {
+
+        private static final long MIN_DELETION_PERIOD = TimeUnit.SECONDS.toMillis(1);
+
+        private BeanFactory beanFactory;
+
+        @Override
+        public void setBeanFactory(final BeanFactory beanFactory) {
+            this.beanFactory = beanFactory;
+        }
+
+        @Override
+        public Object postProcessBeforeInitialization(final Object bean, final String beanName) {
+            return bean;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+            if (bean instanceof ArtifactRepository && !(bean instanceof CachingArtifactRepository)) {
+                final ArtifactCacheProperties properties = beanFactory.getBean(ArtifactCacheProperties.class);
+                final CachingArtifactRepository cache = new CachingArtifactRepository((ArtifactRepository) bean,
+                        properties, beanFactory.getBean(ArtifactUploadPipeline.class),
+                        beanFactory.getBean("artifactCacheFillExecutor", Executor.class));
+                final long period = Math.max(properties.getEvictionDelay(), MIN_DELETION_PERIOD);
+                beanFactory.getBean(ScheduledExecutorService.class).scheduleWithFixedDelay(cache::deleteRetired,
+                        period, period, TimeUnit.MILLISECONDS);
+                return cache;
+            }
+            return bean;
+        }
+    }
+}
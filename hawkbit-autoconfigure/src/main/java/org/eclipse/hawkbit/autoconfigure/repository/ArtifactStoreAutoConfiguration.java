@@ -11,6 +11,7 @@ package org.eclipse.hawkbit.autoconfigure.repository;
 import org.eclipse.hawkbit.artifact.repository.ArtifactFilesystemProperties;
 import org.eclipse.hawkbit.artifact.repository.ArtifactFilesystemRepository;
 import org.eclipse.hawkbit.artifact.repository.ArtifactRepository;
+import org.eclipse.hawkbit.artifact.repository.ArtifactUploadPipeline;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -27,10 +28,13 @@ public class ArtifactStoreAutoConfiguration {
     /**
      * @param artifactFilesystemProperties
      *            the artifact file system properties
+     * @param uploadPipeline
+     *            to hash the uploaded artifacts
      * @return Default {@link ArtifactRepository} implementation.
      */
     @Bean
-    public ArtifactRepository artifactRepository(final ArtifactFilesystemProperties artifactFilesystemProperties) {
-        return new ArtifactFilesystemRepository(artifactFilesystemProperties);
+    public ArtifactRepository artifactRepository(final ArtifactFilesystemProperties artifactFilesystemProperties,
+            final ArtifactUploadPipeline uploadPipeline) {
+        return new ArtifactFilesystemRepository(artifactFilesystemProperties, uploadPipeline);
     }
 }
@@ -0,0 +1,39 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.repository;
+
+import java.util.concurrent.Executor;
+
+import org.eclipse.hawkbit.artifact.repository.ArtifactRepository;
+import org.eclipse.hawkbit.artifact.repository.ArtifactUploadPipeline;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Auto configuration of the {@link ArtifactUploadPipeline} that is shared by
+ * the {@link ArtifactRepository} implementations.
+ */
+@Configuration
+public class ArtifactUploadPipelineAutoConfiguration {
+
+    /**
+     * @param hashingExecutor
+     *            the executor the hashes are calculated on
+     * @return the {@link ArtifactUploadPipeline} if no other one is registered
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ArtifactUploadPipeline artifactUploadPipeline(
+            @Qualifier("artifactHashingExecutor") final Executor hashingExecutor) {
+        return new ArtifactUploadPipeline(hashingExecutor, ArtifactUploadPipeline.DEFAULT_CHUNK_SIZE,
+                ArtifactUploadPipeline.DEFAULT_MAX_PENDING_CHUNKS);
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutScheduler;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Auto configuration which publishes the state of the tenant checks of the
+ * {@link RolloutScheduler} as actuator metrics if the actuator is on the
+ * classpath.
+ */
+@Configuration
+@ConditionalOnClass({ PublicMetrics.class, RolloutScheduler.class })
+@ConditionalOnBean(RolloutScheduler.class)
+public class RolloutSchedulerMetricsAutoConfiguration {
+
+    /**
+     * @param rolloutScheduler
+     *            the scheduler to publish the metrics of
+     * @return the metrics <code>rollout.checks.inProgress</code>,
+     *         <code>rollout.checks.overBudget</code> and
+     *         <code>rollout.checks.duration.&lt;check&gt;.&lt;tenant&gt;</code>
+     */
+    @Bean
+    public PublicMetrics rolloutSchedulerMetrics(final RolloutScheduler rolloutScheduler) {
+        return () -> {
+            final List<Metric<?>> metrics = new ArrayList<>();
+            metrics.add(new Metric<>("rollout.checks.inProgress", rolloutScheduler.getChecksInProgress()));
+            metrics.add(new Metric<>("rollout.checks.overBudget", rolloutScheduler.getChecksOverBudget()));
+            rolloutScheduler.getLastCheckDurations().forEach(
+                    (check, duration) -> metrics.add(new Metric<>("rollout.checks.duration." + check, duration)));
+            return metrics;
+        };
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.repository;
+
+import java.util.Arrays;
+
+import org.eclipse.hawkbit.repository.jpa.rsql.RSQLUtility;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.google.common.cache.CacheStats;
+
+/**
+ * Auto configuration which publishes the statistics of the cache of compiled
+ * RSQL queries, see {@link RSQLUtility#getCacheStats()}, as actuator metrics
+ * if the actuator is on the classpath.
+ */
+@Configuration
+@ConditionalOnClass({ PublicMetrics.class, RSQLUtility.class })
+public class RsqlCacheMetricsAutoConfiguration {
+
+    /**
+     * @return the metrics <code>rsql.cache.hits</code>,
+     *         <code>rsql.cache.misses</code>,
+     *         <code>rsql.cache.evictions</code> and
+     *         <code>rsql.cache.size</code>
+     */
+    @Bean
+    public PublicMetrics rsqlCacheMetrics() {
+        return () -> {
+            final CacheStats stats = RSQLUtility.getCacheStats();
+            return Arrays.<Metric<?>> asList(new Metric<>("rsql.cache.hits", stats.hitCount()),
+                    new Metric<>("rsql.cache.misses", stats.missCount()),
+                    new Metric<>("rsql.cache.evictions", stats.evictionCount()),
+                    new Metric<>("rsql.cache.size", RSQLUtility.getCacheSize()));
+        };
+    }
+}
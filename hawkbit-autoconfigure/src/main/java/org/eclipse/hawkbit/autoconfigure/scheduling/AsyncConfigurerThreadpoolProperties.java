@@ -43,6 +43,41 @@ public class AsyncConfigurerThreadpoolProperties {
      */
     private Long idletimeout = 10000L;
 
+    /**
+     * Thread pool of the background fills of the local artifact cache.
+     */
+    private final Pool artifactCacheFill = new Pool(2, 100);
+
+    /**
+     * Thread pool the hashes of the uploaded artifacts are calculated on.
+     */
+    private final Pool artifactHashing = new Pool(Math.max(3, Runtime.getRuntime().availableProcessors()), 1_000);
+
+    /**
+     * Thread pool of the tenant deletions that run in the background.
+     */
+    private final Pool tenantDeletion = new Pool(1, 100);
+
+    /**
+     * Thread pool that deletes the artifact binaries of deleted tenants.
+     */
+    private final Pool tenantBinaryCleanup = new Pool(4, 1_000);
+
+    /**
+     * Thread pool of the target imports that run in the background.
+     */
+    private final Pool targetImport = new Pool(2, 100);
+
+    /**
+     * Thread pool that regenerates the cached dashboard reports.
+     */
+    private final Pool reportRefresh = new Pool(1, 100);
+
+    /**
+     * Thread pool that checks the rollouts of the tenants in parallel.
+     */
+    private final Pool rolloutCheck = new Pool(4, 1_000);
+
     public Integer getQueuesize() {
         return queuesize;
     }
@@ -83,4 +118,77 @@ public class AsyncConfigurerThreadpoolProperties {
         this.schedulerThreads = schedulerThreads;
     }
 
+    public Pool getArtifactCacheFill() {
+        return artifactCacheFill;
+    }
+
+    public Pool getArtifactHashing() {
+        return artifactHashing;
+    }
+
+    public Pool getTenantDeletion() {
+        return tenantDeletion;
+    }
+
+    public Pool getTenantBinaryCleanup() {
+        return tenantBinaryCleanup;
+    }
+
+    public Pool getTargetImport() {
+        return targetImport;
+    }
+
+    public Pool getReportRefresh() {
+        return reportRefresh;
+    }
+
+    public Pool getRolloutCheck() {
+        return rolloutCheck;
+    }
+
+    /**
+     * Properties of a dedicated thread pool.
+     */
+    public static class Pool {
+
+        /**
+         * Number of threads of the pool.
+         */
+        private int threads;
+
+        /**
+         * Max queue size of the pool. Tasks exceeding it are rejected.
+         */
+        private int queuesize;
+
+        /**
+         * Constructor.
+         *
+         * @param threads
+         *            default number of threads
+         * @param queuesize
+         *            default max queue size
+         */
+        public Pool(final int threads, final int queuesize) {
+            this.threads = threads;
+            this.queuesize = queuesize;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(final int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueuesize() {
+            return queuesize;
+        }
+
+        public void setQueuesize(final int queuesize) {
+            this.queuesize = queuesize;
+        }
+    }
+
 }
@@ -18,6 +18,7 @@ import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
 import java.util.concurrent.TimeUnit;
 
+import org.eclipse.hawkbit.autoconfigure.scheduling.AsyncConfigurerThreadpoolProperties.Pool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -104,6 +105,93 @@ public class ExecutorAutoConfiguration {
         return new DelegatingSecurityContextExecutor(threadPoolExecutor);
     }
 
+    /**
+     * @return the executor of the background fills of the local artifact
+     *         cache. Fills exceeding the queue are rejected and retried with
+     *         one of the next downloads.
+     */
+    @Bean(name = "artifactCacheFillExecutor", destroyMethod = "shutdownNow")
+    @ConditionalOnMissingBean(name = "artifactCacheFillExecutor")
+    public ExecutorService artifactCacheFillExecutor() {
+        return boundedExecutor("artifact-cache-fill-%d", asyncConfigurerProperties.getArtifactCacheFill());
+    }
+
+    /**
+     * @return the executor the hashes of the uploaded artifacts are
+     *         calculated on. Chunks exceeding the queue are hashed by the
+     *         submitting thread.
+     */
+    @Bean(name = "artifactHashingExecutor", destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(name = "artifactHashingExecutor")
+    public ExecutorService artifactHashingExecutor() {
+        final ThreadPoolExecutor executor = boundedExecutor("artifact-hashing-%d",
+                asyncConfigurerProperties.getArtifactHashing());
+        executor.setRejectedExecutionHandler(new CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * @return the executor of the tenant deletions that run in the
+     *         background. Deletions exceeding the queue are rejected.
+     */
+    @Bean(name = "tenantDeletionExecutor", destroyMethod = "shutdownNow")
+    @ConditionalOnMissingBean(name = "tenantDeletionExecutor")
+    public ExecutorService tenantDeletionExecutor() {
+        return boundedExecutor("tenant-deletion-%d", asyncConfigurerProperties.getTenantDeletion());
+    }
+
+    /**
+     * @return the executor that deletes the artifact binaries of deleted
+     *         tenants. Deletions exceeding the queue are run by the deleting
+     *         thread.
+     */
+    @Bean(name = "tenantBinaryCleanupExecutor", destroyMethod = "shutdownNow")
+    @ConditionalOnMissingBean(name = "tenantBinaryCleanupExecutor")
+    public ExecutorService tenantBinaryCleanupExecutor() {
+        final ThreadPoolExecutor executor = boundedExecutor("tenant-binary-cleanup-%d",
+                asyncConfigurerProperties.getTenantBinaryCleanup());
+        executor.setRejectedExecutionHandler(new CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * @return the executor of the target imports that run in the background.
+     *         Imports exceeding the queue are rejected.
+     */
+    @Bean(name = "targetImportExecutor", destroyMethod = "shutdownNow")
+    @ConditionalOnMissingBean(name = "targetImportExecutor")
+    public ExecutorService targetImportExecutor() {
+        return boundedExecutor("target-import-%d", asyncConfigurerProperties.getTargetImport());
+    }
+
+    /**
+     * @return the executor that regenerates the cached dashboard reports.
+     *         Regenerations exceeding the queue are rejected and retried with
+     *         the next request of the report.
+     */
+    @Bean(name = "reportRefreshExecutor", destroyMethod = "shutdownNow")
+    @ConditionalOnMissingBean(name = "reportRefreshExecutor")
+    public ExecutorService reportRefreshExecutor() {
+        return boundedExecutor("report-refresh-%d", asyncConfigurerProperties.getReportRefresh());
+    }
+
+    /**
+     * @return the executor that checks the rollouts of the tenants in
+     *         parallel. Checks exceeding the queue are rejected and retried
+     *         with the next run of the scheduler.
+     */
+    @Bean(name = "rolloutCheckExecutor", destroyMethod = "shutdownNow")
+    @ConditionalOnMissingBean(name = "rolloutCheckExecutor")
+    public ExecutorService rolloutCheckExecutor() {
+        return boundedExecutor("rollout-check-%d", asyncConfigurerProperties.getRolloutCheck());
+    }
+
+    private static ThreadPoolExecutor boundedExecutor(final String nameFormat, final Pool pool) {
+        return new ThreadPoolExecutor(pool.getThreads(), pool.getThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(pool.getQueuesize()),
+                new ThreadFactoryBuilder().setNameFormat(nameFormat).setDaemon(true).build());
+    }
+
     /**
      * @return {@link ScheduledExecutorService} with security context
      *         availability in thread execution.
@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.security;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.hawkbit.security.DosFilter;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Auto configuration which publishes the rejected requests and the tracked
+ * clients of the {@link DosFilter} as actuator metrics if the actuator is on
+ * the classpath.
+ */
+@Configuration
+@ConditionalOnClass({ PublicMetrics.class, DosFilter.class })
+@ConditionalOnBean(DosFilter.class)
+public class DosFilterMetricsAutoConfiguration {
+
+    /**
+     * @param dosFilter
+     *            the filter to publish the metrics of
+     * @return the metrics <code>dos.rejected.&lt;quota&gt;</code> and
+     *         <code>dos.tracked.&lt;quota&gt;</code>, e.g.
+     *         <code>dos.rejected.client.read</code>
+     */
+    @Bean
+    public PublicMetrics dosFilterMetrics(final DosFilter dosFilter) {
+        return () -> {
+            final List<Metric<?>> metrics = new ArrayList<>();
+            dosFilter.getRejectedRequests()
+                    .forEach((quota, rejected) -> metrics.add(new Metric<>("dos.rejected." + quota, rejected)));
+            dosFilter.getTrackedClients()
+                    .forEach((quota, tracked) -> metrics.add(new Metric<>("dos.tracked." + quota, tracked)));
+            return metrics;
+        };
+    }
+}
@@ -12,6 +12,7 @@ import org.eclipse.hawkbit.im.authentication.PermissionService;
 import org.eclipse.hawkbit.security.DdiSecurityProperties;
 import org.eclipse.hawkbit.security.SecurityContextTenantAware;
 import org.eclipse.hawkbit.security.SpringSecurityAuditorAware;
+import org.eclipse.hawkbit.security.TargetSecurityTokenCache;
 import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -51,6 +52,18 @@ public class SecurityAutoConfiguration {
         return new PermissionService();
     }
 
+    /**
+     * @param ddiSecurityProperties
+     *            for the cache configuration
+     * @return the cache of the target security tokens used for the
+     *         authentication of the controllers
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public TargetSecurityTokenCache targetSecurityTokenCache(final DdiSecurityProperties ddiSecurityProperties) {
+        return new TargetSecurityTokenCache(ddiSecurityProperties);
+    }
+
     /**
      * Creates the auditore aware.
      * 
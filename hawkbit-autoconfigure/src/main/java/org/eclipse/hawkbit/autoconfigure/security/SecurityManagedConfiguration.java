@@ -43,6 +43,7 @@ import org.eclipse.hawkbit.security.HttpControllerPreAuthenticatedSecurityHeader
 import org.eclipse.hawkbit.security.HttpDownloadAuthenticationFilter;
 import org.eclipse.hawkbit.security.PreAuthTokenSourceTrustAuthenticationProvider;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.eclipse.hawkbit.security.TargetSecurityTokenCache;
 import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -148,6 +149,9 @@ public class SecurityManagedConfiguration {
         @Autowired
         private SecurityProperties springSecurityProperties;
 
+        @Autowired
+        private TargetSecurityTokenCache targetSecurityTokenCache;
+
         @Autowired
         private SystemSecurityContext systemSecurityContext;
 
@@ -165,7 +169,8 @@ public class SecurityManagedConfiguration {
             securityHeaderFilter.setAuthenticationDetailsSource(authenticationDetailsSource);
 
             final HttpControllerPreAuthenticateSecurityTokenFilter securityTokenFilter = new HttpControllerPreAuthenticateSecurityTokenFilter(
-                    tenantConfigurationManagement, tenantAware, controllerManagement, systemSecurityContext);
+                    tenantConfigurationManagement, tenantAware, controllerManagement, systemSecurityContext,
+                    targetSecurityTokenCache);
             securityTokenFilter.setAuthenticationManager(authenticationManager());
             securityTokenFilter.setCheckForPrincipalChanges(true);
             securityTokenFilter.setAuthenticationDetailsSource(authenticationDetailsSource);
@@ -220,22 +225,33 @@ public class SecurityManagedConfiguration {
         }
     }
 
+    /**
+     * Filter to protect the SP server against denial of service attacks. The
+     * filter is a bean of its own to export its metrics.
+     *
+     * @return the denial of service protection filter
+     */
+    @Bean
+    public DosFilter dosFilterBean() {
+        return new DosFilter(securityProperties.getDos().getFilter(), securityProperties.getClients().getBlacklist(),
+                securityProperties.getClients().getRemoteIpHeader());
+    }
+
     /**
      * Filter to protect the SP server against denial of service attacks.
      *
+     * @param dosFilter
+     *            the filter to register
      * @return he spring filter registration bean for registering an denial of
      *         service protection filter in the filter chain
      */
     @Bean
     @Order(50)
-    public FilterRegistrationBean dosFilter() {
+    public FilterRegistrationBean dosFilter(final DosFilter dosFilter) {
 
         final FilterRegistrationBean filterRegBean = new FilterRegistrationBean();
 
-        filterRegBean.setFilter(new DosFilter(securityProperties.getDos().getFilter().getMaxRead(),
-                securityProperties.getDos().getFilter().getMaxWrite(),
-                securityProperties.getDos().getFilter().getWhitelist(), securityProperties.getClients().getBlacklist(),
-                securityProperties.getClients().getRemoteIpHeader()));
+        filterRegBean.setFilter(dosFilter);
         filterRegBean.addUrlPatterns("/{tenant}/controller/v1/*", "/rest/*");
 
         return filterRegBean;
@@ -256,9 +272,17 @@ public class SecurityManagedConfiguration {
         // in the ShallowEtagHeaderFilter, just using the SH1 hash of the
         // artifact itself as 'ETag', because otherwise the file will be copied
         // in memory!
+        // The resources behind the deep ETag URLs calculate the 'ETag' from
+        // the entity versions on their own.
         filterRegBean.setFilter(new ExcludePathAwareShallowETagFilter(
-                "/rest/v1/softwaremodules/{smId}/artifacts/{artId}/download", "/{tenant}/controller/artifacts/**",
-                "/{targetid}/softwaremodules/{softwareModuleId}/artifacts/**"));
+                new String[] { "/rest/v1/softwaremodules/{smId}/artifacts/{artId}/download",
+                        "/{tenant}/controller/artifacts/**",
+                        "/{targetid}/softwaremodules/{softwareModuleId}/artifacts/**" },
+                new String[] { "/{tenant}/controller/v1/{controllerId}",
+                        "/{tenant}/controller/v1/{controllerId}/deploymentBase/{actionId}",
+                        MgmtRestConstants.TARGET_V1_REQUEST_MAPPING + "/{controllerId}",
+                        MgmtRestConstants.DISTRIBUTIONSET_V1_REQUEST_MAPPING + "/{distributionSetId}",
+                        MgmtRestConstants.SOFTWAREMODULE_V1_REQUEST_MAPPING + "/{softwareModuleId}" }));
 
         return filterRegBean;
     }
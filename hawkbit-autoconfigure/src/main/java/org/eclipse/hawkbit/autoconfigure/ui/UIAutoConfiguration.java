@@ -12,11 +12,11 @@ import java.util.concurrent.ScheduledExecutorService;
 
 import org.eclipse.hawkbit.DistributedResourceBundleMessageSource;
 import org.eclipse.hawkbit.ui.push.DelayedEventBusPushStrategy;
+import org.eclipse.hawkbit.ui.push.EventPushDispatcher;
 import org.eclipse.hawkbit.ui.push.EventPushStrategy;
 import org.eclipse.hawkbit.ui.push.HawkbitEventProvider;
 import org.eclipse.hawkbit.ui.push.UIEventProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
-import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.vaadin.spring.annotation.EnableVaadinExtensions;
@@ -56,25 +56,40 @@ public class UIAutoConfiguration {
         return new HawkbitEventProvider();
     }
 
+    /**
+     * The shared dispatcher which fans out the events to the push strategies
+     * of the UIs.
+     * 
+     * @param executorService
+     *            to run the dispatch
+     * @param eventProvider
+     *            which holds the supported events for the UI
+     * 
+     * @return the dispatcher bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public EventPushDispatcher eventPushDispatcher(final ScheduledExecutorService executorService,
+            final UIEventProvider eventProvider) {
+        return new EventPushDispatcher(executorService, eventProvider);
+    }
+
     /**
      * The UI scoped event push strategy. Session scope is necessary, that every
      * UI has an own strategy.
      * 
-     * @param applicationContext
-     *            the context to add the listener
+     * @param dispatcher
+     *            which offers the events to the strategy
+     * @param eventBus
+     *            the UI event bus
      * 
      * @return the provider bean
      */
     @Bean
     @ConditionalOnMissingBean
     @UIScope
-    public EventPushStrategy eventPushStrategy(final ConfigurableApplicationContext applicationContext,
-            final ScheduledExecutorService executorService, final UIEventBus eventBus,
-            final UIEventProvider eventProvider) {
-        final DelayedEventBusPushStrategy delayedEventBusPushStrategy = new DelayedEventBusPushStrategy(executorService,
-                eventBus, eventProvider);
-        applicationContext.addApplicationListener(delayedEventBusPushStrategy);
-        return delayedEventBusPushStrategy;
+    public EventPushStrategy eventPushStrategy(final EventPushDispatcher dispatcher, final UIEventBus eventBus) {
+        return new DelayedEventBusPushStrategy(dispatcher, eventBus);
     }
 
 }
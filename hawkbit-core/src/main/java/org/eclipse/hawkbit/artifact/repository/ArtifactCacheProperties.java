@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.artifact.repository;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties of the local disk cache in front of a remote
+ * {@link ArtifactRepository}, see {@link CachingArtifactRepository}.
+ */
+@ConfigurationProperties("hawkbit.artifact.cache")
+public class ArtifactCacheProperties {
+
+    /**
+     * True to cache the artifacts of a remote repository on the local disk.
+     */
+    private boolean enabled;
+
+    /**
+     * The directory of the cached artifacts.
+     */
+    private String path = "./artifactcache";
+
+    /**
+     * Maximum size of all cached artifacts in bytes. The least recently used
+     * artifacts are evicted if exceeded. Larger artifacts are not cached at
+     * all.
+     */
+    private long maxSize = 10L * 1024 * 1024 * 1024;
+
+    /**
+     * Time in milliseconds an evicted artifact is kept on the local disk before
+     * it is deleted, i.e. downloads that got the artifact before its eviction
+     * can still open the file.
+     */
+    private long evictionDelay = TimeUnit.MINUTES.toMillis(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(final String path) {
+        this.path = path;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(final long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public long getEvictionDelay() {
+        return evictionDelay;
+    }
+
+    public void setEvictionDelay(final long evictionDelay) {
+        this.evictionDelay = evictionDelay;
+    }
+
+}
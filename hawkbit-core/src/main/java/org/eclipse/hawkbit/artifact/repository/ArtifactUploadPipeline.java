@@ -0,0 +1,331 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.artifact.repository;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Pattern;
+
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
+
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.MoreExecutors;
+
+/**
+ * Shared upload pipeline of the {@link ArtifactRepository} implementations.
+ * The content of an upload is read only once by the repository which spools it
+ * into its store while the SHA1, MD5 and SHA-256 hashes of the read chunks are
+ * calculated in parallel on a bounded thread pool, see
+ * {@link #open(InputStream)}.
+ *
+ * The memory of an upload is bounded by the number of chunks that are not
+ * hashed yet, i.e. a reader that is faster than the hashing is blocked.
+ */
+public class ArtifactUploadPipeline {
+
+    /**
+     * Default size of the chunks the content is hashed in.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Default number of chunks of an upload that are read but not hashed yet.
+     */
+    public static final int DEFAULT_MAX_PENDING_CHUNKS = 16;
+
+    private static final String[] ALGORITHMS = { "SHA-1", "MD5", "SHA-256" };
+
+    private static final Pattern SHA1_PATTERN = Pattern.compile("[0-9a-fA-F]{40}");
+
+    private final Executor executor;
+
+    private final int chunkSize;
+
+    private final int maxPendingChunks;
+
+    /**
+     * Constructor.
+     *
+     * @param executor
+     *            the bounded pool the hashes are calculated on
+     * @param chunkSize
+     *            size of the chunks the content is hashed in
+     * @param maxPendingChunks
+     *            number of chunks of an upload that are read but not hashed
+     *            yet
+     */
+    public ArtifactUploadPipeline(final Executor executor, final int chunkSize, final int maxPendingChunks) {
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.maxPendingChunks = maxPendingChunks;
+    }
+
+    /**
+     * @return a pipeline that hashes the content in the reading thread, for
+     *         repositories that are not configured with a pooled one
+     */
+    public static ArtifactUploadPipeline inCallingThread() {
+        return new ArtifactUploadPipeline(MoreExecutors.directExecutor(), DEFAULT_CHUNK_SIZE,
+                DEFAULT_MAX_PENDING_CHUNKS);
+    }
+
+    /**
+     * Wraps the content of an upload so that all bytes read from it are
+     * hashed in parallel. The hashes are available by
+     * {@link HashingInputStream#getHashes()} after the content has been read
+     * completely.
+     *
+     * @param content
+     *            of the upload
+     * @return the hashing stream of the content
+     */
+    public HashingInputStream open(final InputStream content) {
+        return new HashingInputStream(content);
+    }
+
+    /**
+     * Checks the calculated hashes of an upload against the hashes provided by
+     * the client.
+     *
+     * @param calculated
+     *            the hashes of the uploaded content
+     * @param provided
+     *            the hashes provided by the client or <code>null</code>
+     *
+     * @throws HashNotMatchException
+     *             if a provided hash does not match the calculated one
+     */
+    public static void checkHashes(final DbArtifactHash calculated, final DbArtifactHash provided) {
+        if (provided == null) {
+            return;
+        }
+        if (provided.getSha1() != null && !calculated.getSha1().equalsIgnoreCase(provided.getSha1())) {
+            throw new HashNotMatchException("The given sha1 hash " + provided.getSha1()
+                    + " does not match with the calculated sha1 hash " + calculated.getSha1(),
+                    HashNotMatchException.SHA1);
+        }
+        if (provided.getMd5() != null && !calculated.getMd5().equalsIgnoreCase(provided.getMd5())) {
+            throw new HashNotMatchException("The given md5 hash " + provided.getMd5()
+                    + " does not match with the calculated md5 hash " + calculated.getMd5(),
+                    HashNotMatchException.MD5);
+        }
+        if (provided.getSha256() != null && !calculated.getSha256().equalsIgnoreCase(provided.getSha256())) {
+            throw new HashNotMatchException("The given sha256 hash " + provided.getSha256()
+                    + " does not match with the calculated sha256 hash " + calculated.getSha256(),
+                    HashNotMatchException.SHA256);
+        }
+    }
+
+    /**
+     * @param provided
+     *            the hashes provided by the client or <code>null</code>
+     * @return <code>true</code> if the client provided the SHA1 hash which
+     *         allows to look up an existing artifact before the content is
+     *         stored
+     *
+     * @throws HashNotMatchException
+     *             if the provided SHA1 hash is not a hex encoded SHA1 hash, as
+     *             it cannot match any content and must not be used to look up
+     *             an artifact
+     */
+    public static boolean isSha1Provided(final DbArtifactHash provided) {
+        if (provided == null || provided.getSha1() == null) {
+            return false;
+        }
+        if (!SHA1_PATTERN.matcher(provided.getSha1()).matches()) {
+            throw new HashNotMatchException("The given sha1 hash " + provided.getSha1() + " is not a valid sha1 hash",
+                    HashNotMatchException.SHA1);
+        }
+        return true;
+    }
+
+    /**
+     * {@link InputStream} which hashes the read content in chunks on the pool
+     * of the pipeline. The digests of the different algorithms are updated in
+     * parallel while the chunks of every single digest are processed in the
+     * order they have been read.
+     */
+    public final class HashingInputStream extends FilterInputStream {
+
+        private final MessageDigest[] digests;
+
+        @SuppressWarnings("unchecked")
+        private final CompletableFuture<Void>[] pendingUpdates = new CompletableFuture[ALGORITHMS.length];
+
+        private final Semaphore pendingChunks = new Semaphore(maxPendingChunks);
+
+        private byte[] chunk = new byte[chunkSize];
+
+        private int chunkLength;
+
+        private long size;
+
+        private DbArtifactHash hashes;
+
+        private HashingInputStream(final InputStream content) {
+            super(content);
+            digests = new MessageDigest[ALGORITHMS.length];
+            for (int i = 0; i < ALGORITHMS.length; i++) {
+                digests[i] = createDigest(ALGORITHMS[i]);
+                pendingUpdates[i] = CompletableFuture.completedFuture(null);
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] single = new byte[1];
+            final int read = read(single, 0, 1);
+            return read < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int read = in.read(b, off, len);
+            if (read > 0) {
+                hash(b, off, read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            // skipped bytes are part of the artifact and have to be hashed
+            final byte[] buffer = new byte[(int) Math.min(n, chunkSize)];
+            long skipped = 0;
+            while (skipped < n) {
+                final int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+                if (read < 0) {
+                    break;
+                }
+                skipped += read;
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public synchronized void mark(final int readlimit) {
+            // not supported as a reset would hash the content twice
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            throw new IOException("mark/reset not supported");
+        }
+
+        /**
+         * Reads the remaining content without storing it, e.g. if the
+         * artifact already exists in the store and only the hashes have to be
+         * verified.
+         *
+         * @return this stream
+         * @throws IOException
+         *             if the content could not be read
+         */
+        public HashingInputStream exhaust() throws IOException {
+            ByteStreams.exhaust(this);
+            return this;
+        }
+
+        /**
+         * @return number of bytes read so far
+         */
+        public long getSize() {
+            return size + chunkLength;
+        }
+
+        /**
+         * Waits until all read chunks are hashed. Must only be called after
+         * the content has been read completely.
+         *
+         * @return the SHA1, MD5 and SHA-256 hashes of the read content
+         * @throws IOException
+         *             if the hashing has been interrupted
+         */
+        public DbArtifactHash getHashes() throws IOException {
+            if (hashes != null) {
+                return hashes;
+            }
+            dispatchChunk();
+            try {
+                CompletableFuture.allOf(pendingUpdates).join();
+            } catch (final CompletionException e) {
+                throw new ArtifactStoreException("Failed to calculate the hashes of the artifact", e.getCause());
+            }
+            hashes = new DbArtifactHash(encode(digests[0]), encode(digests[1]), encode(digests[2]));
+            return hashes;
+        }
+
+        private void hash(final byte[] b, final int off, final int len) throws IOException {
+            int offset = off;
+            int remaining = len;
+            while (remaining > 0) {
+                final int copied = Math.min(remaining, chunk.length - chunkLength);
+                System.arraycopy(b, offset, chunk, chunkLength, copied);
+                chunkLength += copied;
+                offset += copied;
+                remaining -= copied;
+                if (chunkLength == chunk.length) {
+                    dispatchChunk();
+                }
+            }
+        }
+
+        private void dispatchChunk() throws IOException {
+            if (chunkLength == 0) {
+                return;
+            }
+            try {
+                pendingChunks.acquire();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the artifact hashing");
+            }
+
+            final byte[] dispatched = chunkLength == chunk.length ? chunk : Arrays.copyOf(chunk, chunkLength);
+            for (int i = 0; i < digests.length; i++) {
+                final MessageDigest digest = digests[i];
+                pendingUpdates[i] = pendingUpdates[i].thenRunAsync(() -> digest.update(dispatched), executor);
+            }
+            CompletableFuture.allOf(pendingUpdates).whenComplete((result, error) -> pendingChunks.release());
+
+            size += chunkLength;
+            chunk = new byte[chunkSize];
+            chunkLength = 0;
+        }
+    }
+
+    // Exception squid:S2070 - SHA1 and MD5 are not used security related
+    @SuppressWarnings("squid:S2070")
+    private static MessageDigest createDigest(final String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new ArtifactStoreException(e.getMessage(), e);
+        }
+    }
+
+    private static String encode(final MessageDigest digest) {
+        return BaseEncoding.base16().lowerCase().encode(digest.digest());
+    }
+}
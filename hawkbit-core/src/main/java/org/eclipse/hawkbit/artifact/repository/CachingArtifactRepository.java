@@ -0,0 +1,415 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.artifact.repository;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Pattern;
+
+import org.eclipse.hawkbit.artifact.repository.ArtifactUploadPipeline.HashingInputStream;
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
+import org.eclipse.hawkbit.artifact.repository.model.LocalFileArtifact;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link ArtifactRepository} decorator which keeps the artifacts of a remote
+ * repository, e.g. S3 or MongoDB, in a size bounded least recently used cache
+ * on the local disk. The cached artifacts are {@link LocalFileArtifact}s, i.e.
+ * downloads of cached artifacts are served from the local file including range
+ * requests.
+ *
+ * The artifacts are cached by SHA1 on the first download. A miss is served
+ * from the remote repository as without cache and triggers a fill of the
+ * artifact in the background, i.e. the download does not wait for the fill.
+ * Concurrent misses of the same SHA1 trigger a single fill. The hashes of the
+ * fetched content are verified before it is put into the cache.
+ *
+ * Evicted artifacts are deleted from the disk by {@link #deleteRetired()}
+ * after {@link ArtifactCacheProperties#getEvictionDelay()} so that downloads
+ * which got the artifact before its eviction can still open the file.
+ */
+public class CachingArtifactRepository implements ArtifactRepository {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CachingArtifactRepository.class);
+
+    private static final Pattern SHA1_FILENAME = Pattern.compile("[0-9a-f]{40}");
+
+    private static final String TEMP_FILE_PREFIX = "tmp";
+    private static final String TEMP_FILE_SUFFIX = "artifactcache";
+
+    private final ArtifactRepository delegate;
+
+    private final ArtifactUploadPipeline uploadPipeline;
+
+    private final Path cacheDirectory;
+
+    private final long maxSize;
+
+    private final long evictionDelay;
+
+    private final Executor fillExecutor;
+
+    /**
+     * Cached artifacts in access order, guarded by itself.
+     */
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75F, true);
+
+    /**
+     * Files of the evicted artifacts by their time of eviction, guarded by
+     * {@link #entries}.
+     */
+    private final LinkedHashMap<Path, Long> retired = new LinkedHashMap<>();
+
+    private long cachedSize;
+
+    private final Set<String> fills = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor. The artifacts are hashed in the reading thread.
+     *
+     * @param delegate
+     *            the remote repository
+     * @param properties
+     *            of the cache
+     * @param fillExecutor
+     *            to fill the cache in the background
+     */
+    public CachingArtifactRepository(final ArtifactRepository delegate, final ArtifactCacheProperties properties,
+            final Executor fillExecutor) {
+        this(delegate, properties, ArtifactUploadPipeline.inCallingThread(), fillExecutor);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param delegate
+     *            the remote repository
+     * @param properties
+     *            of the cache
+     * @param uploadPipeline
+     *            to verify the hashes of the fetched artifacts
+     * @param fillExecutor
+     *            to fill the cache in the background
+     */
+    public CachingArtifactRepository(final ArtifactRepository delegate, final ArtifactCacheProperties properties,
+            final ArtifactUploadPipeline uploadPipeline, final Executor fillExecutor) {
+        this.delegate = delegate;
+        this.uploadPipeline = uploadPipeline;
+        this.cacheDirectory = Paths.get(properties.getPath());
+        this.maxSize = properties.getMaxSize();
+        this.evictionDelay = properties.getEvictionDelay();
+        this.fillExecutor = fillExecutor;
+        loadCachedArtifacts();
+    }
+
+    @Override
+    public DbArtifact store(final InputStream content, final String filename, final String contentType) {
+        return delegate.store(content, filename, contentType);
+    }
+
+    @Override
+    public DbArtifact store(final InputStream content, final String filename, final String contentType,
+            final DbArtifactHash hash) {
+        return delegate.store(content, filename, contentType, hash);
+    }
+
+    @Override
+    public void deleteBySha1(final String sha1Hash) {
+        evict(sha1Hash);
+        delegate.deleteBySha1(sha1Hash);
+    }
+
+    @Override
+    public DbArtifact getArtifactBySha1(final String sha1) {
+        final CacheEntry cached = lookup(sha1);
+        if (cached != null) {
+            return new CachedArtifact(cached);
+        }
+
+        final DbArtifact remote = delegate.getArtifactBySha1(sha1);
+        if (isCacheable(remote)) {
+            startFill(sha1);
+        }
+        return remote;
+    }
+
+    /**
+     * @return the size of all cached artifacts in bytes
+     */
+    public long getCachedSize() {
+        synchronized (entries) {
+            return cachedSize;
+        }
+    }
+
+    /**
+     * @param sha1
+     *            of the artifact
+     * @return <code>true</code> if the artifact is cached
+     */
+    public boolean isCached(final String sha1) {
+        synchronized (entries) {
+            return entries.containsKey(sha1);
+        }
+    }
+
+    /**
+     * Deletes the files of the artifacts which have been evicted longer than
+     * {@link ArtifactCacheProperties#getEvictionDelay()} ago. Files that
+     * cannot be deleted, e.g. as they are still opened on a platform that does
+     * not allow to delete open files, are retried with the next call. Has to
+     * be called periodically.
+     */
+    public void deleteRetired() {
+        final long deleteEvictedBefore = System.currentTimeMillis() - evictionDelay;
+        synchronized (entries) {
+            final Iterator<Map.Entry<Path, Long>> evicted = retired.entrySet().iterator();
+            while (evicted.hasNext()) {
+                final Map.Entry<Path, Long> file = evicted.next();
+                if (file.getValue() > deleteEvictedBefore) {
+                    return;
+                }
+                if (delete(file.getKey())) {
+                    evicted.remove();
+                }
+            }
+        }
+    }
+
+    private boolean isCacheable(final DbArtifact remote) {
+        return remote != null && !(remote instanceof LocalFileArtifact) && remote.getSize() != null
+                && remote.getSize() <= maxSize;
+    }
+
+    private void startFill(final String sha1) {
+        if (!fills.add(sha1)) {
+            return;
+        }
+
+        try {
+            fillExecutor.execute(() -> {
+                try {
+                    fill(sha1);
+                } finally {
+                    fills.remove(sha1);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            LOG.debug("Fill of artifact {} rejected, it is filled with one of the next downloads", sha1, e);
+            fills.remove(sha1);
+        }
+    }
+
+    private void fill(final String sha1) {
+        // another fill might have been finished in the meantime
+        if (lookup(sha1) != null) {
+            return;
+        }
+
+        // fetched again as the artifact of the miss is streamed to its client
+        final DbArtifact remote = delegate.getArtifactBySha1(sha1);
+        if (!isCacheable(remote)) {
+            return;
+        }
+
+        try {
+            download(sha1, remote);
+        } catch (final IOException | UncheckedIOException | ArtifactStoreException | HashNotMatchException e) {
+            LOG.error("Failed to cache artifact {}", sha1, e);
+        }
+    }
+
+    private CacheEntry download(final String sha1, final DbArtifact remote) throws IOException {
+        Files.createDirectories(cacheDirectory);
+        final Path tempFile = Files.createTempFile(cacheDirectory, TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+        try {
+            final DbArtifactHash calculated;
+            final long size;
+            try (HashingInputStream content = uploadPipeline.open(remote.getFileInputStream())) {
+                size = Files.copy(content, tempFile, StandardCopyOption.REPLACE_EXISTING);
+                calculated = content.getHashes();
+            }
+            ArtifactUploadPipeline.checkHashes(calculated,
+                    new DbArtifactHash(sha1, remote.getHashes() != null ? remote.getHashes().getMd5() : null));
+
+            final Path file = cacheDirectory.resolve(sha1);
+            final CacheEntry entry = new CacheEntry(file, new DbArtifactHash(sha1, calculated.getMd5()), size,
+                    remote.getContentType());
+            // the file might still be retired from a previous eviction, i.e.
+            // the move must not interleave with the deletion of the retired
+            // files
+            synchronized (entries) {
+                retired.remove(file);
+                try {
+                    Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE);
+                } catch (final AtomicMoveNotSupportedException e) {
+                    Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+                put(sha1, entry);
+            }
+            LOG.debug("Cached artifact {} with size {}", sha1, size);
+            return entry;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private CacheEntry lookup(final String sha1) {
+        synchronized (entries) {
+            return entries.get(sha1);
+        }
+    }
+
+    private void put(final String sha1, final CacheEntry entry) {
+        synchronized (entries) {
+            final CacheEntry replaced = entries.put(sha1, entry);
+            if (replaced != null) {
+                cachedSize -= replaced.getSize();
+            }
+            cachedSize += entry.getSize();
+
+            final Iterator<CacheEntry> leastRecentlyUsed = entries.values().iterator();
+            while (cachedSize > maxSize && leastRecentlyUsed.hasNext()) {
+                final CacheEntry eldest = leastRecentlyUsed.next();
+                if (eldest != entry) {
+                    leastRecentlyUsed.remove();
+                    retire(eldest);
+                }
+            }
+        }
+    }
+
+    private void evict(final String sha1) {
+        synchronized (entries) {
+            final CacheEntry evicted = entries.remove(sha1);
+            if (evicted != null) {
+                retire(evicted);
+            }
+        }
+    }
+
+    private void retire(final CacheEntry entry) {
+        cachedSize -= entry.getSize();
+        retired.put(entry.getFile(), System.currentTimeMillis());
+    }
+
+    private static boolean delete(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+            return true;
+        } catch (final IOException e) {
+            LOG.warn("Failed to delete cached artifact {}", file, e);
+            return false;
+        }
+    }
+
+    /**
+     * Loads the artifacts cached by a previous run in the order of their last
+     * modification and deletes the left over temporary files.
+     */
+    private void loadCachedArtifacts() {
+        if (!Files.isDirectory(cacheDirectory)) {
+            return;
+        }
+
+        final List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(cacheDirectory)) {
+            for (final Path file : stream) {
+                if (SHA1_FILENAME.matcher(file.getFileName().toString()).matches()) {
+                    files.add(file);
+                } else if (file.getFileName().toString().endsWith(TEMP_FILE_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            files.sort(Comparator.comparingLong(file -> file.toFile().lastModified()));
+            for (final Path file : files) {
+                final String sha1 = file.getFileName().toString();
+                put(sha1, new CacheEntry(file, new DbArtifactHash(sha1, null), Files.size(file), null));
+            }
+        } catch (final IOException e) {
+            LOG.warn("Failed to load the cached artifacts from {}", cacheDirectory, e);
+        }
+    }
+
+    private static final class CacheEntry {
+
+        private final Path file;
+        private final DbArtifactHash hashes;
+        private final long size;
+        private final String contentType;
+
+        private CacheEntry(final Path file, final DbArtifactHash hashes, final long size, final String contentType) {
+            this.file = file;
+            this.hashes = hashes;
+            this.size = size;
+            this.contentType = contentType;
+        }
+
+        private Path getFile() {
+            return file;
+        }
+
+        private long getSize() {
+            return size;
+        }
+    }
+
+    /**
+     * An artifact that is served from the local cache.
+     */
+    private static final class CachedArtifact extends DbArtifact implements LocalFileArtifact {
+
+        private final Path file;
+
+        private CachedArtifact(final CacheEntry entry) {
+            this.file = entry.file;
+            setArtifactId(entry.hashes.getSha1());
+            setHashes(entry.hashes);
+            setSize(entry.size);
+            setContentType(entry.contentType);
+        }
+
+        @Override
+        // suppress warning, this InputStream needs to be closed by the caller,
+        // this cannot be closed in this method
+        @SuppressWarnings("squid:S2095")
+        public InputStream getFileInputStream() {
+            try {
+                return new BufferedInputStream(Files.newInputStream(file));
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Path getFilePath() {
+            return file;
+        }
+    }
+}
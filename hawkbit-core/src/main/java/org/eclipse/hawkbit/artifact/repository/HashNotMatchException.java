@@ -21,6 +21,7 @@ public class HashNotMatchException extends RuntimeException {
 
     public static final String SHA1 = "SHA-1";
     public static final String MD5 = "MD5";
+    public static final String SHA256 = "SHA-256";
 
     private final String hashFunction;
 
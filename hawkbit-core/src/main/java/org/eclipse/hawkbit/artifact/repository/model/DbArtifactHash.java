@@ -18,6 +18,8 @@ public class DbArtifactHash {
 
     private String md5;
 
+    private String sha256;
+
     /**
      * Constructor.
      * 
@@ -32,6 +34,21 @@ public class DbArtifactHash {
         this.md5 = md5;
     }
 
+    /**
+     * Constructor.
+     * 
+     * @param sha1
+     *            the sha1 hash
+     * @param md5
+     *            the md5 hash
+     * @param sha256
+     *            the sha256 hash
+     */
+    public DbArtifactHash(final String sha1, final String md5, final String sha256) {
+        this(sha1, md5);
+        this.sha256 = sha256;
+    }
+
     public void setSha1(final String sha1) {
         this.sha1 = sha1;
     }
@@ -40,6 +57,10 @@ public class DbArtifactHash {
         this.md5 = md5;
     }
 
+    public void setSha256(final String sha256) {
+        this.sha256 = sha256;
+    }
+
     public String getSha1() {
         return sha1;
     }
@@ -48,4 +69,8 @@ public class DbArtifactHash {
         return md5;
     }
 
+    public String getSha256() {
+        return sha256;
+    }
+
 }
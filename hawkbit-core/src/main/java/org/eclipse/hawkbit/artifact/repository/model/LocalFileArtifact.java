@@ -0,0 +1,26 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.artifact.repository.model;
+
+import java.nio.file.Path;
+
+/**
+ * Marks a {@link DbArtifact} whose binary is available as file on the local
+ * file system. Consumers can use positional reads and zero-copy transfers on
+ * the file instead of streaming it through
+ * {@link DbArtifact#getFileInputStream()}.
+ */
+@FunctionalInterface
+public interface LocalFileArtifact {
+
+    /**
+     * @return path of the local file that contains the binary
+     */
+    Path getFilePath();
+}
@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.cache.Cache;
+
+/**
+ * Versions of the entries of a local cache which are loaded from the
+ * repository outside of the cache and invalidated by events. A loader takes
+ * the {@link #current()} version before it starts to load and the loaded
+ * value is only cached if none of its keys has been invalidated since, see
+ * {@link #putIfCurrent(Cache, Object, Object, String, long, Object...)}.
+ *
+ * The invalidations are recorded per tenant and key, i.e. an event only
+ * rejects the concurrent loads of the entries it affects. The number of
+ * records is bounded by dropping the oldest ones. A load that started before
+ * a dropped record is treated as outdated.
+ */
+public class CacheEntryVersions {
+
+    /**
+     * Default maximum number of recorded invalidations.
+     */
+    public static final int DEFAULT_MAX_RECORDS = 10_000;
+
+    private static final String TENANT_DELIMITER = "|";
+
+    private final int maxRecords;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final AtomicLong floor = new AtomicLong();
+
+    private final Map<String, Long> invalidations = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor with {@link #DEFAULT_MAX_RECORDS}.
+     */
+    public CacheEntryVersions() {
+        this(DEFAULT_MAX_RECORDS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxRecords
+     *            maximum number of recorded invalidations
+     */
+    public CacheEntryVersions(final int maxRecords) {
+        this.maxRecords = maxRecords;
+    }
+
+    /**
+     * @return the current version that has to be retrieved before a value is
+     *         loaded from the repository
+     */
+    public long current() {
+        return clock.get();
+    }
+
+    /**
+     * @param tenant
+     *            of the entry
+     * @param version
+     *            retrieved by {@link #current()} before the entry was loaded
+     * @param keys
+     *            the keys the entry depends on
+     * @return <code>true</code> if neither the tenant nor one of the given
+     *         keys has been invalidated since the given version
+     */
+    public boolean isCurrent(final String tenant, final long version, final Object... keys) {
+        if (isInvalidatedSince(tenantKey(tenant), version)) {
+            return false;
+        }
+        for (final Object key : keys) {
+            if (isInvalidatedSince(buildKey(tenant, key), version)) {
+                return false;
+            }
+        }
+        // checked last as the records below the floor are dropped after it
+        // has been raised
+        return version >= floor.get();
+    }
+
+    /**
+     * Puts the given value into the cache if it is still current. As an
+     * invalidation might happen while the value is put, the value is removed
+     * again if it is not current anymore afterwards.
+     *
+     * @param cache
+     *            to put the value into
+     * @param cacheKey
+     *            of the value in the cache
+     * @param value
+     *            to cache
+     * @param tenant
+     *            of the value
+     * @param version
+     *            retrieved by {@link #current()} before the value was loaded
+     * @param keys
+     *            the keys the value depends on
+     * @return <code>true</code> if the value has been cached
+     */
+    public <K, V> boolean putIfCurrent(final Cache<K, V> cache, final K cacheKey, final V value, final String tenant,
+            final long version, final Object... keys) {
+        if (!isCurrent(tenant, version, keys)) {
+            return false;
+        }
+        cache.put(cacheKey, value);
+        if (!isCurrent(tenant, version, keys)) {
+            cache.invalidate(cacheKey);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Invalidates the entries of the tenant that depend on the given key.
+     *
+     * @param tenant
+     *            of the entries
+     * @param key
+     *            that has been changed
+     */
+    public void invalidate(final String tenant, final Object key) {
+        record(buildKey(tenant, key));
+    }
+
+    /**
+     * Invalidates all entries of the tenant.
+     *
+     * @param tenant
+     *            that has been changed
+     */
+    public void invalidateTenant(final String tenant) {
+        record(tenantKey(tenant));
+    }
+
+    /**
+     * Drops the records of a deleted tenant. Loads that are running
+     * concurrently are treated as outdated.
+     *
+     * @param tenant
+     *            that has been deleted
+     */
+    public void removeTenant(final String tenant) {
+        raiseFloor(clock.incrementAndGet());
+        final String tenantKey = tenantKey(tenant);
+        final String prefix = tenantKey + TENANT_DELIMITER;
+        invalidations.keySet().removeIf(key -> key.equals(tenantKey) || key.startsWith(prefix));
+    }
+
+    /**
+     * @return number of recorded invalidations
+     */
+    public int size() {
+        return invalidations.size();
+    }
+
+    private boolean isInvalidatedSince(final String key, final long version) {
+        final Long invalidated = invalidations.get(key);
+        return invalidated != null && invalidated > version;
+    }
+
+    private void record(final String key) {
+        invalidations.merge(key, clock.incrementAndGet(), Math::max);
+        if (invalidations.size() > maxRecords) {
+            // at most half of the records are newer than the threshold
+            final long threshold = clock.get() - maxRecords / 2;
+            raiseFloor(threshold);
+            invalidations.values().removeIf(invalidated -> invalidated <= threshold);
+        }
+    }
+
+    private void raiseFloor(final long version) {
+        floor.accumulateAndGet(version, Math::max);
+    }
+
+    private static String tenantKey(final String tenant) {
+        return tenant.toUpperCase();
+    }
+
+    private static String buildKey(final String tenant, final Object key) {
+        return tenantKey(tenant) + TENANT_DELIMITER + key;
+    }
+}
@@ -47,6 +47,11 @@ public enum SpServerError {
     */
     SP_REST_RSQL_SEARCH_PARAM_SYNTAX("hawkbit.server.error.rest.param.rsqlParamSyntax", "The given search paramter is not well formed"),
 
+    /**
+    *
+    */
+    SP_REST_PAGING_CURSOR_INVALID("hawkbit.server.error.rest.param.pagingCursorInvalid", "The given paging cursor is not valid"),
+
     /**
     *
     */
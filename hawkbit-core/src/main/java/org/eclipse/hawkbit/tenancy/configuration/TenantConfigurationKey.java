@@ -13,6 +13,7 @@ import java.util.Optional;
 
 import org.eclipse.hawkbit.ControllerPollProperties;
 import org.eclipse.hawkbit.tenancy.configuration.validator.TenantConfigurationBooleanValidator;
+import org.eclipse.hawkbit.tenancy.configuration.validator.TenantConfigurationIntegerValidator;
 import org.eclipse.hawkbit.tenancy.configuration.validator.TenantConfigurationPollingDurationValidator;
 import org.eclipse.hawkbit.tenancy.configuration.validator.TenantConfigurationStringValidator;
 import org.eclipse.hawkbit.tenancy.configuration.validator.TenantConfigurationValidator;
@@ -68,7 +69,29 @@ public enum TenantConfigurationKey {
     /**
      * boolean value {@code true} {@code false}.
      */
-    ANONYMOUS_DOWNLOAD_MODE_ENABLED("anonymous.download.enabled", "hawkbit.server.download.anonymous.enabled", Boolean.class, Boolean.FALSE.toString(), TenantConfigurationBooleanValidator.class);
+    ANONYMOUS_DOWNLOAD_MODE_ENABLED("anonymous.download.enabled", "hawkbit.server.download.anonymous.enabled", Boolean.class, Boolean.FALSE.toString(), TenantConfigurationBooleanValidator.class),
+
+    /**
+     * boolean value {@code true} {@code false}.
+     */
+    ACTION_RETENTION_ENABLED("action.retention.enabled", "hawkbit.server.repository.actionRetention.enabled", Boolean.class, Boolean.FALSE.toString(), TenantConfigurationBooleanValidator.class),
+
+    /**
+     * integer value which holds the days after which closed actions are
+     * deleted, {@code 0} keeps them forever.
+     */
+    ACTION_RETENTION_ACTION_EXPIRY_DAYS("action.retention.actionExpiryDays", "hawkbit.server.repository.actionRetention.actionExpiryDays", Integer.class, "30", TenantConfigurationIntegerValidator.class),
+
+    /**
+     * integer value which holds the number of the newest status entries that
+     * are kept per action, {@code 0} keeps all of them.
+     */
+    ACTION_RETENTION_MAX_STATUS_ENTRIES("action.retention.maxStatusEntriesPerAction", "hawkbit.server.repository.actionRetention.maxStatusEntriesPerAction", Integer.class, "50", TenantConfigurationIntegerValidator.class),
+
+    /**
+     * boolean value {@code true} {@code false}.
+     */
+    ACTION_RETENTION_COMPACTION("action.retention.compaction", "hawkbit.server.repository.actionRetention.compaction", Boolean.class, Boolean.TRUE.toString(), TenantConfigurationBooleanValidator.class);
 
     private final String keyName;
     private final String defaultKeyName;
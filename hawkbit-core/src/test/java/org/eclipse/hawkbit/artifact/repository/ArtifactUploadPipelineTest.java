@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.artifact.repository;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.Executors;
+
+import org.eclipse.hawkbit.artifact.repository.ArtifactUploadPipeline.HashingInputStream;
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
+import org.junit.Test;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Artifact Repository")
+@Stories("Artifact upload pipeline")
+public class ArtifactUploadPipelineTest {
+
+    // small chunks and few pending chunks to force the parallel hashing of
+    // many chunks
+    private final ArtifactUploadPipeline underTest = new ArtifactUploadPipeline(Executors.newFixedThreadPool(3), 16,
+            2);
+
+    @Test
+    @Description("Verifies that the SHA1, MD5 and SHA-256 hashes of the read content are calculated")
+    public void hashesOfReadContentAreCalculated() throws IOException {
+        final byte[] content = randomBytes(10_000);
+
+        final HashingInputStream hashingContent = underTest.open(new ByteArrayInputStream(content));
+        final byte[] readContent = ByteStreams.toByteArray(hashingContent);
+
+        assertThat(readContent).isEqualTo(content);
+        assertHashes(hashingContent.getHashes(), content);
+        assertThat(hashingContent.getSize()).isEqualTo(content.length);
+    }
+
+    @Test
+    @Description("Verifies that the pipeline without a pool hashes the content in the reading thread")
+    public void hashesAreCalculatedInCallingThread() throws IOException {
+        final byte[] content = randomBytes(200_000);
+
+        final HashingInputStream hashingContent = ArtifactUploadPipeline.inCallingThread()
+                .open(new ByteArrayInputStream(content));
+
+        assertHashes(hashingContent.exhaust().getHashes(), content);
+        assertThat(hashingContent.getSize()).isEqualTo(content.length);
+    }
+
+    @Test
+    @Description("Verifies that single byte reads and skipped bytes are part of the calculated hashes")
+    public void singleByteReadsAndSkippedBytesAreHashed() throws IOException {
+        final byte[] content = randomBytes(1_000);
+
+        final HashingInputStream hashingContent = underTest.open(new ByteArrayInputStream(content));
+        assertThat(hashingContent.read()).isEqualTo(content[0] & 0xFF);
+        assertThat(hashingContent.skip(500)).isEqualTo(500);
+        hashingContent.exhaust();
+
+        assertHashes(hashingContent.getHashes(), content);
+        assertThat(hashingContent.getSize()).isEqualTo(content.length);
+    }
+
+    @Test
+    @Description("Verifies that a provided hash which does not match the calculated one is rejected")
+    public void providedHashIsChecked() throws IOException {
+        final byte[] content = randomBytes(100);
+        final DbArtifactHash calculated = underTest.open(new ByteArrayInputStream(content)).exhaust().getHashes();
+
+        ArtifactUploadPipeline.checkHashes(calculated, null);
+        ArtifactUploadPipeline.checkHashes(calculated,
+                new DbArtifactHash(calculated.getSha1().toUpperCase(), calculated.getMd5()));
+
+        try {
+            ArtifactUploadPipeline.checkHashes(calculated, new DbArtifactHash(calculated.getSha1(), "wrong"));
+            fail("Expected an HashNotMatchException, but didn't throw");
+        } catch (final HashNotMatchException e) {
+            assertThat(e.getHashFunction()).isEqualTo(HashNotMatchException.MD5);
+        }
+    }
+
+    @Test
+    @Description("Verifies that a provided SHA1 hash is only used if it is a hex encoded SHA1 hash")
+    public void providedSha1IsValidated() {
+        assertThat(ArtifactUploadPipeline.isSha1Provided(null)).isFalse();
+        assertThat(ArtifactUploadPipeline.isSha1Provided(new DbArtifactHash(null, "md5"))).isFalse();
+        assertThat(ArtifactUploadPipeline.isSha1Provided(
+                new DbArtifactHash(Hashing.sha1().hashBytes(randomBytes(10)).toString().toUpperCase(), null)))
+                        .isTrue();
+
+        try {
+            ArtifactUploadPipeline.isSha1Provided(new DbArtifactHash("abc", null));
+            fail("Expected an HashNotMatchException, but didn't throw");
+        } catch (final HashNotMatchException e) {
+            assertThat(e.getHashFunction()).isEqualTo(HashNotMatchException.SHA1);
+        }
+    }
+
+    private static void assertHashes(final DbArtifactHash hashes, final byte[] content) {
+        assertThat(hashes.getSha1()).isEqualTo(Hashing.sha1().hashBytes(content).toString());
+        assertThat(hashes.getMd5()).isEqualTo(Hashing.md5().hashBytes(content).toString());
+        assertThat(hashes.getSha256()).isEqualTo(Hashing.sha256().hashBytes(content).toString());
+    }
+
+    private static byte[] randomBytes(final int length) {
+        final byte[] randomBytes = new byte[length];
+        new Random().nextBytes(randomBytes);
+        return randomBytes;
+    }
+}
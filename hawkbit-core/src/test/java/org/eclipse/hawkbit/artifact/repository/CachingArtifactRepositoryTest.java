@@ -0,0 +1,305 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.artifact.repository;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
+import org.eclipse.hawkbit.artifact.repository.model.LocalFileArtifact;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Artifact Repository")
+@Stories("Artifact disk cache")
+public class CachingArtifactRepositoryTest {
+
+    @Rule
+    public TemporaryFolder cacheFolder = new TemporaryFolder();
+
+    private final InMemoryArtifactRepository remote = new InMemoryArtifactRepository();
+
+    private final ArtifactCacheProperties properties = new ArtifactCacheProperties();
+
+    private final Executor fillInCallingThread = Runnable::run;
+
+    private CachingArtifactRepository underTest;
+
+    @Before
+    public void before() {
+        properties.setPath(cacheFolder.getRoot().getAbsolutePath());
+        properties.setMaxSize(250);
+        underTest = new CachingArtifactRepository(remote, properties, fillInCallingThread);
+    }
+
+    @Test
+    @Description("Verifies that an artifact is fetched once from the remote repository and then served from the local disk")
+    public void artifactIsServedFromLocalDiskAfterFirstFetch() throws IOException {
+        final byte[] content = randomBytes(100);
+        final String sha1 = remote.put(content);
+
+        final DbArtifact first = underTest.getArtifactBySha1(sha1);
+        final DbArtifact second = underTest.getArtifactBySha1(sha1);
+
+        assertThat(remote.getFetches()).isEqualTo(1);
+        assertThat(first).isNotInstanceOf(LocalFileArtifact.class);
+        assertThat(second).isInstanceOf(LocalFileArtifact.class);
+        assertThat(second.getSize()).isEqualTo(content.length);
+        assertThat(second.getHashes().getSha1()).isEqualTo(first.getHashes().getSha1());
+        try (InputStream cached = second.getFileInputStream()) {
+            assertThat(ByteStreams.toByteArray(cached)).isEqualTo(content);
+        }
+    }
+
+    @Test
+    @Description("Verifies that misses are served from the remote repository without waiting for the running fill "
+            + "and that concurrent misses for the same artifact trigger a single fill")
+    public void missesDoNotWaitForSingleFill() throws Exception {
+        final String sha1 = remote.put(randomBytes(100));
+        final CountDownLatch fetchStarted = new CountDownLatch(1);
+        final CountDownLatch releaseFetch = new CountDownLatch(1);
+        remote.blockFetch(fetchStarted, releaseFetch);
+
+        final ExecutorService fillExecutor = Executors.newSingleThreadExecutor();
+        underTest = new CachingArtifactRepository(remote, properties, fillExecutor);
+        try {
+            for (int i = 0; i < 5; i++) {
+                assertThat(underTest.getArtifactBySha1(sha1)).isNotInstanceOf(LocalFileArtifact.class);
+            }
+            assertThat(fetchStarted.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(underTest.isCached(sha1)).isFalse();
+
+            releaseFetch.countDown();
+        } finally {
+            fillExecutor.shutdown();
+        }
+        assertThat(fillExecutor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(underTest.getArtifactBySha1(sha1)).isInstanceOf(LocalFileArtifact.class);
+        assertThat(remote.getFetches()).isEqualTo(1);
+    }
+
+    @Test
+    @Description("Verifies that a rejected fill is started again with the next miss")
+    public void rejectedFillIsStartedWithNextMiss() {
+        final AtomicInteger rejections = new AtomicInteger(1);
+        underTest = new CachingArtifactRepository(remote, properties, command -> {
+            if (rejections.getAndDecrement() > 0) {
+                throw new RejectedExecutionException();
+            }
+            command.run();
+        });
+        final String sha1 = remote.put(randomBytes(100));
+
+        assertThat(underTest.getArtifactBySha1(sha1)).isNotInstanceOf(LocalFileArtifact.class);
+        assertThat(underTest.isCached(sha1)).isFalse();
+
+        underTest.getArtifactBySha1(sha1);
+
+        assertThat(underTest.isCached(sha1)).isTrue();
+    }
+
+    @Test
+    @Description("Verifies that the least recently used artifacts are evicted if the maximum size is exceeded")
+    public void leastRecentlyUsedArtifactIsEvicted() {
+        final String first = remote.put(randomBytes(100));
+        final String second = remote.put(randomBytes(100));
+        final String third = remote.put(randomBytes(100));
+
+        underTest.getArtifactBySha1(first);
+        underTest.getArtifactBySha1(second);
+        underTest.getArtifactBySha1(first);
+        underTest.getArtifactBySha1(third);
+
+        assertThat(underTest.isCached(first)).isTrue();
+        assertThat(underTest.isCached(second)).isFalse();
+        assertThat(underTest.isCached(third)).isTrue();
+        assertThat(underTest.getCachedSize()).isEqualTo(200);
+    }
+
+    @Test
+    @Description("Verifies that the file of an evicted artifact can still be read by a download that got the artifact "
+            + "before the eviction")
+    public void evictedArtifactIsReadableUntilEvictionDelayExpired() throws IOException {
+        final byte[] content = randomBytes(100);
+        final String first = remote.put(content);
+        underTest.getArtifactBySha1(first);
+        final DbArtifact download = underTest.getArtifactBySha1(first);
+        assertThat(download).isInstanceOf(LocalFileArtifact.class);
+        underTest.getArtifactBySha1(remote.put(randomBytes(100)));
+        underTest.getArtifactBySha1(remote.put(randomBytes(100)));
+        assertThat(underTest.isCached(first)).isFalse();
+
+        underTest.deleteRetired();
+
+        try (InputStream cached = download.getFileInputStream()) {
+            assertThat(ByteStreams.toByteArray(cached)).isEqualTo(content);
+        }
+    }
+
+    @Test
+    @Description("Verifies that the file of an evicted artifact is deleted after the eviction delay")
+    public void evictedArtifactIsDeletedAfterEvictionDelay() {
+        properties.setEvictionDelay(0);
+        underTest = new CachingArtifactRepository(remote, properties, fillInCallingThread);
+        final String first = remote.put(randomBytes(100));
+        underTest.getArtifactBySha1(first);
+        final LocalFileArtifact download = (LocalFileArtifact) underTest.getArtifactBySha1(first);
+        underTest.getArtifactBySha1(remote.put(randomBytes(100)));
+        underTest.getArtifactBySha1(remote.put(randomBytes(100)));
+
+        underTest.deleteRetired();
+
+        assertThat(underTest.isCached(first)).isFalse();
+        assertThat(download.getFilePath().toFile().exists()).isFalse();
+    }
+
+    @Test
+    @Description("Verifies that an artifact with a wrong hash is not cached but served from the remote repository")
+    public void artifactWithWrongHashIsNotCached() {
+        final String sha1 = remote.put(randomBytes(100));
+        remote.corrupt(sha1);
+
+        final DbArtifact artifact = underTest.getArtifactBySha1(sha1);
+
+        assertThat(artifact).isNotInstanceOf(LocalFileArtifact.class);
+        assertThat(underTest.isCached(sha1)).isFalse();
+    }
+
+    @Test
+    @Description("Verifies that the artifacts cached by a previous instance are served without fetch")
+    public void cachedArtifactsAreLoadedOnStartup() {
+        final String sha1 = remote.put(randomBytes(100));
+        underTest.getArtifactBySha1(sha1);
+
+        final CachingArtifactRepository restarted = new CachingArtifactRepository(remote, properties,
+                fillInCallingThread);
+
+        assertThat(restarted.getArtifactBySha1(sha1)).isInstanceOf(LocalFileArtifact.class);
+        assertThat(remote.getFetches()).isEqualTo(1);
+    }
+
+    @Test
+    @Description("Verifies that a deleted artifact is evicted from the cache")
+    public void deletedArtifactIsEvicted() {
+        final String sha1 = remote.put(randomBytes(100));
+        underTest.getArtifactBySha1(sha1);
+
+        underTest.deleteBySha1(sha1);
+
+        assertThat(underTest.isCached(sha1)).isFalse();
+        assertThat(underTest.getArtifactBySha1(sha1)).isNull();
+    }
+
+    private static byte[] randomBytes(final int length) {
+        final byte[] randomBytes = new byte[length];
+        new Random().nextBytes(randomBytes);
+        return randomBytes;
+    }
+
+    /**
+     * In-memory stand-in of a remote repository.
+     */
+    private static final class InMemoryArtifactRepository implements ArtifactRepository {
+
+        private final Map<String, byte[]> artifacts = new ConcurrentHashMap<>();
+
+        private final AtomicInteger fetches = new AtomicInteger();
+
+        private CountDownLatch fetchStarted;
+
+        private CountDownLatch releaseFetch;
+
+        private String put(final byte[] content) {
+            final String sha1 = Hashing.sha1().hashBytes(content).toString();
+            artifacts.put(sha1, content);
+            return sha1;
+        }
+
+        private void corrupt(final String sha1) {
+            artifacts.get(sha1)[0]++;
+        }
+
+        private void blockFetch(final CountDownLatch fetchStarted, final CountDownLatch releaseFetch) {
+            this.fetchStarted = fetchStarted;
+            this.releaseFetch = releaseFetch;
+        }
+
+        private int getFetches() {
+            return fetches.get();
+        }
+
+        @Override
+        public DbArtifact store(final InputStream content, final String filename, final String contentType) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public DbArtifact store(final InputStream content, final String filename, final String contentType,
+                final DbArtifactHash hash) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteBySha1(final String sha1Hash) {
+            artifacts.remove(sha1Hash);
+        }
+
+        @Override
+        public DbArtifact getArtifactBySha1(final String sha1) {
+            final byte[] content = artifacts.get(sha1);
+            if (content == null) {
+                return null;
+            }
+            final DbArtifact artifact = new DbArtifact() {
+                @Override
+                public InputStream getFileInputStream() {
+                    fetches.incrementAndGet();
+                    if (fetchStarted != null) {
+                        fetchStarted.countDown();
+                        try {
+                            releaseFetch.await(10, TimeUnit.SECONDS);
+                        } catch (final InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    return new ByteArrayInputStream(content);
+                }
+            };
+            artifact.setArtifactId(sha1);
+            artifact.setSize((long) content.length);
+            artifact.setContentType("application/octet-stream");
+            artifact.setHashes(new DbArtifactHash(sha1, null));
+            return artifact;
+        }
+    }
+}
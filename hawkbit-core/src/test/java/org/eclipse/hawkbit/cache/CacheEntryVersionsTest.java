@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.cache;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Cache")
+@Stories("Cache Entry Versions")
+public class CacheEntryVersionsTest {
+
+    private static final String TENANT = "tenant";
+
+    private final CacheEntryVersions versions = new CacheEntryVersions(4);
+
+    private final Cache<String, String> cache = CacheBuilder.newBuilder().build();
+
+    @Test
+    @Description("Verifies that an invalidation only rejects the loads of the entries that depend on its key.")
+    public void invalidationRejectsOnlyLoadsOfItsKey() {
+        final long version = versions.current();
+
+        versions.invalidate(TENANT, 1L);
+
+        assertThat(versions.putIfCurrent(cache, "first", "value", TENANT, version, 1L)).isFalse();
+        assertThat(versions.putIfCurrent(cache, "second", "value", TENANT, version, 2L)).isTrue();
+        assertThat(versions.putIfCurrent(cache, "other", "value", "otherTenant", version, 1L)).isTrue();
+        assertThat(cache.asMap().keySet()).containsOnly("second", "other");
+        assertThat(versions.isCurrent(TENANT, versions.current(), 1L)).isTrue();
+    }
+
+    @Test
+    @Description("Verifies that a tenant wide invalidation rejects the loads of all entries of the tenant.")
+    public void tenantInvalidationRejectsAllLoadsOfTheTenant() {
+        final long version = versions.current();
+
+        versions.invalidateTenant(TENANT.toUpperCase());
+
+        assertThat(versions.isCurrent(TENANT, version, 1L)).isFalse();
+        assertThat(versions.isCurrent(TENANT, version)).isFalse();
+        assertThat(versions.isCurrent("otherTenant", version, 1L)).isTrue();
+    }
+
+    @Test
+    @Description("Verifies that the oldest records are dropped and that loads which started before them are "
+            + "treated as outdated.")
+    public void droppedRecordsRejectOlderLoads() {
+        final long version = versions.current();
+        for (long key = 0; key < 5; key++) {
+            versions.invalidate(TENANT, key);
+        }
+
+        assertThat(versions.size()).isLessThanOrEqualTo(4);
+        assertThat(versions.isCurrent(TENANT, version, 42L)).isFalse();
+        assertThat(versions.isCurrent(TENANT, versions.current(), 0L, 4L)).isTrue();
+    }
+
+    @Test
+    @Description("Verifies that the records of a deleted tenant are dropped and that running loads are rejected.")
+    public void removeTenantDropsItsRecords() {
+        versions.invalidate(TENANT, 1L);
+        versions.invalidateTenant(TENANT);
+        versions.invalidate("otherTenant", 1L);
+        final long version = versions.current();
+
+        versions.removeTenant(TENANT);
+
+        assertThat(versions.size()).isEqualTo(1);
+        assertThat(versions.isCurrent("otherTenant", version, 2L)).isFalse();
+        assertThat(versions.isCurrent(TENANT, versions.current(), 1L)).isTrue();
+    }
+}
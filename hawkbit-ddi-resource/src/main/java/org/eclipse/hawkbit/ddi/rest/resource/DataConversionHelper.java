@@ -12,8 +12,8 @@ import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 import javax.servlet.http.HttpServletResponse;
@@ -33,7 +33,9 @@ import org.eclipse.hawkbit.ddi.rest.api.DdiRestConstants;
 import org.eclipse.hawkbit.repository.SystemManagement;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Artifact;
+import org.eclipse.hawkbit.repository.model.ControllerPollView;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.rest.util.EntityTagUtility;
 import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.springframework.hateoas.Link;
 
@@ -109,16 +111,16 @@ public final class DataConversionHelper {
 
     }
 
-    static DdiControllerBase fromTarget(final Target target, final Optional<Action> action,
-            final String defaultControllerPollTime, final TenantAware tenantAware) {
+    static DdiControllerBase fromPollView(final ControllerPollView view, final String defaultControllerPollTime,
+            final TenantAware tenantAware) {
         final DdiControllerBase result = new DdiControllerBase(
                 new DdiConfig(new DdiPolling(defaultControllerPollTime)));
 
-        if (action.isPresent()) {
-            if (action.get().isCancelingOrCanceled()) {
+        if (view.getActionId() != null) {
+            if (view.isActionCancelingOrCanceled()) {
                 result.add(linkTo(
                         methodOn(DdiRootController.class, tenantAware.getCurrentTenant()).getControllerCancelAction(
-                                tenantAware.getCurrentTenant(), target.getControllerId(), action.get().getId()))
+                                tenantAware.getCurrentTenant(), view.getControllerId(), view.getActionId()))
                                         .withRel(DdiRestConstants.CANCEL_ACTION));
             } else {
                 // we need to add the hashcode here of the actionWithStatus
@@ -127,36 +129,66 @@ public final class DataConversionHelper {
                 // change the payload of the
                 // response because of eTags.
                 result.add(linkTo(methodOn(DdiRootController.class, tenantAware.getCurrentTenant())
-                        .getControllerBasedeploymentAction(tenantAware.getCurrentTenant(), target.getControllerId(),
-                                action.get().getId(), calculateEtag(action.get())))
+                        .getControllerBasedeploymentAction(tenantAware.getCurrentTenant(), view.getControllerId(),
+                                view.getActionId(), calculateEtag(view)))
                                         .withRel(DdiRestConstants.DEPLOYMENT_BASE_ACTION));
             }
         }
 
-        if (target.getTargetInfo().isRequestControllerAttributes()) {
+        if (view.isRequestControllerAttributes()) {
             result.add(linkTo(methodOn(DdiRootController.class, tenantAware.getCurrentTenant()).putConfigData(null,
-                    tenantAware.getCurrentTenant(), target.getControllerId()))
+                    tenantAware.getCurrentTenant(), view.getControllerId()))
                             .withRel(DdiRestConstants.CONFIG_DATA_ACTION));
         }
         return result;
     }
 
     /**
-     * Calculates an etag for the given {@link Action} based on the entities
-     * hashcode and the {@link Action#isHitAutoForceTime(long)} to reflect a
-     * force switch.
+     * Calculates an etag for the {@link Action} of the given
+     * {@link ControllerPollView} based on the entities hashcode and the
+     * {@link Action#isHitAutoForceTime(long)} to reflect a force switch.
      * 
-     * @param action
+     * @param view
      *            to calculate the etag for
      * @return the etag
      */
-    private static int calculateEtag(final Action action) {
+    static int calculateEtag(final ControllerPollView view) {
         final int prime = 31;
-        int result = action.hashCode();
-        result = prime * result + (action.isHitAutoForceTime(System.currentTimeMillis()) ? 1231 : 1237);
+        int result = view.getActionHashCode();
+        result = prime * result + (view.isActionHitAutoForceTime(System.currentTimeMillis()) ? 1231 : 1237);
         return result;
     }
 
+    /**
+     * Calculates the ETag of the deployment base of the given {@link Action}.
+     * The software modules and artifacts are not locked by the assignment,
+     * i.e. their versions are part of the ETag as well as the download URLs of
+     * the given chunks which depend on the target, the tenant and the download
+     * configuration.
+     *
+     * @param action
+     *            of the deployment base
+     * @param chunks
+     *            of the deployment base
+     * @return the ETag
+     */
+    static String calculateDeploymentEtag(final Action action, final List<DdiChunk> chunks) {
+        final List<Object> parts = new ArrayList<>();
+        parts.add(action.getId());
+        parts.add(action.isForce());
+        action.getDistributionSet().getModules().forEach(module -> {
+            parts.add(module.getId());
+            parts.add(module.getOptLockRevision());
+            module.getArtifacts().forEach(artifact -> {
+                parts.add(artifact.getId());
+                parts.add(artifact.getSha1Hash());
+            });
+        });
+        chunks.forEach(chunk -> chunk.getArtifacts()
+                .forEach(artifact -> artifact.getLinks().forEach(link -> parts.add(link.toString()))));
+        return EntityTagUtility.createETag(parts.toArray());
+    }
+
     static void writeMD5FileResponse(final String fileName, final HttpServletResponse response, final Artifact artifact)
             throws IOException {
         final StringBuilder builder = new StringBuilder();
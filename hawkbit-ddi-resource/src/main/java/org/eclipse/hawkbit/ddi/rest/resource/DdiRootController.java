@@ -41,8 +41,10 @@ import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.Status;
 import org.eclipse.hawkbit.repository.model.ActionStatus;
 import org.eclipse.hawkbit.repository.model.Artifact;
+import org.eclipse.hawkbit.repository.model.ControllerPollView;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.rest.util.EntityTagUtility;
 import org.eclipse.hawkbit.rest.util.RequestResponseContextHolder;
 import org.eclipse.hawkbit.rest.util.RestResourceConversionHelper;
 import org.eclipse.hawkbit.security.HawkbitSecurityProperties;
@@ -129,12 +131,18 @@ public class DdiRootController implements DdiRootControllerRestApi {
             @PathVariable("controllerId") final String controllerId) {
         LOG.debug("getControllerBase({})", controllerId);
 
-        final Target target = controllerManagement.findOrRegisterTargetIfItDoesNotexist(controllerId, IpUtil
+        final ControllerPollView view = controllerManagement.pollControllerBase(controllerId, IpUtil
                 .getClientIpFromRequest(requestResponseContextHolder.getHttpServletRequest(), securityProperties));
-        return new ResponseEntity<>(
-                DataConversionHelper.fromTarget(target, controllerManagement.findOldestActiveActionByTarget(target),
-                        controllerManagement.getPollingTime(), tenantAware),
-                HttpStatus.OK);
+        final String pollingTime = controllerManagement.getPollingTime();
+
+        final String etag = EntityTagUtility.createETag(view.getTargetId(), view.getActionId(),
+                view.isActionCancelingOrCanceled(), DataConversionHelper.calculateEtag(view),
+                view.isRequestControllerAttributes(), pollingTime);
+        if (EntityTagUtility.isNotModified(requestResponseContextHolder.getHttpServletRequest(), etag)) {
+            return EntityTagUtility.notModified(etag);
+        }
+
+        return EntityTagUtility.ok(DataConversionHelper.fromPollView(view, pollingTime, tenantAware), etag);
     }
 
     @Override
@@ -247,6 +255,15 @@ public class DdiRootController implements DdiRootControllerRestApi {
             final List<DdiChunk> chunks = DataConversionHelper.createChunks(target, action, artifactUrlHandler,
                     systemManagement);
 
+            // the action itself is changed by the retrieved status, i.e. the
+            // ETag is calculated from the content of the deployment base
+            final String etag = DataConversionHelper.calculateDeploymentEtag(action, chunks);
+            if (EntityTagUtility.isNotModified(requestResponseContextHolder.getHttpServletRequest(), etag)) {
+                // the retrieved status has been registered with the first
+                // retrieval
+                return EntityTagUtility.notModified(etag);
+            }
+
             final HandlingType handlingType = action.isForce() ? HandlingType.FORCED : HandlingType.ATTEMPT;
 
             final DdiDeploymentBase base = new DdiDeploymentBase(Long.toString(action.getId()),
@@ -257,7 +274,7 @@ public class DdiRootController implements DdiRootControllerRestApi {
             controllerManagement.registerRetrieved(action, RepositoryConstants.SERVER_MESSAGE_PREFIX
                     + "Target retrieved update action and should start now the download.");
 
-            return new ResponseEntity<>(base, HttpStatus.OK);
+            return EntityTagUtility.ok(base, etag);
         }
 
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -261,6 +261,33 @@ public class DdiDeploymentBaseTest extends AbstractRestIntegrationTest {
                 .toString()).isNotEqualTo(urlBeforeSwitch);
     }
 
+    @Test
+    @Description("Checks that the ETag of the deployment base changes when an artifact is added to an assigned software module.")
+    public void deploymentBaseEtagChangesWithAddedArtifact() throws Exception {
+        final Target target = testdataFactory.createTarget("4712");
+        final DistributionSet ds = testdataFactory.createDistributionSet("", true);
+        final Long actionId = assignDistributionSet(ds.getId(), target.getControllerId()).getActions().get(0);
+
+        final String etag = mvc
+                .perform(get("/{tenant}/controller/v1/4712/deploymentBase/{actionId}", tenantAware.getCurrentTenant(),
+                        actionId))
+                .andDo(MockMvcResultPrinter.print()).andExpect(status().isOk()).andReturn().getResponse()
+                .getHeader("ETag");
+        mvc.perform(get("/{tenant}/controller/v1/4712/deploymentBase/{actionId}", tenantAware.getCurrentTenant(),
+                actionId).header("If-None-Match", etag)).andDo(MockMvcResultPrinter.print())
+                .andExpect(status().isNotModified());
+
+        artifactManagement.createArtifact(new ByteArrayInputStream(RandomUtils.nextBytes(1024)), getOsModule(ds),
+                "added", false);
+
+        final String etagWithArtifact = mvc
+                .perform(get("/{tenant}/controller/v1/4712/deploymentBase/{actionId}", tenantAware.getCurrentTenant(),
+                        actionId).header("If-None-Match", etag))
+                .andDo(MockMvcResultPrinter.print()).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etagWithArtifact).isNotNull().isNotEqualTo(etag);
+    }
+
     @Test
     @Description("Attempt/soft deployment to a controller. Checks if the resource reponse payload  for a given deployment is as expected.")
     public void deplomentAttemptAction() throws Exception {
@@ -69,6 +69,26 @@ public class DosFilterTest extends AbstractRestIntegrationTest {
         assertThat(requests).isGreaterThanOrEqualTo(100);
     }
 
+    @Test
+    @Description("Ensures that a READ DoS attempt that rotates the controller ID is blocked by the limit of the client IP address")
+    public void getFloddingAttackWithRotatingControllerIdsThatisPrevented() throws Exception {
+
+        MvcResult result = null;
+
+        int requests = 0;
+        do {
+            result = mvc.perform(get("/{tenant}/controller/v1/{controllerId}", tenantAware.getCurrentTenant(),
+                    "rotating" + requests).header(HttpHeaders.X_FORWARDED_FOR, "10.0.0.2")).andReturn();
+            requests++;
+
+            // we give up after 10.000 requests
+            assertThat(requests).isLessThan(10_000);
+        } while (result.getResponse().getStatus() != HttpStatus.TOO_MANY_REQUESTS.value());
+
+        // the filter shuts down the IP address after 100 GET requests
+        assertThat(requests).isGreaterThanOrEqualTo(100);
+    }
+
     @Test
     @Description("Ensures that an assumed READ DoS attempt is not blocked as the client (with IPv4 address) is on a whitelist")
     public void unacceptableGetLoadButOnWhitelistIPv4() throws Exception {
@@ -0,0 +1,212 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.hawkbit.amqp.AmqpMessageHandlerService.ActionStatusBatchResult;
+import org.eclipse.hawkbit.dmf.amqp.api.EventTopic;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.ChannelAwareMessageListener;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.amqp.rabbit.support.MessagePropertiesConverter;
+import org.springframework.util.ErrorHandler;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.GetResponse;
+
+/**
+ * {@link ChannelAwareMessageListener} of the DMF receiver queue that persists
+ * {@link EventTopic#UPDATE_ACTION_STATUS} messages in batches. On the arrival
+ * of a status message it drains up to
+ * {@link AmqpProperties#getActionStatusBatchSize()} messages from the queue,
+ * persists the status updates of every tenant in one transaction and
+ * acknowledges the messages right after the commit. All other messages as
+ * well as the messages of a batch that failed to persist are handled one by
+ * one by the delegate.
+ *
+ * The drained messages are handled in the order of their arrival per action,
+ * i.e. a batch ends before a message that has to be handled by the delegate.
+ * Only the status updates of different tenants are reordered.
+ *
+ * The listener acknowledges the messages itself, i.e. the container has to
+ * run with {@link AcknowledgeMode#MANUAL}. The messages are drained by
+ * {@link Channel#basicGet(String, boolean)}, i.e. messages that are already
+ * prefetched by the consumer are not part of the batch.
+ */
+public class ActionStatusBatchListener implements ChannelAwareMessageListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ActionStatusBatchListener.class);
+
+    private final ChannelAwareMessageListener delegate;
+
+    private final AmqpMessageHandlerService amqpMessageHandlerService;
+
+    private final ErrorHandler errorHandler;
+
+    private final String queue;
+
+    private final int batchSize;
+
+    private final MessagePropertiesConverter messagePropertiesConverter = new DefaultMessagePropertiesConverter();
+
+    /**
+     * Constructor.
+     *
+     * @param delegate
+     *            the listener that handles the messages one by one
+     * @param amqpMessageHandlerService
+     *            to persist a batch of status updates
+     * @param errorHandler
+     *            to decide if a failed message is requeued
+     * @param queue
+     *            to drain the batch from
+     * @param batchSize
+     *            maximum number of messages of a batch
+     */
+    public ActionStatusBatchListener(final ChannelAwareMessageListener delegate,
+            final AmqpMessageHandlerService amqpMessageHandlerService, final ErrorHandler errorHandler,
+            final String queue, final int batchSize) {
+        this.delegate = delegate;
+        this.amqpMessageHandlerService = amqpMessageHandlerService;
+        this.errorHandler = errorHandler;
+        this.queue = queue;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void onMessage(final Message message, final Channel channel) throws IOException {
+        if (!isActionStatusUpdate(message)) {
+            handleSingle(message, channel);
+            return;
+        }
+
+        final Map<String, List<Message>> statusUpdates = new LinkedHashMap<>();
+        for (final Message drained : drain(message, channel)) {
+            if (isActionStatusUpdate(drained)) {
+                statusUpdates.computeIfAbsent(getTenant(drained), tenant -> new ArrayList<>()).add(drained);
+            } else {
+                // the updates that arrived before have to be handled first
+                handleBatches(statusUpdates, channel);
+                handleSingle(drained, channel);
+            }
+        }
+        handleBatches(statusUpdates, channel);
+    }
+
+    private void handleBatches(final Map<String, List<Message>> statusUpdates, final Channel channel)
+            throws IOException {
+        for (final Map.Entry<String, List<Message>> tenantUpdates : statusUpdates.entrySet()) {
+            handleBatch(tenantUpdates.getKey(), tenantUpdates.getValue(), channel);
+        }
+        statusUpdates.clear();
+    }
+
+    private List<Message> drain(final Message first, final Channel channel) throws IOException {
+        final List<Message> batch = new ArrayList<>(batchSize);
+        batch.add(first);
+        while (batch.size() < batchSize) {
+            final GetResponse response = channel.basicGet(queue, false);
+            if (response == null) {
+                break;
+            }
+            final MessageProperties messageProperties = messagePropertiesConverter.toMessageProperties(
+                    response.getProps(), response.getEnvelope(), StandardCharsets.UTF_8.name());
+            messageProperties.setMessageCount(response.getMessageCount());
+            batch.add(new Message(response.getBody(), messageProperties));
+        }
+        return batch;
+    }
+
+    private void handleBatch(final String tenant, final List<Message> messages, final Channel channel)
+            throws IOException {
+        List<Message> remaining = messages;
+        while (!remaining.isEmpty()) {
+            final ActionStatusBatchResult result;
+            try {
+                result = amqpMessageHandlerService.updateActionStatus(tenant, remaining);
+            } catch (final RuntimeException e) {
+                LOG.warn("Batch of {} action status updates of tenant {} failed, handling them one by one",
+                        remaining.size(), tenant, e);
+                for (final Message message : remaining) {
+                    handleSingle(message, channel);
+                }
+                return;
+            }
+
+            // the batch is committed, i.e. it must not be handled again from
+            // here
+            final List<Message> notHandled = result.getNotHandled();
+            final int handled = remaining.size() - notHandled.size();
+            LOG.debug("Persisted batch of {} action status updates of tenant {}", handled, tenant);
+            for (final Message message : remaining.subList(0, handled)) {
+                channel.basicAck(message.getMessageProperties().getDeliveryTag(), false);
+            }
+            amqpMessageHandlerService.afterActionStatusUpdate(tenant, result.getActions());
+
+            if (notHandled.isEmpty()) {
+                return;
+            }
+            // the batch ended before the first message it cannot handle
+            handleSingle(notHandled.get(0), channel);
+            remaining = notHandled.subList(1, notHandled.size());
+        }
+    }
+
+    private void handleSingle(final Message message, final Channel channel) throws IOException {
+        final long deliveryTag = message.getMessageProperties().getDeliveryTag();
+        try {
+            delegate.onMessage(message, channel);
+        } catch (final Exception e) {
+            channel.basicReject(deliveryTag, isRequeue(e));
+            return;
+        }
+        channel.basicAck(deliveryTag, false);
+    }
+
+    private boolean isRequeue(final Exception exception) {
+        try {
+            errorHandler.handleError(exception);
+        } catch (@SuppressWarnings("squid:S1166") final AmqpRejectAndDontRequeueException e) {
+            return false;
+        }
+
+        Throwable cause = exception;
+        while (cause != null) {
+            if (cause instanceof AmqpRejectAndDontRequeueException) {
+                return false;
+            }
+            cause = cause.getCause();
+        }
+        return true;
+    }
+
+    private static boolean isActionStatusUpdate(final Message message) {
+        final Map<String, Object> headers = message.getMessageProperties().getHeaders();
+        return headers.get(MessageHeaderKey.TENANT) != null
+                && MessageType.EVENT.name().equals(String.valueOf(headers.get(MessageHeaderKey.TYPE)))
+                && EventTopic.UPDATE_ACTION_STATUS.name().equals(String.valueOf(headers.get(MessageHeaderKey.TOPIC)));
+    }
+
+    private static String getTenant(final Message message) {
+        return message.getMessageProperties().getHeaders().get(MessageHeaderKey.TENANT).toString();
+    }
+}
@@ -12,8 +12,6 @@ import java.net.URISyntaxException;
 import java.util.UUID;
 
 import org.eclipse.hawkbit.api.HostnameResolver;
-import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
-import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
 import org.eclipse.hawkbit.cache.DownloadArtifactCache;
 import org.eclipse.hawkbit.cache.DownloadIdCache;
 import org.eclipse.hawkbit.cache.DownloadType;
@@ -175,11 +173,10 @@ public class AmqpAuthenticationMessageHandler extends BaseAmqpService {
         return null;
     }
 
-    private static Artifact convertDbArtifact(final DbArtifact dbArtifact) {
+    private static Artifact convertArtifact(final org.eclipse.hawkbit.repository.model.Artifact localArtifact) {
         final Artifact artifact = new Artifact();
-        artifact.setSize(dbArtifact.getSize());
-        final DbArtifactHash dbArtifactHash = dbArtifact.getHashes();
-        artifact.setHashes(new ArtifactHash(dbArtifactHash.getSha1(), dbArtifactHash.getMd5()));
+        artifact.setSize(localArtifact.getSize());
+        artifact.setHashes(new ArtifactHash(localArtifact.getSha1Hash(), localArtifact.getMd5Hash()));
         return artifact;
     }
 
@@ -203,11 +200,9 @@ public class AmqpAuthenticationMessageHandler extends BaseAmqpService {
 
             checkIfArtifactIsAssignedToTarget(secruityToken, localArtifact);
 
-            final Artifact artifact = convertDbArtifact(artifactManagement.loadArtifactBinary(localArtifact));
-            if (artifact == null) {
-                throw new EntityNotFoundException();
-            }
-            authentificationResponse.setArtifact(artifact);
+            // the metadata is served from the repository, the binary is only
+            // loaded by the download itself
+            authentificationResponse.setArtifact(convertArtifact(localArtifact));
             final String downloadId = UUID.randomUUID().toString();
             // SHA1 key is set, download by SHA1
             final DownloadArtifactCache downloadCache = new DownloadArtifactCache(DownloadType.BY_SHA1,
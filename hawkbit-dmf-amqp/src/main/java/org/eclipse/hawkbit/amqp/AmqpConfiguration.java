@@ -25,6 +25,7 @@ import org.eclipse.hawkbit.repository.TargetManagement;
 import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
 import org.eclipse.hawkbit.security.DdiSecurityProperties;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.eclipse.hawkbit.security.TargetSecurityTokenCache;
 import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -338,13 +339,16 @@ public class AmqpConfiguration {
      * 
      * @param errorHandler
      *            the error hander
+     * @param amqpMessageHandlerService
+     *            to persist batches of action status updates
      * @return the {@link SimpleMessageListenerContainer} that gets used receive
      *         AMQP messages
      */
     @Bean(name = { "listenerContainerFactory" })
     public RabbitListenerContainerFactory<SimpleMessageListenerContainer> listenerContainerFactory(
-            final ErrorHandler errorHandler) {
-        return new ConfigurableRabbitListenerContainerFactory(amqpProperties, rabbitConnectionFactory, errorHandler);
+            final ErrorHandler errorHandler, final AmqpMessageHandlerService amqpMessageHandlerService) {
+        return new ConfigurableRabbitListenerContainerFactory(amqpProperties, rabbitConnectionFactory, errorHandler,
+                amqpMessageHandlerService);
     }
 
     /**
@@ -362,6 +366,8 @@ public class AmqpConfiguration {
      *            the ddiSecruityProperties
      * @param systemSecurityContext
      *            the systemSecurityContext
+     * @param targetSecurityTokenCache
+     *            the cache of the target security tokens
      * @return the bean
      */
     @Bean
@@ -369,9 +375,10 @@ public class AmqpConfiguration {
     public AmqpControllerAuthentication amqpControllerAuthentication(final SystemManagement systemManagement,
             final ControllerManagement controllerManagement,
             final TenantConfigurationManagement tenantConfigurationManagement, final TenantAware tenantAware,
-            final DdiSecurityProperties ddiSecruityProperties, final SystemSecurityContext systemSecurityContext) {
+            final DdiSecurityProperties ddiSecruityProperties, final SystemSecurityContext systemSecurityContext,
+            final TargetSecurityTokenCache targetSecurityTokenCache) {
         return new AmqpControllerAuthentication(systemManagement, controllerManagement, tenantConfigurationManagement,
-                tenantAware, ddiSecruityProperties, systemSecurityContext);
+                tenantAware, ddiSecruityProperties, systemSecurityContext, targetSecurityTokenCache);
     }
 
     /**
@@ -389,6 +396,8 @@ public class AmqpConfiguration {
      *            the systemManagement
      * @param targetManagement
      *            to access target information
+     * @param scheduledExecutorService
+     *            to dispatch coalesced assignments
      * @return the bean
      */
     @Bean
@@ -396,9 +405,10 @@ public class AmqpConfiguration {
     public AmqpMessageDispatcherService amqpMessageDispatcherService(final RabbitTemplate rabbitTemplate,
             final AmqpSenderService amqpSenderService, final ArtifactUrlHandler artifactUrlHandler,
             final SystemSecurityContext systemSecurityContext, final SystemManagement systemManagement,
-            final TargetManagement targetManagement) {
+            final TargetManagement targetManagement, final ScheduledExecutorService scheduledExecutorService) {
         return new AmqpMessageDispatcherService(rabbitTemplate, amqpSenderService, artifactUrlHandler,
-                systemSecurityContext, systemManagement, targetManagement, serviceMatcher);
+                systemSecurityContext, systemManagement, targetManagement, serviceMatcher, scheduledExecutorService,
+                amqpProperties);
     }
 
     private static Map<String, Object> getTTLMaxArgsAuthenticationQueue() {
@@ -26,6 +26,7 @@ import org.eclipse.hawkbit.security.DdiSecurityProperties;
 import org.eclipse.hawkbit.security.PreAuthTokenSourceTrustAuthenticationProvider;
 import org.eclipse.hawkbit.security.PreAuthentificationFilter;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.eclipse.hawkbit.security.TargetSecurityTokenCache;
 import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,6 +59,8 @@ public class AmqpControllerAuthentication {
 
     private final SystemSecurityContext systemSecurityContext;
 
+    private final TargetSecurityTokenCache tokenCache;
+
     /**
      * Constructor.
      * 
@@ -75,12 +78,38 @@ public class AmqpControllerAuthentication {
             final ControllerManagement controllerManagement,
             final TenantConfigurationManagement tenantConfigurationManagement, final TenantAware tenantAware,
             final DdiSecurityProperties ddiSecruityProperties, final SystemSecurityContext systemSecurityContext) {
+        this(systemManagement, controllerManagement, tenantConfigurationManagement, tenantAware, ddiSecruityProperties,
+                systemSecurityContext, null);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param systemManagement
+     * @param controllerManagement
+     * @param tenantConfigurationManagement
+     * @param tenantAware
+     *            current tenant
+     * @param ddiSecruityProperties
+     *            security configurations
+     * @param systemSecurityContext
+     *            security context
+     * @param tokenCache
+     *            the cache of the target security tokens or <code>null</code>
+     *            if the tokens are not cached
+     */
+    public AmqpControllerAuthentication(final SystemManagement systemManagement,
+            final ControllerManagement controllerManagement,
+            final TenantConfigurationManagement tenantConfigurationManagement, final TenantAware tenantAware,
+            final DdiSecurityProperties ddiSecruityProperties, final SystemSecurityContext systemSecurityContext,
+            final TargetSecurityTokenCache tokenCache) {
         this.controllerManagement = controllerManagement;
         this.systemManagement = systemManagement;
         this.tenantConfigurationManagement = tenantConfigurationManagement;
         this.tenantAware = tenantAware;
         this.ddiSecruityProperties = ddiSecruityProperties;
         this.systemSecurityContext = systemSecurityContext;
+        this.tokenCache = tokenCache;
     }
 
     /**
@@ -104,7 +133,7 @@ public class AmqpControllerAuthentication {
         filterChain.add(securityHeaderFilter);
 
         final ControllerPreAuthenticateSecurityTokenFilter securityTokenFilter = new ControllerPreAuthenticateSecurityTokenFilter(
-                tenantConfigurationManagement, controllerManagement, tenantAware, systemSecurityContext);
+                tenantConfigurationManagement, controllerManagement, tenantAware, systemSecurityContext, tokenCache);
         filterChain.add(securityTokenFilter);
 
         final ControllerPreAuthenticatedAnonymousDownload anonymousDownloadFilter = new ControllerPreAuthenticatedAnonymousDownload(
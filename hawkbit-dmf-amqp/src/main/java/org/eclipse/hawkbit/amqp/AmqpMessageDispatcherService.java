@@ -9,9 +9,19 @@
 package org.eclipse.hawkbit.amqp;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.api.ApiType;
@@ -30,8 +40,11 @@ import org.eclipse.hawkbit.repository.TargetManagement;
 import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.CancelTargetAssignmentEvent;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TenantMetaData;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
 import org.eclipse.hawkbit.util.IpUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -39,6 +52,8 @@ import org.springframework.cloud.bus.ServiceMatcher;
 import org.springframework.cloud.bus.event.RemoteApplicationEvent;
 import org.springframework.context.event.EventListener;
 
+import com.google.common.collect.Lists;
+
 /**
  * {@link AmqpMessageDispatcherService} create all outgoing AMQP messages and
  * delegate the messages to a {@link AmqpSenderService}.
@@ -46,15 +61,28 @@ import org.springframework.context.event.EventListener;
  * Additionally the dispatcher listener/subscribe for some target events e.g.
  * assignment.
  *
+ * Assignment events can be coalesced for
+ * {@link AmqpProperties#getDispatchCoalescingDelay()} so that the targets of a
+ * large assignment are resolved in bulk and the software modules of the
+ * distribution set are converted only once.
+ *
  */
 public class AmqpMessageDispatcherService extends BaseAmqpService {
 
+    private static final Logger LOG = LoggerFactory.getLogger(AmqpMessageDispatcherService.class);
+
     private final ArtifactUrlHandler artifactUrlHandler;
     private final AmqpSenderService amqpSenderService;
     private final SystemSecurityContext systemSecurityContext;
     private final SystemManagement systemManagement;
     private final TargetManagement targetManagement;
     private final ServiceMatcher serviceMatcher;
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final long coalescingDelay;
+    private final int dispatchBatchSize;
+
+    private final Queue<TargetAssignDistributionSetEvent> pendingAssignments = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
 
     /**
      * Constructor.
@@ -79,6 +107,39 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
             final ArtifactUrlHandler artifactUrlHandler, final SystemSecurityContext systemSecurityContext,
             final SystemManagement systemManagement, final TargetManagement targetManagement,
             final ServiceMatcher serviceMatcher) {
+        this(rabbitTemplate, amqpSenderService, artifactUrlHandler, systemSecurityContext, systemManagement,
+                targetManagement, serviceMatcher, null, new AmqpProperties());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param rabbitTemplate
+     *            the rabbitTemplate
+     * @param amqpSenderService
+     *            to send AMQP message
+     * @param artifactUrlHandler
+     *            for generating download URLs
+     * @param systemSecurityContext
+     *            for execution with system permissions
+     * @param systemManagement
+     *            the systemManagement
+     * @param targetManagement
+     *            to access target information
+     * @param serviceMatcher
+     *            to check in cluster case if the message is from the same
+     *            cluster node
+     * @param scheduledExecutorService
+     *            to dispatch coalesced assignments, may be <code>null</code>
+     *            if coalescing is disabled
+     * @param amqpProperties
+     *            to configure the coalescing of assignments
+     */
+    public AmqpMessageDispatcherService(final RabbitTemplate rabbitTemplate, final AmqpSenderService amqpSenderService,
+            final ArtifactUrlHandler artifactUrlHandler, final SystemSecurityContext systemSecurityContext,
+            final SystemManagement systemManagement, final TargetManagement targetManagement,
+            final ServiceMatcher serviceMatcher, final ScheduledExecutorService scheduledExecutorService,
+            final AmqpProperties amqpProperties) {
         super(rabbitTemplate);
         this.artifactUrlHandler = artifactUrlHandler;
         this.amqpSenderService = amqpSenderService;
@@ -86,6 +147,9 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
         this.systemManagement = systemManagement;
         this.targetManagement = targetManagement;
         this.serviceMatcher = serviceMatcher;
+        this.scheduledExecutorService = scheduledExecutorService;
+        this.coalescingDelay = scheduledExecutorService != null ? amqpProperties.getDispatchCoalescingDelay() : 0;
+        this.dispatchBatchSize = amqpProperties.getDispatchBatchSize();
     }
 
     /**
@@ -101,36 +165,95 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
             return;
         }
 
-        sendUpdateMessageToTarget(assignedEvent.getTenant(),
-                targetManagement.findTargetByControllerID(assignedEvent.getControllerId()), assignedEvent.getActionId(),
-                assignedEvent.getModules());
+        if (coalescingDelay <= 0) {
+            sendUpdateMessageToTargets(Collections.singletonList(assignedEvent));
+            return;
+        }
+
+        pendingAssignments.add(assignedEvent);
+        if (flushScheduled.compareAndSet(false, true)) {
+            scheduledExecutorService.schedule(this::flushAssignments, coalescingDelay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Dispatches the coalesced assignments tenant by tenant.
+     */
+    void flushAssignments() {
+        // reset first, an event that is queued during the flush schedules the
+        // next one
+        flushScheduled.set(false);
+
+        final List<TargetAssignDistributionSetEvent> events = new ArrayList<>();
+        for (TargetAssignDistributionSetEvent event = pendingAssignments.poll(); event != null; event = pendingAssignments
+                .poll()) {
+            events.add(event);
+        }
+
+        events.stream().collect(Collectors.groupingBy(TargetAssignDistributionSetEvent::getTenant,
+                LinkedHashMap::new, Collectors.toList())).forEach((tenant, tenantEvents) -> {
+                    try {
+                        systemSecurityContext.runAsSystemAsTenant(() -> {
+                            sendUpdateMessageToTargets(tenantEvents);
+                            return null;
+                        }, tenant);
+                    } catch (final RuntimeException e) {
+                        LOG.error("Failed to dispatch {} assignments of tenant {}", tenantEvents.size(), tenant, e);
+                    }
+                });
+    }
+
+    private void sendUpdateMessageToTargets(final List<TargetAssignDistributionSetEvent> events) {
+        final Map<Long, DownloadAndUpdatePayload> payloads = new HashMap<>();
+        TenantMetaData tenantMetaData = null;
+
+        for (final List<TargetAssignDistributionSetEvent> batch : Lists.partition(events, dispatchBatchSize)) {
+            final Map<String, Target> targets = targetManagement
+                    .findTargetByControllerID(batch.stream().map(TargetAssignDistributionSetEvent::getControllerId)
+                            .distinct().collect(Collectors.toList()))
+                    .stream().collect(Collectors.toMap(Target::getControllerId, Function.identity()));
+
+            for (final TargetAssignDistributionSetEvent event : batch) {
+                final Target target = targets.get(event.getControllerId());
+                if (target == null || !IpUtil.isAmqpUri(target.getTargetInfo().getAddress())) {
+                    continue;
+                }
+
+                final DownloadAndUpdatePayload payload = payloads.computeIfAbsent(event.getDistributionSetId(),
+                        id -> new DownloadAndUpdatePayload(event.getModules()));
+                if (tenantMetaData == null && payload.hasArtifacts()) {
+                    tenantMetaData = systemManagement.getTenantMetadata();
+                }
+                sendUpdateMessageToTarget(event.getTenant(), target, event.getActionId(), payload, tenantMetaData);
+            }
+        }
     }
 
     void sendUpdateMessageToTarget(final String tenant, final Target target, final Long actionId,
             final Collection<org.eclipse.hawkbit.repository.model.SoftwareModule> modules) {
-        if (target == null) {
+        if (target == null || !IpUtil.isAmqpUri(target.getTargetInfo().getAddress())) {
             return;
         }
 
-        final URI targetAdress = target.getTargetInfo().getAddress();
-        if (!IpUtil.isAmqpUri(targetAdress)) {
-            return;
-        }
+        final DownloadAndUpdatePayload payload = new DownloadAndUpdatePayload(modules);
+        sendUpdateMessageToTarget(tenant, target, actionId, payload,
+                payload.hasArtifacts() ? systemManagement.getTenantMetadata() : null);
+    }
 
+    private void sendUpdateMessageToTarget(final String tenant, final Target target, final Long actionId,
+            final DownloadAndUpdatePayload payload, final TenantMetaData tenantMetaData) {
         final DownloadAndUpdateRequest downloadAndUpdateRequest = new DownloadAndUpdateRequest();
         downloadAndUpdateRequest.setActionId(actionId);
 
         final String targetSecurityToken = systemSecurityContext.runAsSystem(target::getSecurityToken);
         downloadAndUpdateRequest.setTargetSecurityToken(targetSecurityToken);
 
-        for (final org.eclipse.hawkbit.repository.model.SoftwareModule softwareModule : modules) {
-            final SoftwareModule amqpSoftwareModule = convertToAmqpSoftwareModule(target, softwareModule);
-            downloadAndUpdateRequest.addSoftwareModule(amqpSoftwareModule);
-        }
+        payload.getModules().forEach(downloadAndUpdateRequest::addSoftwareModule);
+        payload.getArtifacts().forEach(artifact -> artifact.setUrls(target, tenantMetaData));
 
         final Message message = getMessageConverter().toMessage(downloadAndUpdateRequest,
                 createConnectorMessageProperties(tenant, target.getControllerId(), EventTopic.DOWNLOAD_AND_INSTALL));
-        amqpSenderService.sendMessage(message, targetAdress);
+        amqpSenderService.sendMessage(message, target.getTargetInfo().getAddress());
     }
 
     /**
@@ -180,44 +303,75 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
         return messageProperties;
     }
 
-    private SoftwareModule convertToAmqpSoftwareModule(final Target target,
-            final org.eclipse.hawkbit.repository.model.SoftwareModule softwareModule) {
-        final SoftwareModule amqpSoftwareModule = new SoftwareModule();
-        amqpSoftwareModule.setModuleId(softwareModule.getId());
-        amqpSoftwareModule.setModuleType(softwareModule.getType().getKey());
-        amqpSoftwareModule.setModuleVersion(softwareModule.getVersion());
+    /**
+     * Software modules and artifacts of a distribution set that are converted
+     * once and reused for the messages to all targets the set is assigned to.
+     * Only the artifact URLs depend on the target, they are set right before
+     * the message of a target is created. Hence a payload must not be shared
+     * between threads.
+     */
+    private final class DownloadAndUpdatePayload {
+        private final List<SoftwareModule> modules;
+        private final List<ArtifactPayload> artifacts = new ArrayList<>();
 
-        final List<Artifact> artifacts = convertArtifacts(target, softwareModule.getArtifacts());
-        amqpSoftwareModule.setArtifacts(artifacts);
-        return amqpSoftwareModule;
-    }
+        private DownloadAndUpdatePayload(
+                final Collection<org.eclipse.hawkbit.repository.model.SoftwareModule> localModules) {
+            modules = localModules.stream().map(this::convertToAmqpSoftwareModule).collect(Collectors.toList());
+        }
+
+        private List<SoftwareModule> getModules() {
+            return modules;
+        }
+
+        private List<ArtifactPayload> getArtifacts() {
+            return artifacts;
+        }
 
-    private List<Artifact> convertArtifacts(final Target target,
-            final List<org.eclipse.hawkbit.repository.model.Artifact> localArtifacts) {
-        if (localArtifacts.isEmpty()) {
-            return Collections.emptyList();
+        private boolean hasArtifacts() {
+            return !artifacts.isEmpty();
         }
 
-        return localArtifacts.stream().map(localArtifact -> convertArtifact(target, localArtifact))
-                .collect(Collectors.toList());
+        private SoftwareModule convertToAmqpSoftwareModule(
+                final org.eclipse.hawkbit.repository.model.SoftwareModule softwareModule) {
+            final SoftwareModule amqpSoftwareModule = new SoftwareModule();
+            amqpSoftwareModule.setModuleId(softwareModule.getId());
+            amqpSoftwareModule.setModuleType(softwareModule.getType().getKey());
+            amqpSoftwareModule.setModuleVersion(softwareModule.getVersion());
+
+            final List<Artifact> amqpArtifacts = new ArrayList<>(softwareModule.getArtifacts().size());
+            for (final org.eclipse.hawkbit.repository.model.Artifact localArtifact : softwareModule.getArtifacts()) {
+                final ArtifactPayload artifact = new ArtifactPayload(localArtifact);
+                artifacts.add(artifact);
+                amqpArtifacts.add(artifact.getArtifact());
+            }
+            amqpSoftwareModule.setArtifacts(amqpArtifacts);
+            return amqpSoftwareModule;
+        }
     }
 
-    private Artifact convertArtifact(final Target target,
-            final org.eclipse.hawkbit.repository.model.Artifact localArtifact) {
-        final Artifact artifact = new Artifact();
-
-        artifact.setUrls(artifactUrlHandler
-                .getUrls(new URLPlaceholder(systemManagement.getTenantMetadata().getTenant(),
-                        systemManagement.getTenantMetadata().getId(), target.getControllerId(), target.getId(),
-                        new SoftwareData(localArtifact.getSoftwareModule().getId(), localArtifact.getFilename(),
-                                localArtifact.getId(), localArtifact.getSha1Hash())),
-                        ApiType.DMF)
-                .stream().collect(Collectors.toMap(e -> e.getProtocol(), e -> e.getRef())));
-
-        artifact.setFilename(localArtifact.getFilename());
-        artifact.setHashes(new ArtifactHash(localArtifact.getSha1Hash(), localArtifact.getMd5Hash()));
-        artifact.setSize(localArtifact.getSize());
-        return artifact;
+    private final class ArtifactPayload {
+        private final Artifact artifact;
+        private final SoftwareData softwareData;
+
+        private ArtifactPayload(final org.eclipse.hawkbit.repository.model.Artifact localArtifact) {
+            artifact = new Artifact();
+            artifact.setFilename(localArtifact.getFilename());
+            artifact.setHashes(new ArtifactHash(localArtifact.getSha1Hash(), localArtifact.getMd5Hash()));
+            artifact.setSize(localArtifact.getSize());
+            softwareData = new SoftwareData(localArtifact.getSoftwareModule().getId(), localArtifact.getFilename(),
+                    localArtifact.getId(), localArtifact.getSha1Hash());
+        }
+
+        private Artifact getArtifact() {
+            return artifact;
+        }
+
+        private void setUrls(final Target target, final TenantMetaData tenantMetaData) {
+            artifact.setUrls(artifactUrlHandler
+                    .getUrls(new URLPlaceholder(tenantMetaData.getTenant(), tenantMetaData.getId(),
+                            target.getControllerId(), target.getId(), softwareData), ApiType.DMF)
+                    .stream().collect(Collectors.toMap(e -> e.getProtocol(), e -> e.getRef())));
+        }
     }
 
 }
@@ -10,9 +10,13 @@ package org.eclipse.hawkbit.amqp;
 
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import org.apache.commons.lang3.ArrayUtils;
@@ -20,6 +24,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.eclipse.hawkbit.dmf.amqp.api.EventTopic;
 import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
 import org.eclipse.hawkbit.dmf.amqp.api.MessageType;
+import org.eclipse.hawkbit.dmf.json.model.ActionStatus;
 import org.eclipse.hawkbit.dmf.json.model.ActionUpdateStatus;
 import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
 import org.eclipse.hawkbit.im.authentication.TenantAwareAuthenticationDetails;
@@ -38,6 +43,7 @@ import org.springframework.amqp.AmqpRejectAndDontRequeueException;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConversionException;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -57,6 +63,14 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
 
     private static final Logger LOG = LoggerFactory.getLogger(AmqpMessageHandlerService.class);
 
+    /**
+     * Feedback that can be persisted without looking at the action first.
+     * Cancellation feedback is handled message by message.
+     */
+    private static final Set<ActionStatus> BATCHABLE_STATUS = EnumSet.of(ActionStatus.DOWNLOAD,
+            ActionStatus.RETRIEVED, ActionStatus.RUNNING, ActionStatus.FINISHED, ActionStatus.ERROR,
+            ActionStatus.WARNING);
+
     private final AmqpMessageDispatcherService amqpMessageDispatcherService;
 
     private final ControllerManagement controllerManagement;
@@ -142,6 +156,104 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
         return null;
     }
 
+    /**
+     * Persists the action status updates of the given
+     * {@link EventTopic#UPDATE_ACTION_STATUS} messages of one tenant in a
+     * single transaction. The batch ends before the first message that cannot
+     * be handled in it, e.g. cancellation feedback or an invalid message, so
+     * that the updates of an action are persisted in the order of their
+     * arrival. That message and all following ones are returned and have to
+     * be handled by the caller, the first one by
+     * {@link #onMessage(Message, String, String, String)}.
+     * 
+     * The updates are committed when the method returns, the poll time and
+     * update notifications of the targets follow by
+     * {@link #afterActionStatusUpdate(String, List)}.
+     * 
+     * @param tenant
+     *            of all messages
+     * @param messages
+     *            the UPDATE_ACTION_STATUS messages
+     * @return the updated actions and the messages that have not been handled
+     */
+    public ActionStatusBatchResult updateActionStatus(final String tenant, final List<Message> messages) {
+        final SecurityContext oldContext = SecurityContextHolder.getContext();
+        try {
+            setTenantSecurityContext(tenant);
+            final List<Message> notHandled = new ArrayList<>();
+            final List<ActionStatusCreate> creates = new ArrayList<>(messages.size());
+            for (final Message message : messages) {
+                final ActionUpdateStatus actionUpdateStatus = convertBatchableStatus(message);
+                if (actionUpdateStatus == null) {
+                    notHandled.addAll(messages.subList(creates.size(), messages.size()));
+                    break;
+                }
+                creates.add(entityFactory.actionStatus().create(actionUpdateStatus.getActionId())
+                        .status(mapStatus(message, actionUpdateStatus, null))
+                        .messages(getStatusMessages(message, actionUpdateStatus)));
+            }
+
+            if (creates.isEmpty()) {
+                return new ActionStatusBatchResult(Collections.emptyList(), notHandled);
+            }
+
+            return new ActionStatusBatchResult(controllerManagement.addUpdateActionStatuses(creates), notHandled);
+        } finally {
+            SecurityContextHolder.setContext(oldContext);
+        }
+    }
+
+    /**
+     * Updates the poll time of the targets of the given actions, that have
+     * been updated by {@link #updateActionStatus(String, List)}, and notifies
+     * the targets of finished actions about their next update. The status
+     * updates are already committed, so a failure is logged per action and
+     * does not affect the other actions.
+     * 
+     * @param tenant
+     *            of the actions
+     * @param actions
+     *            the updated actions
+     */
+    public void afterActionStatusUpdate(final String tenant, final List<Action> actions) {
+        final SecurityContext oldContext = SecurityContextHolder.getContext();
+        try {
+            setTenantSecurityContext(tenant);
+            final Set<Long> polledTargets = new HashSet<>();
+            for (final Action action : actions) {
+                try {
+                    if (polledTargets.add(action.getTarget().getId())) {
+                        updateLastPollTime(action.getTarget());
+                    }
+                    if (!action.isActive()) {
+                        lookIfUpdateAvailable(action.getTarget());
+                    }
+                } catch (final RuntimeException e) {
+                    LOG.error("Failed to update the target of action {} after its status update", action.getId(), e);
+                }
+            }
+        } finally {
+            SecurityContextHolder.setContext(oldContext);
+        }
+    }
+
+    private ActionUpdateStatus convertBatchableStatus(final Message message) {
+        final String contentType = message.getMessageProperties().getContentType();
+        if (contentType == null || !contentType.contains("json")) {
+            return null;
+        }
+        try {
+            final ActionUpdateStatus actionUpdateStatus = convertMessage(message, ActionUpdateStatus.class);
+            if (actionUpdateStatus == null || actionUpdateStatus.getActionId() == null
+                    || !BATCHABLE_STATUS.contains(actionUpdateStatus.getActionStatus())) {
+                return null;
+            }
+            return actionUpdateStatus;
+        } catch (@SuppressWarnings("squid:S1166") final MessageConversionException e) {
+            return null;
+        }
+    }
+
     private static void setSecurityContext(final Authentication authentication) {
         final SecurityContextImpl securityContextImpl = new SecurityContextImpl();
         securityContextImpl.setAuthentication(authentication);
@@ -222,11 +334,7 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
         final ActionUpdateStatus actionUpdateStatus = convertMessage(message, ActionUpdateStatus.class);
         final Action action = checkActionExist(message, actionUpdateStatus);
 
-        final List<String> messages = actionUpdateStatus.getMessage();
-        if (ArrayUtils.isNotEmpty(message.getMessageProperties().getCorrelationId())) {
-            messages.add(RepositoryConstants.SERVER_MESSAGE_PREFIX + "DMF message correlation-id "
-                    + convertCorrelationId(message));
-        }
+        final List<String> messages = getStatusMessages(message, actionUpdateStatus);
 
         updateLastPollTime(action.getTarget());
 
@@ -241,6 +349,16 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
         }
     }
 
+    private static List<String> getStatusMessages(final Message message,
+            final ActionUpdateStatus actionUpdateStatus) {
+        final List<String> messages = actionUpdateStatus.getMessage();
+        if (ArrayUtils.isNotEmpty(message.getMessageProperties().getCorrelationId())) {
+            messages.add(RepositoryConstants.SERVER_MESSAGE_PREFIX + "DMF message correlation-id "
+                    + convertCorrelationId(message));
+        }
+        return messages;
+    }
+
     private Status mapStatus(final Message message, final ActionUpdateStatus actionUpdateStatus, final Action action) {
         Status status = null;
         switch (actionUpdateStatus.getActionStatus()) {
@@ -322,4 +440,32 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
         }
         return null;
     }
+
+    /**
+     * Result of {@link AmqpMessageHandlerService#updateActionStatus(String, List)}.
+     */
+    public static final class ActionStatusBatchResult {
+        private final List<Action> actions;
+        private final List<Message> notHandled;
+
+        ActionStatusBatchResult(final List<Action> actions, final List<Message> notHandled) {
+            this.actions = actions;
+            this.notHandled = notHandled;
+        }
+
+        /**
+         * @return the actions of the persisted status updates
+         */
+        public List<Action> getActions() {
+            return actions;
+        }
+
+        /**
+         * @return the messages that have not been handled in the batch in
+         *         the order of their arrival
+         */
+        public List<Message> getNotHandled() {
+            return notHandled;
+        }
+    }
 }
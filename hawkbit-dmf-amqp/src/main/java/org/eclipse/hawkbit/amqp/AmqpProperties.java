@@ -10,7 +10,10 @@ package org.eclipse.hawkbit.amqp;
 
 import java.util.concurrent.TimeUnit;
 
+import javax.validation.constraints.Min;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
 
 /**
  * Bean which holds the necessary properties for configuring the AMQP
@@ -18,6 +21,7 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * 
  */
 @ConfigurationProperties("hawkbit.dmf.rabbitmq")
+@Validated
 public class AmqpProperties {
 
     private static final int ONE_MINUTE = 60;
@@ -32,6 +36,10 @@ public class AmqpProperties {
 
     private static final long DEFAULT_REQUEUE_DELAY = 0;
 
+    private static final int DEFAULT_ACTION_STATUS_BATCH_SIZE = 1;
+
+    private static final int DEFAULT_DISPATCH_BATCH_SIZE = 500;
+
     /**
      * Enable DMF API based on AMQP 0.9
      */
@@ -98,6 +106,54 @@ public class AmqpProperties {
      */
     private long requeueDelay = DEFAULT_REQUEUE_DELAY;
 
+    /**
+     * Maximum number of UPDATE_ACTION_STATUS messages of the receiver queue
+     * that are persisted in one transaction. A value lower than 2 disables the
+     * batching, i.e. every message is handled separately. The batch is drained
+     * from the queue, i.e. the messages prefetched by the consumer, see
+     * {@link #prefetchCount}, are not part of it.
+     */
+    private int actionStatusBatchSize = DEFAULT_ACTION_STATUS_BATCH_SIZE;
+
+    /**
+     * Delay in milliseconds for which the DOWNLOAD_AND_INSTALL messages of
+     * distribution set assignments are coalesced before they are dispatched in
+     * bulk. A value of 0 disables the coalescing, i.e. every assignment is
+     * dispatched immediately.
+     */
+    private long dispatchCoalescingDelay;
+
+    /**
+     * Maximum number of coalesced assignments whose targets are resolved by
+     * one query.
+     */
+    @Min(1)
+    private int dispatchBatchSize = DEFAULT_DISPATCH_BATCH_SIZE;
+
+    public long getDispatchCoalescingDelay() {
+        return dispatchCoalescingDelay;
+    }
+
+    public void setDispatchCoalescingDelay(final long dispatchCoalescingDelay) {
+        this.dispatchCoalescingDelay = dispatchCoalescingDelay;
+    }
+
+    public int getDispatchBatchSize() {
+        return dispatchBatchSize;
+    }
+
+    public void setDispatchBatchSize(final int dispatchBatchSize) {
+        this.dispatchBatchSize = dispatchBatchSize;
+    }
+
+    public int getActionStatusBatchSize() {
+        return actionStatusBatchSize;
+    }
+
+    public void setActionStatusBatchSize(final int actionStatusBatchSize) {
+        this.actionStatusBatchSize = actionStatusBatchSize;
+    }
+
     public long getRequeueDelay() {
         return requeueDelay;
     }
@@ -8,8 +8,12 @@
  */
 package org.eclipse.hawkbit.amqp;
 
+import java.util.Arrays;
+
+import org.springframework.amqp.core.AcknowledgeMode;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.ChannelAwareMessageListener;
 import org.springframework.amqp.rabbit.listener.RabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
 import org.springframework.util.ErrorHandler;
@@ -22,6 +26,10 @@ import org.springframework.util.ErrorHandler;
 public class ConfigurableRabbitListenerContainerFactory extends SimpleRabbitListenerContainerFactory {
     private final AmqpProperties amqpProperties;
 
+    private final ErrorHandler errorHandler;
+
+    private final AmqpMessageHandlerService amqpMessageHandlerService;
+
     /**
      * Constructor.
      * 
@@ -31,10 +39,16 @@ public class ConfigurableRabbitListenerContainerFactory extends SimpleRabbitList
      *            to configure the container factory
      * @param errorHandler
      *            the error handler which should be use
+     * @param amqpMessageHandlerService
+     *            to persist batches of action status updates of the receiver
+     *            queue, see {@link AmqpProperties#getActionStatusBatchSize()}
      */
     public ConfigurableRabbitListenerContainerFactory(final AmqpProperties amqpProperties,
-            final ConnectionFactory rabbitConnectionFactory, final ErrorHandler errorHandler) {
+            final ConnectionFactory rabbitConnectionFactory, final ErrorHandler errorHandler,
+            final AmqpMessageHandlerService amqpMessageHandlerService) {
         this.amqpProperties = amqpProperties;
+        this.errorHandler = errorHandler;
+        this.amqpMessageHandlerService = amqpMessageHandlerService;
         setErrorHandler(errorHandler);
         setDefaultRequeueRejected(true);
         setConnectionFactory(rabbitConnectionFactory);
@@ -52,5 +66,14 @@ public class ConfigurableRabbitListenerContainerFactory extends SimpleRabbitList
     protected void initializeContainer(final SimpleMessageListenerContainer instance) {
         super.initializeContainer(instance);
         instance.setDeclarationRetries(amqpProperties.getDeclarationRetries());
+
+        final int batchSize = amqpProperties.getActionStatusBatchSize();
+        if (batchSize > 1 && Arrays.asList(instance.getQueueNames()).contains(amqpProperties.getReceiverQueue())) {
+            // the batch listener acknowledges the messages after the commit
+            instance.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+            instance.setMessageListener(new ActionStatusBatchListener(
+                    (ChannelAwareMessageListener) instance.getMessageListener(), amqpMessageHandlerService,
+                    errorHandler, amqpProperties.getReceiverQueue(), batchSize));
+        }
     }
 }
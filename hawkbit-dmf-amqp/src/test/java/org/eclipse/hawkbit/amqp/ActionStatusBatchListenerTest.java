@@ -0,0 +1,232 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.hawkbit.amqp.AmqpMessageHandlerService.ActionStatusBatchResult;
+import org.eclipse.hawkbit.dmf.amqp.api.EventTopic;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageType;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatcher;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.ChannelAwareMessageListener;
+import org.springframework.util.ErrorHandler;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.GetResponse;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@RunWith(MockitoJUnitRunner.class)
+@Features("Component Tests - Device Management Federation API")
+@Stories("Action Status Batch Listener")
+public class ActionStatusBatchListenerTest {
+
+    private static final String QUEUE = "receiver";
+    private static final String TENANT = "DEFAULT";
+    private static final String OTHER_TENANT = "OTHER";
+
+    @Mock
+    private ChannelAwareMessageListener delegate;
+
+    @Mock
+    private AmqpMessageHandlerService amqpMessageHandlerService;
+
+    @Mock
+    private ErrorHandler errorHandler;
+
+    @Mock
+    private Channel channel;
+
+    private ActionStatusBatchListener underTest;
+
+    @Before
+    public void before() {
+        underTest = new ActionStatusBatchListener(delegate, amqpMessageHandlerService, errorHandler, QUEUE, 10);
+        when(amqpMessageHandlerService.updateActionStatus(anyString(), any()))
+                .thenReturn(new ActionStatusBatchResult(Collections.<Action> emptyList(), Collections.emptyList()));
+    }
+
+    @Test
+    @Description("Verifies that the batch is drained from the queue without auto acknowledgement and that the "
+            + "messages are acknowledged after the batch has been committed.")
+    public void batchIsDrainedWithManualAckAndAcknowledgedAfterCommit() throws Exception {
+        final Message first = statusUpdate(TENANT, 1);
+        when(channel.basicGet(QUEUE, false)).thenReturn(drained(statusUpdate(TENANT, 2)),
+                drained(statusUpdate(TENANT, 3)), null);
+
+        underTest.onMessage(first, channel);
+
+        verify(channel, times(3)).basicGet(QUEUE, false);
+        final InOrder inOrder = inOrder(amqpMessageHandlerService, channel);
+        inOrder.verify(amqpMessageHandlerService).updateActionStatus(eq(TENANT), deliveryTags(1, 2, 3));
+        inOrder.verify(channel).basicAck(1, false);
+        inOrder.verify(channel).basicAck(2, false);
+        inOrder.verify(channel).basicAck(3, false);
+        inOrder.verify(amqpMessageHandlerService).afterActionStatusUpdate(TENANT, Collections.emptyList());
+        verify(delegate, never()).onMessage(any(), any());
+    }
+
+    @Test
+    @Description("Verifies that the drained status updates are persisted in one batch per tenant.")
+    public void statusUpdatesAreGroupedByTenant() throws Exception {
+        when(channel.basicGet(QUEUE, false)).thenReturn(drained(statusUpdate(OTHER_TENANT, 2)),
+                drained(statusUpdate(TENANT, 3)), null);
+
+        underTest.onMessage(statusUpdate(TENANT, 1), channel);
+
+        verify(amqpMessageHandlerService).updateActionStatus(eq(TENANT), deliveryTags(1, 3));
+        verify(amqpMessageHandlerService).updateActionStatus(eq(OTHER_TENANT), deliveryTags(2));
+        verify(channel, times(3)).basicAck(anyLong(), eq(false));
+    }
+
+    @Test
+    @Description("Verifies that the messages of a failed batch are handled one by one by the delegate.")
+    public void failedBatchIsHandledOneByOne() throws Exception {
+        when(channel.basicGet(QUEUE, false)).thenReturn(drained(statusUpdate(TENANT, 2)), null);
+        when(amqpMessageHandlerService.updateActionStatus(anyString(), any()))
+                .thenThrow(new IllegalStateException("batch failed"));
+
+        underTest.onMessage(statusUpdate(TENANT, 1), channel);
+
+        final InOrder inOrder = inOrder(delegate, channel);
+        inOrder.verify(delegate).onMessage(deliveryTag(1), eq(channel));
+        inOrder.verify(channel).basicAck(1, false);
+        inOrder.verify(delegate).onMessage(deliveryTag(2), eq(channel));
+        inOrder.verify(channel).basicAck(2, false);
+        verify(amqpMessageHandlerService, never()).afterActionStatusUpdate(anyString(), any());
+    }
+
+    @Test
+    @Description("Verifies that a message that fails in the delegate is rejected and only requeued if the failure "
+            + "is not marked as AmqpRejectAndDontRequeueException.")
+    public void failedMessageIsRejectedAndRequeuedDependingOnTheFailure() throws Exception {
+        final Message invalid = other(1);
+        final Message failed = other(2);
+        doThrow(new IllegalArgumentException(new AmqpRejectAndDontRequeueException("invalid"))).when(delegate)
+                .onMessage(invalid, channel);
+        doThrow(new IllegalStateException("temporary")).when(delegate).onMessage(failed, channel);
+
+        underTest.onMessage(invalid, channel);
+        underTest.onMessage(failed, channel);
+
+        verify(channel).basicReject(1, false);
+        verify(channel).basicReject(2, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+        verify(channel, never()).basicGet(anyString(), anyBoolean());
+    }
+
+    @Test
+    @Description("Verifies that the drained messages are handled in the order of their arrival, i.e. that a message "
+            + "handled by the delegate ends the batch of the updates that arrived before it.")
+    public void arrivalOrderIsPreserved() throws Exception {
+        when(channel.basicGet(QUEUE, false)).thenReturn(drained(other(2)), drained(statusUpdate(TENANT, 3)),
+                drained(statusUpdate(TENANT, 4)), drained(statusUpdate(TENANT, 5)), null);
+        // the cancellation feedback (4) cannot be handled in the batch
+        when(amqpMessageHandlerService.updateActionStatus(eq(TENANT), deliveryTags(3, 4, 5))).thenAnswer(
+                invocation -> notHandledFrom(invocation.getArgumentAt(1, List.class), 1));
+
+        underTest.onMessage(statusUpdate(TENANT, 1), channel);
+
+        final InOrder inOrder = inOrder(amqpMessageHandlerService, delegate, channel);
+        inOrder.verify(amqpMessageHandlerService).updateActionStatus(eq(TENANT), deliveryTags(1));
+        inOrder.verify(channel).basicAck(1, false);
+        inOrder.verify(delegate).onMessage(deliveryTag(2), eq(channel));
+        inOrder.verify(channel).basicAck(2, false);
+        inOrder.verify(amqpMessageHandlerService).updateActionStatus(eq(TENANT), deliveryTags(3, 4, 5));
+        inOrder.verify(channel).basicAck(3, false);
+        inOrder.verify(delegate).onMessage(deliveryTag(4), eq(channel));
+        inOrder.verify(channel).basicAck(4, false);
+        inOrder.verify(amqpMessageHandlerService).updateActionStatus(eq(TENANT), deliveryTags(5));
+        inOrder.verify(channel).basicAck(5, false);
+    }
+
+    private static ActionStatusBatchResult notHandledFrom(final List<Message> messages, final int index) {
+        return new ActionStatusBatchResult(Collections.<Action> emptyList(),
+                messages.subList(index, messages.size()));
+    }
+
+    private static Message statusUpdate(final String tenant, final long deliveryTag) {
+        final MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setHeader(MessageHeaderKey.TENANT, tenant);
+        messageProperties.setHeader(MessageHeaderKey.TYPE, MessageType.EVENT.name());
+        messageProperties.setHeader(MessageHeaderKey.TOPIC, EventTopic.UPDATE_ACTION_STATUS.name());
+        messageProperties.setDeliveryTag(deliveryTag);
+        return new Message(new byte[0], messageProperties);
+    }
+
+    private static Message other(final long deliveryTag) {
+        final MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setHeader(MessageHeaderKey.TENANT, TENANT);
+        messageProperties.setHeader(MessageHeaderKey.TYPE, MessageType.THING_CREATED.name());
+        messageProperties.setDeliveryTag(deliveryTag);
+        return new Message(new byte[0], messageProperties);
+    }
+
+    private static GetResponse drained(final Message message) {
+        final MessageProperties messageProperties = message.getMessageProperties();
+        final Map<String, Object> headers = new HashMap<>(messageProperties.getHeaders());
+        final Envelope envelope = new Envelope(messageProperties.getDeliveryTag(), false, "", QUEUE);
+        return new GetResponse(envelope, new AMQP.BasicProperties.Builder().headers(headers).build(),
+                message.getBody(), 0);
+    }
+
+    private static Message deliveryTag(final long deliveryTag) {
+        return argThat(new ArgumentMatcher<Message>() {
+            @Override
+            public boolean matches(final Object argument) {
+                return ((Message) argument).getMessageProperties().getDeliveryTag() == deliveryTag;
+            }
+        });
+    }
+
+    private static List<Message> deliveryTags(final long... deliveryTags) {
+        return argThat(new ArgumentMatcher<List<Message>>() {
+            @Override
+            public boolean matches(final Object argument) {
+                @SuppressWarnings("unchecked")
+                final List<Message> messages = (List<Message>) argument;
+                return Arrays.equals(deliveryTags,
+                        messages.stream().mapToLong(message -> message.getMessageProperties().getDeliveryTag())
+                                .toArray());
+            }
+        });
+    }
+}
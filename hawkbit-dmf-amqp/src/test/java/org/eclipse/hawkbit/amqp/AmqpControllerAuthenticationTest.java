@@ -19,8 +19,6 @@ import static org.mockito.Mockito.when;
 import java.net.URL;
 
 import org.eclipse.hawkbit.api.HostnameResolver;
-import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
-import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
 import org.eclipse.hawkbit.cache.DownloadIdCache;
 import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
 import org.eclipse.hawkbit.dmf.amqp.api.MessageType;
@@ -35,7 +33,6 @@ import org.eclipse.hawkbit.repository.jpa.JpaEntityFactory;
 import org.eclipse.hawkbit.repository.jpa.model.JpaArtifact;
 import org.eclipse.hawkbit.repository.jpa.model.JpaSoftwareModule;
 import org.eclipse.hawkbit.repository.jpa.model.JpaSoftwareModuleType;
-import org.eclipse.hawkbit.repository.model.Artifact;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TenantConfigurationValue;
 import org.eclipse.hawkbit.repository.model.TenantMetaData;
@@ -153,17 +150,15 @@ public class AmqpControllerAuthenticationTest {
 
         authenticationManager.postConstruct();
 
-        final Artifact testArtifact = new JpaArtifact("afilename", "afilename", new JpaSoftwareModule(
+        final JpaArtifact testArtifact = new JpaArtifact("afilename", "afilename", new JpaSoftwareModule(
                 new JpaSoftwareModuleType("a key", "a name", null, 1), "a name", null, null, null));
+        testArtifact.setSize(ARTIFACT_SIZE);
+        testArtifact.setSha1Hash("sha1 test");
+        testArtifact.setMd5Hash("md5 test");
 
         when(artifactManagementMock.findArtifact(ARTIFACT_ID)).thenReturn(testArtifact);
         when(artifactManagementMock.findFirstArtifactBySHA1(SHA1)).thenReturn(testArtifact);
 
-        final DbArtifact artifact = new DbArtifact();
-        artifact.setSize(ARTIFACT_SIZE);
-        artifact.setHashes(new DbArtifactHash("sha1 test", "md5 test"));
-        when(artifactManagementMock.loadArtifactBinary(testArtifact)).thenReturn(artifact);
-
         amqpMessageHandlerService = new AmqpMessageHandlerService(rabbitTemplate,
                 mock(AmqpMessageDispatcherService.class), controllerManagementMock, new JpaEntityFactory());
 
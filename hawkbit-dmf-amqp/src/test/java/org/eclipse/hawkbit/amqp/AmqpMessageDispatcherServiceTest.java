@@ -22,9 +22,12 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.hawkbit.api.ArtifactUrl;
 import org.eclipse.hawkbit.api.ArtifactUrlHandler;
+import org.eclipse.hawkbit.api.URLPlaceholder;
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
 import org.eclipse.hawkbit.dmf.amqp.api.EventTopic;
 import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
@@ -81,6 +84,8 @@ public class AmqpMessageDispatcherServiceTest extends AbstractIntegrationTest {
 
     private SystemManagement systemManagement;
 
+    private ArtifactUrlHandler artifactUrlHandlerMock;
+
     private static final String CONTROLLER_ID = "1";
 
     private Target testTarget;
@@ -99,7 +104,7 @@ public class AmqpMessageDispatcherServiceTest extends AbstractIntegrationTest {
 
         senderService = Mockito.mock(DefaultAmqpSenderService.class);
 
-        final ArtifactUrlHandler artifactUrlHandlerMock = Mockito.mock(ArtifactUrlHandler.class);
+        artifactUrlHandlerMock = Mockito.mock(ArtifactUrlHandler.class);
         when(artifactUrlHandlerMock.getUrls(anyObject(), anyObject()))
                 .thenReturn(Lists.newArrayList(new ArtifactUrl("http", "download", "http://mockurl")));
 
@@ -221,6 +226,84 @@ public class AmqpMessageDispatcherServiceTest extends AbstractIntegrationTest {
         }
     }
 
+    @Test
+    @Description("Verfies that coalesced assignments are dispatched not before the coalescing delay is over")
+    public void testSendCoalescedDownloadRequest() {
+        final ScheduledExecutorService executorMock = Mockito.mock(ScheduledExecutorService.class);
+        final AmqpProperties amqpProperties = new AmqpProperties();
+        amqpProperties.setDispatchCoalescingDelay(100L);
+        final AmqpMessageDispatcherService coalescingDispatcherService = new AmqpMessageDispatcherService(
+                rabbitTemplate, senderService, artifactUrlHandlerMock, systemSecurityContext, systemManagement,
+                targetManagement, serviceMatcher, executorMock, amqpProperties);
+
+        final Action action = createAction(testdataFactory.createDistributionSet(UUID.randomUUID().toString()));
+        final TargetAssignDistributionSetEvent targetAssignDistributionSetEvent = new TargetAssignDistributionSetEvent(
+                action, serviceMatcher.getServiceId());
+        coalescingDispatcherService.targetAssignDistributionSet(targetAssignDistributionSetEvent);
+
+        Mockito.verify(executorMock).schedule(any(Runnable.class), eq(100L), eq(TimeUnit.MILLISECONDS));
+        Mockito.verifyZeroInteractions(senderService);
+
+        coalescingDispatcherService.flushAssignments();
+        final Message sendMessage = getCaptureAdressEvent(targetAssignDistributionSetEvent);
+        final DownloadAndUpdateRequest downloadAndUpdateRequest = assertDownloadAndInstallMessage(sendMessage,
+                action.getId());
+        assertThat(downloadAndUpdateRequest.getSoftwareModules()).hasSize(3);
+    }
+
+    @Test
+    @Description("Verfies that the coalesced assignments of a distribution set to several targets carry the artifact "
+            + "URLs of their own target although the converted payload of the set is reused")
+    public void testSendCoalescedDownloadRequestsWithTargetSpecificUrls() {
+        final URI otherAddress = IpUtil.createAmqpUri("vHost", "othertest");
+        final Target otherTarget = targetManagement.createTarget(entityFactory.target().create()
+                .controllerId("2").securityToken(TEST_TOKEN).address(otherAddress.toString()));
+        DistributionSet dsA = testdataFactory.createDistributionSet(UUID.randomUUID().toString());
+        SoftwareModule module = dsA.getModules().iterator().next();
+        testdataFactory.createArtifacts(module.getId());
+        module = softwareManagement.findSoftwareModuleById(module.getId());
+        dsA = distributionSetManagement.findDistributionSetById(dsA.getId());
+        when(artifactUrlHandlerMock.getUrls(anyObject(), anyObject())).thenAnswer(invocation -> {
+            final URLPlaceholder placeholder = (URLPlaceholder) invocation.getArguments()[0];
+            return Lists.newArrayList(new ArtifactUrl("http", "download", "http://mockurl/"
+                    + placeholder.getControllerId() + "/" + placeholder.getSoftwareData().getArtifactId()));
+        });
+
+        final ScheduledExecutorService executorMock = Mockito.mock(ScheduledExecutorService.class);
+        final AmqpProperties amqpProperties = new AmqpProperties();
+        amqpProperties.setDispatchCoalescingDelay(100L);
+        amqpProperties.setDispatchBatchSize(1);
+        final AmqpMessageDispatcherService coalescingDispatcherService = new AmqpMessageDispatcherService(
+                rabbitTemplate, senderService, artifactUrlHandlerMock, systemSecurityContext, systemManagement,
+                targetManagement, serviceMatcher, executorMock, amqpProperties);
+        final List<Long> actionIds = assignDistributionSet(dsA, Lists.newArrayList(testTarget, otherTarget))
+                .getActions();
+        for (final Long actionId : actionIds) {
+            coalescingDispatcherService.targetAssignDistributionSet(
+                    new TargetAssignDistributionSetEvent(deploymentManagement.findAction(actionId),
+                            serviceMatcher.getServiceId()));
+        }
+        coalescingDispatcherService.flushAssignments();
+
+        assertArtifactUrls(createArgumentCapture(AMQP_URI), CONTROLLER_ID, module);
+        assertArtifactUrls(createArgumentCapture(otherAddress), "2", module);
+    }
+
+    private void assertArtifactUrls(final Message sendMessage, final String controllerId,
+            final SoftwareModule module) {
+        final DownloadAndUpdateRequest downloadAndUpdateRequest = convertMessage(sendMessage,
+                DownloadAndUpdateRequest.class);
+        final org.eclipse.hawkbit.dmf.json.model.SoftwareModule softwareModule = downloadAndUpdateRequest
+                .getSoftwareModules().stream().filter(dmfModule -> dmfModule.getModuleId().equals(module.getId()))
+                .findFirst().get();
+        assertThat(softwareModule.getArtifacts()).isNotEmpty();
+        softwareModule.getArtifacts().forEach(dmfArtifact -> {
+            final Artifact artifact = module.getArtifactByFilename(dmfArtifact.getFilename()).get();
+            assertThat(dmfArtifact.getUrls().get("http"))
+                    .isEqualTo("http://mockurl/" + controllerId + "/" + artifact.getId());
+        });
+    }
+
     @Test
     @Description("Verfies that send cancel event works")
     public void testSendCancelRequest() {
@@ -13,6 +13,7 @@ import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -21,13 +22,14 @@ import java.lang.reflect.Field;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.eclipse.hawkbit.amqp.AmqpMessageHandlerService.ActionStatusBatchResult;
 import org.eclipse.hawkbit.api.HostnameResolver;
 import org.eclipse.hawkbit.artifact.repository.ArtifactRepository;
-import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
-import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
 import org.eclipse.hawkbit.cache.DownloadIdCache;
 import org.eclipse.hawkbit.dmf.amqp.api.EventTopic;
 import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
@@ -326,14 +328,12 @@ public class AmqpMessageHandlerServiceTest {
 
         // mock
         final Artifact localArtifactMock = mock(Artifact.class);
-        final DbArtifact dbArtifactMock = mock(DbArtifact.class);
         when(artifactManagementMock.findFirstArtifactBySHA1(anyString())).thenReturn(localArtifactMock);
         when(controllerManagementMock.hasTargetArtifactAssigned(securityToken.getControllerId(), localArtifactMock))
                 .thenReturn(true);
-        when(artifactManagementMock.loadArtifactBinary(localArtifactMock)).thenReturn(dbArtifactMock);
-        when(dbArtifactMock.getArtifactId()).thenReturn("artifactId");
-        when(dbArtifactMock.getSize()).thenReturn(1L);
-        when(dbArtifactMock.getHashes()).thenReturn(new DbArtifactHash("sha1", "md5"));
+        when(localArtifactMock.getSize()).thenReturn(1L);
+        when(localArtifactMock.getSha1Hash()).thenReturn("sha1");
+        when(localArtifactMock.getMd5Hash()).thenReturn("md5");
         when(hostnameResolverMock.resolveHostname()).thenReturn(new URL("http://localhost"));
 
         // test
@@ -349,6 +349,7 @@ public class AmqpMessageHandlerServiceTest {
         assertThat(downloadResponse.getArtifact().getHashes().getMd5()).as("Wrong md5 hash").isEqualTo("md5");
         assertThat(downloadResponse.getDownloadUrl()).as("download url is wrong")
                 .startsWith("http://localhost/api/v1/downloadserver/downloadId/");
+        verify(artifactManagementMock, never()).loadArtifactBinary(localArtifactMock);
     }
 
     @Test
@@ -396,6 +397,73 @@ public class AmqpMessageHandlerServiceTest {
 
     }
 
+    @Test
+    @Description("Tests that the status updates of a batch are persisted together and that cancellation feedback is left for single message handling")
+    @SuppressWarnings("unchecked")
+    public void updateActionStatusBatch() throws IllegalAccessException {
+        // Mock
+        final Action action = createActionWithTarget(22L, Status.FINISHED);
+        when(controllerManagementMock.addUpdateActionStatuses(Matchers.any())).thenReturn(Arrays.asList(action));
+        final ActionStatusBuilder builder = mock(ActionStatusBuilder.class);
+        final ActionStatusCreate create = mock(ActionStatusCreate.class);
+        when(builder.create(Matchers.anyLong())).thenReturn(create);
+        when(create.status(Matchers.any())).thenReturn(create);
+        when(create.messages(Matchers.any())).thenReturn(create);
+        when(entityFactoryMock.actionStatus()).thenReturn(builder);
+        when(controllerManagementMock.findOldestActiveActionByTarget(Matchers.any())).thenReturn(Optional.empty());
+
+        final Message running = createActionStatusMessage(ActionStatus.RUNNING, 22L);
+        final Message finished = createActionStatusMessage(ActionStatus.FINISHED, 22L);
+        final Message canceled = createActionStatusMessage(ActionStatus.CANCELED, 23L);
+
+        // test
+        final ActionStatusBatchResult result = amqpMessageHandlerService.updateActionStatus(TENANT,
+                Arrays.asList(running, finished, canceled));
+
+        // verify
+        assertThat(result.getNotHandled()).as("cancellation feedback is not handled in the batch")
+                .containsOnly(canceled);
+        assertThat(result.getActions()).as("updated actions of the batch").containsOnly(action);
+        final ArgumentCaptor<List> createsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(controllerManagementMock, times(1)).addUpdateActionStatuses(createsCaptor.capture());
+        assertThat(createsCaptor.getValue()).as("status updates of the batch").hasSize(2);
+        verify(controllerManagementMock, never()).updateTargetStatus(Matchers.any(TargetInfo.class),
+                Matchers.any(TargetUpdateStatus.class), Matchers.anyLong(), Matchers.any(URI.class));
+
+        amqpMessageHandlerService.afterActionStatusUpdate(TENANT, result.getActions());
+        verify(controllerManagementMock, times(1)).updateTargetStatus(Matchers.any(TargetInfo.class),
+                Matchers.isNull(TargetUpdateStatus.class), Matchers.isNotNull(Long.class), Matchers.isNull(URI.class));
+    }
+
+    @Test
+    @Description("Tests that a failure to update the target of one action after a committed batch does not prevent the updates of the other targets")
+    public void afterActionStatusUpdateContinuesAfterFailure() throws IllegalAccessException {
+        // Mock
+        final Action failing = createActionWithTarget(22L, Status.FINISHED);
+        final Action action = createActionWithTarget(23L, Status.FINISHED);
+        when(failing.getTarget().getId()).thenReturn(22L);
+        when(action.getTarget().getId()).thenReturn(23L);
+        when(controllerManagementMock.updateTargetStatus(Matchers.eq(failing.getTarget().getTargetInfo()),
+                Matchers.any(TargetUpdateStatus.class), Matchers.anyLong(), Matchers.any(URI.class)))
+                        .thenThrow(new IllegalStateException("test"));
+        when(controllerManagementMock.findOldestActiveActionByTarget(Matchers.any())).thenReturn(Optional.empty());
+
+        // test
+        amqpMessageHandlerService.afterActionStatusUpdate(TENANT, Arrays.asList(failing, action));
+
+        // verify
+        verify(controllerManagementMock, times(1)).updateTargetStatus(Matchers.eq(action.getTarget().getTargetInfo()),
+                Matchers.isNull(TargetUpdateStatus.class), Matchers.isNotNull(Long.class), Matchers.isNull(URI.class));
+        verify(controllerManagementMock, times(1)).findOldestActiveActionByTarget(action.getTarget());
+    }
+
+    private Message createActionStatusMessage(final ActionStatus status, final Long actionId) {
+        final MessageProperties messageProperties = createMessageProperties(MessageType.EVENT);
+        messageProperties.setHeader(MessageHeaderKey.TOPIC, EventTopic.UPDATE_ACTION_STATUS.name());
+        return amqpMessageHandlerService.getMessageConverter().toMessage(createActionUpdateStatus(status, actionId),
+                messageProperties);
+    }
+
     private ActionUpdateStatus createActionUpdateStatus(final ActionStatus status) {
         return createActionUpdateStatus(status, 2L);
     }
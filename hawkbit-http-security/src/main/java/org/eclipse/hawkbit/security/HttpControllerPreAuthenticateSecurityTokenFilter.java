@@ -32,6 +32,8 @@ public class HttpControllerPreAuthenticateSecurityTokenFilter extends AbstractHt
 
     private final ControllerManagement controllerManagement;
 
+    private final TargetSecurityTokenCache tokenCache;
+
     /**
      * Constructor.
      * 
@@ -50,14 +52,40 @@ public class HttpControllerPreAuthenticateSecurityTokenFilter extends AbstractHt
     public HttpControllerPreAuthenticateSecurityTokenFilter(
             final TenantConfigurationManagement tenantConfigurationManagement, final TenantAware tenantAware,
             final ControllerManagement controllerManagement, final SystemSecurityContext systemSecurityContext) {
+        this(tenantConfigurationManagement, tenantAware, controllerManagement, systemSecurityContext, null);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param tenantConfigurationManagement
+     *            the system management service to retrieve configuration
+     *            properties
+     * @param tenantAware
+     *            the tenant aware service to get configuration for the specific
+     *            tenant
+     * @param controllerManagement
+     *            the controller management to retrieve the specific target
+     *            security token to verify
+     * @param systemSecurityContext
+     *            the system security context
+     * @param tokenCache
+     *            the cache of the target security tokens or <code>null</code>
+     *            if the tokens are not cached
+     */
+    public HttpControllerPreAuthenticateSecurityTokenFilter(
+            final TenantConfigurationManagement tenantConfigurationManagement, final TenantAware tenantAware,
+            final ControllerManagement controllerManagement, final SystemSecurityContext systemSecurityContext,
+            final TargetSecurityTokenCache tokenCache) {
         super(tenantConfigurationManagement, tenantAware, systemSecurityContext);
         this.controllerManagement = controllerManagement;
+        this.tokenCache = tokenCache;
     }
 
     @Override
     protected PreAuthentificationFilter createControllerAuthenticationFilter() {
         return new ControllerPreAuthenticateSecurityTokenFilter(tenantConfigurationManagement, controllerManagement,
-                tenantAware, systemSecurityContext);
+                tenantAware, systemSecurityContext, tokenCache);
     }
 
 }
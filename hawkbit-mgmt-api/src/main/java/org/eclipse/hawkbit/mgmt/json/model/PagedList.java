@@ -34,10 +34,17 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 @JsonInclude(Include.NON_NULL)
 public class PagedList<T> extends ResourceSupport {
 
+    /**
+     * Total of a list whose elements have not been counted.
+     */
+    public static final long UNKNOWN_TOTAL = -1;
+
     @JsonProperty
     private final List<T> content;
     @JsonProperty
     private final long total;
+    @JsonProperty
+    private final String next;
     private final int size;
 
     /**
@@ -51,10 +58,31 @@ public class PagedList<T> extends ResourceSupport {
      * @throws NullPointerException
      *             in case {@code content} is {@code null}.
      */
+    public PagedList(final List<T> content, final long total) {
+        this(content, total, null);
+    }
+
+    /**
+     * creates a new paged list with the given {@code content}, {@code total}
+     * and cursor of the next page.
+     *
+     * @param content
+     *            the actual content of the list
+     * @param total
+     *            the total amount of elements or {@link #UNKNOWN_TOTAL} if
+     *            the elements have not been counted
+     * @param next
+     *            cursor of the next page or {@code null} if there is no next
+     *            page
+     * @throws NullPointerException
+     *             in case {@code content} is {@code null}.
+     */
     @JsonCreator
-    public PagedList(@JsonProperty("content") @NotNull final List<T> content, @JsonProperty("total") final long total) {
+    public PagedList(@JsonProperty("content") @NotNull final List<T> content, @JsonProperty("total") final long total,
+            @JsonProperty("next") final String next) {
         this.size = content.size();
         this.total = total;
+        this.next = next;
         this.content = content;
     }
 
@@ -66,12 +94,20 @@ public class PagedList<T> extends ResourceSupport {
     }
 
     /**
-     * @return the total amount of elements
+     * @return the total amount of elements or {@link #UNKNOWN_TOTAL} if the
+     *         elements have not been counted
      */
     public long getTotal() {
         return total;
     }
 
+    /**
+     * @return cursor of the next page or {@code null} if there is no next page
+     */
+    public String getNext() {
+        return next;
+    }
+
     public List<T> getContent() {
         return Collections.unmodifiableList(content);
     }
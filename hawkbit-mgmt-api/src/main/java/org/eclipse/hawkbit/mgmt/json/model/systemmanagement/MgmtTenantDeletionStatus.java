@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.mgmt.json.model.systemmanagement;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+/**
+ * Response body for the status of a tenant deletion.
+ *
+ */
+@JsonInclude(Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MgmtTenantDeletionStatus {
+
+    private String tenant;
+    private String state;
+    private String phase;
+    private Map<String, Long> deletedEntities;
+    private long pendingBinaries;
+    private long deletedBinaries;
+    private long startedAt;
+    private Long finishedAt;
+    private String error;
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    public void setTenant(final String tenant) {
+        this.tenant = tenant;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(final String state) {
+        this.state = state;
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public void setPhase(final String phase) {
+        this.phase = phase;
+    }
+
+    public Map<String, Long> getDeletedEntities() {
+        return deletedEntities;
+    }
+
+    public void setDeletedEntities(final Map<String, Long> deletedEntities) {
+        this.deletedEntities = deletedEntities;
+    }
+
+    public long getPendingBinaries() {
+        return pendingBinaries;
+    }
+
+    public void setPendingBinaries(final long pendingBinaries) {
+        this.pendingBinaries = pendingBinaries;
+    }
+
+    public long getDeletedBinaries() {
+        return deletedBinaries;
+    }
+
+    public void setDeletedBinaries(final long deletedBinaries) {
+        this.deletedBinaries = deletedBinaries;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(final long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(final Long finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(final String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.mgmt.json.model.target;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+/**
+ * Response body for the status of a target import.
+ *
+ */
+@JsonInclude(Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MgmtTargetImportStatus {
+
+    private String id;
+    private String state;
+    private long readBytes;
+    private long totalBytes;
+    private long lines;
+    private long createdTargets;
+    private long existingTargets;
+    private long invalidLines;
+    private long startedAt;
+    private Long finishedAt;
+    private String error;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(final String id) {
+        this.id = id;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(final String state) {
+        this.state = state;
+    }
+
+    public long getReadBytes() {
+        return readBytes;
+    }
+
+    public void setReadBytes(final long readBytes) {
+        this.readBytes = readBytes;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public void setTotalBytes(final long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    public long getLines() {
+        return lines;
+    }
+
+    public void setLines(final long lines) {
+        this.lines = lines;
+    }
+
+    public long getCreatedTargets() {
+        return createdTargets;
+    }
+
+    public void setCreatedTargets(final long createdTargets) {
+        this.createdTargets = createdTargets;
+    }
+
+    public long getExistingTargets() {
+        return existingTargets;
+    }
+
+    public void setExistingTargets(final long existingTargets) {
+        this.existingTargets = existingTargets;
+    }
+
+    public long getInvalidLines() {
+        return invalidLines;
+    }
+
+    public void setInvalidLines(final long invalidLines) {
+        this.invalidLines = invalidLines;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(final long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(final Long finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(final String error) {
+        this.error = error;
+    }
+}
@@ -49,6 +49,14 @@ public interface MgmtDistributionSetRestApi {
      * @param rsqlParam
      *            the search parameter in the request URL, syntax
      *            {@code q=name==abc}
+     * @param afterParam
+     *            the cursor of a keyset paged request, i.e. the {@code next}
+     *            cursor of the previous page or empty for the first page. If
+     *            present the sets are ordered by ID and the offset and
+     *            sort parameters are ignored.
+     * @param countParam
+     *            {@code false} to skip the count of the total elements, the
+     *            total of the response is {@link PagedList#UNKNOWN_TOTAL} then
      * @return a list of all set for a defined or default page request with
      *         status OK. The response is always paged. In any failure the
      *         JsonResponseExceptionHandler is handling the response.
@@ -58,7 +66,9 @@ public interface MgmtDistributionSetRestApi {
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_OFFSET, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET) final int pagingOffsetParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT) final int pagingLimitParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SORTING, required = false) final String sortParam,
-            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam);
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_AFTER, required = false) final String afterParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_COUNT, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_COUNT) final boolean countParam);
 
     /**
      * Handles the GET request of retrieving a single DistributionSet .
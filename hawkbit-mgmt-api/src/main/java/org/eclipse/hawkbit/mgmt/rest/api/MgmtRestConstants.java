@@ -137,6 +137,38 @@ public final class MgmtRestConstants {
      */
     public static final String REQUEST_PARAMETER_PAGING_OFFSET = "offset";
 
+    /**
+     * Paging http parameter for the cursor of a keyset paged request, i.e.
+     * the {@code next} cursor of the previous page. An empty cursor requests
+     * the first page. Keyset pages are always ordered by ID.
+     */
+    public static final String REQUEST_PARAMETER_PAGING_AFTER = "after";
+
+    /**
+     * Paging http parameter to disable the count of the total elements of a
+     * paged request.
+     */
+    public static final String REQUEST_PARAMETER_PAGING_COUNT = "count";
+
+    /**
+     * The default value of the count parameter in case the count parameter is
+     * not present in the request.
+     *
+     * @see #REQUEST_PARAMETER_PAGING_COUNT
+     */
+    public static final String REQUEST_PARAMETER_PAGING_DEFAULT_COUNT = "true";
+
+    /**
+     * Http parameter to request the streaming export of a list resource
+     * instead of a page.
+     */
+    public static final String REQUEST_PARAMETER_EXPORT = "export";
+
+    /**
+     * Media type of newline delimited JSON, i.e. one JSON object per line.
+     */
+    public static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+
     /**
      * The request parameter for sorting. The value of the sort parameter must
      * be in the following pattern. Example:
@@ -12,11 +12,13 @@ import java.util.Collection;
 
 import org.eclipse.hawkbit.mgmt.json.model.systemmanagement.MgmtSystemCache;
 import org.eclipse.hawkbit.mgmt.json.model.systemmanagement.MgmtSystemStatisticsRest;
+import org.eclipse.hawkbit.mgmt.json.model.systemmanagement.MgmtTenantDeletionStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 
 /**
  * System management capabilities by REST.
@@ -30,10 +32,30 @@ public interface MgmtSystemManagementRestApi {
      *
      * @param tenant
      *            to delete
-     * @return HttpStatus.OK
+     * @param async
+     *            <code>true</code> to start the deletion in the background
+     * @return HttpStatus.OK with the status of the deletion or
+     *         HttpStatus.ACCEPTED if the deletion has been started in the
+     *         background
      */
-    @RequestMapping(method = RequestMethod.DELETE, value = "/tenants/{tenant}")
-    ResponseEntity<Void> deleteTenant(@PathVariable("tenant") final String tenant);
+    @RequestMapping(method = RequestMethod.DELETE, value = "/tenants/{tenant}", produces = {
+            "application/hal+json", MediaType.APPLICATION_JSON_VALUE })
+    ResponseEntity<MgmtTenantDeletionStatus> deleteTenant(@PathVariable("tenant") final String tenant,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_ASYNC, defaultValue = "false")
+            final boolean async);
+
+    /**
+     * Returns the status of the last deletion of a given tenant on the node
+     * that serves the request.
+     *
+     * @param tenant
+     *            that is deleted
+     * @return the status of the deletion or HttpStatus.NOT_FOUND if the
+     *         tenant has not been deleted
+     */
+    @RequestMapping(method = RequestMethod.GET, value = "/tenants/{tenant}/deletion", produces = {
+            "application/hal+json", MediaType.APPLICATION_JSON_VALUE })
+    ResponseEntity<MgmtTenantDeletionStatus> getTenantDeletionStatus(@PathVariable("tenant") final String tenant);
 
     /**
      * Collects and returns system usage statistics. It provides a system wide
@@ -17,6 +17,7 @@ import org.eclipse.hawkbit.mgmt.json.model.distributionset.MgmtDistributionSet;
 import org.eclipse.hawkbit.mgmt.json.model.target.MgmtDistributionSetAssigment;
 import org.eclipse.hawkbit.mgmt.json.model.target.MgmtTarget;
 import org.eclipse.hawkbit.mgmt.json.model.target.MgmtTargetAttributes;
+import org.eclipse.hawkbit.mgmt.json.model.target.MgmtTargetImportStatus;
 import org.eclipse.hawkbit.mgmt.json.model.target.MgmtTargetRequestBody;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -24,6 +25,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
 
 /**
  * Api for handling target operations.
@@ -58,6 +60,14 @@ public interface MgmtTargetRestApi {
      * @param rsqlParam
      *            the search parameter in the request URL, syntax
      *            {@code q=name==abc}
+     * @param afterParam
+     *            the cursor of a keyset paged request, i.e. the {@code next}
+     *            cursor of the previous page or empty for the first page. If
+     *            present the targets are ordered by ID and the offset and
+     *            sort parameters are ignored.
+     * @param countParam
+     *            {@code false} to skip the count of the total elements, the
+     *            total of the response is {@link PagedList#UNKNOWN_TOTAL} then
      * @return a list of all targets for a defined or default page request with
      *         status OK. The response is always paged. In any failure the
      *         JsonResponseExceptionHandler is handling the response.
@@ -68,6 +78,26 @@ public interface MgmtTargetRestApi {
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_OFFSET, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET) final int pagingOffsetParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT) final int pagingLimitParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SORTING, required = false) final String sortParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_AFTER, required = false) final String afterParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_COUNT, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_COUNT) final boolean countParam);
+
+    /**
+     * Handles the GET request of exporting all targets as newline delimited
+     * JSON, i.e. one target per line ordered by ID. The targets are streamed
+     * to the response with bounded memory independent of the number of
+     * targets.
+     *
+     * @param rsqlParam
+     *            the search parameter in the request URL, syntax
+     *            {@code q=name==abc}
+     * @return status OK with the targets written to the response body. In any
+     *         failure before the first target has been written the
+     *         JsonResponseExceptionHandler is handling the response.
+     */
+    @RequestMapping(method = RequestMethod.GET, params = MgmtRestConstants.REQUEST_PARAMETER_EXPORT, produces = {
+            MgmtRestConstants.MEDIA_TYPE_NDJSON })
+    ResponseEntity<Void> exportTargets(
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam);
 
     /**
@@ -85,6 +115,43 @@ public interface MgmtTargetRestApi {
             MediaType.APPLICATION_JSON_VALUE }, produces = { "application/hal+json", MediaType.APPLICATION_JSON_VALUE })
     ResponseEntity<List<MgmtTarget>> createTargets(final List<MgmtTargetRequestBody> targets);
 
+    /**
+     * Handles the POST request of importing targets from a CSV file with one
+     * <code>controllerId,name</code> line per target. The import runs in the
+     * background, targets with an existing controller ID and malformed lines
+     * are skipped.
+     *
+     * @param file
+     *            the CSV file
+     * @param description
+     *            of the imported targets
+     * @param tagIds
+     *            of the target tags to assign to the imported targets
+     * @param distributionSetId
+     *            of the distribution set to assign to the imported targets
+     * @return status ACCEPTED with the status of the started import. In any
+     *         failure the JsonResponseExceptionHandler is handling the
+     *         response.
+     */
+    @RequestMapping(method = RequestMethod.POST, value = "/import", produces = { "application/hal+json",
+            MediaType.APPLICATION_JSON_VALUE })
+    ResponseEntity<MgmtTargetImportStatus> importTargets(@RequestParam("file") final MultipartFile file,
+            @RequestParam(value = "description", required = false) final String description,
+            @RequestParam(value = "tagIds", required = false) final List<Long> tagIds,
+            @RequestParam(value = "distributionSetId", required = false) final Long distributionSetId);
+
+    /**
+     * Handles the GET request of retrieving the status of a target import.
+     *
+     * @param importId
+     *            the ID of the import
+     * @return the status of the import or status NOT_FOUND if the import is
+     *         unknown
+     */
+    @RequestMapping(method = RequestMethod.GET, value = "/import/{importId}", produces = { "application/hal+json",
+            MediaType.APPLICATION_JSON_VALUE })
+    ResponseEntity<MgmtTargetImportStatus> getImportStatus(@PathVariable("importId") final String importId);
+
     /**
      * Handles the PUT request of updating a target. The ID is within the URL
      * path of the request. A given ID in the request body is ignored. It's not
@@ -146,6 +213,14 @@ public interface MgmtTargetRestApi {
      * @param rsqlParam
      *            the search parameter in the request URL, syntax
      *            {@code q=status==pending}
+     * @param afterParam
+     *            the cursor of a keyset paged request, i.e. the {@code next}
+     *            cursor of the previous page or empty for the first page. If
+     *            present the actions are ordered by ID descending and the
+     *            offset and sort parameters are ignored.
+     * @param countParam
+     *            {@code false} to skip the count of the total elements, the
+     *            total of the response is {@link PagedList#UNKNOWN_TOTAL} then
      * @return a list of all Actions for a defined or default page request with
      *         status OK. The response is always paged. In any failure the
      *         JsonResponseExceptionHandler is handling the response.
@@ -156,7 +231,9 @@ public interface MgmtTargetRestApi {
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_OFFSET, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET) final int pagingOffsetParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT) final int pagingLimitParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SORTING, required = false) final String sortParam,
-            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam);
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_AFTER, required = false) final String afterParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_COUNT, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_COUNT) final boolean countParam);
 
     /**
      * Handles the GET request of retrieving a specific Actions of a specific
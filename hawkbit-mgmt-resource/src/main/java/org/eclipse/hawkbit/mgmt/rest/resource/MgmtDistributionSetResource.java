@@ -41,10 +41,13 @@ import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetFilterQuery;
 import org.eclipse.hawkbit.repository.model.TargetWithActionType;
+import org.eclipse.hawkbit.rest.util.EntityTagUtility;
+import org.eclipse.hawkbit.rest.util.RequestResponseContextHolder;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Scope;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -54,11 +57,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
 
 /**
  * REST Resource handling for {@link DistributionSet} CRUD operations.
  */
 @RestController
+@Scope(value = WebApplicationContext.SCOPE_REQUEST)
 public class MgmtDistributionSetResource implements MgmtDistributionSetRestApi {
     private static final Logger LOG = LoggerFactory.getLogger(MgmtDistributionSetResource.class);
 
@@ -86,15 +91,25 @@ public class MgmtDistributionSetResource implements MgmtDistributionSetRestApi {
     @Autowired
     private SystemSecurityContext systemSecurityContext;
 
+    @Autowired
+    private RequestResponseContextHolder requestResponseContextHolder;
+
     @Override
     public ResponseEntity<PagedList<MgmtDistributionSet>> getDistributionSets(
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_OFFSET, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET) final int pagingOffsetParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT) final int pagingLimitParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SORTING, required = false) final String sortParam,
-            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam) {
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_AFTER, required = false) final String afterParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_COUNT, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_COUNT) final boolean countParam) {
 
-        final int sanitizedOffsetParam = PagingUtility.sanitizeOffsetParam(pagingOffsetParam);
         final int sanitizedLimitParam = PagingUtility.sanitizePageLimitParam(pagingLimitParam);
+        if (afterParam != null) {
+            return getDistributionSetsAfter(PagingUtility.decodeCursor(afterParam), sanitizedLimitParam, rsqlParam,
+                    countParam);
+        }
+
+        final int sanitizedOffsetParam = PagingUtility.sanitizeOffsetParam(pagingOffsetParam);
         final Sort sorting = PagingUtility.sanitizeDistributionSetSortParam(sortParam);
 
         final Pageable pageable = new OffsetBasedPageRequest(sanitizedOffsetParam, sanitizedLimitParam, sorting);
@@ -109,12 +124,34 @@ public class MgmtDistributionSetResource implements MgmtDistributionSetRestApi {
         return new ResponseEntity<>(new PagedList<>(rest, findDsPage.getTotalElements()), HttpStatus.OK);
     }
 
+    private ResponseEntity<PagedList<MgmtDistributionSet>> getDistributionSetsAfter(final Long afterId,
+            final int limit, final String rsqlParam, final boolean countParam) {
+        final List<DistributionSet> sets = distributionSetManagement
+                .findDistributionSetsAllAfter(afterId, rsqlParam, limit).getContent();
+
+        long countSetsAll = PagedList.UNKNOWN_TOTAL;
+        if (countParam) {
+            countSetsAll = rsqlParam != null ? distributionSetManagement.countDistributionSetsAll(rsqlParam)
+                    : distributionSetManagement.countDistributionSetsAll();
+        }
+
+        return new ResponseEntity<>(new PagedList<>(MgmtDistributionSetMapper.toResponseFromDsList(sets),
+                countSetsAll, PagingUtility.nextCursor(sets, limit)), HttpStatus.OK);
+    }
+
     @Override
     public ResponseEntity<MgmtDistributionSet> getDistributionSet(
             @PathVariable("distributionSetId") final Long distributionSetId) {
         final DistributionSet foundDs = findDistributionSetWithExceptionIfNotFound(distributionSetId);
 
-        return new ResponseEntity<>(MgmtDistributionSetMapper.toResponse(foundDs), HttpStatus.OK);
+        // the modules are part of the response
+        final String etag = EntityTagUtility.createETag(foundDs, foundDs.getModules().stream()
+                .map(module -> EntityTagUtility.createETag(module)).collect(Collectors.toList()));
+        if (EntityTagUtility.isNotModified(requestResponseContextHolder.getHttpServletRequest(), etag)) {
+            return EntityTagUtility.notModified(etag);
+        }
+
+        return EntityTagUtility.ok(MgmtDistributionSetMapper.toResponse(foundDs), etag);
     }
 
     @Override
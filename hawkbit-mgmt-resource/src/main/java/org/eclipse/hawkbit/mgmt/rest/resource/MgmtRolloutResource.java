@@ -73,10 +73,17 @@ public class MgmtRolloutResource implements MgmtRolloutRestApi {
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_OFFSET, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET) final int pagingOffsetParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT) final int pagingLimitParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SORTING, required = false) final String sortParam,
-            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam) {
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_AFTER, required = false) final String afterParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_COUNT, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_COUNT) final boolean countParam) {
 
-        final int sanitizedOffsetParam = PagingUtility.sanitizeOffsetParam(pagingOffsetParam);
         final int sanitizedLimitParam = PagingUtility.sanitizePageLimitParam(pagingLimitParam);
+        if (afterParam != null) {
+            return getRolloutsAfter(PagingUtility.decodeCursor(afterParam), sanitizedLimitParam, rsqlParam,
+                    countParam);
+        }
+
+        final int sanitizedOffsetParam = PagingUtility.sanitizeOffsetParam(pagingOffsetParam);
         final Sort sorting = PagingUtility.sanitizeRolloutSortParam(sortParam);
 
         final Pageable pageable = new OffsetBasedPageRequest(sanitizedOffsetParam, sanitizedLimitParam, sorting);
@@ -92,6 +99,20 @@ public class MgmtRolloutResource implements MgmtRolloutRestApi {
         return new ResponseEntity<>(new PagedList<>(rest, findModulesAll.getTotalElements()), HttpStatus.OK);
     }
 
+    private ResponseEntity<PagedList<MgmtRolloutResponseBody>> getRolloutsAfter(final Long afterId, final int limit,
+            final String rsqlParam, final boolean countParam) {
+        final List<Rollout> rollouts = this.rolloutManagement.findAllAfter(afterId, rsqlParam, limit).getContent();
+
+        long countRolloutsAll = PagedList.UNKNOWN_TOTAL;
+        if (countParam) {
+            countRolloutsAll = rsqlParam != null ? this.rolloutManagement.countRolloutsAll(rsqlParam)
+                    : this.rolloutManagement.countRolloutsAll();
+        }
+
+        return new ResponseEntity<>(new PagedList<>(MgmtRolloutMapper.toResponseRollout(rollouts), countRolloutsAll,
+                PagingUtility.nextCursor(rollouts, limit)), HttpStatus.OK);
+    }
+
     @Override
     public ResponseEntity<MgmtRolloutResponseBody> getRollout(@PathVariable("rolloutId") final Long rolloutId) {
         final Rollout findRolloutById = findRolloutOrThrowException(rolloutId);
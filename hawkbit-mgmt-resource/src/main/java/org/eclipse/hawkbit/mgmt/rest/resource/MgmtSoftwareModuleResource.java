@@ -35,9 +35,12 @@ import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
 import org.eclipse.hawkbit.repository.model.Artifact;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.SoftwareModuleMetadata;
+import org.eclipse.hawkbit.rest.util.EntityTagUtility;
+import org.eclipse.hawkbit.rest.util.RequestResponseContextHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Scope;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
@@ -49,6 +52,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.multipart.MultipartFile;
 
 /**
@@ -56,6 +60,7 @@ import org.springframework.web.multipart.MultipartFile;
  * {@link Artifact} CRUD operations.
  */
 @RestController
+@Scope(value = WebApplicationContext.SCOPE_REQUEST)
 public class MgmtSoftwareModuleResource implements MgmtSoftwareModuleRestApi {
 
     private static final Logger LOG = LoggerFactory.getLogger(MgmtSoftwareModuleResource.class);
@@ -69,6 +74,9 @@ public class MgmtSoftwareModuleResource implements MgmtSoftwareModuleRestApi {
     @Autowired
     private EntityFactory entityFactory;
 
+    @Autowired
+    private RequestResponseContextHolder requestResponseContextHolder;
+
     @Override
     public ResponseEntity<MgmtArtifact> uploadArtifact(@PathVariable("softwareModuleId") final Long softwareModuleId,
             @RequestParam("file") final MultipartFile file,
@@ -135,10 +143,17 @@ public class MgmtSoftwareModuleResource implements MgmtSoftwareModuleRestApi {
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_OFFSET, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET) final int pagingOffsetParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT) final int pagingLimitParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SORTING, required = false) final String sortParam,
-            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam) {
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_AFTER, required = false) final String afterParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_COUNT, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_COUNT) final boolean countParam) {
 
-        final int sanitizedOffsetParam = PagingUtility.sanitizeOffsetParam(pagingOffsetParam);
         final int sanitizedLimitParam = PagingUtility.sanitizePageLimitParam(pagingLimitParam);
+        if (afterParam != null) {
+            return getSoftwareModulesAfter(PagingUtility.decodeCursor(afterParam), sanitizedLimitParam, rsqlParam,
+                    countParam);
+        }
+
+        final int sanitizedOffsetParam = PagingUtility.sanitizeOffsetParam(pagingOffsetParam);
         final Sort sorting = PagingUtility.sanitizeSoftwareModuleSortParam(sortParam);
 
         final Pageable pageable = new OffsetBasedPageRequest(sanitizedOffsetParam, sanitizedLimitParam, sorting);
@@ -157,12 +172,33 @@ public class MgmtSoftwareModuleResource implements MgmtSoftwareModuleRestApi {
         return ResponseEntity.ok(new PagedList<>(rest, countModulesAll));
     }
 
+    private ResponseEntity<PagedList<MgmtSoftwareModule>> getSoftwareModulesAfter(final Long afterId, final int limit,
+            final String rsqlParam, final boolean countParam) {
+        final List<SoftwareModule> modules = softwareManagement.findSoftwareModulesAllAfter(afterId, rsqlParam, limit)
+                .getContent();
+
+        long countModulesAll = PagedList.UNKNOWN_TOTAL;
+        if (countParam) {
+            countModulesAll = rsqlParam != null ? softwareManagement.countSoftwareModulesAll(rsqlParam)
+                    : softwareManagement.countSoftwareModulesAll();
+        }
+
+        return ResponseEntity.ok(new PagedList<>(MgmtSoftwareModuleMapper.toResponse(modules), countModulesAll,
+                PagingUtility.nextCursor(modules, limit)));
+    }
+
     @Override
     public ResponseEntity<MgmtSoftwareModule> getSoftwareModule(
             @PathVariable("softwareModuleId") final Long softwareModuleId) {
 
         final SoftwareModule findBaseSoftareModule = findSoftwareModuleWithExceptionIfNotFound(softwareModuleId, null);
-        return ResponseEntity.ok(toResponse(findBaseSoftareModule));
+
+        final String etag = EntityTagUtility.createETag(findBaseSoftareModule);
+        if (EntityTagUtility.isNotModified(requestResponseContextHolder.getHttpServletRequest(), etag)) {
+            return EntityTagUtility.notModified(etag);
+        }
+
+        return EntityTagUtility.ok(toResponse(findBaseSoftareModule), etag);
     }
 
     @Override
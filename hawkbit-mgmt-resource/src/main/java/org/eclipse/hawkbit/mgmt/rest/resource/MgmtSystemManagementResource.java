@@ -17,8 +17,11 @@ import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
 import org.eclipse.hawkbit.mgmt.json.model.systemmanagement.MgmtSystemCache;
 import org.eclipse.hawkbit.mgmt.json.model.systemmanagement.MgmtSystemStatisticsRest;
 import org.eclipse.hawkbit.mgmt.json.model.systemmanagement.MgmtSystemTenantServiceUsage;
+import org.eclipse.hawkbit.mgmt.json.model.systemmanagement.MgmtTenantDeletionStatus;
+import org.eclipse.hawkbit.mgmt.rest.api.MgmtRestConstants;
 import org.eclipse.hawkbit.mgmt.rest.api.MgmtSystemManagementRestApi;
 import org.eclipse.hawkbit.repository.SystemManagement;
+import org.eclipse.hawkbit.repository.model.TenantDeletionStatus;
 import org.eclipse.hawkbit.repository.report.model.SystemUsageReport;
 import org.eclipse.hawkbit.repository.report.model.TenantUsage;
 import org.slf4j.Logger;
@@ -30,6 +33,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -52,12 +56,54 @@ public class MgmtSystemManagementResource implements MgmtSystemManagementRestApi
      *
      * @param tenant
      *            to delete
-     * @return HttpStatus.OK
+     * @param async
+     *            <code>true</code> to start the deletion in the background
+     * @return HttpStatus.OK with the status of the deletion or
+     *         HttpStatus.ACCEPTED if the deletion has been started in the
+     *         background
      */
     @Override
-    public ResponseEntity<Void> deleteTenant(@PathVariable("tenant") final String tenant) {
+    public ResponseEntity<MgmtTenantDeletionStatus> deleteTenant(@PathVariable("tenant") final String tenant,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_ASYNC, defaultValue = "false")
+            final boolean async) {
+        if (async) {
+            return new ResponseEntity<>(toResponse(systemManagement.startTenantDeletion(tenant)), HttpStatus.ACCEPTED);
+        }
         systemManagement.deleteTenant(tenant);
-        return new ResponseEntity<>(HttpStatus.OK);
+        return ResponseEntity.ok(toResponse(systemManagement.getTenantDeletionStatus(tenant)));
+    }
+
+    /**
+     * Returns the status of the last deletion of a given tenant on the node
+     * that serves the request.
+     *
+     * @param tenant
+     *            that is deleted
+     * @return the status of the deletion or HttpStatus.NOT_FOUND if the
+     *         tenant has not been deleted
+     */
+    @Override
+    public ResponseEntity<MgmtTenantDeletionStatus> getTenantDeletionStatus(
+            @PathVariable("tenant") final String tenant) {
+        final TenantDeletionStatus status = systemManagement.getTenantDeletionStatus(tenant);
+        if (status == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.ok(toResponse(status));
+    }
+
+    private static MgmtTenantDeletionStatus toResponse(final TenantDeletionStatus status) {
+        final MgmtTenantDeletionStatus result = new MgmtTenantDeletionStatus();
+        result.setTenant(status.getTenant());
+        result.setState(status.getState().name());
+        result.setPhase(status.getPhase());
+        result.setDeletedEntities(status.getDeletedEntities());
+        result.setPendingBinaries(status.getPendingBinaries());
+        result.setDeletedBinaries(status.getDeletedBinaries());
+        result.setStartedAt(status.getStartedAt());
+        result.setFinishedAt(status.getFinishedAt());
+        result.setError(status.getError());
+        return result;
     }
 
     /**
@@ -11,11 +11,17 @@ package org.eclipse.hawkbit.mgmt.rest.resource;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import javax.servlet.http.HttpServletResponse;
+
 import org.eclipse.hawkbit.mgmt.json.model.PagedList;
 import org.eclipse.hawkbit.mgmt.json.model.action.MgmtAction;
 import org.eclipse.hawkbit.mgmt.json.model.action.MgmtActionStatus;
@@ -23,6 +29,7 @@ import org.eclipse.hawkbit.mgmt.json.model.distributionset.MgmtDistributionSet;
 import org.eclipse.hawkbit.mgmt.json.model.target.MgmtDistributionSetAssigment;
 import org.eclipse.hawkbit.mgmt.json.model.target.MgmtTarget;
 import org.eclipse.hawkbit.mgmt.json.model.target.MgmtTargetAttributes;
+import org.eclipse.hawkbit.mgmt.json.model.target.MgmtTargetImportStatus;
 import org.eclipse.hawkbit.mgmt.json.model.target.MgmtTargetRequestBody;
 import org.eclipse.hawkbit.mgmt.rest.api.MgmtDistributionSetRestApi;
 import org.eclipse.hawkbit.mgmt.rest.api.MgmtRestConstants;
@@ -31,16 +38,23 @@ import org.eclipse.hawkbit.repository.ActionStatusFields;
 import org.eclipse.hawkbit.repository.DeploymentManagement;
 import org.eclipse.hawkbit.repository.EntityFactory;
 import org.eclipse.hawkbit.repository.OffsetBasedPageRequest;
+import org.eclipse.hawkbit.repository.TargetImportManagement;
 import org.eclipse.hawkbit.repository.TargetManagement;
 import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.ActionType;
 import org.eclipse.hawkbit.repository.model.ActionStatus;
+import org.eclipse.hawkbit.repository.model.PollStatus;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetImportStatus;
+import org.eclipse.hawkbit.repository.model.TargetInfo;
 import org.eclipse.hawkbit.rest.data.SortDirection;
+import org.eclipse.hawkbit.rest.util.EntityTagUtility;
+import org.eclipse.hawkbit.rest.util.RequestResponseContextHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Scope;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
@@ -51,13 +65,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.multipart.MultipartFile;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.google.common.collect.Lists;
 
 /**
  * REST Resource handling target CRUD operations.
  */
 @RestController
+@Scope(value = WebApplicationContext.SCOPE_REQUEST)
 public class MgmtTargetResource implements MgmtTargetRestApi {
     private static final Logger LOG = LoggerFactory.getLogger(MgmtTargetResource.class);
 
@@ -67,18 +86,39 @@ public class MgmtTargetResource implements MgmtTargetRestApi {
     @Autowired
     private DeploymentManagement deploymentManagement;
 
+    @Autowired
+    private TargetImportManagement targetImportManagement;
+
     @Autowired
     private EntityFactory entityFactory;
 
+    @Autowired
+    private RequestResponseContextHolder requestResponseContextHolder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Override
     public ResponseEntity<MgmtTarget> getTarget(@PathVariable("controllerId") final String controllerId) {
         final Target findTarget = findTargetWithExceptionIfNotFound(controllerId);
+
+        // the target info is updated by the controller without touching the
+        // version of the target
+        final TargetInfo targetInfo = findTarget.getTargetInfo();
+        final PollStatus pollStatus = targetInfo.getPollStatus();
+        final String etag = EntityTagUtility.createETag(findTarget, targetInfo.getLastTargetQuery(),
+                targetInfo.getUpdateStatus(), targetInfo.getInstallationDate(), targetInfo.getAddress(),
+                pollStatus != null && pollStatus.isOverdue());
+        if (EntityTagUtility.isNotModified(requestResponseContextHolder.getHttpServletRequest(), etag)) {
+            return EntityTagUtility.notModified(etag);
+        }
+
         // to single response include poll status
         final MgmtTarget response = MgmtTargetMapper.toResponse(findTarget);
         MgmtTargetMapper.addPollStatus(findTarget, response);
         MgmtTargetMapper.addTargetLinks(response);
 
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return EntityTagUtility.ok(response, etag);
     }
 
     @Override
@@ -86,28 +126,92 @@ public class MgmtTargetResource implements MgmtTargetRestApi {
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_OFFSET, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET) final int pagingOffsetParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT) final int pagingLimitParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SORTING, required = false) final String sortParam,
-            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam) {
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_AFTER, required = false) final String afterParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_COUNT, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_COUNT) final boolean countParam) {
 
-        final int sanitizedOffsetParam = PagingUtility.sanitizeOffsetParam(pagingOffsetParam);
         final int sanitizedLimitParam = PagingUtility.sanitizePageLimitParam(pagingLimitParam);
+        if (afterParam != null) {
+            return getTargetsAfter(PagingUtility.decodeCursor(afterParam), sanitizedLimitParam, rsqlParam,
+                    countParam);
+        }
+
+        final int sanitizedOffsetParam = PagingUtility.sanitizeOffsetParam(pagingOffsetParam);
         final Sort sorting = PagingUtility.sanitizeTargetSortParam(sortParam);
 
         final Pageable pageable = new OffsetBasedPageRequest(sanitizedOffsetParam, sanitizedLimitParam, sorting);
         final Slice<Target> findTargetsAll;
-        final Long countTargetsAll;
-        if (rsqlParam != null) {
+        final long countTargetsAll;
+        if (rsqlParam != null && countParam) {
             final Page<Target> findTargetPage = this.targetManagement.findTargetsAll(rsqlParam, pageable);
             countTargetsAll = findTargetPage.getTotalElements();
             findTargetsAll = findTargetPage;
+        } else if (rsqlParam != null) {
+            findTargetsAll = this.targetManagement.findTargetsAllWithoutCount(rsqlParam, pageable);
+            countTargetsAll = PagedList.UNKNOWN_TOTAL;
         } else {
             findTargetsAll = this.targetManagement.findTargetsAll(pageable);
-            countTargetsAll = this.targetManagement.countTargetsAll();
+            countTargetsAll = countParam ? this.targetManagement.countTargetsAll() : PagedList.UNKNOWN_TOTAL;
         }
 
         final List<MgmtTarget> rest = MgmtTargetMapper.toResponse(findTargetsAll.getContent());
         return new ResponseEntity<>(new PagedList<>(rest, countTargetsAll), HttpStatus.OK);
     }
 
+    private ResponseEntity<PagedList<MgmtTarget>> getTargetsAfter(final Long afterId, final int limit,
+            final String rsqlParam, final boolean countParam) {
+        final List<Target> targets = this.targetManagement.findTargetsAllAfter(afterId, rsqlParam, limit)
+                .getContent();
+
+        long countTargetsAll = PagedList.UNKNOWN_TOTAL;
+        if (countParam) {
+            countTargetsAll = rsqlParam != null ? this.targetManagement.countTargetByTargetFilterQuery(rsqlParam)
+                    : this.targetManagement.countTargetsAll();
+        }
+
+        final String next = PagingUtility.nextCursor(targets, limit);
+
+        return new ResponseEntity<>(new PagedList<>(MgmtTargetMapper.toResponse(targets), countTargetsAll, next),
+                HttpStatus.OK);
+    }
+
+    @Override
+    public ResponseEntity<Void> exportTargets(
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam) {
+        final HttpServletResponse response = requestResponseContextHolder.getHttpServletResponse();
+        response.setContentType(MgmtRestConstants.MEDIA_TYPE_NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        // every chunk is read in its own transaction, i.e. no transaction is
+        // kept open while the targets are written to the client
+        final int chunkSize = MgmtRestConstants.REQUEST_PARAMETER_PAGING_MAX_LIMIT;
+        try {
+            final OutputStream outputStream = response.getOutputStream();
+            Long afterId = null;
+            List<Target> chunk;
+            do {
+                chunk = this.targetManagement.findTargetsAllAfter(afterId, rsqlParam, chunkSize).getContent();
+                writeLines(outputStream, chunk);
+                if (!chunk.isEmpty()) {
+                    afterId = chunk.get(chunk.size() - 1).getId();
+                }
+            } while (chunk.size() == chunkSize);
+        } catch (final IOException e) {
+            LOG.warn("Export of targets has been aborted", e);
+        }
+
+        return ResponseEntity.ok().build();
+    }
+
+    private void writeLines(final OutputStream outputStream, final List<Target> targets) throws IOException {
+        final ObjectWriter writer = objectMapper.writer();
+        for (final Target target : targets) {
+            outputStream.write(writer.writeValueAsBytes(MgmtTargetMapper.toResponse(target)));
+            outputStream.write('\n');
+        }
+        outputStream.flush();
+    }
+
     @Override
     public ResponseEntity<List<MgmtTarget>> createTargets(@RequestBody final List<MgmtTargetRequestBody> targets) {
         LOG.debug("creating {} targets", targets.size());
@@ -117,6 +221,47 @@ public class MgmtTargetResource implements MgmtTargetRestApi {
         return new ResponseEntity<>(MgmtTargetMapper.toResponse(createdTargets), HttpStatus.CREATED);
     }
 
+    @Override
+    public ResponseEntity<MgmtTargetImportStatus> importTargets(@RequestParam("file") final MultipartFile file,
+            @RequestParam(value = "description", required = false) final String description,
+            @RequestParam(value = "tagIds", required = false) final List<Long> tagIds,
+            @RequestParam(value = "distributionSetId", required = false) final Long distributionSetId) {
+        try (InputStream csv = file.getInputStream()) {
+            final TargetImportStatus status = targetImportManagement.startImport(csv, description, tagIds,
+                    distributionSetId);
+            LOG.debug("target import {} started, return status {}", status.getId(), HttpStatus.ACCEPTED);
+            return new ResponseEntity<>(toResponse(status), HttpStatus.ACCEPTED);
+        } catch (final IOException e) {
+            LOG.error("Failed to read the target import file", e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @Override
+    public ResponseEntity<MgmtTargetImportStatus> getImportStatus(@PathVariable("importId") final String importId) {
+        final TargetImportStatus status = targetImportManagement.getImportStatus(importId);
+        if (status == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.ok(toResponse(status));
+    }
+
+    private static MgmtTargetImportStatus toResponse(final TargetImportStatus status) {
+        final MgmtTargetImportStatus result = new MgmtTargetImportStatus();
+        result.setId(status.getId());
+        result.setState(status.getState().name());
+        result.setReadBytes(status.getReadBytes());
+        result.setTotalBytes(status.getTotalBytes());
+        result.setLines(status.getLines());
+        result.setCreatedTargets(status.getCreatedTargets());
+        result.setExistingTargets(status.getExistingTargets());
+        result.setInvalidLines(status.getInvalidLines());
+        result.setStartedAt(status.getStartedAt());
+        result.setFinishedAt(status.getFinishedAt());
+        result.setError(status.getError());
+        return result;
+    }
+
     @Override
     public ResponseEntity<MgmtTarget> updateTarget(@PathVariable("controllerId") final String controllerId,
             @RequestBody final MgmtTargetRequestBody targetRest) {
@@ -156,23 +301,32 @@ public class MgmtTargetResource implements MgmtTargetRestApi {
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_OFFSET, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET) final int pagingOffsetParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT) final int pagingLimitParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SORTING, required = false) final String sortParam,
-            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam) {
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_AFTER, required = false) final String afterParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_COUNT, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_COUNT) final boolean countParam) {
 
         final Target foundTarget = findTargetWithExceptionIfNotFound(controllerId);
 
-        final int sanitizedOffsetParam = PagingUtility.sanitizeOffsetParam(pagingOffsetParam);
         final int sanitizedLimitParam = PagingUtility.sanitizePageLimitParam(pagingLimitParam);
+        if (afterParam != null) {
+            return getActionHistoryBefore(controllerId, foundTarget, PagingUtility.decodeCursor(afterParam),
+                    sanitizedLimitParam, rsqlParam, countParam);
+        }
+
+        final int sanitizedOffsetParam = PagingUtility.sanitizeOffsetParam(pagingOffsetParam);
         final Sort sorting = PagingUtility.sanitizeActionSortParam(sortParam);
         final Pageable pageable = new OffsetBasedPageRequest(sanitizedOffsetParam, sanitizedLimitParam, sorting);
 
         final Slice<Action> activeActions;
-        final Long totalActionCount;
+        final long totalActionCount;
         if (rsqlParam != null) {
             activeActions = this.deploymentManagement.findActionsByTarget(rsqlParam, foundTarget, pageable);
-            totalActionCount = this.deploymentManagement.countActionsByTarget(rsqlParam, foundTarget);
+            totalActionCount = countParam ? this.deploymentManagement.countActionsByTarget(rsqlParam, foundTarget)
+                    : PagedList.UNKNOWN_TOTAL;
         } else {
             activeActions = this.deploymentManagement.findActionsByTarget(foundTarget, pageable);
-            totalActionCount = this.deploymentManagement.countActionsByTarget(foundTarget);
+            totalActionCount = countParam ? this.deploymentManagement.countActionsByTarget(foundTarget)
+                    : PagedList.UNKNOWN_TOTAL;
         }
 
         return new ResponseEntity<>(
@@ -181,6 +335,27 @@ public class MgmtTargetResource implements MgmtTargetRestApi {
                 HttpStatus.OK);
     }
 
+    private ResponseEntity<PagedList<MgmtAction>> getActionHistoryBefore(final String controllerId,
+            final Target target, final Long beforeActionId, final int limit, final String rsqlParam,
+            final boolean countParam) {
+        final List<Action> actions = this.deploymentManagement
+                .findActionsByTargetBefore(beforeActionId, rsqlParam, target, limit).getContent();
+
+        long totalActionCount = PagedList.UNKNOWN_TOTAL;
+        if (countParam) {
+            totalActionCount = rsqlParam != null ? this.deploymentManagement.countActionsByTarget(rsqlParam, target)
+                    : this.deploymentManagement.countActionsByTarget(target);
+        }
+
+        // a full page might be followed by further actions
+        final String next = actions.size() < limit ? null
+                : PagingUtility.encodeCursor(actions.get(actions.size() - 1).getId());
+
+        return new ResponseEntity<>(
+                new PagedList<>(MgmtTargetMapper.toResponse(controllerId, actions), totalActionCount, next),
+                HttpStatus.OK);
+    }
+
     @Override
     public ResponseEntity<MgmtAction> getAction(@PathVariable("controllerId") final String controllerId,
             @PathVariable("actionId") final Long actionId) {
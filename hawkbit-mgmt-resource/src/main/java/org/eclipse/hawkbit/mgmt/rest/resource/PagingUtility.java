@@ -8,6 +8,10 @@
  */
 package org.eclipse.hawkbit.mgmt.rest.resource;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
 import org.eclipse.hawkbit.mgmt.rest.api.MgmtRestConstants;
 import org.eclipse.hawkbit.repository.ActionFields;
 import org.eclipse.hawkbit.repository.ActionStatusFields;
@@ -21,6 +25,8 @@ import org.eclipse.hawkbit.repository.SoftwareModuleMetadataFields;
 import org.eclipse.hawkbit.repository.SoftwareModuleTypeFields;
 import org.eclipse.hawkbit.repository.TargetFields;
 import org.eclipse.hawkbit.repository.TargetFilterQueryFields;
+import org.eclipse.hawkbit.repository.model.BaseEntity;
+import org.eclipse.hawkbit.rest.exception.PagingCursorInvalidException;
 import org.eclipse.hawkbit.rest.util.SortUtility;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
@@ -52,6 +58,49 @@ public final class PagingUtility {
         return pageLimit;
     }
 
+    /**
+     * @param cursor
+     *            of a keyset paged request
+     * @return ID of the last entity of the previous page or <code>null</code>
+     *         if the cursor requests the first page
+     * @throws PagingCursorInvalidException
+     *             if the cursor has not been created by
+     *             {@link #encodeCursor(Long)}
+     */
+    static Long decodeCursor(final String cursor) {
+        if (cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (final IllegalArgumentException e) {
+            throw new PagingCursorInvalidException(e);
+        }
+    }
+
+    /**
+     * @param lastId
+     *            ID of the last entity of the page
+     * @return the cursor of the next page
+     */
+    static String encodeCursor(final Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(lastId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param page
+     *            entities of a keyset paged request ordered by ID
+     * @param limit
+     *            of the keyset paged request
+     * @return the cursor of the next page or <code>null</code> if the page is
+     *         not full, i.e. there is no next page
+     */
+    static String nextCursor(final List<? extends BaseEntity> page, final int limit) {
+        // a full page might be followed by further entities
+        return page.size() < limit ? null : encodeCursor(page.get(page.size() - 1).getId());
+    }
+
     static Sort sanitizeTargetSortParam(final String sortParam) {
         if (sortParam == null) {
             // default
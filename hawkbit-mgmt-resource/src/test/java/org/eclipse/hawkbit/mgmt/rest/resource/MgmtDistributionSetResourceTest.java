@@ -415,6 +415,29 @@ public class MgmtDistributionSetResourceTest extends AbstractRestIntegrationTest
                 .andExpect(jsonPath(MgmtTargetResourceTest.JSON_PATH_PAGED_LIST_CONTENT, hasSize(expectedSize)));
     }
 
+    @Test
+    @Description("Ensures that all DS can be walked through with the cursor of keyset paging without counting them.")
+    public void getDistributionSetsWithKeysetPaging() throws Exception {
+        createDistributionSetsAlphabetical(3);
+
+        final MvcResult result = mvc
+                .perform(get(MgmtRestConstants.DISTRIBUTIONSET_V1_REQUEST_MAPPING)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_AFTER, "")
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, "2")
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_COUNT, "false"))
+                .andDo(MockMvcResultPrinter.print()).andExpect(status().isOk())
+                .andExpect(jsonPath(MgmtTargetResourceTest.JSON_PATH_PAGED_LIST_TOTAL, equalTo(-1)))
+                .andExpect(jsonPath("$.content.[*].name", contains("a", "b"))).andReturn();
+        final String next = JsonPath.read(result.getResponse().getContentAsString(), "$.next");
+
+        mvc.perform(get(MgmtRestConstants.DISTRIBUTIONSET_V1_REQUEST_MAPPING)
+                .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_AFTER, next)
+                .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, "2")).andDo(MockMvcResultPrinter.print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(MgmtTargetResourceTest.JSON_PATH_PAGED_LIST_TOTAL, equalTo(3)))
+                .andExpect(jsonPath("$.content.[*].name", contains("c"))).andExpect(jsonPath("$.next").doesNotExist());
+    }
+
     @Test
     @WithUser(principal = "uploadTester", allSpPermissions = true)
     @Description("Ensures that multiple DS requested are listed with expected payload.")
@@ -15,6 +15,7 @@ import static org.hamcrest.CoreMatchers.endsWith;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -47,8 +48,10 @@ import org.springframework.context.annotation.Description;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.google.common.collect.Lists;
+import com.jayway.jsonpath.JsonPath;
 
 import ru.yandex.qatools.allure.annotations.Features;
 import ru.yandex.qatools.allure.annotations.Step;
@@ -391,6 +394,34 @@ public class MgmtRolloutResourceTest extends AbstractRestIntegrationTest {
                 .andExpect(jsonPath("$.content", hasSize(1))).andExpect(jsonPath("$.total", equalTo(2)));
     }
 
+    @Test
+    @Description("Testing that all rollouts can be walked through with the cursor of keyset paging")
+    public void rolloutPagedListWithKeysetPaging() throws Exception {
+        final DistributionSet dsA = testdataFactory.createDistributionSet("");
+        testdataFactory.createTargets(4, "rollout", "rollout");
+
+        createRollout("rollout1", 1, dsA.getId(), "controllerId==rollout*");
+        createRollout("rollout2", 1, dsA.getId(), "controllerId==rollout*");
+        createRollout("other", 1, dsA.getId(), "controllerId==rollout*");
+
+        final MvcResult result = mvc
+                .perform(get("/rest/v1/rollouts").param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_AFTER, "")
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, "2")
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_COUNT, "false"))
+                .andDo(MockMvcResultPrinter.print()).andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", equalTo(-1)))
+                .andExpect(jsonPath("$.content[*].name", contains("rollout1", "rollout2"))).andReturn();
+        final String next = JsonPath.read(result.getResponse().getContentAsString(), "$.next");
+
+        mvc.perform(get("/rest/v1/rollouts").param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_AFTER, next)
+                .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, "2")
+                .param(MgmtRestConstants.REQUEST_PARAMETER_SEARCH, "name==other"))
+                .andDo(MockMvcResultPrinter.print()).andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", equalTo(1)))
+                .andExpect(jsonPath("$.content[*].name", contains("other")))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
     @Test
     @Description("Testing that rollout paged list is limited by the query param limit")
     public void retrieveRolloutGroupsForSpecificRollout() throws Exception {
@@ -509,6 +509,30 @@ public class MgmtSoftwareModuleResourceTest extends AbstractRestIntegrationTest
                 .andExpect(jsonPath(MgmtTargetResourceTest.JSON_PATH_PAGED_LIST_CONTENT, hasSize(expectedSize)));
     }
 
+    @Test
+    @Description("Test of modules retrieval with the cursor of keyset paging. Will return all modules in the system page by page ordered by ID.")
+    public void getSoftwareModulesWithKeysetPaging() throws Exception {
+        createSoftwareModulesAlphabetical(3);
+
+        final MvcResult result = mvc
+                .perform(get(MgmtRestConstants.SOFTWAREMODULE_V1_REQUEST_MAPPING)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_AFTER, "")
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, "2")
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_COUNT, "false"))
+                .andDo(MockMvcResultPrinter.print()).andExpect(status().isOk())
+                .andExpect(jsonPath(MgmtTargetResourceTest.JSON_PATH_PAGED_LIST_TOTAL, equalTo(-1)))
+                .andExpect(jsonPath("$.content.[*].name", contains("a", "b"))).andReturn();
+        final String next = JsonPath.read(result.getResponse().getContentAsString(), "$.next");
+
+        mvc.perform(get(MgmtRestConstants.SOFTWAREMODULE_V1_REQUEST_MAPPING)
+                .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_AFTER, next)
+                .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, "2")
+                .param(MgmtRestConstants.REQUEST_PARAMETER_SEARCH, "name==c")).andDo(MockMvcResultPrinter.print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(MgmtTargetResourceTest.JSON_PATH_PAGED_LIST_TOTAL, equalTo(1)))
+                .andExpect(jsonPath("$.content.[*].name", contains("c"))).andExpect(jsonPath("$.next").doesNotExist());
+    }
+
     @Test
     @WithUser(principal = "uploadTester", allSpPermissions = true)
     @Description("Test retrieval of all software modules the user has access to.")
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.mgmt.rest.resource;
+
+import static org.hamcrest.Matchers.equalToIgnoringCase;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.mgmt.rest.api.MgmtRestConstants;
+import org.eclipse.hawkbit.repository.model.TenantDeletionStatus;
+import org.eclipse.hawkbit.repository.model.TenantDeletionStatus.State;
+import org.eclipse.hawkbit.repository.test.util.WithSpringAuthorityRule;
+import org.eclipse.hawkbit.repository.test.util.WithUser;
+import org.eclipse.hawkbit.rest.AbstractRestIntegrationTest;
+import org.eclipse.hawkbit.rest.util.MockMvcResultPrinter;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+
+import com.jayway.awaitility.Awaitility;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+/**
+ * Test for {@link MgmtSystemManagementResource}.
+ *
+ */
+@Features("Component Tests - Management API")
+@Stories("System Management Resource")
+public class MgmtSystemManagementResourceTest extends AbstractRestIntegrationTest {
+
+    private static final String TENANT = "deletedTenant";
+
+    @Test
+    @WithUser(tenantId = "mytenant", allSpPermissions = true)
+    @Description("Verifies that an asynchronous tenant deletion is accepted and that its progress is reported by the deletion status resource.")
+    public void deleteTenantAsynchronously() throws Exception {
+        securityRule.runAs(WithSpringAuthorityRule.withUserAndTenant("user", TENANT),
+                () -> testdataFactory.createTargets(2, "target", "deleted"));
+
+        mvc.perform(delete(MgmtRestConstants.SYSTEM_ADMIN_MAPPING + "/tenants/{tenant}", TENANT)
+                .param(MgmtRestConstants.REQUEST_PARAMETER_ASYNC, "true").accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultPrinter.print()).andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.tenant", equalToIgnoringCase(TENANT)))
+                .andExpect(jsonPath("$.startedAt").exists());
+
+        Awaitility.await().atMost(10, TimeUnit.SECONDS).until(new DelegatingSecurityContextCallable<>(() -> {
+            final TenantDeletionStatus status = systemManagement.getTenantDeletionStatus(TENANT);
+            return status.getState() == State.FINISHED;
+        }));
+
+        mvc.perform(get(MgmtRestConstants.SYSTEM_ADMIN_MAPPING + "/tenants/{tenant}/deletion", TENANT)
+                .accept(MediaType.APPLICATION_JSON)).andDo(MockMvcResultPrinter.print())
+                .andExpect(status().isOk()).andExpect(jsonPath("$.tenant", equalToIgnoringCase(TENANT)))
+                .andExpect(jsonPath("$.state").value(State.FINISHED.name()))
+                .andExpect(jsonPath("$.deletedEntities.targets").value(2))
+                .andExpect(jsonPath("$.pendingBinaries").value(0)).andExpect(jsonPath("$.finishedAt").exists())
+                .andExpect(jsonPath("$.error").doesNotExist());
+    }
+
+    @Test
+    @WithUser(tenantId = "mytenant", allSpPermissions = true)
+    @Description("Verifies that the deletion status of a tenant which has not been deleted is not found.")
+    public void getDeletionStatusOfNotDeletedTenant() throws Exception {
+        mvc.perform(get(MgmtRestConstants.SYSTEM_ADMIN_MAPPING + "/tenants/{tenant}/deletion", "notDeleted")
+                .accept(MediaType.APPLICATION_JSON)).andDo(MockMvcResultPrinter.print())
+                .andExpect(status().isNotFound());
+    }
+}
@@ -17,6 +17,7 @@ import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.fileUpload;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
@@ -24,10 +25,12 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.RandomStringUtils;
@@ -44,6 +47,7 @@ import org.eclipse.hawkbit.repository.model.ActionStatus;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetTag;
 import org.eclipse.hawkbit.repository.test.util.WithUser;
 import org.eclipse.hawkbit.rest.AbstractRestIntegrationTest;
 import org.eclipse.hawkbit.rest.exception.MessageNotReadableException;
@@ -58,9 +62,12 @@ import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
 import org.springframework.test.web.servlet.MvcResult;
 
 import com.google.common.collect.Lists;
+import com.jayway.awaitility.Awaitility;
 import com.jayway.jsonpath.JsonPath;
 
 import ru.yandex.qatools.allure.annotations.Description;
@@ -507,6 +514,63 @@ public class MgmtTargetResourceTest extends AbstractRestIntegrationTest {
                 .andExpect(jsonPath("$.content.[?(@.name==" + idE + ")].updateStatus", contains("registered")));
     }
 
+    @Test
+    @Description("Ensures that all targets can be walked through with the cursor of keyset paging without counting them.")
+    public void getTargetsWithKeysetPaging() throws Exception {
+        createTargetsAlphabetical(5);
+
+        MvcResult result = mvc
+                .perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_AFTER, "")
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, "2")
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_COUNT, "false"))
+                .andExpect(status().isOk()).andExpect(jsonPath(JSON_PATH_PAGED_LIST_TOTAL, equalTo(-1)))
+                .andExpect(jsonPath("$.content.[*].controllerId", contains("a", "b"))).andReturn();
+        String next = JsonPath.read(result.getResponse().getContentAsString(), "$.next");
+
+        result = mvc
+                .perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_AFTER, next)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, "2"))
+                .andExpect(status().isOk()).andExpect(jsonPath(JSON_PATH_PAGED_LIST_TOTAL, equalTo(5)))
+                .andExpect(jsonPath("$.content.[*].controllerId", contains("c", "d"))).andReturn();
+        next = JsonPath.read(result.getResponse().getContentAsString(), "$.next");
+
+        mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_AFTER, next)
+                .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, "2")
+                .param(MgmtRestConstants.REQUEST_PARAMETER_SEARCH, "name==e"))
+                .andExpect(status().isOk()).andExpect(jsonPath(JSON_PATH_PAGED_LIST_TOTAL, equalTo(1)))
+                .andExpect(jsonPath("$.content.[*].controllerId", contains("e")))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    @Description("Ensures that an invalid keyset paging cursor is refused with bad request.")
+    public void getTargetsWithInvalidCursorLeadsToBadRequest() throws Exception {
+        mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_AFTER, "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Description("Ensures that the export returns the filtered targets as newline delimited JSON ordered by ID.")
+    public void exportTargetsAsNdjson() throws Exception {
+        createTargetsAlphabetical(3);
+
+        final MvcResult result = mvc
+                .perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_EXPORT, "")
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_SEARCH, "name=in=(a,c)")
+                        .accept(MgmtRestConstants.MEDIA_TYPE_NDJSON))
+                .andExpect(status().isOk()).andReturn();
+
+        final String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(JsonPath.<String> read(lines[0], "$.controllerId")).isEqualTo("a");
+        assertThat(JsonPath.<String> read(lines[1], "$.controllerId")).isEqualTo("c");
+    }
+
     @Test
     public void getSingleTarget() throws Exception {
         // create first a target which can be retrieved by rest interface
@@ -530,6 +594,28 @@ public class MgmtTargetResourceTest extends AbstractRestIntegrationTest {
                         equalTo(hrefPrefix + "actions" + "?offset=0&limit=50&sort=id:DESC")));
     }
 
+    @Test
+    @Description("Ensures that the ETag of a single target is calculated from the target version and that a matching If-None-Match header results in not modified.")
+    public void getSingleTargetNotModified() throws Exception {
+        final String knownControllerId = "1";
+        createSingleTarget(knownControllerId, "someName");
+
+        final String etag = mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING + "/" + knownControllerId))
+                .andExpect(status().isOk()).andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).isNotNull();
+
+        mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING + "/" + knownControllerId)
+                .header("If-None-Match", etag)).andExpect(status().isNotModified());
+
+        mvc.perform(put(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING + "/" + knownControllerId)
+                .content("{\"description\":\"changed\"}").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING + "/" + knownControllerId)
+                .header("If-None-Match", etag)).andExpect(status().isOk())
+                .andExpect(jsonPath(JSON_PATH_DESCRIPTION, equalTo("changed")));
+    }
+
     @Test
     public void getSingleTargetNoExistsResponseNotFound() throws Exception {
         final String targetIdNotExists = "bubu";
@@ -873,6 +959,31 @@ public class MgmtTargetResourceTest extends AbstractRestIntegrationTest {
                 .andExpect(jsonPath(JSON_PATH_PAGED_LIST_CONTENT, hasSize(2)));
     }
 
+    @Test
+    @Description("Ensures that the action history can be walked through newest first with the cursor of keyset paging.")
+    public void getActionsWithKeysetPaging() throws Exception {
+        final String knownTargetId = "targetId";
+        final List<Action> actions = generateTargetWithTwoUpdatesWithOneOverride(knownTargetId);
+
+        final MvcResult result = mvc
+                .perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING + "/" + knownTargetId + "/"
+                        + MgmtRestConstants.TARGET_V1_ACTIONS)
+                                .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_AFTER, "")
+                                .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, "1")
+                                .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_COUNT, "false"))
+                .andExpect(status().isOk()).andExpect(jsonPath(JSON_PATH_PAGED_LIST_TOTAL, equalTo(-1)))
+                .andExpect(jsonPath("content.[0].id", equalTo(actions.get(1).getId().intValue()))).andReturn();
+        final String next = JsonPath.read(result.getResponse().getContentAsString(), "$.next");
+
+        mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING + "/" + knownTargetId + "/"
+                + MgmtRestConstants.TARGET_V1_ACTIONS).param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_AFTER, next)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, "2"))
+                .andExpect(status().isOk()).andExpect(jsonPath(JSON_PATH_PAGED_LIST_TOTAL, equalTo(2)))
+                .andExpect(jsonPath("content.[0].id", equalTo(actions.get(0).getId().intValue())))
+                .andExpect(jsonPath(JSON_PATH_PAGED_LIST_CONTENT, hasSize(1)))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
     @Test
     @Description("Verfies that the API returns the status list with expected content.")
     public void getMultipleActionStatus() throws Exception {
@@ -1302,4 +1413,56 @@ public class MgmtTargetResourceTest extends AbstractRestIntegrationTest {
         assertThat(actionsByTarget.getContent()).hasSize(1);
         return targetManagement.findTargetByControllerID(tA.getControllerId());
     }
+
+    @Test
+    @Description("Verifies that the targets of an uploaded CSV file are imported in the background and that the "
+            + "status of the import can be retrieved.")
+    public void importTargetsFromCsvFile() throws Exception {
+        testdataFactory.createTarget("existing");
+        final MockMultipartFile file = csvFile("t1,Target 1\nt2,Target 2\nexisting,Existing\nmalformed\n");
+
+        final MvcResult result = mvc
+                .perform(fileUpload(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING + "/import").file(file)
+                        .param("description", "imported"))
+                .andDo(MockMvcResultPrinter.print()).andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id", notNullValue())).andReturn();
+        final String importId = JsonPath.read(result.getResponse().getContentAsString(), "$.id");
+
+        Awaitility.await().atMost(10, TimeUnit.SECONDS)
+                .until(new DelegatingSecurityContextCallable<>(() -> "FINISHED".equals(JsonPath.read(mvc
+                        .perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING + "/import/{importId}", importId))
+                        .andReturn().getResponse().getContentAsString(), "$.state"))));
+
+        mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING + "/import/{importId}", importId))
+                .andDo(MockMvcResultPrinter.print()).andExpect(status().isOk())
+                .andExpect(jsonPath("$.lines", equalTo(4))).andExpect(jsonPath("$.createdTargets", equalTo(2)))
+                .andExpect(jsonPath("$.existingTargets", equalTo(1)))
+                .andExpect(jsonPath("$.invalidLines", equalTo(1)));
+        assertThat(targetManagement.findTargetByControllerID("t1").getDescription()).isEqualTo("imported");
+        assertThat(targetManagement.countTargetsAll()).isEqualTo(3);
+    }
+
+    @Test
+    @Description("Verifies that the status of an unknown import is not found.")
+    public void getStatusOfUnknownImportReturnsNotFound() throws Exception {
+        mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING + "/import/{importId}", "unknown"))
+                .andDo(MockMvcResultPrinter.print()).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithUser(allSpPermissions = false, authorities = { SpPermission.READ_TARGET, SpPermission.CREATE_TARGET })
+    @Description("Verifies that an import which assigns tags is forbidden without the permission to update targets.")
+    public void importTargetsWithTagsWithoutUpdatePermissionIsForbidden() throws Exception {
+        final TargetTag tag = tagManagement.createTargetTag(entityFactory.tag().create().name("imported"));
+
+        mvc.perform(fileUpload(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING + "/import")
+                .file(csvFile("t1,Target 1\n")).param("tagIds", String.valueOf(tag.getId())))
+                .andDo(MockMvcResultPrinter.print()).andExpect(status().isForbidden());
+
+        assertThat(targetManagement.countTargetsAll()).isEqualTo(0);
+    }
+
+    private static MockMultipartFile csvFile(final String content) {
+        return new MockMultipartFile("file", "targets.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
 }
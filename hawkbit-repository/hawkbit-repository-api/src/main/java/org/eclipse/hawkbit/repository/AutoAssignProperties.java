@@ -37,6 +37,50 @@ public class AutoAssignProperties {
             this.fixedDelay = fixedDelay;
         }
 
+        /**
+         * Evaluate the auto assign target filter queries only for the
+         * targets that have been created or updated since the last run.
+         */
+        private boolean incremental = true;
+
+        /**
+         * Interval in milliseconds after which all targets are checked again
+         * in incremental mode, e.g. for filters on time dependent fields
+         * like the last controller request.
+         */
+        private long fullSweepInterval = 3_600_000L;
+
+        /**
+         * Maximum number of changed targets per tenant that are remembered
+         * in incremental mode. The next run is a full sweep if more targets
+         * have been changed.
+         */
+        private int maxDirtyTargets = 100_000;
+
+        public boolean isIncremental() {
+            return incremental;
+        }
+
+        public void setIncremental(final boolean incremental) {
+            this.incremental = incremental;
+        }
+
+        public long getFullSweepInterval() {
+            return fullSweepInterval;
+        }
+
+        public void setFullSweepInterval(final long fullSweepInterval) {
+            this.fullSweepInterval = fullSweepInterval;
+        }
+
+        public int getMaxDirtyTargets() {
+            return maxDirtyTargets;
+        }
+
+        public void setMaxDirtyTargets(final int maxDirtyTargets) {
+            this.maxDirtyTargets = maxDirtyTargets;
+        }
+
     }
 
     private final Scheduler scheduler = new Scheduler();
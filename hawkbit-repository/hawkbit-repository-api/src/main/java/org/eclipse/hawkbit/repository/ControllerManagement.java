@@ -9,6 +9,7 @@
 package org.eclipse.hawkbit.repository;
 
 import java.net.URI;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -25,6 +26,7 @@ import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.Status;
 import org.eclipse.hawkbit.repository.model.ActionStatus;
 import org.eclipse.hawkbit.repository.model.Artifact;
+import org.eclipse.hawkbit.repository.model.ControllerPollView;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetInfo;
@@ -112,6 +114,24 @@ public interface ControllerManagement {
     @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
     Action addUpdateActionStatus(@NotNull ActionStatusCreate create);
 
+    /**
+     * Adds {@link ActionStatus} entries for update {@link Action}s in a
+     * single transaction, see {@link #addUpdateActionStatus(ActionStatusCreate)}.
+     * The entries are applied in the given order.
+     *
+     * @param creates
+     *            to be added
+     * @return the updated {@link Action}s
+     *
+     * @throws TooManyStatusEntriesException
+     *             if more than the allowed number of status entries are
+     *             inserted
+     * @throws EntityNotFoundException
+     *             if one of the given actions does not exist
+     */
+    @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
+    List<Action> addUpdateActionStatuses(@NotNull List<ActionStatusCreate> creates);
+
     /**
      * Retrieves oldest {@link Action} that is active and assigned to a
      * {@link Target}.
@@ -162,6 +182,23 @@ public interface ControllerManagement {
     @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
     Action getActionForDownloadByTargetAndSoftwareModule(@NotEmpty String controllerId, @NotNull SoftwareModule module);
 
+    /**
+     * Registers the poll of a controller and returns the
+     * {@link ControllerPollView} that is necessary to answer it. The target is
+     * registered if it does not exist yet, see
+     * {@link #findOrRegisterTargetIfItDoesNotexist(String, URI)}. The view
+     * might be served from a cache that is invalidated by the events that
+     * change it.
+     *
+     * @param controllerId
+     *            of the polling controller
+     * @param address
+     *            the client address of the target, might be {@code null}
+     * @return the poll view of the target
+     */
+    @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
+    ControllerPollView pollControllerBase(@NotEmpty String controllerId, URI address);
+
     /**
      * @return current {@link TenantConfigurationKey#POLLING_TIME_INTERVAL}.
      */
@@ -364,6 +364,53 @@ public interface DeploymentManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
     List<ActionWithStatusCount> findActionsWithStatusCountByTargetOrderByIdDesc(@NotNull Target target);
 
+    /**
+     * Retrieves the {@link Action}s of a specific target with an ID lower
+     * than the given one ordered by action ID descending, i.e. the next page
+     * of the action history.
+     *
+     * Seeking by ID instead of skipping an offset lets clients walk through
+     * the history page by page with constant effort per page.
+     *
+     * @param target
+     *            the target associated with the actions
+     * @param beforeActionId
+     *            ID of the last action of the previous page or
+     *            <code>null</code> for the first page
+     * @param limit
+     *            maximum number of actions of the page
+     * @return a list of actions associated with the given target ordered by
+     *         action ID descending
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    List<ActionWithStatusCount> findActionsWithStatusCountByTargetBefore(@NotNull Target target, Long beforeActionId,
+            int limit);
+
+    /**
+     * Retrieves the {@link Action}s of a specific target with an ID lower
+     * than the given one ordered by action ID descending, optionally filtered
+     * by the given RSQL query. The result is not counted.
+     *
+     * @param beforeActionId
+     *            ID of the last action of the previous page or
+     *            <code>null</code> for the first page
+     * @param rsqlParam
+     *            the RSQL query or <code>null</code> for all actions
+     * @param target
+     *            the target associated with the actions
+     * @param limit
+     *            maximum number of actions of the page
+     * @return the found {@link Action}s, never {@code null}
+     *
+     * @throws RSQLParameterUnsupportedFieldException
+     *             if a field in the RSQL string is used but not provided by the
+     *             given {@code fieldNameProvider}
+     * @throws RSQLParameterSyntaxException
+     *             if the RSQL syntax is wrong
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    Slice<Action> findActionsByTargetBefore(Long beforeActionId, String rsqlParam, @NotNull Target target, int limit);
+
     /**
      * Get the {@link Action} entity for given actionId with all lazy attributes
      * (i.e. distributionSet, target, target.assignedDs).
@@ -42,6 +42,7 @@ import org.eclipse.hawkbit.repository.model.TargetInfo;
 import org.hibernate.validator.constraints.NotEmpty;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.access.prepost.PreAuthorize;
 
 /**
@@ -97,6 +98,23 @@ public interface DistributionSetManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_REPOSITORY)
     Long countDistributionSetsAll();
 
+    /**
+     * Count all {@link DistributionSet}s in the repository that are not marked
+     * as deleted and match the given RSQL query.
+     *
+     * @param rsqlParam
+     *            rsql query string
+     * @return number of {@link DistributionSet}s
+     *
+     * @throws RSQLParameterUnsupportedFieldException
+     *             if a field in the RSQL string is used but not provided by the
+     *             given {@code fieldNameProvider}
+     * @throws RSQLParameterSyntaxException
+     *             if the RSQL syntax is wrong
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_REPOSITORY)
+    Long countDistributionSetsAll(@NotNull String rsqlParam);
+
     /**
      * Count all {@link DistributionSet}s in the repository that are not marked
      * as deleted.
@@ -402,6 +420,30 @@ public interface DistributionSetManagement {
     Page<DistributionSet> findDistributionSetsAll(@NotNull String rsqlParam, @NotNull Pageable pageReq,
             Boolean deleted);
 
+    /**
+     * Retrieves the {@link DistributionSet}s that are not marked as deleted
+     * with an ID greater than the given one ordered by ID, optionally filtered
+     * by the given RSQL query. The result is not counted.
+     *
+     * @param afterId
+     *            ID of the last {@link DistributionSet} of the previous page or
+     *            <code>null</code> for the first page
+     * @param rsqlParam
+     *            rsql query string or <code>null</code> for all
+     *            {@link DistributionSet}s
+     * @param limit
+     *            maximum number of {@link DistributionSet}s of the page
+     * @return the found {@link DistributionSet}s
+     *
+     * @throws RSQLParameterUnsupportedFieldException
+     *             if a field in the RSQL string is used but not provided by the
+     *             given {@code fieldNameProvider}
+     * @throws RSQLParameterSyntaxException
+     *             if the RSQL syntax is wrong
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_REPOSITORY)
+    Slice<DistributionSet> findDistributionSetsAllAfter(Long afterId, String rsqlParam, int limit);
+
     /**
      * method retrieves all {@link DistributionSet}s from the repository in the
      * following order:
@@ -18,6 +18,429 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties("hawkbit.server.repository")
 public class RepositoryProperties {
 
+    // used by @Scheduled annotation which needs constant
+    public static final String PROP_POLL_BUFFER_DELAY_PLACEHOLDER = "${hawkbit.server.repository.pollBuffer.fixedDelay:5000}";
+
+    // used by @Scheduled annotation which needs constant
+    public static final String PROP_ACTION_RETENTION_DELAY_PLACEHOLDER = "${hawkbit.server.repository.actionRetention.fixedDelay:3600000}";
+
+    // used by @Scheduled annotation which needs constant
+    public static final String PROP_USAGE_SNAPSHOT_DELAY_PLACEHOLDER = "${hawkbit.server.repository.usageSnapshot.fixedDelay:300000}";
+
+    /**
+     * Write-behind buffer for the last poll timestamp and address reported by
+     * the controllers.
+     */
+    public static class PollBuffer {
+
+        /**
+         * Set to <code>true</code> to collect the poll timestamps in memory and
+         * write them in periodic batches instead of one update per poll. Note:
+         * the last target query of a target in the repository may lag behind
+         * by up to {@link #fixedDelay} and buffered polls are lost if the node
+         * crashes.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Delay between two flushes of the buffer in milliseconds.
+         */
+        private long fixedDelay = 5000L;
+
+        /**
+         * Maximum number of targets that are held in the buffer. Polls that
+         * exceed this limit are written directly.
+         */
+        private int maxEntries = 100_000;
+
+        /**
+         * Number of updates that are sent to the database in one JDBC batch.
+         */
+        private int batchSize = 500;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getFixedDelay() {
+            return fixedDelay;
+        }
+
+        public void setFixedDelay(final long fixedDelay) {
+            this.fixedDelay = fixedDelay;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(final int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(final int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    /**
+     * Cache of the data that is necessary to answer a controller poll.
+     */
+    public static class PollViewCache {
+
+        /**
+         * Set to <code>true</code> to cache the target and its oldest active
+         * action for the controller polls. The cache is invalidated by the
+         * assignment, cancellation, action update and target update/deletion
+         * events. As the events are delivered asynchronously a poll may see
+         * the previous state for a short period of time.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of cached controllers over all tenants.
+         */
+        private long maxSize = 100_000L;
+
+        /**
+         * Time to live of a cache entry in milliseconds as safety net in case
+         * an invalidation event got lost.
+         */
+        private long ttl = 300_000L;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(final long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public long getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(final long ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    /**
+     * Deletion of a tenant, see {@link SystemManagement#deleteTenant(String)}.
+     */
+    public static class TenantDeletion {
+
+        /**
+         * Maximum number of entities that are deleted in one transaction.
+         */
+        private int chunkSize = 1000;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(final int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    /**
+     * Retention of the closed actions and the action status entries. The
+     * policies are the defaults of the corresponding tenant configuration
+     * keys and can be overridden per tenant.
+     */
+    public static class ActionRetention {
+
+        /**
+         * Set to <code>true</code> to purge the expired actions and compact
+         * the status entries of the tenants.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Days after which a closed action is deleted together with its
+         * status entries. <code>0</code> keeps the actions forever.
+         */
+        private int actionExpiryDays = 30;
+
+        /**
+         * Number of the newest status entries that are kept per action, the
+         * older ones are compacted. <code>0</code> keeps all entries.
+         */
+        private int maxStatusEntriesPerAction = 50;
+
+        /**
+         * Set to <code>true</code> to archive the compacted status entries in
+         * a compressed summary per action instead of dropping them.
+         */
+        private boolean compaction = true;
+
+        /**
+         * Delay between two retention runs in milliseconds.
+         */
+        private long fixedDelay = 3_600_000L;
+
+        /**
+         * Maximum number of actions respectively status entries that are
+         * deleted in one transaction.
+         */
+        private int batchSize = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getActionExpiryDays() {
+            return actionExpiryDays;
+        }
+
+        public void setActionExpiryDays(final int actionExpiryDays) {
+            this.actionExpiryDays = actionExpiryDays;
+        }
+
+        public int getMaxStatusEntriesPerAction() {
+            return maxStatusEntriesPerAction;
+        }
+
+        public void setMaxStatusEntriesPerAction(final int maxStatusEntriesPerAction) {
+            this.maxStatusEntriesPerAction = maxStatusEntriesPerAction;
+        }
+
+        public boolean isCompaction() {
+            return compaction;
+        }
+
+        public void setCompaction(final boolean compaction) {
+            this.compaction = compaction;
+        }
+
+        public long getFixedDelay() {
+            return fixedDelay;
+        }
+
+        public void setFixedDelay(final long fixedDelay) {
+            this.fixedDelay = fixedDelay;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(final int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    /**
+     * Cache of the number of targets per filter combination, see
+     * {@link TargetManagement#countTargetByFiltersCached(FilterParams)}.
+     */
+    public static class TargetCountCache {
+
+        /**
+         * Set to <code>false</code> to count the targets on every request.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of cached counts over all tenants.
+         */
+        private long maxSize = 1000L;
+
+        /**
+         * Time to live of a cached count in milliseconds. Counts that cannot
+         * be maintained incrementally, e.g. the ones of overdue filters, may be
+         * outdated for this period of time.
+         */
+        private long ttl = 60_000L;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(final long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public long getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(final long ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    /**
+     * Bulk import of targets, see {@link TargetImportManagement}.
+     */
+    public static class TargetImport {
+
+        /**
+         * Maximum number of lines that are imported in one transaction.
+         */
+        private int chunkSize = 1000;
+
+        /**
+         * Time in milliseconds the status of an import is kept after it has
+         * been requested for the last time.
+         */
+        private long statusTtl = 86_400_000L;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(final int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public long getStatusTtl() {
+            return statusTtl;
+        }
+
+        public void setStatusTtl(final long statusTtl) {
+            this.statusTtl = statusTtl;
+        }
+    }
+
+    /**
+     * Snapshot cache of the dashboard reports of {@link ReportManagement}.
+     */
+    public static class ReportCache {
+
+        /**
+         * Set to <code>false</code> to generate the reports on every request.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Age in milliseconds after which a report is regenerated in the
+         * background on the next request, e.g. as the poll histogram depends
+         * on the current time.
+         */
+        private long refreshInterval = 60_000L;
+
+        /**
+         * Minimum age in milliseconds of a report before it is regenerated
+         * after a change of the targets or distribution sets of its tenant.
+         */
+        private long minRefreshInterval = 5_000L;
+
+        /**
+         * Time in milliseconds a report is kept after it has been requested
+         * for the last time.
+         */
+        private long idleTtl = 600_000L;
+
+        /**
+         * Maximum number of cached reports over all tenants.
+         */
+        private long maxSize = 1000L;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(final long refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+
+        public long getMinRefreshInterval() {
+            return minRefreshInterval;
+        }
+
+        public void setMinRefreshInterval(final long minRefreshInterval) {
+            this.minRefreshInterval = minRefreshInterval;
+        }
+
+        public long getIdleTtl() {
+            return idleTtl;
+        }
+
+        public void setIdleTtl(final long idleTtl) {
+            this.idleTtl = idleTtl;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(final long maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    /**
+     * Snapshot table of the system usage statistics of all tenants.
+     */
+    public static class UsageSnapshot {
+
+        /**
+         * Set to <code>true</code> to refresh the snapshot periodically and to
+         * serve the system usage statistics from it instead of aggregating
+         * the tables of all tenants on every request.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Delay between two refreshes of the snapshot in milliseconds.
+         */
+        private long fixedDelay = 300_000L;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getFixedDelay() {
+            return fixedDelay;
+        }
+
+        public void setFixedDelay(final long fixedDelay) {
+            this.fixedDelay = fixedDelay;
+        }
+    }
+
     /**
      * Set to <code>true</code> if the repository has to reject
      * {@link ActionStatus} entries for actions that are closed. Note: if this
@@ -26,6 +449,22 @@ public class RepositoryProperties {
      */
     private boolean rejectActionStatusForClosedAction = false;
 
+    private final PollBuffer pollBuffer = new PollBuffer();
+
+    private final PollViewCache pollViewCache = new PollViewCache();
+
+    private final TenantDeletion tenantDeletion = new TenantDeletion();
+
+    private final ActionRetention actionRetention = new ActionRetention();
+
+    private final TargetCountCache targetCountCache = new TargetCountCache();
+
+    private final TargetImport targetImport = new TargetImport();
+
+    private final ReportCache reportCache = new ReportCache();
+
+    private final UsageSnapshot usageSnapshot = new UsageSnapshot();
+
     public boolean isRejectActionStatusForClosedAction() {
         return rejectActionStatusForClosedAction;
     }
@@ -34,4 +473,36 @@ public class RepositoryProperties {
         this.rejectActionStatusForClosedAction = rejectActionStatusForClosedAction;
     }
 
+    public PollBuffer getPollBuffer() {
+        return pollBuffer;
+    }
+
+    public PollViewCache getPollViewCache() {
+        return pollViewCache;
+    }
+
+    public TenantDeletion getTenantDeletion() {
+        return tenantDeletion;
+    }
+
+    public ActionRetention getActionRetention() {
+        return actionRetention;
+    }
+
+    public TargetCountCache getTargetCountCache() {
+        return targetCountCache;
+    }
+
+    public TargetImport getTargetImport() {
+        return targetImport;
+    }
+
+    public ReportCache getReportCache() {
+        return reportCache;
+    }
+
+    public UsageSnapshot getUsageSnapshot() {
+        return usageSnapshot;
+    }
+
 }
@@ -103,6 +103,23 @@ public interface RolloutManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_ROLLOUT_MANAGEMENT_READ)
     Long countRolloutsAll();
 
+    /**
+     * Counts all {@link Rollout}s in the repository that match the given RSQL
+     * query.
+     *
+     * @param rsqlParam
+     *            the specification to filter rollouts
+     * @return number of roll outs
+     *
+     * @throws RSQLParameterUnsupportedFieldException
+     *             if a field in the RSQL string is used but not provided by the
+     *             given {@code fieldNameProvider}
+     * @throws RSQLParameterSyntaxException
+     *             if the RSQL syntax is wrong
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_ROLLOUT_MANAGEMENT_READ)
+    Long countRolloutsAll(@NotNull String rsqlParam);
+
     /**
      * Count rollouts by given text in name or description.
      *
@@ -208,6 +225,30 @@ public interface RolloutManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_ROLLOUT_MANAGEMENT_READ)
     Page<Rollout> findAll(@NotNull Pageable pageable);
 
+    /**
+     * Retrieves the rollouts with an ID greater than the given one ordered by
+     * ID, optionally filtered by the given RSQL query. The result is not
+     * counted.
+     *
+     * @param afterId
+     *            ID of the last rollout of the previous page or
+     *            <code>null</code> for the first page
+     * @param rsqlParam
+     *            the specification to filter rollouts or <code>null</code> for
+     *            all rollouts
+     * @param limit
+     *            maximum number of rollouts of the page
+     * @return a slice of found rollouts
+     *
+     * @throws RSQLParameterUnsupportedFieldException
+     *             if a field in the RSQL string is used but not provided by the
+     *             given {@code fieldNameProvider}
+     * @throws RSQLParameterSyntaxException
+     *             if the RSQL syntax is wrong
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_ROLLOUT_MANAGEMENT_READ)
+    Slice<Rollout> findAllAfter(Long afterId, String rsqlParam, int limit);
+
     /**
      * Get count of targets in different status in rollout.
      *
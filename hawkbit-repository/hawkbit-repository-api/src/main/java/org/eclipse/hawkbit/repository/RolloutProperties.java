@@ -8,6 +8,9 @@
  */
 package org.eclipse.hawkbit.repository;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
@@ -27,6 +30,9 @@ public class RolloutProperties {
     // used by @Scheduled annotation which needs constant
     public static final String PROP_STARTING_SCHEDULER_DELAY_PLACEHOLDER = "${hawkbit.rollout.startingScheduler.fixedDelay:2000}";
 
+    // used by @Scheduled annotation which needs constant
+    public static final String PROP_STATUS_COUNT_RECONCILER_DELAY_PLACEHOLDER = "${hawkbit.rollout.statusCountReconciler.fixedDelay:600000}";
+
     /**
      * Rollout scheduler configuration.
      */
@@ -61,12 +67,89 @@ public class RolloutProperties {
         }
     }
 
+    /**
+     * Workers that execute the rollout checks of the tenants in parallel. The
+     * number of threads is configured by
+     * {@code hawkbit.threadpool.rollout-check}.
+     */
+    public static class Workers {
+
+        /**
+         * Time in milliseconds after which a running check of a single tenant
+         * is reported as exceeding its budget. The tenant is not checked again
+         * until its check is finished.
+         */
+        private long tenantTimeBudget = 60000L;
+
+        public long getTenantTimeBudget() {
+            return tenantTimeBudget;
+        }
+
+        public void setTenantTimeBudget(final long tenantTimeBudget) {
+            this.tenantTimeBudget = tenantTimeBudget;
+        }
+    }
+
+    /**
+     * Distribution of the tenants over the nodes of a cluster.
+     */
+    public static class Cluster {
+
+        /**
+         * ID of this node, has to be contained in {@link #nodes}.
+         */
+        private String nodeId;
+
+        /**
+         * IDs of all nodes of the cluster. If empty every node checks all
+         * tenants.
+         */
+        private List<String> nodes = new ArrayList<>();
+
+        /**
+         * Factor of the scheduler delay after which a node takes over the
+         * rollout checks of a tenant that is owned by another node, e.g. if
+         * the owner is down.
+         */
+        private int takeoverFactor = 3;
+
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        public void setNodeId(final String nodeId) {
+            this.nodeId = nodeId;
+        }
+
+        public List<String> getNodes() {
+            return nodes;
+        }
+
+        public void setNodes(final List<String> nodes) {
+            this.nodes = nodes;
+        }
+
+        public int getTakeoverFactor() {
+            return takeoverFactor;
+        }
+
+        public void setTakeoverFactor(final int takeoverFactor) {
+            this.takeoverFactor = takeoverFactor;
+        }
+    }
+
     private final Scheduler scheduler = new Scheduler(30000L);
 
     private final Scheduler creatingScheduler = new Scheduler(2000L);
 
     private final Scheduler startingScheduler = new Scheduler(2000L);
 
+    private final Scheduler statusCountReconciler = new Scheduler(600000L);
+
+    private final Workers workers = new Workers();
+
+    private final Cluster cluster = new Cluster();
+
     public Scheduler getScheduler() {
         return scheduler;
     }
@@ -78,4 +161,16 @@ public class RolloutProperties {
     public Scheduler getStartingScheduler() {
         return startingScheduler;
     }
+
+    public Scheduler getStatusCountReconciler() {
+        return statusCountReconciler;
+    }
+
+    public Workers getWorkers() {
+        return workers;
+    }
+
+    public Cluster getCluster() {
+        return cluster;
+    }
 }
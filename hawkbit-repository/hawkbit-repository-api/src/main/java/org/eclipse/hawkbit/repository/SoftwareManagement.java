@@ -63,6 +63,23 @@ public interface SoftwareManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_REPOSITORY)
     Long countSoftwareModulesAll();
 
+    /**
+     * Count all {@link SoftwareModule}s in the repository that are not marked
+     * as deleted and match the given RSQL query.
+     *
+     * @param rsqlParam
+     *            filter definition in RSQL syntax
+     * @return number of {@link SoftwareModule}s
+     *
+     * @throws RSQLParameterUnsupportedFieldException
+     *             if a field in the RSQL string is used but not provided by the
+     *             given {@code fieldNameProvider}
+     * @throws RSQLParameterSyntaxException
+     *             if the RSQL syntax is wrong
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_REPOSITORY)
+    Long countSoftwareModulesAll(@NotNull String rsqlParam);
+
     /**
      * @return number of {@link SoftwareModuleType}s in the repository.
      */
@@ -330,6 +347,30 @@ public interface SoftwareManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_REPOSITORY)
     Slice<SoftwareModule> findSoftwareModulesAll(@NotNull Pageable pageable);
 
+    /**
+     * Retrieves the software modules with an ID greater than the given one
+     * ordered by ID, optionally filtered by the given RSQL query. Deleted ones
+     * are filtered. The result is not counted.
+     *
+     * @param afterId
+     *            ID of the last {@link SoftwareModule} of the previous page or
+     *            <code>null</code> for the first page
+     * @param rsqlParam
+     *            filter definition in RSQL syntax or <code>null</code> for all
+     *            {@link SoftwareModule}s
+     * @param limit
+     *            maximum number of {@link SoftwareModule}s of the page
+     * @return the found {@link SoftwareModule}s
+     *
+     * @throws RSQLParameterUnsupportedFieldException
+     *             if a field in the RSQL string is used but not provided by the
+     *             given {@code fieldNameProvider}
+     * @throws RSQLParameterSyntaxException
+     *             if the RSQL syntax is wrong
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_REPOSITORY)
+    Slice<SoftwareModule> findSoftwareModulesAllAfter(Long afterId, String rsqlParam, int limit);
+
     /**
      * Retrieves all software modules with a given list of ids
      * {@link SoftwareModule#getId()}.
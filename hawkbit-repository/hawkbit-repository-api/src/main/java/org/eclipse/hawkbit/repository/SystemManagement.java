@@ -15,6 +15,7 @@ import javax.validation.constraints.NotNull;
 import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
 import org.eclipse.hawkbit.repository.model.DistributionSetType;
 import org.eclipse.hawkbit.repository.model.SoftwareModuleType;
+import org.eclipse.hawkbit.repository.model.TenantDeletionStatus;
 import org.eclipse.hawkbit.repository.model.TenantMetaData;
 import org.eclipse.hawkbit.repository.report.model.SystemUsageReport;
 import org.eclipse.hawkbit.tenancy.TenantAware;
@@ -34,7 +35,10 @@ public interface SystemManagement {
     String currentTenant();
 
     /**
-     * Deletes all data related to a given tenant.
+     * Deletes all data related to a given tenant. The data is deleted in
+     * bounded chunks which are committed separately, i.e. an aborted deletion
+     * is resumed by deleting the tenant again. The artifact binaries which are
+     * not referenced by another tenant are deleted with the artifacts.
      *
      * @param tenant
      *            to delete
@@ -42,6 +46,27 @@ public interface SystemManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_SYSTEM_ADMIN)
     void deleteTenant(@NotNull String tenant);
 
+    /**
+     * Starts the deletion of all data related to a given tenant as background
+     * job, see {@link #deleteTenant(String)}. If the deletion of the tenant is
+     * already running the running deletion is returned.
+     *
+     * @param tenant
+     *            to delete
+     * @return the status of the started deletion
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_SYSTEM_ADMIN)
+    TenantDeletionStatus startTenantDeletion(@NotNull String tenant);
+
+    /**
+     * @param tenant
+     *            that is deleted
+     * @return the status of the last deletion of the tenant on this node or
+     *         <code>null</code> if the tenant has not been deleted
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_SYSTEM_ADMIN)
+    TenantDeletionStatus getTenantDeletionStatus(@NotNull String tenant);
+
     /**
      *
      * @return list of all tenant names in the system.
@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+import javax.validation.constraints.NotNull;
+
+import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
+import org.eclipse.hawkbit.repository.event.remote.TargetBulkCreatedEvent;
+import org.eclipse.hawkbit.repository.exception.ConstraintViolationException;
+import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
+import org.eclipse.hawkbit.repository.exception.InsufficientPermissionException;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetImportStatus;
+import org.eclipse.hawkbit.repository.model.TargetTag;
+import org.springframework.security.access.prepost.PreAuthorize;
+
+/**
+ * Bulk import of {@link Target}s from CSV files with one
+ * <code>controllerId,name</code> line per target.
+ *
+ * The file is read once and imported in chunks of
+ * {@link RepositoryProperties.TargetImport#getChunkSize()} lines. Every chunk
+ * is committed in its own transaction and published as one
+ * {@link TargetBulkCreatedEvent} instead of an event per target. Lines with a
+ * controller ID that exists already and malformed lines are skipped.
+ */
+public interface TargetImportManagement {
+
+    /**
+     * Imports the targets of the given CSV stream in the calling thread.
+     *
+     * @param csv
+     *            the CSV stream, closed when the import has finished
+     * @param size
+     *            of the stream in bytes or <code>-1</code> if unknown
+     * @param description
+     *            of the created targets, might be <code>null</code>
+     * @param targetTagIds
+     *            of the {@link TargetTag}s to assign to the created targets,
+     *            might be <code>null</code>
+     * @param distributionSetId
+     *            of the {@link DistributionSet} to assign to the created
+     *            targets with a forced action, might be <code>null</code>
+     * @param progressListener
+     *            that is notified after every chunk, might be
+     *            <code>null</code>
+     * @return the status of the finished import
+     *
+     * @throws EntityNotFoundException
+     *             if the given distribution set or one of the given tags does
+     *             not exist
+     * @throws ConstraintViolationException
+     *             if the description exceeds 512 characters
+     * @throws InsufficientPermissionException
+     *             if tags are given without the permission to update
+     *             targets or a distribution set is given without the
+     *             permissions to read the repository and update targets
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_CREATE_TARGET)
+    TargetImportStatus importTargets(@NotNull InputStream csv, long size, String description,
+            Collection<Long> targetTagIds, Long distributionSetId, Consumer<TargetImportStatus> progressListener);
+
+    /**
+     * Starts the import of the targets of the given CSV stream as background
+     * job, see
+     * {@link #importTargets(InputStream, long, String, Collection, Long, Consumer)}
+     * . The stream is spooled into a temporary file before the method returns.
+     *
+     * @param csv
+     *            the CSV stream, closed by the caller
+     * @param description
+     *            of the created targets, might be <code>null</code>
+     * @param targetTagIds
+     *            of the {@link TargetTag}s to assign to the created targets,
+     *            might be <code>null</code>
+     * @param distributionSetId
+     *            of the {@link DistributionSet} to assign to the created
+     *            targets with a forced action, might be <code>null</code>
+     * @return the status of the started import
+     *
+     * @throws EntityNotFoundException
+     *             if the given distribution set or one of the given tags does
+     *             not exist
+     * @throws ConstraintViolationException
+     *             if the description exceeds 512 characters
+     * @throws InsufficientPermissionException
+     *             if tags are given without the permission to update
+     *             targets or a distribution set is given without the
+     *             permissions to read the repository and update targets
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_CREATE_TARGET)
+    TargetImportStatus startImport(@NotNull InputStream csv, String description, Collection<Long> targetTagIds,
+            Long distributionSetId);
+
+    /**
+     * @param importId
+     *            of the import
+     * @return the status of the import of the current tenant on this node or
+     *         <code>null</code> if the import is unknown
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    TargetImportStatus getImportStatus(@NotNull String importId);
+}
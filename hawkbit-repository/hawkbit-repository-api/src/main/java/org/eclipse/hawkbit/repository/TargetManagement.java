@@ -97,6 +97,24 @@ public interface TargetManagement {
     Long countTargetByFilters(Collection<TargetUpdateStatus> status, Boolean overdueState, String searchText,
             Long installedOrAssignedDistributionSetId, Boolean selectTargetWithNoTag, String... tagNames);
 
+    /**
+     * Counts the {@link Target}s matching the given filters like
+     * {@link #countTargetByFilters(Collection, Boolean, String, Long, Boolean, String...)}
+     * but serves the count from a per tenant cache. The cached count is
+     * incremented for created targets that match the filters and dropped when
+     * targets are updated or deleted. Counts that cannot be maintained that
+     * way, e.g. the ones of overdue filters, may be outdated for the time to
+     * live of the cache.
+     *
+     * @param filterParams
+     *            the filters to apply, all filters disabled counts all
+     *            {@link Target}s
+     *
+     * @return the found number of {@link Target}s
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    long countTargetByFiltersCached(@NotNull FilterParams filterParams);
+
     /**
      * Counts number of targets with given
      * {@link TargetInfo#getInstalledDistributionSet()}.
@@ -129,6 +147,20 @@ public interface TargetManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
     Long countTargetByTargetFilterQuery(@NotNull TargetFilterQuery targetFilterQuery);
 
+    /**
+     * Counts the {@link Target}s matching the given target filter query like
+     * {@link #countTargetByTargetFilterQuery(TargetFilterQuery)} but serves
+     * the count from the cache described at
+     * {@link #countTargetByFiltersCached(FilterParams)}. The count is dropped
+     * whenever a target of the tenant is created, updated or deleted.
+     *
+     * @param targetFilterQuery
+     *            {link TargetFilterQuery}
+     * @return the found number of {@link Target}s
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    long countTargetByTargetFilterQueryCached(@NotNull TargetFilterQuery targetFilterQuery);
+
     /**
      * Counts all {@link Target}s in the repository.
      *
@@ -256,6 +288,23 @@ public interface TargetManagement {
     Page<Target> findAllTargetsByTargetFilterQueryAndNonDS(@NotNull Pageable pageRequest, Long distributionSetId,
             @NotNull TargetFilterQuery targetFilterQuery);
 
+    /**
+     * Finds the targets with the given IDs that match the given
+     * {@link TargetFilterQuery} and that don't have the specified distribution
+     * set in their action history.
+     *
+     * @param targetIds
+     *            the IDs of the targets to check
+     * @param distributionSetId
+     *            id of the {@link DistributionSet}
+     * @param targetFilterQuery
+     *            {@link TargetFilterQuery}
+     * @return the found {@link Target}s
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    List<Target> findTargetsByIdInAndTargetFilterQueryAndNonDS(@NotNull Collection<Long> targetIds,
+            Long distributionSetId, @NotNull TargetFilterQuery targetFilterQuery);
+
     /**
      * Counts all targets for all the given parameter {@link TargetFilterQuery}
      * and that don't have the specified distribution set in their action
@@ -423,6 +472,28 @@ public interface TargetManagement {
             Boolean overdueState, String searchText, Long installedOrAssignedDistributionSetId,
             Boolean selectTargetWithNoTag, String... tagNames);
 
+    /**
+     * Retrieves the {@link Target}s matching the given filters with an ID
+     * greater than the given one ordered by ID without details, i.e. NO
+     * {@link Target#getTags()} and {@link Target#getActions()} possible. The
+     * result is not counted.
+     *
+     * Seeking by ID instead of skipping an offset keeps the effort per page
+     * constant while scrolling through the targets.
+     *
+     * @param afterId
+     *            ID of the last target of the previous page or
+     *            <code>null</code> for the first page
+     * @param filterParams
+     *            the filters to apply
+     * @param limit
+     *            maximum number of targets of the page
+     *
+     * @return the found {@link Target}s, never {@code null}
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    Slice<Target> findTargetByFiltersAfter(Long afterId, @NotNull FilterParams filterParams, int limit);
+
     /**
      * retrieves {@link Target}s by the installed {@link DistributionSet}without
      * details, i.e. NO {@link Target#getTags()} and {@link Target#getActions()}
@@ -485,6 +556,56 @@ public interface TargetManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
     Slice<Target> findTargetsAll(@NotNull Pageable pageable);
 
+    /**
+     * Retrieves the targets with an ID greater than the given one ordered by
+     * ID, optionally filtered by the given RSQL query, without details, i.e.
+     * NO {@link Target#getTags()} and {@link Target#getActions()} possible.
+     * The result is not counted.
+     *
+     * Seeking by ID instead of skipping an offset lets clients walk through
+     * all targets page by page with constant effort per page.
+     *
+     * @param afterId
+     *            ID of the last target of the previous page or
+     *            <code>null</code> for the first page
+     * @param targetFilterQuery
+     *            the RSQL query or <code>null</code> for all targets
+     * @param limit
+     *            maximum number of targets of the page
+     *
+     * @return the found {@link Target}s, never {@code null}
+     *
+     * @throws RSQLParameterUnsupportedFieldException
+     *             if a field in the RSQL string is used but not provided by the
+     *             given {@code fieldNameProvider}
+     * @throws RSQLParameterSyntaxException
+     *             if the RSQL syntax is wrong
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    Slice<Target> findTargetsAllAfter(Long afterId, String targetFilterQuery, int limit);
+
+    /**
+     * Retrieves all targets without details, i.e. NO {@link Target#getTags()}
+     * and {@link Target#getActions()} possible based on the given RSQL query.
+     * Other than {@link #findTargetsAll(String, Pageable)} the result is not
+     * counted.
+     *
+     * @param targetFilterQuery
+     *            the RSQL query
+     * @param pageable
+     *            pagination parameter
+     *
+     * @return the found {@link Target}s, never {@code null}
+     *
+     * @throws RSQLParameterUnsupportedFieldException
+     *             if a field in the RSQL string is used but not provided by the
+     *             given {@code fieldNameProvider}
+     * @throws RSQLParameterSyntaxException
+     *             if the RSQL syntax is wrong
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    Slice<Target> findTargetsAllWithoutCount(@NotNull String targetFilterQuery, @NotNull Pageable pageable);
+
     /**
      * Retrieves all targets without details, i.e. NO {@link Target#getTags()}
      * and {@link Target#getActions()} possible based on
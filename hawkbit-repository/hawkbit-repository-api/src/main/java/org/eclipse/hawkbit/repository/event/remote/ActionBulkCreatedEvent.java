@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.event.remote;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.model.Action;
+
+/**
+ * Defines the remote event of creating the scheduled {@link Action}s of a
+ * chunk of targets of a rollout group. It is published once per chunk instead
+ * of an entity event per action.
+ */
+public class ActionBulkCreatedEvent extends RemoteTenantAwareEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long rolloutId;
+
+    private Long rolloutGroupId;
+
+    private List<Long> targetIds;
+
+    /**
+     * Default constructor.
+     */
+    public ActionBulkCreatedEvent() {
+        // for serialization libs like jackson
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param tenant
+     *            the tenant
+     * @param rolloutId
+     *            the ID of the rollout of the actions
+     * @param rolloutGroupId
+     *            the ID of the rollout group of the actions
+     * @param targetIds
+     *            the IDs of the targets the actions have been created for
+     * @param applicationId
+     *            the origin application id
+     */
+    public ActionBulkCreatedEvent(final String tenant, final Long rolloutId, final Long rolloutGroupId,
+            final List<Long> targetIds, final String applicationId) {
+        super(tenant, tenant, applicationId);
+        this.rolloutId = rolloutId;
+        this.rolloutGroupId = rolloutGroupId;
+        this.targetIds = new ArrayList<>(targetIds);
+    }
+
+    public Long getRolloutId() {
+        return rolloutId;
+    }
+
+    public Long getRolloutGroupId() {
+        return rolloutGroupId;
+    }
+
+    public List<Long> getTargetIds() {
+        if (targetIds == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(targetIds);
+    }
+
+}
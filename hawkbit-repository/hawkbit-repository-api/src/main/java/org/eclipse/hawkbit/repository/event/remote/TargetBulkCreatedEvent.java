@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.event.remote;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.model.Target;
+
+/**
+ * Defines the remote event of creating a chunk of {@link Target}s by a bulk
+ * import. It is published once per chunk instead of an entity event per
+ * target.
+ */
+public class TargetBulkCreatedEvent extends RemoteTenantAwareEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<Long> targetIds;
+
+    /**
+     * Default constructor.
+     */
+    public TargetBulkCreatedEvent() {
+        // for serialization libs like jackson
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param tenant
+     *            the tenant
+     * @param targetIds
+     *            the IDs of the created targets
+     * @param applicationId
+     *            the origin application id
+     */
+    public TargetBulkCreatedEvent(final String tenant, final List<Long> targetIds, final String applicationId) {
+        super(tenant, tenant, applicationId);
+        this.targetIds = new ArrayList<>(targetIds);
+    }
+
+    public List<Long> getTargetIds() {
+        if (targetIds == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(targetIds);
+    }
+
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.event.remote;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetTag;
+
+/**
+ * Defines the remote event of assigning a {@link TargetTag} to or
+ * unassigning it from a selection of {@link Target}s. It is published once per
+ * chunk of targets of a toggle instead of an update event per target, i.e. a
+ * toggle of many targets results in several events for the same tag.
+ */
+public class TargetTagAssignmentEvent extends RemoteIdEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<Long> assignedTargetIds;
+
+    private List<Long> unassignedTargetIds;
+
+    /**
+     * Default constructor.
+     */
+    public TargetTagAssignmentEvent() {
+        // for serialization libs like jackson
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param tenant
+     *            the tenant
+     * @param tagId
+     *            the ID of the tag
+     * @param assignedTargetIds
+     *            the IDs of the targets the tag has been assigned to
+     * @param unassignedTargetIds
+     *            the IDs of the targets the tag has been unassigned from
+     * @param applicationId
+     *            the origin application id
+     */
+    public TargetTagAssignmentEvent(final String tenant, final Long tagId, final Collection<Long> assignedTargetIds,
+            final Collection<Long> unassignedTargetIds, final String applicationId) {
+        super(tagId, tenant, applicationId);
+        this.assignedTargetIds = new ArrayList<>(assignedTargetIds);
+        this.unassignedTargetIds = new ArrayList<>(unassignedTargetIds);
+    }
+
+    public List<Long> getAssignedTargetIds() {
+        if (assignedTargetIds == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(assignedTargetIds);
+    }
+
+    public List<Long> getUnassignedTargetIds() {
+        if (unassignedTargetIds == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(unassignedTargetIds);
+    }
+
+}
@@ -0,0 +1,39 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.event.remote;
+
+/**
+ * Defines the remote event of the deletion of all data of a tenant. It is
+ * published once the deletion has finished so that the nodes can drop the
+ * local state they keep for the tenant.
+ */
+public class TenantDeletedEvent extends RemoteTenantAwareEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Default constructor.
+     */
+    public TenantDeletedEvent() {
+        // for serialization libs like jackson
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param tenant
+     *            the deleted tenant
+     * @param applicationId
+     *            the origin application id
+     */
+    public TenantDeletedEvent(final String tenant, final String applicationId) {
+        super(tenant, tenant, applicationId);
+    }
+
+}
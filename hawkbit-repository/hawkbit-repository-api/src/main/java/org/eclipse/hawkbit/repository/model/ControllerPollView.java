@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.model;
+
+import java.io.Serializable;
+
+import org.eclipse.hawkbit.repository.model.Action.ActionType;
+
+/**
+ * Immutable view on a {@link Target} and its oldest active {@link Action} that
+ * contains everything that is necessary to answer the poll of a controller.
+ * The view is held in memory so that a poll without changes can be answered
+ * without loading the entities.
+ */
+public final class ControllerPollView implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final long targetId;
+    private final String controllerId;
+    private final boolean requestControllerAttributes;
+    private final Long actionId;
+    private final boolean actionCancelingOrCanceled;
+    private final int actionHashCode;
+    private final Long actionForcedTime;
+
+    /**
+     * Constructor.
+     *
+     * @param target
+     *            the view is created for
+     * @param oldestActiveAction
+     *            of the target or <code>null</code> if there is none
+     */
+    public ControllerPollView(final Target target, final Action oldestActiveAction) {
+        this.targetId = target.getId();
+        this.controllerId = target.getControllerId();
+        this.requestControllerAttributes = target.getTargetInfo().isRequestControllerAttributes();
+        if (oldestActiveAction != null) {
+            this.actionId = oldestActiveAction.getId();
+            this.actionCancelingOrCanceled = oldestActiveAction.isCancelingOrCanceled();
+            this.actionHashCode = oldestActiveAction.hashCode();
+            this.actionForcedTime = ActionType.TIMEFORCED.equals(oldestActiveAction.getActionType())
+                    ? oldestActiveAction.getForcedTime() : null;
+        } else {
+            this.actionId = null;
+            this.actionCancelingOrCanceled = false;
+            this.actionHashCode = 0;
+            this.actionForcedTime = null;
+        }
+    }
+
+    public long getTargetId() {
+        return targetId;
+    }
+
+    public String getControllerId() {
+        return controllerId;
+    }
+
+    public boolean isRequestControllerAttributes() {
+        return requestControllerAttributes;
+    }
+
+    /**
+     * @return ID of the oldest active {@link Action} or <code>null</code> if
+     *         the target has no active action
+     */
+    public Long getActionId() {
+        return actionId;
+    }
+
+    public boolean isActionCancelingOrCanceled() {
+        return actionCancelingOrCanceled;
+    }
+
+    /**
+     * @return {@link Action#hashCode()} of the oldest active action at the
+     *         time the view has been created
+     */
+    public int getActionHashCode() {
+        return actionHashCode;
+    }
+
+    /**
+     * @param hitTimeMillis
+     *            the time to check
+     * @return see {@link Action#isHitAutoForceTime(long)}
+     */
+    public boolean isActionHitAutoForceTime(final long hitTimeMillis) {
+        return actionForcedTime != null && hitTimeMillis >= actionForcedTime;
+    }
+
+    @Override
+    public String toString() {
+        return "ControllerPollView [targetId=" + targetId + ", controllerId=" + controllerId + ", actionId="
+                + actionId + "]";
+    }
+}
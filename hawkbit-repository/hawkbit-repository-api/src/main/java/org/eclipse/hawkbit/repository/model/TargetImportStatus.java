@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.model;
+
+/**
+ * Snapshot of the progress of a bulk import of targets from a CSV file. The
+ * file is read once and the targets are created in chunks, i.e. the counts
+ * grow chunk by chunk.
+ */
+public class TargetImportStatus {
+
+    /**
+     * State of a target import.
+     */
+    public enum State {
+        /**
+         * The file is imported.
+         */
+        RUNNING,
+
+        /**
+         * The file has been imported completely.
+         */
+        FINISHED,
+
+        /**
+         * The import has been aborted by an error. The targets of the chunks
+         * which have been imported before remain.
+         */
+        FAILED;
+    }
+
+    private final String id;
+    private final String tenant;
+    private final State state;
+    private final long readBytes;
+    private final long totalBytes;
+    private final long lines;
+    private final long createdTargets;
+    private final long existingTargets;
+    private final long invalidLines;
+    private final long startedAt;
+    private final Long finishedAt;
+    private final String error;
+
+    /**
+     * Constructor.
+     *
+     * @param id
+     *            of the import
+     * @param tenant
+     *            the targets are imported into
+     * @param state
+     *            of the import
+     * @param readBytes
+     *            number of bytes of the file that have been read
+     * @param totalBytes
+     *            size of the file or <code>-1</code> if unknown
+     * @param lines
+     *            number of lines that have been read
+     * @param createdTargets
+     *            number of created targets
+     * @param existingTargets
+     *            number of lines that have been skipped as a target with the
+     *            controller ID exists already
+     * @param invalidLines
+     *            number of lines that have been skipped as they are malformed
+     * @param startedAt
+     *            start of the import
+     * @param finishedAt
+     *            end of the import or <code>null</code> if not finished
+     * @param error
+     *            message of the error that aborted the import or
+     *            <code>null</code>
+     */
+    public TargetImportStatus(final String id, final String tenant, final State state, final long readBytes,
+            final long totalBytes, final long lines, final long createdTargets, final long existingTargets,
+            final long invalidLines, final long startedAt, final Long finishedAt, final String error) {
+        this.id = id;
+        this.tenant = tenant;
+        this.state = state;
+        this.readBytes = readBytes;
+        this.totalBytes = totalBytes;
+        this.lines = lines;
+        this.createdTargets = createdTargets;
+        this.existingTargets = existingTargets;
+        this.invalidLines = invalidLines;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.error = error;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getReadBytes() {
+        return readBytes;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getLines() {
+        return lines;
+    }
+
+    public long getCreatedTargets() {
+        return createdTargets;
+    }
+
+    public long getExistingTargets() {
+        return existingTargets;
+    }
+
+    public long getInvalidLines() {
+        return invalidLines;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public Long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * @return share of the file that has been read between <code>0</code>
+     *         and <code>1</code>, <code>0</code> if the size of the file is
+     *         unknown
+     */
+    public float getProgress() {
+        if (state == State.FINISHED) {
+            return 1F;
+        }
+        return totalBytes > 0 ? Math.min(1F, (float) readBytes / totalBytes) : 0F;
+    }
+}
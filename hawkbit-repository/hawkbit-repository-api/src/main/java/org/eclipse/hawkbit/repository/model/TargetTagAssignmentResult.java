@@ -8,8 +8,12 @@
  */
 package org.eclipse.hawkbit.repository.model;
 
+import java.util.Collections;
 import java.util.List;
 
+import org.eclipse.hawkbit.repository.TargetManagement;
+import org.springframework.util.CollectionUtils;
+
 /**
  * Result object for {@link TargetTag} assignments.
  *
@@ -18,6 +22,12 @@ public class TargetTagAssignmentResult extends AssignmentResult<Target> {
 
     private final TargetTag targetTag;
 
+    private final List<String> assignedControllerIds;
+
+    private final List<String> unassignedControllerIds;
+
+    private final TargetManagement targetManagement;
+
     /**
      * Constructor.
      *
@@ -38,6 +48,59 @@ public class TargetTagAssignmentResult extends AssignmentResult<Target> {
             final List<Target> assignedTargets, final List<Target> unassignedTargets, final TargetTag targetTag) {
         super(assigned, alreadyAssigned, unassigned, assignedTargets, unassignedTargets);
         this.targetTag = targetTag;
+        this.assignedControllerIds = null;
+        this.unassignedControllerIds = null;
+        this.targetManagement = null;
+    }
+
+    /**
+     * Constructor for set based assignments which retrieves the assigned and
+     * unassigned {@link Target}s only on request.
+     *
+     * @param alreadyAssigned
+     *            number of already assigned/ignored elements
+     * @param assignedControllerIds
+     *            controller IDs of the assigned {@link Target}s
+     * @param unassignedControllerIds
+     *            controller IDs of the unassigned {@link Target}s
+     * @param targetTag
+     *            the assigned or unassigned tag
+     * @param targetManagement
+     *            to retrieve the assigned and unassigned targets
+     */
+    public TargetTagAssignmentResult(final int alreadyAssigned, final List<String> assignedControllerIds,
+            final List<String> unassignedControllerIds, final TargetTag targetTag,
+            final TargetManagement targetManagement) {
+        super(assignedControllerIds.size(), alreadyAssigned, unassignedControllerIds.size(), Collections.emptyList(),
+                Collections.emptyList());
+        this.targetTag = targetTag;
+        this.assignedControllerIds = assignedControllerIds;
+        this.unassignedControllerIds = unassignedControllerIds;
+        this.targetManagement = targetManagement;
+    }
+
+    @Override
+    public List<Target> getAssignedEntity() {
+        if (targetManagement == null) {
+            return super.getAssignedEntity();
+        }
+        if (CollectionUtils.isEmpty(assignedControllerIds)) {
+            return Collections.emptyList();
+        }
+
+        return targetManagement.findTargetByControllerID(assignedControllerIds);
+    }
+
+    @Override
+    public List<Target> getUnassignedEntity() {
+        if (targetManagement == null) {
+            return super.getUnassignedEntity();
+        }
+        if (CollectionUtils.isEmpty(unassignedControllerIds)) {
+            return Collections.emptyList();
+        }
+
+        return targetManagement.findTargetByControllerID(unassignedControllerIds);
     }
 
     public TargetTag getTargetTag() {
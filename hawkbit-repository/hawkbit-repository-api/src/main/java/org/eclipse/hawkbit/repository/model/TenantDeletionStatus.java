@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Snapshot of the progress of a tenant deletion. The tenant data is deleted in
+ * phases in dependency order, every phase in bounded chunks. The artifact
+ * binaries which are not referenced by another tenant are deleted together
+ * with the chunk of artifacts that referenced them last.
+ */
+public class TenantDeletionStatus {
+
+    /**
+     * State of a tenant deletion.
+     */
+    public enum State {
+        /**
+         * The tenant data is deleted.
+         */
+        RUNNING,
+
+        /**
+         * The tenant has been deleted completely.
+         */
+        FINISHED,
+
+        /**
+         * The deletion has been aborted by an error. It is resumed with the
+         * remaining data by starting the deletion again.
+         */
+        FAILED;
+    }
+
+    private final String tenant;
+    private final State state;
+    private final String phase;
+    private final Map<String, Long> deletedEntities;
+    private final long pendingBinaries;
+    private final long deletedBinaries;
+    private final long startedAt;
+    private final Long finishedAt;
+    private final String error;
+
+    /**
+     * Constructor.
+     *
+     * @param tenant
+     *            that is deleted
+     * @param state
+     *            of the deletion
+     * @param phase
+     *            the current phase or <code>null</code> if the tenant data is
+     *            deleted
+     * @param deletedEntities
+     *            number of deleted entities per phase
+     * @param pendingBinaries
+     *            number of artifact binaries of the current chunk that are
+     *            not deleted yet
+     * @param deletedBinaries
+     *            number of deleted artifact binaries
+     * @param startedAt
+     *            start of the deletion
+     * @param finishedAt
+     *            end of the deletion or <code>null</code> if not finished
+     * @param error
+     *            message of the error that aborted the deletion or
+     *            <code>null</code>
+     */
+    public TenantDeletionStatus(final String tenant, final State state, final String phase,
+            final Map<String, Long> deletedEntities, final long pendingBinaries, final long deletedBinaries,
+            final long startedAt, final Long finishedAt, final String error) {
+        this.tenant = tenant;
+        this.state = state;
+        this.phase = phase;
+        this.deletedEntities = Collections.unmodifiableMap(new LinkedHashMap<>(deletedEntities));
+        this.pendingBinaries = pendingBinaries;
+        this.deletedBinaries = deletedBinaries;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.error = error;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public Map<String, Long> getDeletedEntities() {
+        return deletedEntities;
+    }
+
+    public long getPendingBinaries() {
+        return pendingBinaries;
+    }
+
+    public long getDeletedBinaries() {
+        return deletedBinaries;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public Long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
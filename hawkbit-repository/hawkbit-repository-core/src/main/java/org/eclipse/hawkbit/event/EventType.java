@@ -12,12 +12,16 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
+import org.eclipse.hawkbit.repository.event.remote.ActionBulkCreatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.DistributionSetDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.DistributionSetTagDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.DownloadProgressEvent;
 import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetBulkCreatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetTagAssignmentEvent;
 import org.eclipse.hawkbit.repository.event.remote.TargetTagDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TenantDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.ActionCreatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.ActionUpdatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.CancelTargetAssignmentEvent;
@@ -87,6 +91,18 @@ public class EventType {
 
         // download
         TYPES.put(20, DownloadProgressEvent.class);
+
+        // target bulk import
+        TYPES.put(21, TargetBulkCreatedEvent.class);
+
+        // target tag assignment
+        TYPES.put(22, TargetTagAssignmentEvent.class);
+
+        // tenant deletion
+        TYPES.put(23, TenantDeletedEvent.class);
+
+        // rollout action bulk creation
+        TYPES.put(24, ActionBulkCreatedEvent.class);
     }
 
     private int value;
@@ -9,10 +9,14 @@
 package org.eclipse.hawkbit;
 
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
 
 import org.eclipse.hawkbit.repository.ArtifactManagement;
+import org.eclipse.hawkbit.repository.AutoAssignProperties;
 import org.eclipse.hawkbit.repository.ControllerManagement;
 import org.eclipse.hawkbit.repository.DeploymentManagement;
 import org.eclipse.hawkbit.repository.DistributionSetManagement;
@@ -21,10 +25,12 @@ import org.eclipse.hawkbit.repository.ReportManagement;
 import org.eclipse.hawkbit.repository.RepositoryProperties;
 import org.eclipse.hawkbit.repository.RolloutGroupManagement;
 import org.eclipse.hawkbit.repository.RolloutManagement;
+import org.eclipse.hawkbit.repository.RolloutProperties;
 import org.eclipse.hawkbit.repository.SoftwareManagement;
 import org.eclipse.hawkbit.repository.SystemManagement;
 import org.eclipse.hawkbit.repository.TagManagement;
 import org.eclipse.hawkbit.repository.TargetFilterQueryManagement;
+import org.eclipse.hawkbit.repository.TargetImportManagement;
 import org.eclipse.hawkbit.repository.TargetManagement;
 import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
 import org.eclipse.hawkbit.repository.TenantStatsManagement;
@@ -35,6 +41,7 @@ import org.eclipse.hawkbit.repository.builder.SoftwareModuleBuilder;
 import org.eclipse.hawkbit.repository.builder.TargetFilterQueryBuilder;
 import org.eclipse.hawkbit.repository.event.remote.EventEntityManager;
 import org.eclipse.hawkbit.repository.event.remote.EventEntityManagerHolder;
+import org.eclipse.hawkbit.repository.jpa.ActionRepository;
 import org.eclipse.hawkbit.repository.jpa.JpaArtifactManagement;
 import org.eclipse.hawkbit.repository.jpa.JpaControllerManagement;
 import org.eclipse.hawkbit.repository.jpa.JpaDeploymentManagement;
@@ -47,11 +54,18 @@ import org.eclipse.hawkbit.repository.jpa.JpaSoftwareManagement;
 import org.eclipse.hawkbit.repository.jpa.JpaSystemManagement;
 import org.eclipse.hawkbit.repository.jpa.JpaTagManagement;
 import org.eclipse.hawkbit.repository.jpa.JpaTargetFilterQueryManagement;
+import org.eclipse.hawkbit.repository.jpa.JpaTargetImportManagement;
 import org.eclipse.hawkbit.repository.jpa.JpaTargetManagement;
 import org.eclipse.hawkbit.repository.jpa.JpaTenantConfigurationManagement;
 import org.eclipse.hawkbit.repository.jpa.JpaTenantStatsManagement;
+import org.eclipse.hawkbit.repository.jpa.ReportSnapshotCache;
+import org.eclipse.hawkbit.repository.jpa.RolloutGroupRepository;
+import org.eclipse.hawkbit.repository.jpa.TargetBulkWriter;
+import org.eclipse.hawkbit.repository.jpa.TargetFilterCountCache;
+import org.eclipse.hawkbit.repository.jpa.TenantDeleter;
 import org.eclipse.hawkbit.repository.jpa.aspects.ExceptionMappingAspectHandler;
 import org.eclipse.hawkbit.repository.jpa.autoassign.AutoAssignChecker;
+import org.eclipse.hawkbit.repository.jpa.autoassign.AutoAssignDirtyTargets;
 import org.eclipse.hawkbit.repository.jpa.autoassign.AutoAssignScheduler;
 import org.eclipse.hawkbit.repository.jpa.builder.JpaDistributionSetBuilder;
 import org.eclipse.hawkbit.repository.jpa.builder.JpaDistributionSetTypeBuilder;
@@ -65,7 +79,18 @@ import org.eclipse.hawkbit.repository.jpa.model.helper.EntityInterceptorHolder;
 import org.eclipse.hawkbit.repository.jpa.model.helper.SecurityTokenGeneratorHolder;
 import org.eclipse.hawkbit.repository.jpa.model.helper.SystemSecurityContextHolder;
 import org.eclipse.hawkbit.repository.jpa.model.helper.TenantAwareHolder;
+import org.eclipse.hawkbit.repository.jpa.poll.ControllerPollViewCache;
+import org.eclipse.hawkbit.repository.jpa.poll.TargetPollBuffer;
+import org.eclipse.hawkbit.repository.jpa.retention.ActionRetention;
+import org.eclipse.hawkbit.repository.jpa.retention.ActionRetentionScheduler;
+import org.eclipse.hawkbit.repository.jpa.retention.ActionStatusArchive;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutBulkWriter;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutGroupStatusCounters;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutStatusCountReconciler;
 import org.eclipse.hawkbit.repository.jpa.rsql.RsqlParserValidationOracle;
+import org.eclipse.hawkbit.repository.jpa.usage.TenantUsageCollector;
+import org.eclipse.hawkbit.repository.jpa.usage.TenantUsageSnapshot;
+import org.eclipse.hawkbit.repository.jpa.usage.TenantUsageSnapshotScheduler;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.DistributionSetType;
 import org.eclipse.hawkbit.repository.model.Rollout;
@@ -77,6 +102,7 @@ import org.eclipse.hawkbit.repository.rsql.RsqlValidationOracle;
 import org.eclipse.hawkbit.security.SecurityTokenGenerator;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
 import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.orm.jpa.JpaBaseConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -85,8 +111,11 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
 import org.springframework.orm.jpa.vendor.AbstractJpaVendorAdapter;
 import org.springframework.orm.jpa.vendor.EclipseLinkJpaVendorAdapter;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -106,7 +135,7 @@ import com.google.common.collect.Maps;
 @EnableAspectJAutoProxy
 @Configuration
 @ComponentScan
-@EnableConfigurationProperties(RepositoryProperties.class)
+@EnableConfigurationProperties({ RepositoryProperties.class, AutoAssignProperties.class })
 @EnableScheduling
 @EntityScan("org.eclipse.hawkbit.repository.jpa.model")
 public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
@@ -307,6 +336,17 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
         return new JpaSystemManagement();
     }
 
+    /**
+     * {@link TenantDeleter} bean.
+     *
+     * @return a new {@link TenantDeleter}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public TenantDeleter tenantDeleter() {
+        return new TenantDeleter();
+    }
+
     /**
      * {@link JpaReportManagement} bean.
      *
@@ -318,6 +358,27 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
         return new JpaReportManagement();
     }
 
+    /**
+     * {@link ReportSnapshotCache} bean.
+     *
+     * @param repositoryProperties
+     *            for the cache configuration
+     * @param tenantAware
+     *            to regenerate the reports as their tenant
+     * @param txManager
+     *            to regenerate the reports in a read only transaction
+     * @param refreshExecutor
+     *            to regenerate the reports in the background
+     * @return a new {@link ReportSnapshotCache}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ReportSnapshotCache reportSnapshotCache(final RepositoryProperties repositoryProperties,
+            final TenantAware tenantAware, final PlatformTransactionManager txManager,
+            @Qualifier("reportRefreshExecutor") final Executor refreshExecutor) {
+        return new ReportSnapshotCache(repositoryProperties, tenantAware, txManager, refreshExecutor);
+    }
+
     /**
      * {@link JpaDistributionSetManagement} bean.
      *
@@ -499,15 +560,35 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
      *            to assign distribution sets to targets
      * @param transactionManager
      *            to run transactions
+     * @param tenantAware
+     *            to get the tenant of an incremental check
+     * @param autoAssignDirtyTargets
+     *            to get the changed targets of an incremental check
+     * @param autoAssignProperties
+     *            for the full sweep interval of incremental checks
      * @return a new {@link AutoAssignChecker}
      */
     @Bean
     @ConditionalOnMissingBean
     public AutoAssignChecker autoAssignChecker(final TargetFilterQueryManagement targetFilterQueryManagement,
             final TargetManagement targetManagement, final DeploymentManagement deploymentManagement,
-            final PlatformTransactionManager transactionManager) {
+            final PlatformTransactionManager transactionManager, final TenantAware tenantAware,
+            final AutoAssignDirtyTargets autoAssignDirtyTargets, final AutoAssignProperties autoAssignProperties) {
         return new AutoAssignChecker(targetFilterQueryManagement, targetManagement, deploymentManagement,
-                transactionManager);
+                transactionManager, tenantAware, autoAssignDirtyTargets, autoAssignProperties);
+    }
+
+    /**
+     * {@link AutoAssignDirtyTargets} bean.
+     *
+     * @param autoAssignProperties
+     *            for the maximum number of remembered targets
+     * @return a new {@link AutoAssignDirtyTargets}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public AutoAssignDirtyTargets autoAssignDirtyTargets(final AutoAssignProperties autoAssignProperties) {
+        return new AutoAssignDirtyTargets(autoAssignProperties);
     }
 
     /**
@@ -521,13 +602,269 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
      *            to run as system
      * @param autoAssignChecker
      *            to run a check as tenant
+     * @param autoAssignProperties
+     *            to decide whether the check is incremental
      * @return a new {@link AutoAssignChecker}
      */
     @Bean
     @ConditionalOnMissingBean
     public AutoAssignScheduler autoAssignScheduler(final TenantAware tenantAware,
             final SystemManagement systemManagement, final SystemSecurityContext systemSecurityContext,
-            final AutoAssignChecker autoAssignChecker) {
-        return new AutoAssignScheduler(tenantAware, systemManagement, systemSecurityContext, autoAssignChecker);
+            final AutoAssignChecker autoAssignChecker, final AutoAssignProperties autoAssignProperties) {
+        return new AutoAssignScheduler(tenantAware, systemManagement, systemSecurityContext, autoAssignChecker,
+                autoAssignProperties);
+    }
+
+    /**
+     * {@link TargetPollBuffer} bean.
+     *
+     * @param repositoryProperties
+     *            for the buffer configuration
+     * @param dataSource
+     *            to flush the buffered polls
+     * @param entityManagerFactory
+     *            to evict the flushed entities from the shared cache
+     * @return a new {@link TargetPollBuffer}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public TargetPollBuffer targetPollBuffer(final RepositoryProperties repositoryProperties,
+            final DataSource dataSource, final EntityManagerFactory entityManagerFactory) {
+        return new TargetPollBuffer(repositoryProperties, new JdbcTemplate(dataSource),
+                entityManagerFactory.getCache());
+    }
+
+    /**
+     * {@link ControllerPollViewCache} bean.
+     *
+     * @param repositoryProperties
+     *            for the cache configuration
+     * @return a new {@link ControllerPollViewCache}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ControllerPollViewCache controllerPollViewCache(final RepositoryProperties repositoryProperties) {
+        return new ControllerPollViewCache(repositoryProperties);
+    }
+
+    /**
+     * {@link TargetFilterCountCache} bean.
+     *
+     * @param repositoryProperties
+     *            for the cache configuration
+     * @return a new {@link TargetFilterCountCache}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public TargetFilterCountCache targetFilterCountCache(final RepositoryProperties repositoryProperties) {
+        return new TargetFilterCountCache(repositoryProperties);
+    }
+
+    /**
+     * {@link JpaTargetImportManagement} bean.
+     *
+     * @return a new {@link TargetImportManagement}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public TargetImportManagement targetImportManagement() {
+        return new JpaTargetImportManagement();
+    }
+
+    /**
+     * {@link TargetBulkWriter} bean.
+     *
+     * @param dataSource
+     *            to write the rows with
+     * @param securityTokenGenerator
+     *            to generate the security tokens of the targets
+     * @param tenantAware
+     *            to get the current tenant
+     * @param auditorAware
+     *            to get the current auditor
+     * @return a new {@link TargetBulkWriter}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public TargetBulkWriter targetBulkWriter(final DataSource dataSource,
+            final SecurityTokenGenerator securityTokenGenerator, final TenantAware tenantAware,
+            final AuditorAware<String> auditorAware) {
+        return new TargetBulkWriter(new JdbcTemplate(dataSource), securityTokenGenerator, tenantAware, auditorAware);
+    }
+
+    /**
+     * {@link RolloutBulkWriter} bean.
+     *
+     * @param dataSource
+     *            to write the rows with
+     * @param actionRepository
+     *            to cancel replaced scheduled actions
+     * @param statusCounters
+     *            to count the canceled scheduled actions
+     * @param tenantAware
+     *            to get the current tenant
+     * @param auditorAware
+     *            to get the current auditor
+     * @return a new {@link RolloutBulkWriter}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RolloutBulkWriter rolloutBulkWriter(final DataSource dataSource, final ActionRepository actionRepository,
+            final RolloutGroupStatusCounters statusCounters, final TenantAware tenantAware,
+            final AuditorAware<String> auditorAware) {
+        return new RolloutBulkWriter(new JdbcTemplate(dataSource), actionRepository, statusCounters, tenantAware,
+                auditorAware);
+    }
+
+    /**
+     * {@link RolloutGroupStatusCounters} bean.
+     *
+     * @param dataSource
+     *            to read and write the counters
+     * @param transactionManager
+     *            to recount in a new transaction
+     * @return a new {@link RolloutGroupStatusCounters}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RolloutGroupStatusCounters rolloutGroupStatusCounters(final DataSource dataSource,
+            final PlatformTransactionManager transactionManager) {
+        return new RolloutGroupStatusCounters(new JdbcTemplate(dataSource), transactionManager);
+    }
+
+    /**
+     * {@link RolloutStatusCountReconciler} bean.
+     *
+     * @param tenantAware
+     *            to run as specific tenant
+     * @param systemManagement
+     *            to find all tenants
+     * @param systemSecurityContext
+     *            to run as system
+     * @param rolloutGroupRepository
+     *            to find the groups to recount
+     * @param rolloutGroupStatusCounters
+     *            to recount
+     * @param rolloutProperties
+     *            for the reconciler configuration
+     * @return a new {@link RolloutStatusCountReconciler}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RolloutStatusCountReconciler rolloutStatusCountReconciler(final TenantAware tenantAware,
+            final SystemManagement systemManagement, final SystemSecurityContext systemSecurityContext,
+            final RolloutGroupRepository rolloutGroupRepository,
+            final RolloutGroupStatusCounters rolloutGroupStatusCounters, final RolloutProperties rolloutProperties) {
+        return new RolloutStatusCountReconciler(tenantAware, systemManagement, systemSecurityContext,
+                rolloutGroupRepository, rolloutGroupStatusCounters, rolloutProperties);
+    }
+
+    /**
+     * {@link ActionStatusArchive} bean.
+     *
+     * @param dataSource
+     *            to read and write the archives
+     * @return a new {@link ActionStatusArchive}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ActionStatusArchive actionStatusArchive(final DataSource dataSource) {
+        return new ActionStatusArchive(new JdbcTemplate(dataSource));
+    }
+
+    /**
+     * {@link ActionRetention} bean.
+     *
+     * @param entityManagerFactory
+     *            to query and delete the actions and status entries
+     * @param tenantConfigurationManagement
+     *            to read the policies of the tenant
+     * @param actionStatusArchive
+     *            to archive the compacted status entries
+     * @param repositoryProperties
+     *            for the batch size
+     * @param transactionManager
+     *            to commit every batch in its own transaction
+     * @param tenantAware
+     *            to remember the compacted status entries per tenant
+     * @return a new {@link ActionRetention}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ActionRetention actionRetention(final EntityManagerFactory entityManagerFactory,
+            final TenantConfigurationManagement tenantConfigurationManagement,
+            final ActionStatusArchive actionStatusArchive, final RepositoryProperties repositoryProperties,
+            final PlatformTransactionManager transactionManager, final TenantAware tenantAware) {
+        return new ActionRetention(SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory),
+                tenantConfigurationManagement, actionStatusArchive, repositoryProperties, transactionManager,
+                tenantAware);
+    }
+
+    /**
+     * {@link ActionRetentionScheduler} bean.
+     *
+     * @param tenantAware
+     *            to run as specific tenant
+     * @param systemManagement
+     *            to find all tenants
+     * @param systemSecurityContext
+     *            to run as system
+     * @param actionRetention
+     *            to apply the policies of a tenant
+     * @return a new {@link ActionRetentionScheduler}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ActionRetentionScheduler actionRetentionScheduler(final TenantAware tenantAware,
+            final SystemManagement systemManagement, final SystemSecurityContext systemSecurityContext,
+            final ActionRetention actionRetention) {
+        return new ActionRetentionScheduler(tenantAware, systemManagement, systemSecurityContext, actionRetention);
+    }
+
+    /**
+     * {@link TenantUsageCollector} bean.
+     *
+     * @param dataSource
+     *            to aggregate the usage of all tenants
+     * @return a new {@link TenantUsageCollector}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public TenantUsageCollector tenantUsageCollector(final DataSource dataSource) {
+        return new TenantUsageCollector(new JdbcTemplate(dataSource));
+    }
+
+    /**
+     * {@link TenantUsageSnapshot} bean.
+     *
+     * @param dataSource
+     *            to read and write the snapshot
+     * @param tenantUsageCollector
+     *            to collect the usage of all tenants
+     * @param transactionManager
+     *            to replace the snapshot in one transaction
+     * @return a new {@link TenantUsageSnapshot}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public TenantUsageSnapshot tenantUsageSnapshot(final DataSource dataSource,
+            final TenantUsageCollector tenantUsageCollector, final PlatformTransactionManager transactionManager) {
+        return new TenantUsageSnapshot(new JdbcTemplate(dataSource), tenantUsageCollector, transactionManager);
+    }
+
+    /**
+     * {@link TenantUsageSnapshotScheduler} bean.
+     *
+     * @param repositoryProperties
+     *            to check if the snapshot is enabled
+     * @param tenantUsageSnapshot
+     *            to refresh
+     * @return a new {@link TenantUsageSnapshotScheduler}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public TenantUsageSnapshotScheduler tenantUsageSnapshotScheduler(final RepositoryProperties repositoryProperties,
+            final TenantUsageSnapshot tenantUsageSnapshot) {
+        return new TenantUsageSnapshotScheduler(repositoryProperties, tenantUsageSnapshot);
     }
 }
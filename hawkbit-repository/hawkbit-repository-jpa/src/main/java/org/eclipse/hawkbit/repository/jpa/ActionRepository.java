@@ -20,6 +20,7 @@ import org.eclipse.hawkbit.repository.jpa.model.JpaSoftwareModule;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.ActionStatus;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.Rollout;
 import org.eclipse.hawkbit.repository.model.RolloutGroup;
@@ -55,6 +56,16 @@ public interface ActionRepository extends BaseEntityRepository<JpaAction, Long>,
     @EntityGraph(value = "Action.all", type = EntityGraphType.LOAD)
     JpaAction findById(Long actionId);
 
+    /**
+     * Retrieves the Actions with the given IDs with all lazy attributes.
+     *
+     * @param actionIds
+     *            the IDs of the actions
+     * @return the found {@link Action}s
+     */
+    @EntityGraph(value = "Action.all", type = EntityGraphType.LOAD)
+    List<JpaAction> findByIdIn(Collection<Long> actionIds);
+
     /**
      * Retrieves all {@link Action}s which are referring the given
      * {@link DistributionSet}.
@@ -185,6 +196,37 @@ public interface ActionRepository extends BaseEntityRepository<JpaAction, Long>,
     void switchStatus(@Param("statusToSet") Action.Status statusToSet, @Param("targetsIds") List<Long> targetIds,
             @Param("active") boolean active, @Param("currentStatus") Action.Status currentStatus);
 
+    /**
+     * Counts an added {@link ActionStatus} entry on the action and remembers
+     * it as the last reported one. The targeted update neither increments the
+     * optimistic lock revision of the action nor publishes an update event,
+     * i.e. the entry does not conflict with concurrent updates of the action.
+     *
+     * @param actionId
+     *            of the action the entry has been added to
+     * @param status
+     *            of the entry
+     * @param occurredAt
+     *            of the entry
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE JpaAction a SET a.statusCount = a.statusCount + 1, a.lastStatus = :status, a.lastStatusAt = :occurredAt WHERE a.id = :actionId")
+    void addActionStatus(@Param("actionId") Long actionId, @Param("status") Action.Status status,
+            @Param("occurredAt") Long occurredAt);
+
+    /**
+     * Retrieves the status of the last {@link ActionStatus} entry of the
+     * action from the database.
+     *
+     * @param actionId
+     *            of the action
+     * @return the status of the last entry or <code>null</code> if there is
+     *         none
+     */
+    @Query("SELECT a.lastStatus FROM JpaAction a WHERE a.id = :actionId")
+    Action.Status findLastStatusById(@Param("actionId") Long actionId);
+
     /**
      *
      * Retrieves all {@link Action}s which are active and referring to the given
@@ -8,6 +8,9 @@
  */
 package org.eclipse.hawkbit.repository.jpa;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
 import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus;
 import org.eclipse.hawkbit.repository.model.Action;
@@ -17,6 +20,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -38,6 +43,18 @@ public interface ActionStatusRepository
      */
     Long countByAction(JpaAction action);
 
+    /**
+     * Counts {@link ActionStatus} entries of the given {@link Action}s in
+     * repository.
+     *
+     * @param actionIds
+     *            of the actions to count status entries
+     * @return pairs of action ID and number of status entries, actions
+     *         without entries are not contained
+     */
+    @Query("SELECT s.action.id, COUNT(s.id) FROM JpaActionStatus s WHERE s.action.id IN :actionIds GROUP BY s.action.id")
+    List<Object[]> countByActionIds(@Param("actionIds") Collection<Long> actionIds);
+
     /**
      * Retrieves all {@link ActionStatus} entries from repository of given
      * {@link Action}.
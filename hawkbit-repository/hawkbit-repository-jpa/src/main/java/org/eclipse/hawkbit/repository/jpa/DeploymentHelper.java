@@ -19,6 +19,7 @@ import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTargetInfo;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.ActionStatus;
 import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
 
 /**
@@ -61,6 +62,29 @@ public final class DeploymentHelper {
         return entityManager.merge(target);
     }
 
+    /**
+     * Counts the given {@link ActionStatus} entry on the action. The counters
+     * of an action that has not been inserted yet are part of its insert.
+     * Otherwise they are maintained by
+     * {@link ActionRepository#addActionStatus(Long, Status, Long)}, i.e. an
+     * entry does not dirty the action.
+     *
+     * @param action
+     *            the entry has been added to
+     * @param actionStatus
+     *            the added entry
+     * @param actionRepository
+     *            for the operation
+     */
+    static void addActionStatus(final JpaAction action, final ActionStatus actionStatus,
+            final ActionRepository actionRepository) {
+        if (action.getId() == null) {
+            action.addActionStatus(actionStatus);
+        } else {
+            actionRepository.addActionStatus(action.getId(), actionStatus.getStatus(), actionStatus.getOccurredAt());
+        }
+    }
+
     /**
      * This method is called, when cancellation has been successful. It sets the
      * action to canceled, resets the meta data of the target and in case there
@@ -20,6 +20,7 @@ import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.Rollout;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
+import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.Tag;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
@@ -102,6 +103,29 @@ public interface DistributionSetRepository
     @Query("select ra.distributionSet.id from JpaRollout ra where ra.distributionSet.id in :ids")
     List<Long> findAssignedToRolloutDistributionSetsById(@Param("ids") Long... ids);
 
+    /**
+     * Finds {@link DistributionSet}s based on given ID that are assigned to a
+     * {@link Target}. The actions of the assignment might have been purged by
+     * the action retention already.
+     *
+     * @param ids
+     *            to search for
+     * @return list of {@link DistributionSet#getId()}
+     */
+    @Query("select t.assignedDistributionSet.id from JpaTarget t where t.assignedDistributionSet.id in :ids")
+    List<Long> findAssignedToTargetColumnDistributionSetsById(@Param("ids") Long... ids);
+
+    /**
+     * Finds {@link DistributionSet}s based on given ID that are installed on a
+     * {@link Target}.
+     *
+     * @param ids
+     *            to search for
+     * @return list of {@link DistributionSet#getId()}
+     */
+    @Query("select ti.installedDistributionSet.id from JpaTargetInfo ti where ti.installedDistributionSet.id in :ids")
+    List<Long> findInstalledOnTargetDistributionSetsById(@Param("ids") Long... ids);
+
     /**
      * Finds the distribution set for a specific action.
      * 
@@ -9,14 +9,17 @@
 package org.eclipse.hawkbit.repository.jpa;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Root;
 
 import org.eclipse.hawkbit.repository.ControllerManagement;
 import org.eclipse.hawkbit.repository.EntityFactory;
@@ -34,22 +37,24 @@ import org.eclipse.hawkbit.repository.jpa.builder.JpaActionStatusCreate;
 import org.eclipse.hawkbit.repository.jpa.executor.AfterTransactionCommitExecutor;
 import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
 import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus;
-import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus_;
 import org.eclipse.hawkbit.repository.jpa.model.JpaDistributionSet;
 import org.eclipse.hawkbit.repository.jpa.model.JpaSoftwareModule;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTargetInfo;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTarget_;
+import org.eclipse.hawkbit.repository.jpa.poll.ControllerPollViewCache;
+import org.eclipse.hawkbit.repository.jpa.poll.TargetPollBuffer;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutGroupStatusCounters;
 import org.eclipse.hawkbit.repository.jpa.specifications.ActionSpecifications;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.Status;
 import org.eclipse.hawkbit.repository.model.ActionStatus;
 import org.eclipse.hawkbit.repository.model.Artifact;
+import org.eclipse.hawkbit.repository.model.ControllerPollView;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetInfo;
 import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
-import org.eclipse.hawkbit.repository.model.TenantConfiguration;
 import org.eclipse.hawkbit.security.HawkbitSecurityProperties;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
 import org.eclipse.hawkbit.tenancy.TenantAware;
@@ -101,9 +106,6 @@ public class JpaControllerManagement implements ControllerManagement {
     @Autowired
     private RepositoryProperties repositoryProperties;
 
-    @Autowired
-    private TenantConfigurationRepository tenantConfigurationRepository;
-
     @Autowired
     private TenantConfigurationManagement tenantConfigurationManagement;
 
@@ -125,16 +127,56 @@ public class JpaControllerManagement implements ControllerManagement {
     @Autowired
     private AfterTransactionCommitExecutor afterCommit;
 
+    @Autowired
+    private TargetPollBuffer targetPollBuffer;
+
+    @Autowired
+    private ControllerPollViewCache controllerPollViewCache;
+
+    @Autowired
+    private RolloutGroupStatusCounters rolloutGroupStatusCounters;
+
     @Override
     public String getPollingTime() {
-        final TenantConfigurationKey configurationKey = TenantConfigurationKey.POLLING_TIME_INTERVAL;
-        final Class<String> propertyType = String.class;
-        JpaTenantConfigurationManagement.validateTenantConfigurationDataType(configurationKey, propertyType);
-        final TenantConfiguration tenantConfiguration = tenantConfigurationRepository
-                .findByKey(configurationKey.getKeyName());
-
+        // the configuration value is cached per tenant
         return systemSecurityContext.runAsSystem(() -> tenantConfigurationManagement
-                .buildTenantConfigurationValueByKey(configurationKey, propertyType, tenantConfiguration).getValue());
+                .getConfigurationValue(TenantConfigurationKey.POLLING_TIME_INTERVAL, String.class).getValue());
+    }
+
+    @Override
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    public ControllerPollView pollControllerBase(final String controllerId, final URI address) {
+        final String tenant = tenantAware.getCurrentTenant();
+
+        final ControllerPollView cached = controllerPollViewCache.get(tenant, controllerId);
+        if (cached != null) {
+            registerPoll(tenant, cached.getTargetId(), address);
+            return cached;
+        }
+
+        final long version = controllerPollViewCache.getVersion();
+        final Target target = findOrRegisterTargetIfItDoesNotexist(controllerId, address);
+        final ControllerPollView view = new ControllerPollView(target,
+                findOldestActiveActionByTarget(target).orElse(null));
+
+        // only cache committed state
+        afterCommit.afterCommit(() -> controllerPollViewCache.put(tenant, view, version));
+
+        return view;
+    }
+
+    /**
+     * Registers the poll of a target that is known to be
+     * {@link TargetUpdateStatus#REGISTERED} already without loading it.
+     */
+    private void registerPoll(final String tenant, final Long targetId, final URI address) {
+        final long now = System.currentTimeMillis();
+        final String addressString = Optional.ofNullable(address).map(URI::toString).orElse(null);
+
+        if (!targetPollBuffer.offer(tenant, targetId, now, addressString)) {
+            targetPollBuffer.write(targetId, now, addressString);
+        }
     }
 
     @Override
@@ -217,6 +259,12 @@ public class JpaControllerManagement implements ControllerManagement {
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
     public TargetInfo updateTargetStatus(final TargetInfo targetInfo, final TargetUpdateStatus status,
             final Long lastTargetQuery, final URI address) {
+        if (isBufferablePoll((JpaTargetInfo) targetInfo, status, lastTargetQuery) && targetPollBuffer.offer(
+                tenantAware.getCurrentTenant(), ((JpaTargetInfo) targetInfo).getTargetId(), lastTargetQuery,
+                Optional.ofNullable(address).map(URI::toString).orElse(null))) {
+            return targetInfo;
+        }
+
         final JpaTargetInfo mtargetInfo = (JpaTargetInfo) entityManager.merge(targetInfo);
         if (status != null) {
             mtargetInfo.setUpdateStatus(status);
@@ -237,6 +285,17 @@ public class JpaControllerManagement implements ControllerManagement {
         return targetInfoRepository.save(mtargetInfo);
     }
 
+    /**
+     * A poll can be handed over to the {@link TargetPollBuffer} if it does
+     * not change the {@link TargetUpdateStatus}, i.e. neither explicitly nor by
+     * means of the UNKNOWN to REGISTERED transition on first contact.
+     */
+    private boolean isBufferablePoll(final JpaTargetInfo targetInfo, final TargetUpdateStatus status,
+            final Long lastTargetQuery) {
+        return targetPollBuffer.isEnabled() && status == null && lastTargetQuery != null && !targetInfo.isNew()
+                && targetInfo.getUpdateStatus() != TargetUpdateStatus.UNKNOWN;
+    }
+
     @Override
     @Modifying
     @Transactional(isolation = Isolation.READ_COMMITTED)
@@ -247,6 +306,7 @@ public class JpaControllerManagement implements ControllerManagement {
         final JpaActionStatus actionStatus = create.build();
 
         checkForToManyStatusEntries(action);
+        final Status previousStatus = action.getStatus();
         action.setStatus(actionStatus.getStatus());
 
         switch (actionStatus.getStatus()) {
@@ -264,8 +324,10 @@ public class JpaControllerManagement implements ControllerManagement {
         default:
             // do nothing
         }
+        DeploymentHelper.addActionStatus(action, actionStatus, actionRepository);
         actionStatus.setAction(actionRepository.save(action));
         actionStatusRepository.save(actionStatus);
+        rolloutGroupStatusCounters.statusChanged(action, previousStatus);
 
         return action;
     }
@@ -300,6 +362,47 @@ public class JpaControllerManagement implements ControllerManagement {
         return handleAddUpdateActionStatus(actionStatus, action);
     }
 
+    @Override
+    @Modifying
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public List<Action> addUpdateActionStatuses(final List<ActionStatusCreate> creates) {
+        final Set<Long> actionIds = creates.stream().map(create -> ((JpaActionStatusCreate) create).getActionId())
+                .collect(Collectors.toSet());
+        final Map<Long, JpaAction> actions = actionRepository.findByIdIn(actionIds).stream()
+                .collect(Collectors.toMap(JpaAction::getId, Function.identity()));
+        final Map<Long, Long> statusCounts = countStatusEntries(actionIds);
+
+        final Map<Long, Action> updated = new LinkedHashMap<>();
+        for (final ActionStatusCreate c : creates) {
+            final JpaActionStatusCreate create = (JpaActionStatusCreate) c;
+            final JpaAction action = actions.get(create.getActionId());
+            if (action == null) {
+                throw new EntityNotFoundException("Action with ID " + create.getActionId() + " not found!");
+            }
+            final JpaActionStatus actionStatus = create.build();
+
+            if (actionIsNotActiveButIntermediateFeedbackStillAllowed(actionStatus, action.isActive())) {
+                LOG.debug("Update of actionStatus {} for action {} not possible since action not active anymore.",
+                        actionStatus.getStatus(), action.getId());
+                updated.putIfAbsent(action.getId(), action);
+                continue;
+            }
+
+            // the DOS check is based on the counts of the batch start
+            checkForToManyStatusEntries(statusCounts.merge(action.getId(), 1L, Long::sum) - 1);
+            updated.put(action.getId(), applyActionStatus(actionStatus, action));
+        }
+        return new ArrayList<>(updated.values());
+    }
+
+    private Map<Long, Long> countStatusEntries(final Set<Long> actionIds) {
+        if (securityProperties.getDos().getMaxStatusEntriesPerAction() <= 0) {
+            return new HashMap<>();
+        }
+        return actionStatusRepository.countByActionIds(actionIds).stream()
+                .collect(Collectors.toMap(count -> (Long) count[0], count -> (Long) count[1]));
+    }
+
     private boolean actionIsNotActiveButIntermediateFeedbackStillAllowed(final ActionStatus actionStatus,
             final boolean actionActive) {
         return !actionActive && (repositoryProperties.isRejectActionStatusForClosedAction()
@@ -316,10 +419,16 @@ public class JpaControllerManagement implements ControllerManagement {
     private Action handleAddUpdateActionStatus(final JpaActionStatus actionStatus, final JpaAction action) {
         LOG.debug("addUpdateActionStatus for action {}", action.getId());
 
-        JpaTarget target = (JpaTarget) action.getTarget();
         // check for a potential DOS attack
         checkForToManyStatusEntries(action);
 
+        return applyActionStatus(actionStatus, action);
+    }
+
+    private JpaAction applyActionStatus(final JpaActionStatus actionStatus, final JpaAction action) {
+        JpaTarget target = (JpaTarget) action.getTarget();
+        final Status previousStatus = action.getStatus();
+
         switch (actionStatus.getStatus()) {
         case ERROR:
             target = DeploymentHelper.updateTargetInfo(target, TargetUpdateStatus.ERROR, false, targetInfoRepository,
@@ -342,8 +451,11 @@ public class JpaControllerManagement implements ControllerManagement {
         LOG.debug("addUpdateActionStatus {} for target {} is finished.", action, target.getId());
 
         action.setStatus(actionStatus.getStatus());
+        DeploymentHelper.addActionStatus(action, actionStatus, actionRepository);
 
-        return actionRepository.save(action);
+        final JpaAction savedAction = actionRepository.save(action);
+        rolloutGroupStatusCounters.statusChanged(savedAction, previousStatus);
+        return savedAction;
     }
 
     private void handleErrorOnAction(final JpaAction mergedAction, final JpaTarget mergedTarget) {
@@ -357,16 +469,17 @@ public class JpaControllerManagement implements ControllerManagement {
 
     private void checkForToManyStatusEntries(final JpaAction action) {
         if (securityProperties.getDos().getMaxStatusEntriesPerAction() > 0) {
+            checkForToManyStatusEntries(actionStatusRepository.countByAction(action));
+        }
+    }
 
-            final Long statusCount = actionStatusRepository.countByAction(action);
-
-            if (statusCount >= securityProperties.getDos().getMaxStatusEntriesPerAction()) {
-                LOG_DOS.error(
-                        "Potential denial of service (DOS) attack identfied. More status entries in the system than permitted ({})!",
-                        securityProperties.getDos().getMaxStatusEntriesPerAction());
-                throw new TooManyStatusEntriesException(
-                        String.valueOf(securityProperties.getDos().getMaxStatusEntriesPerAction()));
-            }
+    private void checkForToManyStatusEntries(final long statusCount) {
+        final int maxStatusEntries = securityProperties.getDos().getMaxStatusEntriesPerAction();
+        if (maxStatusEntries > 0 && statusCount >= maxStatusEntries) {
+            LOG_DOS.error(
+                    "Potential denial of service (DOS) attack identfied. More status entries in the system than permitted ({})!",
+                    maxStatusEntries);
+            throw new TooManyStatusEntriesException(String.valueOf(maxStatusEntries));
         }
     }
 
@@ -430,7 +543,7 @@ public class JpaControllerManagement implements ControllerManagement {
     @Modifying
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
     public Action registerRetrieved(final Action action, final String message) {
-        return handleRegisterRetrieved((JpaAction) action, message);
+        return handleRegisterRetrieved(action, message);
     }
 
     /**
@@ -444,23 +557,7 @@ public class JpaControllerManagement implements ControllerManagement {
      * @return the updated action in case the status has been changed to
      *         {@link Status#RETRIEVED}
      */
-    private Action handleRegisterRetrieved(final JpaAction action, final String message) {
-        // do a manual query with CriteriaBuilder to avoid unnecessary field
-        // queries and an extra
-        // count query made by spring-data when using pageable requests, we
-        // don't need an extra count
-        // query, we just want to check if the last action status is a retrieved
-        // or not.
-        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        final CriteriaQuery<Object[]> queryActionStatus = cb.createQuery(Object[].class);
-        final Root<JpaActionStatus> actionStatusRoot = queryActionStatus.from(JpaActionStatus.class);
-        final CriteriaQuery<Object[]> query = queryActionStatus
-                .multiselect(actionStatusRoot.get(JpaActionStatus_.id), actionStatusRoot.get(JpaActionStatus_.status))
-                .where(cb.equal(actionStatusRoot.get(JpaActionStatus_.action), action))
-                .orderBy(cb.desc(actionStatusRoot.get(JpaActionStatus_.id)));
-        final List<Object[]> resultList = entityManager.createQuery(query).setFirstResult(0).setMaxResults(1)
-                .getResultList();
-
+    private Action handleRegisterRetrieved(final Action action, final String message) {
         // if the latest status is not in retrieve state then we add a retrieved
         // state again, we want
         // to document a deployment retrieved status and a cancel retrieved
@@ -468,19 +565,28 @@ public class JpaControllerManagement implements ControllerManagement {
         // retrieves after the other we don't want to store to protect to
         // overflood action status in
         // case controller retrieves a action multiple times.
-        if (resultList.isEmpty() || !Status.RETRIEVED.equals(resultList.get(0)[1])) {
+        // the last status is maintained on the action, i.e. the status entries
+        // don't have to be queried on every retrieval. It is read from the
+        // database as the given action might be outdated.
+        if (!Status.RETRIEVED.equals(actionRepository.findLastStatusById(action.getId()))) {
+            final JpaAction actionMerge = getActionAndThrowExceptionIfNotFound(action.getId());
+
             // document that the status has been retrieved
-            actionStatusRepository
-                    .save(new JpaActionStatus(action, Status.RETRIEVED, System.currentTimeMillis(), message));
+            final JpaActionStatus retrieved = new JpaActionStatus(actionMerge, Status.RETRIEVED,
+                    System.currentTimeMillis(), message);
+            actionStatusRepository.save(retrieved);
+            DeploymentHelper.addActionStatus(actionMerge, retrieved, actionRepository);
 
             // don't change the action status itself in case the action is in
             // canceling state otherwise
             // we modify the action status and the controller won't get the
             // cancel job anymore.
-            if (!action.isCancelingOrCanceled()) {
-                final JpaAction actionMerge = entityManager.merge(action);
+            if (!actionMerge.isCancelingOrCanceled()) {
+                final Status previousStatus = actionMerge.getStatus();
                 actionMerge.setStatus(Status.RETRIEVED);
-                return actionRepository.save(actionMerge);
+                final JpaAction savedAction = actionRepository.save(actionMerge);
+                rolloutGroupStatusCounters.statusChanged(savedAction, previousStatus);
+                return savedAction;
             }
         }
         return action;
@@ -497,7 +603,11 @@ public class JpaControllerManagement implements ControllerManagement {
 
         checkForToManyStatusEntries(action);
 
-        return actionStatusRepository.save(statusMessage);
+        // the action itself is not changed by an informational status, i.e.
+        // it is neither dirtied nor updated
+        final JpaActionStatus saved = actionStatusRepository.save(statusMessage);
+        DeploymentHelper.addActionStatus(action, saved, actionRepository);
+        return saved;
     }
 
     private JpaAction getActionAndThrowExceptionIfNotFound(final Long actionId) {
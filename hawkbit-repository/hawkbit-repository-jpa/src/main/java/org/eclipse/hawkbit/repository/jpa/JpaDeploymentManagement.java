@@ -23,7 +23,7 @@ import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
-import javax.persistence.criteria.ListJoin;
+import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import javax.validation.constraints.NotNull;
 
@@ -31,6 +31,7 @@ import org.eclipse.hawkbit.repository.ActionFields;
 import org.eclipse.hawkbit.repository.DeploymentManagement;
 import org.eclipse.hawkbit.repository.RepositoryConstants;
 import org.eclipse.hawkbit.repository.TargetManagement;
+import org.eclipse.hawkbit.repository.event.remote.ActionBulkCreatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.CancelTargetAssignmentEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
@@ -51,6 +52,8 @@ import org.eclipse.hawkbit.repository.jpa.model.JpaRolloutGroup;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRollout_;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTargetInfo;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutBulkWriter;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutGroupStatusCounters;
 import org.eclipse.hawkbit.repository.jpa.rsql.RSQLUtility;
 import org.eclipse.hawkbit.repository.jpa.specifications.TargetSpecifications;
 import org.eclipse.hawkbit.repository.model.Action;
@@ -68,6 +71,7 @@ import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
 import org.eclipse.hawkbit.repository.model.TargetWithActionType;
 import org.eclipse.hawkbit.repository.rsql.VirtualPropertyReplacer;
+import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.hibernate.validator.constraints.NotEmpty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -80,6 +84,9 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -113,6 +120,9 @@ public class JpaDeploymentManagement implements DeploymentManagement {
     @Autowired
     private ActionRepository actionRepository;
 
+    @Autowired
+    private NoCountPagingRepository criteriaNoCountDao;
+
     @Autowired
     private DistributionSetRepository distributoinSetRepository;
 
@@ -146,6 +156,15 @@ public class JpaDeploymentManagement implements DeploymentManagement {
     @Autowired
     private PlatformTransactionManager txManager;
 
+    @Autowired
+    private RolloutBulkWriter rolloutBulkWriter;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private RolloutGroupStatusCounters rolloutGroupStatusCounters;
+
     @Override
     @Modifying
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
@@ -262,7 +281,7 @@ public class JpaDeploymentManagement implements DeploymentManagement {
         // cancel all scheduled actions which are in-active, these actions were
         // not active before and the manual assignment which has been done
         // cancels the
-        targetIds.forEach(tIds -> actionRepository.switchStatus(Status.CANCELED, tIds, false, Status.SCHEDULED));
+        targetIds.forEach(rolloutBulkWriter::cancelScheduledActions);
 
         // set assigned distribution set and TargetUpdateStatus
         final String currentUser;
@@ -350,12 +369,16 @@ public class JpaDeploymentManagement implements DeploymentManagement {
                         Action.Status.CANCELING);
 
         return activeActions.stream().map(action -> {
+            final Status previousStatus = action.getStatus();
             action.setStatus(Status.CANCELING);
             // document that the status has been retrieved
 
-            actionStatusRepository.save(new JpaActionStatus(action, Status.CANCELING, System.currentTimeMillis(),
-                    "manual cancelation requested"));
+            final JpaActionStatus canceling = new JpaActionStatus(action, Status.CANCELING,
+                    System.currentTimeMillis(), "manual cancelation requested");
+            actionStatusRepository.save(canceling);
+            DeploymentHelper.addActionStatus(action, canceling, actionRepository);
             actionRepository.save(action);
+            rolloutGroupStatusCounters.statusChanged(action, previousStatus);
 
             cancelAssignDistributionSetEvent(action.getTarget(), action.getId());
 
@@ -384,12 +407,16 @@ public class JpaDeploymentManagement implements DeploymentManagement {
 
         if (myAction.isActive()) {
             LOG.debug("action ({}) was still active. Change to {}.", action, Status.CANCELING);
+            final Status previousStatus = myAction.getStatus();
             myAction.setStatus(Status.CANCELING);
 
             // document that the status has been retrieved
-            actionStatusRepository.save(new JpaActionStatus(myAction, Status.CANCELING, System.currentTimeMillis(),
-                    "manual cancelation requested"));
+            final JpaActionStatus canceling = new JpaActionStatus(myAction, Status.CANCELING,
+                    System.currentTimeMillis(), "manual cancelation requested");
+            actionStatusRepository.save(canceling);
+            DeploymentHelper.addActionStatus(myAction, canceling, actionRepository);
             final Action saveAction = actionRepository.save(myAction);
+            rolloutGroupStatusCounters.statusChanged(saveAction, previousStatus);
             cancelAssignDistributionSetEvent(target, myAction.getId());
 
             return saveAction;
@@ -430,15 +457,20 @@ public class JpaDeploymentManagement implements DeploymentManagement {
         }
 
         LOG.warn("action ({}) was still activ and has been force quite.", action);
+        final Status previousStatus = mergedAction.getStatus();
 
         // document that the status has been retrieved
-        actionStatusRepository.save(new JpaActionStatus(mergedAction, Status.CANCELED, System.currentTimeMillis(),
-                "A force quit has been performed."));
+        final JpaActionStatus canceled = new JpaActionStatus(mergedAction, Status.CANCELED,
+                System.currentTimeMillis(), "A force quit has been performed.");
+        actionStatusRepository.save(canceled);
+        DeploymentHelper.addActionStatus(mergedAction, canceled, actionRepository);
 
         DeploymentHelper.successCancellation(mergedAction, actionRepository, targetRepository, targetInfoRepository,
                 entityManager);
 
-        return actionRepository.save(mergedAction);
+        final JpaAction savedAction = actionRepository.save(mergedAction);
+        rolloutGroupStatusCounters.statusChanged(savedAction, previousStatus);
+        return savedAction;
     }
 
     @Override
@@ -447,24 +479,20 @@ public class JpaDeploymentManagement implements DeploymentManagement {
     public void createScheduledAction(final Collection<Target> targets, final DistributionSet distributionSet,
             final ActionType actionType, final Long forcedTime, final Rollout rollout,
             final RolloutGroup rolloutGroup) {
-        // cancel all current scheduled actions for this target. E.g. an action
-        // is already scheduled and a next action is created then cancel the
-        // current scheduled action to cancel. E.g. a new scheduled action is
-        // created.
         final List<Long> targetIds = targets.stream().map(t -> t.getId()).collect(Collectors.toList());
-        actionRepository.switchStatus(Action.Status.CANCELED, targetIds, false, Action.Status.SCHEDULED);
-        targets.forEach(target -> {
-            final JpaAction action = new JpaAction();
-            action.setTarget(target);
-            action.setActive(false);
-            action.setDistributionSet(distributionSet);
-            action.setActionType(actionType);
-            action.setForcedTime(forcedTime);
-            action.setStatus(Status.SCHEDULED);
-            action.setRollout(rollout);
-            action.setRolloutGroup(rolloutGroup);
-            actionRepository.save(action);
-        });
+        if (targetIds.isEmpty()) {
+            return;
+        }
+        rolloutBulkWriter.createScheduledActions(targetIds, distributionSet, actionType, forcedTime, rollout,
+                rolloutGroup);
+
+        // the rows are inserted without the entity manager, i.e. without an
+        // entity event per action
+        final String tenant = tenantAware.getCurrentTenant();
+        final Long rolloutId = rollout != null ? rollout.getId() : null;
+        final Long rolloutGroupId = rolloutGroup != null ? rolloutGroup.getId() : null;
+        afterCommit.afterCommit(() -> eventPublisher.publishEvent(new ActionBulkCreatedEvent(tenant, rolloutId,
+                rolloutGroupId, targetIds, applicationContext.getId())));
     }
 
     @Override
@@ -524,6 +552,7 @@ public class JpaDeploymentManagement implements DeploymentManagement {
         // check if we need to override running update actions
         final Set<Long> overrideObsoleteUpdateActions = overrideObsoleteUpdateActions(
                 Collections.singletonList(action.getTarget().getId()));
+        final Status previousStatus = action.getStatus();
 
         if (action.getTarget().getAssignedDistributionSet() != null && action.getDistributionSet().getId()
                 .equals(action.getTarget().getAssignedDistributionSet().getId())) {
@@ -532,12 +561,15 @@ public class JpaDeploymentManagement implements DeploymentManagement {
             action.setStatus(Status.FINISHED);
             action.setActive(false);
             setSkipActionStatus(action);
-            return actionRepository.save(action);
+            final JpaAction finishedAction = actionRepository.save(action);
+            rolloutGroupStatusCounters.statusChanged(finishedAction, previousStatus);
+            return finishedAction;
         }
 
         action.setActive(true);
         action.setStatus(Status.RUNNING);
         final JpaAction savedAction = actionRepository.save(action);
+        rolloutGroupStatusCounters.statusChanged(savedAction, previousStatus);
 
         setRunningActionStatus(savedAction, null);
 
@@ -567,6 +599,7 @@ public class JpaDeploymentManagement implements DeploymentManagement {
         }
 
         actionStatusRepository.save(actionStatus);
+        DeploymentHelper.addActionStatus(action, actionStatus, actionRepository);
     }
 
     private void setSkipActionStatus(final JpaAction action) {
@@ -577,6 +610,7 @@ public class JpaDeploymentManagement implements DeploymentManagement {
         actionStatus.addMessage(RepositoryConstants.SERVER_MESSAGE_PREFIX
                 + "Distribution Set is already assigned. Skipping this action.");
         actionStatusRepository.save(actionStatus);
+        DeploymentHelper.addActionStatus(action, actionStatus, actionRepository);
     }
 
     @Override
@@ -601,25 +635,48 @@ public class JpaDeploymentManagement implements DeploymentManagement {
 
     @Override
     public List<ActionWithStatusCount> findActionsWithStatusCountByTargetOrderByIdDesc(final Target target) {
+        return Collections.unmodifiableList(
+                entityManager.createQuery(createActionWithStatusCountQuery(target, null)).getResultList());
+    }
+
+    @Override
+    public List<ActionWithStatusCount> findActionsWithStatusCountByTargetBefore(final Target target,
+            final Long beforeActionId, final int limit) {
+        return Collections.unmodifiableList(entityManager
+                .createQuery(createActionWithStatusCountQuery(target, beforeActionId)).setMaxResults(limit)
+                .getResultList());
+    }
+
+    /**
+     * The number of status entries is maintained on the action, see
+     * {@link DeploymentHelper#addActionStatus(JpaAction, ActionStatus, ActionRepository)},
+     * so the history is a plain projection without a join and grouping over
+     * the status table.
+     */
+    private CriteriaQuery<JpaActionWithStatusCount> createActionWithStatusCountQuery(final Target target,
+            final Long beforeActionId) {
         final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         final CriteriaQuery<JpaActionWithStatusCount> query = cb.createQuery(JpaActionWithStatusCount.class);
         final Root<JpaAction> actionRoot = query.from(JpaAction.class);
-        final ListJoin<JpaAction, JpaActionStatus> actionStatusJoin = actionRoot.join(JpaAction_.actionStatus,
-                JoinType.LEFT);
         final Join<JpaAction, JpaDistributionSet> actionDsJoin = actionRoot.join(JpaAction_.distributionSet);
         final Join<JpaAction, JpaRollout> actionRolloutJoin = actionRoot.join(JpaAction_.rollout, JoinType.LEFT);
 
-        final CriteriaQuery<JpaActionWithStatusCount> multiselect = query.distinct(true).multiselect(
-                actionRoot.get(JpaAction_.id), actionRoot.get(JpaAction_.actionType), actionRoot.get(JpaAction_.active),
+        final CriteriaQuery<JpaActionWithStatusCount> multiselect = query.multiselect(actionRoot.get(JpaAction_.id),
+                actionRoot.get(JpaAction_.actionType), actionRoot.get(JpaAction_.active),
                 actionRoot.get(JpaAction_.forcedTime), actionRoot.get(JpaAction_.status),
                 actionRoot.get(JpaAction_.createdAt), actionRoot.get(JpaAction_.lastModifiedAt),
                 actionDsJoin.get(JpaDistributionSet_.id), actionDsJoin.get(JpaDistributionSet_.name),
-                actionDsJoin.get(JpaDistributionSet_.version), cb.count(actionStatusJoin),
+                actionDsJoin.get(JpaDistributionSet_.version), actionRoot.get(JpaAction_.statusCount),
                 actionRolloutJoin.get(JpaRollout_.name));
-        multiselect.where(cb.equal(actionRoot.get(JpaAction_.target), target));
+
+        final Predicate byTarget = cb.equal(actionRoot.get(JpaAction_.target), target);
+        if (beforeActionId != null) {
+            multiselect.where(byTarget, cb.lessThan(actionRoot.get(JpaAction_.id), beforeActionId));
+        } else {
+            multiselect.where(byTarget);
+        }
         multiselect.orderBy(cb.desc(actionRoot.get(JpaAction_.id)));
-        multiselect.groupBy(actionRoot.get(JpaAction_.id));
-        return Collections.unmodifiableList(entityManager.createQuery(multiselect).getResultList());
+        return multiselect;
     }
 
     @Override
@@ -630,6 +687,28 @@ public class JpaDeploymentManagement implements DeploymentManagement {
         return convertAcPage(actions, pageable);
     }
 
+    @Override
+    public Slice<Action> findActionsByTargetBefore(final Long beforeActionId, final String rsqlParam,
+            final Target target, final int limit) {
+        final Specification<JpaAction> filter = rsqlParam == null ? null
+                : RSQLUtility.parse(rsqlParam, ActionFields.class, virtualPropertyReplacer);
+        final Specification<JpaAction> spec = (root, query, cb) -> {
+            final List<Predicate> predicates = new ArrayList<>(3);
+            predicates.add(cb.equal(root.get(JpaAction_.target), target));
+            if (beforeActionId != null) {
+                predicates.add(cb.lessThan(root.get(JpaAction_.id), beforeActionId));
+            }
+            if (filter != null) {
+                predicates.add(filter.toPredicate(root, query, cb));
+            }
+            return cb.and(predicates.toArray(new Predicate[predicates.size()]));
+        };
+
+        final Pageable pageable = new PageRequest(0, limit, new Sort(Direction.DESC, JpaAction_.id.getName()));
+        final Slice<JpaAction> actions = criteriaNoCountDao.findAll(spec, pageable, JpaAction.class);
+        return new SliceImpl<>(new ArrayList<>(actions.getContent()), pageable, actions.hasNext());
+    }
+
     private Specification<JpaAction> createSpecificationFor(final Target target, final String rsqlParam) {
         final Specification<JpaAction> spec = RSQLUtility.parse(rsqlParam, ActionFields.class, virtualPropertyReplacer);
         return (root, query, cb) -> cb.and(spec.toPredicate(root, query, cb),
@@ -66,7 +66,12 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.transaction.annotation.Isolation;
@@ -123,6 +128,9 @@ public class JpaDistributionSetManagement implements DistributionSetManagement {
     @Autowired
     private VirtualPropertyReplacer virtualPropertyReplacer;
 
+    @Autowired
+    private NoCountPagingRepository criteriaNoCountDao;
+
     @Autowired
     private SoftwareModuleRepository softwareModuleRepository;
 
@@ -255,6 +263,10 @@ public class JpaDistributionSetManagement implements DistributionSetManagement {
         final List<Long> assigned = distributionSetRepository
                 .findAssignedToTargetDistributionSetsById(distributionSetIDs);
         assigned.addAll(distributionSetRepository.findAssignedToRolloutDistributionSetsById(distributionSetIDs));
+        // the actions of the assignment might have been purged by the action
+        // retention while the targets still reference the set
+        assigned.addAll(distributionSetRepository.findAssignedToTargetColumnDistributionSetsById(distributionSetIDs));
+        assigned.addAll(distributionSetRepository.findInstalledOnTargetDistributionSetsById(distributionSetIDs));
 
         // soft delete assigned
         if (!assigned.isEmpty()) {
@@ -507,6 +519,24 @@ public class JpaDistributionSetManagement implements DistributionSetManagement {
         return convertDsPage(findByCriteriaAPI(pageReq, specList), pageReq);
     }
 
+    @Override
+    public Slice<DistributionSet> findDistributionSetsAllAfter(final Long afterId, final String rsqlParam,
+            final int limit) {
+        final List<Specification<JpaDistributionSet>> specList = new ArrayList<>(3);
+        specList.add(DistributionSetSpecification.isDeleted(Boolean.FALSE));
+        if (afterId != null) {
+            specList.add((root, query, cb) -> cb.greaterThan(root.get(JpaDistributionSet_.id), afterId));
+        }
+        if (rsqlParam != null) {
+            specList.add(RSQLUtility.parse(rsqlParam, DistributionSetFields.class, virtualPropertyReplacer));
+        }
+
+        final Pageable pageable = new PageRequest(0, limit, new Sort(Direction.ASC, JpaDistributionSet_.id.getName()));
+        final Slice<JpaDistributionSet> findAll = criteriaNoCountDao
+                .findAll(SpecificationsBuilder.combineWithAnd(specList), pageable, JpaDistributionSet.class);
+        return new SliceImpl<>(Collections.unmodifiableList(findAll.getContent()), pageable, findAll.hasNext());
+    }
+
     @Override
     public Page<DistributionSet> findDistributionSetsAllOrderedByLinkTarget(final Pageable pageable,
             final DistributionSetFilterBuilder distributionSetFilterBuilder, final String assignedOrInstalled) {
@@ -570,6 +600,15 @@ public class JpaDistributionSetManagement implements DistributionSetManagement {
         return distributionSetRepository.count(SpecificationsBuilder.combineWithAnd(Lists.newArrayList(spec)));
     }
 
+    @Override
+    public Long countDistributionSetsAll(final String rsqlParam) {
+        final List<Specification<JpaDistributionSet>> specList = Lists.newArrayList(
+                DistributionSetSpecification.isDeleted(Boolean.FALSE),
+                RSQLUtility.parse(rsqlParam, DistributionSetFields.class, virtualPropertyReplacer));
+
+        return distributionSetRepository.count(SpecificationsBuilder.combineWithAnd(specList));
+    }
+
     @Override
     public Long countDistributionSetTypesAll() {
         return distributionSetTypeRepository.countByDeleted(false);
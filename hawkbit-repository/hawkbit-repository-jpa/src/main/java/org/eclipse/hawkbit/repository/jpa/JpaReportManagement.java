@@ -27,6 +27,8 @@ import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.ListJoin;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
 import org.eclipse.hawkbit.repository.ReportManagement;
@@ -79,8 +81,15 @@ public class JpaReportManagement implements ReportManagement {
     @Autowired
     private TenantAware tenantAware;
 
+    @Autowired
+    private ReportSnapshotCache reportSnapshotCache;
+
     @Override
     public DataReportSeries<TargetUpdateStatus> targetStatus() {
+        return reportSnapshotCache.get(tenantAware.getCurrentTenant(), "targetStatus", this::generateTargetStatus);
+    }
+
+    private DataReportSeries<TargetUpdateStatus> generateTargetStatus() {
 
         final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         final CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
@@ -105,6 +114,11 @@ public class JpaReportManagement implements ReportManagement {
 
     @Override
     public DataReportSeries<SeriesTime> targetsLastPoll() {
+        return reportSnapshotCache.get(tenantAware.getCurrentTenant(), "targetsLastPoll",
+                this::generateTargetsLastPoll);
+    }
+
+    private DataReportSeries<SeriesTime> generateTargetsLastPoll() {
 
         final LocalDateTime now = LocalDateTime.now();
         final LocalDateTime beforeHour = now.minusHours(1);
@@ -114,35 +128,43 @@ public class JpaReportManagement implements ReportManagement {
         final LocalDateTime beforeYear = now.minusYears(1);
 
         final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        final List<DataReportSeriesItem<SeriesTime>> resultList = new ArrayList<>();
-
-        // hours
-        resultList.add(new DataReportSeriesItem<SeriesTime>(SeriesTime.HOUR,
-                entityManager.createQuery(createCountSelectTargetsLastPoll(cb, beforeHour, now)).getSingleResult()));
-        // days
-        resultList.add(new DataReportSeriesItem<SeriesTime>(SeriesTime.DAY, entityManager
-                .createQuery(createCountSelectTargetsLastPoll(cb, beforeDay, beforeHour)).getSingleResult()));
-        // weeks
-        resultList.add(new DataReportSeriesItem<SeriesTime>(SeriesTime.WEEK, entityManager
-                .createQuery(createCountSelectTargetsLastPoll(cb, beforeWeek, beforeDay)).getSingleResult()));
-        // months
-        resultList.add(new DataReportSeriesItem<SeriesTime>(SeriesTime.MONTH, entityManager
-                .createQuery(createCountSelectTargetsLastPoll(cb, beforeMonth, beforeWeek)).getSingleResult()));
-        // years
-        resultList.add(new DataReportSeriesItem<SeriesTime>(SeriesTime.YEAR, entityManager
-                .createQuery(createCountSelectTargetsLastPoll(cb, beforeYear, beforeMonth)).getSingleResult()));
-        // years
-        resultList.add(new DataReportSeriesItem<SeriesTime>(SeriesTime.MORE_THAN_YEAR,
-                entityManager.createQuery(createCountSelectTargetsLastPoll(cb, null, beforeYear)).getSingleResult()));
-        // never
-        resultList.add(new DataReportSeriesItem<SeriesTime>(SeriesTime.NEVER,
-                entityManager.createQuery(createCountSelectTargetsLastPoll(cb, null, null)).getSingleResult()));
+        final CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        final Root<JpaTarget> targetRoot = query.from(JpaTarget.class);
+        final Path<Long> lastTargetQuery = targetRoot.join(JpaTarget_.targetInfo)
+                .get(JpaTargetInfo_.lastTargetQuery);
+
+        // all buckets are counted within one scan of the targets
+        query.multiselect(countTargetsLastPoll(cb, lastTargetQuery, beforeHour, now),
+                countTargetsLastPoll(cb, lastTargetQuery, beforeDay, beforeHour),
+                countTargetsLastPoll(cb, lastTargetQuery, beforeWeek, beforeDay),
+                countTargetsLastPoll(cb, lastTargetQuery, beforeMonth, beforeWeek),
+                countTargetsLastPoll(cb, lastTargetQuery, beforeYear, beforeMonth),
+                countTargetsLastPoll(cb, lastTargetQuery, null, beforeYear),
+                countTargetsLastPoll(cb, lastTargetQuery, null, null));
+
+        // | col1 | col2 | col3 | col4 | col5 | col6 | col7 |
+        // | HOUR | DAY | WEEK | MONTH | YEAR | MORE_THAN_YEAR | NEVER |
+        final Object[] counts = entityManager.createQuery(query).getSingleResult();
+        final SeriesTime[] buckets = { SeriesTime.HOUR, SeriesTime.DAY, SeriesTime.WEEK, SeriesTime.MONTH,
+                SeriesTime.YEAR, SeriesTime.MORE_THAN_YEAR, SeriesTime.NEVER };
+
+        final List<DataReportSeriesItem<SeriesTime>> resultList = new ArrayList<>(buckets.length);
+        for (int i = 0; i < buckets.length; i++) {
+            // the sum is null if there are no targets at all
+            resultList.add(new DataReportSeriesItem<SeriesTime>(buckets[i],
+                    counts[i] != null ? ((Number) counts[i]).longValue() : 0L));
+        }
 
         return new DataReportSeries<>("TargetLastPoll", resultList);
     }
 
     @Override
     public List<InnerOuterDataReportSeries<String>> distributionUsageAssigned(final int topXEntries) {
+        return reportSnapshotCache.get(tenantAware.getCurrentTenant(), "distributionUsageAssigned:" + topXEntries,
+                () -> generateDistributionUsageAssigned(topXEntries));
+    }
+
+    private List<InnerOuterDataReportSeries<String>> generateDistributionUsageAssigned(final int topXEntries) {
 
         // top X entries distribution usage
         final CriteriaBuilder cbTopX = entityManager.getCriteriaBuilder();
@@ -168,6 +190,11 @@ public class JpaReportManagement implements ReportManagement {
 
     @Override
     public List<InnerOuterDataReportSeries<String>> distributionUsageInstalled(final int topXEntries) {
+        return reportSnapshotCache.get(tenantAware.getCurrentTenant(), "distributionUsageInstalled:" + topXEntries,
+                () -> generateDistributionUsageInstalled(topXEntries));
+    }
+
+    private List<InnerOuterDataReportSeries<String>> generateDistributionUsageInstalled(final int topXEntries) {
         // top X entries distribution usage
         final CriteriaBuilder cbTopX = entityManager.getCriteriaBuilder();
         final CriteriaQuery<Object[]> queryTopX = cbTopX.createQuery(Object[].class);
@@ -193,6 +220,15 @@ public class JpaReportManagement implements ReportManagement {
     @Override
     public <T extends Serializable> DataReportSeries<T> targetsCreatedOverPeriod(final DateType<T> dateType,
             final LocalDateTime from, final LocalDateTime to) {
+        // the report only depends on the months of the period
+        return reportSnapshotCache.get(tenantAware.getCurrentTenant(),
+                "targetsCreatedOverPeriod:" + dateType.getClass().getName() + ":" + from.format(DATE_FORMAT) + ":"
+                        + to.format(DATE_FORMAT),
+                () -> generateTargetsCreatedOverPeriod(dateType, from, to));
+    }
+
+    private <T extends Serializable> DataReportSeries<T> generateTargetsCreatedOverPeriod(final DateType<T> dateType,
+            final LocalDateTime from, final LocalDateTime to) {
         final Query createNativeQuery = entityManager
                 .createNativeQuery(getTargetsCreatedQueryTemplate(dateType, from, to));
         final List<Object[]> resultList = createNativeQuery.getResultList();
@@ -255,31 +291,23 @@ public class JpaReportManagement implements ReportManagement {
         return new DataReportSeries<>("FeedbackRecieved", reportItems);
     }
 
-    private static CriteriaQuery<Long> createCountSelectTargetsLastPoll(final CriteriaBuilder cb,
+    private static Expression<Long> countTargetsLastPoll(final CriteriaBuilder cb, final Path<Long> lastTargetQuery,
             final LocalDateTime from, final LocalDateTime to) {
 
-        Long start = null;
-        Long end = null;
-        if (from != null) {
-            start = from.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
-        }
-        if (to != null) {
-            end = to.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
-        }
-
-        // count select statement
-        final CriteriaQuery<Long> countSelect = cb.createQuery(Long.class);
-        final Root<JpaTarget> countSelectRoot = countSelect.from(JpaTarget.class);
-        final Join<JpaTarget, JpaTargetInfo> targetInfoJoin = countSelectRoot.join(JpaTarget_.targetInfo);
-        countSelect.select(cb.count(countSelectRoot));
-        if (start != null && end != null) {
-            countSelect.where(cb.between(targetInfoJoin.get(JpaTargetInfo_.lastTargetQuery), start, end));
-        } else if (from == null && to != null) {
-            countSelect.where(cb.lessThanOrEqualTo(targetInfoJoin.get(JpaTargetInfo_.lastTargetQuery), end));
+        final Predicate bucket;
+        if (from != null && to != null) {
+            bucket = cb.between(lastTargetQuery, toEpochMilli(from), toEpochMilli(to));
+        } else if (to != null) {
+            bucket = cb.lessThanOrEqualTo(lastTargetQuery, toEpochMilli(to));
         } else {
-            countSelect.where(cb.isNull(targetInfoJoin.get(JpaTargetInfo_.lastTargetQuery)));
+            bucket = cb.isNull(lastTargetQuery);
         }
-        return countSelect;
+        // SUM(CASE WHEN bucket THEN 1 ELSE 0 END)
+        return cb.sum(cb.<Long> selectCase().when(bucket, 1L).otherwise(0L));
+    }
+
+    private static long toEpochMilli(final LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 
     private static List<InnerOuterDataReportSeries<String>> mapDistirbutionUsageResultToDataReport(
@@ -9,6 +9,7 @@
 package org.eclipse.hawkbit.repository.jpa;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -34,6 +35,7 @@ import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTarget_;
 import org.eclipse.hawkbit.repository.jpa.model.RolloutTargetGroup;
 import org.eclipse.hawkbit.repository.jpa.model.RolloutTargetGroup_;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutGroupStatusCounters;
 import org.eclipse.hawkbit.repository.jpa.rsql.RSQLUtility;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Rollout.RolloutStatus;
@@ -69,6 +71,9 @@ public class JpaRolloutGroupManagement implements RolloutGroupManagement {
     @Autowired
     private TargetRepository targetRepository;
 
+    @Autowired
+    private RolloutGroupStatusCounters rolloutGroupStatusCounters;
+
     @Autowired
     private EntityManager entityManager;
 
@@ -131,8 +136,8 @@ public class JpaRolloutGroupManagement implements RolloutGroupManagement {
     @Override
     public RolloutGroup findRolloutGroupWithDetailedStatus(final Long rolloutGroupId) {
         final JpaRolloutGroup rolloutGroup = (JpaRolloutGroup) findRolloutGroupById(rolloutGroupId);
-        final List<TotalTargetCountActionStatus> rolloutStatusCountItems = actionRepository
-                .getStatusCountByRolloutGroupId(rolloutGroupId);
+        final List<TotalTargetCountActionStatus> rolloutStatusCountItems = getStatusCountItemForRolloutGroup(
+                Collections.singletonList(rolloutGroupId)).get(rolloutGroupId);
 
         final TotalTargetCountStatus totalTargetCountStatus = new TotalTargetCountStatus(rolloutStatusCountItems,
                 Long.valueOf(rolloutGroup.getTotalTargets()));
@@ -143,9 +148,25 @@ public class JpaRolloutGroupManagement implements RolloutGroupManagement {
 
     private Map<Long, List<TotalTargetCountActionStatus>> getStatusCountItemForRolloutGroup(
             final List<Long> rolloutGroupIds) {
-        final List<TotalTargetCountActionStatus> resultList = actionRepository
-                .getStatusCountByRolloutGroupId(rolloutGroupIds);
-        return resultList.stream().collect(Collectors.groupingBy(TotalTargetCountActionStatus::getId));
+        final Map<Long, List<TotalTargetCountActionStatus>> result = new HashMap<>();
+        rolloutGroupStatusCounters.getGroupCounts(rolloutGroupIds).forEach((groupId, statusCounts) -> {
+            final List<TotalTargetCountActionStatus> items = statusCounts.entrySet().stream()
+                    .filter(count -> count.getValue() > 0)
+                    .map(count -> new TotalTargetCountActionStatus(groupId, count.getKey(), count.getValue()))
+                    .collect(Collectors.toList());
+            if (!items.isEmpty()) {
+                result.put(groupId, items);
+            }
+        });
+
+        // groups that are not materialized yet are counted on the actions
+        final List<Long> notCounted = rolloutGroupIds.stream().filter(id -> !result.containsKey(id))
+                .collect(Collectors.toList());
+        if (!notCounted.isEmpty()) {
+            result.putAll(actionRepository.getStatusCountByRolloutGroupId(notCounted).stream()
+                    .collect(Collectors.groupingBy(TotalTargetCountActionStatus::getId)));
+        }
+        return result;
     }
 
     @Override
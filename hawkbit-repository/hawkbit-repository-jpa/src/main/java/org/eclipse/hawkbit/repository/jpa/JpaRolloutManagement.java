@@ -8,7 +8,9 @@
  */
 package org.eclipse.hawkbit.repository.jpa;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -16,6 +18,9 @@ import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
 import javax.validation.ConstraintDeclarationException;
 
 import org.apache.commons.lang3.StringUtils;
@@ -23,23 +28,31 @@ import org.eclipse.hawkbit.repository.DeploymentManagement;
 import org.eclipse.hawkbit.repository.RolloutFields;
 import org.eclipse.hawkbit.repository.RolloutGroupManagement;
 import org.eclipse.hawkbit.repository.RolloutManagement;
+import org.eclipse.hawkbit.repository.TargetFields;
 import org.eclipse.hawkbit.repository.TargetManagement;
 import org.eclipse.hawkbit.repository.builder.GenericRolloutUpdate;
 import org.eclipse.hawkbit.repository.builder.RolloutCreate;
 import org.eclipse.hawkbit.repository.builder.RolloutGroupCreate;
 import org.eclipse.hawkbit.repository.builder.RolloutUpdate;
+import org.eclipse.hawkbit.repository.event.remote.ActionBulkCreatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.RolloutGroupCreatedEvent;
 import org.eclipse.hawkbit.repository.exception.ConstraintViolationException;
 import org.eclipse.hawkbit.repository.exception.EntityAlreadyExistsException;
 import org.eclipse.hawkbit.repository.exception.RolloutIllegalStateException;
+import org.eclipse.hawkbit.repository.jpa.configuration.Constants;
 import org.eclipse.hawkbit.repository.jpa.executor.AfterTransactionCommitExecutor;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRollout;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRolloutGroup;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRollout_;
-import org.eclipse.hawkbit.repository.jpa.model.RolloutTargetGroup;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget_;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutBulkWriter;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutGroupStatusCounters;
 import org.eclipse.hawkbit.repository.jpa.rollout.condition.RolloutGroupActionEvaluator;
 import org.eclipse.hawkbit.repository.jpa.rollout.condition.RolloutGroupConditionEvaluator;
 import org.eclipse.hawkbit.repository.jpa.rsql.RSQLUtility;
+import org.eclipse.hawkbit.repository.jpa.specifications.SpecificationsBuilder;
+import org.eclipse.hawkbit.repository.jpa.specifications.TargetSpecifications;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.ActionType;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
@@ -50,7 +63,6 @@ import org.eclipse.hawkbit.repository.model.RolloutGroup.RolloutGroupErrorCondit
 import org.eclipse.hawkbit.repository.model.RolloutGroup.RolloutGroupStatus;
 import org.eclipse.hawkbit.repository.model.RolloutGroup.RolloutGroupSuccessCondition;
 import org.eclipse.hawkbit.repository.model.RolloutGroupConditions;
-import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TotalTargetCountActionStatus;
 import org.eclipse.hawkbit.repository.model.TotalTargetCountStatus;
 import org.eclipse.hawkbit.repository.rsql.VirtualPropertyReplacer;
@@ -65,6 +77,9 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -87,8 +102,8 @@ public class JpaRolloutManagement implements RolloutManagement {
     private static final Logger LOGGER = LoggerFactory.getLogger(RolloutManagement.class);
 
     /**
-     * Maximum amount of targets that are assigned to a Rollout Group in one
-     * transaction.
+     * Maximum amount of targets of a Rollout Group for which actions are
+     * created in one transaction.
      */
     private static final int TRANSACTION_TARGETS = 1000;
 
@@ -134,6 +149,12 @@ public class JpaRolloutManagement implements RolloutManagement {
     @Autowired
     private AfterTransactionCommitExecutor afterCommit;
 
+    @Autowired
+    private RolloutBulkWriter rolloutBulkWriter;
+
+    @Autowired
+    private RolloutGroupStatusCounters rolloutGroupStatusCounters;
+
     @Override
     public Page<Rollout> findAll(final Pageable pageable) {
         return convertPage(rolloutRepository.findAll(pageable), pageable);
@@ -147,6 +168,23 @@ public class JpaRolloutManagement implements RolloutManagement {
         return new PageImpl<>(Collections.unmodifiableList(findAll.getContent()), pageable, 0);
     }
 
+    @Override
+    public Slice<Rollout> findAllAfter(final Long afterId, final String rsqlParam, final int limit) {
+        final List<Specification<JpaRollout>> specList = new ArrayList<>(2);
+        if (afterId != null) {
+            specList.add((root, query, cb) -> cb.greaterThan(root.get(JpaRollout_.id), afterId));
+        }
+        if (rsqlParam != null) {
+            specList.add(RSQLUtility.parse(rsqlParam, RolloutFields.class, virtualPropertyReplacer));
+        }
+
+        final Pageable pageable = new PageRequest(0, limit, new Sort(Direction.ASC, JpaRollout_.id.getName()));
+        final Slice<JpaRollout> findAll = specList.isEmpty() ? criteriaNoCountDao.findAll(pageable, JpaRollout.class)
+                : criteriaNoCountDao.findAll(SpecificationsBuilder.combineWithAnd(specList), pageable,
+                        JpaRollout.class);
+        return new SliceImpl<>(Collections.unmodifiableList(findAll.getContent()), pageable, findAll.hasNext());
+    }
+
     @Override
     public Page<Rollout> findAllByPredicate(final String rsqlParam, final Pageable pageable) {
 
@@ -358,12 +396,21 @@ public class JpaRolloutManagement implements RolloutManagement {
         long targetsLeftToAdd = expectedInGroup - currentlyInGroup;
 
         try {
-            do {
-                // Add up to TRANSACTION_TARGETS of the left targets
-                // In case a TransactionException is thrown this loop aborts
-                targetsLeftToAdd -= assignTargetsToGroupInNewTransaction(rollout, group, groupTargetFilter,
-                        Math.min(TRANSACTION_TARGETS, targetsLeftToAdd));
-            } while (targetsLeftToAdd > 0);
+            // the targets are fetched in ascending chunks so that every chunk
+            // continues after the last target of the former one
+            // In case a TransactionException is thrown this loop aborts
+            long lastTargetId = 0;
+            while (targetsLeftToAdd > 0) {
+                final int limit = (int) Math.min(targetsLeftToAdd, Constants.MAX_ENTRIES_IN_STATEMENT);
+                final List<Long> targetIds = findTargetIdsByTargetFilterQueryAndNotInRolloutGroups(readyGroups,
+                        groupTargetFilter, lastTargetId, limit);
+                if (targetIds.isEmpty()) {
+                    break;
+                }
+                assignTargetsToGroupInNewTransaction(group, targetIds);
+                targetsLeftToAdd -= targetIds.size();
+                lastTargetId = targetIds.get(targetIds.size() - 1);
+            }
 
             group.setStatus(RolloutGroupStatus.READY);
             group.setTotalTargets(rolloutTargetGroupRepository.countByRolloutGroup(group).intValue());
@@ -375,31 +422,49 @@ public class JpaRolloutManagement implements RolloutManagement {
         }
     }
 
-    private int runInNewCountingTransaction(final String transactionName, final TransactionCallback<Integer> action) {
+    private <T> T runInNewTransaction(final String transactionName, final TransactionCallback<T> action) {
         final DefaultTransactionDefinition def = new DefaultTransactionDefinition();
         def.setName(transactionName);
         def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
         return new TransactionTemplate(txManager, def).execute(action);
     }
 
-    private Integer assignTargetsToGroupInNewTransaction(final Rollout rollout, final RolloutGroup group,
-            final String targetFilter, final long limit) {
+    private void assignTargetsToGroupInNewTransaction(final RolloutGroup group, final List<Long> targetIds) {
+        runInNewTransaction("assignTargetsToRolloutGroup", status -> {
+            rolloutBulkWriter.assignTargetsToGroup(group, targetIds);
+            return targetIds.size();
+        });
+    }
 
-        return runInNewCountingTransaction("assignTargetsToRolloutGroup", status -> {
-            final PageRequest pageRequest = new PageRequest(0, Math.toIntExact(limit));
-            final List<RolloutGroup> readyGroups = RolloutHelper.getGroupsByStatusIncludingGroup(rollout,
-                    RolloutGroupStatus.READY, group);
-            final Page<Target> targets = targetManagement
-                    .findAllTargetsByTargetFilterQueryAndNotInRolloutGroups(pageRequest, readyGroups, targetFilter);
+    private List<Long> findTargetIdsByTargetFilterQueryAndNotInRolloutGroups(final List<RolloutGroup> groups,
+            final String targetFilterQuery, final long afterTargetId, final int limit) {
+        final Specification<JpaTarget> spec = RSQLUtility.parse(targetFilterQuery, TargetFields.class,
+                virtualPropertyReplacer);
 
-            createAssignmentOfTargetsToGroup(targets, group);
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        final Root<JpaTarget> targetRoot = query.from(JpaTarget.class);
+        query.select(targetRoot.get(JpaTarget_.id))
+                .where(cb.and(spec.toPredicate(targetRoot, query, cb),
+                        TargetSpecifications.isNotInRolloutGroups(groups).toPredicate(targetRoot, query, cb),
+                        cb.greaterThan(targetRoot.get(JpaTarget_.id), afterTargetId)))
+                .orderBy(cb.asc(targetRoot.get(JpaTarget_.id)));
 
-            return targets.getNumberOfElements();
-        });
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
     }
 
-    private void createAssignmentOfTargetsToGroup(final Page<Target> targets, final RolloutGroup group) {
-        targets.forEach(target -> rolloutTargetGroupRepository.save(new RolloutTargetGroup(group, target)));
+    private List<Long> findTargetIdsInRolloutGroupWithoutAction(final RolloutGroup group, final long afterTargetId,
+            final int limit) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        final Root<JpaTarget> targetRoot = query.from(JpaTarget.class);
+        query.select(targetRoot.get(JpaTarget_.id))
+                .where(cb.and(
+                        TargetSpecifications.hasNoActionInRolloutGroup(group).toPredicate(targetRoot, query, cb),
+                        cb.greaterThan(targetRoot.get(JpaTarget_.id), afterTargetId)))
+                .orderBy(cb.asc(targetRoot.get(JpaTarget_.id)));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
     }
 
     private void verifyRolloutGroupTargetCounts(final List<RolloutGroup> groups, final JpaRollout rollout) {
@@ -528,6 +593,9 @@ public class JpaRolloutManagement implements RolloutManagement {
         }
 
         if (actionsLeft <= 0) {
+            // the actions are written in bulk, so the counters are
+            // materialized once for the whole group
+            rolloutGroupStatusCounters.recount(group.getId());
             group.setStatus(RolloutGroupStatus.SCHEDULED);
             rolloutGroupRepository.save(group);
             return true;
@@ -538,12 +606,18 @@ public class JpaRolloutManagement implements RolloutManagement {
     private long createActionsForRolloutGroup(final Rollout rollout, final RolloutGroup group) {
         long totalActionsCreated = 0;
         try {
-            long actionsCreated;
+            // the targets are processed in ascending order so that every
+            // transaction continues after the last target of the former one
+            long lastTargetId = 0;
+            List<Long> targetIds;
             do {
-                actionsCreated = createActionsForTargetsInNewTransaction(rollout.getId(), group.getId(),
+                targetIds = createActionsForTargetsInNewTransaction(rollout.getId(), group.getId(), lastTargetId,
                         TRANSACTION_TARGETS);
-                totalActionsCreated += actionsCreated;
-            } while (actionsCreated > 0);
+                totalActionsCreated += targetIds.size();
+                if (!targetIds.isEmpty()) {
+                    lastTargetId = targetIds.get(targetIds.size() - 1);
+                }
+            } while (!targetIds.isEmpty());
 
         } catch (final TransactionException e) {
             LOGGER.warn("Transaction assigning Targets to RolloutGroup failed", e);
@@ -552,23 +626,27 @@ public class JpaRolloutManagement implements RolloutManagement {
         return totalActionsCreated;
     }
 
-    private Integer createActionsForTargetsInNewTransaction(final long rolloutId, final long groupId, final int limit) {
-        return runInNewCountingTransaction("createActionsForTargets", status -> {
-            final PageRequest pageRequest = new PageRequest(0, limit);
-            final Rollout rollout = rolloutRepository.findOne(rolloutId);
+    private List<Long> createActionsForTargetsInNewTransaction(final long rolloutId, final long groupId,
+            final long afterTargetId, final int limit) {
+        return runInNewTransaction("createActionsForTargets", status -> {
+            final JpaRollout rollout = rolloutRepository.findOne(rolloutId);
             final RolloutGroup group = rolloutGroupRepository.findOne(groupId);
 
             final DistributionSet distributionSet = rollout.getDistributionSet();
             final ActionType actionType = rollout.getActionType();
             final long forceTime = rollout.getForcedTime();
 
-            final Page<Target> targets = targetManagement.findAllTargetsInRolloutGroupWithoutAction(pageRequest, group);
-            if (targets.getTotalElements() > 0) {
-                deploymentManagement.createScheduledAction(targets.getContent(), distributionSet, actionType, forceTime,
-                        rollout, group);
+            final List<Long> targetIds = findTargetIdsInRolloutGroupWithoutAction(group, afterTargetId, limit);
+            rolloutBulkWriter.createScheduledActions(targetIds, distributionSet, actionType, forceTime, rollout,
+                    group);
+            if (!targetIds.isEmpty()) {
+                // the rows are inserted without the entity manager, i.e.
+                // without an entity event per action
+                afterCommit.afterCommit(() -> eventPublisher.publishEvent(new ActionBulkCreatedEvent(
+                        rollout.getTenant(), rolloutId, groupId, targetIds, context.getId())));
             }
 
-            return targets.getNumberOfElements();
+            return targetIds;
         });
     }
 
@@ -654,6 +732,9 @@ public class JpaRolloutManagement implements RolloutManagement {
 
             final long targetCount = countTargetsFrom(rolloutGroup);
             if (rolloutGroup.getTotalTargets() != targetCount) {
+                // the actions of deleted targets are removed by the database
+                // and still contained in the status counters
+                rolloutGroupStatusCounters.recount(rolloutGroup.getId());
                 updateTotalTargetCount(rolloutGroup, targetCount);
             }
 
@@ -717,12 +798,23 @@ public class JpaRolloutManagement implements RolloutManagement {
     }
 
     private boolean isRolloutGroupComplete(final JpaRollout rollout, final JpaRolloutGroup rolloutGroup) {
+        final Map<Action.Status, Long> statusCounts = rolloutGroupStatusCounters.getGroupCounts(rolloutGroup.getId());
+        if (statusCounts != null && statusCounts.entrySet().stream()
+                .anyMatch(count -> count.getValue() > 0 && !isTerminal(count.getKey()))) {
+            return false;
+        }
+
+        // the counters may drift, so a completion is verified on the actions
         final Long actionsLeftForRollout = actionRepository
                 .countByRolloutAndRolloutGroupAndStatusNotAndStatusNotAndStatusNot(rollout, rolloutGroup,
                         Action.Status.ERROR, Action.Status.FINISHED, Action.Status.CANCELED);
         return actionsLeftForRollout == 0;
     }
 
+    private static boolean isTerminal(final Action.Status status) {
+        return status == Action.Status.ERROR || status == Action.Status.FINISHED || status == Action.Status.CANCELED;
+    }
+
     private boolean checkErrorState(final Rollout rollout, final RolloutGroup rolloutGroup) {
 
         final RolloutGroupErrorCondition errorCondition = rolloutGroup.getErrorCondition();
@@ -820,6 +912,11 @@ public class JpaRolloutManagement implements RolloutManagement {
         return rolloutRepository.count();
     }
 
+    @Override
+    public Long countRolloutsAll(final String rsqlParam) {
+        return rolloutRepository.count(RSQLUtility.parse(rsqlParam, RolloutFields.class, virtualPropertyReplacer));
+    }
+
     @Override
     public Long countRolloutsAllByFilters(final String searchText) {
         return rolloutRepository.count(likeNameOrDescription(searchText));
@@ -873,8 +970,8 @@ public class JpaRolloutManagement implements RolloutManagement {
     @Override
     public Rollout findRolloutWithDetailedStatus(final Long rolloutId) {
         final Rollout rollout = findRolloutById(rolloutId);
-        final List<TotalTargetCountActionStatus> rolloutStatusCountItems = actionRepository
-                .getStatusCountByRolloutId(rolloutId);
+        final List<TotalTargetCountActionStatus> rolloutStatusCountItems = getStatusCountItemForRollout(
+                Collections.singletonList(rolloutId)).get(rolloutId);
         final TotalTargetCountStatus totalTargetCountStatus = new TotalTargetCountStatus(rolloutStatusCountItems,
                 rollout.getTotalTargets());
         ((JpaRollout) rollout).setTotalTargetCountStatus(totalTargetCountStatus);
@@ -882,8 +979,18 @@ public class JpaRolloutManagement implements RolloutManagement {
     }
 
     private Map<Long, List<TotalTargetCountActionStatus>> getStatusCountItemForRollout(final List<Long> rolloutIds) {
-        final List<TotalTargetCountActionStatus> resultList = actionRepository.getStatusCountByRolloutId(rolloutIds);
-        return resultList.stream().collect(Collectors.groupingBy(TotalTargetCountActionStatus::getId));
+        final Map<Long, List<TotalTargetCountActionStatus>> result = new HashMap<>(
+                rolloutGroupStatusCounters.getRolloutCounts(rolloutIds));
+
+        // rollouts with groups that are not materialized yet are counted on
+        // the actions
+        final List<Long> notCounted = rolloutIds.stream().filter(id -> !result.containsKey(id))
+                .collect(Collectors.toList());
+        if (!notCounted.isEmpty()) {
+            result.putAll(actionRepository.getStatusCountByRolloutId(notCounted).stream()
+                    .collect(Collectors.groupingBy(TotalTargetCountActionStatus::getId)));
+        }
+        return result;
     }
 
     private void setRolloutStatusDetails(final Slice<JpaRollout> rollouts) {
@@ -909,8 +1016,10 @@ public class JpaRolloutManagement implements RolloutManagement {
     @Override
     public float getFinishedPercentForRunningGroup(final Long rolloutId, final RolloutGroup rolloutGroup) {
         final long totalGroup = rolloutGroup.getTotalTargets();
-        final Long finished = actionRepository.countByRolloutIdAndRolloutGroupIdAndStatus(rolloutId,
-                rolloutGroup.getId(), Action.Status.FINISHED);
+        final Map<Action.Status, Long> statusCounts = rolloutGroupStatusCounters.getGroupCounts(rolloutGroup.getId());
+        final Long finished = statusCounts != null ? statusCounts.getOrDefault(Action.Status.FINISHED, 0L)
+                : actionRepository.countByRolloutIdAndRolloutGroupIdAndStatus(rolloutId, rolloutGroup.getId(),
+                        Action.Status.FINISHED);
         if (totalGroup == 0) {
             // in case e.g. targets has been deleted we don't have any actions
             // left for this group, so the group is finished
@@ -65,9 +65,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -280,6 +283,30 @@ public class JpaSoftwareManagement implements SoftwareManagement {
         return convertSmPage(findSwModuleByCriteriaAPI(pageable, specList), pageable);
     }
 
+    @Override
+    public Slice<SoftwareModule> findSoftwareModulesAllAfter(final Long afterId, final String rsqlParam,
+            final int limit) {
+        final List<Specification<JpaSoftwareModule>> specList = new ArrayList<>(4);
+        specList.add(SoftwareModuleSpecification.isDeletedFalse());
+        specList.add((root, query, cb) -> {
+            if (!query.getResultType().isAssignableFrom(Long.class)) {
+                root.fetch(JpaSoftwareModule_.type);
+            }
+            return cb.conjunction();
+        });
+        if (afterId != null) {
+            specList.add((root, query, cb) -> cb.greaterThan(root.get(JpaSoftwareModule_.id), afterId));
+        }
+        if (rsqlParam != null) {
+            specList.add(RSQLUtility.parse(rsqlParam, SoftwareModuleFields.class, virtualPropertyReplacer));
+        }
+
+        final Pageable pageable = new PageRequest(0, limit,
+                new Sort(Direction.ASC, JpaSoftwareModule_.id.getName()));
+        final Slice<JpaSoftwareModule> findAll = findSwModuleByCriteriaAPI(pageable, specList);
+        return new SliceImpl<>(Collections.unmodifiableList(findAll.getContent()), pageable, findAll.hasNext());
+    }
+
     @Override
     public Long countSoftwareModulesAll() {
         final Specification<JpaSoftwareModule> spec = SoftwareModuleSpecification.isDeletedFalse();
@@ -287,6 +314,15 @@ public class JpaSoftwareManagement implements SoftwareManagement {
         return countSwModuleByCriteriaAPI(Lists.newArrayList(spec));
     }
 
+    @Override
+    public Long countSoftwareModulesAll(final String rsqlParam) {
+        final List<Specification<JpaSoftwareModule>> specList = Lists.newArrayList(
+                SoftwareModuleSpecification.isDeletedFalse(),
+                RSQLUtility.parse(rsqlParam, SoftwareModuleFields.class, virtualPropertyReplacer));
+
+        return countSwModuleByCriteriaAPI(specList);
+    }
+
     @Override
     public Page<SoftwareModule> findSoftwareModulesByPredicate(final String rsqlParam, final Pageable pageable) {
         final Specification<JpaSoftwareModule> spec = RSQLUtility.parse(rsqlParam, SoftwareModuleFields.class,
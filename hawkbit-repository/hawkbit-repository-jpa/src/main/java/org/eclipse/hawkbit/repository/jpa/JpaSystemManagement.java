@@ -8,27 +8,30 @@
  */
 package org.eclipse.hawkbit.repository.jpa;
 
-import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
 
-import org.eclipse.hawkbit.cache.TenancyCacheManager;
 import org.eclipse.hawkbit.repository.Constants;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
 import org.eclipse.hawkbit.repository.SystemManagement;
-import org.eclipse.hawkbit.repository.TenantStatsManagement;
 import org.eclipse.hawkbit.repository.jpa.configuration.MultiTenantJpaTransactionManager;
 import org.eclipse.hawkbit.repository.jpa.model.JpaDistributionSetType;
 import org.eclipse.hawkbit.repository.jpa.model.JpaSoftwareModuleType;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTenantMetaData;
+import org.eclipse.hawkbit.repository.jpa.usage.TenantUsageCollector;
+import org.eclipse.hawkbit.repository.jpa.usage.TenantUsageSnapshot;
 import org.eclipse.hawkbit.repository.model.DistributionSetType;
 import org.eclipse.hawkbit.repository.model.SoftwareModuleType;
+import org.eclipse.hawkbit.repository.model.TenantDeletionStatus;
 import org.eclipse.hawkbit.repository.model.TenantMetaData;
 import org.eclipse.hawkbit.repository.report.model.SystemUsageReport;
+import org.eclipse.hawkbit.repository.report.model.TenantUsage;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
 import org.eclipse.hawkbit.tenancy.TenantAware;
-import org.eclipse.persistence.config.PersistenceUnitProperties;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.interceptor.KeyGenerator;
@@ -52,21 +55,6 @@ public class JpaSystemManagement implements CurrentTenantCacheKeyGenerator, Syst
     @Autowired
     private EntityManager entityManager;
 
-    @Autowired
-    private TargetRepository targetRepository;
-
-    @Autowired
-    private TargetFilterQueryRepository targetFilterQueryRepository;
-
-    @Autowired
-    private ActionRepository actionRepository;
-
-    @Autowired
-    private DistributionSetRepository distributionSetRepository;
-
-    @Autowired
-    private SoftwareModuleRepository softwareModuleRepository;
-
     @Autowired
     private TenantMetaDataRepository tenantMetaDataRepository;
 
@@ -77,31 +65,16 @@ public class JpaSystemManagement implements CurrentTenantCacheKeyGenerator, Syst
     private SoftwareModuleTypeRepository softwareModuleTypeRepository;
 
     @Autowired
-    private TargetTagRepository targetTagRepository;
-
-    @Autowired
-    private DistributionSetTagRepository distributionSetTagRepository;
-
-    @Autowired
-    private LocalArtifactRepository artifactRepository;
-
-    @Autowired
-    private TenantConfigurationRepository tenantConfigurationRepository;
-
-    @Autowired
-    private RolloutRepository rolloutRepository;
+    private TenantAware tenantAware;
 
     @Autowired
-    private RolloutGroupRepository rolloutGroupRepository;
+    private TenantUsageCollector tenantUsageCollector;
 
     @Autowired
-    private TenantAware tenantAware;
+    private TenantUsageSnapshot tenantUsageSnapshot;
 
     @Autowired
-    private TenantStatsManagement systemStatsManagement;
-
-    @Autowired
-    private TenancyCacheManager cacheManager;
+    private RepositoryProperties repositoryProperties;
 
     @Autowired
     private SystemManagementCacheKeyGenerator currentTenantCacheKeyGenerator;
@@ -112,46 +85,18 @@ public class JpaSystemManagement implements CurrentTenantCacheKeyGenerator, Syst
     @Autowired
     private PlatformTransactionManager txManager;
 
+    @Autowired
+    private TenantDeleter tenantDeleter;
+
     @Override
     public SystemUsageReport getSystemUsageStatistics() {
+        // the snapshot and the grouped queries punch through the tenant
+        // boundaries, i.e. all tenants are collected within one pass
+        final Optional<Collection<TenantUsage>> snapshot = repositoryProperties.getUsageSnapshot().isEnabled()
+                ? tenantUsageSnapshot.read() : Optional.empty();
+        final Collection<TenantUsage> usages = snapshot.orElseGet(tenantUsageCollector::collect);
 
-        BigDecimal sumOfArtifacts = (BigDecimal) entityManager
-                .createNativeQuery(
-                        "select SUM(file_size) from sp_artifact a INNER JOIN sp_base_software_module sm ON a.software_module = sm.id WHERE sm.deleted = 0")
-                .getSingleResult();
-
-        if (sumOfArtifacts == null) {
-            sumOfArtifacts = new BigDecimal(0);
-        }
-
-        // we use native queries to punch through the tenant boundaries. This
-        // has to be used with care!
-        final Long targets = (Long) entityManager.createNativeQuery("SELECT COUNT(id) FROM sp_target")
-                .getSingleResult();
-
-        final Long artifacts = (Long) entityManager
-                .createNativeQuery(
-                        "SELECT COUNT(a.id) FROM sp_artifact a INNER JOIN sp_base_software_module sm ON a.software_module = sm.id WHERE sm.deleted = 0")
-                .getSingleResult();
-
-        final Long actions = (Long) entityManager.createNativeQuery("SELECT COUNT(id) FROM sp_action")
-                .getSingleResult();
-
-        final SystemUsageReport result = new SystemUsageReport(targets, artifacts, actions,
-                sumOfArtifacts.setScale(0, BigDecimal.ROUND_HALF_UP).longValue());
-
-        usageStatsPerTenant(result);
-
-        return result;
-    }
-
-    private void usageStatsPerTenant(final SystemUsageReport report) {
-        final List<String> tenants = findTenants();
-
-        tenants.forEach(tenant -> tenantAware.runAsTenant(tenant, () -> {
-            report.addTenantData(systemStatsManagement.getStatsOfTenant());
-            return null;
-        }));
+        return TenantUsageCollector.toReport(usages, findTenants());
     }
 
     @Override
@@ -208,28 +153,23 @@ public class JpaSystemManagement implements CurrentTenantCacheKeyGenerator, Syst
     }
 
     @Override
-    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
-    @Modifying
+    // the tenant is deleted in chunks which are committed in their own
+    // transactions
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deleteTenant(final String tenant) {
-        cacheManager.evictCaches(tenant);
-        tenantAware.runAsTenant(tenant, () -> {
-            entityManager.setProperty(PersistenceUnitProperties.MULTITENANT_PROPERTY_DEFAULT, tenant.toUpperCase());
-            tenantMetaDataRepository.deleteByTenantIgnoreCase(tenant);
-            tenantConfigurationRepository.deleteByTenantIgnoreCase(tenant);
-            targetRepository.deleteByTenantIgnoreCase(tenant);
-            targetFilterQueryRepository.deleteByTenantIgnoreCase(tenant);
-            actionRepository.deleteByTenantIgnoreCase(tenant);
-            rolloutGroupRepository.deleteByTenantIgnoreCase(tenant);
-            rolloutRepository.deleteByTenantIgnoreCase(tenant);
-            artifactRepository.deleteByTenantIgnoreCase(tenant);
-            targetTagRepository.deleteByTenantIgnoreCase(tenant);
-            distributionSetTagRepository.deleteByTenantIgnoreCase(tenant);
-            distributionSetRepository.deleteByTenantIgnoreCase(tenant);
-            distributionSetTypeRepository.deleteByTenantIgnoreCase(tenant);
-            softwareModuleRepository.deleteByTenantIgnoreCase(tenant);
-            softwareModuleTypeRepository.deleteByTenantIgnoreCase(tenant);
-            return null;
-        });
+        tenantDeleter.delete(tenant);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TenantDeletionStatus startTenantDeletion(final String tenant) {
+        return tenantDeleter.start(tenant);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public TenantDeletionStatus getTenantDeletionStatus(final String tenant) {
+        return tenantDeleter.getStatus(tenant);
     }
 
     @Override
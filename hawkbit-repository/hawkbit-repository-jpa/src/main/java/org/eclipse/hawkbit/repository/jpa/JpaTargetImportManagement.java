@@ -0,0 +1,443 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+
+import org.eclipse.hawkbit.im.authentication.SpPermission;
+import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
+import org.eclipse.hawkbit.repository.DeploymentManagement;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.TargetImportManagement;
+import org.eclipse.hawkbit.repository.event.remote.TargetBulkCreatedEvent;
+import org.eclipse.hawkbit.repository.exception.ConstraintViolationException;
+import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
+import org.eclipse.hawkbit.repository.exception.InsufficientPermissionException;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTargetTag;
+import org.eclipse.hawkbit.repository.jpa.model.helper.SecurityChecker;
+import org.eclipse.hawkbit.repository.model.Action.ActionType;
+import org.eclipse.hawkbit.repository.model.TargetImportStatus;
+import org.eclipse.hawkbit.repository.model.TargetImportStatus.State;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.annotation.Validated;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.CountingInputStream;
+
+/**
+ * JPA implementation of {@link TargetImportManagement}. The CSV file is
+ * streamed once and collected into chunks of unique controller IDs. Per chunk
+ * the controller IDs that exist already are looked up with one query and the
+ * remaining targets are written by the {@link TargetBulkWriter} in a
+ * transaction of their own. A chunk that collides with targets which have been
+ * created concurrently, e.g. by the registration of their controllers, is
+ * retried with the remaining targets. The distribution set is assigned
+ * through the {@link DeploymentManagement} after the chunk has been committed,
+ * i.e. the devices are notified about the assignment as usual.
+ *
+ * The background imports run on the {@code targetImportExecutor}. The
+ * progress of the imports is kept in memory of the node that runs them.
+ */
+@Validated
+public class JpaTargetImportManagement implements TargetImportManagement {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JpaTargetImportManagement.class);
+
+    private static final String CSV_DELIMITER = ",";
+
+    private static final int MAX_ID_LENGTH = 64;
+
+    private static final int MAX_NAME_LENGTH = 64;
+
+    private static final int MAX_DESCRIPTION_LENGTH = 512;
+
+    private static final Pattern NO_WHITESPACE = Pattern.compile("\\S+");
+
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
+    @Autowired
+    private TargetBulkWriter targetBulkWriter;
+
+    @Autowired
+    private TargetTagRepository targetTagRepository;
+
+    @Autowired
+    private DistributionSetRepository distributionSetRepository;
+
+    @Autowired
+    private DeploymentManagement deploymentManagement;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    @Qualifier("targetImportExecutor")
+    private Executor jobExecutor;
+
+    private Cache<String, Job> jobs;
+
+    private TransactionTemplate chunkTransaction;
+
+    @PostConstruct
+    void init() {
+        jobs = CacheBuilder.newBuilder()
+                .expireAfterAccess(repositoryProperties.getTargetImport().getStatusTtl(), TimeUnit.MILLISECONDS)
+                .build();
+        chunkTransaction = new TransactionTemplate(txManager);
+        chunkTransaction.setName("target-import");
+        chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    // the targets are imported in chunks which are committed in their own
+    // transactions
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TargetImportStatus importTargets(final InputStream csv, final long size, final String description,
+            final Collection<Long> targetTagIds, final Long distributionSetId,
+            final Consumer<TargetImportStatus> progressListener) {
+        validate(description, targetTagIds, distributionSetId);
+        final Job job = register(description, targetTagIds, distributionSetId, size, progressListener);
+        try {
+            run(job, csv);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return job.snapshot();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TargetImportStatus startImport(final InputStream csv, final String description,
+            final Collection<Long> targetTagIds, final Long distributionSetId) {
+        validate(description, targetTagIds, distributionSetId);
+
+        final Path file;
+        try {
+            file = Files.createTempFile("target-import-", ".csv");
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        final long size;
+        try {
+            size = Files.copy(csv, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (final IOException e) {
+            deleteFile(file);
+            throw new UncheckedIOException(e);
+        }
+
+        final Job job = register(description, targetTagIds, distributionSetId, size, null);
+        try {
+            jobExecutor.execute(new DelegatingSecurityContextRunnable(() -> {
+                try (InputStream in = Files.newInputStream(file)) {
+                    run(job, in);
+                } catch (final IOException | RuntimeException e) {
+                    LOG.error("Import {} of tenant {} failed", job.id, job.tenant, e);
+                } finally {
+                    deleteFile(file);
+                }
+            }));
+        } catch (final RejectedExecutionException e) {
+            LOG.warn("Import {} of tenant {} rejected", job.id, job.tenant, e);
+            deleteFile(file);
+            job.failed(e);
+        }
+        return job.snapshot();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public TargetImportStatus getImportStatus(final String importId) {
+        final Job job = jobs.getIfPresent(importId);
+        if (job == null || !job.tenant.equalsIgnoreCase(tenantAware.getCurrentTenant())) {
+            return null;
+        }
+        return job.snapshot();
+    }
+
+    private Job register(final String description, final Collection<Long> targetTagIds, final Long distributionSetId,
+            final long size, final Consumer<TargetImportStatus> progressListener) {
+        final Job job = new Job(UUID.randomUUID().toString(), tenantAware.getCurrentTenant(), description,
+                targetTagIds, distributionSetId, size, progressListener);
+        jobs.put(job.id, job);
+        return job;
+    }
+
+    private void validate(final String description, final Collection<Long> targetTagIds,
+            final Long distributionSetId) {
+        checkAssignmentPermissions(targetTagIds, distributionSetId);
+        if (description != null && description.length() > MAX_DESCRIPTION_LENGTH) {
+            throw new ConstraintViolationException(
+                    "description size must be between 0 and " + MAX_DESCRIPTION_LENGTH + ".");
+        }
+        if (distributionSetId != null && !distributionSetRepository.exists(distributionSetId)) {
+            throw new EntityNotFoundException("Distribution set: " + distributionSetId);
+        }
+        if (targetTagIds != null && !targetTagIds.isEmpty()) {
+            final Set<Long> tagIds = new HashSet<>(targetTagIds);
+            if (targetTagRepository.findAll(tagIds).size() != tagIds.size()) {
+                throw new EntityNotFoundException("Target tags: " + tagIds);
+            }
+        }
+    }
+
+    /**
+     * The tags and the distribution set are assigned to the created targets
+     * without the checks of the management methods, i.e. the permissions of
+     * the assignments are checked before the first target is created.
+     */
+    private static void checkAssignmentPermissions(final Collection<Long> targetTagIds,
+            final Long distributionSetId) {
+        final boolean assigned = targetTagIds != null && !targetTagIds.isEmpty() || distributionSetId != null;
+        if (assigned && !hasPermission(SpPermission.UPDATE_TARGET)
+                || distributionSetId != null && !hasPermission(SpPermission.READ_REPOSITORY)) {
+            throw new InsufficientPermissionException();
+        }
+    }
+
+    private static boolean hasPermission(final String permission) {
+        return SecurityChecker.hasPermission(permission)
+                || SecurityChecker.hasPermission(SpringEvalExpressions.SYSTEM_ROLE);
+    }
+
+    private void run(final Job job, final InputStream csv) throws IOException {
+        LOG.info("Importing targets into tenant {} as import {}", job.tenant, job.id);
+        final CountingInputStream counting = new CountingInputStream(csv);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(counting, StandardCharsets.UTF_8))) {
+            Chunk chunk = new Chunk();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                chunk.add(line);
+                if (chunk.targets.size() >= chunkSize()) {
+                    importChunk(job, chunk, counting.getCount());
+                    chunk = new Chunk();
+                }
+            }
+            importChunk(job, chunk, counting.getCount());
+            job.finished();
+            notifyListener(job);
+            LOG.info("Import {} of tenant {} finished", job.id, job.tenant);
+        } catch (final IOException | RuntimeException e) {
+            job.failed(e);
+            notifyListener(job);
+            throw e;
+        }
+    }
+
+    private void importChunk(final Job job, final Chunk chunk, final long readBytes) {
+        final Map<String, Long> created = chunk.targets.isEmpty() ? Collections.emptyMap()
+                : createTargets(job, chunk);
+
+        if (!created.isEmpty()) {
+            evictTagsFromSharedCache(job.targetTagIds);
+            eventPublisher.publishEvent(new TargetBulkCreatedEvent(job.tenant, new ArrayList<>(created.values()),
+                    applicationContext.getId()));
+            if (job.distributionSetId != null) {
+                deploymentManagement.assignDistributionSet(job.distributionSetId, ActionType.FORCED,
+                        System.currentTimeMillis(), created.keySet());
+            }
+        }
+
+        job.chunkImported(readBytes, chunk.lines, created.size(), chunk.lines - chunk.invalid - created.size(),
+                chunk.invalid);
+        notifyListener(job);
+    }
+
+    private Map<String, Long> createTargets(final Job job, final Chunk chunk) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return chunkTransaction.execute(status -> {
+                    chunk.targets.keySet()
+                            .removeAll(targetBulkWriter.findExistingControllerIds(chunk.targets.keySet()));
+                    return targetBulkWriter.createTargets(chunk.targets, job.description, job.targetTagIds);
+                });
+            } catch (final DuplicateKeyException e) {
+                if (attempt >= MAX_CHUNK_ATTEMPTS) {
+                    throw e;
+                }
+                LOG.debug("Chunk of import {} collided with concurrently created targets, retrying", job.id, e);
+            }
+        }
+    }
+
+    /**
+     * The tags of the shared cache might hold their assigned targets.
+     */
+    private void evictTagsFromSharedCache(final Collection<Long> targetTagIds) {
+        if (targetTagIds == null) {
+            return;
+        }
+        targetTagIds.forEach(
+                tagId -> entityManager.getEntityManagerFactory().getCache().evict(JpaTargetTag.class, tagId));
+    }
+
+    private static void notifyListener(final Job job) {
+        if (job.progressListener != null) {
+            job.progressListener.accept(job.snapshot());
+        }
+    }
+
+    private static void deleteFile(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (final IOException e) {
+            LOG.warn("Failed to delete the temporary import file {}", file, e);
+        }
+    }
+
+    private int chunkSize() {
+        return repositoryProperties.getTargetImport().getChunkSize();
+    }
+
+    /**
+     * Unique targets of the lines read since the last chunk.
+     */
+    private static final class Chunk {
+
+        private final Map<String, String> targets = new LinkedHashMap<>();
+        private long lines;
+        private long invalid;
+
+        private void add(final String line) {
+            if (line.trim().isEmpty()) {
+                return;
+            }
+            lines++;
+
+            final String[] fields = line.split(CSV_DELIMITER);
+            if (fields.length != 2) {
+                invalid++;
+                return;
+            }
+            final String controllerId = fields[0].trim();
+            final String name = fields[1].trim().isEmpty() ? controllerId : fields[1].trim();
+            if (controllerId.length() > MAX_ID_LENGTH || !NO_WHITESPACE.matcher(controllerId).matches()
+                    || name.length() > MAX_NAME_LENGTH) {
+                invalid++;
+                return;
+            }
+            // duplicates within the chunk are counted as existing targets
+            targets.putIfAbsent(controllerId, name);
+        }
+    }
+
+    /**
+     * Progress of an import, guarded by itself.
+     */
+    private static final class Job {
+
+        private final String id;
+        private final String tenant;
+        private final String description;
+        private final List<Long> targetTagIds;
+        private final Long distributionSetId;
+        private final long totalBytes;
+        private final Consumer<TargetImportStatus> progressListener;
+        private final long startedAt = System.currentTimeMillis();
+        private State state = State.RUNNING;
+        private long readBytes;
+        private long lines;
+        private long createdTargets;
+        private long existingTargets;
+        private long invalidLines;
+        private Long finishedAt;
+        private String error;
+
+        private Job(final String id, final String tenant, final String description,
+                final Collection<Long> targetTagIds, final Long distributionSetId, final long totalBytes,
+                final Consumer<TargetImportStatus> progressListener) {
+            this.id = id;
+            this.tenant = tenant;
+            this.description = description;
+            this.targetTagIds = targetTagIds != null ? new ArrayList<>(new HashSet<>(targetTagIds))
+                    : Collections.emptyList();
+            this.distributionSetId = distributionSetId;
+            this.totalBytes = totalBytes;
+            this.progressListener = progressListener;
+        }
+
+        private synchronized void chunkImported(final long readBytes, final long lines, final long created,
+                final long existing, final long invalid) {
+            this.readBytes = readBytes;
+            this.lines += lines;
+            this.createdTargets += created;
+            this.existingTargets += existing;
+            this.invalidLines += invalid;
+        }
+
+        private synchronized void finished() {
+            state = State.FINISHED;
+            finishedAt = System.currentTimeMillis();
+        }
+
+        private synchronized void failed(final Throwable cause) {
+            state = State.FAILED;
+            finishedAt = System.currentTimeMillis();
+            error = cause.getMessage();
+        }
+
+        private synchronized TargetImportStatus snapshot() {
+            return new TargetImportStatus(id, tenant, state, readBytes, totalBytes, lines, createdTargets,
+                    existingTargets, invalidLines, startedAt, finishedAt, error);
+        }
+    }
+}
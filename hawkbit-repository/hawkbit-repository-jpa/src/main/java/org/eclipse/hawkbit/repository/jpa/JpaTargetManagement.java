@@ -12,10 +12,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import javax.persistence.Cache;
 import javax.persistence.EntityManager;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
@@ -35,11 +41,13 @@ import org.eclipse.hawkbit.repository.TimestampCalculator;
 import org.eclipse.hawkbit.repository.builder.TargetCreate;
 import org.eclipse.hawkbit.repository.builder.TargetUpdate;
 import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetTagAssignmentEvent;
 import org.eclipse.hawkbit.repository.exception.EntityAlreadyExistsException;
 import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
 import org.eclipse.hawkbit.repository.jpa.builder.JpaTargetCreate;
 import org.eclipse.hawkbit.repository.jpa.builder.JpaTargetUpdate;
 import org.eclipse.hawkbit.repository.jpa.configuration.Constants;
+import org.eclipse.hawkbit.repository.jpa.executor.AfterTransactionCommitExecutor;
 import org.eclipse.hawkbit.repository.jpa.model.JpaDistributionSet_;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTargetInfo;
@@ -61,8 +69,10 @@ import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.SliceImpl;
@@ -111,6 +121,18 @@ public class JpaTargetManagement implements TargetManagement {
     @Autowired
     private VirtualPropertyReplacer virtualPropertyReplacer;
 
+    @Autowired
+    private TargetFilterCountCache targetFilterCountCache;
+
+    @Autowired
+    private TargetBulkWriter targetBulkWriter;
+
+    @Autowired
+    private AuditorAware<String> auditorProvider;
+
+    @Autowired
+    private AfterTransactionCommitExecutor afterCommit;
+
     @Override
     public Target findTargetByControllerID(final String controllerId) {
         return targetRepository.findByControllerId(controllerId);
@@ -136,8 +158,11 @@ public class JpaTargetManagement implements TargetManagement {
 
     @Override
     public List<Target> findTargetByControllerID(final Collection<String> controllerIDs) {
-        return Collections.unmodifiableList(targetRepository
-                .findAll(TargetSpecifications.byControllerIdWithStatusAndAssignedInJoin(controllerIDs)));
+        return Collections.unmodifiableList(Lists
+                .partition(new ArrayList<>(controllerIDs), Constants.MAX_ENTRIES_IN_STATEMENT).stream()
+                .map(ids -> targetRepository
+                        .findAll(TargetSpecifications.byControllerIdWithStatusAndAssignedInJoin(ids)))
+                .flatMap(List::stream).collect(Collectors.toList()));
     }
 
     @Override
@@ -175,6 +200,35 @@ public class JpaTargetManagement implements TargetManagement {
         return convertPage(targetRepository.findAll(spec, pageable), pageable);
     }
 
+    @Override
+    public Slice<Target> findTargetsAllAfter(final Long afterId, final String targetFilterQuery, final int limit) {
+        final Specification<JpaTarget> filter = targetFilterQuery == null ? null
+                : RSQLUtility.parse(targetFilterQuery, TargetFields.class, virtualPropertyReplacer);
+        final Specification<JpaTarget> spec = (root, query, cb) -> {
+            if (!query.getResultType().isAssignableFrom(Long.class)) {
+                root.fetch(JpaTarget_.targetInfo);
+            }
+            final List<Predicate> predicates = new ArrayList<>(2);
+            if (afterId != null) {
+                predicates.add(cb.greaterThan(root.get(JpaTarget_.id), afterId));
+            }
+            if (filter != null) {
+                predicates.add(filter.toPredicate(root, query, cb));
+            }
+            return cb.and(predicates.toArray(new Predicate[predicates.size()]));
+        };
+
+        final Pageable pageable = new PageRequest(0, limit, new Sort(Direction.ASC, JpaTarget_.id.getName()));
+        return convertPage(criteriaNoCountDao.findAll(spec, pageable, JpaTarget.class), pageable);
+    }
+
+    @Override
+    public Slice<Target> findTargetsAllWithoutCount(final String targetFilterQuery, final Pageable pageable) {
+        return convertPage(criteriaNoCountDao.findAll(
+                RSQLUtility.parse(targetFilterQuery, TargetFields.class, virtualPropertyReplacer), pageable,
+                JpaTarget.class), pageable);
+    }
+
     @Override
     public List<Target> findTargetsByControllerIDsWithTags(final List<String> controllerIDs) {
         final List<List<String>> partition = Lists.partition(controllerIDs, Constants.MAX_ENTRIES_IN_STATEMENT);
@@ -295,6 +349,30 @@ public class JpaTargetManagement implements TargetManagement {
         return countByCriteriaAPI(specList);
     }
 
+    @Override
+    public long countTargetByFiltersCached(final FilterParams filterParams) {
+        return targetFilterCountCache.get(tenantAware.getCurrentTenant(), filterParams,
+                () -> countByCriteriaAPI(buildSpecificationList(filterParams, false)));
+    }
+
+    @Override
+    public Slice<Target> findTargetByFiltersAfter(final Long afterId, final FilterParams filterParams,
+            final int limit) {
+        final List<Specification<JpaTarget>> specList = buildSpecificationList(filterParams, true);
+        if (filterParams.getFilterByStatus() == null || filterParams.getFilterByStatus().isEmpty()) {
+            // the status filter fetches the target info otherwise
+            specList.add((root, query, cb) -> {
+                root.fetch(JpaTarget_.targetInfo);
+                return cb.conjunction();
+            });
+        }
+        if (afterId != null) {
+            specList.add((root, query, cb) -> cb.greaterThan(root.get(JpaTarget_.id), afterId));
+        }
+        final Pageable pageable = new PageRequest(0, limit, new Sort(Direction.ASC, JpaTarget_.id.getName()));
+        return findByCriteriaAPI(pageable, specList);
+    }
+
     private static List<Specification<JpaTarget>> buildSpecificationList(final FilterParams filterParams,
             final boolean fetch) {
         final List<Specification<JpaTarget>> specList = new ArrayList<>();
@@ -352,33 +430,63 @@ public class JpaTargetManagement implements TargetManagement {
     @Modifying
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
     public TargetTagAssignmentResult toggleTagAssignment(final Collection<String> targetIds, final String tagName) {
-        final TargetTag tag = targetTagRepository.findByNameEquals(tagName);
-        final List<JpaTarget> alreadyAssignedTargets = targetRepository.findByTagNameAndControllerIdIn(tagName,
-                targetIds);
-        final List<JpaTarget> allTargets = targetRepository
-                .findAll(TargetSpecifications.byControllerIdWithStatusAndTagsInJoin(targetIds));
+        final JpaTargetTag tag = targetTagRepository.findByNameEquals(tagName);
+        if (tag == null) {
+            throw new EntityNotFoundException("Target tag with name " + tagName + " not found");
+        }
+
+        // only the IDs are loaded, the assignments are changed on the join
+        // table without loading the targets and their tags
+        final Map<Long, String> allTargets = new LinkedHashMap<>();
+        final Set<Long> alreadyAssignedTargets = new HashSet<>();
+        Lists.partition(new ArrayList<>(new LinkedHashSet<>(targetIds)), Constants.MAX_ENTRIES_IN_STATEMENT)
+                .forEach(ids -> {
+                    targetRepository.findIdAndControllerIdByControllerIdIn(ids)
+                            .forEach(target -> allTargets.put((Long) target[0], (String) target[1]));
+                    alreadyAssignedTargets.addAll(targetRepository.findIdByTagAndControllerIdIn(tag, ids));
+                });
 
         // all are already assigned -> unassign
         if (alreadyAssignedTargets.size() == allTargets.size()) {
-            alreadyAssignedTargets.forEach(target -> target.removeTag(tag));
-            final TargetTagAssignmentResult result = new TargetTagAssignmentResult(0, 0, alreadyAssignedTargets.size(),
-                    Collections.emptyList(), Collections.unmodifiableList(alreadyAssignedTargets), tag);
-
-            return result;
+            targetBulkWriter.unassignTag(alreadyAssignedTargets, tag.getId());
+            touchTagged(tag, alreadyAssignedTargets, false);
+            return new TargetTagAssignmentResult(0, Collections.emptyList(),
+                    alreadyAssignedTargets.stream().map(allTargets::get).collect(Collectors.toList()), tag, this);
         }
 
-        allTargets.removeAll(alreadyAssignedTargets);
         // some or none are assigned -> assign
-        allTargets.forEach(target -> target.addTag(tag));
-        final TargetTagAssignmentResult result = new TargetTagAssignmentResult(alreadyAssignedTargets.size(),
-                allTargets.size(), 0,
-                Collections
-                        .unmodifiableList(allTargets.stream().map(targetRepository::save).collect(Collectors.toList())),
-                Collections.emptyList(), tag);
-
-        // no reason to persist the tag
-        entityManager.detach(tag);
-        return result;
+        allTargets.keySet().removeAll(alreadyAssignedTargets);
+        targetBulkWriter.assignTag(allTargets.keySet(), tag.getId());
+        touchTagged(tag, allTargets.keySet(), true);
+        return new TargetTagAssignmentResult(alreadyAssignedTargets.size(), new ArrayList<>(allTargets.values()),
+                Collections.emptyList(), tag, this);
+    }
+
+    /**
+     * Updates the last modification of the targets whose tag assignments have
+     * been changed on the join table, evicts them and the tag from the shared
+     * cache and publishes one event per chunk of
+     * {@link Constants#MAX_ENTRIES_IN_STATEMENT} targets.
+     */
+    private void touchTagged(final JpaTargetTag tag, final Collection<Long> targetIds, final boolean assigned) {
+        if (targetIds.isEmpty()) {
+            return;
+        }
+
+        final String currentUser = auditorProvider != null ? auditorProvider.getCurrentAuditor() : null;
+        final long now = System.currentTimeMillis();
+        final Cache sharedCache = entityManager.getEntityManagerFactory().getCache();
+        sharedCache.evict(JpaTargetTag.class, tag.getId());
+
+        Lists.partition(new ArrayList<>(targetIds), Constants.MAX_ENTRIES_IN_STATEMENT).forEach(ids -> {
+            targetRepository.setLastModified(now, currentUser, ids);
+            ids.forEach(targetId -> sharedCache.evict(JpaTarget.class, targetId));
+
+            final TargetTagAssignmentEvent event = new TargetTagAssignmentEvent(tenantAware.getCurrentTenant(),
+                    tag.getId(), assigned ? ids : Collections.emptyList(), assigned ? Collections.emptyList() : ids,
+                    applicationContext.getId());
+            afterCommit.afterCommit(() -> eventPublisher.publishEvent(event));
+        });
     }
 
     @Override
@@ -578,6 +686,20 @@ public class JpaTargetManagement implements TargetManagement {
 
     }
 
+    @Override
+    public List<Target> findTargetsByIdInAndTargetFilterQueryAndNonDS(@NotNull final Collection<Long> targetIds,
+            final Long distributionSetId, @NotNull final TargetFilterQuery targetFilterQuery) {
+        final Specification<JpaTarget> spec = RSQLUtility.parse(targetFilterQuery.getQuery(), TargetFields.class,
+                virtualPropertyReplacer);
+
+        return Collections.unmodifiableList(Lists
+                .partition(new ArrayList<>(targetIds), Constants.MAX_ENTRIES_IN_STATEMENT).stream()
+                .flatMap(ids -> targetRepository.findAll(SpecificationsBuilder.combineWithAnd(Arrays.asList(
+                        TargetSpecifications.hasIdIn(ids), spec,
+                        TargetSpecifications.hasNotDistributionSetInActions(distributionSetId)))).stream())
+                .collect(Collectors.toList()));
+    }
+
     @Override
     public Page<Target> findAllTargetsByTargetFilterQueryAndNotInRolloutGroups(@NotNull final Pageable pageRequest,
             final List<RolloutGroup> groups, @NotNull final String targetFilterQuery) {
@@ -664,6 +786,12 @@ public class JpaTargetManagement implements TargetManagement {
         return targetRepository.count(specs);
     }
 
+    @Override
+    public long countTargetByTargetFilterQueryCached(final TargetFilterQuery targetFilterQuery) {
+        return targetFilterCountCache.get(tenantAware.getCurrentTenant(), targetFilterQuery.getQuery(),
+                () -> countTargetByTargetFilterQuery(targetFilterQuery));
+    }
+
     @Override
     public Long countTargetByTargetFilterQuery(final String targetFilterQuery) {
         final Specification<JpaTarget> specs = RSQLUtility.parse(targetFilterQuery, TargetFields.class,
@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.eclipse.hawkbit.cache.CacheEntryVersions;
+import org.eclipse.hawkbit.repository.ReportManagement;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.RepositoryProperties.ReportCache;
+import org.eclipse.hawkbit.repository.event.remote.DistributionSetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.RemoteTenantAwareEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetBulkCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TenantDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.DistributionSetCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.DistributionSetUpdateEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Per tenant snapshot cache of the dashboard reports of
+ * {@link ReportManagement}. A report is generated synchronously on its first
+ * request only. Afterwards the cached snapshot is returned and regenerated in
+ * the background if it is older than {@link ReportCache#getRefreshInterval()}
+ * or if the targets or distribution sets of the tenant have been changed and
+ * it is older than {@link ReportCache#getMinRefreshInterval()}. At most one
+ * regeneration per report runs at a time, so a dashboard view never causes an
+ * aggregation over the tables by itself.
+ *
+ * The events only invalidate the version of the tenant which is compared with
+ * the version of the snapshot on its next request, see
+ * {@link CacheEntryVersions}.
+ */
+public class ReportSnapshotCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReportSnapshotCache.class);
+
+    private static final String TENANT_DELIMITER = "|";
+
+    private final ReportCache properties;
+
+    private final TenantAware tenantAware;
+
+    private final TransactionTemplate transaction;
+
+    private final Cache<String, Snapshot> snapshots;
+
+    private final CacheEntryVersions versions = new CacheEntryVersions();
+
+    private final Executor refreshExecutor;
+
+    /**
+     * Constructor.
+     *
+     * @param repositoryProperties
+     *            for the cache configuration
+     * @param tenantAware
+     *            to regenerate the reports as their tenant
+     * @param txManager
+     *            to regenerate the reports in a read only transaction
+     * @param refreshExecutor
+     *            to regenerate the reports in the background
+     */
+    public ReportSnapshotCache(final RepositoryProperties repositoryProperties, final TenantAware tenantAware,
+            final PlatformTransactionManager txManager, final Executor refreshExecutor) {
+        this.properties = repositoryProperties.getReportCache();
+        this.tenantAware = tenantAware;
+        this.transaction = new TransactionTemplate(txManager);
+        transaction.setName("report-refresh");
+        transaction.setReadOnly(true);
+        this.snapshots = CacheBuilder.newBuilder().maximumSize(properties.getMaxSize())
+                .expireAfterAccess(properties.getIdleTtl(), TimeUnit.MILLISECONDS).build();
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * @param tenant
+     *            of the report
+     * @param report
+     *            the name and the parameters of the report
+     * @param generator
+     *            to generate the report as the given tenant
+     * @return the cached or generated report
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(final String tenant, final String report, final Supplier<T> generator) {
+        if (!properties.isEnabled()) {
+            return generator.get();
+        }
+
+        final String key = tenant.toUpperCase() + TENANT_DELIMITER + report;
+        final Snapshot cached = snapshots.getIfPresent(key);
+        if (cached == null) {
+            final long version = versions.current();
+            final T value = generator.get();
+            snapshots.put(key, new Snapshot(value, version));
+            return value;
+        }
+
+        if (isOutdated(cached, tenant) && cached.refreshing.compareAndSet(false, true)) {
+            try {
+                refreshExecutor.execute(() -> refresh(key, tenant, cached, generator));
+            } catch (final RejectedExecutionException e) {
+                LOG.debug("Refresh of report {} rejected, retrying with next request", key, e);
+                cached.refreshing.set(false);
+            }
+        }
+        return (T) cached.value;
+    }
+
+    /**
+     * Marks the reports of the tenant of the event as outdated.
+     *
+     * @param event
+     *            the change of a target or distribution set
+     */
+    @EventListener(classes = { TargetCreatedEvent.class, TargetUpdatedEvent.class, TargetDeletedEvent.class,
+            TargetBulkCreatedEvent.class, TargetAssignDistributionSetEvent.class, DistributionSetCreatedEvent.class,
+            DistributionSetUpdateEvent.class, DistributionSetDeletedEvent.class })
+    public void onChange(final RemoteTenantAwareEvent event) {
+        versions.invalidateTenant(event.getTenant());
+    }
+
+    /**
+     * Drops the snapshots and the invalidation records of the deleted tenant.
+     *
+     * @param event
+     *            the tenant deletion event
+     */
+    @EventListener(classes = TenantDeletedEvent.class)
+    public void onTenantDelete(final TenantDeletedEvent event) {
+        versions.removeTenant(event.getTenant());
+        final String prefix = event.getTenant().toUpperCase() + TENANT_DELIMITER;
+        snapshots.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private boolean isOutdated(final Snapshot snapshot, final String tenant) {
+        final long age = System.currentTimeMillis() - snapshot.createdAt;
+        return age >= properties.getRefreshInterval()
+                || (age >= properties.getMinRefreshInterval() && !versions.isCurrent(tenant, snapshot.version));
+    }
+
+    private void refresh(final String key, final String tenant, final Snapshot outdated,
+            final Supplier<?> generator) {
+        try {
+            final long version = versions.current();
+            final Object value = tenantAware.runAsTenant(tenant,
+                    () -> transaction.execute(status -> generator.get()));
+            snapshots.put(key, new Snapshot(value, version));
+        } catch (final RuntimeException e) {
+            LOG.error("Refresh of report {} failed", key, e);
+            outdated.refreshing.set(false);
+        }
+    }
+
+    private static final class Snapshot {
+        private final Object value;
+        private final long version;
+        private final long createdAt = System.currentTimeMillis();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Snapshot(final Object value, final long version) {
+            this.value = value;
+            this.version = version;
+        }
+    }
+}
@@ -124,4 +124,17 @@ public interface RolloutGroupRepository
      */
     Page<JpaRolloutGroup> findByRolloutId(final Long rolloutId, Pageable page);
 
+    /**
+     * Retrieves the IDs of all {@link RolloutGroup}s in one of the two given
+     * status.
+     * 
+     * @param status1
+     *            the status of the rollout groups
+     * @param status2
+     *            the status of the rollout groups
+     * @return IDs of the rollout groups in one of the given status
+     */
+    @Query("SELECT r.id FROM JpaRolloutGroup r WHERE r.status = :status1 or r.status = :status2")
+    List<Long> findIdsByStatusOrStatus(@Param("status1") RolloutGroupStatus status1,
+            @Param("status2") RolloutGroupStatus status2);
 }
@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.eclipse.hawkbit.repository.jpa.configuration.Constants;
+import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
+import org.eclipse.hawkbit.security.SecurityTokenGenerator;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Writes imported targets together with their target info and tag
+ * assignments by means of JDBC batch inserts, see
+ * {@link JpaTargetImportManagement}, and toggles tag assignments of target
+ * selections with set based statements on the join table.
+ *
+ * The writer has to be called within a transaction of the repository. As the
+ * rows are not written through the entity manager no entity events are
+ * published for them.
+ */
+public class TargetBulkWriter {
+
+    private static final String SELECT_TARGETS = "SELECT id, controller_id FROM sp_target "
+            + "WHERE tenant = :tenant AND controller_id IN (:controllerIds)";
+
+    private static final String INSERT_TARGET = "INSERT INTO sp_target (tenant, controller_id, name, description, sec_token, "
+            + "created_at, created_by, last_modified_at, last_modified_by, optlock_revision) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_TARGET_INFO = "INSERT INTO sp_target_info (target_id, request_controller_attributes, update_status) VALUES (?, ?, ?)";
+
+    private static final String INSERT_TARGET_TAG = "INSERT INTO sp_target_target_tag (target, tag) VALUES (?, ?)";
+
+    private static final String ASSIGN_TARGET_TAG = "INSERT INTO sp_target_target_tag (target, tag) "
+            + "SELECT id, :tag FROM sp_target WHERE tenant = :tenant AND id IN (:targetIds)";
+
+    private static final String UNASSIGN_TARGET_TAG = "DELETE FROM sp_target_target_tag "
+            + "WHERE tag = :tag AND target IN (:targetIds)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    private final SecurityTokenGenerator securityTokenGenerator;
+
+    private final TenantAware tenantAware;
+
+    private final AuditorAware<String> auditorAware;
+
+    /**
+     * Constructor.
+     *
+     * @param jdbcTemplate
+     *            to execute the batch inserts
+     * @param securityTokenGenerator
+     *            to generate the security tokens of the targets
+     * @param tenantAware
+     *            to get the tenant of the inserted targets
+     * @param auditorAware
+     *            to get the creator of the inserted targets
+     */
+    public TargetBulkWriter(final JdbcTemplate jdbcTemplate, final SecurityTokenGenerator securityTokenGenerator,
+            final TenantAware tenantAware, final AuditorAware<String> auditorAware) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.securityTokenGenerator = securityTokenGenerator;
+        this.tenantAware = tenantAware;
+        this.auditorAware = auditorAware;
+    }
+
+    /**
+     * @param controllerIds
+     *            to look up
+     * @return the given controller IDs of the current tenant which are
+     *         assigned to a target already
+     */
+    public Set<String> findExistingControllerIds(final Collection<String> controllerIds) {
+        return findTargetIds(controllerIds).keySet();
+    }
+
+    /**
+     * Creates a target with an {@link TargetUpdateStatus#UNKNOWN} target info
+     * for each of the given controller IDs and assigns the given tags to them.
+     *
+     * @param namesByControllerId
+     *            names of the targets by their controller IDs which are not
+     *            assigned to a target yet
+     * @param description
+     *            of the targets, might be <code>null</code>
+     * @param targetTagIds
+     *            of the tags to assign
+     * @return the IDs of the created targets by their controller IDs
+     */
+    public Map<String, Long> createTargets(final Map<String, String> namesByControllerId, final String description,
+            final Collection<Long> targetTagIds) {
+        if (namesByControllerId.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+
+        final String tenant = tenantAware.getCurrentTenant().toUpperCase();
+        final String auditor = auditorAware.getCurrentAuditor();
+        final long now = System.currentTimeMillis();
+        final List<Entry<String, String>> targets = new ArrayList<>(namesByControllerId.entrySet());
+
+        jdbcTemplate.batchUpdate(INSERT_TARGET, targets, targets.size(), (ps, target) -> {
+            ps.setString(1, tenant);
+            ps.setString(2, target.getKey());
+            ps.setString(3, target.getValue());
+            ps.setString(4, description);
+            ps.setString(5, securityTokenGenerator.generateToken());
+            ps.setLong(6, now);
+            ps.setString(7, auditor);
+            ps.setLong(8, now);
+            ps.setString(9, auditor);
+            ps.setLong(10, 1L);
+        });
+
+        final Map<String, Long> targetIds = findTargetIds(namesByControllerId.keySet());
+        final List<Long> ids = new ArrayList<>(targetIds.values());
+
+        jdbcTemplate.batchUpdate(INSERT_TARGET_INFO, ids, ids.size(), (ps, targetId) -> {
+            ps.setLong(1, targetId);
+            ps.setBoolean(2, true);
+            ps.setString(3, TargetUpdateStatus.UNKNOWN.name());
+        });
+
+        if (targetTagIds != null) {
+            for (final Long tagId : new HashSet<>(targetTagIds)) {
+                jdbcTemplate.batchUpdate(INSERT_TARGET_TAG, ids, ids.size(), (ps, targetId) -> {
+                    ps.setLong(1, targetId);
+                    ps.setLong(2, tagId);
+                });
+            }
+        }
+
+        return targetIds;
+    }
+
+    /**
+     * Assigns the given tag to the given targets which must not have it
+     * assigned yet, in chunks of {@link Constants#MAX_ENTRIES_IN_STATEMENT}
+     * IDs.
+     *
+     * @param targetIds
+     *            of the targets of the current tenant
+     * @param targetTagId
+     *            of the tag to assign
+     */
+    public void assignTag(final Collection<Long> targetIds, final Long targetTagId) {
+        final String tenant = tenantAware.getCurrentTenant().toUpperCase();
+        Lists.partition(new ArrayList<>(targetIds), Constants.MAX_ENTRIES_IN_STATEMENT)
+                .forEach(ids -> namedJdbcTemplate.update(ASSIGN_TARGET_TAG, new MapSqlParameterSource()
+                        .addValue("tag", targetTagId).addValue("tenant", tenant).addValue("targetIds", ids)));
+    }
+
+    /**
+     * Unassigns the given tag from the given targets, in chunks of
+     * {@link Constants#MAX_ENTRIES_IN_STATEMENT} IDs.
+     *
+     * @param targetIds
+     *            of the targets of the current tenant
+     * @param targetTagId
+     *            of the tag to unassign
+     */
+    public void unassignTag(final Collection<Long> targetIds, final Long targetTagId) {
+        Lists.partition(new ArrayList<>(targetIds), Constants.MAX_ENTRIES_IN_STATEMENT)
+                .forEach(ids -> namedJdbcTemplate.update(UNASSIGN_TARGET_TAG,
+                        new MapSqlParameterSource().addValue("tag", targetTagId).addValue("targetIds", ids)));
+    }
+
+    private Map<String, Long> findTargetIds(final Collection<String> controllerIds) {
+        final Map<String, Long> targetIds = new LinkedHashMap<>();
+        if (controllerIds.isEmpty()) {
+            return targetIds;
+        }
+
+        final MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("tenant", tenantAware.getCurrentTenant().toUpperCase())
+                .addValue("controllerIds", controllerIds);
+        namedJdbcTemplate.query(SELECT_TARGETS, params, rs -> {
+            targetIds.put(rs.getString("controller_id"), rs.getLong("id"));
+        });
+        return targetIds;
+    }
+}
@@ -0,0 +1,378 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+import org.eclipse.hawkbit.cache.CacheEntryVersions;
+import org.eclipse.hawkbit.repository.FilterParams;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.RepositoryProperties.TargetCountCache;
+import org.eclipse.hawkbit.repository.event.remote.TargetBulkCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetTagAssignmentEvent;
+import org.eclipse.hawkbit.repository.event.remote.TenantDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
+import org.springframework.context.event.EventListener;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Per tenant cache of the number of targets per filter combination. A target
+ * that has been created after a count was loaded is matched against the
+ * filter of the count in memory and increments it if it matches, i.e.
+ * registering targets does not cause a recount. As the events are delivered
+ * asynchronously, counts loaded after the creation of the target might
+ * already contain it and are dropped instead. Counts that cannot be
+ * maintained that way are dropped by the target events: an update or a tag
+ * assignment drops the filtered counts of the tenant, a deletion or a bulk
+ * import all counts of the tenant.
+ *
+ * A count that was loaded concurrently to an event that affects its filter is
+ * not cached, see {@link CacheEntryVersions}. A created target only affects
+ * the loads of the filters it might match.
+ */
+public class TargetFilterCountCache {
+
+    private static final String TENANT_DELIMITER = "|";
+
+    private static final String FILTER_PREFIX = "F:";
+
+    private static final String QUERY_PREFIX = "Q:";
+
+    private static final String FIELD_DELIMITER = ";";
+
+    /**
+     * Version key of all filtered counts of a tenant.
+     */
+    private static final String FILTERED = "FILTERED";
+
+    private static final String ALL_TARGETS = FILTER_PREFIX
+            + filterKey(new FilterParams(null, null, null, null, null));
+
+    private final TargetCountCache properties;
+
+    private final Cache<String, CachedCount> counts;
+
+    private final CacheEntryVersions versions = new CacheEntryVersions();
+
+    private final Set<PendingCount> pendingCounts = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor.
+     *
+     * @param repositoryProperties
+     *            for the cache configuration
+     */
+    public TargetFilterCountCache(final RepositoryProperties repositoryProperties) {
+        this.properties = repositoryProperties.getTargetCountCache();
+        this.counts = CacheBuilder.newBuilder().maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl(), TimeUnit.MILLISECONDS).build();
+    }
+
+    /**
+     * @return <code>true</code> if the cache is enabled
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * @param tenant
+     *            of the targets
+     * @param filterParams
+     *            the filters of the count
+     * @param loader
+     *            to count the targets if the count is not cached
+     * @return the cached or loaded count
+     */
+    public long get(final String tenant, final FilterParams filterParams, final LongSupplier loader) {
+        return get(tenant, FILTER_PREFIX + filterKey(filterParams), filterParams, loader);
+    }
+
+    /**
+     * @param tenant
+     *            of the targets
+     * @param targetFilterQuery
+     *            the RSQL query of the count
+     * @param loader
+     *            to count the targets if the count is not cached
+     * @return the cached or loaded count
+     */
+    public long get(final String tenant, final String targetFilterQuery, final LongSupplier loader) {
+        return get(tenant, QUERY_PREFIX + targetFilterQuery, null, loader);
+    }
+
+    private long get(final String tenant, final String countKey, final FilterParams filterParams,
+            final LongSupplier loader) {
+        if (!isEnabled()) {
+            return loader.getAsLong();
+        }
+
+        final String key = buildKey(tenant, countKey);
+        final CachedCount cached = counts.getIfPresent(key);
+        if (cached != null) {
+            return cached.count.get();
+        }
+
+        // registered before the version is taken so that a concurrent target
+        // creation finds the load
+        final PendingCount pending = new PendingCount(tenant, countKey, filterParams);
+        pendingCounts.add(pending);
+        try {
+            final long version = versions.current();
+            final long count = loader.getAsLong();
+            final CachedCount loaded = new CachedCount(filterParams, count, System.currentTimeMillis());
+            if (ALL_TARGETS.equals(countKey)) {
+                versions.putIfCurrent(counts, key, loaded, tenant, version, countKey);
+            } else {
+                versions.putIfCurrent(counts, key, loaded, tenant, version, countKey, FILTERED);
+            }
+            return count;
+        } finally {
+            pendingCounts.remove(pending);
+        }
+    }
+
+    /**
+     * @return number of cached counts over all tenants
+     */
+    public long size() {
+        return counts.size();
+    }
+
+    /**
+     * Increments the counts of the filters matched by the created target and
+     * drops the ones that cannot be decided in memory.
+     *
+     * @param event
+     *            the target creation event
+     */
+    @EventListener(classes = TargetCreatedEvent.class)
+    public void onTargetCreate(final TargetCreatedEvent event) {
+        final Target target = event.getEntity();
+        // the running loads might or might not contain the target
+        pendingCounts.forEach(pending -> {
+            if (pending.tenant.equalsIgnoreCase(event.getTenant())
+                    && matchPending(pending.filterParams, target) != Match.NO) {
+                versions.invalidate(pending.tenant, pending.countKey);
+            }
+        });
+        final String prefix = buildKey(event.getTenant(), "");
+        counts.asMap().forEach((key, cached) -> {
+            if (!key.startsWith(prefix)) {
+                return;
+            }
+            final Match match = matchCreated(cached, target);
+            if (match == Match.YES) {
+                cached.count.incrementAndGet();
+            } else if (match == Match.UNKNOWN) {
+                counts.invalidate(key);
+            }
+        });
+    }
+
+    /**
+     * Drops the filtered counts of the tenant as the target might have left or
+     * entered a filter. The number of all targets stays valid.
+     *
+     * @param event
+     *            the target update event
+     */
+    @EventListener(classes = TargetUpdatedEvent.class)
+    public void onTargetUpdate(final TargetUpdatedEvent event) {
+        dropFilteredCounts(event.getTenant());
+    }
+
+    /**
+     * Drops the filtered counts of the tenant as the targets might have left
+     * or entered a tag filter.
+     *
+     * @param event
+     *            the tag assignment event
+     */
+    @EventListener(classes = TargetTagAssignmentEvent.class)
+    public void onTargetTagAssignment(final TargetTagAssignmentEvent event) {
+        dropFilteredCounts(event.getTenant());
+    }
+
+    /**
+     * Drops all counts of the tenant.
+     *
+     * @param event
+     *            the target deletion event
+     */
+    @EventListener(classes = TargetDeletedEvent.class)
+    public void onTargetDelete(final TargetDeletedEvent event) {
+        versions.invalidateTenant(event.getTenant());
+        dropCounts(event.getTenant());
+    }
+
+    /**
+     * Drops all counts of the tenant as the imported targets are not matched
+     * in memory, e.g. they might have tags assigned.
+     *
+     * @param event
+     *            the bulk creation event
+     */
+    @EventListener(classes = TargetBulkCreatedEvent.class)
+    public void onTargetBulkCreate(final TargetBulkCreatedEvent event) {
+        versions.invalidateTenant(event.getTenant());
+        dropCounts(event.getTenant());
+    }
+
+    /**
+     * Drops the counts and the invalidation records of the deleted tenant.
+     *
+     * @param event
+     *            the tenant deletion event
+     */
+    @EventListener(classes = TenantDeletedEvent.class)
+    public void onTenantDelete(final TenantDeletedEvent event) {
+        versions.removeTenant(event.getTenant());
+        dropCounts(event.getTenant());
+    }
+
+    private void dropCounts(final String tenant) {
+        final String prefix = buildKey(tenant, "");
+        counts.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private void dropFilteredCounts(final String tenant) {
+        versions.invalidate(tenant, FILTERED);
+        final String prefix = buildKey(tenant, "");
+        final String allKey = buildKey(tenant, ALL_TARGETS);
+        counts.asMap().keySet().removeIf(key -> key.startsWith(prefix) && !key.equals(allKey));
+    }
+
+    private static Match matchCreated(final CachedCount cached, final Target target) {
+        // the count might already contain targets created before it has been
+        // loaded and cannot be decided for RSQL queries
+        if (target == null || cached.filterParams == null || target.getCreatedAt() == null
+                || target.getCreatedAt() <= cached.loadedAt) {
+            return Match.UNKNOWN;
+        }
+        return match(cached.filterParams, target);
+    }
+
+    private static Match matchPending(final FilterParams filterParams, final Target target) {
+        if (target == null || filterParams == null) {
+            return Match.UNKNOWN;
+        }
+        return match(filterParams, target);
+    }
+
+    /**
+     * Matches a newly created target, i.e. a target without tags and
+     * distribution sets, against the given filters in the same way as the
+     * specifications of {@link JpaTargetManagement} do.
+     */
+    private static Match match(final FilterParams filterParams, final Target target) {
+        if (filterParams.getOverdueState() != null) {
+            return Match.UNKNOWN;
+        }
+        if (filterParams.getFilterByDistributionId() != null) {
+            return Match.NO;
+        }
+        final Collection<TargetUpdateStatus> status = filterParams.getFilterByStatus();
+        if (status != null && !status.isEmpty() && !status.contains(target.getTargetInfo().getUpdateStatus())) {
+            return Match.NO;
+        }
+        if (isHasTagsFilterActive(filterParams) && !filterParams.getSelectTargetWithNoTag()) {
+            return Match.NO;
+        }
+        final String searchText = filterParams.getFilterBySearchText();
+        if (searchText != null && !searchText.isEmpty()) {
+            final Pattern pattern = likeToPattern(searchText.toLowerCase());
+            if (!(matches(pattern, target.getControllerId()) || matches(pattern, target.getName())
+                    || matches(pattern, target.getDescription()))) {
+                return Match.NO;
+            }
+        }
+        return Match.YES;
+    }
+
+    private static boolean isHasTagsFilterActive(final FilterParams filterParams) {
+        return filterParams.getSelectTargetWithNoTag() != null && (filterParams.getSelectTargetWithNoTag()
+                || (filterParams.getFilterByTagNames() != null && filterParams.getFilterByTagNames().length > 0));
+    }
+
+    private static boolean matches(final Pattern pattern, final String value) {
+        return value != null && pattern.matcher(value.toLowerCase()).matches();
+    }
+
+    private static Pattern likeToPattern(final String like) {
+        final StringBuilder regex = new StringBuilder(like.length() + 8);
+        for (final char c : like.toCharArray()) {
+            if (c == '%') {
+                regex.append(".*");
+            } else if (c == '_') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    private static String filterKey(final FilterParams filterParams) {
+        final Collection<TargetUpdateStatus> status = filterParams.getFilterByStatus();
+        final String[] tagNames = filterParams.getFilterByTagNames();
+        return new StringBuilder().append(status == null || status.isEmpty() ? "" : new TreeSet<>(status))
+                .append(FIELD_DELIMITER).append(filterParams.getOverdueState()).append(FIELD_DELIMITER)
+                .append(filterParams.getFilterByDistributionId()).append(FIELD_DELIMITER)
+                .append(filterParams.getSelectTargetWithNoTag()).append(FIELD_DELIMITER)
+                .append(tagNames == null || tagNames.length == 0 ? "" : new TreeSet<>(Arrays.asList(tagNames)))
+                .append(FIELD_DELIMITER).append(filterParams.getFilterBySearchText()).toString();
+    }
+
+    private static String buildKey(final String tenant, final String filterKey) {
+        return tenant.toUpperCase() + TENANT_DELIMITER + filterKey;
+    }
+
+    private enum Match {
+        YES, NO, UNKNOWN;
+    }
+
+    private static final class PendingCount {
+        private final String tenant;
+        private final String countKey;
+        private final FilterParams filterParams;
+
+        private PendingCount(final String tenant, final String countKey, final FilterParams filterParams) {
+            this.tenant = tenant;
+            this.countKey = countKey;
+            this.filterParams = filterParams;
+        }
+    }
+
+    private static final class CachedCount {
+        private final FilterParams filterParams;
+        private final AtomicLong count;
+        private final long loadedAt;
+
+        private CachedCount(final FilterParams filterParams, final long count, final long loadedAt) {
+            this.filterParams = filterParams;
+            this.count = new AtomicLong(count);
+            this.loadedAt = loadedAt;
+        }
+    }
+}
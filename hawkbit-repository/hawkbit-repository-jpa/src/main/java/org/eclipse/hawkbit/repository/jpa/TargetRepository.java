@@ -84,6 +84,32 @@ public interface TargetRepository extends BaseEntityRepository<JpaTarget, Long>,
     List<JpaTarget> findByTagNameAndControllerIdIn(@Param("tagname") final String tag,
             @Param("targets") final Collection<String> controllerIds);
 
+    /**
+     * Finds the IDs of all {@link Target}s based on given
+     * {@link Target#getControllerId()} list.
+     *
+     * @param controllerIds
+     *            to search for
+     * @return {@link List} of found {@link Target#getId()} and
+     *         {@link Target#getControllerId()} pairs.
+     */
+    @Query(value = "SELECT t.id, t.controllerId FROM JpaTarget t WHERE t.controllerId IN :targets")
+    List<Object[]> findIdAndControllerIdByControllerIdIn(@Param("targets") final Collection<String> controllerIds);
+
+    /**
+     * Finds the IDs of all {@link Target}s based on given
+     * {@link Target#getControllerId()} list and assigned {@link Tag}.
+     *
+     * @param tag
+     *            to search for
+     * @param controllerIds
+     *            to search for
+     * @return {@link List} of found {@link Target#getId()}s.
+     */
+    @Query(value = "SELECT t.id FROM JpaTarget t JOIN t.tags tt WHERE tt = :tag AND t.controllerId IN :targets")
+    List<Long> findIdByTagAndControllerIdIn(@Param("tag") final JpaTargetTag tag,
+            @Param("targets") final Collection<String> controllerIds);
+
     /**
      * Used by UI to filter based on selected status.
      * 
@@ -174,6 +200,24 @@ public interface TargetRepository extends BaseEntityRepository<JpaTarget, Long>,
     void setAssignedDistributionSet(@Param("set") JpaDistributionSet set, @Param("lastModifiedAt") Long modifiedAt,
             @Param("lastModifiedBy") String modifiedBy, @Param("targets") Collection<Long> targets);
 
+    /**
+     * Sets {@link Target#getLastModifiedAt()} and
+     * {@link Target#getLastModifiedBy()}, e.g. after the tag assignments of
+     * the targets have been changed by set based statements.
+     *
+     * @param modifiedAt
+     *            current time
+     * @param modifiedBy
+     *            current auditor
+     * @param targets
+     *            to update
+     */
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    @Query("UPDATE JpaTarget t SET t.lastModifiedAt = :lastModifiedAt, t.lastModifiedBy = :lastModifiedBy WHERE t.id IN :targets")
+    void setLastModified(@Param("lastModifiedAt") Long modifiedAt, @Param("lastModifiedBy") String modifiedBy,
+            @Param("targets") Collection<Long> targets);
+
     /**
      * 
      * Finds all targets of a rollout group.
@@ -0,0 +1,411 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+
+import org.eclipse.hawkbit.artifact.repository.ArtifactRepository;
+import org.eclipse.hawkbit.cache.TenancyCacheManager;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.event.remote.TenantDeletedEvent;
+import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
+import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus;
+import org.eclipse.hawkbit.repository.jpa.model.JpaDistributionSet;
+import org.eclipse.hawkbit.repository.jpa.model.JpaRollout;
+import org.eclipse.hawkbit.repository.jpa.model.JpaSoftwareModule;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTargetFilterQuery;
+import org.eclipse.hawkbit.repository.model.TenantDeletionStatus;
+import org.eclipse.hawkbit.repository.model.TenantDeletionStatus.State;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Deletes all data of a tenant in phases in the order of the entity
+ * dependencies. Every phase deletes its entities in chunks of
+ * {@link RepositoryProperties.TenantDeletion#getChunkSize()} which are
+ * committed in their own transactions, i.e. the deletion of a large tenant
+ * does not hold locks on the shared tables for the whole deletion and an
+ * aborted deletion continues with the remaining entities if it is started
+ * again. The dependent rows, e.g. the action status messages or the target
+ * attributes, are removed by the cascades of the database schema.
+ *
+ * The background deletions run on the {@code tenantDeletionExecutor}. The
+ * artifact binaries which are not referenced by another artifact anymore are
+ * deleted by the {@code tenantBinaryCleanupExecutor} within the transaction of the artifact chunk
+ * that removed their last reference. If the deletion of a binary fails the
+ * chunk is rolled back, i.e. the binaries are never orphaned in the store and
+ * are deleted again when the deletion is resumed.
+ *
+ * The progress of the deletions is kept in memory of the node that runs them.
+ * A {@link TenantDeletedEvent} is published once a deletion has finished.
+ */
+public class TenantDeleter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TenantDeleter.class);
+
+    private static final String PHASE_ARTIFACTS = "artifacts";
+
+    private static final String PHASE_METADATA = "metadata";
+
+    private static final String COUNT_BINARY_REFERENCES = "SELECT COUNT(id) FROM sp_artifact "
+            + "WHERE gridfs_file_name = ?1";
+
+    /**
+     * Chunked phases before the artifacts in the order they are deleted.
+     */
+    private static final Map<String, Class<?>> PHASES_BEFORE_ARTIFACTS = new LinkedHashMap<>();
+
+    /**
+     * Chunked phases after the artifacts in the order they are deleted.
+     */
+    private static final Map<String, Class<?>> PHASES_AFTER_ARTIFACTS = new LinkedHashMap<>();
+
+    static {
+        PHASES_BEFORE_ARTIFACTS.put("actionStatus", JpaActionStatus.class);
+        PHASES_BEFORE_ARTIFACTS.put("actions", JpaAction.class);
+        PHASES_BEFORE_ARTIFACTS.put("targets", JpaTarget.class);
+        PHASES_BEFORE_ARTIFACTS.put("rollouts", JpaRollout.class);
+        PHASES_BEFORE_ARTIFACTS.put("targetFilterQueries", JpaTargetFilterQuery.class);
+        PHASES_AFTER_ARTIFACTS.put("distributionSets", JpaDistributionSet.class);
+        PHASES_AFTER_ARTIFACTS.put("softwareModules", JpaSoftwareModule.class);
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    private SystemSecurityContext systemSecurityContext;
+
+    @Autowired
+    private TenancyCacheManager cacheManager;
+
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
+    @Autowired
+    private ArtifactRepository artifactRepository;
+
+    @Autowired
+    private TenantMetaDataRepository tenantMetaDataRepository;
+
+    @Autowired
+    private TenantConfigurationRepository tenantConfigurationRepository;
+
+    @Autowired
+    private TargetTagRepository targetTagRepository;
+
+    @Autowired
+    private DistributionSetTagRepository distributionSetTagRepository;
+
+    @Autowired
+    private DistributionSetTypeRepository distributionSetTypeRepository;
+
+    @Autowired
+    private SoftwareModuleTypeRepository softwareModuleTypeRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    @Qualifier("tenantDeletionExecutor")
+    private Executor jobExecutor;
+
+    @Autowired
+    @Qualifier("tenantBinaryCleanupExecutor")
+    private Executor binaryCleanupExecutor;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Deletes the data of the given tenant in the calling thread. If the
+     * deletion of the tenant is already running in the background it waits
+     * for it instead.
+     *
+     * @param tenant
+     *            to delete
+     * @return the status of the deletion
+     */
+    public TenantDeletionStatus delete(final String tenant) {
+        final Job job = new Job(tenant);
+        final Job running = register(job);
+        if (running != job) {
+            await(running);
+            return running.snapshot();
+        }
+        run(job);
+        await(job);
+        return job.snapshot();
+    }
+
+    /**
+     * Starts the deletion of the given tenant in the background unless it is
+     * already running.
+     *
+     * @param tenant
+     *            to delete
+     * @return the status of the started or running deletion
+     */
+    public TenantDeletionStatus start(final String tenant) {
+        final Job job = new Job(tenant);
+        final Job running = register(job);
+        if (running == job) {
+            try {
+                jobExecutor.execute(() -> run(job));
+            } catch (final RejectedExecutionException e) {
+                LOG.warn("Deletion of tenant {} rejected", tenant, e);
+                job.failed(e);
+            }
+        }
+        return running.snapshot();
+    }
+
+    /**
+     * @param tenant
+     *            that is deleted
+     * @return the status of the last deletion of the tenant on this node or
+     *         <code>null</code> if the tenant has not been deleted
+     */
+    public TenantDeletionStatus getStatus(final String tenant) {
+        final Job job = jobs.get(tenant.toUpperCase());
+        return job != null ? job.snapshot() : null;
+    }
+
+    private Job register(final Job job) {
+        return jobs.compute(job.tenant.toUpperCase(),
+                (key, previous) -> previous != null && previous.isRunning() ? previous : job);
+    }
+
+    private static void await(final Job job) {
+        try {
+            job.done.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void run(final Job job) {
+        LOG.info("Deleting tenant {}", job.tenant);
+        cacheManager.evictCaches(job.tenant);
+        try {
+            PHASES_BEFORE_ARTIFACTS.forEach((phase, entity) -> deleteInChunks(job, phase, entity));
+            deleteArtifacts(job);
+            PHASES_AFTER_ARTIFACTS.forEach((phase, entity) -> deleteInChunks(job, phase, entity));
+            deleteMetadata(job);
+            cacheManager.evictCaches(job.tenant);
+            eventPublisher.publishEvent(new TenantDeletedEvent(job.tenant, applicationContext.getId()));
+            job.finished();
+        } catch (final RuntimeException e) {
+            LOG.error("Deletion of tenant {} failed in phase {}", job.tenant, job.phase, e);
+            job.failed(e);
+        }
+    }
+
+    private void deleteInChunks(final Job job, final String phase, final Class<?> entity) {
+        job.phase(phase);
+        final String entityName = entity.getSimpleName();
+        int deleted;
+        do {
+            deleted = inTenantTransaction(job.tenant, () -> {
+                final List<Long> ids = entityManager
+                        .createQuery("SELECT e.id FROM " + entityName + " e ORDER BY e.id", Long.class)
+                        .setMaxResults(chunkSize()).getResultList();
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                return entityManager.createQuery("DELETE FROM " + entityName + " e WHERE e.id IN :ids")
+                        .setParameter("ids", ids).executeUpdate();
+            });
+            job.deleted(phase, deleted);
+        } while (deleted > 0);
+    }
+
+    private void deleteArtifacts(final Job job) {
+        job.phase(PHASE_ARTIFACTS);
+        int deleted;
+        do {
+            deleted = inTenantTransaction(job.tenant, () -> {
+                final List<Object[]> artifacts = entityManager
+                        .createQuery("SELECT a.id, a.gridFsFileName FROM JpaArtifact a ORDER BY a.id", Object[].class)
+                        .setMaxResults(chunkSize()).getResultList();
+                if (artifacts.isEmpty()) {
+                    return 0;
+                }
+                final List<Long> ids = artifacts.stream().map(artifact -> (Long) artifact[0])
+                        .collect(Collectors.toList());
+                final int count = entityManager.createQuery("DELETE FROM JpaArtifact a WHERE a.id IN :ids")
+                        .setParameter("ids", ids).executeUpdate();
+                deleteBinaries(job, artifacts.stream().map(artifact -> (String) artifact[1]).distinct()
+                        .filter(this::isUnreferenced).collect(Collectors.toList()));
+                return count;
+            });
+            job.deleted(PHASE_ARTIFACTS, deleted);
+        } while (deleted > 0);
+    }
+
+    /**
+     * Deletes the remaining entities of the tenant which are small in number
+     * but referenced by each other, e.g. the tenant meta data references the
+     * default distribution set type.
+     */
+    private void deleteMetadata(final Job job) {
+        job.phase(PHASE_METADATA);
+        inTenantTransaction(job.tenant, () -> {
+            tenantMetaDataRepository.deleteByTenantIgnoreCase(job.tenant);
+            tenantConfigurationRepository.deleteByTenantIgnoreCase(job.tenant);
+            targetTagRepository.deleteByTenantIgnoreCase(job.tenant);
+            distributionSetTagRepository.deleteByTenantIgnoreCase(job.tenant);
+            distributionSetTypeRepository.deleteByTenantIgnoreCase(job.tenant);
+            softwareModuleTypeRepository.deleteByTenantIgnoreCase(job.tenant);
+            return 0;
+        });
+    }
+
+    /**
+     * Deletes the given binaries in parallel and waits for them, i.e. a failed
+     * deletion rolls back the calling chunk.
+     */
+    private void deleteBinaries(final Job job, final List<String> binaries) {
+        job.binariesPending(binaries.size());
+        final CompletableFuture<?>[] deletions = binaries.stream()
+                .map(sha1 -> CompletableFuture.runAsync(() -> {
+                    artifactRepository.deleteBySha1(sha1);
+                    job.binaryDeleted();
+                }, binaryCleanupExecutor)).toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(deletions).join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        } finally {
+            job.binariesPending(0);
+        }
+    }
+
+    /**
+     * Checks over all tenants if a binary is still referenced, i.e. the
+     * native query punches through the tenant boundaries on purpose. It runs
+     * in the transaction of the chunk and sees the artifacts of the chunk as
+     * deleted.
+     */
+    private boolean isUnreferenced(final String sha1) {
+        return ((Number) entityManager.createNativeQuery(COUNT_BINARY_REFERENCES).setParameter(1, sha1)
+                .getSingleResult()).longValue() == 0;
+    }
+
+    private int chunkSize() {
+        return repositoryProperties.getTenantDeletion().getChunkSize();
+    }
+
+    private int inTenantTransaction(final String tenant, final TenantWork work) {
+        final TransactionTemplate template = new TransactionTemplate(txManager);
+        template.setName("tenant-deletion");
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return systemSecurityContext.runAsSystemAsTenant(() -> template.execute(status -> {
+            entityManager.setProperty(PersistenceUnitProperties.MULTITENANT_PROPERTY_DEFAULT, tenant.toUpperCase());
+            return work.run();
+        }), tenant);
+    }
+
+    @FunctionalInterface
+    private interface TenantWork {
+        int run();
+    }
+
+    /**
+     * Progress of the deletion of a tenant, guarded by itself.
+     */
+    private static final class Job {
+
+        private final String tenant;
+        private final long startedAt = System.currentTimeMillis();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private final Map<String, Long> deletedEntities = new LinkedHashMap<>();
+        private State state = State.RUNNING;
+        private String phase;
+        private long pendingBinaries;
+        private long deletedBinaries;
+        private Long finishedAt;
+        private String error;
+
+        private Job(final String tenant) {
+            this.tenant = tenant;
+        }
+
+        private synchronized boolean isRunning() {
+            return state == State.RUNNING;
+        }
+
+        private synchronized void phase(final String phase) {
+            this.phase = phase;
+        }
+
+        private synchronized void deleted(final String phase, final long count) {
+            deletedEntities.merge(phase, count, Long::sum);
+        }
+
+        private synchronized void binariesPending(final long count) {
+            pendingBinaries = count;
+        }
+
+        private synchronized void binaryDeleted() {
+            pendingBinaries--;
+            deletedBinaries++;
+        }
+
+        private synchronized void finished() {
+            phase = null;
+            state = State.FINISHED;
+            finishedAt = System.currentTimeMillis();
+            done.complete(null);
+        }
+
+        private synchronized void failed(final Throwable cause) {
+            state = State.FAILED;
+            finishedAt = System.currentTimeMillis();
+            error = cause.getMessage();
+            done.completeExceptionally(cause);
+        }
+
+        private synchronized TenantDeletionStatus snapshot() {
+            return new TenantDeletionStatus(tenant, state, phase, deletedEntities, pendingBinaries, deletedBinaries,
+                    startedAt, finishedAt, error);
+        }
+    }
+}
@@ -8,12 +8,18 @@
  */
 package org.eclipse.hawkbit.repository.jpa.autoassign;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import javax.persistence.PersistenceException;
 
 import org.eclipse.hawkbit.exception.AbstractServerRtException;
+import org.eclipse.hawkbit.repository.AutoAssignProperties;
 import org.eclipse.hawkbit.repository.DeploymentManagement;
 import org.eclipse.hawkbit.repository.TargetFilterQueryManagement;
 import org.eclipse.hawkbit.repository.TargetManagement;
@@ -23,6 +29,7 @@ import org.eclipse.hawkbit.repository.model.RepositoryModelConstants;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetFilterQuery;
 import org.eclipse.hawkbit.repository.model.TargetWithActionType;
+import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -34,12 +41,19 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.DefaultTransactionDefinition;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import com.google.common.collect.Lists;
+
 /**
  * Checks if targets need a new distribution set (DS) based on the target filter
  * queries and assigns the new DS when necessary. First all target filter
  * queries are listed. For every target filter query (TFQ) the auto assign DS is
  * retrieved. All targets get listed per target filter query, that match the TFQ
  * and that don't have the auto assign DS in their action history.
+ *
+ * In incremental mode, see {@link #checkIncremental()}, only the targets that
+ * have been changed since the last run are matched against the TFQs, see
+ * {@link AutoAssignDirtyTargets}. All targets are checked on the first run,
+ * periodically as safety net and for TFQs that have been changed.
  */
 public class AutoAssignChecker {
 
@@ -53,6 +67,16 @@ public class AutoAssignChecker {
 
     private final TransactionTemplate transactionTemplate;
 
+    private final TenantAware tenantAware;
+
+    private final AutoAssignDirtyTargets dirtyTargets;
+
+    private final AutoAssignProperties.Scheduler properties;
+
+    private final Map<String, Long> lastFullSweeps = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> lastChecks = new ConcurrentHashMap<>();
+
     /**
      * Maximum for target filter queries with auto assign DS Maximum for targets
      * that are fetched in one turn
@@ -76,12 +100,22 @@ public class AutoAssignChecker {
      *            to assign distribution sets to targets
      * @param transactionManager
      *            to run transactions
+     * @param tenantAware
+     *            to get the tenant of an incremental check
+     * @param dirtyTargets
+     *            to get the changed targets of an incremental check
+     * @param autoAssignProperties
+     *            for the full sweep interval of incremental checks
      */
     public AutoAssignChecker(TargetFilterQueryManagement targetFilterQueryManagement, TargetManagement targetManagement,
-            DeploymentManagement deploymentManagement, PlatformTransactionManager transactionManager) {
+            DeploymentManagement deploymentManagement, PlatformTransactionManager transactionManager,
+            TenantAware tenantAware, AutoAssignDirtyTargets dirtyTargets, AutoAssignProperties autoAssignProperties) {
         this.targetFilterQueryManagement = targetFilterQueryManagement;
         this.targetManagement = targetManagement;
         this.deploymentManagement = deploymentManagement;
+        this.tenantAware = tenantAware;
+        this.dirtyTargets = dirtyTargets;
+        this.properties = autoAssignProperties.getScheduler();
 
         final DefaultTransactionDefinition def = new DefaultTransactionDefinition();
         def.setName("autoAssignDSToTargets");
@@ -108,6 +142,47 @@ public class AutoAssignChecker {
 
     }
 
+    /**
+     * Checks the targets of the current tenant that have been changed since
+     * the last run against all target filter queries with an auto assign
+     * distribution set. Target filter queries that have been changed since
+     * the last run are checked against all targets. Falls back to
+     * {@link #check()} on the first run, after the full sweep interval or if
+     * too many targets have been changed.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void checkIncremental() {
+        final String tenant = tenantAware.getCurrentTenant().toUpperCase();
+        final long now = System.currentTimeMillis();
+        // drain before checking, changes during the check are handled by the
+        // next run
+        final Optional<Set<Long>> changedTargets = dirtyTargets.drain(tenant);
+        final Long lastFullSweep = lastFullSweeps.get(tenant);
+        final Long lastCheck = lastChecks.put(tenant, now);
+
+        if (!changedTargets.isPresent() || lastFullSweep == null || lastCheck == null
+                || now - lastFullSweep >= properties.getFullSweepInterval()) {
+            LOGGER.debug("Checking all targets of tenant {} for auto assignment", tenant);
+            lastFullSweeps.put(tenant, now);
+            check();
+            return;
+        }
+
+        final List<Long> targetIds = new ArrayList<>(changedTargets.get());
+        LOGGER.debug("Checking {} changed targets of tenant {} for auto assignment", targetIds.size(), tenant);
+
+        final Page<TargetFilterQuery> filterQueries = targetFilterQueryManagement
+                .findTargetFilterQueryWithAutoAssignDS(new PageRequest(0, PAGE_SIZE));
+
+        for (final TargetFilterQuery filterQuery : filterQueries) {
+            if (filterQuery.getLastModifiedAt() == null || filterQuery.getLastModifiedAt() >= lastCheck) {
+                checkByTargetFilterQueryAndAssignDS(filterQuery);
+            } else if (!targetIds.isEmpty()) {
+                checkByTargetFilterQueryAndAssignDS(filterQuery, targetIds);
+            }
+        }
+    }
+
     /**
      * Fetches the distribution set, gets all controllerIds and assigns the DS
      * to them. Catches PersistenceException and own exceptions derived from
@@ -133,6 +208,38 @@ public class AutoAssignChecker {
 
     }
 
+    /**
+     * Assigns the DS to the given targets that match the target filter query.
+     * Catches PersistenceException and own exceptions derived from
+     * AbstractServerRtException
+     *
+     * @param targetFilterQuery
+     *            the target filter query
+     * @param targetIds
+     *            the IDs of the targets to check
+     */
+    private void checkByTargetFilterQueryAndAssignDS(TargetFilterQuery targetFilterQuery, List<Long> targetIds) {
+        try {
+            final Long dsId = targetFilterQuery.getAutoAssignDistributionSet().getId();
+            final String actionMessage = String.format(ACTION_MESSAGE, targetFilterQuery.getName());
+
+            for (final List<Long> ids : Lists.partition(targetIds, PAGE_SIZE)) {
+                transactionTemplate.execute(status -> {
+                    final List<TargetWithActionType> targets = toTargetsWithActionType(
+                            targetManagement.findTargetsByIdInAndTargetFilterQueryAndNonDS(ids, dsId,
+                                    targetFilterQuery));
+                    if (!targets.isEmpty()) {
+                        deploymentManagement.assignDistributionSet(dsId, targets, actionMessage);
+                    }
+                    return targets.size();
+                });
+            }
+
+        } catch (PersistenceException | AbstractServerRtException e) {
+            LOGGER.error("Error during auto assign check of target filter query " + targetFilterQuery.getId(), e);
+        }
+    }
+
     /**
      * Runs one page of target assignments within a dedicated transaction
      *
@@ -172,8 +279,12 @@ public class AutoAssignChecker {
         Page<Target> targets = targetManagement.findAllTargetsByTargetFilterQueryAndNonDS(new PageRequest(0, count),
                 dsId, targetFilterQuery);
 
-        return targets.getContent().stream().map(t -> new TargetWithActionType(t.getControllerId(),
-                Action.ActionType.FORCED, RepositoryModelConstants.NO_FORCE_TIME)).collect(Collectors.toList());
+        return toTargetsWithActionType(targets.getContent());
+    }
+
+    private static List<TargetWithActionType> toTargetsWithActionType(List<Target> targets) {
+        return targets.stream().map(t -> new TargetWithActionType(t.getControllerId(), Action.ActionType.FORCED,
+                RepositoryModelConstants.NO_FORCE_TIME)).collect(Collectors.toList());
     }
 
 }
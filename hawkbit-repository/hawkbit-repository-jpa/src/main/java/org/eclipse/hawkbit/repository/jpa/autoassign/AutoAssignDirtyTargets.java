@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.autoassign;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.hawkbit.repository.AutoAssignProperties;
+import org.eclipse.hawkbit.repository.event.remote.TargetBulkCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetTagAssignmentEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Remembers per tenant the IDs of the targets that have been created or
+ * updated, including attribute updates and tag assignments, since the last
+ * incremental run of the {@link AutoAssignChecker}. Only these targets can
+ * have entered an auto assign target filter query in the meantime.
+ *
+ * If more than {@link AutoAssignProperties.Scheduler#getMaxDirtyTargets()}
+ * targets of a tenant have been changed the IDs are dropped and the tenant is
+ * marked for a full sweep instead.
+ */
+public class AutoAssignDirtyTargets {
+
+    private final AutoAssignProperties.Scheduler properties;
+
+    private final Map<String, DirtyTargets> dirtyTargets = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param autoAssignProperties
+     *            for the maximum number of remembered targets
+     */
+    public AutoAssignDirtyTargets(final AutoAssignProperties autoAssignProperties) {
+        this.properties = autoAssignProperties.getScheduler();
+    }
+
+    /**
+     * @param event
+     *            the target creation event
+     */
+    @EventListener(classes = TargetCreatedEvent.class)
+    public void onTargetCreate(final TargetCreatedEvent event) {
+        markDirty(event.getTenant(), Collections.singleton(event.getEntityId()));
+    }
+
+    /**
+     * @param event
+     *            the target update event
+     */
+    @EventListener(classes = TargetUpdatedEvent.class)
+    public void onTargetUpdate(final TargetUpdatedEvent event) {
+        markDirty(event.getTenant(), Collections.singleton(event.getEntityId()));
+    }
+
+    /**
+     * @param event
+     *            the bulk creation event of imported targets
+     */
+    @EventListener(classes = TargetBulkCreatedEvent.class)
+    public void onTargetBulkCreate(final TargetBulkCreatedEvent event) {
+        markDirty(event.getTenant(), event.getTargetIds());
+    }
+
+    /**
+     * @param event
+     *            the tag assignment event
+     */
+    @EventListener(classes = TargetTagAssignmentEvent.class)
+    public void onTargetTagAssignment(final TargetTagAssignmentEvent event) {
+        markDirty(event.getTenant(), event.getAssignedTargetIds());
+        markDirty(event.getTenant(), event.getUnassignedTargetIds());
+    }
+
+    /**
+     * Returns and forgets the changed targets of the given tenant.
+     *
+     * @param tenant
+     *            of the targets
+     * @return the IDs of the changed targets or {@link Optional#empty()} if
+     *         too many targets have been changed and all targets have to be
+     *         checked
+     */
+    public Optional<Set<Long>> drain(final String tenant) {
+        final DirtyTargets dirty = dirtyTargets.remove(tenant.toUpperCase());
+        if (dirty == null) {
+            return Optional.of(Collections.emptySet());
+        }
+        if (dirty.overflow) {
+            return Optional.empty();
+        }
+        return Optional.of(dirty.targetIds);
+    }
+
+    private void markDirty(final String tenant, final Collection<Long> targetIds) {
+        if (targetIds.isEmpty()) {
+            return;
+        }
+        // compute is atomic per key, so no ID gets lost by a concurrent drain
+        dirtyTargets.compute(tenant.toUpperCase(), (key, dirty) -> {
+            final DirtyTargets result = dirty != null ? dirty : new DirtyTargets();
+            if (!result.overflow) {
+                result.targetIds.addAll(targetIds);
+                if (result.targetIds.size() > properties.getMaxDirtyTargets()) {
+                    result.overflow = true;
+                    result.targetIds.clear();
+                }
+            }
+            return result;
+        });
+    }
+
+    private static final class DirtyTargets {
+        private final Set<Long> targetIds = new HashSet<>();
+        private boolean overflow;
+    }
+}
@@ -38,6 +38,8 @@ public class AutoAssignScheduler {
 
     private final AutoAssignChecker autoAssignChecker;
 
+    private final AutoAssignProperties autoAssignProperties;
+
     /**
      * Instantiates a new AutoAssignScheduler
      * 
@@ -49,13 +51,17 @@ public class AutoAssignScheduler {
      *            to run as system
      * @param autoAssignChecker
      *            to run a check as tenant
+     * @param autoAssignProperties
+     *            to decide whether the check is incremental
      */
     public AutoAssignScheduler(TenantAware tenantAware, SystemManagement systemManagement,
-            SystemSecurityContext systemSecurityContext, AutoAssignChecker autoAssignChecker) {
+            SystemSecurityContext systemSecurityContext, AutoAssignChecker autoAssignChecker,
+            AutoAssignProperties autoAssignProperties) {
         this.tenantAware = tenantAware;
         this.systemManagement = systemManagement;
         this.systemSecurityContext = systemSecurityContext;
         this.autoAssignChecker = autoAssignChecker;
+        this.autoAssignProperties = autoAssignProperties;
     }
 
     /**
@@ -81,7 +87,11 @@ public class AutoAssignScheduler {
             for (final String tenant : tenants) {
                 tenantAware.runAsTenant(tenant, () -> {
 
-                    autoAssignChecker.check();
+                    if (autoAssignProperties.getScheduler().isIncremental()) {
+                        autoAssignChecker.checkIncremental();
+                    } else {
+                        autoAssignChecker.check();
+                    }
 
                     return null;
                 });
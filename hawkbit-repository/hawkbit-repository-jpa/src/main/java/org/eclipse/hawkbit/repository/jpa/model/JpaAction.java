@@ -47,6 +47,7 @@ import org.eclipse.persistence.descriptors.DescriptorEvent;
  */
 @Table(name = "sp_action", indexes = { @Index(name = "sp_idx_action_01", columnList = "tenant,distribution_set"),
         @Index(name = "sp_idx_action_02", columnList = "tenant,target,active"),
+        @Index(name = "sp_idx_action_03", columnList = "tenant,active,last_modified_at"),
         @Index(name = "sp_idx_action_prim", columnList = "tenant,id") })
 @NamedEntityGraphs({ @NamedEntityGraph(name = "Action.ds", attributeNodes = { @NamedAttributeNode("distributionSet") }),
         @NamedEntityGraph(name = "Action.all", attributeNodes = { @NamedAttributeNode("distributionSet"),
@@ -81,6 +82,15 @@ public class JpaAction extends AbstractJpaTenantAwareBaseEntity implements Actio
     @Column(name = "status")
     private Status status;
 
+    @Column(name = "status_count", nullable = false)
+    private long statusCount;
+
+    @Column(name = "last_status")
+    private Status lastStatus;
+
+    @Column(name = "last_status_at")
+    private Long lastStatusAt;
+
     @CascadeOnDelete
     @OneToMany(mappedBy = "action", targetEntity = JpaActionStatus.class, fetch = FetchType.LAZY, cascade = {
             CascadeType.REMOVE })
@@ -175,6 +185,47 @@ public class JpaAction extends AbstractJpaTenantAwareBaseEntity implements Actio
         this.rollout = (JpaRollout) rollout;
     }
 
+    /**
+     * Counts an {@link ActionStatus} entry that is added to the action and
+     * remembers it as the last reported one, so that the action history does
+     * not have to aggregate the status entries. Has to be called within the
+     * transaction that persists the entry and only as long as the action has
+     * not been inserted yet. The entries of persisted actions are counted by a
+     * targeted update instead that does not dirty the action.
+     *
+     * @param actionStatus
+     *            the added entry
+     */
+    public void addActionStatus(final ActionStatus actionStatus) {
+        statusCount++;
+        lastStatus = actionStatus.getStatus();
+        lastStatusAt = actionStatus.getOccurredAt();
+    }
+
+    /**
+     * @return number of {@link ActionStatus} entries that have been added to
+     *         the action, including the compacted ones
+     */
+    public long getStatusCount() {
+        return statusCount;
+    }
+
+    /**
+     * @return status of the last added {@link ActionStatus} entry or
+     *         <code>null</code> if there is none
+     */
+    public Status getLastStatus() {
+        return lastStatus;
+    }
+
+    /**
+     * @return occurrence of the last added {@link ActionStatus} entry or
+     *         <code>null</code> if there is none
+     */
+    public Long getLastStatusAt() {
+        return lastStatusAt;
+    }
+
     @Override
     public String toString() {
         return "JpaAction [distributionSet=" + distributionSet.getId() + ", version=" + getOptLockRevision() + ", id="
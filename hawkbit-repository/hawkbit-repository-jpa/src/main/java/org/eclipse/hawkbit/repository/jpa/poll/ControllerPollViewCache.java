@@ -0,0 +1,253 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.poll;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.cache.CacheEntryVersions;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.RepositoryProperties.PollViewCache;
+import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TenantDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.ActionUpdatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.CancelTargetAssignmentEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
+import org.eclipse.hawkbit.repository.model.ControllerPollView;
+import org.springframework.context.event.EventListener;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+
+/**
+ * Per tenant cache of the {@link ControllerPollView}s keyed by the controller
+ * ID. The entries are invalidated by the events that change the answer of a
+ * poll. The cache keeps an index by target and action ID so that the
+ * invalidation does not need to load the entities.
+ *
+ * A view that was loaded concurrently to an invalidation of its controller,
+ * target or action is not cached, see {@link CacheEntryVersions}.
+ */
+public class ControllerPollViewCache {
+
+    private static final String TENANT_DELIMITER = "|";
+
+    private static final String CONTROLLER_PREFIX = "C:";
+
+    private static final String TARGET_PREFIX = "T:";
+
+    private static final String ACTION_PREFIX = "A:";
+
+    private final PollViewCache properties;
+
+    private final Cache<String, ControllerPollView> views;
+
+    private final Map<Long, String> keysByTargetId = new ConcurrentHashMap<>();
+
+    private final Map<Long, String> keysByActionId = new ConcurrentHashMap<>();
+
+    private final CacheEntryVersions versions = new CacheEntryVersions();
+
+    /**
+     * Constructor.
+     *
+     * @param repositoryProperties
+     *            for the cache configuration
+     */
+    public ControllerPollViewCache(final RepositoryProperties repositoryProperties) {
+        this.properties = repositoryProperties.getPollViewCache();
+        this.views = CacheBuilder.newBuilder().maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl(), TimeUnit.MILLISECONDS).removalListener(this::unindex).build();
+    }
+
+    /**
+     * @return <code>true</code> if the cache is enabled
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * @param tenant
+     *            of the controller
+     * @param controllerId
+     *            of the controller
+     * @return the cached view or <code>null</code> if not cached
+     */
+    public ControllerPollView get(final String tenant, final String controllerId) {
+        if (!isEnabled()) {
+            return null;
+        }
+        return views.getIfPresent(buildKey(tenant, controllerId));
+    }
+
+    /**
+     * @return the current version that has to be retrieved before the view is
+     *         loaded from the repository
+     */
+    public long getVersion() {
+        return versions.current();
+    }
+
+    /**
+     * Puts the given view into the cache if neither its controller nor its
+     * target or action has been invalidated since the given version has been
+     * retrieved.
+     *
+     * @param tenant
+     *            of the controller
+     * @param view
+     *            to cache
+     * @param version
+     *            retrieved by {@link #getVersion()} before the view was loaded
+     */
+    public void put(final String tenant, final ControllerPollView view, final long version) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        final String key = buildKey(tenant, view.getControllerId());
+        // indexed before the view is put so that a concurrent invalidation
+        // finds it once the view is visible
+        keysByTargetId.put(view.getTargetId(), key);
+        if (view.getActionId() != null) {
+            keysByActionId.put(view.getActionId(), key);
+        }
+
+        if (!versions.putIfCurrent(views, key, view, tenant, version, CONTROLLER_PREFIX + view.getControllerId(),
+                TARGET_PREFIX + view.getTargetId(), ACTION_PREFIX + view.getActionId())
+                && views.getIfPresent(key) == null) {
+            keysByTargetId.remove(view.getTargetId(), key);
+            if (view.getActionId() != null) {
+                keysByActionId.remove(view.getActionId(), key);
+            }
+        }
+    }
+
+    /**
+     * @return number of cached views over all tenants
+     */
+    public long size() {
+        return views.size();
+    }
+
+    /**
+     * Invalidates the view of the assigned target.
+     *
+     * @param event
+     *            the assignment event
+     */
+    @EventListener(classes = TargetAssignDistributionSetEvent.class)
+    public void onAssignment(final TargetAssignDistributionSetEvent event) {
+        versions.invalidate(event.getTenant(), CONTROLLER_PREFIX + event.getControllerId());
+        views.invalidate(buildKey(event.getTenant(), event.getControllerId()));
+    }
+
+    /**
+     * Invalidates the view of the target whose assignment has been canceled.
+     *
+     * @param event
+     *            the cancel event
+     */
+    @EventListener(classes = CancelTargetAssignmentEvent.class)
+    public void onCancel(final CancelTargetAssignmentEvent event) {
+        invalidateTarget(event.getTenant(), event.getEntityId());
+        invalidateAction(event.getTenant(), event.getActionId());
+    }
+
+    /**
+     * Invalidates the view that contains the updated action.
+     *
+     * @param event
+     *            the action update event
+     */
+    @EventListener(classes = ActionUpdatedEvent.class)
+    public void onActionUpdate(final ActionUpdatedEvent event) {
+        invalidateAction(event.getTenant(), event.getEntityId());
+    }
+
+    /**
+     * Invalidates the view of the updated target.
+     *
+     * @param event
+     *            the target update event
+     */
+    @EventListener(classes = TargetUpdatedEvent.class)
+    public void onTargetUpdate(final TargetUpdatedEvent event) {
+        invalidateTarget(event.getTenant(), event.getEntityId());
+    }
+
+    /**
+     * Invalidates the view of the deleted target.
+     *
+     * @param event
+     *            the target deletion event
+     */
+    @EventListener(classes = TargetDeletedEvent.class)
+    public void onTargetDelete(final TargetDeletedEvent event) {
+        invalidateTarget(event.getTenant(), event.getEntityId());
+    }
+
+    /**
+     * Drops the views and the invalidation records of the deleted tenant.
+     *
+     * @param event
+     *            the tenant deletion event
+     */
+    @EventListener(classes = TenantDeletedEvent.class)
+    public void onTenantDelete(final TenantDeletedEvent event) {
+        versions.removeTenant(event.getTenant());
+        final String prefix = buildKey(event.getTenant(), "");
+        views.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private void invalidateTarget(final String tenant, final Long targetId) {
+        if (targetId == null) {
+            return;
+        }
+        versions.invalidate(tenant, TARGET_PREFIX + targetId);
+        invalidateKey(keysByTargetId.get(targetId));
+    }
+
+    private void invalidateAction(final String tenant, final Long actionId) {
+        if (actionId == null) {
+            return;
+        }
+        versions.invalidate(tenant, ACTION_PREFIX + actionId);
+        invalidateKey(keysByActionId.get(actionId));
+    }
+
+    private void invalidateKey(final String key) {
+        if (key != null) {
+            views.invalidate(key);
+        }
+    }
+
+    private void unindex(final RemovalNotification<String, ControllerPollView> notification) {
+        final ControllerPollView view = notification.getValue();
+        if (view == null) {
+            return;
+        }
+        // a replaced view is indexed again by the put
+        if (notification.getCause() != RemovalCause.REPLACED) {
+            keysByTargetId.remove(view.getTargetId(), notification.getKey());
+        }
+        if (view.getActionId() != null) {
+            keysByActionId.remove(view.getActionId(), notification.getKey());
+        }
+    }
+
+    private static String buildKey(final String tenant, final String controllerId) {
+        return tenant.toUpperCase() + TENANT_DELIMITER + controllerId;
+    }
+}
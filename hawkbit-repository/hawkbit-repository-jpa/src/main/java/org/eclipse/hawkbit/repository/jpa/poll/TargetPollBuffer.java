@@ -0,0 +1,227 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.poll;
+
+import java.sql.Types;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.Cache;
+
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.RepositoryProperties.PollBuffer;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTargetInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Write-behind buffer for the last poll timestamp and address of the targets.
+ * Repeated polls of the same target are merged in memory and flushed
+ * periodically into {@code sp_target_info} by means of JDBC batch updates. The
+ * buffer is striped by tenant so that a flush of one tenant does not block the
+ * polls of the others.
+ *
+ * Only plain poll updates are buffered. Status transitions of the target have
+ * to be written directly by the caller.
+ */
+public class TargetPollBuffer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TargetPollBuffer.class);
+
+    private static final String UPDATE_STATEMENT = "UPDATE sp_target_info SET last_target_query = ?, address = COALESCE(?, address) "
+            + "WHERE target_id = ? AND (last_target_query IS NULL OR last_target_query < ?)";
+
+    private final Map<String, Map<Long, PendingPoll>> tenantStripes = new ConcurrentHashMap<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final PollBuffer properties;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Cache sharedCache;
+
+    /**
+     * Constructor.
+     *
+     * @param repositoryProperties
+     *            for the buffer configuration
+     * @param jdbcTemplate
+     *            to flush the buffer
+     * @param sharedCache
+     *            the JPA shared cache to evict the flushed {@link JpaTargetInfo}
+     *            entities from as the JDBC update bypasses it
+     */
+    public TargetPollBuffer(final RepositoryProperties repositoryProperties, final JdbcTemplate jdbcTemplate,
+            final Cache sharedCache) {
+        this.properties = repositoryProperties.getPollBuffer();
+        this.jdbcTemplate = jdbcTemplate;
+        this.sharedCache = sharedCache;
+    }
+
+    /**
+     * @return <code>true</code> if write-behind of poll timestamps is enabled
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Buffers a poll of the given target. A poll that is older than the one
+     * already in the buffer is ignored.
+     *
+     * @param tenant
+     *            of the target
+     * @param targetId
+     *            of the polling target
+     * @param lastTargetQuery
+     *            time of the poll
+     * @param address
+     *            of the target or <code>null</code> if unchanged
+     * @return <code>true</code> if the poll has been buffered,
+     *         <code>false</code> if the buffer is disabled or full and the
+     *         caller has to write the poll directly
+     */
+    public boolean offer(final String tenant, final Long targetId, final long lastTargetQuery, final String address) {
+        if (!properties.isEnabled() || tenant == null || targetId == null) {
+            return false;
+        }
+
+        final Map<Long, PendingPoll> stripe = tenantStripes.computeIfAbsent(tenant.toUpperCase(),
+                key -> new ConcurrentHashMap<>());
+
+        if (!stripe.containsKey(targetId) && size.get() >= properties.getMaxEntries()) {
+            return false;
+        }
+
+        final PendingPoll poll = new PendingPoll(lastTargetQuery, address);
+        stripe.compute(targetId, (id, current) -> {
+            if (current == null) {
+                size.incrementAndGet();
+                return poll;
+            }
+            return PendingPoll.merge(current, poll);
+        });
+
+        return true;
+    }
+
+    /**
+     * Writes a poll of the given target directly, e.g. if the buffer is
+     * disabled or full. Only the {@link JpaTargetInfo} of the target is
+     * evicted from the JPA shared cache.
+     *
+     * @param targetId
+     *            of the polling target
+     * @param lastTargetQuery
+     *            time of the poll
+     * @param address
+     *            of the target or <code>null</code> if unchanged
+     */
+    public void write(final Long targetId, final long lastTargetQuery, final String address) {
+        jdbcTemplate.update(UPDATE_STATEMENT, new Object[] { lastTargetQuery, address, targetId, lastTargetQuery },
+                new int[] { Types.BIGINT, Types.VARCHAR, Types.BIGINT, Types.BIGINT });
+        sharedCache.evict(JpaTargetInfo.class, targetId);
+    }
+
+    /**
+     * @return number of targets with a pending poll update
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Writes all buffered polls into the repository. Scheduled with the delay
+     * {@link RepositoryProperties#PROP_POLL_BUFFER_DELAY_PLACEHOLDER}.
+     */
+    @Scheduled(initialDelayString = RepositoryProperties.PROP_POLL_BUFFER_DELAY_PLACEHOLDER, fixedDelayString = RepositoryProperties.PROP_POLL_BUFFER_DELAY_PLACEHOLDER)
+    @PreDestroy
+    public void flush() {
+        tenantStripes.forEach(this::flushTenant);
+    }
+
+    private void flushTenant(final String tenant, final Map<Long, PendingPoll> stripe) {
+        if (stripe.isEmpty()) {
+            return;
+        }
+
+        final List<Map.Entry<Long, PendingPoll>> updates = new ArrayList<>(stripe.size());
+        for (final Map.Entry<Long, PendingPoll> entry : stripe.entrySet()) {
+            final PendingPoll poll = entry.getValue();
+            // only remove if it was not merged with a newer poll in the
+            // meantime, the newer one is written with the next flush
+            if (stripe.remove(entry.getKey(), poll)) {
+                size.decrementAndGet();
+                updates.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), poll));
+            }
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_STATEMENT, updates, properties.getBatchSize(), (ps, update) -> {
+                final PendingPoll poll = update.getValue();
+                ps.setLong(1, poll.lastTargetQuery);
+                if (poll.address == null) {
+                    ps.setNull(2, Types.VARCHAR);
+                } else {
+                    ps.setString(2, poll.address);
+                }
+                ps.setLong(3, update.getKey());
+                ps.setLong(4, poll.lastTargetQuery);
+            });
+            updates.forEach(update -> sharedCache.evict(JpaTargetInfo.class, update.getKey()));
+            LOGGER.debug("Flushed {} target polls of tenant {}", updates.size(), tenant);
+        } catch (final DataAccessException e) {
+            LOGGER.error("Failed to flush " + updates.size() + " target polls of tenant " + tenant
+                    + ", retrying with the next flush", e);
+            updates.forEach(update -> restore(stripe, update.getKey(), update.getValue()));
+        }
+    }
+
+    /**
+     * Puts a poll that could not be flushed back into the buffer. If the target
+     * polled again in the meantime the newer poll is kept.
+     */
+    private void restore(final Map<Long, PendingPoll> stripe, final Long targetId, final PendingPoll failed) {
+        stripe.compute(targetId, (id, current) -> {
+            if (current == null) {
+                size.incrementAndGet();
+                return failed;
+            }
+            return PendingPoll.merge(failed, current);
+        });
+    }
+
+    private static final class PendingPoll {
+        private final long lastTargetQuery;
+        private final String address;
+
+        private PendingPoll(final long lastTargetQuery, final String address) {
+            this.lastTargetQuery = lastTargetQuery;
+            this.address = address;
+        }
+
+        private static PendingPoll merge(final PendingPoll current, final PendingPoll next) {
+            if (next.lastTargetQuery < current.lastTargetQuery) {
+                return current.address == null && next.address != null
+                        ? new PendingPoll(current.lastTargetQuery, next.address) : current;
+            }
+            return next.address == null && current.address != null
+                    ? new PendingPoll(next.lastTargetQuery, current.address) : next;
+        }
+    }
+}
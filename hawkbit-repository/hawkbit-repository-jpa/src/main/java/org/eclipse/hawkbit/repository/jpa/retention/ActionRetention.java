@@ -0,0 +1,317 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.retention;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
+import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
+import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.RolloutGroup.RolloutGroupStatus;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Applies the retention policies of the current tenant to its actions:
+ * <ul>
+ * <li>closed actions which have not been modified for
+ * {@link TenantConfigurationKey#ACTION_RETENTION_ACTION_EXPIRY_DAYS} are
+ * deleted together with their status entries,</li>
+ * <li>the status entries of an action exceeding
+ * {@link TenantConfigurationKey#ACTION_RETENTION_MAX_STATUS_ENTRIES} are
+ * compacted, i.e. the oldest ones are deleted and, if
+ * {@link TenantConfigurationKey#ACTION_RETENTION_COMPACTION} is set, appended
+ * to the {@link ActionStatusArchive} of the action.</li>
+ * </ul>
+ *
+ * Only the actions which received status entries since the previous
+ * compaction of the tenant are checked for the maximum, i.e. the status
+ * entries are not counted for all actions of the tenant on every run.
+ *
+ * Actions of rollout groups which are not finished yet are kept as the status
+ * counters of those groups are recounted from the actions.
+ *
+ * All deletions are done in batches of
+ * {@link RepositoryProperties.ActionRetention#getBatchSize()} which are
+ * committed in their own transactions.
+ */
+public class ActionRetention {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ActionRetention.class);
+
+    private static final String SELECT_EXPIRED_ACTIONS = "SELECT a.id FROM JpaAction a LEFT JOIN a.rolloutGroup g "
+            + "WHERE a.active = false AND a.status <> :scheduled AND a.lastModifiedAt < :expiredBefore "
+            + "AND (g IS NULL OR g.status = :finished) ORDER BY a.id";
+
+    private static final String SELECT_ACTIONS_TO_COMPACT = "SELECT s.action.id FROM JpaActionStatus s "
+            + "WHERE s.action.id IN (SELECT n.action.id FROM JpaActionStatus n WHERE n.id > :since) "
+            + "GROUP BY s.action.id HAVING COUNT(s.id) > :maxEntries";
+
+    private static final String SELECT_LAST_STATUS_ID = "SELECT MAX(s.id) FROM JpaActionStatus s";
+
+    private final EntityManager entityManager;
+
+    private final TenantConfigurationManagement tenantConfigurationManagement;
+
+    private final ActionStatusArchive statusArchive;
+
+    private final RepositoryProperties repositoryProperties;
+
+    private final TenantAware tenantAware;
+
+    private final TransactionTemplate batchTransaction;
+
+    private final Map<String, Watermark> compactedUntil = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param entityManager
+     *            to query and delete the actions and status entries
+     * @param tenantConfigurationManagement
+     *            to read the policies of the tenant
+     * @param statusArchive
+     *            to archive the compacted status entries
+     * @param repositoryProperties
+     *            for the batch size
+     * @param txManager
+     *            to commit every batch in its own transaction
+     * @param tenantAware
+     *            to remember the compacted status entries per tenant
+     */
+    public ActionRetention(final EntityManager entityManager,
+            final TenantConfigurationManagement tenantConfigurationManagement, final ActionStatusArchive statusArchive,
+            final RepositoryProperties repositoryProperties, final PlatformTransactionManager txManager,
+            final TenantAware tenantAware) {
+        this.entityManager = entityManager;
+        this.tenantConfigurationManagement = tenantConfigurationManagement;
+        this.statusArchive = statusArchive;
+        this.repositoryProperties = repositoryProperties;
+        this.tenantAware = tenantAware;
+        this.batchTransaction = new TransactionTemplate(txManager);
+        batchTransaction.setName("action-retention");
+        batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Applies the retention policies of the current tenant if enabled.
+     *
+     * @return the result of the run
+     */
+    public Result apply() {
+        if (!getPolicy(TenantConfigurationKey.ACTION_RETENTION_ENABLED, Boolean.class)) {
+            return new Result(0, 0);
+        }
+
+        final int expiryDays = getPolicy(TenantConfigurationKey.ACTION_RETENTION_ACTION_EXPIRY_DAYS, Integer.class);
+        final long purgedActions = expiryDays > 0
+                ? purgeExpiredActions(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(expiryDays)) : 0;
+
+        final int maxEntries = getPolicy(TenantConfigurationKey.ACTION_RETENTION_MAX_STATUS_ENTRIES, Integer.class);
+        final long compactedStatuses = maxEntries > 0
+                ? compactStatusEntries(maxEntries,
+                        getPolicy(TenantConfigurationKey.ACTION_RETENTION_COMPACTION, Boolean.class))
+                : 0;
+
+        return new Result(purgedActions, compactedStatuses);
+    }
+
+    /**
+     * Deletes the closed actions of the current tenant which have not been
+     * modified since the given time.
+     *
+     * @param expiredBefore
+     *            time in milliseconds
+     * @return number of deleted actions
+     */
+    public long purgeExpiredActions(final long expiredBefore) {
+        long purged = 0;
+        int deleted;
+        do {
+            deleted = batchTransaction.execute(status -> {
+                final List<Long> ids = entityManager.createQuery(SELECT_EXPIRED_ACTIONS, Long.class)
+                        .setParameter("scheduled", Status.SCHEDULED).setParameter("expiredBefore", expiredBefore)
+                        .setParameter("finished", RolloutGroupStatus.FINISHED).setMaxResults(batchSize())
+                        .getResultList();
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                // the status entries, messages and archives are deleted by
+                // the cascades of the database
+                return entityManager.createQuery("DELETE FROM JpaAction a WHERE a.id IN :ids")
+                        .setParameter("ids", ids).executeUpdate();
+            });
+            purged += deleted;
+        } while (deleted > 0);
+
+        if (purged > 0) {
+            // the targets might hold the deleted actions
+            evictFromSharedCache();
+            LOGGER.debug("Purged {} expired actions", purged);
+        }
+        return purged;
+    }
+
+    /**
+     * Compacts the status entries of the actions of the current tenant which
+     * exceed the given maximum.
+     *
+     * @param maxEntries
+     *            number of the newest status entries to keep per action
+     * @param archive
+     *            <code>true</code> to archive the compacted entries
+     * @return number of compacted status entries
+     */
+    public long compactStatusEntries(final int maxEntries, final boolean archive) {
+        final String tenant = tenantAware.getCurrentTenant().toUpperCase();
+        final Long lastStatusId = batchTransaction
+                .execute(status -> entityManager.createQuery(SELECT_LAST_STATUS_ID, Long.class).getSingleResult());
+        if (lastStatusId == null) {
+            return 0;
+        }
+        final long since = compactedUntil.getOrDefault(tenant, Watermark.NONE).since(maxEntries, lastStatusId);
+
+        long compacted = 0;
+        List<Long> actionIds;
+        do {
+            actionIds = batchTransaction.execute(status -> entityManager
+                    .createQuery(SELECT_ACTIONS_TO_COMPACT, Long.class).setParameter("since", since)
+                    .setParameter("maxEntries", (long) maxEntries).setMaxResults(batchSize()).getResultList());
+            long compactedInRound = 0;
+            for (final Long actionId : actionIds) {
+                compactedInRound += compactAction(actionId, maxEntries, archive);
+            }
+            compacted += compactedInRound;
+            if (compactedInRound == 0) {
+                break;
+            }
+        } while (actionIds.size() == batchSize());
+        // entries which are added during the run are checked with the next one
+        compactedUntil.put(tenant, new Watermark(maxEntries, lastStatusId));
+
+        if (compacted > 0) {
+            evictFromSharedCache();
+            LOGGER.debug("Compacted {} action status entries", compacted);
+        }
+        return compacted;
+    }
+
+    private long compactAction(final Long actionId, final int maxEntries, final boolean archive) {
+        long compacted = 0;
+        int deleted;
+        do {
+            deleted = batchTransaction.execute(status -> {
+                // serializes with the status updates of the action
+                final JpaAction action = entityManager.find(JpaAction.class, actionId,
+                        LockModeType.PESSIMISTIC_WRITE);
+                if (action == null) {
+                    return 0;
+                }
+                final long excess = entityManager
+                        .createQuery("SELECT COUNT(s.id) FROM JpaActionStatus s WHERE s.action = :action", Long.class)
+                        .setParameter("action", action).getSingleResult() - maxEntries;
+                if (excess <= 0) {
+                    return 0;
+                }
+
+                final List<JpaActionStatus> oldest = entityManager
+                        .createQuery("SELECT s FROM JpaActionStatus s WHERE s.action = :action ORDER BY s.id",
+                                JpaActionStatus.class)
+                        .setParameter("action", action)
+                        .setHint("javax.persistence.loadgraph",
+                                entityManager.getEntityGraph("ActionStatus.withMessages"))
+                        .setMaxResults((int) Math.min(excess, batchSize())).getResultList();
+                if (archive) {
+                    statusArchive.append(action, oldest);
+                }
+                final List<Long> ids = oldest.stream().map(JpaActionStatus::getId).collect(Collectors.toList());
+                return entityManager.createQuery("DELETE FROM JpaActionStatus s WHERE s.id IN :ids")
+                        .setParameter("ids", ids).executeUpdate();
+            });
+            compacted += deleted;
+        } while (deleted > 0);
+        return compacted;
+    }
+
+    private void evictFromSharedCache() {
+        entityManager.getEntityManagerFactory().getCache().evict(JpaTarget.class);
+        entityManager.getEntityManagerFactory().getCache().evict(JpaAction.class);
+        entityManager.getEntityManagerFactory().getCache().evict(JpaActionStatus.class);
+    }
+
+    private <T extends Serializable> T getPolicy(final TenantConfigurationKey key, final Class<T> type) {
+        return tenantConfigurationManagement.getConfigurationValue(key, type).getValue();
+    }
+
+    private int batchSize() {
+        return repositoryProperties.getActionRetention().getBatchSize();
+    }
+
+    /**
+     * ID of the last status entry that has been checked by the compaction of
+     * a tenant.
+     */
+    private static final class Watermark {
+        private static final Watermark NONE = new Watermark(0, 0L);
+
+        private final int maxEntries;
+        private final long lastStatusId;
+
+        private Watermark(final int maxEntries, final long lastStatusId) {
+            this.maxEntries = maxEntries;
+            this.lastStatusId = lastStatusId;
+        }
+
+        private long since(final int currentMaxEntries, final long currentLastStatusId) {
+            // all actions are checked again if the maximum has been changed
+            // or the entries have been recreated
+            if (maxEntries != currentMaxEntries || lastStatusId > currentLastStatusId) {
+                return 0L;
+            }
+            return lastStatusId;
+        }
+    }
+
+    /**
+     * Result of a retention run of a tenant.
+     */
+    public static final class Result {
+        private final long purgedActions;
+        private final long compactedStatuses;
+
+        private Result(final long purgedActions, final long compactedStatuses) {
+            this.purgedActions = purgedActions;
+            this.compactedStatuses = compactedStatuses;
+        }
+
+        public long getPurgedActions() {
+            return purgedActions;
+        }
+
+        public long getCompactedStatuses() {
+            return compactedStatuses;
+        }
+    }
+}
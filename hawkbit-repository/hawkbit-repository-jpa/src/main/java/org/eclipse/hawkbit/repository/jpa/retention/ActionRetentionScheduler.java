@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.retention;
+
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.SystemManagement;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Scheduler to apply the {@link ActionRetention} policies to the actions of
+ * all tenants. The policies are configured per tenant, i.e. tenants which did
+ * not enable the retention are skipped.
+ */
+// don't active the retention scheduler in test, otherwise it is hard to test
+@Profile("!test")
+public class ActionRetentionScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ActionRetentionScheduler.class);
+
+    private final TenantAware tenantAware;
+
+    private final SystemManagement systemManagement;
+
+    private final SystemSecurityContext systemSecurityContext;
+
+    private final ActionRetention actionRetention;
+
+    /**
+     * Constructor.
+     *
+     * @param tenantAware
+     *            to run as specific tenant
+     * @param systemManagement
+     *            to find all tenants
+     * @param systemSecurityContext
+     *            to run as system
+     * @param actionRetention
+     *            to apply the policies of a tenant
+     */
+    public ActionRetentionScheduler(final TenantAware tenantAware, final SystemManagement systemManagement,
+            final SystemSecurityContext systemSecurityContext, final ActionRetention actionRetention) {
+        this.tenantAware = tenantAware;
+        this.systemManagement = systemManagement;
+        this.systemSecurityContext = systemSecurityContext;
+        this.actionRetention = actionRetention;
+    }
+
+    /**
+     * Scheduler method called by the spring-async mechanism. Retrieves all
+     * tenants from the {@link SystemManagement#findTenants()} and applies the
+     * retention policies of each tenant.
+     */
+    @Scheduled(initialDelayString = RepositoryProperties.PROP_ACTION_RETENTION_DELAY_PLACEHOLDER, fixedDelayString = RepositoryProperties.PROP_ACTION_RETENTION_DELAY_PLACEHOLDER)
+    public void applyRetention() {
+        LOGGER.debug("action retention has been triggered.");
+        systemSecurityContext.runAsSystem(() -> {
+            // workaround eclipselink that is currently not possible to
+            // execute a query without multitenancy if MultiTenant
+            // annotation is used.
+            // https://bugs.eclipse.org/bugs/show_bug.cgi?id=355458. So
+            // iterate through all tenants and apply the policies of each
+            // tenant separately.
+            final List<String> tenants = systemManagement.findTenants();
+            for (final String tenant : tenants) {
+                tenantAware.runAsTenant(tenant, () -> {
+                    applyRetention(tenant);
+                    return null;
+                });
+            }
+            return null;
+        });
+    }
+
+    private void applyRetention(final String tenant) {
+        try {
+            final ActionRetention.Result result = actionRetention.apply();
+            if (result.getPurgedActions() > 0 || result.getCompactedStatuses() > 0) {
+                LOGGER.info("Purged {} actions and compacted {} action status entries of tenant {}",
+                        result.getPurgedActions(), result.getCompactedStatuses(), tenant);
+            }
+        } catch (final DataAccessException e) {
+            LOGGER.warn("Failed to apply the action retention of tenant {}", tenant, e);
+        }
+    }
+}
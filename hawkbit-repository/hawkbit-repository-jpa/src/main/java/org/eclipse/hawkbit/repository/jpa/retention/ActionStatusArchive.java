@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.retention;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.ActionStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Compressed archive of the compacted {@link ActionStatus} entries of an
+ * action. Every action has at most one archive row which holds the number of
+ * archived entries, their time range and the entries themselves as
+ * concatenated GZIP members, i.e. new entries are appended without
+ * decompressing the already archived ones. The status of an entry is stored
+ * by its name and at most {@value #MAX_MESSAGES_PER_ENTRY} messages are kept
+ * per entry.
+ *
+ * The archive is deleted together with its action.
+ */
+public class ActionStatusArchive {
+
+    private static final String SELECT_ARCHIVE = "SELECT entries, first_occurred_at, summary FROM sp_action_status_archive WHERE action = ?";
+
+    private static final String INSERT_ARCHIVE = "INSERT INTO sp_action_status_archive "
+            + "(action, tenant, entries, first_occurred_at, last_occurred_at, summary) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_ARCHIVE = "UPDATE sp_action_status_archive "
+            + "SET entries = ?, first_occurred_at = ?, last_occurred_at = ?, summary = ? WHERE action = ?";
+
+    private static final int MAX_MESSAGES_PER_ENTRY = 0xFFFF;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor.
+     *
+     * @param jdbcTemplate
+     *            to read and write the archive
+     */
+    public ActionStatusArchive(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Appends the given status entries to the archive of the action. Has to be
+     * called within the transaction that deletes the entries while holding
+     * the lock of the action.
+     *
+     * @param action
+     *            of the status entries
+     * @param statuses
+     *            to archive in the order they occurred
+     */
+    public void append(final Action action, final List<? extends ActionStatus> statuses) {
+        if (statuses.isEmpty()) {
+            return;
+        }
+
+        final byte[] member = encode(statuses);
+        final long first = occurredAt(statuses.get(0));
+        final long last = occurredAt(statuses.get(statuses.size() - 1));
+
+        final List<Archive> existing = jdbcTemplate.query(SELECT_ARCHIVE,
+                (rs, rowNum) -> new Archive(rs.getLong(1), rs.getLong(2), rs.getBytes(3)), action.getId());
+        if (existing.isEmpty()) {
+            jdbcTemplate.update(INSERT_ARCHIVE, action.getId(), action.getTenant().toUpperCase(), statuses.size(),
+                    first, last, member);
+            return;
+        }
+
+        final Archive archive = existing.get(0);
+        final byte[] summary = new byte[archive.summary.length + member.length];
+        System.arraycopy(archive.summary, 0, summary, 0, archive.summary.length);
+        System.arraycopy(member, 0, summary, archive.summary.length, member.length);
+        jdbcTemplate.update(UPDATE_ARCHIVE, archive.entries + statuses.size(),
+                Math.min(archive.firstOccurredAt, first), last, summary, action.getId());
+    }
+
+    /**
+     * @param actionId
+     *            of the action
+     * @return the archived status entries of the action in the order they
+     *         occurred
+     */
+    public List<ArchivedActionStatus> findByAction(final Long actionId) {
+        final List<byte[]> summaries = jdbcTemplate.query(SELECT_ARCHIVE, (rs, rowNum) -> rs.getBytes(3), actionId);
+        return summaries.isEmpty() ? Collections.emptyList() : decode(summaries.get(0));
+    }
+
+    private static long occurredAt(final ActionStatus status) {
+        if (status.getOccurredAt() != null) {
+            return status.getOccurredAt();
+        }
+        return status.getCreatedAt() != null ? status.getCreatedAt() : 0L;
+    }
+
+    static byte[] encode(final List<? extends ActionStatus> statuses) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            for (final ActionStatus status : statuses) {
+                out.writeLong(occurredAt(status));
+                out.writeUTF(status.getStatus().name());
+                final List<String> messages = status.getMessages() != null ? status.getMessages()
+                        : Collections.emptyList();
+                final int messageCount = Math.min(messages.size(), MAX_MESSAGES_PER_ENTRY);
+                out.writeShort(messageCount);
+                for (final String message : messages.subList(0, messageCount)) {
+                    out.writeUTF(message);
+                }
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static List<ArchivedActionStatus> decode(final byte[] summary) {
+        final List<ArchivedActionStatus> result = new ArrayList<>();
+        // the stream reads the concatenated members as one
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(summary)))) {
+            while (true) {
+                final long occurredAt;
+                try {
+                    occurredAt = in.readLong();
+                } catch (final EOFException e) {
+                    return result;
+                }
+                final Status status = Status.valueOf(in.readUTF());
+                final int messageCount = in.readUnsignedShort();
+                final List<String> messages = new ArrayList<>(messageCount);
+                for (int i = 0; i < messageCount; i++) {
+                    messages.add(in.readUTF());
+                }
+                result.add(new ArchivedActionStatus(occurredAt, status, messages));
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Archive {
+        private final long entries;
+        private final long firstOccurredAt;
+        private final byte[] summary;
+
+        private Archive(final long entries, final long firstOccurredAt, final byte[] summary) {
+            this.entries = entries;
+            this.firstOccurredAt = firstOccurredAt;
+            this.summary = summary;
+        }
+    }
+
+    /**
+     * A compacted {@link ActionStatus} entry.
+     */
+    public static final class ArchivedActionStatus {
+        private final long occurredAt;
+        private final Status status;
+        private final List<String> messages;
+
+        private ArchivedActionStatus(final long occurredAt, final Status status, final List<String> messages) {
+            this.occurredAt = occurredAt;
+            this.status = status;
+            this.messages = Collections.unmodifiableList(messages);
+        }
+
+        public long getOccurredAt() {
+            return occurredAt;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public List<String> getMessages() {
+            return messages;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.hawkbit.repository.jpa.ActionRepository;
+import org.eclipse.hawkbit.repository.model.Action.ActionType;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.RolloutGroup;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * Writes the target assignments of rollout groups and the scheduled actions
+ * of a rollout by means of JDBC batch inserts. Compared to persisting the
+ * entities one by one this avoids a round trip and an entity event per row,
+ * which matters for rollouts with a large amount of targets.
+ *
+ * The writer has to be called within a transaction of the repository. As the
+ * rows are not written through the entity manager no entity events are
+ * published for them. The rows contain the same columns as an insert of the
+ * entity manager, i.e. the last modification columns stay empty.
+ */
+public class RolloutBulkWriter {
+
+    private static final String INSERT_ROLLOUT_TARGET_GROUP = "INSERT INTO sp_rollouttargetgroup (rolloutGroup_Id, target_Id) VALUES (?, ?)";
+
+    private static final String INSERT_ACTION = "INSERT INTO sp_action (tenant, target, distribution_set, action_type, forced_time, status, active, rollout, rolloutgroup, "
+            + "created_at, created_by, optlock_revision) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Locks the rollout actions that are canceled by
+     * {@link ActionRepository#switchStatus(Status, List, boolean, Status)}.
+     */
+    private static final String SELECT_SWITCHED_ROLLOUT_ACTIONS = "SELECT id, rolloutgroup FROM sp_action "
+            + "WHERE target IN (:targetIds) AND active = :active AND status = :status AND rolloutgroup IS NOT NULL "
+            + "AND distribution_set IN (SELECT id FROM sp_distribution_set WHERE required_migration_step = :requiredMigrationStep) "
+            + "FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    private final ActionRepository actionRepository;
+
+    private final RolloutGroupStatusCounters statusCounters;
+
+    private final TenantAware tenantAware;
+
+    private final AuditorAware<String> auditorAware;
+
+    /**
+     * Constructor.
+     *
+     * @param jdbcTemplate
+     *            to execute the batch inserts
+     * @param actionRepository
+     *            to cancel the scheduled actions that are replaced
+     * @param statusCounters
+     *            to move the canceled actions to the canceled counters
+     * @param tenantAware
+     *            to get the tenant of the inserted actions
+     * @param auditorAware
+     *            to get the creator of the inserted actions
+     */
+    public RolloutBulkWriter(final JdbcTemplate jdbcTemplate, final ActionRepository actionRepository,
+            final RolloutGroupStatusCounters statusCounters, final TenantAware tenantAware,
+            final AuditorAware<String> auditorAware) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.actionRepository = actionRepository;
+        this.statusCounters = statusCounters;
+        this.tenantAware = tenantAware;
+        this.auditorAware = auditorAware;
+    }
+
+    /**
+     * Assigns the given targets to the rollout group.
+     *
+     * @param group
+     *            the targets are assigned to
+     * @param targetIds
+     *            of the targets which are not yet assigned to the group
+     */
+    public void assignTargetsToGroup(final RolloutGroup group, final List<Long> targetIds) {
+        if (targetIds.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_ROLLOUT_TARGET_GROUP, targetIds, targetIds.size(), (ps, targetId) -> {
+            ps.setLong(1, group.getId());
+            ps.setLong(2, targetId);
+        });
+    }
+
+    /**
+     * Creates a {@link Status#SCHEDULED} action for each of the given targets.
+     * Actions of the targets that are already scheduled are canceled, see
+     * {@link #cancelScheduledActions(List)}.
+     *
+     * @param targetIds
+     *            of the targets to create the actions for
+     * @param distributionSet
+     *            of the actions
+     * @param actionType
+     *            of the actions
+     * @param forcedTime
+     *            of the actions
+     * @param rollout
+     *            the actions belong to
+     * @param rolloutGroup
+     *            the actions belong to
+     */
+    public void createScheduledActions(final List<Long> targetIds, final DistributionSet distributionSet,
+            final ActionType actionType, final Long forcedTime, final Rollout rollout,
+            final RolloutGroup rolloutGroup) {
+        if (targetIds.isEmpty()) {
+            return;
+        }
+
+        cancelScheduledActions(targetIds);
+
+        final String tenant = tenantAware.getCurrentTenant().toUpperCase();
+        final String auditor = auditorAware.getCurrentAuditor();
+        final long now = System.currentTimeMillis();
+
+        jdbcTemplate.batchUpdate(INSERT_ACTION, targetIds, targetIds.size(), (ps, targetId) -> {
+            ps.setString(1, tenant);
+            ps.setLong(2, targetId);
+            ps.setLong(3, distributionSet.getId());
+            ps.setString(4, actionType.name());
+            setNullableLong(ps, 5, forcedTime);
+            ps.setInt(6, Status.SCHEDULED.ordinal());
+            ps.setBoolean(7, false);
+            setNullableLong(ps, 8, rollout != null ? rollout.getId() : null);
+            setNullableLong(ps, 9, rolloutGroup != null ? rolloutGroup.getId() : null);
+            ps.setLong(10, now);
+            ps.setString(11, auditor);
+            ps.setLong(12, 1L);
+        });
+    }
+
+    /**
+     * Cancels the {@link Status#SCHEDULED} actions of the given targets, see
+     * {@link ActionRepository#switchStatus(Status, List, boolean, Status)}.
+     * The canceled actions of rollout groups are moved to the
+     * {@link Status#CANCELED} counters of their groups in the same
+     * transaction, see {@link RolloutGroupStatusCounters}.
+     *
+     * @param targetIds
+     *            of the targets whose scheduled actions are canceled
+     */
+    public void cancelScheduledActions(final List<Long> targetIds) {
+        if (targetIds.isEmpty()) {
+            return;
+        }
+
+        final Map<Long, List<Long>> canceledByGroup = new HashMap<>();
+        namedJdbcTemplate.query(SELECT_SWITCHED_ROLLOUT_ACTIONS,
+                new MapSqlParameterSource("targetIds", targetIds).addValue("active", false)
+                        .addValue("status", Status.SCHEDULED.ordinal()).addValue("requiredMigrationStep", false),
+                rs -> {
+                    canceledByGroup.computeIfAbsent(rs.getLong(2), groupId -> new ArrayList<>()).add(rs.getLong(1));
+                });
+
+        actionRepository.switchStatus(Status.CANCELED, targetIds, false, Status.SCHEDULED);
+        statusCounters.statusChanged(canceledByGroup, Status.SCHEDULED, Status.CANCELED);
+    }
+
+    private static void setNullableLong(final PreparedStatement ps, final int index, final Long value)
+            throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
+    }
+}
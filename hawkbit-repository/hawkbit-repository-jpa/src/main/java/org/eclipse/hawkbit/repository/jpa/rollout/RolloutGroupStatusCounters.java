@@ -0,0 +1,300 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.TotalTargetCountActionStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Materialized amount of actions per {@link Status} of every rollout group.
+ * The counters are updated incrementally within the transaction that changes
+ * the status of an action, so that the rollout checks and the rollout views
+ * do not have to aggregate {@code sp_action} over and over again.
+ *
+ * Every counter is striped over {@value #STRIPES} rows by the ID of the
+ * action, i.e. the status updates of the targets of the same group do not
+ * serialize on a single row lock. The value of a counter is the sum of its
+ * stripes.
+ *
+ * Bulk status changes have to be written through
+ * {@link #statusChanged(Map, Status, Status)}. Status changes that bypass the
+ * counters let them drift. They are
+ * corrected by {@link #recount(Long)} which is called after the actions of a
+ * group have been created and periodically by the
+ * {@link RolloutStatusCountReconciler}. Groups without any counter rows are
+ * not materialized yet, readers have to fall back to the exact aggregation
+ * for them.
+ */
+public class RolloutGroupStatusCounters {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RolloutGroupStatusCounters.class);
+
+    private static final int STRIPES = 8;
+
+    private static final String UPDATE_COUNTER = "UPDATE sp_rolloutgroup_status_count SET counter = counter + ? "
+            + "WHERE rolloutgroup = ? AND status = ? AND stripe = ?";
+
+    private static final String INSERT_COUNTER = "INSERT INTO sp_rolloutgroup_status_count (rolloutgroup, status, stripe, counter) VALUES (?, ?, ?, ?)";
+
+    private static final String LOCK_GROUP_COUNTERS = "SELECT status, stripe FROM sp_rolloutgroup_status_count WHERE rolloutgroup = ? FOR UPDATE";
+
+    private static final String SET_COUNTER = "UPDATE sp_rolloutgroup_status_count SET counter = ? "
+            + "WHERE rolloutgroup = ? AND status = ? AND stripe = ?";
+
+    private static final String COUNT_GROUP_ACTIONS = "SELECT status, COUNT(id) FROM sp_action WHERE rolloutgroup = ? GROUP BY status";
+
+    private static final String SELECT_GROUP_COUNTERS = "SELECT rolloutgroup, status, SUM(counter) FROM sp_rolloutgroup_status_count "
+            + "WHERE rolloutgroup IN (:ids) GROUP BY rolloutgroup, status";
+
+    private static final String SELECT_ROLLOUT_COUNTERS = "SELECT g.rollout, g.id, c.status, SUM(c.counter) FROM sp_rolloutgroup g "
+            + "LEFT JOIN sp_rolloutgroup_status_count c ON c.rolloutgroup = g.id "
+            + "WHERE g.rollout IN (:ids) GROUP BY g.rollout, g.id, c.status";
+
+    private static final Status[] STATUS_VALUES = Status.values();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    private final TransactionTemplate recountTransaction;
+
+    /**
+     * Constructor.
+     *
+     * @param jdbcTemplate
+     *            to read and write the counters
+     * @param txManager
+     *            to recount a group in its own transaction
+     */
+    public RolloutGroupStatusCounters(final JdbcTemplate jdbcTemplate, final PlatformTransactionManager txManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.recountTransaction = new TransactionTemplate(txManager);
+        recountTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        recountTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    /**
+     * Moves the given action from the counter of its previous status to the
+     * counter of its current one. Has to be called within the transaction
+     * that changes the status.
+     *
+     * @param action
+     *            with its current status
+     * @param previous
+     *            status of the action before the change
+     */
+    public void statusChanged(final Action action, final Status previous) {
+        if (action.getRolloutGroup() == null || action.getStatus() == previous) {
+            return;
+        }
+
+        final long groupId = action.getRolloutGroup().getId();
+        final int stripe = (int) (action.getId() % STRIPES);
+        if (previous != null) {
+            add(groupId, previous, stripe, -1);
+        }
+        add(groupId, action.getStatus(), stripe, 1);
+    }
+
+    /**
+     * Moves the given actions from the counters of their previous status to
+     * the counters of their current one, e.g. after a bulk update of their
+     * status. Has to be called within the transaction that changes the status.
+     *
+     * @param actionIdsByGroup
+     *            IDs of the changed actions by the ID of their rollout group
+     * @param previous
+     *            status of the actions before the change
+     * @param current
+     *            status of the actions after the change
+     */
+    public void statusChanged(final Map<Long, List<Long>> actionIdsByGroup, final Status previous,
+            final Status current) {
+        if (previous == current) {
+            return;
+        }
+
+        actionIdsByGroup.forEach((groupId, actionIds) -> {
+            final long[] changedPerStripe = new long[STRIPES];
+            actionIds.forEach(actionId -> changedPerStripe[(int) (actionId % STRIPES)]++);
+            for (int stripe = 0; stripe < STRIPES; stripe++) {
+                if (changedPerStripe[stripe] > 0) {
+                    add(groupId, previous, stripe, -changedPerStripe[stripe]);
+                    add(groupId, current, stripe, changedPerStripe[stripe]);
+                }
+            }
+        });
+    }
+
+    private void add(final long groupId, final Status status, final int stripe, final long delta) {
+        if (jdbcTemplate.update(UPDATE_COUNTER, delta, groupId, status.ordinal(), stripe) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(INSERT_COUNTER, groupId, status.ordinal(), stripe, delta);
+        } catch (final DuplicateKeyException e) {
+            LOGGER.trace("Counter of group {} has been created concurrently", groupId, e);
+            jdbcTemplate.update(UPDATE_COUNTER, delta, groupId, status.ordinal(), stripe);
+        }
+    }
+
+    /**
+     * Recalculates the counters of the given group from its actions in a new
+     * transaction.
+     *
+     * @param groupId
+     *            of the rollout group to recount
+     */
+    public void recount(final Long groupId) {
+        recountTransaction.execute(status -> {
+            // lock the counters first so that concurrent status changes are
+            // either contained in the count or applied afterwards
+            final List<int[]> existing = new ArrayList<>();
+            jdbcTemplate.query(LOCK_GROUP_COUNTERS, rs -> {
+                existing.add(new int[] { rs.getInt(1), rs.getInt(2) });
+            }, groupId);
+
+            final Map<Integer, Long> counts = new HashMap<>();
+            jdbcTemplate.query(COUNT_GROUP_ACTIONS, rs -> {
+                counts.put(rs.getInt(1), rs.getLong(2));
+            }, groupId);
+
+            final Set<Integer> written = new HashSet<>();
+            for (final int[] counter : existing) {
+                final boolean first = counter[1] == 0;
+                jdbcTemplate.update(SET_COUNTER, first ? counts.getOrDefault(counter[0], 0L) : 0L, groupId,
+                        counter[0], counter[1]);
+                if (first) {
+                    written.add(counter[0]);
+                }
+            }
+            counts.entrySet().stream().filter(count -> !written.contains(count.getKey()))
+                    .forEach(count -> add(groupId, STATUS_VALUES[count.getKey()], 0, count.getValue()));
+
+            // a group without actions is materialized as well
+            if (existing.isEmpty() && counts.isEmpty()) {
+                add(groupId, Status.SCHEDULED, 0, 0);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * @param groupIds
+     *            of the rollout groups
+     * @return action count per status of every given group that has
+     *         materialized counters, groups without counters are not
+     *         contained
+     */
+    public Map<Long, Map<Status, Long>> getGroupCounts(final Collection<Long> groupIds) {
+        if (groupIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        final Map<Long, Map<Status, Long>> result = new HashMap<>();
+        namedJdbcTemplate.query(SELECT_GROUP_COUNTERS, new MapSqlParameterSource("ids", groupIds),
+                rs -> {
+                    final long groupId = rs.getLong(1);
+                    final int status = rs.getInt(2);
+                    result.computeIfAbsent(groupId, id -> new EnumMap<>(Status.class)).put(STATUS_VALUES[status],
+                            checkCount(groupId, status, rs.getLong(3)));
+                });
+        return result;
+    }
+
+    /**
+     * A negative counter is a bug as every status change has to be written
+     * through the counters. It is corrected by the next
+     * {@link #recount(Long)} but logged to reveal the status change that
+     * bypassed the counters.
+     */
+    private static long checkCount(final long groupId, final int status, final long count) {
+        if (count < 0) {
+            LOGGER.warn("Counter of status {} of rollout group {} is negative: {}", STATUS_VALUES[status], groupId,
+                    count);
+        }
+        return count;
+    }
+
+    /**
+     * @param groupId
+     *            of the rollout group
+     * @return action count per status of the group or <code>null</code> if
+     *         the group has no materialized counters
+     */
+    public Map<Status, Long> getGroupCounts(final Long groupId) {
+        return getGroupCounts(Collections.singleton(groupId)).get(groupId);
+    }
+
+    /**
+     * Sums up the counters of the groups of the given rollouts.
+     *
+     * @param rolloutIds
+     *            of the rollouts
+     * @return action count per status of every given rollout whose groups
+     *         are all materialized, the other rollouts and rollouts without
+     *         actions are not contained
+     */
+    public Map<Long, List<TotalTargetCountActionStatus>> getRolloutCounts(final Collection<Long> rolloutIds) {
+        if (rolloutIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        final Map<Long, Map<Status, Long>> counts = new HashMap<>();
+        final Set<Long> incomplete = new HashSet<>();
+        namedJdbcTemplate.query(SELECT_ROLLOUT_COUNTERS, new MapSqlParameterSource("ids", rolloutIds), rs -> {
+            final long rolloutId = rs.getLong(1);
+            final int status = rs.getInt(3);
+            if (rs.wasNull()) {
+                incomplete.add(rolloutId);
+                return;
+            }
+            counts.computeIfAbsent(rolloutId, id -> new EnumMap<>(Status.class)).merge(STATUS_VALUES[status],
+                    checkCount(rs.getLong(2), status, rs.getLong(4)), Long::sum);
+        });
+
+        final Map<Long, List<TotalTargetCountActionStatus>> result = new HashMap<>();
+        counts.forEach((rolloutId, statusCounts) -> {
+            if (incomplete.contains(rolloutId)) {
+                return;
+            }
+            final List<TotalTargetCountActionStatus> items = new ArrayList<>(statusCounts.size());
+            statusCounts.forEach((status, count) -> {
+                if (count > 0) {
+                    items.add(new TotalTargetCountActionStatus(rolloutId, status, count));
+                }
+            });
+            if (!items.isEmpty()) {
+                result.put(rolloutId, items);
+            }
+        });
+        return result;
+    }
+}
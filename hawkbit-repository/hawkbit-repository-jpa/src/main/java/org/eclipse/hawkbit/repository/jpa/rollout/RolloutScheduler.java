@@ -8,16 +8,25 @@
  */
 package org.eclipse.hawkbit.repository.jpa.rollout;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongConsumer;
+
+import javax.annotation.PostConstruct;
 
 import org.eclipse.hawkbit.repository.RolloutManagement;
 import org.eclipse.hawkbit.repository.RolloutProperties;
+import org.eclipse.hawkbit.repository.RolloutProperties.Scheduler;
 import org.eclipse.hawkbit.repository.SystemManagement;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
-import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Profile;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
@@ -27,6 +36,16 @@ import org.springframework.stereotype.Component;
  * {@link RolloutManagement#checkRunningRollouts(long)}. The delay between the
  * checks be be configured using the property
  * {@link #PROP_SCHEDULER_DELAY_PLACEHOLDER}.
+ *
+ * The tenants are checked in parallel by the {@code rolloutCheckExecutor} so
+ * that a tenant with large rollouts does not stall the rollouts of the others.
+ * The scheduler only hands the checks over to the executor, a tenant is not
+ * checked again until its former check is finished. In a
+ * cluster every tenant is owned by one node based on a consistent hash of the
+ * tenant. The other nodes check the tenant only with a delay that is extended
+ * by {@link RolloutProperties.Cluster#getTakeoverFactor()}, i.e. the
+ * optimistic claim of the rollouts by their last check time lets them take
+ * over only if the owner did not check the tenant in time.
  */
 @Component
 // don't active the rollout scheduler in test, otherwise it is hard to test
@@ -36,8 +55,9 @@ public class RolloutScheduler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RolloutScheduler.class);
 
-    @Autowired
-    private TenantAware tenantAware;
+    private static final String CHECK_RUNNING = "running";
+    private static final String CHECK_STARTING = "starting";
+    private static final String CHECK_CREATING = "creating";
 
     @Autowired
     private SystemManagement systemManagement;
@@ -51,6 +71,22 @@ public class RolloutScheduler {
     @Autowired
     private RolloutProperties rolloutProperties;
 
+    @Autowired
+    @Qualifier("rolloutCheckExecutor")
+    private Executor workers;
+
+    private TenantShardRing shardRing;
+
+    private final Map<String, TenantCheck> checksInProgress = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> lastCheckDurations = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        shardRing = new TenantShardRing(rolloutProperties.getCluster().getNodeId(),
+                rolloutProperties.getCluster().getNodes());
+    }
+
     /**
      * Scheduler method called by the spring-async mechanism. Retrieves all
      * tenants from the {@link SystemManagement#findTenants()} and runs for each
@@ -64,26 +100,7 @@ public class RolloutScheduler {
         }
 
         LOGGER.debug("rollout schedule checker has been triggered.");
-        // run this code in system code privileged to have the necessary
-        // permission to query and create entities.
-        systemSecurityContext.runAsSystem(() -> {
-            // workaround eclipselink that is currently not possible to
-            // execute a query without multitenancy if MultiTenant
-            // annotation is used.
-            // https://bugs.eclipse.org/bugs/show_bug.cgi?id=355458. So
-            // iterate through all tenants and execute the rollout check for
-            // each tenant seperately.
-            final List<String> tenants = systemManagement.findTenants();
-            LOGGER.info("Checking rollouts for {} tenants", tenants.size());
-            for (final String tenant : tenants) {
-                tenantAware.runAsTenant(tenant, () -> {
-                    final long fixedDelay = rolloutProperties.getScheduler().getFixedDelay();
-                    rolloutManagement.checkRunningRollouts(fixedDelay);
-                    return null;
-                });
-            }
-            return null;
-        });
+        checkTenants(CHECK_RUNNING, rolloutProperties.getScheduler(), rolloutManagement::checkRunningRollouts);
     }
 
     /**
@@ -99,26 +116,8 @@ public class RolloutScheduler {
         }
 
         LOGGER.debug("rollout starting schedule checker has been triggered.");
-        // run this code in system code privileged to have the necessary
-        // permission to query and create entities.
-        systemSecurityContext.runAsSystem(() -> {
-            // workaround eclipselink that is currently not possible to
-            // execute a query without multitenancy if MultiTenant
-            // annotation is used.
-            // https://bugs.eclipse.org/bugs/show_bug.cgi?id=355458. So
-            // iterate through all tenants and execute the rollout check for
-            // each tenant seperately.
-            final List<String> tenants = systemManagement.findTenants();
-            LOGGER.info("Checking starting rollouts for {} tenants", tenants.size());
-            for (final String tenant : tenants) {
-                tenantAware.runAsTenant(tenant, () -> {
-                    final long fixedDelay = rolloutProperties.getStartingScheduler().getFixedDelay();
-                    rolloutManagement.checkStartingRollouts(fixedDelay);
-                    return null;
-                });
-            }
-            return null;
-        });
+        checkTenants(CHECK_STARTING, rolloutProperties.getStartingScheduler(),
+                rolloutManagement::checkStartingRollouts);
     }
 
     /**
@@ -134,25 +133,113 @@ public class RolloutScheduler {
         }
 
         LOGGER.debug("rollout creating schedule checker has been triggered.");
-        // run this code in system code privileged to have the necessary
-        // permission to query and create entities.
-        systemSecurityContext.runAsSystem(() -> {
-            // workaround eclipselink that is currently not possible to
-            // execute a query without multitenancy if MultiTenant
-            // annotation is used.
-            // https://bugs.eclipse.org/bugs/show_bug.cgi?id=355458. So
-            // iterate through all tenants and execute the rollout check for
-            // each tenant seperately.
-            final List<String> tenants = systemManagement.findTenants();
-            LOGGER.info("Checking creating rollouts for {} tenants", tenants.size());
-            for (final String tenant : tenants) {
-                tenantAware.runAsTenant(tenant, () -> {
-                    final long fixedDelay = rolloutProperties.getCreatingScheduler().getFixedDelay();
-                    rolloutManagement.checkCreatingRollouts(fixedDelay);
-                    return null;
-                });
+        checkTenants(CHECK_CREATING, rolloutProperties.getCreatingScheduler(),
+                rolloutManagement::checkCreatingRollouts);
+    }
+
+    /**
+     * @return duration of the last check in milliseconds per check type and
+     *         tenant, e.g. {@code running.DEFAULT}
+     */
+    public Map<String, Long> getLastCheckDurations() {
+        return new HashMap<>(lastCheckDurations);
+    }
+
+    /**
+     * @return number of tenant checks that are queued or running
+     */
+    public int getChecksInProgress() {
+        return checksInProgress.size();
+    }
+
+    /**
+     * @return number of running tenant checks that exceeded their time budget
+     */
+    public int getChecksOverBudget() {
+        final long budget = rolloutProperties.getWorkers().getTenantTimeBudget();
+        return (int) checksInProgress.values().stream().filter(tenantCheck -> tenantCheck.isOverBudget(budget))
+                .count();
+    }
+
+    private void checkTenants(final String check, final Scheduler scheduler, final LongConsumer rolloutCheck) {
+        // workaround eclipselink that is currently not possible to
+        // execute a query without multitenancy if MultiTenant
+        // annotation is used.
+        // https://bugs.eclipse.org/bugs/show_bug.cgi?id=355458. So
+        // iterate through all tenants and execute the rollout check for
+        // each tenant seperately.
+        final List<String> tenants = systemSecurityContext.runAsSystem(systemManagement::findTenants);
+        LOGGER.info("Checking {} rollouts for {} tenants", check, tenants.size());
+
+        final long budget = rolloutProperties.getWorkers().getTenantTimeBudget();
+        for (final String tenant : tenants) {
+            final String key = checkKey(check, tenant);
+            final TenantCheck tenantCheck = new TenantCheck(check, tenant);
+            final TenantCheck running = checksInProgress.putIfAbsent(key, tenantCheck);
+            // a tenant is skipped until its former check is finished
+            if (running != null) {
+                if (running.isOverBudget(budget) && running.reportOverBudget()) {
+                    LOGGER.warn("{} rollouts check of tenant {} exceeded its time budget of {} ms", check, tenant,
+                            budget);
+                }
+                LOGGER.debug("{} rollouts check of tenant {} is still in progress", check, tenant);
+                continue;
             }
-            return null;
-        });
+
+            final long delay = shardRing.isOwner(tenant) ? scheduler.getFixedDelay()
+                    : scheduler.getFixedDelay() * rolloutProperties.getCluster().getTakeoverFactor();
+            try {
+                workers.execute(() -> runCheck(key, tenantCheck, rolloutCheck, delay));
+            } catch (final RejectedExecutionException e) {
+                checksInProgress.remove(key);
+                LOGGER.warn("{} rollouts check of tenant {} rejected, retrying with next run", check, tenant, e);
+            }
+        }
+    }
+
+    private void runCheck(final String key, final TenantCheck tenantCheck, final LongConsumer rolloutCheck,
+            final long delay) {
+        tenantCheck.startedAt = System.currentTimeMillis();
+        try {
+            // run this code in system code privileged to have the necessary
+            // permission to query and create entities.
+            systemSecurityContext.runAsSystemAsTenant(() -> {
+                rolloutCheck.accept(delay);
+                return null;
+            }, tenantCheck.tenant);
+        } catch (final RuntimeException e) {
+            LOGGER.error("{} rollouts check of tenant {} failed", tenantCheck.check, tenantCheck.tenant, e);
+        } finally {
+            lastCheckDurations.put(key, System.currentTimeMillis() - tenantCheck.startedAt);
+            checksInProgress.remove(key);
+        }
+    }
+
+    private static String checkKey(final String check, final String tenant) {
+        return check + "." + tenant;
+    }
+
+    private static final class TenantCheck {
+        private final String check;
+        private final String tenant;
+        private volatile long startedAt;
+        private boolean overBudgetReported;
+
+        private TenantCheck(final String check, final String tenant) {
+            this.check = check;
+            this.tenant = tenant;
+        }
+
+        private boolean isOverBudget(final long budget) {
+            // a queued check has its full budget as soon as it is started
+            final long started = startedAt;
+            return started != 0 && System.currentTimeMillis() - started >= budget;
+        }
+
+        private synchronized boolean reportOverBudget() {
+            final boolean first = !overBudgetReported;
+            overBudgetReported = true;
+            return first;
+        }
     }
 }
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.RolloutProperties;
+import org.eclipse.hawkbit.repository.SystemManagement;
+import org.eclipse.hawkbit.repository.jpa.RolloutGroupRepository;
+import org.eclipse.hawkbit.repository.model.RolloutGroup.RolloutGroupStatus;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Scheduler to recount the {@link RolloutGroupStatusCounters} of the
+ * scheduled and running rollout groups of all tenants. Corrects the drift of
+ * the counters caused by status changes that bypass them.
+ */
+// don't active the reconciler in test, otherwise it is hard to test
+@Profile("!test")
+public class RolloutStatusCountReconciler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RolloutStatusCountReconciler.class);
+
+    private final TenantAware tenantAware;
+
+    private final SystemManagement systemManagement;
+
+    private final SystemSecurityContext systemSecurityContext;
+
+    private final RolloutGroupRepository rolloutGroupRepository;
+
+    private final RolloutGroupStatusCounters statusCounters;
+
+    private final RolloutProperties rolloutProperties;
+
+    /**
+     * Constructor.
+     *
+     * @param tenantAware
+     *            to run as specific tenant
+     * @param systemManagement
+     *            to find all tenants
+     * @param systemSecurityContext
+     *            to run as system
+     * @param rolloutGroupRepository
+     *            to find the groups to recount
+     * @param statusCounters
+     *            to recount
+     * @param rolloutProperties
+     *            to check if the reconciler is enabled
+     */
+    public RolloutStatusCountReconciler(final TenantAware tenantAware, final SystemManagement systemManagement,
+            final SystemSecurityContext systemSecurityContext, final RolloutGroupRepository rolloutGroupRepository,
+            final RolloutGroupStatusCounters statusCounters, final RolloutProperties rolloutProperties) {
+        this.tenantAware = tenantAware;
+        this.systemManagement = systemManagement;
+        this.systemSecurityContext = systemSecurityContext;
+        this.rolloutGroupRepository = rolloutGroupRepository;
+        this.statusCounters = statusCounters;
+        this.rolloutProperties = rolloutProperties;
+    }
+
+    /**
+     * Scheduler method called by the spring-async mechanism. Retrieves all
+     * tenants from the {@link SystemManagement#findTenants()} and recounts for
+     * each tenant the counters of its {@link RolloutGroupStatus#SCHEDULED} and
+     * {@link RolloutGroupStatus#RUNNING} rollout groups.
+     */
+    @Scheduled(initialDelayString = RolloutProperties.PROP_STATUS_COUNT_RECONCILER_DELAY_PLACEHOLDER, fixedDelayString = RolloutProperties.PROP_STATUS_COUNT_RECONCILER_DELAY_PLACEHOLDER)
+    public void reconcile() {
+        if (!rolloutProperties.getStatusCountReconciler().isEnabled()) {
+            return;
+        }
+
+        LOGGER.debug("rollout status count reconciler has been triggered.");
+        systemSecurityContext.runAsSystem(() -> {
+            // workaround eclipselink that is currently not possible to
+            // execute a query without multitenancy if MultiTenant
+            // annotation is used.
+            // https://bugs.eclipse.org/bugs/show_bug.cgi?id=355458. So
+            // iterate through all tenants and recount the groups of each
+            // tenant separately.
+            final List<String> tenants = systemManagement.findTenants();
+            for (final String tenant : tenants) {
+                tenantAware.runAsTenant(tenant, () -> {
+                    reconcileTenant(tenant);
+                    return null;
+                });
+            }
+            return null;
+        });
+    }
+
+    private void reconcileTenant(final String tenant) {
+        final List<Long> groupIds = rolloutGroupRepository.findIdsByStatusOrStatus(RolloutGroupStatus.SCHEDULED,
+                RolloutGroupStatus.RUNNING);
+        for (final Long groupId : groupIds) {
+            try {
+                statusCounters.recount(groupId);
+            } catch (final DataAccessException e) {
+                LOGGER.warn("Failed to recount the status counters of rollout group {} of tenant {}", groupId,
+                        tenant, e);
+            }
+        }
+        LOGGER.debug("Recounted {} rollout groups of tenant {}", groupIds.size(), tenant);
+    }
+}
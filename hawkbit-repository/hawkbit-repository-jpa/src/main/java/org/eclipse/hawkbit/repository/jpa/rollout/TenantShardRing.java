@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Consistent hash ring that assigns each tenant to one node of the cluster.
+ * Every node is placed multiple times on the ring so that the tenants are
+ * evenly distributed and only the tenants of a node move if the node joins or
+ * leaves the cluster.
+ */
+public class TenantShardRing {
+
+    private static final int VIRTUAL_NODES = 128;
+
+    private static final HashFunction HASH = Hashing.murmur3_32();
+
+    private final NavigableMap<Integer, String> ring = new TreeMap<>();
+
+    private final String nodeId;
+
+    /**
+     * Constructor.
+     *
+     * @param nodeId
+     *            ID of this node
+     * @param nodes
+     *            IDs of all nodes of the cluster, the ring owns every tenant if
+     *            empty
+     */
+    public TenantShardRing(final String nodeId, final Collection<String> nodes) {
+        this.nodeId = nodeId;
+        if (nodeId == null) {
+            return;
+        }
+        for (final String node : nodes) {
+            for (int i = 0; i < VIRTUAL_NODES; i++) {
+                ring.put(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    /**
+     * @param tenant
+     *            to check
+     * @return <code>true</code> if this node is responsible for the given
+     *         tenant
+     */
+    public boolean isOwner(final String tenant) {
+        if (ring.isEmpty()) {
+            return true;
+        }
+        return nodeId.equals(getOwner(tenant));
+    }
+
+    /**
+     * @param tenant
+     *            to get the owner for
+     * @return ID of the node that is responsible for the given tenant or
+     *         <code>null</code> if no cluster is configured
+     */
+    public String getOwner(final String tenant) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        final Map.Entry<Integer, String> entry = ring.ceilingEntry(hash(tenant.toUpperCase()));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    private static int hash(final String value) {
+        return HASH.hashString(value, StandardCharsets.UTF_8).asInt();
+    }
+}
@@ -8,9 +8,12 @@
  */
 package org.eclipse.hawkbit.repository.jpa.rollout.condition;
 
+import java.util.Map;
+
 import org.eclipse.hawkbit.repository.jpa.ActionRepository;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRollout;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRolloutGroup;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutGroupStatusCounters;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Rollout;
 import org.eclipse.hawkbit.repository.model.RolloutGroup;
@@ -30,12 +33,23 @@ public class ThresholdRolloutGroupErrorCondition implements RolloutGroupConditio
     @Autowired
     private ActionRepository actionRepository;
 
+    @Autowired
+    private RolloutGroupStatusCounters rolloutGroupStatusCounters;
+
     @Override
     public boolean eval(final Rollout rollout, final RolloutGroup rolloutGroup, final String expression) {
-        final Long totalGroup = actionRepository.countByRolloutAndRolloutGroup((JpaRollout) rollout,
-                (JpaRolloutGroup) rolloutGroup);
-        final Long error = actionRepository.countByRolloutIdAndRolloutGroupIdAndStatus(rollout.getId(),
-                rolloutGroup.getId(), Action.Status.ERROR);
+        final Map<Action.Status, Long> statusCounts = rolloutGroupStatusCounters.getGroupCounts(rolloutGroup.getId());
+        final Long totalGroup;
+        final Long error;
+        if (statusCounts != null) {
+            totalGroup = statusCounts.values().stream().mapToLong(Long::longValue).sum();
+            error = statusCounts.getOrDefault(Action.Status.ERROR, 0L);
+        } else {
+            totalGroup = actionRepository.countByRolloutAndRolloutGroup((JpaRollout) rollout,
+                    (JpaRolloutGroup) rolloutGroup);
+            error = actionRepository.countByRolloutIdAndRolloutGroupIdAndStatus(rollout.getId(),
+                    rolloutGroup.getId(), Action.Status.ERROR);
+        }
         try {
             final Integer threshold = Integer.valueOf(expression);
 
@@ -8,7 +8,10 @@
  */
 package org.eclipse.hawkbit.repository.jpa.rollout.condition;
 
+import java.util.Map;
+
 import org.eclipse.hawkbit.repository.jpa.ActionRepository;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutGroupStatusCounters;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Rollout;
 import org.eclipse.hawkbit.repository.model.RolloutGroup;
@@ -28,6 +31,9 @@ public class ThresholdRolloutGroupSuccessCondition implements RolloutGroupCondit
     @Autowired
     private ActionRepository actionRepository;
 
+    @Autowired
+    private RolloutGroupStatusCounters rolloutGroupStatusCounters;
+
     @Override
     public boolean eval(final Rollout rollout, final RolloutGroup rolloutGroup, final String expression) {
 
@@ -38,8 +44,10 @@ public class ThresholdRolloutGroupSuccessCondition implements RolloutGroupCondit
             return true;
         }
 
-        final long finished = this.actionRepository.countByRolloutIdAndRolloutGroupIdAndStatus(rollout.getId(),
-                rolloutGroup.getId(), Action.Status.FINISHED);
+        final Map<Action.Status, Long> statusCounts = rolloutGroupStatusCounters.getGroupCounts(rolloutGroup.getId());
+        final long finished = statusCounts != null ? statusCounts.getOrDefault(Action.Status.FINISHED, 0L)
+                : actionRepository.countByRolloutIdAndRolloutGroupIdAndStatus(rollout.getId(), rolloutGroup.getId(),
+                        Action.Status.FINISHED);
         try {
             final Integer threshold = Integer.valueOf(expression);
             // calculate threshold
@@ -13,8 +13,11 @@ import static org.eclipse.hawkbit.repository.FieldNameProvider.SUB_ATTRIBUTE_SEP
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 import javax.persistence.criteria.CriteriaBuilder;
@@ -38,6 +41,12 @@ import org.springframework.beans.SimpleTypeConverter;
 import org.springframework.beans.TypeMismatchException;
 import org.springframework.data.jpa.domain.Specification;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
 import cz.jirutka.rsql.parser.RSQLParser;
 import cz.jirutka.rsql.parser.RSQLParserException;
 import cz.jirutka.rsql.parser.ast.AndNode;
@@ -87,6 +96,17 @@ public final class RSQLUtility {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RSQLUtility.class);
 
+    /**
+     * Maximum number of compiled RSQL queries kept in the
+     * {@link #getCacheStats() cache}.
+     */
+    public static final int MAX_COMPILED_QUERIES = 1000;
+
+    private static final RSQLParser PARSER = createParser();
+
+    private static final Cache<CompiledRsqlKey, CompiledRsql<?>> COMPILED_QUERIES = CacheBuilder.newBuilder()
+            .maximumSize(MAX_COMPILED_QUERIES).recordStats().build();
+
     /**
      * private constructor due utility class.
      */
@@ -98,6 +118,10 @@ public final class RSQLUtility {
      * parses an RSQL valid string into an JPA {@link Specification} which then
      * can be used to filter for JPA entities with the given RSQL query.
      *
+     * The query is parsed and its fields are validated once per query and
+     * field name provider, the result is cached and only bound to the
+     * {@link Root} and {@link CriteriaBuilder} of every query.
+     *
      * @param rsql
      *            the rsql query
      * @param fieldNameProvider
@@ -115,7 +139,17 @@ public final class RSQLUtility {
      */
     public static <A extends Enum<A> & FieldNameProvider, T> Specification<T> parse(final String rsql,
             final Class<A> fieldNameProvider, final VirtualPropertyReplacer virtualPropertyReplacer) {
-        return new RSQLSpecification<>(rsql.toLowerCase(), fieldNameProvider, virtualPropertyReplacer);
+        return new RSQLSpecification<>(normalize(rsql), fieldNameProvider, virtualPropertyReplacer, true);
+    }
+
+    /**
+     * Same as {@link #parse(String, Class, VirtualPropertyReplacer)} but
+     * parses the query for every use of the specification, e.g. to compare
+     * with the cached path.
+     */
+    static <A extends Enum<A> & FieldNameProvider, T> Specification<T> parseUncached(final String rsql,
+            final Class<A> fieldNameProvider, final VirtualPropertyReplacer virtualPropertyReplacer) {
+        return new RSQLSpecification<>(normalize(rsql), fieldNameProvider, virtualPropertyReplacer, false);
     }
 
     /**
@@ -129,12 +163,36 @@ public final class RSQLUtility {
         parseRsql(rsql);
     }
 
+    /**
+     * @return the statistics of the cache of compiled RSQL queries
+     */
+    public static CacheStats getCacheStats() {
+        return COMPILED_QUERIES.stats();
+    }
+
+    /**
+     * @return the number of compiled RSQL queries in the cache
+     */
+    public static long getCacheSize() {
+        return COMPILED_QUERIES.size();
+    }
+
+    private static String normalize(final String rsql) {
+        // the parser rejects null with an IllegalArgumentException
+        return rsql != null ? rsql.trim().toLowerCase() : null;
+    }
+
+    private static RSQLParser createParser() {
+        final Set<ComparisonOperator> operators = RSQLOperators.defaultOperators();
+        operators.add(new ComparisonOperator("=li=", false));
+        // the parser is thread safe
+        return new RSQLParser(operators);
+    }
+
     private static Node parseRsql(final String rsql) {
         try {
             LOGGER.debug("parsing rsql string {}", rsql);
-            final Set<ComparisonOperator> operators = RSQLOperators.defaultOperators();
-            operators.add(new ComparisonOperator("=li=", false));
-            return new RSQLParser(operators).parse(rsql);
+            return PARSER.parse(rsql);
         } catch (final IllegalArgumentException e) {
             throw new RSQLParameterSyntaxException("rsql filter must not be null", e);
         } catch (final RSQLParserException e) {
@@ -142,27 +200,52 @@ public final class RSQLUtility {
         }
     }
 
+    private static <A extends Enum<A> & FieldNameProvider> CompiledRsql<A> compile(final String rsql,
+            final Class<A> enumType) {
+        final Node rootNode = parseRsql(rsql);
+        final FieldValidationRSQLVisitor<A> validator = new FieldValidationRSQLVisitor<>(enumType);
+        rootNode.accept(validator);
+        return new CompiledRsql<>(rootNode, validator.fields);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A extends Enum<A> & FieldNameProvider> CompiledRsql<A> compileCached(final String rsql,
+            final Class<A> enumType) {
+        if (rsql == null) {
+            return compile(rsql, enumType);
+        }
+        try {
+            return (CompiledRsql<A>) COMPILED_QUERIES.get(new CompiledRsqlKey(rsql, enumType),
+                    () -> compile(rsql, enumType));
+        } catch (final ExecutionException | UncheckedExecutionException e) {
+            // invalid queries are not cached, rethrow the RSQL exception
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
     private static final class RSQLSpecification<A extends Enum<A> & FieldNameProvider, T> implements Specification<T> {
 
         private final String rsql;
         private final Class<A> enumType;
         private final VirtualPropertyReplacer virtualPropertyReplacer;
+        private final boolean cached;
 
         private RSQLSpecification(final String rsql, final Class<A> enumType,
-                final VirtualPropertyReplacer virtualPropertyReplacer) {
+                final VirtualPropertyReplacer virtualPropertyReplacer, final boolean cached) {
             this.rsql = rsql;
             this.enumType = enumType;
             this.virtualPropertyReplacer = virtualPropertyReplacer;
+            this.cached = cached;
         }
 
         @Override
         public Predicate toPredicate(final Root<T> root, final CriteriaQuery<?> query, final CriteriaBuilder cb) {
 
-            final Node rootNode = parseRsql(rsql);
+            final CompiledRsql<A> compiled = cached ? compileCached(rsql, enumType) : compile(rsql, enumType);
 
-            final JpqQueryRSQLVisitor<A, T> jpqQueryRSQLVisitor = new JpqQueryRSQLVisitor<>(root, cb, enumType,
+            final JpqQueryRSQLVisitor<A, T> jpqQueryRSQLVisitor = new JpqQueryRSQLVisitor<>(root, cb, compiled,
                     virtualPropertyReplacer);
-            final List<Predicate> accept = rootNode.<List<Predicate>, String> accept(jpqQueryRSQLVisitor);
+            final List<Predicate> accept = compiled.rootNode.<List<Predicate>, String> accept(jpqQueryRSQLVisitor);
 
             if (accept != null && !accept.isEmpty()) {
                 return cb.and(accept.toArray(new Predicate[accept.size()]));
@@ -173,57 +256,128 @@ public final class RSQLUtility {
     }
 
     /**
-     * An implementation of the {@link RSQLVisitor} to visit the parsed tokens
-     * and build jpa where clauses.
+     * Key of a {@link CompiledRsql} in the cache.
+     */
+    private static final class CompiledRsqlKey {
+
+        private final String rsql;
+        private final Class<?> enumType;
+
+        private CompiledRsqlKey(final String rsql, final Class<?> enumType) {
+            this.rsql = rsql;
+            this.enumType = enumType;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CompiledRsqlKey)) {
+                return false;
+            }
+            final CompiledRsqlKey other = (CompiledRsqlKey) obj;
+            return rsql.equals(other.rsql) && enumType.equals(other.enumType);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * rsql.hashCode() + enumType.hashCode();
+        }
+    }
+
+    /**
+     * The parsed RSQL query with the validated fields of its comparisons. It
+     * is immutable and only needs to be bound to a {@link Root} and
+     * {@link CriteriaBuilder} by the {@link JpqQueryRSQLVisitor}.
      *
+     * @param <A>
+     *            the enum for providing the field name of the entity field to
+     *            filter on.
+     */
+    private static final class CompiledRsql<A extends Enum<A> & FieldNameProvider> {
+
+        private final Node rootNode;
+        private final Map<ComparisonNode, ValidatedField<A>> fields;
+
+        private CompiledRsql(final Node rootNode, final Map<ComparisonNode, ValidatedField<A>> fields) {
+            this.rootNode = rootNode;
+            this.fields = fields;
+        }
+
+        private ValidatedField<A> getField(final ComparisonNode node) {
+            return fields.get(node);
+        }
+    }
+
+    /**
+     * The field of a {@link ComparisonNode} with its property path.
      *
+     * @param <A>
+     *            the enum for providing the field name of the entity field to
+     *            filter on.
+     */
+    private static final class ValidatedField<A extends Enum<A> & FieldNameProvider> {
+
+        private final A enumField;
+        private final String[] propertyPath;
+
+        private ValidatedField(final A enumField, final String finalProperty) {
+            this.enumField = enumField;
+            this.propertyPath = finalProperty.split("\\" + SUB_ATTRIBUTE_SEPERATOR);
+        }
+    }
+
+    /**
+     * An implementation of the {@link RSQLVisitor} which validates the fields
+     * of all comparisons of a parsed query against the enum.
      *
      * @param <A>
      *            the enum for providing the field name of the entity field to
      *            filter on.
-     * @param <T>
-     *            the entity type referenced by the root
      */
-    private static final class JpqQueryRSQLVisitor<A extends Enum<A> & FieldNameProvider, T>
-            implements RSQLVisitor<List<Predicate>, String> {
-        public static final Character LIKE_WILDCARD = '*';
+    private static final class FieldValidationRSQLVisitor<A extends Enum<A> & FieldNameProvider>
+            implements RSQLVisitor<Void, String> {
 
-        private final Root<T> root;
-        private final CriteriaBuilder cb;
         private final Class<A> enumType;
-        private final VirtualPropertyReplacer virtualPropertyReplacer;
-
-        private final SimpleTypeConverter simpleTypeConverter;
+        // the nodes are compared by identity as equal comparisons might occur
+        // more than once in a query
+        private final Map<ComparisonNode, ValidatedField<A>> fields = new IdentityHashMap<>();
 
-        private JpqQueryRSQLVisitor(final Root<T> root, final CriteriaBuilder cb, final Class<A> enumType,
-                final VirtualPropertyReplacer virtualPropertyReplacer) {
-            this.root = root;
-            this.cb = cb;
+        private FieldValidationRSQLVisitor(final Class<A> enumType) {
             this.enumType = enumType;
-            this.virtualPropertyReplacer = virtualPropertyReplacer;
-            simpleTypeConverter = new SimpleTypeConverter();
         }
 
         @Override
-        public List<Predicate> visit(final AndNode node, final String param) {
-            final List<Predicate> childs = acceptChilds(node);
-            if (!childs.isEmpty()) {
-                return toSingleList(cb.and(childs.toArray(new Predicate[childs.size()])));
-            }
-            return toSingleList(cb.conjunction());
+        public Void visit(final AndNode node, final String param) {
+            node.getChildren().forEach(child -> child.accept(this));
+            return null;
         }
 
         @Override
-        public List<Predicate> visit(final OrNode node, final String param) {
-            final List<Predicate> childs = acceptChilds(node);
-            if (!childs.isEmpty()) {
-                return toSingleList(cb.or(childs.toArray(new Predicate[childs.size()])));
-            }
-            return toSingleList(cb.conjunction());
+        public Void visit(final OrNode node, final String param) {
+            node.getChildren().forEach(child -> child.accept(this));
+            return null;
         }
 
-        private static List<Predicate> toSingleList(final Predicate predicate) {
-            return Collections.singletonList(predicate);
+        @Override
+        // Exception squid:S2095 - see
+        // https://jira.sonarsource.com/browse/SONARJAVA-1478
+        @SuppressWarnings({ "squid:S2095" })
+        public Void visit(final ComparisonNode node, final String param) {
+            A fieldName = null;
+            try {
+                fieldName = getFieldEnumByName(node);
+            } catch (final IllegalArgumentException e) {
+                throw new RSQLParameterUnsupportedFieldException("The given search parameter field {"
+                        + node.getSelector() + "} does not exist, must be one of the following fields {"
+                        + Arrays.stream(enumType.getEnumConstants()).map(v -> v.name().toLowerCase())
+                                .collect(Collectors.toList())
+                        + "}", e);
+
+            }
+            fields.put(node, new ValidatedField<>(fieldName, getAndValidatePropertyFieldName(fieldName, node)));
+            return null;
         }
 
         private String getAndValidatePropertyFieldName(final A propertyEnum, final ComparisonNode node) {
@@ -282,54 +436,6 @@ public final class RSQLUtility {
                     new Exception());
         }
 
-        private Path<Object> getFieldPath(final A enumField, final String finalProperty) {
-            Path<Object> fieldPath = null;
-            final String[] split = finalProperty.split("\\" + SUB_ATTRIBUTE_SEPERATOR);
-            if (split.length == 0) {
-                return root.get(split[0]);
-            }
-
-            for (int i = 0; i < split.length; i++) {
-                final boolean isMapKeyField = enumField.isMap() && i == (split.length - 1);
-                if (isMapKeyField) {
-                    return fieldPath;
-                }
-
-                final String fieldNameSplit = split[i];
-                fieldPath = (fieldPath != null) ? fieldPath.get(fieldNameSplit) : root.get(fieldNameSplit);
-            }
-            return fieldPath;
-        }
-
-        @Override
-        // Exception squid:S2095 - see
-        // https://jira.sonarsource.com/browse/SONARJAVA-1478
-        @SuppressWarnings({ "squid:S2095" })
-        public List<Predicate> visit(final ComparisonNode node, final String param) {
-            A fieldName = null;
-            try {
-                fieldName = getFieldEnumByName(node);
-            } catch (final IllegalArgumentException e) {
-                throw new RSQLParameterUnsupportedFieldException("The given search parameter field {"
-                        + node.getSelector() + "} does not exist, must be one of the following fields {"
-                        + Arrays.stream(enumType.getEnumConstants()).map(v -> v.name().toLowerCase())
-                                .collect(Collectors.toList())
-                        + "}", e);
-
-            }
-            final String finalProperty = getAndValidatePropertyFieldName(fieldName, node);
-
-            final List<String> values = node.getArguments();
-            final List<Object> transformedValue = new ArrayList<>();
-            final Path<Object> fieldPath = getFieldPath(fieldName, finalProperty);
-
-            for (final String value : values) {
-                transformedValue.add(convertValueIfNecessary(node, fieldName, value, fieldPath));
-            }
-
-            return mapToPredicate(node, fieldPath, node.getArguments(), transformedValue, fieldName);
-        }
-
         // Exception squid:S2095 - see
         // https://jira.sonarsource.com/browse/SONARJAVA-1478
         @SuppressWarnings({ "squid:S2095" })
@@ -366,6 +472,95 @@ public final class RSQLUtility {
             LOGGER.debug("get fieldidentifier by name {} of enum type {}", enumName, enumType);
             return Enum.valueOf(enumType, enumName.toUpperCase());
         }
+    }
+
+    /**
+     * An implementation of the {@link RSQLVisitor} to visit the parsed tokens
+     * of a {@link CompiledRsql} and build jpa where clauses.
+     *
+     *
+     *
+     * @param <A>
+     *            the enum for providing the field name of the entity field to
+     *            filter on.
+     * @param <T>
+     *            the entity type referenced by the root
+     */
+    private static final class JpqQueryRSQLVisitor<A extends Enum<A> & FieldNameProvider, T>
+            implements RSQLVisitor<List<Predicate>, String> {
+        public static final Character LIKE_WILDCARD = '*';
+
+        private final Root<T> root;
+        private final CriteriaBuilder cb;
+        private final CompiledRsql<A> compiled;
+        private final VirtualPropertyReplacer virtualPropertyReplacer;
+
+        private final SimpleTypeConverter simpleTypeConverter;
+
+        private JpqQueryRSQLVisitor(final Root<T> root, final CriteriaBuilder cb, final CompiledRsql<A> compiled,
+                final VirtualPropertyReplacer virtualPropertyReplacer) {
+            this.root = root;
+            this.cb = cb;
+            this.compiled = compiled;
+            this.virtualPropertyReplacer = virtualPropertyReplacer;
+            simpleTypeConverter = new SimpleTypeConverter();
+        }
+
+        @Override
+        public List<Predicate> visit(final AndNode node, final String param) {
+            final List<Predicate> childs = acceptChilds(node);
+            if (!childs.isEmpty()) {
+                return toSingleList(cb.and(childs.toArray(new Predicate[childs.size()])));
+            }
+            return toSingleList(cb.conjunction());
+        }
+
+        @Override
+        public List<Predicate> visit(final OrNode node, final String param) {
+            final List<Predicate> childs = acceptChilds(node);
+            if (!childs.isEmpty()) {
+                return toSingleList(cb.or(childs.toArray(new Predicate[childs.size()])));
+            }
+            return toSingleList(cb.conjunction());
+        }
+
+        private static List<Predicate> toSingleList(final Predicate predicate) {
+            return Collections.singletonList(predicate);
+        }
+
+        private Path<Object> getFieldPath(final A enumField, final String[] split) {
+            Path<Object> fieldPath = null;
+            if (split.length == 0) {
+                return root.get(split[0]);
+            }
+
+            for (int i = 0; i < split.length; i++) {
+                final boolean isMapKeyField = enumField.isMap() && i == (split.length - 1);
+                if (isMapKeyField) {
+                    return fieldPath;
+                }
+
+                final String fieldNameSplit = split[i];
+                fieldPath = (fieldPath != null) ? fieldPath.get(fieldNameSplit) : root.get(fieldNameSplit);
+            }
+            return fieldPath;
+        }
+
+        @Override
+        public List<Predicate> visit(final ComparisonNode node, final String param) {
+            final ValidatedField<A> field = compiled.getField(node);
+            final A fieldName = field.enumField;
+
+            final List<String> values = node.getArguments();
+            final List<Object> transformedValue = new ArrayList<>();
+            final Path<Object> fieldPath = getFieldPath(fieldName, field.propertyPath);
+
+            for (final String value : values) {
+                transformedValue.add(convertValueIfNecessary(node, fieldName, value, fieldPath));
+            }
+
+            return mapToPredicate(node, fieldPath, node.getArguments(), transformedValue, fieldName);
+        }
 
         private Object convertValueIfNecessary(final ComparisonNode node, final A fieldName, final String value,
                 final Path<Object> fieldPath) {
@@ -176,6 +176,17 @@ public final class TargetSpecifications {
         };
     }
 
+    /**
+     * {@link Specification} for retrieving {@link Target}s by their IDs.
+     *
+     * @param targetIds
+     *            to search for
+     * @return the {@link Target} {@link Specification}
+     */
+    public static Specification<JpaTarget> hasIdIn(final Collection<Long> targetIds) {
+        return (targetRoot, query, cb) -> targetRoot.get(JpaTarget_.id).in(targetIds);
+    }
+
     /**
      * Finds all targets by given {@link Target#getControllerId()}s and which
      * are not yet assigned to given {@link DistributionSet}.
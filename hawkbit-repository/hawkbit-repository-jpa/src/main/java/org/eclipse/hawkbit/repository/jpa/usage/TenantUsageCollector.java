@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.usage;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.hawkbit.repository.report.model.SystemUsageReport;
+import org.eclipse.hawkbit.repository.report.model.TenantUsage;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Collects the usage statistics of all tenants with one grouped query per
+ * table instead of counting the entities of every tenant separately.
+ *
+ * The native queries punch through the tenant boundaries on purpose, so they
+ * have to be used with care!
+ */
+public class TenantUsageCollector {
+
+    private static final String COUNT_TARGETS = "SELECT tenant, COUNT(id) FROM sp_target GROUP BY tenant";
+
+    private static final String COUNT_ARTIFACTS = "SELECT sm.tenant, COUNT(a.id), SUM(a.file_size) FROM sp_artifact a "
+            + "INNER JOIN sp_base_software_module sm ON a.software_module = sm.id WHERE sm.deleted = 0 "
+            + "GROUP BY sm.tenant";
+
+    private static final String COUNT_ACTIONS = "SELECT tenant, COUNT(id) FROM sp_action GROUP BY tenant";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor.
+     *
+     * @param jdbcTemplate
+     *            to execute the grouped queries
+     */
+    public TenantUsageCollector(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return the usage of every tenant that owns targets, artifacts or
+     *         actions, named by the tenant column of the tables
+     */
+    public Collection<TenantUsage> collect() {
+        final Map<String, TenantUsage> usages = new LinkedHashMap<>();
+
+        jdbcTemplate.query(COUNT_TARGETS, rs -> {
+            usageOf(usages, rs.getString(1)).setTargets(rs.getLong(2));
+        });
+        jdbcTemplate.query(COUNT_ARTIFACTS, rs -> {
+            usageOf(usages, rs.getString(1)).setArtifacts(rs.getLong(2)).setOverallArtifactVolumeInBytes(rs.getLong(3));
+        });
+        jdbcTemplate.query(COUNT_ACTIONS, rs -> {
+            usageOf(usages, rs.getString(1)).setActions(rs.getLong(2));
+        });
+
+        return usages.values();
+    }
+
+    /**
+     * Creates the system usage report of the given tenants. The overall
+     * values include the usage of all tenants, the tenants without any usage
+     * are reported with zero values.
+     *
+     * @param usages
+     *            of the tenants as collected by {@link #collect()}
+     * @param tenants
+     *            names of the tenants to report
+     * @return the system usage report
+     */
+    public static SystemUsageReport toReport(final Collection<TenantUsage> usages, final List<String> tenants) {
+        final Map<String, TenantUsage> byTenant = new LinkedHashMap<>();
+        long targets = 0;
+        long artifacts = 0;
+        long actions = 0;
+        long artifactVolume = 0;
+        for (final TenantUsage usage : usages) {
+            byTenant.put(usage.getTenantName().toUpperCase(), usage);
+            targets += usage.getTargets();
+            artifacts += usage.getArtifacts();
+            actions += usage.getActions();
+            artifactVolume += usage.getOverallArtifactVolumeInBytes();
+        }
+
+        final SystemUsageReport report = new SystemUsageReport(targets, artifacts, actions, artifactVolume);
+        for (final String tenant : tenants) {
+            final TenantUsage usage = byTenant.get(tenant.toUpperCase());
+            final TenantUsage tenantUsage = new TenantUsage(tenant);
+            if (usage != null) {
+                tenantUsage.setTargets(usage.getTargets()).setArtifacts(usage.getArtifacts())
+                        .setOverallArtifactVolumeInBytes(usage.getOverallArtifactVolumeInBytes())
+                        .setActions(usage.getActions());
+            }
+            report.addTenantData(tenantUsage);
+        }
+        return report;
+    }
+
+    private static TenantUsage usageOf(final Map<String, TenantUsage> usages, final String tenant) {
+        return usages.computeIfAbsent(tenant.toUpperCase(), TenantUsage::new);
+    }
+}
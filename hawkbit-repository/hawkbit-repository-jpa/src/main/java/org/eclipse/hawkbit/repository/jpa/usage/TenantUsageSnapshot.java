@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.usage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.hawkbit.repository.report.model.TenantUsage;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Snapshot of the usage statistics of all tenants in the
+ * {@code sp_tenant_usage} table, see {@link TenantUsageSnapshotScheduler}.
+ * Reading the snapshot is a single query over one row per tenant, independent
+ * of the number of targets, artifacts and actions in the system.
+ */
+public class TenantUsageSnapshot {
+
+    private static final String SELECT_USAGE = "SELECT tenant, targets, artifacts, artifact_volume, actions "
+            + "FROM sp_tenant_usage";
+
+    private static final String DELETE_USAGE = "DELETE FROM sp_tenant_usage";
+
+    private static final String INSERT_USAGE = "INSERT INTO sp_tenant_usage "
+            + "(tenant, targets, artifacts, artifact_volume, actions, refreshed_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TenantUsageCollector tenantUsageCollector;
+
+    private final TransactionTemplate transaction;
+
+    /**
+     * Constructor.
+     *
+     * @param jdbcTemplate
+     *            to read and write the snapshot
+     * @param tenantUsageCollector
+     *            to collect the usage of all tenants
+     * @param txManager
+     *            to replace the snapshot in one transaction
+     */
+    public TenantUsageSnapshot(final JdbcTemplate jdbcTemplate, final TenantUsageCollector tenantUsageCollector,
+            final PlatformTransactionManager txManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tenantUsageCollector = tenantUsageCollector;
+        this.transaction = new TransactionTemplate(txManager);
+        transaction.setName("tenant-usage-snapshot");
+    }
+
+    /**
+     * Collects the usage of all tenants and replaces the snapshot with it.
+     *
+     * @return the number of tenants in the snapshot
+     */
+    public int refresh() {
+        return transaction.execute(status -> {
+            final List<TenantUsage> usages = new ArrayList<>(tenantUsageCollector.collect());
+            final long now = System.currentTimeMillis();
+
+            jdbcTemplate.update(DELETE_USAGE);
+            jdbcTemplate.batchUpdate(INSERT_USAGE, usages, usages.size(), (ps, usage) -> {
+                ps.setString(1, usage.getTenantName());
+                ps.setLong(2, usage.getTargets());
+                ps.setLong(3, usage.getArtifacts());
+                ps.setLong(4, usage.getOverallArtifactVolumeInBytes());
+                ps.setLong(5, usage.getActions());
+                ps.setLong(6, now);
+            });
+            return usages.size();
+        });
+    }
+
+    /**
+     * @return the usage of all tenants as of the last refresh or
+     *         {@link Optional#empty()} if the snapshot has not been refreshed
+     *         yet
+     */
+    public Optional<Collection<TenantUsage>> read() {
+        final List<TenantUsage> usages = jdbcTemplate.query(SELECT_USAGE,
+                (rs, rowNum) -> new TenantUsage(rs.getString(1)).setTargets(rs.getLong(2))
+                        .setArtifacts(rs.getLong(3)).setOverallArtifactVolumeInBytes(rs.getLong(4))
+                        .setActions(rs.getLong(5)));
+        if (usages.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(usages);
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.usage;
+
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Scheduler to refresh the {@link TenantUsageSnapshot} if it is enabled.
+ */
+// don't active the snapshot scheduler in test, otherwise it is hard to test
+@Profile("!test")
+public class TenantUsageSnapshotScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TenantUsageSnapshotScheduler.class);
+
+    private final RepositoryProperties repositoryProperties;
+
+    private final TenantUsageSnapshot tenantUsageSnapshot;
+
+    /**
+     * Constructor.
+     *
+     * @param repositoryProperties
+     *            to check if the snapshot is enabled
+     * @param tenantUsageSnapshot
+     *            to refresh
+     */
+    public TenantUsageSnapshotScheduler(final RepositoryProperties repositoryProperties,
+            final TenantUsageSnapshot tenantUsageSnapshot) {
+        this.repositoryProperties = repositoryProperties;
+        this.tenantUsageSnapshot = tenantUsageSnapshot;
+    }
+
+    /**
+     * Scheduler method called by the spring-async mechanism. Refreshes the
+     * usage snapshot of all tenants.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = RepositoryProperties.PROP_USAGE_SNAPSHOT_DELAY_PLACEHOLDER)
+    public void refreshSnapshot() {
+        if (!repositoryProperties.getUsageSnapshot().isEnabled()) {
+            return;
+        }
+
+        LOGGER.debug("tenant usage snapshot refresh has been triggered.");
+        try {
+            final int tenants = tenantUsageSnapshot.refresh();
+            LOGGER.debug("Refreshed the usage snapshot of {} tenants", tenants);
+        } catch (final DataAccessException e) {
+            LOGGER.warn("Failed to refresh the tenant usage snapshot", e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+create table sp_tenant_usage (
+    tenant varchar(40) not null,
+    targets bigint not null,
+    artifacts bigint not null,
+    artifact_volume bigint not null,
+    actions bigint not null,
+    refreshed_at bigint not null,
+    primary key (tenant)
+);
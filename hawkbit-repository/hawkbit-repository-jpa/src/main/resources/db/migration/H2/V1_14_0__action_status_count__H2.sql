@@ -0,0 +1,13 @@
+alter table sp_action add column status_count bigint not null default 0;
+alter table sp_action add column last_status integer;
+alter table sp_action add column last_status_at bigint;
+
+update sp_action set status_count =
+    (select count(s.id) from sp_action_status s where s.action = sp_action.id)
+    + coalesce((select ar.entries from sp_action_status_archive ar where ar.action = sp_action.id), 0);
+
+update sp_action set
+    last_status = (select s.status from sp_action_status s where s.id =
+        (select max(l.id) from sp_action_status l where l.action = sp_action.id)),
+    last_status_at = (select s.target_occurred_at from sp_action_status s where s.id =
+        (select max(l.id) from sp_action_status l where l.action = sp_action.id));
@@ -0,0 +1,13 @@
+create table sp_rolloutgroup_status_count (
+    rolloutgroup bigint not null,
+    status integer not null,
+    stripe integer not null,
+    counter bigint not null,
+    primary key (rolloutgroup, status, stripe)
+);
+
+alter table sp_rolloutgroup_status_count
+    add constraint fk_rolloutgroup_status_count_rolloutgroup
+    foreign key (rolloutgroup)
+    references sp_rolloutgroup (id)
+    on delete cascade;
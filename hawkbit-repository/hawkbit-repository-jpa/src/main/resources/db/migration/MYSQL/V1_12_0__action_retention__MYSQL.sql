@@ -0,0 +1,17 @@
+create index sp_idx_action_03 on sp_action (tenant, active, last_modified_at);
+
+create table sp_action_status_archive (
+    action bigint not null,
+    tenant varchar(40) not null,
+    entries bigint not null,
+    first_occurred_at bigint not null,
+    last_occurred_at bigint not null,
+    summary longblob not null,
+    primary key (action)
+);
+
+alter table sp_action_status_archive
+    add constraint fk_action_status_archive_action
+    foreign key (action)
+    references sp_action (id)
+    on delete cascade;
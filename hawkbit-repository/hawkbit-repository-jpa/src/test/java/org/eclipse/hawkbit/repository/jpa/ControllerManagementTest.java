@@ -15,13 +15,18 @@ import javax.validation.ConstraintViolationException;
 
 import org.eclipse.hawkbit.repository.RepositoryProperties;
 import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.ActionCreatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.ActionUpdatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.CancelTargetAssignmentEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.DistributionSetCreatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.TargetCreatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
 import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
+import org.eclipse.hawkbit.repository.jpa.poll.ControllerPollViewCache;
+import org.eclipse.hawkbit.repository.jpa.poll.TargetPollBuffer;
 import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.ControllerPollView;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
@@ -42,6 +47,12 @@ public class ControllerManagementTest extends AbstractJpaIntegrationTest {
     @Autowired
     private RepositoryProperties repositoryProperties;
 
+    @Autowired
+    private TargetPollBuffer targetPollBuffer;
+
+    @Autowired
+    private ControllerPollViewCache controllerPollViewCache;
+
     @Test
     @Description("Controller adds a new action status.")
     @ExpectEvents({ @Expect(type = TargetCreatedEvent.class, count = 1),
@@ -77,6 +88,30 @@ public class ControllerManagementTest extends AbstractJpaIntegrationTest {
                 .isEqualTo(3);
     }
 
+    @Test
+    @Description("Verifies that informational action status entries and the retrieval of a canceled action are "
+            + "counted on the action without updating it and that a repeated retrieval is detected for an outdated "
+            + "action.")
+    public void actionStatusIsCountedWithoutUpdatingTheAction() {
+        final DistributionSet ds = testdataFactory.createDistributionSet("");
+        final Target target = testdataFactory.createTarget();
+        final Long actionId = assignDistributionSet(ds.getId(), target.getControllerId()).getActions().get(0);
+        final Action outdated = deploymentManagement.cancelAction(deploymentManagement.findAction(actionId), target);
+        final int revision = ((JpaAction) deploymentManagement.findAction(actionId)).getOptLockRevision();
+
+        controllerManagament.addInformationalActionStatus(
+                entityFactory.actionStatus().create(actionId).status(Action.Status.RUNNING).message("info"));
+        controllerManagament.registerRetrieved(outdated, "retrieved");
+        controllerManagament.registerRetrieved(outdated, "retrieved again");
+
+        final JpaAction action = (JpaAction) deploymentManagement.findAction(actionId);
+        assertThat(action.getOptLockRevision()).as("action should not be updated").isEqualTo(revision);
+        assertThat(action.getStatus()).isEqualTo(Action.Status.CANCELING);
+        assertThat(action.getStatusCount()).as("running, canceling, info and retrieved").isEqualTo(4);
+        assertThat(action.getLastStatus()).isEqualTo(Action.Status.RETRIEVED);
+        assertThat(actionStatusRepository.countByAction(action)).isEqualTo(4);
+    }
+
     @Test
     @Description("Register a controller which does not exist")
     public void testfindOrRegisterTargetIfItDoesNotexist() {
@@ -171,4 +206,128 @@ public class ControllerManagementTest extends AbstractJpaIntegrationTest {
         assertThat(deploymentManagement.findActionStatusByAction(pageReq, action).getNumberOfElements()).isEqualTo(4);
     }
 
+    @Test
+    @Description("Verifies that polls of a registered target are buffered and written with the next flush while the "
+            + "first poll of an unknown target is still written directly.")
+    public void pollsAreBufferedIfWriteBehindIsEnabled() {
+        repositoryProperties.getPollBuffer().setEnabled(true);
+        try {
+            final Target target = testdataFactory.createTarget();
+            assertThat(target.getTargetInfo().getUpdateStatus()).isEqualTo(TargetUpdateStatus.UNKNOWN);
+
+            // UNKNOWN -> REGISTERED is written directly
+            controllerManagament.updateLastTargetQuery(target.getControllerId(), null);
+            final Long registeredQuery = targetManagement.findTargetByControllerID(target.getControllerId())
+                    .getTargetInfo().getLastTargetQuery();
+            assertThat(registeredQuery).isNotNull();
+            assertThat(targetManagement.findTargetByControllerID(target.getControllerId()).getTargetInfo()
+                    .getUpdateStatus()).isEqualTo(TargetUpdateStatus.REGISTERED);
+            assertThat(targetPollBuffer.size()).isEqualTo(0);
+
+            // further polls are merged in the buffer, the newest one wins
+            controllerManagament.updateLastTargetQuery(target.getControllerId(), null);
+            controllerManagament.updateLastTargetQuery(target.getControllerId(), null);
+            final long bufferedQuery = registeredQuery + 60_000;
+            assertThat(targetPollBuffer.offer(tenantAware.getCurrentTenant(), target.getId(), bufferedQuery, null))
+                    .isTrue();
+            assertThat(targetPollBuffer.offer(tenantAware.getCurrentTenant(), target.getId(), bufferedQuery - 1, null))
+                    .isTrue();
+            assertThat(targetPollBuffer.size()).isEqualTo(1);
+
+            targetPollBuffer.flush();
+            assertThat(targetPollBuffer.size()).isEqualTo(0);
+            entityManager.clear();
+            assertThat(targetManagement.findTargetByControllerID(target.getControllerId()).getTargetInfo()
+                    .getLastTargetQuery()).isEqualTo(bufferedQuery);
+        } finally {
+            repositoryProperties.getPollBuffer().setEnabled(false);
+        }
+    }
+
+    @Test
+    @Description("Verifies that the poll view of a controller is served from the cache until it gets invalidated.")
+    public void pollViewIsCachedUntilInvalidated() {
+        repositoryProperties.getPollViewCache().setEnabled(true);
+        try {
+            final ControllerPollView view = controllerManagament.pollControllerBase("AA", null);
+            assertThat(view.getActionId()).isNull();
+            assertThat(targetRepository.count()).as("target should be registered").isEqualTo(1L);
+
+            assertThat(controllerManagament.pollControllerBase("AA", null)).as("view should be cached")
+                    .isSameAs(view);
+
+            controllerPollViewCache
+                    .onTargetDelete(new TargetDeletedEvent(tenantAware.getCurrentTenant(), view.getTargetId(), "test"));
+
+            final ControllerPollView reloaded = controllerManagament.pollControllerBase("AA", null);
+            assertThat(reloaded).as("view should be reloaded").isNotSameAs(view);
+            assertThat(reloaded.getTargetId()).isEqualTo(view.getTargetId());
+        } finally {
+            repositoryProperties.getPollViewCache().setEnabled(false);
+        }
+    }
+
+    @Test
+    @Description("Verifies that the poll view of a controller is invalidated by an assignment to it and that the "
+            + "assignment to another controller neither invalidates it nor prevents its caching.")
+    public void pollViewIsInvalidatedByAssignment() {
+        repositoryProperties.getPollViewCache().setEnabled(true);
+        try {
+            final String tenant = tenantAware.getCurrentTenant();
+            final DistributionSet ds = testdataFactory.createDistributionSet("");
+            testdataFactory.createTarget("BB");
+            final ControllerPollView view = controllerManagament.pollControllerBase("AA", null);
+            final Long otherActionId = assignDistributionSet(ds.getId(), "BB").getActions().get(0);
+
+            // an assignment to another controller while the view is loaded
+            final long version = controllerPollViewCache.getVersion();
+            controllerPollViewCache.onAssignment(
+                    new TargetAssignDistributionSetEvent(tenant, otherActionId, ds.getId(), "BB", "test"));
+            controllerPollViewCache.put(tenant, view, version);
+            assertThat(controllerManagament.pollControllerBase("AA", null)).as("view should be cached")
+                    .isSameAs(view);
+
+            final Long actionId = assignDistributionSet(ds.getId(), "AA").getActions().get(0);
+            controllerPollViewCache
+                    .onAssignment(new TargetAssignDistributionSetEvent(tenant, actionId, ds.getId(), "AA", "test"));
+
+            final ControllerPollView reloaded = controllerManagament.pollControllerBase("AA", null);
+            assertThat(reloaded).as("view should be reloaded").isNotSameAs(view);
+            assertThat(reloaded.getActionId()).isEqualTo(actionId);
+        } finally {
+            repositoryProperties.getPollViewCache().setEnabled(false);
+        }
+    }
+
+    @Test
+    @Description("Verifies that the poll view of a controller is invalidated by the cancellation of its action and "
+            + "that a view loaded concurrently to the cancellation is not cached.")
+    public void pollViewIsInvalidatedByCancel() {
+        repositoryProperties.getPollViewCache().setEnabled(true);
+        try {
+            final String tenant = tenantAware.getCurrentTenant();
+            final DistributionSet ds = testdataFactory.createDistributionSet("");
+            final Target target = testdataFactory.createTarget("AA");
+            final Long actionId = assignDistributionSet(ds.getId(), "AA").getActions().get(0);
+
+            final ControllerPollView view = controllerManagament.pollControllerBase("AA", null);
+            assertThat(view.getActionId()).isEqualTo(actionId);
+            assertThat(controllerManagament.pollControllerBase("AA", null)).as("view should be cached")
+                    .isSameAs(view);
+
+            final long version = controllerPollViewCache.getVersion();
+            deploymentManagement.cancelAction(deploymentManagement.findAction(actionId), target);
+            controllerPollViewCache.onCancel(new CancelTargetAssignmentEvent(target, actionId, "test"));
+
+            final ControllerPollView reloaded = controllerManagament.pollControllerBase("AA", null);
+            assertThat(reloaded).as("view should be reloaded").isNotSameAs(view);
+
+            // the view loaded before the cancellation must not be cached
+            controllerPollViewCache.put(tenant, view, version);
+            assertThat(controllerManagament.pollControllerBase("AA", null)).isNotSameAs(view);
+        } finally {
+            repositoryProperties.getPollViewCache().setEnabled(false);
+        }
+    }
+
 }
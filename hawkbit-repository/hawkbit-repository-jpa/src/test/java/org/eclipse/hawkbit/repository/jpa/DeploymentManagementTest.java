@@ -28,7 +28,6 @@ import org.eclipse.hawkbit.repository.exception.ForceQuitActionNotAllowedExcepti
 import org.eclipse.hawkbit.repository.exception.IncompleteDistributionSetException;
 import org.eclipse.hawkbit.repository.jpa.configuration.Constants;
 import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
-import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus;
 import org.eclipse.hawkbit.repository.jpa.model.JpaDistributionSet;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
 import org.eclipse.hawkbit.repository.model.Action;
@@ -48,6 +47,7 @@ import org.springframework.context.ApplicationListener;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort.Direction;
 
 import com.google.common.collect.Iterables;
@@ -109,9 +109,10 @@ public class DeploymentManagementTest extends AbstractJpaIntegrationTest {
         // one action with one action status is generated
         final Action action = deploymentManagement
                 .findActionWithDetails(assignDistributionSet(testDs, testTarget).getActions().get(0));
-        // save 2 action status
-        actionStatusRepository.save(new JpaActionStatus(action, Status.RETRIEVED, System.currentTimeMillis()));
-        actionStatusRepository.save(new JpaActionStatus(action, Status.RUNNING, System.currentTimeMillis()));
+        // add 2 action status
+        controllerManagament.registerRetrieved(action, "retrieved");
+        controllerManagament
+                .addUpdateActionStatus(entityFactory.actionStatus().create(action.getId()).status(Status.RUNNING));
 
         final List<ActionWithStatusCount> findActionsWithStatusCountByTarget = deploymentManagement
                 .findActionsWithStatusCountByTargetOrderByIdDesc(testTarget.get(0));
@@ -119,6 +120,36 @@ public class DeploymentManagementTest extends AbstractJpaIntegrationTest {
         assertThat(findActionsWithStatusCountByTarget).as("wrong action size").hasSize(1);
         assertThat(findActionsWithStatusCountByTarget.get(0).getActionStatusCount()).as("wrong action status size")
                 .isEqualTo(3);
+        assertThat(((JpaAction) deploymentManagement.findAction(action.getId())).getLastStatus())
+                .as("wrong last action status").isEqualTo(Status.RUNNING);
+    }
+
+    @Test
+    @Description("Verifies that the action history of a target can be walked page by page before the last action of the previous page.")
+    public void findActionsByTargetBefore() {
+        final Target target = testdataFactory.createTarget();
+        final List<Long> actionIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final DistributionSet ds = testdataFactory.createDistributionSet("ds" + i);
+            actionIds.add(assignDistributionSet(ds, target).getActions().get(0));
+        }
+        Collections.reverse(actionIds);
+
+        final List<ActionWithStatusCount> firstPage = deploymentManagement
+                .findActionsWithStatusCountByTargetBefore(target, null, 3);
+        assertThat(firstPage.stream().map(action -> action.getAction().getId()).collect(Collectors.toList()))
+                .as("wrong first page").isEqualTo(actionIds.subList(0, 3));
+        assertThat(firstPage.get(0).getActionStatusCount()).as("wrong action status size").isEqualTo(1);
+
+        final List<ActionWithStatusCount> secondPage = deploymentManagement
+                .findActionsWithStatusCountByTargetBefore(target, actionIds.get(2), 3);
+        assertThat(secondPage.stream().map(action -> action.getAction().getId()).collect(Collectors.toList()))
+                .as("wrong second page").isEqualTo(actionIds.subList(3, 5));
+
+        final Slice<Action> actions = deploymentManagement.findActionsByTargetBefore(actionIds.get(1), null, target,
+                10);
+        assertThat(actions.getContent().stream().map(Action::getId).collect(Collectors.toList()))
+                .as("wrong actions before the second action").isEqualTo(actionIds.subList(2, 5));
     }
 
     @Test
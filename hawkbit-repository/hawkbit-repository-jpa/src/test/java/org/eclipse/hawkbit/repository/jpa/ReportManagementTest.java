@@ -18,10 +18,13 @@ import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.repository.ReportManagement;
 import org.eclipse.hawkbit.repository.ReportManagement.DateTypes;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.RepositoryProperties.ReportCache;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTargetInfo;
 import org.eclipse.hawkbit.repository.model.Action.Status;
@@ -45,8 +48,10 @@ import org.springframework.data.auditing.CurrentDateTimeProvider;
 import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Slice;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
 
 import com.google.common.collect.Lists;
+import com.jayway.awaitility.Awaitility;
 
 import ru.yandex.qatools.allure.annotations.Description;
 import ru.yandex.qatools.allure.annotations.Features;
@@ -64,6 +69,9 @@ public class ReportManagementTest extends AbstractJpaIntegrationTest {
     @Autowired
     private AuditingHandler auditingHandler;
 
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
     @After
     public void afterTest() {
         auditingHandler.setDateTimeProvider(CurrentDateTimeProvider.INSTANCE);
@@ -502,6 +510,36 @@ public class ReportManagementTest extends AbstractJpaIntegrationTest {
 
     }
 
+    @Test
+    @Description("Verifies that a report is served from the snapshot cache and regenerated in the background "
+            + "after the targets of the tenant have been changed.")
+    public void targetStatusReportIsServedFromSnapshotCache() {
+        final ReportCache reportCache = repositoryProperties.getReportCache();
+        final long minRefreshInterval = reportCache.getMinRefreshInterval();
+        reportCache.setEnabled(true);
+        reportCache.setMinRefreshInterval(0);
+        try {
+            createTargetsWithStatus("error", 2, TargetUpdateStatus.ERROR);
+            assertThat(countOf(reportManagement.targetStatus(), TargetUpdateStatus.ERROR)).isEqualTo(2L);
+
+            // the snapshot is returned while it is regenerated
+            createTargetsWithStatus("error2", 2, TargetUpdateStatus.ERROR);
+            assertThat(countOf(reportManagement.targetStatus(), TargetUpdateStatus.ERROR)).isEqualTo(2L);
+
+            Awaitility.await().atMost(5, TimeUnit.SECONDS).until(new DelegatingSecurityContextCallable<>(
+                    () -> countOf(reportManagement.targetStatus(), TargetUpdateStatus.ERROR) == 4L));
+        } finally {
+            reportCache.setEnabled(false);
+            reportCache.setMinRefreshInterval(minRefreshInterval);
+        }
+    }
+
+    private static long countOf(final DataReportSeries<TargetUpdateStatus> targetStatus,
+            final TargetUpdateStatus status) {
+        return Arrays.stream(targetStatus.getData()).filter(item -> item.getType() == status)
+                .mapToLong(item -> item.getData().longValue()).sum();
+    }
+
     private void createTargets(final String prefix, final int amount, final LocalDateTime lastTargetQuery) {
         for (int index = 0; index < amount; index++) {
             final JpaTarget createTarget = (JpaTarget) testdataFactory.createTarget(prefix + index);
@@ -17,6 +17,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.repository.OffsetBasedPageRequest;
 import org.eclipse.hawkbit.repository.RolloutGroupManagement;
@@ -27,6 +28,7 @@ import org.eclipse.hawkbit.repository.exception.ConstraintViolationException;
 import org.eclipse.hawkbit.repository.exception.EntityAlreadyExistsException;
 import org.eclipse.hawkbit.repository.exception.RolloutIllegalStateException;
 import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutGroupStatusCounters;
 import org.eclipse.hawkbit.repository.jpa.utils.MultipleInvokeHelper;
 import org.eclipse.hawkbit.repository.jpa.utils.SuccessCondition;
 import org.eclipse.hawkbit.repository.model.Action;
@@ -74,6 +76,9 @@ public class RolloutManagementTest extends AbstractJpaIntegrationTest {
     @Autowired
     private RolloutGroupManagement rolloutGroupManagement;
 
+    @Autowired
+    private RolloutGroupStatusCounters rolloutGroupStatusCounters;
+
     @Test
     @Description("Verifying that the rollout is created correctly, executing the filter and split up the targets in the correct group size.")
     public void creatingRolloutIsCorrectPersisted() {
@@ -123,6 +128,89 @@ public class RolloutManagementTest extends AbstractJpaIntegrationTest {
                 .hasSize(amountTargetsForRollout - (amountTargetsForRollout / amountGroups));
     }
 
+    @Test
+    @Description("Verifying that the targets of a rollout which exceed a single transaction are assigned to the groups and get their actions in bulk")
+    public void startRolloutWithTargetsExceedingSingleTransaction() {
+        final int amountTargetsForRollout = 2500;
+        final int amountGroups = 2;
+        final Rollout createdRollout = createAndStartRollout(amountTargetsForRollout, 10, amountGroups, "50", "80");
+
+        assertThat(createdRollout.getTotalTargets()).isEqualTo(amountTargetsForRollout);
+        rolloutGroupManagement
+                .findRolloutGroupsByRolloutId(createdRollout.getId(),
+                        new OffsetBasedPageRequest(0, 100, new Sort(Direction.ASC, "id")))
+                .forEach(group -> assertThat(group.getTotalTargets())
+                        .isEqualTo(amountTargetsForRollout / amountGroups));
+
+        final List<Action> runningActions = findActionsByRolloutAndStatus(createdRollout, Status.RUNNING);
+        final List<Action> scheduledActions = findActionsByRolloutAndStatus(createdRollout, Status.SCHEDULED);
+        assertThat(runningActions).hasSize(amountTargetsForRollout / amountGroups);
+        assertThat(scheduledActions).hasSize(amountTargetsForRollout / amountGroups);
+        assertThat(scheduledActions.stream().map(action -> action.getTarget().getId()).distinct().count())
+                .isEqualTo(amountTargetsForRollout / amountGroups);
+        scheduledActions.forEach(action -> {
+            assertThat(action.getDistributionSet()).isEqualTo(createdRollout.getDistributionSet());
+            assertThat(action.isActive()).isFalse();
+            assertThat(action.getCreatedAt()).isNotNull();
+        });
+    }
+
+    @Test
+    @Description("Verifying that the status counters of the rollout groups follow the status changes of the actions and are corrected by a recount")
+    public void rolloutGroupStatusCountersFollowActionStatusChanges() {
+        final Rollout createdRollout = createAndStartRollout(10, 0, 2, "100", "80");
+        final RolloutGroup firstGroup = rolloutGroupManagement.findRolloutGroupsByRolloutId(createdRollout.getId(),
+                new OffsetBasedPageRequest(0, 10, new Sort(Direction.ASC, "id"))).getContent().get(0);
+
+        final List<Action> runningActions = findActionsByRolloutAndStatus(createdRollout, Status.RUNNING);
+        finishAction(runningActions.get(0));
+        finishAction(runningActions.get(1));
+        controllerManagament.addUpdateActionStatus(
+                entityFactory.actionStatus().create(runningActions.get(2).getId()).status(Status.ERROR));
+
+        Map<Status, Long> statusCounts = rolloutGroupStatusCounters.getGroupCounts(firstGroup.getId());
+        assertThat(statusCounts.get(Status.FINISHED)).isEqualTo(2L);
+        assertThat(statusCounts.get(Status.ERROR)).isEqualTo(1L);
+        assertThat(statusCounts.get(Status.RUNNING)).isEqualTo(2L);
+
+        final Map<TotalTargetCountStatus.Status, Long> expectedTargetCountStatus = createInitStatusMap();
+        expectedTargetCountStatus.put(TotalTargetCountStatus.Status.FINISHED, 2L);
+        expectedTargetCountStatus.put(TotalTargetCountStatus.Status.ERROR, 1L);
+        expectedTargetCountStatus.put(TotalTargetCountStatus.Status.RUNNING, 2L);
+        validateRolloutGroupActionStatus(firstGroup, expectedTargetCountStatus);
+        expectedTargetCountStatus.put(TotalTargetCountStatus.Status.SCHEDULED, 5L);
+        validateRolloutActionStatus(createdRollout.getId(), expectedTargetCountStatus);
+
+        // the actions of deleted targets are removed without passing the
+        // counters
+        targetManagement.deleteTargets(runningActions.get(3).getTarget().getId());
+        rolloutGroupStatusCounters.recount(firstGroup.getId());
+
+        statusCounts = rolloutGroupStatusCounters.getGroupCounts(firstGroup.getId());
+        assertThat(statusCounts.get(Status.FINISHED)).isEqualTo(2L);
+        assertThat(statusCounts.get(Status.ERROR)).isEqualTo(1L);
+        assertThat(statusCounts.get(Status.RUNNING)).isEqualTo(1L);
+    }
+
+    @Test
+    @Description("Verifying that scheduled actions of a rollout group which are canceled in bulk by a manual assignment are moved to the canceled counter without a recount")
+    public void rolloutGroupStatusCountersFollowBulkCancelOfScheduledActions() {
+        final Rollout createdRollout = createAndStartRollout(10, 0, 2, "100", "80");
+        final RolloutGroup secondGroup = rolloutGroupManagement.findRolloutGroupsByRolloutId(createdRollout.getId(),
+                new OffsetBasedPageRequest(0, 10, new Sort(Direction.ASC, "id"))).getContent().get(1);
+        assertThat(rolloutGroupStatusCounters.getGroupCounts(secondGroup.getId()).get(Status.SCHEDULED))
+                .isEqualTo(5L);
+
+        final List<Target> scheduledTargets = findActionsByRolloutAndStatus(createdRollout, Status.SCHEDULED)
+                .stream().limit(2).map(Action::getTarget).collect(Collectors.toList());
+        assignDistributionSet(testdataFactory.createDistributionSet("other"), scheduledTargets);
+
+        final Map<Status, Long> statusCounts = rolloutGroupStatusCounters.getGroupCounts(secondGroup.getId());
+        assertThat(statusCounts.get(Status.SCHEDULED)).isEqualTo(3L);
+        assertThat(statusCounts.get(Status.CANCELED)).isEqualTo(2L);
+        assertThat(findActionsByRolloutAndStatus(createdRollout, Status.CANCELED)).hasSize(2);
+    }
+
     @Test
     @Description("Verifying that a finish condition of a group is hit the next group of the rollout is also started")
     public void checkRunningRolloutsDoesNotStartNextGroupIfFinishConditionIsNotHit() {
@@ -15,12 +15,16 @@ import java.util.List;
 import java.util.Random;
 
 import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
 import org.eclipse.hawkbit.repository.jpa.model.JpaSoftwareModule;
+import org.eclipse.hawkbit.repository.jpa.usage.TenantUsageSnapshot;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.report.model.SystemUsageReport;
 import org.eclipse.hawkbit.repository.report.model.TenantUsage;
 import org.eclipse.hawkbit.repository.test.util.WithSpringAuthorityRule;
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import ru.yandex.qatools.allure.annotations.Description;
 import ru.yandex.qatools.allure.annotations.Features;
@@ -30,6 +34,12 @@ import ru.yandex.qatools.allure.annotations.Stories;
 @Stories("System Management")
 public class SystemManagementTest extends AbstractJpaIntegrationTest {
 
+    @Autowired
+    private TenantUsageSnapshot tenantUsageSnapshot;
+
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
     @Test
     @Description("Ensures that findTenants returns all tenants and not only restricted to the tenant which currently is logged in")
     public void findTenantsReturnsAllTenantsNotOnlyWhichLoggedIn() throws Exception {
@@ -92,6 +102,30 @@ public class SystemManagementTest extends AbstractJpaIntegrationTest {
                 new TenantUsage("tenant1").setTargets(100).setActions(200));
     }
 
+    @Test
+    @Description("Checks that the system report is served from the usage snapshot if it is enabled and that the snapshot reflects the changes after its next refresh.")
+    public void systemUsageReportIsServedFromSnapshot() throws Exception {
+        createTestTenantsForSystemStatistics(1, 0, 10, 0);
+
+        repositoryProperties.getUsageSnapshot().setEnabled(true);
+        try {
+            // not refreshed yet, i.e. the statistics are aggregated
+            assertThat(systemManagement.getSystemUsageStatistics().getOverallTargets()).isEqualTo(10);
+
+            assertThat(tenantUsageSnapshot.refresh()).isEqualTo(1);
+            createTestTargets(5);
+            assertThat(systemManagement.getSystemUsageStatistics().getOverallTargets()).isEqualTo(10);
+
+            tenantUsageSnapshot.refresh();
+            final SystemUsageReport report = systemManagement.getSystemUsageStatistics();
+            assertThat(report.getOverallTargets()).isEqualTo(15);
+            assertThat(report.getTenants()).containsOnly(new TenantUsage("default").setTargets(5),
+                    new TenantUsage("tenant0").setTargets(10));
+        } finally {
+            repositoryProperties.getUsageSnapshot().setEnabled(false);
+        }
+    }
+
     private byte[] createTestTenantsForSystemStatistics(final int tenants, final int artifactSize, final int targets,
             final int updates) throws Exception {
         final Random randomgen = new Random();
@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.hawkbit.im.authentication.SpPermission;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.TargetImportManagement;
+import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
+import org.eclipse.hawkbit.repository.exception.InsufficientPermissionException;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetImportStatus;
+import org.eclipse.hawkbit.repository.model.TargetImportStatus.State;
+import org.eclipse.hawkbit.repository.model.TargetTag;
+import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
+import org.eclipse.hawkbit.repository.test.util.WithUser;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+/**
+ * Test class for {@link TargetImportManagement}.
+ *
+ */
+@Features("Component Tests - Repository")
+@Stories("Target Import")
+public class TargetImportManagementTest extends AbstractJpaIntegrationTest {
+
+    @Autowired
+    private TargetImportManagement targetImportManagement;
+
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
+    @Autowired
+    private TargetBulkWriter targetBulkWriter;
+
+    @Test
+    @Description("Verifies that the targets of a CSV file are created in chunks and existing, duplicate and malformed lines are skipped.")
+    public void importTargetsInChunks() {
+        testdataFactory.createTarget("existing");
+        final String csv = "t1,Target 1\nt2,Target 2\nexisting,Existing\nmalformed\nt1,Duplicate\n\nwith space,Name\nt3, \n";
+        final List<TargetImportStatus> progress = new ArrayList<>();
+
+        final int chunkSize = repositoryProperties.getTargetImport().getChunkSize();
+        repositoryProperties.getTargetImport().setChunkSize(2);
+        final TargetImportStatus status;
+        try {
+            status = importCsv(csv, null, null, progress);
+        } finally {
+            repositoryProperties.getTargetImport().setChunkSize(chunkSize);
+        }
+
+        assertThat(status.getState()).isEqualTo(State.FINISHED);
+        assertThat(status.getLines()).isEqualTo(7);
+        assertThat(status.getCreatedTargets()).isEqualTo(3);
+        assertThat(status.getExistingTargets()).isEqualTo(2);
+        assertThat(status.getInvalidLines()).isEqualTo(2);
+        assertThat(status.getProgress()).isEqualTo(1F);
+        // every chunk and the end of the import have been reported
+        assertThat(progress.size()).isGreaterThan(2);
+        assertThat(progress.get(progress.size() - 1).getState()).isEqualTo(State.FINISHED);
+        assertThat(targetImportManagement.getImportStatus(status.getId()).getCreatedTargets()).isEqualTo(3);
+
+        final Target target = targetManagement.findTargetByControllerIDWithDetails("t1");
+        assertThat(target.getName()).isEqualTo("Target 1");
+        assertThat(target.getSecurityToken()).isNotEmpty();
+        assertThat(target.getTargetInfo().getUpdateStatus()).isEqualTo(TargetUpdateStatus.UNKNOWN);
+        // the controller ID is the default name
+        assertThat(targetManagement.findTargetByControllerID("t3").getName()).isEqualTo("t3");
+        assertThat(targetManagement.findTargetByControllerID("existing").getName()).isNotEqualTo("Existing");
+        assertThat(targetManagement.countTargetsAll()).isEqualTo(4);
+    }
+
+    @Test
+    @Description("Verifies that the given tags and distribution set are assigned to the imported targets.")
+    public void importTargetsWithTagsAndDistributionSet() {
+        final TargetTag tag = tagManagement.createTargetTag(entityFactory.tag().create().name("imported"));
+        final DistributionSet ds = testdataFactory.createDistributionSet("import");
+
+        final TargetImportStatus status = importCsv("t1,Target 1\nt2,Target 2\n", Arrays.asList(tag.getId()),
+                ds.getId(), null);
+
+        assertThat(status.getCreatedTargets()).isEqualTo(2);
+        for (final String controllerId : Arrays.asList("t1", "t2")) {
+            final Target target = targetManagement.findTargetByControllerIDWithDetails(controllerId);
+            assertThat(target.getTags()).containsOnly(tag);
+            assertThat(target.getAssignedDistributionSet()).isEqualTo(ds);
+            assertThat(target.getTargetInfo().getUpdateStatus()).isEqualTo(TargetUpdateStatus.PENDING);
+        }
+    }
+
+    @Test(expected = EntityNotFoundException.class)
+    @Description("Verifies that an import with a distribution set which does not exist is rejected before targets are created.")
+    public void importTargetsWithUnknownDistributionSetFails() {
+        try {
+            importCsv("t1,Target 1\n", null, 1234L, null);
+        } finally {
+            assertThat(targetManagement.countTargetsAll()).isEqualTo(0);
+        }
+    }
+
+    @Test(expected = InsufficientPermissionException.class)
+    @WithUser(allSpPermissions = false, authorities = { SpPermission.CREATE_TARGET, SpPermission.READ_TARGET })
+    @Description("Verifies that an import which assigns tags requires the permission to update targets before targets are created.")
+    public void importTargetsWithTagsRequiresUpdatePermission() {
+        final TargetTag tag = tagManagement.createTargetTag(entityFactory.tag().create().name("imported"));
+        try {
+            importCsv("t1,Target 1\n", Arrays.asList(tag.getId()), null, null);
+        } finally {
+            assertThat(targetManagement.countTargetsAll()).isEqualTo(0);
+        }
+    }
+
+    @Test
+    @Description("Verifies that a chunk which collides with a concurrently created target is retried with the remaining targets.")
+    public void chunkCollidingWithCreatedTargetIsRetried() {
+        testdataFactory.createTarget("registered");
+        final TargetBulkWriter writer = Mockito.spy(targetBulkWriter);
+        // the first lookup misses the target that is registered concurrently
+        Mockito.doReturn(Collections.emptySet()).doCallRealMethod().when(writer)
+                .findExistingControllerIds(Mockito.anyCollectionOf(String.class));
+        final Object importManagement = AopTestUtils.getUltimateTargetObject(targetImportManagement);
+        ReflectionTestUtils.setField(importManagement, "targetBulkWriter", writer);
+        final TargetImportStatus status;
+        try {
+            status = importCsv("t1,Target 1\nregistered,Registered\n", null, null, null);
+        } finally {
+            ReflectionTestUtils.setField(importManagement, "targetBulkWriter", targetBulkWriter);
+        }
+
+        assertThat(status.getState()).isEqualTo(State.FINISHED);
+        assertThat(status.getCreatedTargets()).isEqualTo(1);
+        assertThat(status.getExistingTargets()).isEqualTo(1);
+        assertThat(targetManagement.findTargetByControllerID("t1")).isNotNull();
+        assertThat(targetManagement.countTargetsAll()).isEqualTo(2);
+    }
+
+    private TargetImportStatus importCsv(final String csv, final List<Long> tagIds, final Long distributionSetId,
+            final List<TargetImportStatus> progress) {
+        final byte[] bytes = csv.getBytes(StandardCharsets.UTF_8);
+        return targetImportManagement.importTargets(new ByteArrayInputStream(bytes), bytes.length, "imported",
+                tagIds, distributionSetId, progress != null ? progress::add : null);
+    }
+}
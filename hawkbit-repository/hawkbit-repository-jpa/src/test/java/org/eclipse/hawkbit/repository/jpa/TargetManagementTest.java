@@ -21,13 +21,17 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import javax.validation.ConstraintViolationException;
 
 import org.eclipse.hawkbit.im.authentication.SpPermission;
+import org.eclipse.hawkbit.repository.FilterParams;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
 import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
 import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetTagAssignmentEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.ActionCreatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.ActionUpdatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.DistributionSetCreatedEvent;
@@ -44,15 +48,18 @@ import org.eclipse.hawkbit.repository.model.Tag;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetIdName;
 import org.eclipse.hawkbit.repository.model.TargetTag;
+import org.eclipse.hawkbit.repository.model.TargetTagAssignmentResult;
 import org.eclipse.hawkbit.repository.test.matcher.Expect;
 import org.eclipse.hawkbit.repository.test.matcher.ExpectEvents;
 import org.eclipse.hawkbit.repository.test.util.WithSpringAuthorityRule;
 import org.eclipse.hawkbit.repository.test.util.WithUser;
 import org.junit.Test;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
 
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.jayway.awaitility.Awaitility;
 
 import ru.yandex.qatools.allure.annotations.Description;
 import ru.yandex.qatools.allure.annotations.Features;
@@ -519,7 +526,7 @@ public class TargetManagementTest extends AbstractJpaIntegrationTest {
     @Description("Tests the assigment of tags to multiple targets.")
     @ExpectEvents({ @Expect(type = TargetCreatedEvent.class, count = 50),
             @Expect(type = TargetTagCreatedEvent.class, count = 4),
-            @Expect(type = TargetUpdatedEvent.class, count = 80) })
+            @Expect(type = TargetTagAssignmentEvent.class, count = 8) })
     public void targetTagBulkAssignments() {
         final List<Target> tagATargets = testdataFactory.createTargets(10, "tagATargets", "first description");
         final List<Target> tagBTargets = testdataFactory.createTargets(10, "tagBTargets", "first description");
@@ -588,7 +595,7 @@ public class TargetManagementTest extends AbstractJpaIntegrationTest {
     @Description("Tests the unassigment of tags to multiple targets.")
     @ExpectEvents({ @Expect(type = TargetTagCreatedEvent.class, count = 3),
             @Expect(type = TargetCreatedEvent.class, count = 109),
-            @Expect(type = TargetUpdatedEvent.class, count = 227) })
+            @Expect(type = TargetTagAssignmentEvent.class, count = 16) })
     public void targetTagBulkUnassignments() {
         final TargetTag targTagA = tagManagement.createTargetTag(entityFactory.tag().create().name("Targ-A-Tag"));
         final TargetTag targTagB = tagManagement.createTargetTag(entityFactory.tag().create().name("Targ-B-Tag"));
@@ -646,7 +653,7 @@ public class TargetManagementTest extends AbstractJpaIntegrationTest {
     @Description("Retrieves targets by ID with lazy loading of the tags. Checks the successfull load.")
     @ExpectEvents({ @Expect(type = TargetTagCreatedEvent.class, count = 1),
             @Expect(type = TargetCreatedEvent.class, count = 25),
-            @Expect(type = TargetUpdatedEvent.class, count = 25) })
+            @Expect(type = TargetTagAssignmentEvent.class, count = 1) })
     public void findTargetsByControllerIDsWithTags() {
         final TargetTag targTagA = tagManagement.createTargetTag(entityFactory.tag().create().name("Targ-A-Tag"));
 
@@ -685,7 +692,7 @@ public class TargetManagementTest extends AbstractJpaIntegrationTest {
     @Description("Test that NO TAG functionality which gives all targets with no tag assigned.")
     @ExpectEvents({ @Expect(type = TargetTagCreatedEvent.class, count = 1),
             @Expect(type = TargetCreatedEvent.class, count = 50),
-            @Expect(type = TargetUpdatedEvent.class, count = 25) })
+            @Expect(type = TargetTagAssignmentEvent.class, count = 1) })
     public void findTargetsWithNoTag() {
 
         final TargetTag targTagA = tagManagement.createTargetTag(entityFactory.tag().create().name("Targ-A-Tag"));
@@ -719,4 +726,129 @@ public class TargetManagementTest extends AbstractJpaIntegrationTest {
         });
 
     }
+
+    @Test
+    @Description("Verifies that the targets matching the filters are found page by page after the ID of the last target of the previous page.")
+    public void findTargetByFiltersAfterSeeksById() {
+        testdataFactory.createTargets(5, "seek", "seek description");
+        testdataFactory.createTargets(3, "other", "other description");
+        final FilterParams filter = new FilterParams(null, null, null, "%seek%", null);
+
+        final List<Target> firstPage = targetManagement.findTargetByFiltersAfter(null, filter, 3).getContent();
+        assertThat(firstPage).hasSize(3);
+        final List<Target> secondPage = targetManagement
+                .findTargetByFiltersAfter(firstPage.get(2).getId(), filter, 3).getContent();
+        assertThat(secondPage).hasSize(2);
+
+        final List<Target> all = new ArrayList<>(firstPage);
+        all.addAll(secondPage);
+        assertThat(all.stream().map(Target::getControllerId).allMatch(id -> id.startsWith("seek"))).isTrue();
+        for (int i = 1; i < all.size(); i++) {
+            assertThat(all.get(i).getId()).isGreaterThan(all.get(i - 1).getId());
+        }
+        assertThat(targetManagement.findTargetByFiltersAfter(secondPage.get(1).getId(), filter, 3).getContent())
+                .isEmpty();
+    }
+
+    @Test
+    @Description("Verifies that the cached target counts follow the creation and deletion of targets.")
+    public void cachedTargetCountsFollowCreationAndDeletion() {
+        final FilterParams all = new FilterParams(null, null, null, null, null);
+        final FilterParams matching = new FilterParams(null, null, null, "%counted%", null);
+        final List<Target> targets = testdataFactory.createTargets(3, "counted", "counted description");
+        testdataFactory.createTargets(2, "ignored", "ignored description");
+
+        assertThat(targetManagement.countTargetByFiltersCached(all)).isEqualTo(5L);
+        assertThat(targetManagement.countTargetByFiltersCached(matching)).isEqualTo(3L);
+
+        testdataFactory.createTarget("counted-new");
+        Awaitility.await().atMost(5, TimeUnit.SECONDS)
+                .until(new DelegatingSecurityContextCallable<>(
+                        () -> targetManagement.countTargetByFiltersCached(matching) == 4L
+                                && targetManagement.countTargetByFiltersCached(all) == 6L)));
+
+        targetManagement.deleteTargets(targets.get(0).getId());
+        Awaitility.await().atMost(5, TimeUnit.SECONDS)
+                .until(new DelegatingSecurityContextCallable<>(
+                        () -> targetManagement.countTargetByFiltersCached(matching) == 3L
+                                && targetManagement.countTargetByFiltersCached(all) == 5L)));
+    }
+
+    @Test
+    @Description("Verifies that toggling a tag publishes one assignment event and updates the cached tag filter counts.")
+    @ExpectEvents({ @Expect(type = TargetTagCreatedEvent.class, count = 1),
+            @Expect(type = TargetCreatedEvent.class, count = 5),
+            @Expect(type = TargetTagAssignmentEvent.class, count = 2) })
+    public void toggleTagAssignmentPublishesOneEventAndUpdatesCachedCounts() {
+        final TargetTag tag = tagManagement.createTargetTag(entityFactory.tag().create().name("toggled"));
+        final List<Target> targets = testdataFactory.createTargets(5, "toggled", "toggled description");
+        final FilterParams tagged = new FilterParams(null, null, null, null, Boolean.FALSE, tag.getName());
+        assertThat(targetManagement.countTargetByFiltersCached(tagged)).isEqualTo(0L);
+
+        targetManagement.toggleTagAssignment(targets.subList(0, 3), tag);
+        Awaitility.await().atMost(5, TimeUnit.SECONDS)
+                .until(new DelegatingSecurityContextCallable<>(
+                        () -> targetManagement.countTargetByFiltersCached(tagged) == 3L));
+        final List<String> controllerIds = targets.stream().map(Target::getControllerId).collect(Collectors.toList());
+        assertThat(targetManagement.findTargetsByControllerIDsWithTags(controllerIds).stream()
+                .filter(target -> target.getTags().contains(tag)).count()).isEqualTo(3L);
+
+        targetManagement.toggleTagAssignment(targets.subList(0, 3), tag);
+        Awaitility.await().atMost(5, TimeUnit.SECONDS)
+                .until(new DelegatingSecurityContextCallable<>(
+                        () -> targetManagement.countTargetByFiltersCached(tagged) == 0L));
+        assertThat(targetManagement.findTargetsByControllerIDsWithTags(controllerIds).stream()
+                .allMatch(target -> target.getTags().isEmpty())).isTrue();
+    }
+
+    @Test
+    @Description("Verifies that toggling a tag of more targets than fit into one statement publishes one assignment "
+            + "event per chunk of targets.")
+    @ExpectEvents({ @Expect(type = TargetTagCreatedEvent.class, count = 1),
+            @Expect(type = TargetCreatedEvent.class, count = 1000),
+            @Expect(type = TargetTagAssignmentEvent.class, count = 2) })
+    public void toggleTagAssignmentOfManyTargetsPublishesOneEventPerChunk() {
+        final TargetTag tag = tagManagement.createTargetTag(entityFactory.tag().create().name("chunked"));
+        final List<Target> targets = testdataFactory.createTargets(1000, "chunked", "chunked description");
+
+        final TargetTagAssignmentResult result = targetManagement.toggleTagAssignment(targets, tag);
+
+        assertThat(result.getAssigned()).isEqualTo(1000);
+    }
+
+    @Test
+    @Description("Verifies that a count loaded concurrently to a target event is only dropped if the event affects "
+            + "its filter.")
+    public void concurrentlyLoadedCountIsOnlyDroppedByEventsAffectingItsFilter() {
+        final TargetFilterCountCache cache = new TargetFilterCountCache(new RepositoryProperties());
+        final String tenant = tenantAware.getCurrentTenant();
+        final Target target = testdataFactory.createTarget("concurrent");
+        final FilterParams all = new FilterParams(null, null, null, null, null);
+        final FilterParams matching = new FilterParams(null, null, null, "%concurrent%", null);
+        final FilterParams other = new FilterParams(null, null, null, "%other%", null);
+
+        // an update only affects the filtered counts
+        cache.get(tenant, all, () -> {
+            cache.onTargetUpdate(new TargetUpdatedEvent(target, "test"));
+            return 1L;
+        });
+        cache.get(tenant, matching, () -> {
+            cache.onTargetUpdate(new TargetUpdatedEvent(target, "test"));
+            return 1L;
+        });
+        assertThat(cache.get(tenant, all, () -> 42L)).isEqualTo(1L);
+        assertThat(cache.get(tenant, matching, () -> 42L)).isEqualTo(42L);
+
+        // a creation only affects the filters the target might match
+        cache.get(tenant, other, () -> {
+            cache.onTargetCreate(new TargetCreatedEvent(target, "test"));
+            return 0L;
+        });
+        cache.get(tenant, "name==concurrent", () -> {
+            cache.onTargetCreate(new TargetCreatedEvent(target, "test"));
+            return 1L;
+        });
+        assertThat(cache.get(tenant, other, () -> 42L)).isEqualTo(0L);
+        assertThat(cache.get(tenant, "name==concurrent", () -> 42L)).isEqualTo(42L);
+    }
 }
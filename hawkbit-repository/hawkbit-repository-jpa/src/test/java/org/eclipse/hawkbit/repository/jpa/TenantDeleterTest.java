@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.Callable;
+
+import org.eclipse.hawkbit.artifact.repository.ArtifactRepository;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.jpa.model.JpaArtifact;
+import org.eclipse.hawkbit.repository.model.SoftwareModule;
+import org.eclipse.hawkbit.repository.model.TenantDeletionStatus;
+import org.eclipse.hawkbit.repository.model.TenantDeletionStatus.State;
+import org.eclipse.hawkbit.repository.test.util.WithSpringAuthorityRule;
+import org.eclipse.hawkbit.repository.test.util.WithUser;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+/**
+ * Test class for the chunked and resumable deletion of a tenant by the
+ * {@link TenantDeleter}.
+ *
+ */
+@Features("Component Tests - Repository")
+@Stories("Tenant Deletion")
+public class TenantDeleterTest extends AbstractJpaIntegrationTest {
+
+    private static final String TENANT = "deletedTenant";
+
+    @Autowired
+    private TenantDeleter tenantDeleter;
+
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
+    private int chunkSize;
+
+    @Before
+    public void reduceChunkSize() {
+        chunkSize = repositoryProperties.getTenantDeletion().getChunkSize();
+        repositoryProperties.getTenantDeletion().setChunkSize(1);
+    }
+
+    @After
+    public void restoreDeleter() {
+        repositoryProperties.getTenantDeletion().setChunkSize(chunkSize);
+        ReflectionTestUtils.setField(tenantDeleter, "artifactRepository", binaryArtifactRepository);
+    }
+
+    @Test
+    @Description("Verifies that all entities of a tenant are deleted if they exceed the chunk size.")
+    @WithUser(tenantId = "mytenant", allSpPermissions = true)
+    public void deleteTenantInChunks() throws Exception {
+        runAsTenant(() -> {
+            testdataFactory.createTargets(3, "target", "deleted");
+            return testdataFactory.createDistributionSet("deleted");
+        });
+
+        systemManagement.deleteTenant(TENANT);
+
+        final TenantDeletionStatus status = systemManagement.getTenantDeletionStatus(TENANT);
+        assertThat(status.getState()).isEqualTo(State.FINISHED);
+        assertThat(status.getPhase()).isNull();
+        assertThat(status.getDeletedEntities().get("targets")).as("Deleted targets").isEqualTo(3L);
+        assertThat(status.getDeletedEntities().get("distributionSets")).as("Deleted distribution sets")
+                .isEqualTo(1L);
+        assertThat(status.getDeletedEntities().get("softwareModules")).as("Deleted software modules")
+                .isEqualTo(3L);
+        assertThat(systemManagement.findTenants().stream().anyMatch(TENANT::equalsIgnoreCase)).isFalse();
+    }
+
+    @Test
+    @Description("Verifies that the artifact binaries of a deleted tenant are deleted unless they are referenced by another tenant.")
+    @WithUser(tenantId = "mytenant", allSpPermissions = true)
+    public void deleteTenantDeletesUnreferencedBinaries() throws Exception {
+        final JpaArtifact deleted = createArtifactForTenant(TENANT, new byte[] { 1, 2, 3 });
+        final JpaArtifact shared = createArtifactForTenant(TENANT, new byte[] { 4, 5, 6 });
+        createArtifactForTenant("anotherTenant", new byte[] { 4, 5, 6 });
+
+        systemManagement.deleteTenant(TENANT);
+
+        final TenantDeletionStatus status = systemManagement.getTenantDeletionStatus(TENANT);
+        assertThat(status.getState()).isEqualTo(State.FINISHED);
+        assertThat(status.getDeletedEntities().get("artifacts")).as("Deleted artifacts").isEqualTo(2L);
+        assertThat(status.getDeletedBinaries()).as("Deleted binaries").isEqualTo(1L);
+        assertThat(status.getPendingBinaries()).as("Pending binaries").isEqualTo(0L);
+        assertThat(binaryArtifactRepository.getArtifactBySha1(deleted.getGridFsFileName())).isNull();
+        assertThat(binaryArtifactRepository.getArtifactBySha1(shared.getGridFsFileName())).isNotNull();
+    }
+
+    @Test
+    @Description("Verifies that a failed deletion of a binary rolls back its artifacts and that the binary is deleted "
+            + "when the deletion of the tenant is resumed.")
+    @WithUser(tenantId = "mytenant", allSpPermissions = true)
+    public void resumedTenantDeletionDeletesBinariesOfFailedChunk() throws Exception {
+        final JpaArtifact first = createArtifactForTenant(TENANT, new byte[] { 1, 2, 3 });
+        final JpaArtifact failing = createArtifactForTenant(TENANT, new byte[] { 4, 5, 6 });
+
+        final ArtifactRepository unavailable = spy(binaryArtifactRepository);
+        doThrow(new IllegalStateException("store unavailable")).when(unavailable)
+                .deleteBySha1(failing.getGridFsFileName());
+        ReflectionTestUtils.setField(tenantDeleter, "artifactRepository", unavailable);
+
+        try {
+            systemManagement.deleteTenant(TENANT);
+            fail("Expected the deletion of the tenant to fail");
+        } catch (final IllegalStateException e) {
+            // expected
+        }
+
+        TenantDeletionStatus status = systemManagement.getTenantDeletionStatus(TENANT);
+        assertThat(status.getState()).isEqualTo(State.FAILED);
+        assertThat(status.getPhase()).isEqualTo("artifacts");
+        assertThat(status.getDeletedEntities().get("artifacts")).as("Deleted artifacts").isEqualTo(1L);
+        assertThat(binaryArtifactRepository.getArtifactBySha1(first.getGridFsFileName())).isNull();
+        assertThat(binaryArtifactRepository.getArtifactBySha1(failing.getGridFsFileName())).isNotNull();
+        assertThat(runAsTenant(() -> artifactManagement.findArtifact(failing.getId()))).as("Rolled back artifact")
+                .isNotNull();
+
+        ReflectionTestUtils.setField(tenantDeleter, "artifactRepository", binaryArtifactRepository);
+        systemManagement.deleteTenant(TENANT);
+
+        status = systemManagement.getTenantDeletionStatus(TENANT);
+        assertThat(status.getState()).isEqualTo(State.FINISHED);
+        assertThat(status.getDeletedEntities().get("artifacts")).as("Deleted artifacts").isEqualTo(1L);
+        assertThat(binaryArtifactRepository.getArtifactBySha1(failing.getGridFsFileName())).isNull();
+        assertThat(systemManagement.findTenants().stream().anyMatch(TENANT::equalsIgnoreCase)).isFalse();
+    }
+
+    private JpaArtifact createArtifactForTenant(final String tenant, final byte[] content) throws Exception {
+        return (JpaArtifact) securityRule.runAs(WithSpringAuthorityRule.withUserAndTenant("user", tenant), () -> {
+            final SoftwareModule module = testdataFactory.createSoftwareModuleOs(String.valueOf(content[0]));
+            return artifactManagement.createArtifact(new ByteArrayInputStream(content), module.getId(), "file",
+                    false);
+        });
+    }
+
+    private <T> T runAsTenant(final Callable<T> callable) throws Exception {
+        return securityRule.runAs(WithSpringAuthorityRule.withUserAndTenant("user", TENANT), callable);
+    }
+}
@@ -10,7 +10,10 @@ package org.eclipse.hawkbit.repository.jpa.autoassign;
 
 import static org.fest.assertions.api.Assertions.assertThat;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.repository.jpa.AbstractJpaIntegrationTest;
@@ -21,6 +24,9 @@ import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Slice;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+
+import com.jayway.awaitility.Awaitility;
 
 import ru.yandex.qatools.allure.annotations.Description;
 import ru.yandex.qatools.allure.annotations.Features;
@@ -38,6 +44,9 @@ public class AutoAssignCheckerTest extends AbstractJpaIntegrationTest {
     @Autowired
     private AutoAssignChecker autoAssignChecker;
 
+    @Autowired
+    private AutoAssignDirtyTargets autoAssignDirtyTargets;
+
     @Test
     @Description("Test auto assignment of a DS to filtered targets")
     public void checkAutoAssign() {
@@ -135,6 +144,50 @@ public class AutoAssignCheckerTest extends AbstractJpaIntegrationTest {
 
     }
 
+    @Test
+    @Description("Verifies that the incremental check assigns the DS only to the targets that have been changed "
+            + "since the last check and that the full check assigns it to the remaining ones.")
+    public void checkIncrementalAutoAssign() {
+        final DistributionSet setA = testdataFactory.createDistributionSet("dsA");
+        final TargetFilterQuery targetFilterQuery = targetFilterQueryManagement
+                .createTargetFilterQuery(entityFactory.targetFilterQuery().create().name("filterA").query("name==*"));
+        targetFilterQueryManagement.updateTargetFilterQueryAutoAssignDS(targetFilterQuery.getId(), setA.getId());
+
+        final List<Target> initial = testdataFactory.createTargets(10, "initial", "initial description");
+
+        // the filter has been changed since the last check
+        autoAssignChecker.checkIncremental();
+        verifyThatTargetsHaveDistributionSetAssignment(setA, initial, 10);
+
+        // the changes of these targets get lost
+        final List<Target> missed = testdataFactory.createTargets(5, "missed", "missed description");
+        final Set<Long> missedIds = missed.stream().map(Target::getId).collect(Collectors.toSet());
+        final Set<Long> drained = new HashSet<>();
+        final String tenant = tenantAware.getCurrentTenant();
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> {
+            autoAssignDirtyTargets.drain(tenant).ifPresent(drained::addAll);
+            return drained.containsAll(missedIds);
+        });
+
+        final List<Target> changed = testdataFactory.createTargets(5, "changed", "changed description");
+        final List<String> changedControllerIds = changed.stream().map(Target::getControllerId)
+                .collect(Collectors.toList());
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(new DelegatingSecurityContextCallable<>(() -> {
+            autoAssignChecker.checkIncremental();
+            return targetManagement.findTargetByControllerID(changedControllerIds).stream()
+                    .allMatch(target -> setA.equals(target.getAssignedDistributionSet()));
+        }));
+
+        for (final Target target : targetManagement.findTargetByControllerID(
+                missed.stream().map(Target::getControllerId).collect(Collectors.toList()))) {
+            assertThat(target.getAssignedDistributionSet()).as("assigned DS").isNull();
+        }
+
+        // the full check is the safety net
+        autoAssignChecker.check();
+        verifyThatTargetsHaveDistributionSetAssignment(setA, missed, 20);
+    }
+
     /**
      * @param set
      *            the expected distribution set
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.poll;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+
+import javax.persistence.Cache;
+
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTargetInfo;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@RunWith(MockitoJUnitRunner.class)
+@Features("Unit Tests - Repository")
+@Stories("Target Poll Buffer")
+public class TargetPollBufferTest {
+
+    private static final String TENANT = "tenant";
+
+    private static final Long TARGET_ID = 1L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplateMock;
+
+    @Mock
+    private Cache sharedCacheMock;
+
+    private TargetPollBuffer buffer;
+
+    @Before
+    public void setup() {
+        final RepositoryProperties properties = new RepositoryProperties();
+        properties.getPollBuffer().setEnabled(true);
+        buffer = new TargetPollBuffer(properties, jdbcTemplateMock, sharedCacheMock);
+    }
+
+    @Test
+    @Description("Verifies that the polls of a failed flush are kept in the buffer and merged with the polls that "
+            + "arrived in the meantime.")
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void failedFlushKeepsPolls() throws Exception {
+        assertThat(buffer.offer(TENANT, TARGET_ID, 1000L, "address")).isTrue();
+
+        // the target polls again while the flush fails
+        doAnswer(invocation -> {
+            buffer.offer(TENANT, TARGET_ID, 2000L, null);
+            throw new QueryTimeoutException("timeout");
+        }).when(jdbcTemplateMock).batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        buffer.flush();
+        assertThat(buffer.size()).isEqualTo(1);
+
+        final ArgumentCaptor<Collection> updates = ArgumentCaptor.forClass(Collection.class);
+        final ArgumentCaptor<ParameterizedPreparedStatementSetter> setter = ArgumentCaptor
+                .forClass(ParameterizedPreparedStatementSetter.class);
+        doAnswer(invocation -> new int[0][]).when(jdbcTemplateMock).batchUpdate(anyString(), updates.capture(),
+                anyInt(), setter.capture());
+        buffer.flush();
+        assertThat(buffer.size()).isEqualTo(0);
+
+        assertThat(updates.getValue()).hasSize(1);
+        final PreparedStatement statement = mock(PreparedStatement.class);
+        setter.getValue().setValues(statement, updates.getValue().iterator().next());
+        verify(statement).setLong(1, 2000L);
+        verify(statement).setString(2, "address");
+        verify(statement).setLong(3, TARGET_ID);
+        verify(sharedCacheMock).evict(eq(JpaTargetInfo.class), eq(TARGET_ID));
+    }
+}
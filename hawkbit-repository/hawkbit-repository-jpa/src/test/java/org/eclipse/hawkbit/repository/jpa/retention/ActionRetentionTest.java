@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.retention;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.jpa.AbstractJpaIntegrationTest;
+import org.eclipse.hawkbit.repository.jpa.retention.ActionStatusArchive.ArchivedActionStatus;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+/**
+ * Test class for {@link ActionRetention}.
+ *
+ */
+@Features("Component Tests - Repository")
+@Stories("Action Retention")
+public class ActionRetentionTest extends AbstractJpaIntegrationTest {
+
+    @Autowired
+    private ActionRetention actionRetention;
+
+    @Autowired
+    private ActionStatusArchive actionStatusArchive;
+
+    @Test
+    @Description("Verifies that the retention is not applied as long as it is not enabled for the tenant.")
+    public void retentionIsDisabledByDefault() {
+        final Long actionId = createFinishedAction("disabled");
+
+        final ActionRetention.Result result = actionRetention.apply();
+
+        assertThat(result.getPurgedActions()).isEqualTo(0);
+        assertThat(result.getCompactedStatuses()).isEqualTo(0);
+        assertThat(actionRepository.exists(actionId)).isTrue();
+    }
+
+    @Test
+    @Description("Verifies that the oldest status entries exceeding the maximum are removed and archived in the order they occurred.")
+    public void compactStatusEntriesIntoArchive() {
+        final DistributionSet ds = testdataFactory.createDistributionSet("compact");
+        testdataFactory.createTarget("compact");
+        final Long actionId = assignDistributionSet(ds.getId(), "compact").getActions().get(0);
+        for (int i = 1; i <= 5; i++) {
+            controllerManagament.addUpdateActionStatus(entityFactory.actionStatus().create(actionId)
+                    .status(Action.Status.RUNNING).message("step " + i));
+        }
+        // the assignment added the first entry
+        assertThat(actionStatusRepository.count()).isEqualTo(6);
+
+        assertThat(actionRetention.compactStatusEntries(2, true)).isEqualTo(4);
+
+        assertThat(actionStatusRepository.count()).isEqualTo(2);
+        final List<ArchivedActionStatus> archived = actionStatusArchive.findByAction(actionId);
+        assertThat(archived).hasSize(4);
+        assertThat(archived.get(1).getMessages()).containsOnly("step 1");
+        assertThat(archived.get(3).getMessages()).containsOnly("step 3");
+        for (int i = 1; i < archived.size(); i++) {
+            assertThat(archived.get(i).getOccurredAt()).isGreaterThanOrEqualTo(archived.get(i - 1).getOccurredAt());
+        }
+
+        // a second run appends to the existing archive
+        controllerManagament.addUpdateActionStatus(
+                entityFactory.actionStatus().create(actionId).status(Action.Status.RUNNING).message("step 6"));
+        assertThat(actionRetention.compactStatusEntries(2, true)).isEqualTo(1);
+        assertThat(actionStatusArchive.findByAction(actionId)).hasSize(5);
+        assertThat(actionStatusArchive.findByAction(actionId).get(4).getMessages()).containsOnly("step 4");
+    }
+
+    @Test
+    @Description("Verifies that all actions are checked again if the maximum of status entries has been lowered, "
+            + "even if they did not receive new status entries.")
+    public void loweredMaximumCompactsUnchangedActions() {
+        final DistributionSet ds = testdataFactory.createDistributionSet("lowered");
+        testdataFactory.createTarget("lowered");
+        final Long actionId = assignDistributionSet(ds.getId(), "lowered").getActions().get(0);
+        for (int i = 1; i <= 3; i++) {
+            controllerManagament.addUpdateActionStatus(entityFactory.actionStatus().create(actionId)
+                    .status(Action.Status.RUNNING).message("step " + i));
+        }
+
+        assertThat(actionRetention.compactStatusEntries(10, false)).isEqualTo(0);
+        assertThat(actionRetention.compactStatusEntries(10, false)).isEqualTo(0);
+        assertThat(actionRetention.compactStatusEntries(2, false)).isEqualTo(2);
+
+        assertThat(actionStatusRepository.count()).isEqualTo(2);
+        assertThat(actionStatusArchive.findByAction(actionId)).isEmpty();
+    }
+
+    @Test
+    @Description("Verifies that only closed actions are purged after they expired.")
+    public void purgeExpiredActionsKeepsActiveActions() {
+        final Long finishedActionId = createFinishedAction("finished");
+        final DistributionSet ds = testdataFactory.createDistributionSet("active");
+        testdataFactory.createTarget("active");
+        final Long activeActionId = assignDistributionSet(ds.getId(), "active").getActions().get(0);
+
+        assertThat(actionRetention.purgeExpiredActions(System.currentTimeMillis() - 60_000)).isEqualTo(0);
+        assertThat(actionRetention.purgeExpiredActions(System.currentTimeMillis() + 1_000)).isEqualTo(1);
+
+        assertThat(actionRepository.exists(finishedActionId)).isFalse();
+        assertThat(actionRepository.exists(activeActionId)).isTrue();
+        assertThat(deploymentManagement.findActionWithDetails(activeActionId)).isNotNull();
+    }
+
+    @Test
+    @Description("Verifies that a distribution set which is still assigned to and installed on a target is only soft deleted after the actions of the assignment have been purged.")
+    public void deleteDistributionSetOfPurgedActions() {
+        final Long actionId = createFinishedAction("purged");
+        final Long dsId = deploymentManagement.findActionWithDetails(actionId).getDistributionSet().getId();
+
+        assertThat(actionRetention.purgeExpiredActions(System.currentTimeMillis() + 1_000)).isEqualTo(1);
+        assertThat(actionRepository.exists(actionId)).isFalse();
+
+        distributionSetManagement.deleteDistributionSet(dsId);
+
+        assertThat(distributionSetManagement.findDistributionSetById(dsId).isDeleted())
+                .as("referenced distribution set is soft deleted").isTrue();
+        final Target target = targetManagement.findTargetByControllerIDWithDetails("purged");
+        assertThat(target.getAssignedDistributionSet().getId()).isEqualTo(dsId);
+        assertThat(target.getTargetInfo().getInstalledDistributionSet().getId()).isEqualTo(dsId);
+    }
+
+    private Long createFinishedAction(final String controllerId) {
+        final DistributionSet ds = testdataFactory.createDistributionSet(controllerId);
+        testdataFactory.createTarget(controllerId);
+        final Long actionId = assignDistributionSet(ds.getId(), controllerId).getActions().get(0);
+        controllerManagament.addUpdateActionStatus(
+                entityFactory.actionStatus().create(actionId).status(Action.Status.FINISHED));
+        return actionId;
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.retention;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus;
+import org.eclipse.hawkbit.repository.jpa.retention.ActionStatusArchive.ArchivedActionStatus;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.junit.Test;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Repository")
+@Stories("Action Retention")
+public class ActionStatusArchiveTest {
+
+    @Test
+    @Description("Verifies that the archived entries are decoded with their status and all of their messages.")
+    public void entriesAreDecodedWithStatusAndMessages() {
+        final JpaActionStatus running = statusWithMessages(Status.RUNNING, 1000L, 40_000);
+        final JpaActionStatus finished = statusWithMessages(Status.FINISHED, 2000L, 1);
+
+        final List<ArchivedActionStatus> archived = ActionStatusArchive
+                .decode(ActionStatusArchive.encode(Arrays.asList(running, finished)));
+
+        assertThat(archived).hasSize(2);
+        assertThat(archived.get(0).getStatus()).isEqualTo(Status.RUNNING);
+        assertThat(archived.get(0).getOccurredAt()).isEqualTo(1000L);
+        assertThat(archived.get(0).getMessages()).hasSize(40_000);
+        assertThat(archived.get(1).getStatus()).isEqualTo(Status.FINISHED);
+        assertThat(archived.get(1).getMessages()).containsOnly("message 0");
+    }
+
+    @Test
+    @Description("Verifies that the messages of an entry exceeding the maximum of the archive are truncated.")
+    public void messagesExceedingTheMaximumAreTruncated() {
+        final JpaActionStatus status = statusWithMessages(Status.ERROR, 1000L, 70_000);
+
+        final List<ArchivedActionStatus> archived = ActionStatusArchive
+                .decode(ActionStatusArchive.encode(Arrays.asList(status)));
+
+        assertThat(archived.get(0).getMessages()).hasSize(0xFFFF);
+        assertThat(archived.get(0).getMessages().get(0xFFFF - 1)).isEqualTo("message " + (0xFFFF - 1));
+    }
+
+    private static JpaActionStatus statusWithMessages(final Status status, final long occurredAt,
+            final int messages) {
+        final JpaActionStatus actionStatus = new JpaActionStatus(status, occurredAt);
+        for (int i = 0; i < messages; i++) {
+            actionStatus.addMessage("message " + i);
+        }
+        return actionStatus;
+    }
+}
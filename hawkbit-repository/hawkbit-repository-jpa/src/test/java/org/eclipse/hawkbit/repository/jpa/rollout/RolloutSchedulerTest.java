@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.eclipse.hawkbit.repository.RolloutManagement;
+import org.eclipse.hawkbit.repository.RolloutProperties;
+import org.eclipse.hawkbit.repository.SystemManagement;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.jayway.awaitility.Awaitility;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@RunWith(MockitoJUnitRunner.class)
+@Features("Unit Tests - Repository")
+@Stories("Rollout Management")
+public class RolloutSchedulerTest {
+
+    private static final String TENANT = "tenant";
+    private static final String OTHER_TENANT = "otherTenant";
+
+    @Mock
+    private SystemManagement systemManagementMock;
+
+    @Mock
+    private RolloutManagement rolloutManagementMock;
+
+    @Mock
+    private SystemSecurityContext systemSecurityContextMock;
+
+    private final RolloutProperties rolloutProperties = new RolloutProperties();
+
+    private final List<Runnable> submitted = new ArrayList<>();
+
+    private RolloutScheduler scheduler;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        when(systemManagementMock.findTenants()).thenReturn(Arrays.asList(TENANT, OTHER_TENANT));
+        doAnswer(invocation -> ((Callable<Object>) invocation.getArguments()[0]).call())
+                .when(systemSecurityContextMock).runAsSystem(any(Callable.class));
+        doAnswer(invocation -> ((Callable<Object>) invocation.getArguments()[0]).call())
+                .when(systemSecurityContextMock).runAsSystemAsTenant(any(Callable.class), anyString());
+
+        scheduler = new RolloutScheduler();
+        ReflectionTestUtils.setField(scheduler, "systemManagement", systemManagementMock);
+        ReflectionTestUtils.setField(scheduler, "rolloutManagement", rolloutManagementMock);
+        ReflectionTestUtils.setField(scheduler, "systemSecurityContext", systemSecurityContextMock);
+        ReflectionTestUtils.setField(scheduler, "rolloutProperties", rolloutProperties);
+        ReflectionTestUtils.setField(scheduler, "workers", (Executor) submitted::add);
+        scheduler.init();
+    }
+
+    @Test
+    @Description("Verifies that the scheduler hands over one check per tenant to the workers without waiting for "
+            + "them and runs every check as system in the context of its tenant.")
+    public void tenantsAreCheckedByWorkersWithoutBlockingTheScheduler() {
+        scheduler.runningRolloutScheduler();
+
+        assertThat(submitted).hasSize(2);
+        assertThat(scheduler.getChecksInProgress()).isEqualTo(2);
+        verify(rolloutManagementMock, never()).checkRunningRollouts(anyLong());
+
+        submitted.forEach(Runnable::run);
+
+        verify(systemSecurityContextMock).runAsSystemAsTenant(any(Callable.class), eq(TENANT));
+        verify(systemSecurityContextMock).runAsSystemAsTenant(any(Callable.class), eq(OTHER_TENANT));
+        assertThat(scheduler.getChecksInProgress()).isEqualTo(0);
+        assertThat(scheduler.getLastCheckDurations().keySet()).containsOnly("running." + TENANT,
+                "running." + OTHER_TENANT);
+    }
+
+    @Test
+    @Description("Verifies that a tenant is not checked again until its former check is finished, even if it "
+            + "failed.")
+    public void tenantIsSkippedWhileItsCheckIsInProgress() {
+        doAnswer(invocation -> {
+            throw new IllegalStateException("check failed");
+        }).when(rolloutManagementMock).checkRunningRollouts(anyLong());
+        scheduler.runningRolloutScheduler();
+        scheduler.runningRolloutScheduler();
+        assertThat(submitted).hasSize(2);
+
+        submitted.forEach(Runnable::run);
+        scheduler.runningRolloutScheduler();
+
+        assertThat(submitted).hasSize(4);
+    }
+
+    @Test
+    @Description("Verifies that a running check is reported after it exceeded its time budget and that its tenant "
+            + "is checked again once it is finished.")
+    public void checkExceedingItsBudgetIsReported() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            ReflectionTestUtils.setField(scheduler, "workers", executor);
+            rolloutProperties.getWorkers().setTenantTimeBudget(0);
+            when(systemManagementMock.findTenants()).thenReturn(Arrays.asList(TENANT));
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            doAnswer(invocation -> {
+                started.countDown();
+                release.await();
+                return null;
+            }).when(rolloutManagementMock).checkRunningRollouts(anyLong());
+
+            scheduler.runningRolloutScheduler();
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(scheduler.getChecksOverBudget()).isEqualTo(1);
+
+            release.countDown();
+            Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> scheduler.getChecksInProgress() == 0);
+            assertThat(scheduler.getChecksOverBudget()).isEqualTo(0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @Description("Verifies that the owner of a tenant checks it with the configured delay and the other nodes "
+            + "only with the extended takeover delay.")
+    public void tenantsOfOtherNodesAreCheckedWithTakeoverDelay() {
+        rolloutProperties.getCluster().setNodeId("node1");
+        rolloutProperties.getCluster().setNodes(Arrays.asList("node1", "node2"));
+        scheduler.init();
+        final TenantShardRing ring = new TenantShardRing("node1", rolloutProperties.getCluster().getNodes());
+        final String owned = IntStream.range(0, 100).mapToObj(i -> "tenant" + i).filter(ring::isOwner)
+                .findFirst().get();
+        final String notOwned = IntStream.range(0, 100).mapToObj(i -> "tenant" + i)
+                .filter(tenant -> !ring.isOwner(tenant)).findFirst().get();
+        when(systemManagementMock.findTenants()).thenReturn(Arrays.asList(owned, notOwned));
+
+        scheduler.runningRolloutScheduler();
+        submitted.forEach(Runnable::run);
+
+        final long delay = rolloutProperties.getScheduler().getFixedDelay();
+        verify(rolloutManagementMock).checkRunningRollouts(delay);
+        verify(rolloutManagementMock)
+                .checkRunningRollouts(delay * rolloutProperties.getCluster().getTakeoverFactor());
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Repository")
+@Stories("Rollout Management")
+public class TenantShardRingTest {
+
+    private static final List<String> NODES = Arrays.asList("node1", "node2", "node3");
+
+    private static final List<String> TENANTS = IntStream.range(0, 1000).mapToObj(i -> "tenant" + i)
+            .collect(Collectors.toList());
+
+    @Test
+    @Description("Verifies that without cluster configuration every tenant is owned by the node.")
+    public void ownsAllTenantsWithoutCluster() {
+        final TenantShardRing ring = new TenantShardRing(null, Collections.emptyList());
+
+        assertThat(TENANTS.stream().allMatch(ring::isOwner)).isTrue();
+    }
+
+    @Test
+    @Description("Verifies that every tenant is owned by exactly one node and the tenants are distributed over all nodes.")
+    public void everyTenantHasExactlyOneOwner() {
+        final List<TenantShardRing> rings = NODES.stream().map(node -> new TenantShardRing(node, NODES))
+                .collect(Collectors.toList());
+
+        for (final String tenant : TENANTS) {
+            assertThat(rings.stream().filter(ring -> ring.isOwner(tenant)).count()).as("owners of " + tenant)
+                    .isEqualTo(1);
+        }
+        for (final TenantShardRing ring : rings) {
+            assertThat(TENANTS.stream().filter(ring::isOwner).count()).isGreaterThan(TENANTS.size() / 6);
+        }
+    }
+
+    @Test
+    @Description("Verifies that only the tenants of a leaving node are moved to other nodes.")
+    public void onlyTenantsOfLeavingNodeMove() {
+        final TenantShardRing before = new TenantShardRing("node1", NODES);
+        final TenantShardRing after = new TenantShardRing("node1", Arrays.asList("node1", "node2"));
+
+        for (final String tenant : TENANTS) {
+            if (!"node3".equals(before.getOwner(tenant))) {
+                assertThat(after.getOwner(tenant)).isEqualTo(before.getOwner(tenant));
+            }
+        }
+    }
+
+    @Test
+    @Description("Verifies that the ownership does not depend on the case of the tenant.")
+    public void ownershipIsCaseInsensitive() {
+        final TenantShardRing ring = new TenantShardRing("node1", NODES);
+
+        assertThat(ring.getOwner("myTenant")).isEqualTo(ring.getOwner("MYTENANT"));
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rsql;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.eclipse.hawkbit.repository.TargetFields;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Micro benchmark of {@link RSQLUtility} which compares building the
+ * predicate of a typical target filter query from the compiled query cache
+ * with parsing and validating the query for every use.
+ *
+ * The benchmark is not executed by the build, run it with the test classpath
+ * by means of {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RSQLUtilityBenchmark {
+
+    private static final String QUERY = "name==target*;(updatestatus==pending,updatestatus==error);"
+            + "tag=in=(europe,asia);assignedds.version!=1.0.0;description=li=*test*";
+
+    private final Predicate predicate = stub(Predicate.class);
+
+    private final Root<Object> root = stub(Root.class);
+
+    private final CriteriaBuilder cb = stub(CriteriaBuilder.class);
+
+    @Benchmark
+    public Predicate cached() {
+        return RSQLUtility.<TargetFields, Object> parse(QUERY, TargetFields.class, null).toPredicate(root, null, cb);
+    }
+
+    @Benchmark
+    public Predicate uncached() {
+        return RSQLUtility.<TargetFields, Object> parseUncached(QUERY, TargetFields.class, null).toPredicate(root,
+                null, cb);
+    }
+
+    /**
+     * Creates a stub of the given criteria API interface which returns
+     * itself, the predicate stub or the root stub where the return type
+     * allows it. String paths are assumed so that no values are converted.
+     */
+    @SuppressWarnings("unchecked")
+    private <S> S stub(final Class<?> type) {
+        return (S) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    final Class<?> returnType = method.getReturnType();
+                    if (Class.class.equals(returnType)) {
+                        return String.class;
+                    }
+                    if (returnType.isInstance(proxy)) {
+                        return proxy;
+                    }
+                    if (returnType.isInstance(predicate)) {
+                        return predicate;
+                    }
+                    if (returnType.isInstance(root)) {
+                        return root;
+                    }
+                    if (boolean.class.equals(returnType)) {
+                        return false;
+                    }
+                    if (int.class.equals(returnType)) {
+                        return System.identityHashCode(proxy);
+                    }
+                    return null;
+                });
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RSQLUtilityBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -8,6 +8,7 @@
  */
 package org.eclipse.hawkbit.repository.jpa.rsql;
 
+import static org.fest.assertions.api.Assertions.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
@@ -330,6 +331,47 @@ public class RSQLUtilityTest {
                 eq(overduePropPlaceholder));
     }
 
+    @Test
+    @Description("Verifies that a query is parsed once per field enum and the cached query is bound to every root.")
+    public void compiledRsqlIsCachedPerQueryAndFieldEnum() {
+        reset(baseSoftwareModuleRootMock, criteriaQueryMock, criteriaBuilderMock);
+        final String correctRsql = "testfield==cachedValue";
+        when(baseSoftwareModuleRootMock.get("testfield")).thenReturn(baseSoftwareModuleRootMock);
+        when(baseSoftwareModuleRootMock.getJavaType()).thenReturn((Class) String.class);
+        when(criteriaBuilderMock.upper(eq(pathOfString(baseSoftwareModuleRootMock))))
+                .thenReturn(pathOfString(baseSoftwareModuleRootMock));
+        final long hits = RSQLUtility.getCacheStats().hitCount();
+        final long misses = RSQLUtility.getCacheStats().missCount();
+
+        // test
+        RSQLUtility.parse(correctRsql, TestFieldEnum.class, null).toPredicate(baseSoftwareModuleRootMock,
+                criteriaQueryMock, criteriaBuilderMock);
+        RSQLUtility.parse(" TESTFIELD==cachedValue ", TestFieldEnum.class, null)
+                .toPredicate(baseSoftwareModuleRootMock, criteriaQueryMock, criteriaBuilderMock);
+
+        // verification
+        assertThat(RSQLUtility.getCacheStats().missCount()).isEqualTo(misses + 1);
+        assertThat(RSQLUtility.getCacheStats().hitCount()).isEqualTo(hits + 1);
+        verify(baseSoftwareModuleRootMock, times(2)).get("testfield");
+        verify(criteriaBuilderMock, times(2)).like(eq(pathOfString(baseSoftwareModuleRootMock)), eq("CACHEDVALUE"));
+    }
+
+    @Test
+    @Description("Verifies that an invalid query is not cached and fails on every use.")
+    public void invalidRsqlIsNotCached() {
+        final long size = RSQLUtility.getCacheSize();
+        for (int i = 0; i < 2; i++) {
+            try {
+                RSQLUtility.parse("unknownfield==abc", TestFieldEnum.class, null).toPredicate(
+                        baseSoftwareModuleRootMock, criteriaQueryMock, criteriaBuilderMock);
+                fail("Missing an expected RSQLParameterUnsupportedFieldException because of unknown RSQL field");
+            } catch (final RSQLParameterUnsupportedFieldException e) {
+                // expected
+            }
+        }
+        assertThat(RSQLUtility.getCacheSize()).isEqualTo(size);
+    }
+
     public VirtualPropertyReplacer setupMacroLookup() {
         when(confMgmt.getConfigurationValue(TenantConfigurationKey.POLLING_TIME_INTERVAL, String.class))
                 .thenReturn(TEST_POLLING_TIME_INTERVAL);
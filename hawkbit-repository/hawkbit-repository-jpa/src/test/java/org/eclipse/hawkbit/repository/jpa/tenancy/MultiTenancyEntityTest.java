@@ -13,6 +13,8 @@ import static org.fest.assertions.api.Assertions.assertThat;
 import org.eclipse.hawkbit.repository.jpa.AbstractJpaIntegrationTest;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TenantDeletionStatus;
+import org.eclipse.hawkbit.repository.model.TenantDeletionStatus.State;
 import org.eclipse.hawkbit.repository.test.util.WithSpringAuthorityRule;
 import org.eclipse.hawkbit.repository.test.util.WithUser;
 import org.junit.Test;
@@ -93,6 +95,23 @@ public class MultiTenancyEntityTest extends AbstractJpaIntegrationTest {
         assertThat(systemManagement.findTenants()).as("Expected number if tenants after deletion is").hasSize(2);
     }
 
+    @Test
+    @Description(value = "Ensures that the progress of a tenant deletion is reported per phase.")
+    @WithUser(tenantId = "mytenant", allSpPermissions = true)
+    public void deleteTenantReportsDeletionStatus() throws Exception {
+        final String anotherTenant = "anotherTenant";
+        createTargetForTenant("anotherController", anotherTenant);
+        createTargetForTenant("yetAnotherController", anotherTenant);
+        assertThat(systemManagement.getTenantDeletionStatus(anotherTenant)).isNull();
+
+        systemManagement.deleteTenant(anotherTenant);
+
+        final TenantDeletionStatus status = systemManagement.getTenantDeletionStatus(anotherTenant);
+        assertThat(status.getState()).isEqualTo(State.FINISHED);
+        assertThat(status.getDeletedEntities().get("targets")).as("Deleted targets").isEqualTo(2L);
+        assertThat(findTargetsForTenant(anotherTenant)).isEmpty();
+    }
+
     @Test
     @Description(value = "Ensures that tenant metadata is retrieved for the current tenant.")
     @WithUser(tenantId = "mytenant", autoCreateTenant = false, allSpPermissions = true)
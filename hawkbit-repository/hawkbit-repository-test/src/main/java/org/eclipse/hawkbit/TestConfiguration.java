@@ -9,6 +9,7 @@
 package org.eclipse.hawkbit;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import org.eclipse.hawkbit.api.ArtifactUrlHandlerProperties;
@@ -130,6 +131,26 @@ public class TestConfiguration implements AsyncConfigurer {
         return new DelegatingSecurityContextExecutorService(Executors.newSingleThreadExecutor());
     }
 
+    @Bean(name = "tenantDeletionExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService tenantDeletionExecutor() {
+        return Executors.newSingleThreadExecutor();
+    }
+
+    @Bean(name = "tenantBinaryCleanupExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService tenantBinaryCleanupExecutor() {
+        return Executors.newFixedThreadPool(2);
+    }
+
+    @Bean(name = "targetImportExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService targetImportExecutor() {
+        return Executors.newFixedThreadPool(2);
+    }
+
+    @Bean(name = "reportRefreshExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService reportRefreshExecutor() {
+        return Executors.newSingleThreadExecutor();
+    }
+
     @Bean
     public AuditorAware<String> auditorAware() {
         return new SpringSecurityAuditorAware();
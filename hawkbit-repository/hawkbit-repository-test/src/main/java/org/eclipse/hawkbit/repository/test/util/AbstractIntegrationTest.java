@@ -325,7 +325,10 @@ public abstract class AbstractIntegrationTest implements EnvironmentAware {
                 .addFilter(new DosFilter(100, 10, "127\\.0\\.0\\.1|\\[0:0:0:0:0:0:0:1\\]", "(^192\\.168\\.)",
                         "X-Forwarded-For"))
                 .addFilter(new ExcludePathAwareShallowETagFilter(
-                        "/rest/v1/softwaremodules/{smId}/artifacts/{artId}/download", "/*/controller/artifacts/**"));
+                        new String[] { "/rest/v1/softwaremodules/{smId}/artifacts/{artId}/download",
+                                "/*/controller/artifacts/**" },
+                        new String[] { "/*/controller/v1/*", "/*/controller/v1/*/deploymentBase/*",
+                                "/rest/v1/targets/*", "/rest/v1/distributionsets/*", "/rest/v1/softwaremodules/*" }));
     }
 
     private static CIMySqlTestDatabase tesdatabase;
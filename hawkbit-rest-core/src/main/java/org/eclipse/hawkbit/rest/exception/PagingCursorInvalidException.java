@@ -0,0 +1,31 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.rest.exception;
+
+import org.eclipse.hawkbit.exception.AbstractServerRtException;
+import org.eclipse.hawkbit.exception.SpServerError;
+
+/**
+ * Exception used by the REST API in case of an invalid paging cursor.
+ */
+public class PagingCursorInvalidException extends AbstractServerRtException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a new PagingCursorInvalidException with
+     * {@link SpServerError#SP_REST_PAGING_CURSOR_INVALID} error.
+     *
+     * @param cause
+     *            of the exception
+     */
+    public PagingCursorInvalidException(final Throwable cause) {
+        super(SpServerError.SP_REST_PAGING_CURSOR_INVALID, cause);
+    }
+}
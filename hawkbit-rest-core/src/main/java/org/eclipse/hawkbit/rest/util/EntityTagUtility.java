@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.rest.util;
+
+import static com.google.common.net.HttpHeaders.IF_NONE_MATCH;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.eclipse.hawkbit.repository.model.BaseEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ObjectArrays;
+import com.google.common.hash.Hashing;
+
+/**
+ * Utility class for the deep ETag support of the resources, i.e. the ETag is
+ * calculated by the resource from the version of the entities instead of the
+ * serialized response body. This allows to answer a conditional request with
+ * {@link HttpStatus#NOT_MODIFIED} before the response is created.
+ */
+public final class EntityTagUtility {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private static final String ANY_ETAG = "*";
+
+    private EntityTagUtility() {
+
+    }
+
+    /**
+     * Creates the ETag of an entity based on its ID, its optimistic lock
+     * revision and its last modification.
+     *
+     * @param entity
+     *            to create the ETag for
+     * @param additionalParts
+     *            the state that is part of the response but not covered by the
+     *            version of the entity, e.g. of related entities
+     * @return the ETag
+     */
+    public static String createETag(final BaseEntity entity, final Object... additionalParts) {
+        return createETag(ObjectArrays.concat(
+                new Object[] { entity.getId(), entity.getOptLockRevision(), entity.getLastModifiedAt() },
+                additionalParts, Object.class));
+    }
+
+    /**
+     * Creates an ETag from the given parts.
+     *
+     * @param parts
+     *            the state the response is created from
+     * @return the ETag
+     */
+    public static String createETag(final Object... parts) {
+        final String state = Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("|"));
+        return "\"" + Hashing.murmur3_128().hashString(state, StandardCharsets.UTF_8) + "\"";
+    }
+
+    /**
+     * @param request
+     *            the conditional request
+     * @param etag
+     *            the current ETag of the requested resource
+     * @return <code>true</code> if the {@code If-None-Match} header of the
+     *         request matches the given ETag
+     */
+    public static boolean isNotModified(final HttpServletRequest request, final String etag) {
+        for (final String header : Collections.list(request.getHeaders(IF_NONE_MATCH))) {
+            for (final String requested : Splitter.on(',').trimResults().omitEmptyStrings().split(header)) {
+                if (ANY_ETAG.equals(requested) || etag.equals(requested)
+                        || (requested.startsWith(WEAK_PREFIX) && etag.equals(requested.substring(2)))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param etag
+     *            the current ETag of the requested resource
+     * @return the {@link HttpStatus#NOT_MODIFIED} response
+     */
+    public static <T> ResponseEntity<T> notModified(final String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    /**
+     * @param body
+     *            of the response
+     * @param etag
+     *            of the body
+     * @return the {@link HttpStatus#OK} response with the given ETag
+     */
+    public static <T> ResponseEntity<T> ok(final T body, final String etag) {
+        return ResponseEntity.ok().eTag(etag).body(body);
+    }
+}
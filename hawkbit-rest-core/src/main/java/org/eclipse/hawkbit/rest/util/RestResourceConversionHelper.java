@@ -27,6 +27,10 @@ import static org.springframework.http.MediaType.APPLICATION_OCTET_STREAM_VALUE;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -35,6 +39,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
+import org.eclipse.hawkbit.artifact.repository.model.LocalFileArtifact;
 import org.eclipse.hawkbit.repository.ControllerManagement;
 import org.eclipse.hawkbit.repository.model.ActionStatus;
 import org.eclipse.hawkbit.repository.model.Artifact;
@@ -53,6 +58,17 @@ public final class RestResourceConversionHelper {
 
     private static final int BUFFER_SIZE = 4096;
 
+    /**
+     * Upper bound of a single {@link FileChannel#transferTo(long, long, WritableByteChannel)}
+     * call so that the download progress can still be reported.
+     */
+    private static final long MAX_TRANSFER_CHUNK_SIZE = 1024L * 1024L;
+
+    private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
     private RestResourceConversionHelper() {
 
     }
@@ -86,6 +102,14 @@ public final class RestResourceConversionHelper {
      * The request supports RFC7233 range requests.
      * </p>
      *
+     * <p>
+     * Artifacts that are available as {@link LocalFileArtifact} are
+     * transferred through a {@link FileChannel} with positional reads instead
+     * of skipping through an {@link InputStream}. If no progress has to be
+     * reported and the servlet container supports it the transfer of a single
+     * range is handed over to the container's sendfile support.
+     * </p>
+     *
      * @param artifact
      *            the artifact
      * @param response
@@ -154,13 +178,14 @@ public final class RestResourceConversionHelper {
         // full request - no range
         if (ranges.isEmpty() || ranges.get(0).equals(full)) {
             LOG.debug("filename ({}) results into a full request: ", artifact.getFilename());
-            handleFullFileRequest(artifact, response, file, controllerManagement, statusId, full);
+            handleFullFileRequest(artifact, response, request, file, controllerManagement, statusId, full);
             result = new ResponseEntity<>(OK);
         }
         // standard range request
         else if (ranges.size() == 1) {
             LOG.debug("filename ({}) results into a standard range request: ", artifact.getFilename());
-            handleStandardRangeRequest(artifact, response, file, controllerManagement, statusId, ranges);
+            handleStandardRangeRequest(artifact, response, request, file, controllerManagement, statusId,
+                    ranges);
             result = new ResponseEntity<>(PARTIAL_CONTENT);
         }
         // multipart range request
@@ -174,15 +199,14 @@ public final class RestResourceConversionHelper {
     }
 
     private static void handleFullFileRequest(final Artifact artifact, final HttpServletResponse response,
-            final DbArtifact file, final ControllerManagement controllerManagement, final Long statusId,
-            final ByteRange full) {
+            final HttpServletRequest request, final DbArtifact file, final ControllerManagement controllerManagement,
+            final Long statusId, final ByteRange full) {
         final ByteRange r = full;
         response.setHeader(CONTENT_RANGE, "bytes " + r.getStart() + "-" + r.getEnd() + "/" + r.getTotal());
         response.setHeader(CONTENT_LENGTH, String.valueOf(r.getLength()));
 
-        try (InputStream inputStream = file.getFileInputStream()) {
-            copyStreams(inputStream, response.getOutputStream(), controllerManagement, statusId, r.getStart(),
-                    r.getLength());
+        try {
+            copyRange(request, response, file, controllerManagement, statusId, r);
         } catch (final IOException e) {
             LOG.error("fullfileRequest of file ({}) failed!", artifact.getFilename(), e);
             throw new FileSteamingFailedException(artifact.getFilename());
@@ -246,9 +270,9 @@ public final class RestResourceConversionHelper {
         response.setContentType("multipart/byteranges; boundary=" + MULTIPART_BOUNDARY);
         response.setStatus(SC_PARTIAL_CONTENT);
 
-        for (final ByteRange r : ranges) {
-            try (InputStream inputStream = file.getFileInputStream()) {
-
+        // a local file is opened only once for all ranges
+        try (FileChannel channel = openFileChannel(file)) {
+            for (final ByteRange r : ranges) {
                 // Add multipart boundary and header fields for every range.
                 response.getOutputStream().println();
                 response.getOutputStream().println("--" + MULTIPART_BOUNDARY);
@@ -256,11 +280,18 @@ public final class RestResourceConversionHelper {
                         .println("Content-Range: bytes " + r.getStart() + "-" + r.getEnd() + "/" + r.getTotal());
 
                 // Copy single part range of multi part range.
-                copyStreams(inputStream, response.getOutputStream(), controllerManagement, statusId, r.getStart(),
-                        r.getLength());
-            } catch (final IOException e) {
-                throwFileStreamingFailedException(artifact, e);
+                if (channel != null) {
+                    copyChannel(channel, response.getOutputStream(), controllerManagement, statusId, r.getStart(),
+                            r.getLength());
+                } else {
+                    try (InputStream inputStream = file.getFileInputStream()) {
+                        copyStreams(inputStream, response.getOutputStream(), controllerManagement, statusId,
+                                r.getStart(), r.getLength());
+                    }
+                }
             }
+        } catch (final IOException e) {
+            throwFileStreamingFailedException(artifact, e);
         }
         try {
             // End with final multipart boundary.
@@ -277,71 +308,169 @@ public final class RestResourceConversionHelper {
     }
 
     private static void handleStandardRangeRequest(final Artifact artifact, final HttpServletResponse response,
-            final DbArtifact file, final ControllerManagement controllerManagement, final Long statusId,
-            final List<ByteRange> ranges) {
+            final HttpServletRequest request, final DbArtifact file, final ControllerManagement controllerManagement,
+            final Long statusId, final List<ByteRange> ranges) {
         final ByteRange r = ranges.get(0);
         response.setHeader(CONTENT_RANGE, "bytes " + r.getStart() + "-" + r.getEnd() + "/" + r.getTotal());
         response.setHeader(CONTENT_LENGTH, String.valueOf(r.getLength()));
         response.setStatus(SC_PARTIAL_CONTENT);
 
-        try (InputStream inputStream = file.getFileInputStream()) {
-            copyStreams(inputStream, response.getOutputStream(), controllerManagement, statusId, r.getStart(),
-                    r.getLength());
+        try {
+            copyRange(request, response, file, controllerManagement, statusId, r);
         } catch (final IOException e) {
             LOG.error("standardRangeRequest of file ({}) failed!", artifact.getFilename(), e);
             throw new FileSteamingFailedException(artifact.getFilename());
         }
     }
 
+    private static void copyRange(final HttpServletRequest request, final HttpServletResponse response,
+            final DbArtifact file, final ControllerManagement controllerManagement, final Long statusId,
+            final ByteRange r) throws IOException {
+        if (controllerManagement == null && sendfile(request, file, r)) {
+            return;
+        }
+
+        try (FileChannel channel = openFileChannel(file)) {
+            if (channel != null) {
+                copyChannel(channel, response.getOutputStream(), controllerManagement, statusId, r.getStart(),
+                        r.getLength());
+                return;
+            }
+        }
+
+        try (InputStream inputStream = file.getFileInputStream()) {
+            copyStreams(inputStream, response.getOutputStream(), controllerManagement, statusId, r.getStart(),
+                    r.getLength());
+        }
+    }
+
+    /**
+     * Hands the transfer of the given range over to the sendfile support of
+     * the servlet container (if available) which writes the file directly from
+     * the page cache into the socket after the request has been processed.
+     * Progress cannot be reported in that case.
+     */
+    private static boolean sendfile(final HttpServletRequest request, final DbArtifact file, final ByteRange r) {
+        if (!(file instanceof LocalFileArtifact)
+                || !Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+            return false;
+        }
+
+        request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE,
+                ((LocalFileArtifact) file).getFilePath().toAbsolutePath().toString());
+        request.setAttribute(SENDFILE_START_ATTRIBUTE, r.getStart());
+        request.setAttribute(SENDFILE_END_ATTRIBUTE, r.getEnd() + 1);
+        return true;
+    }
+
+    private static FileChannel openFileChannel(final DbArtifact file) throws IOException {
+        if (file instanceof LocalFileArtifact) {
+            return FileChannel.open(((LocalFileArtifact) file).getFilePath(), StandardOpenOption.READ);
+        }
+        return null;
+    }
+
+    private static long copyChannel(final FileChannel from, final OutputStream to,
+            final ControllerManagement controllerManagement, final Long statusId, final long start, final long length)
+            throws IOException {
+        checkNotNull(from);
+        checkNotNull(to);
+
+        // the stream is not closed by the channel as long as the channel is
+        // not closed itself
+        final WritableByteChannel target = Channels.newChannel(to);
+        final DownloadProgress progress = new DownloadProgress(controllerManagement, statusId, length);
+        final long chunkSize = Math.max(BUFFER_SIZE, Math.min(MAX_TRANSFER_CHUNK_SIZE, length / 20));
+
+        long position = start;
+        final long end = start + length;
+        while (position < end) {
+            final long transferred = from.transferTo(position, Math.min(chunkSize, end - position), target);
+            if (transferred <= 0) {
+                break;
+            }
+            position += transferred;
+            progress.shipped(transferred);
+        }
+        return progress.getTotal();
+    }
+
     private static long copyStreams(final InputStream from, final OutputStream to,
             final ControllerManagement controllerManagement, final Long statusId, final long start, final long length)
             throws IOException {
         checkNotNull(from);
         checkNotNull(to);
         final byte[] buf = new byte[BUFFER_SIZE];
-        long total = 0;
-        int progressPercent = 1;
+        final DownloadProgress progress = new DownloadProgress(controllerManagement, statusId, length);
 
-        // skipp until start is reached
+        // skip until start is reached
         long skipped = 0;
-        do {
-            skipped += from.skip(start);
-        } while (skipped < start);
+        while (skipped < start) {
+            final long s = from.skip(start - skipped);
+            if (s <= 0) {
+                // skip might return 0 without reaching the end of the stream
+                if (from.read() == -1) {
+                    return 0;
+                }
+                skipped++;
+            } else {
+                skipped += s;
+            }
+        }
 
         long toRead = length;
-        boolean toContinue = true;
-        long shippedSinceLastEvent = 0;
-
-        while (toContinue) {
-            final int r = from.read(buf);
+        while (toRead > 0) {
+            final int r = from.read(buf, 0, (int) Math.min(buf.length, toRead));
             if (r == -1) {
                 break;
             }
 
+            to.write(buf, 0, r);
             toRead -= r;
-            if (toRead > 0) {
-                to.write(buf, 0, r);
-                total += r;
-                shippedSinceLastEvent += r;
-            } else {
-                to.write(buf, 0, (int) toRead + r);
-                total += toRead + r;
-                shippedSinceLastEvent += toRead + r;
-                toContinue = false;
+            progress.shipped(r);
+        }
+        return progress.getTotal();
+    }
+
+    /**
+     * Publishes the download progress every 10 percent.
+     */
+    private static final class DownloadProgress {
+        private final ControllerManagement controllerManagement;
+        private final Long statusId;
+        private final long length;
+        private long total;
+        private long shippedSinceLastEvent;
+        private int progressPercent = 1;
+
+        private DownloadProgress(final ControllerManagement controllerManagement, final Long statusId,
+                final long length) {
+            this.controllerManagement = controllerManagement;
+            this.statusId = statusId;
+            this.length = length;
+        }
+
+        private void shipped(final long bytes) {
+            total += bytes;
+            shippedSinceLastEvent += bytes;
+
+            if (controllerManagement == null) {
+                return;
             }
 
-            if (controllerManagement != null) {
-                final int newPercent = DoubleMath.roundToInt(total * 100.0 / length, DOWN);
+            final int newPercent = DoubleMath.roundToInt(total * 100.0 / length, DOWN);
 
-                // every 10 percent an event
-                if (newPercent == 100 || newPercent > progressPercent + 10) {
-                    progressPercent = newPercent;
-                    controllerManagement.downloadProgress(statusId, length, shippedSinceLastEvent, total);
-                    shippedSinceLastEvent = 0;
-                }
+            // every 10 percent an event
+            if (newPercent == 100 || newPercent > progressPercent + 10) {
+                progressPercent = newPercent;
+                controllerManagement.downloadProgress(statusId, length, shippedSinceLastEvent, total);
+                shippedSinceLastEvent = 0;
             }
         }
-        return total;
+
+        private long getTotal() {
+            return total;
+        }
     }
 
     /**
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.rest.util;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
+import org.eclipse.hawkbit.artifact.repository.model.LocalFileArtifact;
+import org.eclipse.hawkbit.repository.model.Artifact;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Artifact Download")
+@Stories("File response writing")
+public class RestResourceConversionHelperTest {
+
+    private static final int FILE_SIZE = 100_000;
+
+    private byte[] content;
+    private Path path;
+    private Artifact artifact;
+
+    @Before
+    public void setup() throws IOException {
+        content = new byte[FILE_SIZE];
+        new Random().nextBytes(content);
+        path = Files.createTempFile("artifact", ".bin");
+        Files.write(path, content);
+
+        artifact = mock(Artifact.class);
+        when(artifact.getSha1Hash()).thenReturn("sha1");
+        when(artifact.getFilename()).thenReturn("file.bin");
+        when(artifact.getCreatedAt()).thenReturn(System.currentTimeMillis());
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    @Description("Verifies that a local file is completely transferred through its file channel.")
+    public void fullRequestOfLocalFile() throws IOException {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        final ResponseEntity<InputStream> result = RestResourceConversionHelper.writeFileResponse(artifact, response,
+                new MockHttpServletRequest(), new LocalFile(path, content.length));
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    @Description("Verifies that a range of a local file is transferred with a positional read.")
+    public void rangeRequestOfLocalFile() throws IOException {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=1000-49999");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        final ResponseEntity<InputStream> result = RestResourceConversionHelper.writeFileResponse(artifact, response,
+                request, new LocalFile(path, content.length));
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 1000, 50000));
+    }
+
+    @Test
+    @Description("Verifies that a range of an artifact that is only available as stream is skipped to correctly.")
+    public void rangeRequestOfStream() throws IOException {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=1000-49999");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final DbArtifact file = new DbArtifact();
+        file.setSize((long) content.length);
+        file.setFileInputStream(new ByteArrayInputStream(content));
+
+        RestResourceConversionHelper.writeFileResponse(artifact, response, request, file);
+
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 1000, 50000));
+    }
+
+    @Test
+    @Description("Verifies that the transfer of a local file is handed over to the container if it supports sendfile.")
+    public void sendfileIsUsedIfSupported() {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        RestResourceConversionHelper.writeFileResponse(artifact, response, request,
+                new LocalFile(path, content.length));
+
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename"))
+                .isEqualTo(path.toAbsolutePath().toString());
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(0L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo((long) FILE_SIZE);
+    }
+
+    private static final class LocalFile extends DbArtifact implements LocalFileArtifact {
+        private final Path path;
+
+        private LocalFile(final Path path, final long size) {
+            this.path = path;
+            setSize(size);
+        }
+
+        @Override
+        public Path getFilePath() {
+            return path;
+        }
+    }
+}
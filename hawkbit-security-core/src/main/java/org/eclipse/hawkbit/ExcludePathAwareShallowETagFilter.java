@@ -15,6 +15,7 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.springframework.http.HttpMethod;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.ShallowEtagHeaderFilter;
 
@@ -24,20 +25,34 @@ import org.springframework.web.filter.ShallowEtagHeaderFilter;
  * expensive operation and the response output need to be copied in memory which
  * should be excluded in case of artifact downloads which could be big of size.
  * 
- *
- *
+ * In addition GET requests to deep ETag paths are not buffered either. The
+ * resources behind these paths calculate the ETag from the version of the
+ * entities and answer conditional requests before the response is created.
  *
  */
 public class ExcludePathAwareShallowETagFilter extends ShallowEtagHeaderFilter {
 
     private final String[] excludeAntPaths;
+    private final String[] deepETagAntPaths;
     private final AntPathMatcher antMatcher;
 
     /**
      * @param excludeAntPaths
      */
     public ExcludePathAwareShallowETagFilter(final String... excludeAntPaths) {
+        this(excludeAntPaths, new String[0]);
+    }
+
+    /**
+     * @param excludeAntPaths
+     *            paths without ETag
+     * @param deepETagAntPaths
+     *            paths of resources which calculate the ETag for GET requests
+     *            on their own
+     */
+    public ExcludePathAwareShallowETagFilter(final String[] excludeAntPaths, final String[] deepETagAntPaths) {
         this.excludeAntPaths = excludeAntPaths;
+        this.deepETagAntPaths = deepETagAntPaths;
         this.antMatcher = new AntPathMatcher();
     }
 
@@ -52,7 +67,8 @@ public class ExcludePathAwareShallowETagFilter extends ShallowEtagHeaderFilter {
     @Override
     protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
             final FilterChain filterChain) throws ServletException, IOException {
-        final boolean shouldExclude = shouldExclude(request);
+        final boolean shouldExclude = matches(request, excludeAntPaths)
+                || (HttpMethod.GET.matches(request.getMethod()) && matches(request, deepETagAntPaths));
         if (shouldExclude) {
             filterChain.doFilter(request, response);
         } else {
@@ -60,8 +76,8 @@ public class ExcludePathAwareShallowETagFilter extends ShallowEtagHeaderFilter {
         }
     }
 
-    private boolean shouldExclude(final HttpServletRequest request) {
-        for (final String pattern : excludeAntPaths) {
+    private boolean matches(final HttpServletRequest request, final String[] antPaths) {
+        for (final String pattern : antPaths) {
             if (antMatcher.match(request.getContextPath() + pattern, request.getRequestURI())) {
                 // exclude this request from eTag filter
                 return true;
@@ -130,6 +130,8 @@ public class DdiSecurityProperties {
              */
             private boolean enabled = false;
 
+            private final Cache cache = new Cache();
+
             public boolean isEnabled() {
                 return enabled;
             }
@@ -138,6 +140,60 @@ public class DdiSecurityProperties {
                 this.enabled = enabled;
             }
 
+            public Cache getCache() {
+                return cache;
+            }
+
+            /**
+             * Cache of the target security tokens which saves the repository
+             * lookup of the target for every authenticated request. Only a
+             * digest of the token is cached. The entries are evicted by the
+             * target update and deletion events.
+             */
+            public static class Cache {
+
+                /**
+                 * Set to false to look up the target security token for every
+                 * request.
+                 */
+                private boolean enabled = true;
+
+                /**
+                 * Maximum number of cached tokens over all tenants.
+                 */
+                private long maxSize = 100_000L;
+
+                /**
+                 * Time to live of a cache entry in milliseconds as safety net
+                 * in case an eviction event got lost.
+                 */
+                private long ttl = 60_000L;
+
+                public boolean isEnabled() {
+                    return enabled;
+                }
+
+                public void setEnabled(final boolean enabled) {
+                    this.enabled = enabled;
+                }
+
+                public long getMaxSize() {
+                    return maxSize;
+                }
+
+                public void setMaxSize(final long maxSize) {
+                    this.maxSize = maxSize;
+                }
+
+                public long getTtl() {
+                    return ttl;
+                }
+
+                public void setTtl(final long ttl) {
+                    this.ttl = ttl;
+                }
+            }
+
         }
 
         /**
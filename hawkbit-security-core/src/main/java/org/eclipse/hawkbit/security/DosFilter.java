@@ -8,11 +8,13 @@
  */
 package org.eclipse.hawkbit.security;
 
-import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.eclipse.hawkbit.security.SecurityConstants.SECURITY_LOG_PREFIX;
 
 import java.io.IOException;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.servlet.FilterChain;
@@ -20,20 +22,28 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.eclipse.hawkbit.security.HawkbitSecurityProperties.Dos.Filter;
 import org.eclipse.hawkbit.util.IpUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-
 /**
  * Filter for protection against denial of service attacks. It reduces the
  * maximum number of request per seconds which can be separately configured for
  * read (GET) and write (PUT/POST/DELETE) requests.
+ *
+ * The requests of the controller API are limited per controller, so that
+ * devices behind a NAT gateway do not share one limit. As the controller is
+ * taken from the unauthenticated URL they are limited per client IP address
+ * with a higher quota as well, and optionally per tenant. All other requests
+ * are limited per client IP address.
+ *
+ * The limiters forget idle clients by {@link #cleanup()}, which is scheduled
+ * if the filter is a bean.
  */
 public class DosFilter extends OncePerRequestFilter {
 
@@ -41,16 +51,15 @@ public class DosFilter extends OncePerRequestFilter {
     private static final Logger LOG_DOS = LoggerFactory.getLogger(SECURITY_LOG_PREFIX + ".dos");
     private static final Logger LOG_BLACKLIST = LoggerFactory.getLogger(SECURITY_LOG_PREFIX + ".blacklist");
 
-    private final Pattern ipAdressBlacklist;
+    private static final Pattern CONTROLLER_PATH = Pattern.compile("^/([^/]+)/controller/v1/([^/]+)");
 
-    private final Cache<String, AtomicInteger> readCountCache = CacheBuilder.newBuilder().expireAfterAccess(1, SECONDS)
-            .build();
+    private static final long CLEANUP_INTERVAL = 10_000;
 
-    private final Cache<String, AtomicInteger> writeCountCache = CacheBuilder.newBuilder().expireAfterAccess(1, SECONDS)
-            .build();
+    private final Pattern ipAdressBlacklist;
 
-    private final Integer maxRead;
-    private final Integer maxWrite;
+    private final Quota clientQuota;
+    private final Quota ipQuota;
+    private final Quota tenantQuota;
 
     private final Pattern whitelist;
 
@@ -61,10 +70,10 @@ public class DosFilter extends OncePerRequestFilter {
      *
      * @param maxRead
      *            Maximum number of allowed REST read/GET requests per second
-     *            per client
+     *            per client and per client IP address
      * @param maxWrite
      *            Maximum number of allowed REST write/(PUT/POST/etc.) requests
-     *            per second per client
+     *            per second per client and per client IP address
      * @param ipDosWhiteListPattern
      *            {@link Pattern} with with white list of peer IP addresses for
      *            DOS filter
@@ -76,9 +85,34 @@ public class DosFilter extends OncePerRequestFilter {
      */
     public DosFilter(final Integer maxRead, final Integer maxWrite, final String ipDosWhiteListPattern,
             final String ipBlackListPattern, final String forwardHeader) {
+        this(new Quota("client", maxRead, maxWrite), new Quota("ip", maxRead, maxWrite), new Quota("tenant", 0, 0),
+                ipDosWhiteListPattern, ipBlackListPattern, forwardHeader);
+    }
+
+    /**
+     * Filter constructor including configuration.
+     *
+     * @param filterProperties
+     *            with the limits and the white list of the filter
+     * @param ipBlackListPattern
+     *            {@link Pattern} with black listed IP addresses
+     * @param forwardHeader
+     *            the header containing the forwarded IP address e.g.
+     *            {@code x-forwarded-for}
+     */
+    public DosFilter(final Filter filterProperties, final String ipBlackListPattern, final String forwardHeader) {
+        this(new Quota("client", filterProperties.getMaxRead(), filterProperties.getMaxWrite()),
+                new Quota("ip", filterProperties.getMaxReadPerIp(), filterProperties.getMaxWritePerIp()),
+                new Quota("tenant", filterProperties.getMaxReadPerTenant(), filterProperties.getMaxWritePerTenant()),
+                filterProperties.getWhitelist(), ipBlackListPattern, forwardHeader);
+    }
+
+    private DosFilter(final Quota clientQuota, final Quota ipQuota, final Quota tenantQuota,
+            final String ipDosWhiteListPattern, final String ipBlackListPattern, final String forwardHeader) {
 
-        this.maxRead = maxRead;
-        this.maxWrite = maxWrite;
+        this.clientQuota = clientQuota;
+        this.ipQuota = ipQuota;
+        this.tenantQuota = tenantQuota;
         this.forwardHeader = forwardHeader;
 
         if (ipBlackListPattern != null && !ipBlackListPattern.isEmpty()) {
@@ -94,6 +128,40 @@ public class DosFilter extends OncePerRequestFilter {
         }
     }
 
+    /**
+     * @return number of rejected requests per quota, e.g.
+     *         {@code client.read}
+     */
+    public Map<String, Long> getRejectedRequests() {
+        final Map<String, Long> rejected = new LinkedHashMap<>();
+        clientQuota.addRejectedRequests(rejected);
+        ipQuota.addRejectedRequests(rejected);
+        tenantQuota.addRejectedRequests(rejected);
+        return rejected;
+    }
+
+    /**
+     * @return number of tracked clients per quota, e.g. {@code client.read}
+     */
+    public Map<String, Integer> getTrackedClients() {
+        final Map<String, Integer> tracked = new LinkedHashMap<>();
+        clientQuota.addTrackedClients(tracked);
+        ipQuota.addTrackedClients(tracked);
+        tenantQuota.addTrackedClients(tracked);
+        return tracked;
+    }
+
+    /**
+     * Removes the clients that have been idle since the previous cleanup from
+     * the limiters.
+     */
+    @Scheduled(initialDelay = CLEANUP_INTERVAL, fixedDelay = CLEANUP_INTERVAL)
+    public void cleanup() {
+        clientQuota.cleanup();
+        ipQuota.cleanup();
+        tenantQuota.cleanup();
+    }
+
     @Override
     protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
             final FilterChain filterChain) throws ServletException, IOException {
@@ -108,14 +176,8 @@ public class DosFilter extends OncePerRequestFilter {
             processChain = checkAgainstBlacklist(response, ip);
 
             if (processChain && (whitelist == null || !whitelist.matcher(ip).find())) {
-                // read request
-                if (HttpMethod.valueOf(request.getMethod()) == HttpMethod.GET) {
-                    processChain = handleReadRequest(response, ip);
-                }
-                // write request
-                else {
-                    processChain = handleWriteRequest(response, ip);
-                }
+                processChain = checkQuotas(request, response, ip,
+                        HttpMethod.valueOf(request.getMethod()) == HttpMethod.GET);
             }
         }
 
@@ -147,35 +209,83 @@ public class DosFilter extends OncePerRequestFilter {
         return false;
     }
 
-    private boolean handleWriteRequest(final HttpServletResponse response, final String ip) {
-        boolean processChain = true;
-        final AtomicInteger count = writeCountCache.getIfPresent(ip);
+    private boolean checkQuotas(final HttpServletRequest request, final HttpServletResponse response,
+            final String ip, final boolean read) {
+        final Matcher controllerPath = CONTROLLER_PATH
+                .matcher(request.getRequestURI().substring(request.getContextPath().length()));
+
+        final boolean withinQuotas;
+        if (controllerPath.find()) {
+            // the controller is checked last so that a client which rotates
+            // controller IDs cannot fill its limiter beyond the IP quota
+            final String tenant = controllerPath.group(1).toUpperCase();
+            withinQuotas = ipQuota.tryAcquire(ip, read) && tenantQuota.tryAcquire(tenant, read)
+                    && clientQuota.tryAcquire(tenant + "/" + controllerPath.group(2), read);
+        } else {
+            withinQuotas = clientQuota.tryAcquire(ip, read);
+        }
 
-        if (count == null) {
-            writeCountCache.put(ip, new AtomicInteger());
-        } else if (count.getAndIncrement() > maxWrite) {
-            LOG_DOS.info("Registered DOS attack! Client {} is above configured WRITE request threshold ({})!", ip,
-                    maxWrite);
+        if (!withinQuotas) {
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            processChain = false;
         }
-
-        return processChain;
+        return withinQuotas;
     }
 
-    private boolean handleReadRequest(final HttpServletResponse response, final String ip) {
-        boolean processChain = true;
-        final AtomicInteger count = readCountCache.getIfPresent(ip);
+    /**
+     * Read and write request limits of one kind of client.
+     */
+    private static final class Quota {
+        private final String name;
+        private final int maxRead;
+        private final int maxWrite;
+        private final RequestRateLimiter readLimiter;
+        private final RequestRateLimiter writeLimiter;
+        private final LongAdder rejectedReads = new LongAdder();
+        private final LongAdder rejectedWrites = new LongAdder();
+
+        private Quota(final String name, final int maxRead, final int maxWrite) {
+            this.name = name;
+            this.maxRead = maxRead;
+            this.maxWrite = maxWrite;
+            readLimiter = maxRead > 0 ? new RequestRateLimiter(maxRead) : null;
+            writeLimiter = maxWrite > 0 ? new RequestRateLimiter(maxWrite) : null;
+        }
+
+        private boolean tryAcquire(final String client, final boolean read) {
+            final RequestRateLimiter limiter = read ? readLimiter : writeLimiter;
+            if (limiter == null || limiter.tryAcquire(client)) {
+                return true;
+            }
 
-        if (count == null) {
-            readCountCache.put(ip, new AtomicInteger());
-        } else if (count.getAndIncrement() > maxRead) {
-            LOG_DOS.info("Registered DOS attack! Client {} is above configured READ request threshold ({})!", ip,
-                    maxRead);
-            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            processChain = false;
+            if (read) {
+                rejectedReads.increment();
+                LOG_DOS.info("Registered DOS attack! Client {} is above configured READ request threshold ({})!",
+                        client, maxRead);
+            } else {
+                rejectedWrites.increment();
+                LOG_DOS.info("Registered DOS attack! Client {} is above configured WRITE request threshold ({})!",
+                        client, maxWrite);
+            }
+            return false;
+        }
+
+        private void cleanup() {
+            if (readLimiter != null) {
+                readLimiter.cleanup();
+            }
+            if (writeLimiter != null) {
+                writeLimiter.cleanup();
+            }
         }
 
-        return processChain;
+        private void addRejectedRequests(final Map<String, Long> rejected) {
+            rejected.put(name + ".read", rejectedReads.sum());
+            rejected.put(name + ".write", rejectedWrites.sum());
+        }
+
+        private void addTrackedClients(final Map<String, Integer> tracked) {
+            tracked.put(name + ".read", readLimiter != null ? readLimiter.size() : 0);
+            tracked.put(name + ".write", writeLimiter != null ? writeLimiter.size() : 0);
+        }
     }
 }
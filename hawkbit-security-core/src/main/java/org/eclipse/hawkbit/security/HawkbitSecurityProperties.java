@@ -131,16 +131,45 @@ public class HawkbitSecurityProperties {
 
             /**
              * # Maximum number of allowed REST read/GET requests per second per
-             * client.
+             * client, i.e. per controller for the controller API and per IP
+             * address otherwise.
              */
             int maxRead = 200;
 
             /**
              * Maximum number of allowed REST write/(PUT/POST/etc.) requests per
-             * second per client.
+             * second per client, i.e. per controller for the controller API and
+             * per IP address otherwise.
              */
             int maxWrite = 50;
 
+            /**
+             * Maximum number of allowed controller read/GET requests per
+             * second per client IP address (0 to disable). The controller is
+             * taken from the unauthenticated URL, so this is the limit of a
+             * client that rotates controller IDs. It has to cover all devices
+             * behind one NAT gateway.
+             */
+            private int maxReadPerIp = 1000;
+
+            /**
+             * Maximum number of allowed controller write/(PUT/POST/etc.)
+             * requests per second per client IP address (0 to disable).
+             */
+            private int maxWritePerIp = 250;
+
+            /**
+             * Maximum number of allowed controller read/GET requests per
+             * second per tenant (0 to disable).
+             */
+            private int maxReadPerTenant;
+
+            /**
+             * Maximum number of allowed controller write/(PUT/POST/etc.)
+             * requests per second per tenant (0 to disable).
+             */
+            private int maxWritePerTenant;
+
             public String getWhitelist() {
                 return whitelist;
             }
@@ -165,6 +194,38 @@ public class HawkbitSecurityProperties {
                 this.maxWrite = maxWrite;
             }
 
+            public int getMaxReadPerIp() {
+                return maxReadPerIp;
+            }
+
+            public void setMaxReadPerIp(final int maxReadPerIp) {
+                this.maxReadPerIp = maxReadPerIp;
+            }
+
+            public int getMaxWritePerIp() {
+                return maxWritePerIp;
+            }
+
+            public void setMaxWritePerIp(final int maxWritePerIp) {
+                this.maxWritePerIp = maxWritePerIp;
+            }
+
+            public int getMaxReadPerTenant() {
+                return maxReadPerTenant;
+            }
+
+            public void setMaxReadPerTenant(final int maxReadPerTenant) {
+                this.maxReadPerTenant = maxReadPerTenant;
+            }
+
+            public int getMaxWritePerTenant() {
+                return maxWritePerTenant;
+            }
+
+            public void setMaxWritePerTenant(final int maxWritePerTenant) {
+                this.maxWritePerTenant = maxWritePerTenant;
+            }
+
         }
     }
 }
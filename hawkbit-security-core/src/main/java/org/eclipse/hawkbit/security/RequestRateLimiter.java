@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket that limits the requests per second of every key,
+ * e.g. a client IP address, separately. The bucket of a key is implemented by
+ * the generic cell rate algorithm, i.e. it is a single theoretical arrival
+ * time that is moved forward by compare and set for every granted request. A
+ * key is granted a burst of up to the configured number of requests and its
+ * bucket refills continuously with the configured rate.
+ *
+ * A key whose bucket is full again carries no information. It is removed by
+ * {@link #cleanup()} if it has not been touched since the previous cleanup,
+ * which has to be scheduled by the owner of the limiter.
+ */
+public class RequestRateLimiter {
+
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final long emissionInterval;
+
+    private final long burstTolerance;
+
+    private final LongSupplier nanoClock;
+
+    /**
+     * Constructor.
+     *
+     * @param requestsPerSecond
+     *            maximum number of requests per second and key
+     */
+    public RequestRateLimiter(final int requestsPerSecond) {
+        this(requestsPerSecond, System::nanoTime);
+    }
+
+    RequestRateLimiter(final int requestsPerSecond, final LongSupplier nanoClock) {
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("requestsPerSecond has to be positive");
+        }
+        this.emissionInterval = ONE_SECOND / requestsPerSecond;
+        this.burstTolerance = emissionInterval * requestsPerSecond;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes a token from the bucket of the given key.
+     *
+     * @param key
+     *            to take the token for
+     * @return <code>true</code> if the request is within the limit,
+     *         <code>false</code> if it has to be rejected
+     */
+    public boolean tryAcquire(final String key) {
+        final long now = nanoClock.getAsLong();
+
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(now));
+        }
+        bucket.touched = true;
+
+        while (true) {
+            final long theoreticalArrival = bucket.arrival.get();
+            final long next = (theoreticalArrival - now > 0 ? theoreticalArrival : now) + emissionInterval;
+            if (next - now > burstTolerance) {
+                return false;
+            }
+            if (bucket.arrival.compareAndSet(theoreticalArrival, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes the keys whose bucket is full and that have not been touched
+     * since the previous cleanup.
+     */
+    public void cleanup() {
+        final long now = nanoClock.getAsLong();
+        buckets.forEach((key, bucket) -> {
+            if (bucket.touched) {
+                bucket.touched = false;
+            } else if (bucket.arrival.get() - now <= 0 && buckets.remove(key, bucket) && bucket.touched) {
+                // touched concurrently to its removal, keep it unless the key
+                // got a new bucket in the meantime
+                buckets.putIfAbsent(key, bucket);
+            }
+        });
+    }
+
+    /**
+     * @return number of keys that are currently tracked
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    private static final class Bucket {
+        private final AtomicLong arrival;
+        private volatile boolean touched = true;
+
+        private Bucket(final long arrival) {
+            this.arrival = new AtomicLong(arrival);
+        }
+    }
+}
@@ -89,4 +89,48 @@ public class ExcludePathAwareShallowETagFilterTest {
         verify(filterChainMock, times(1)).doFilter(Mockito.eq(servletRequestMock), responseArgumentCaptor.capture());
         assertThat(mockingDetails(responseArgumentCaptor.getValue()).isMock()).isFalse();
     }
+
+    @Test
+    public void deepETagPathIsNotBufferedForGet() throws ServletException, IOException {
+        final String knownContextPath = "/bumlux/test";
+        final String knownUri = knownContextPath + "/deep/4711";
+        final String antPathDeepETag = "/deep/*";
+
+        // mock
+        when(servletRequestMock.getContextPath()).thenReturn(knownContextPath);
+        when(servletRequestMock.getRequestURI()).thenReturn(knownUri);
+        when(servletRequestMock.getMethod()).thenReturn("GET");
+
+        final ExcludePathAwareShallowETagFilter filterUnderTest = new ExcludePathAwareShallowETagFilter(
+                new String[0], new String[] { antPathDeepETag });
+
+        filterUnderTest.doFilterInternal(servletRequestMock, servletResponseMock, filterChainMock);
+
+        // the servlet response must be the same mock as the resource sets
+        // the ETag on its own!
+        verify(filterChainMock, times(1)).doFilter(servletRequestMock, servletResponseMock);
+    }
+
+    @Test
+    public void deepETagPathIsBufferedForPut() throws ServletException, IOException {
+        final String knownContextPath = "/bumlux/test";
+        final String knownUri = knownContextPath + "/deep/4711";
+        final String antPathDeepETag = "/deep/*";
+
+        // mock
+        when(servletRequestMock.getContextPath()).thenReturn(knownContextPath);
+        when(servletRequestMock.getRequestURI()).thenReturn(knownUri);
+        when(servletRequestMock.getMethod()).thenReturn("PUT");
+
+        final ExcludePathAwareShallowETagFilter filterUnderTest = new ExcludePathAwareShallowETagFilter(
+                new String[0], new String[] { antPathDeepETag });
+
+        final ArgumentCaptor<HttpServletResponse> responseArgumentCaptor = ArgumentCaptor
+                .forClass(HttpServletResponse.class);
+
+        filterUnderTest.doFilterInternal(servletRequestMock, servletResponseMock, filterChainMock);
+
+        verify(filterChainMock, times(1)).doFilter(Mockito.eq(servletRequestMock), responseArgumentCaptor.capture());
+        assertThat(mockingDetails(responseArgumentCaptor.getValue()).isMock()).isFalse();
+    }
 }
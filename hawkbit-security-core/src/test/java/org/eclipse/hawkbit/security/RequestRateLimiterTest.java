@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Security")
+@Stories("Request Rate Limiter Test")
+public class RequestRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    private final RequestRateLimiter limiter = new RequestRateLimiter(10, clock::get);
+
+    @Test
+    @Description("Verifies that a burst of the configured number of requests is granted and the next one is rejected")
+    public void burstUpToLimitIsGranted() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire("client")).as("request " + i + " is within the limit").isTrue();
+        }
+        assertThat(limiter.tryAcquire("client")).as("request above the limit is rejected").isFalse();
+        assertThat(limiter.tryAcquire("other")).as("other client has its own limit").isTrue();
+    }
+
+    @Test
+    @Description("Verifies that the bucket of a client refills with the configured rate")
+    public void bucketRefillsWithRate() {
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("client");
+        }
+        assertThat(limiter.tryAcquire("client")).isFalse();
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(limiter.tryAcquire("client")).as("one request per 100 ms is refilled").isTrue();
+        assertThat(limiter.tryAcquire("client")).isFalse();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire("client")).as("bucket is full again").isTrue();
+        }
+        assertThat(limiter.tryAcquire("client")).as("refill is capped by the limit").isFalse();
+    }
+
+    @Test
+    @Description("Verifies that clients with a full bucket are removed by the cleanup if they have not been touched since the previous cleanup")
+    public void idleClientsAreRemoved() {
+        limiter.tryAcquire("client1");
+        limiter.tryAcquire("client2");
+        assertThat(limiter.size()).isEqualTo(2);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        limiter.cleanup();
+        assertThat(limiter.size()).as("clients touched since the previous cleanup are kept").isEqualTo(2);
+
+        limiter.tryAcquire("client2");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        limiter.cleanup();
+        assertThat(limiter.size()).as("only the active client is tracked").isEqualTo(1);
+    }
+
+    @Test
+    @Description("Verifies that the cleanup keeps clients whose bucket is not full even if they have been idle")
+    public void limitedClientsAreKept() {
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("client");
+        }
+        limiter.cleanup();
+        limiter.cleanup();
+
+        assertThat(limiter.size()).as("client with an empty bucket is tracked").isEqualTo(1);
+        assertThat(limiter.tryAcquire("client")).as("limit of the client is kept").isFalse();
+    }
+}
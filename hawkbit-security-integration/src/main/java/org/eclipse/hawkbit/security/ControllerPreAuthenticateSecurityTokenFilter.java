@@ -8,12 +8,11 @@
  */
 package org.eclipse.hawkbit.security;
 
-import java.util.Optional;
-
 import org.eclipse.hawkbit.dmf.json.model.TenantSecurityToken;
 import org.eclipse.hawkbit.repository.ControllerManagement;
 import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.security.TargetSecurityTokenCache.CachedSecurityToken;
 import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationKey;
 import org.slf4j.Logger;
@@ -26,7 +25,10 @@ import org.slf4j.LoggerFactory;
  * {@code Example Header: Authorization: TargetToken
  * 5d8fSD54fdsFG98DDsa.}
  * 
- *
+ * The presented and the expected token are compared by their digests. The
+ * expected token is retrieved from the {@link TargetSecurityTokenCache} if
+ * available so that an authenticated request does not need to load the target
+ * from the repository.
  *
  */
 public class ControllerPreAuthenticateSecurityTokenFilter extends AbstractControllerAuthenticationFilter {
@@ -37,6 +39,8 @@ public class ControllerPreAuthenticateSecurityTokenFilter extends AbstractContro
 
     private final ControllerManagement controllerManagement;
 
+    private final TargetSecurityTokenCache tokenCache;
+
     /**
      * Constructor.
      * 
@@ -57,18 +61,45 @@ public class ControllerPreAuthenticateSecurityTokenFilter extends AbstractContro
             final TenantConfigurationManagement tenantConfigurationManagement,
             final ControllerManagement controllerManagement, final TenantAware tenantAware,
             final SystemSecurityContext systemSecurityContext) {
+        this(tenantConfigurationManagement, controllerManagement, tenantAware, systemSecurityContext, null);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param tenantConfigurationManagement
+     *            the tenant management service to retrieve configuration
+     *            properties
+     * @param controllerManagement
+     *            the controller management to retrieve the specific target
+     *            security token to verify
+     * @param tenantAware
+     *            the tenant aware service to get configuration for the specific
+     *            tenant
+     * @param systemSecurityContext
+     *            the system security context to get access to tenant
+     *            configuration
+     * @param tokenCache
+     *            the cache of the target security tokens or <code>null</code>
+     *            if the tokens are not cached
+     */
+    public ControllerPreAuthenticateSecurityTokenFilter(
+            final TenantConfigurationManagement tenantConfigurationManagement,
+            final ControllerManagement controllerManagement, final TenantAware tenantAware,
+            final SystemSecurityContext systemSecurityContext, final TargetSecurityTokenCache tokenCache) {
         super(tenantConfigurationManagement, tenantAware, systemSecurityContext);
         this.controllerManagement = controllerManagement;
+        this.tokenCache = tokenCache;
     }
 
     @Override
     public HeaderAuthentication getPreAuthenticatedPrincipal(final TenantSecurityToken secruityToken) {
-        final String controllerId = resolveControllerId(secruityToken);
         final String authHeader = secruityToken.getHeader(TenantSecurityToken.AUTHORIZATION_HEADER);
         if ((authHeader != null) && authHeader.startsWith(TARGET_SECURITY_TOKEN_AUTH_SCHEME)) {
             LOGGER.debug("found authorization header with scheme {} using target security token for authentication",
                     TARGET_SECURITY_TOKEN_AUTH_SCHEME);
-            return new HeaderAuthentication(controllerId, authHeader.substring(OFFSET_TARGET_TOKEN));
+            return new HeaderAuthentication(resolveControllerId(secruityToken),
+                    TargetSecurityTokenCache.digest(authHeader.substring(OFFSET_TARGET_TOKEN)));
         }
         LOGGER.debug(
                 "security token filter is enabled but requst does not contain either the necessary path variables {} or the authorization header with scheme {}",
@@ -78,31 +109,59 @@ public class ControllerPreAuthenticateSecurityTokenFilter extends AbstractContro
 
     @Override
     public HeaderAuthentication getPreAuthenticatedCredentials(final TenantSecurityToken securityToken) {
-        final Target target = systemSecurityContext.runAsSystemAsTenant(() -> {
-            if (securityToken.getTargetId() != null) {
-                return controllerManagement.findByTargetId(securityToken.getTargetId());
-            }
-            return controllerManagement.findByControllerId(securityToken.getControllerId());
-        }, securityToken.getTenant());
-
-        if (target == null) {
+        final CachedSecurityToken expected = findSecurityToken(securityToken);
+        if (expected == null) {
             return null;
         }
-        final String targetSecurityToken = systemSecurityContext.runAsSystemAsTenant(() -> target.getSecurityToken(),
-                securityToken.getTenant());
-        return new HeaderAuthentication(target.getControllerId(), targetSecurityToken);
+        return new HeaderAuthentication(expected.getControllerId(), expected.getTokenDigest());
     }
 
     private String resolveControllerId(final TenantSecurityToken securityToken) {
         if (securityToken.getControllerId() != null) {
             return securityToken.getControllerId();
         }
-        final Optional<Target> foundTarget = Optional.ofNullable(systemSecurityContext.runAsSystemAsTenant(
-                () -> controllerManagement.findByTargetId(securityToken.getTargetId()), securityToken.getTenant()));
-        if (!foundTarget.isPresent()) {
+        final CachedSecurityToken foundTarget = findSecurityToken(securityToken);
+        if (foundTarget == null) {
             return null;
         }
-        return foundTarget.get().getControllerId();
+        return foundTarget.getControllerId();
+    }
+
+    private CachedSecurityToken findSecurityToken(final TenantSecurityToken securityToken) {
+        final String tenant = securityToken.getTenant();
+        if (tokenCache == null) {
+            return loadSecurityToken(securityToken);
+        }
+
+        final CachedSecurityToken cached = securityToken.getTargetId() != null
+                ? tokenCache.getByTargetId(tenant, securityToken.getTargetId())
+                : tokenCache.get(tenant, securityToken.getControllerId());
+        if (cached != null) {
+            return cached;
+        }
+
+        final long version = tokenCache.getVersion();
+        final CachedSecurityToken loaded = loadSecurityToken(securityToken);
+        if (loaded != null) {
+            tokenCache.put(tenant, loaded, version);
+        }
+        return loaded;
+    }
+
+    private CachedSecurityToken loadSecurityToken(final TenantSecurityToken securityToken) {
+        return systemSecurityContext.runAsSystemAsTenant(() -> {
+            final Target target;
+            if (securityToken.getTargetId() != null) {
+                target = controllerManagement.findByTargetId(securityToken.getTargetId());
+            } else {
+                target = controllerManagement.findByControllerId(securityToken.getControllerId());
+            }
+            if (target == null) {
+                return null;
+            }
+            return new CachedSecurityToken(target.getId(), target.getControllerId(),
+                    TargetSecurityTokenCache.digest(target.getSecurityToken()));
+        }, securityToken.getTenant());
     }
 
     @Override
@@ -8,6 +8,9 @@
  */
 package org.eclipse.hawkbit.security;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
 /**
  * The authentication principal and credentials object which holds the
  * controller-id and the authority name from the http-headers as principal or
@@ -57,7 +60,10 @@ public final class HeaderAuthentication {
             if (other.headerAuth != null) {
                 return false;
             }
-        } else if (!headerAuth.equals(other.headerAuth)) {
+        } else if (other.headerAuth == null || !MessageDigest.isEqual(headerAuth.getBytes(StandardCharsets.UTF_8),
+                other.headerAuth.getBytes(StandardCharsets.UTF_8))) {
+            // constant time comparison as the header authentication is a
+            // secret, e.g. the digest of the target security token
             return false;
         }
         return true;
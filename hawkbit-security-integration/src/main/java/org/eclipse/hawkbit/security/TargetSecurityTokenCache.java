@@ -0,0 +1,267 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.cache.CacheEntryVersions;
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TenantDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
+import org.eclipse.hawkbit.security.DdiSecurityProperties.Authentication.Targettoken;
+import org.springframework.context.event.EventListener;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.io.BaseEncoding;
+
+/**
+ * Per tenant cache of the target security tokens keyed by the controller ID.
+ * Only the SHA-256 digest of a token is cached so the comparison with the
+ * presented token can be done in constant time on the digests. The entries
+ * are evicted by the target update and deletion events. The cache keeps an
+ * index by target ID so that the eviction does not need to load the entities.
+ *
+ * A token that was loaded concurrently to the eviction of its target is not
+ * cached, see {@link CacheEntryVersions}.
+ */
+public class TargetSecurityTokenCache {
+
+    private static final String TENANT_DELIMITER = "|";
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final Targettoken.Cache properties;
+
+    private final Cache<String, CachedSecurityToken> tokens;
+
+    private final Map<Long, String> keysByTargetId = new ConcurrentHashMap<>();
+
+    private final CacheEntryVersions versions = new CacheEntryVersions();
+
+    /**
+     * Constructor.
+     *
+     * @param ddiSecurityProperties
+     *            for the cache configuration
+     */
+    public TargetSecurityTokenCache(final DdiSecurityProperties ddiSecurityProperties) {
+        this.properties = ddiSecurityProperties.getAuthentication().getTargettoken().getCache();
+        this.tokens = CacheBuilder.newBuilder().maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl(), TimeUnit.MILLISECONDS).removalListener(this::unindex).build();
+    }
+
+    /**
+     * @return <code>true</code> if the cache is enabled
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * @param tenant
+     *            of the controller
+     * @param controllerId
+     *            of the controller
+     * @return the cached token or <code>null</code> if not cached
+     */
+    public CachedSecurityToken get(final String tenant, final String controllerId) {
+        if (!isEnabled()) {
+            return null;
+        }
+        return tokens.getIfPresent(buildKey(tenant, controllerId));
+    }
+
+    /**
+     * @param tenant
+     *            of the controller
+     * @param targetId
+     *            of the controller
+     * @return the cached token or <code>null</code> if not cached
+     */
+    public CachedSecurityToken getByTargetId(final String tenant, final Long targetId) {
+        if (!isEnabled()) {
+            return null;
+        }
+        final String key = keysByTargetId.get(targetId);
+        if (key == null) {
+            return null;
+        }
+        final CachedSecurityToken token = tokens.getIfPresent(key);
+        if (token == null || !key.equals(buildKey(tenant, token.getControllerId()))) {
+            return null;
+        }
+        return token;
+    }
+
+    /**
+     * @return the current version that has to be retrieved before the target
+     *         is loaded from the repository
+     */
+    public long getVersion() {
+        return versions.current();
+    }
+
+    /**
+     * Puts the given token into the cache if its target has not been evicted
+     * since the given version has been retrieved.
+     *
+     * @param tenant
+     *            of the controller
+     * @param token
+     *            to cache
+     * @param version
+     *            retrieved by {@link #getVersion()} before the target was
+     *            loaded
+     */
+    public void put(final String tenant, final CachedSecurityToken token, final long version) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        final String key = buildKey(tenant, token.getControllerId());
+        // indexed before the token is put so that a concurrent eviction finds
+        // it once the token is visible
+        keysByTargetId.put(token.getTargetId(), key);
+        if (!versions.putIfCurrent(tokens, key, token, tenant, version, token.getTargetId())
+                && tokens.getIfPresent(key) == null) {
+            keysByTargetId.remove(token.getTargetId(), key);
+        }
+    }
+
+    /**
+     * @return number of cached tokens over all tenants
+     */
+    public long size() {
+        return tokens.size();
+    }
+
+    /**
+     * Evicts the token of the updated target as the security token might have
+     * been changed.
+     *
+     * @param event
+     *            the target update event
+     */
+    @EventListener(classes = TargetUpdatedEvent.class)
+    public void onTargetUpdate(final TargetUpdatedEvent event) {
+        evict(event.getTenant(), event.getEntityId());
+    }
+
+    /**
+     * Evicts the token of the deleted target.
+     *
+     * @param event
+     *            the target deletion event
+     */
+    @EventListener(classes = TargetDeletedEvent.class)
+    public void onTargetDelete(final TargetDeletedEvent event) {
+        evict(event.getTenant(), event.getEntityId());
+    }
+
+    /**
+     * Evicts the tokens and the eviction records of the deleted tenant.
+     *
+     * @param event
+     *            the tenant deletion event
+     */
+    @EventListener(classes = TenantDeletedEvent.class)
+    public void onTenantDelete(final TenantDeletedEvent event) {
+        versions.removeTenant(event.getTenant());
+        final String prefix = buildKey(event.getTenant(), "");
+        tokens.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private void evict(final String tenant, final Long targetId) {
+        if (targetId == null) {
+            return;
+        }
+        versions.invalidate(tenant, targetId);
+        final String key = keysByTargetId.get(targetId);
+        if (key != null) {
+            tokens.invalidate(key);
+        }
+    }
+
+    private void unindex(final RemovalNotification<String, CachedSecurityToken> notification) {
+        final CachedSecurityToken token = notification.getValue();
+        // a replaced token is indexed again by the put
+        if (token != null && notification.getCause() != RemovalCause.REPLACED) {
+            keysByTargetId.remove(token.getTargetId(), notification.getKey());
+        }
+    }
+
+    private static String buildKey(final String tenant, final String controllerId) {
+        return tenant.toUpperCase() + TENANT_DELIMITER + controllerId;
+    }
+
+    /**
+     * @param securityToken
+     *            to digest
+     * @return the hex encoded SHA-256 digest of the given token or
+     *         <code>null</code> if the token is <code>null</code>
+     */
+    public static String digest(final String securityToken) {
+        if (securityToken == null) {
+            return null;
+        }
+        try {
+            return BaseEncoding.base16().lowerCase().encode(MessageDigest.getInstance(DIGEST_ALGORITHM)
+                    .digest(securityToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not supported by the JVM", e);
+        }
+    }
+
+    /**
+     * The cached security token of a target.
+     */
+    public static final class CachedSecurityToken {
+
+        private final Long targetId;
+        private final String controllerId;
+        private final String tokenDigest;
+
+        /**
+         * Constructor.
+         *
+         * @param targetId
+         *            of the target
+         * @param controllerId
+         *            of the target
+         * @param tokenDigest
+         *            the {@link TargetSecurityTokenCache#digest(String)} of
+         *            the security token of the target
+         */
+        public CachedSecurityToken(final Long targetId, final String controllerId, final String tokenDigest) {
+            this.targetId = targetId;
+            this.controllerId = controllerId;
+            this.tokenDigest = tokenDigest;
+        }
+
+        public Long getTargetId() {
+            return targetId;
+        }
+
+        public String getControllerId() {
+            return controllerId;
+        }
+
+        public String getTokenDigest() {
+            return tokenDigest;
+        }
+    }
+}
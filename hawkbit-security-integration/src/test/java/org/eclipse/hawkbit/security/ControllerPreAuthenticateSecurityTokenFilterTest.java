@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.eclipse.hawkbit.dmf.json.model.TenantSecurityToken;
+import org.eclipse.hawkbit.dmf.json.model.TenantSecurityToken.FileResource;
+import org.eclipse.hawkbit.repository.ControllerManagement;
+import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TenantDeletedEvent;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Security")
+@Stories("Target security token based authentication")
+@RunWith(MockitoJUnitRunner.class)
+public class ControllerPreAuthenticateSecurityTokenFilterTest {
+
+    private static final String TENANT = "default";
+    private static final String CONTROLLER_ID = "box1";
+    private static final Long TARGET_ID = 4711L;
+    private static final String SECURITY_TOKEN = "5d8fSD54fdsFG98DDsa";
+
+    private ControllerPreAuthenticateSecurityTokenFilter underTest;
+
+    private TargetSecurityTokenCache tokenCache;
+
+    @Mock
+    private TenantConfigurationManagement tenantConfigurationManagementMock;
+
+    @Mock
+    private ControllerManagement controllerManagementMock;
+
+    @Mock
+    private Target targetMock;
+
+    private final SecurityContextTenantAware tenantAware = new SecurityContextTenantAware();
+
+    @Before
+    public void before() {
+        when(targetMock.getId()).thenReturn(TARGET_ID);
+        when(targetMock.getControllerId()).thenReturn(CONTROLLER_ID);
+        when(targetMock.getSecurityToken()).thenReturn(SECURITY_TOKEN);
+        when(controllerManagementMock.findByControllerId(CONTROLLER_ID)).thenReturn(targetMock);
+
+        tokenCache = new TargetSecurityTokenCache(new DdiSecurityProperties());
+        underTest = new ControllerPreAuthenticateSecurityTokenFilter(tenantConfigurationManagementMock,
+                controllerManagementMock, tenantAware, new SystemSecurityContext(tenantAware), tokenCache);
+    }
+
+    @Test
+    @Description("Tests that the principal with the correct target token matches the credentials")
+    public void authenticationWithCorrectToken() {
+        final TenantSecurityToken securityToken = prepareSecurityToken(SECURITY_TOKEN);
+
+        assertThat(underTest.getPreAuthenticatedPrincipal(securityToken))
+                .isEqualTo(underTest.getPreAuthenticatedCredentials(securityToken));
+    }
+
+    @Test
+    @Description("Tests that the principal with a wrong target token does not match the credentials")
+    public void authenticationWithWrongToken() {
+        final TenantSecurityToken securityToken = prepareSecurityToken("wrong");
+
+        assertThat(underTest.getPreAuthenticatedPrincipal(securityToken))
+                .isNotEqualTo(underTest.getPreAuthenticatedCredentials(securityToken));
+    }
+
+    @Test
+    @Description("Tests that the target security token is loaded only once from the repository until the target is deleted")
+    public void securityTokenIsCachedUntilTargetIsDeleted() {
+        final TenantSecurityToken securityToken = prepareSecurityToken(SECURITY_TOKEN);
+
+        underTest.getPreAuthenticatedCredentials(securityToken);
+        underTest.getPreAuthenticatedCredentials(securityToken);
+        verify(controllerManagementMock, times(1)).findByControllerId(CONTROLLER_ID);
+        assertThat(tokenCache.size()).isEqualTo(1);
+
+        tokenCache.onTargetDelete(new TargetDeletedEvent(TENANT, TARGET_ID, "test"));
+        assertThat(tokenCache.size()).isEqualTo(0);
+
+        when(controllerManagementMock.findByControllerId(CONTROLLER_ID)).thenReturn(null);
+        assertThat(underTest.getPreAuthenticatedCredentials(securityToken)).isNull();
+        verify(controllerManagementMock, times(2)).findByControllerId(CONTROLLER_ID);
+    }
+
+    @Test
+    @Description("Tests that only the eviction of its own target prevents a concurrently loaded token from caching")
+    public void concurrentlyLoadedTokenIsOnlyRejectedByEvictionOfItsTarget() {
+        final TargetSecurityTokenCache.CachedSecurityToken token = new TargetSecurityTokenCache.CachedSecurityToken(
+                TARGET_ID, CONTROLLER_ID, TargetSecurityTokenCache.digest(SECURITY_TOKEN));
+
+        long version = tokenCache.getVersion();
+        tokenCache.onTargetDelete(new TargetDeletedEvent(TENANT, TARGET_ID + 1, "test"));
+        tokenCache.put(TENANT, token, version);
+        assertThat(tokenCache.get(TENANT, CONTROLLER_ID)).isEqualTo(token);
+
+        tokenCache.onTenantDelete(new TenantDeletedEvent(TENANT, "test"));
+        assertThat(tokenCache.size()).isEqualTo(0);
+
+        version = tokenCache.getVersion();
+        tokenCache.onTargetDelete(new TargetDeletedEvent(TENANT, TARGET_ID, "test"));
+        tokenCache.put(TENANT, token, version);
+        assertThat(tokenCache.get(TENANT, CONTROLLER_ID)).isNull();
+        assertThat(tokenCache.getByTargetId(TENANT, TARGET_ID)).isNull();
+    }
+
+    private static TenantSecurityToken prepareSecurityToken(final String token) {
+        final TenantSecurityToken securityToken = new TenantSecurityToken(TENANT, CONTROLLER_ID,
+                FileResource.createFileResourceBySha1("12345"));
+        securityToken.putHeader(TenantSecurityToken.AUTHORIZATION_HEADER, "TargetToken " + token);
+        return securityToken;
+    }
+}
@@ -17,6 +17,7 @@ import org.eclipse.hawkbit.repository.model.BaseEntity;
 import org.eclipse.hawkbit.ui.management.state.ManagementUIState;
 import org.eclipse.hawkbit.ui.push.TargetTagCreatedEventContainer;
 import org.eclipse.hawkbit.ui.push.TargetTagDeletedEventContainer;
+import org.eclipse.hawkbit.ui.push.event.EventBufferOverflowEvent;
 import org.eclipse.hawkbit.ui.utils.I18N;
 import org.eclipse.hawkbit.ui.utils.UINotification;
 import org.vaadin.spring.events.EventBus.UIEventBus;
@@ -66,4 +67,11 @@ public abstract class AbstractTargetTagToken<T extends BaseEntity> extends Abstr
         });
     }
 
+    @EventBusListenerMethod(scope = EventScope.UI)
+    // Exception squid:S1172 - event not needed
+    @SuppressWarnings({ "squid:S1172" })
+    void onEventBufferOverflow(final EventBufferOverflowEvent event) {
+        repopulateToken();
+    }
+
 }
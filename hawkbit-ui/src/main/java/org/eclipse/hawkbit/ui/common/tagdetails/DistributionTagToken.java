@@ -23,6 +23,7 @@ import org.eclipse.hawkbit.ui.management.state.ManagementUIState;
 import org.eclipse.hawkbit.ui.push.DistributionSetTagCreatedEventContainer;
 import org.eclipse.hawkbit.ui.push.DistributionSetTagDeletedEventContainer;
 import org.eclipse.hawkbit.ui.push.DistributionSetTagUpdatedEventContainer;
+import org.eclipse.hawkbit.ui.push.event.EventBufferOverflowEvent;
 import org.eclipse.hawkbit.ui.utils.HawkbitCommonUtil;
 import org.eclipse.hawkbit.ui.utils.I18N;
 import org.eclipse.hawkbit.ui.utils.UINotification;
@@ -146,6 +147,13 @@ public class DistributionTagToken extends AbstractTagToken<DistributionSet> {
         });
     }
 
+    @EventBusListenerMethod(scope = EventScope.UI)
+    // Exception squid:S1172 - event not needed
+    @SuppressWarnings({ "squid:S1172" })
+    void onEventBufferOverflow(final EventBufferOverflowEvent event) {
+        repopulateToken();
+    }
+
     private void processTargetTagAssigmentResult(final DistributionSetTagAssignmentResult assignmentResult) {
         final DistributionSetTag tag = assignmentResult.getDistributionSetTag();
         if (isAssign(assignmentResult)) {
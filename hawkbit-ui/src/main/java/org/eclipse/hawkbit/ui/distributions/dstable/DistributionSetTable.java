@@ -41,6 +41,7 @@ import org.eclipse.hawkbit.ui.management.event.DistributionTableFilterEvent;
 import org.eclipse.hawkbit.ui.push.DistributionCreatedEventContainer;
 import org.eclipse.hawkbit.ui.push.DistributionDeletedEventContainer;
 import org.eclipse.hawkbit.ui.push.DistributionSetUpdatedEventContainer;
+import org.eclipse.hawkbit.ui.push.event.EventBufferOverflowEvent;
 import org.eclipse.hawkbit.ui.utils.HawkbitCommonUtil;
 import org.eclipse.hawkbit.ui.utils.I18N;
 import org.eclipse.hawkbit.ui.utils.SPUIDefinitions;
@@ -112,6 +113,13 @@ public class DistributionSetTable extends AbstractNamedVersionTable<Distribution
         setDataAvailable(getContainerDataSource().size() != 0);
     }
 
+    @EventBusListenerMethod(scope = EventScope.UI)
+    // Exception squid:S1172 - event not needed
+    @SuppressWarnings({ "squid:S1172" })
+    void onEventBufferOverflow(final EventBufferOverflowEvent event) {
+        refreshDistributions();
+    }
+
     @EventBusListenerMethod(scope = EventScope.UI)
     void onDistributionSetUpdateEvents(final DistributionSetUpdatedEventContainer eventContainer) {
 
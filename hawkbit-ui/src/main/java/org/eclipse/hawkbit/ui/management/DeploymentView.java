@@ -117,8 +117,8 @@ public class DeploymentView extends VerticalLayout implements View, BrowserWindo
                 managementUIState, permChecker, managementViewClientCriterion);
 
         this.targetTableLayout = new TargetTableLayout(eventbus, targetTable, targetManagement, entityFactory, i18n,
-                eventBus, uiNotification, managementUIState, managementViewClientCriterion, deploymentManagement,
-                uiproperties, permChecker, uiNotification, tagManagement);
+                eventBus, uiNotification, managementUIState, managementViewClientCriterion, uiproperties, permChecker,
+                uiNotification, tagManagement);
 
         this.distributionTagLayout = new DistributionTagLayout(eventbus, managementUIState, i18n, permChecker, eventBus,
                 tagManagement, entityFactory, uiNotification, distFilterParameters, distributionSetManagement,
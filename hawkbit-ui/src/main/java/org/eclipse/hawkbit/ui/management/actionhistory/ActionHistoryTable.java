@@ -73,6 +73,8 @@ public class ActionHistoryTable extends TreeTable {
     private static final String BUTTON_CANCEL = "button.cancel";
     private static final String BUTTON_OK = "button.ok";
     private static final String STATUS_ICON_GREEN = "statusIconGreen";
+    private static final int ACTION_PAGE_SIZE = 100;
+    private static final String LOAD_MORE_ITEM_ID = "loadMore";
 
     private final I18N i18n;
     private final transient DeploymentManagement deploymentManagement;
@@ -84,6 +86,7 @@ public class ActionHistoryTable extends TreeTable {
     private boolean alreadyHasMessages;
 
     private Target target;
+    private Long beforeActionId;
 
     ActionHistoryTable(final I18N i18n, final DeploymentManagement deploymentManagement, final UIEventBus eventBus,
             final UINotification notification, final ManagementUIState managementUIState) {
@@ -216,14 +219,45 @@ public class ActionHistoryTable extends TreeTable {
 
     private void getcontainerData() {
         hierarchicalContainer.removeAllItems();
+        beforeActionId = null;
 
         if (target != null) {
-            /* service method to create action history for target */
-            final List<ActionWithStatusCount> actionHistory = deploymentManagement
-                    .findActionsWithStatusCountByTargetOrderByIdDesc(target);
+            loadActionPage();
+        }
+    }
 
-            addDetailsToContainer(actionHistory);
+    /*
+     * load the next page of the action history which continues before the
+     * oldest action that is already shown, a load more row is added at the
+     * end as long as older actions may exist
+     */
+    private void loadActionPage() {
+        hierarchicalContainer.removeItem(LOAD_MORE_ITEM_ID);
+
+        final List<ActionWithStatusCount> actionHistory = deploymentManagement
+                .findActionsWithStatusCountByTargetBefore(target, beforeActionId, ACTION_PAGE_SIZE);
+        addDetailsToContainer(actionHistory);
+        if (!actionHistory.isEmpty()) {
+            beforeActionId = actionHistory.get(actionHistory.size() - 1).getAction().getId();
         }
+
+        if (actionHistory.size() == ACTION_PAGE_SIZE) {
+            hierarchicalContainer.addItem(LOAD_MORE_ITEM_ID);
+            ((Hierarchical) hierarchicalContainer).setChildrenAllowed(LOAD_MORE_ITEM_ID, false);
+        }
+    }
+
+    private void loadOlderActions() {
+        final Long previousOldestActionId = beforeActionId;
+        loadActionPage();
+        // to expand the rows of the new page , if already expanded.
+        managementUIState.getExpandParentActionRowId().stream()
+                .filter(rowId -> rowId instanceof Long && (Long) rowId < previousOldestActionId)
+                .forEach(this::expandParentActionRow);
+    }
+
+    private static boolean isLoadMoreItem(final Object itemId) {
+        return LOAD_MORE_ITEM_ID.equals(itemId);
     }
 
     /**
@@ -336,6 +370,9 @@ public class ActionHistoryTable extends TreeTable {
     }
 
     private Component getForcedColumn(final Object itemId) {
+        if (isLoadMoreItem(itemId)) {
+            return null;
+        }
         final Action actionWithActiveStatus = (Action) hierarchicalContainer.getItem(itemId)
                 .getItemProperty(SPUIDefinitions.ACTION_HIS_TBL_FORCED).getValue();
         final Label actionLabel = new LabelBuilder().name("").buildCaptionLabel();
@@ -352,6 +389,9 @@ public class ActionHistoryTable extends TreeTable {
     }
 
     private Component getActiveColumn(final Object itemId) {
+        if (isLoadMoreItem(itemId)) {
+            return createLoadMoreButton();
+        }
         final Action.Status status = (Action.Status) hierarchicalContainer.getItem(itemId)
                 .getItemProperty(SPUIDefinitions.ACTION_HIS_TBL_STATUS_HIDDEN).getValue();
         String activeValue;
@@ -372,6 +412,14 @@ public class ActionHistoryTable extends TreeTable {
         return activeStatusIcon;
     }
 
+    private Button createLoadMoreButton() {
+        final Button loadMore = SPUIComponentProvider.getButton(UIComponentIdProvider.ACTION_HISTORY_TABLE_LOAD_MORE_ID,
+                i18n.get("button.load.more.actions"), i18n.get("button.load.more.actions"), ValoTheme.BUTTON_TINY,
+                false, FontAwesome.ANGLE_DOUBLE_DOWN, SPUIButtonStyleSmallNoBorder.class);
+        loadMore.addClickListener(event -> loadOlderActions());
+        return loadMore;
+    }
+
     private HorizontalLayout createActionBarColumn(final Object itemId) {
         final HorizontalLayout actionBar = new HorizontalLayout();
         final Item item = hierarchicalContainer.getItem(itemId);
@@ -411,6 +459,9 @@ public class ActionHistoryTable extends TreeTable {
     }
 
     private Component getStatusColumn(final Object itemId) {
+        if (isLoadMoreItem(itemId)) {
+            return null;
+        }
         final Action.Status status = (Action.Status) hierarchicalContainer.getItem(itemId)
                 .getItemProperty(SPUIDefinitions.ACTION_HIS_TBL_STATUS_HIDDEN).getValue();
         return getStatusIcon(status);
@@ -632,6 +683,9 @@ public class ActionHistoryTable extends TreeTable {
             @SuppressWarnings("unchecked")
             @Override
             public Component generateCell(final Table source, final Object itemId, final Object columnId) {
+                if (isLoadMoreItem(itemId)) {
+                    return null;
+                }
                 final List<String> messages = (List<String>) hierarchicalContainer.getItem(itemId)
                         .getItemProperty(SPUIDefinitions.ACTION_HIS_TBL_MSGS_HIDDEN).getValue();
                 return createMessagesBlock(messages);
@@ -43,6 +43,7 @@ import org.eclipse.hawkbit.ui.management.state.ManagementUIState;
 import org.eclipse.hawkbit.ui.push.DistributionCreatedEventContainer;
 import org.eclipse.hawkbit.ui.push.DistributionDeletedEventContainer;
 import org.eclipse.hawkbit.ui.push.DistributionSetUpdatedEventContainer;
+import org.eclipse.hawkbit.ui.push.event.EventBufferOverflowEvent;
 import org.eclipse.hawkbit.ui.utils.HawkbitCommonUtil;
 import org.eclipse.hawkbit.ui.utils.I18N;
 import org.eclipse.hawkbit.ui.utils.SPUIDefinitions;
@@ -108,6 +109,13 @@ public class DistributionTable extends AbstractNamedVersionTable<DistributionSet
         setDataAvailable(getContainerDataSource().size() != 0);
     }
 
+    @EventBusListenerMethod(scope = EventScope.UI)
+    // Exception squid:S1172 - event not needed
+    @SuppressWarnings({ "squid:S1172" })
+    void onEventBufferOverflow(final EventBufferOverflowEvent event) {
+        refreshDistributions();
+    }
+
     @EventBusListenerMethod(scope = EventScope.UI)
     void onDistributionCreatedEvents(final DistributionCreatedEventContainer eventContainer) {
         if (eventContainer.getEvents().stream().anyMatch(event -> event.getEntity().isComplete())) {
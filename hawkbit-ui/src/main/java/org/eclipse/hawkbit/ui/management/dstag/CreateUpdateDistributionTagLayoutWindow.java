@@ -22,6 +22,7 @@ import org.eclipse.hawkbit.ui.layouts.AbstractCreateUpdateTagLayout;
 import org.eclipse.hawkbit.ui.push.DistributionSetTagCreatedEventContainer;
 import org.eclipse.hawkbit.ui.push.DistributionSetTagDeletedEventContainer;
 import org.eclipse.hawkbit.ui.push.DistributionSetTagUpdatedEventContainer;
+import org.eclipse.hawkbit.ui.push.event.EventBufferOverflowEvent;
 import org.eclipse.hawkbit.ui.utils.I18N;
 import org.eclipse.hawkbit.ui.utils.SPUIDefinitions;
 import org.eclipse.hawkbit.ui.utils.SPUILabelDefinitions;
@@ -69,6 +70,13 @@ public class CreateUpdateDistributionTagLayoutWindow extends AbstractCreateUpdat
         populateTagNameCombo();
     }
 
+    @EventBusListenerMethod(scope = EventScope.UI)
+    // Exception squid:S1172 - event not needed
+    @SuppressWarnings({ "squid:S1172" })
+    void onEventBufferOverflow(final EventBufferOverflowEvent event) {
+        populateTagNameCombo();
+    }
+
     @Override
     protected void populateTagNameCombo() {
         tagNameComboBox.removeAllItems();
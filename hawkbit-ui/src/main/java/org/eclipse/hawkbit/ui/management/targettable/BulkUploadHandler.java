@@ -8,29 +8,21 @@
  */
 package org.eclipse.hawkbit.ui.management.targettable;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.nio.charset.Charset;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.Executor;
 
-import org.eclipse.hawkbit.repository.DeploymentManagement;
 import org.eclipse.hawkbit.repository.DistributionSetManagement;
-import org.eclipse.hawkbit.repository.EntityFactory;
 import org.eclipse.hawkbit.repository.TagManagement;
-import org.eclipse.hawkbit.repository.TargetManagement;
-import org.eclipse.hawkbit.repository.model.Action.ActionType;
-import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.TargetImportManagement;
+import org.eclipse.hawkbit.repository.model.TargetImportStatus;
 import org.eclipse.hawkbit.ui.common.DistributionSetIdName;
 import org.eclipse.hawkbit.ui.common.tagdetails.AbstractTagToken.TagData;
 import org.eclipse.hawkbit.ui.components.HawkbitErrorNotificationMessage;
@@ -74,13 +66,12 @@ public class BulkUploadHandler extends CustomComponent
     private static final long serialVersionUID = -1273494705754674501L;
     private static final Logger LOG = LoggerFactory.getLogger(BulkUploadHandler.class);
 
-    private final transient TargetManagement targetManagement;
+    private final transient TargetImportManagement targetImportManagement;
     private final transient TagManagement tagManagement;
 
     private final ComboBox comboBox;
     private final TextArea descTextArea;
     private final I18N i18n;
-    private final transient DeploymentManagement deploymentManagement;
     private final transient DistributionSetManagement distributionSetManagement;
 
     protected File tempFile;
@@ -91,25 +82,19 @@ public class BulkUploadHandler extends CustomComponent
     private final TargetBulkTokenTags targetBulkTokenTags;
 
     private final Label targetsCountLabel;
-    private long failedTargetCount;
-    private long successfullTargetCount;
 
     private final transient Executor executor;
     private final transient EventBus.UIEventBus eventBus;
 
-    private transient EntityFactory entityFactory;
     private final UI uiInstance;
 
     BulkUploadHandler(final TargetBulkUpdateWindowLayout targetBulkUpdateWindowLayout,
-            final TargetManagement targetManagement, final ManagementUIState managementUIState,
-            final DeploymentManagement deploymentManagement, final I18N i18n, final UI uiInstance) {
+            final ManagementUIState managementUIState, final I18N i18n, final UI uiInstance) {
         this.uiInstance = uiInstance;
         this.comboBox = targetBulkUpdateWindowLayout.getDsNamecomboBox();
         this.descTextArea = targetBulkUpdateWindowLayout.getDescTextArea();
-        this.targetManagement = targetManagement;
         this.progressBar = targetBulkUpdateWindowLayout.getProgressBar();
         this.managementUIState = managementUIState;
-        this.deploymentManagement = deploymentManagement;
         this.targetsCountLabel = targetBulkUpdateWindowLayout.getTargetsCountLabel();
         this.targetBulkTokenTags = targetBulkUpdateWindowLayout.getTargetBulkTokenTags();
         this.i18n = i18n;
@@ -117,7 +102,7 @@ public class BulkUploadHandler extends CustomComponent
         this.eventBus = targetBulkUpdateWindowLayout.getEventBus();
         distributionSetManagement = SpringContextHelper.getBean(DistributionSetManagement.class);
         tagManagement = SpringContextHelper.getBean(TagManagement.class);
-        entityFactory = SpringContextHelper.getBean(EntityFactory.class);
+        targetImportManagement = SpringContextHelper.getBean(TargetImportManagement.class);
     }
 
     /**
@@ -191,71 +176,43 @@ public class BulkUploadHandler extends CustomComponent
         }
 
         private void readFileStream(final InputStream tempStream) {
-            String line;
-            try (final BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(tempStream, Charset.defaultCharset()))) {
-                LOG.info("Bulk file upload started");
-                long innerCounter = 0;
-                final double totalFileSize = getTotalNumberOfLines();
-
-                /**
-                 * Once control is in upload succeeded method automatically
-                 * upload button is re-enabled. To disable the button firing
-                 * below event.
-                 */
-                eventBus.publish(this, new TargetTableEvent(TargetComponentEvent.BULK_UPLOAD_PROCESS_STARTED));
-                while ((line = reader.readLine()) != null) {
-                    innerCounter++;
-                    readEachLine(line, innerCounter, totalFileSize);
-                }
+            LOG.info("Bulk file upload started");
 
-            } catch (final IOException e) {
-                LOG.error("Error reading file {}", tempFile.getName(), e);
+            /**
+             * Once control is in upload succeeded method automatically upload
+             * button is re-enabled. To disable the button firing below event.
+             */
+            eventBus.publish(this, new TargetTableEvent(TargetComponentEvent.BULK_UPLOAD_PROCESS_STARTED));
+
+            final List<String> deletedTags = new ArrayList<>();
+            final List<Long> tagIds = getSelectedTagIds(deletedTags);
+            final Long dsId = getSelectedDistributionSetId();
+            TargetImportStatus status = null;
+            try {
+                status = targetImportManagement.importTargets(tempStream, tempFile.length(),
+                        HawkbitCommonUtil.trimAndNullIfEmpty(descTextArea.getValue()), tagIds, dsId,
+                        this::updateProgress);
             } catch (final RuntimeException e) {
                 uiInstance.getErrorHandler().error(new ConnectorErrorEvent(uiInstance, e));
             } finally {
                 deleteFile();
             }
-            syncCountAfterUpload();
-            doAssignments();
-            eventBus.publish(this, new TargetTableEvent(TargetComponentEvent.BULK_UPLOAD_COMPLETED));
-            // Clearing after assignments are done
-            managementUIState.getTargetTableFilters().getBulkUpload().getTargetsCreated().clear();
-            resetCounts();
-        }
-
-        private void syncCountAfterUpload() {
-            if (managementUIState.getTargetTableFilters().getBulkUpload()
-                    .getSucessfulUploadCount() != successfullTargetCount) {
-                managementUIState.getTargetTableFilters().getBulkUpload()
-                        .setSucessfulUploadCount(successfullTargetCount);
-                eventBus.publish(this, new TargetTableEvent(TargetComponentEvent.BULK_TARGET_CREATED));
-            }
-            if (managementUIState.getTargetTableFilters().getBulkUpload().getFailedUploadCount() != failedTargetCount) {
-                managementUIState.getTargetTableFilters().getBulkUpload().setSucessfulUploadCount(failedTargetCount);
-            }
-        }
-
-        private double getTotalNumberOfLines() {
 
-            double totalFileSize = 0;
-            try (InputStreamReader inputStreamReader = new InputStreamReader(new FileInputStream(tempFile),
-                    Charset.defaultCharset())) {
-                try (BufferedReader readerForSize = new BufferedReader(inputStreamReader)) {
-                    totalFileSize = readerForSize.lines().count();
-                }
-            } catch (final FileNotFoundException e) {
-                LOG.error("Error reading file {}", tempFile.getName(), e);
-            } catch (final IOException e) {
-                LOG.error("Error while closing reader of file {}", tempFile.getName(), e);
+            if (status != null && status.getCreatedTargets() > 0) {
+                final String dsAssignmentFailedMsg = ifDsSelected() && dsId == null
+                        ? i18n.get("message.bulk.upload.assignment.failed") : null;
+                displayValidationMessage(new StringBuilder(), dsAssignmentFailedMsg,
+                        getTagAssignmentFailedMsg(deletedTags));
             }
-
-            return totalFileSize;
+            eventBus.publish(this, new TargetTableEvent(TargetComponentEvent.BULK_UPLOAD_COMPLETED));
         }
 
-        private void resetCounts() {
-            successfullTargetCount = 0;
-            failedTargetCount = 0;
+        private void updateProgress(final TargetImportStatus status) {
+            final TargetBulkUpload targetBulkUpload = managementUIState.getTargetTableFilters().getBulkUpload();
+            targetBulkUpload.setProgressBarCurrentValue(status.getProgress());
+            targetBulkUpload.setSucessfulUploadCount(status.getCreatedTargets());
+            targetBulkUpload.setFailedUploadCount(status.getExistingTargets() + status.getInvalidLines());
+            eventBus.publish(this, new TargetTableEvent(TargetComponentEvent.BULK_TARGET_CREATED));
         }
 
         private void deleteFile() {
@@ -268,70 +225,43 @@ public class BulkUploadHandler extends CustomComponent
             tempFile = null;
         }
 
-        private void readEachLine(final String line, final double innerCounter, final double totalFileSize) {
-            final String csvDelimiter = ",";
-            final String[] targets = line.split(csvDelimiter);
-            if (targets.length == 2) {
-                final String controllerId = targets[0];
-                final String targetName = targets[1];
-                addNewTarget(controllerId, targetName);
-            } else {
-                failedTargetCount++;
-            }
-            final float current = managementUIState.getTargetTableFilters().getBulkUpload()
-                    .getProgressBarCurrentValue();
-            final float next = (float) (innerCounter / totalFileSize);
-            if (Math.abs(next - 0.1) < 0.00001 || current - next >= 0 || next - current >= 0.05
-                    || Math.abs(next - 1) < 0.00001) {
-                managementUIState.getTargetTableFilters().getBulkUpload().setProgressBarCurrentValue(next);
-                managementUIState.getTargetTableFilters().getBulkUpload()
-                        .setSucessfulUploadCount(successfullTargetCount);
-                managementUIState.getTargetTableFilters().getBulkUpload().setFailedUploadCount(failedTargetCount);
-                eventBus.publish(this, new TargetTableEvent(TargetComponentEvent.BULK_TARGET_CREATED));
+        /**
+         * @param deletedTags
+         *            to collect the names of the selected tags which no
+         *            longer exist
+         * @return the IDs of the selected tags which still exist
+         */
+        private List<Long> getSelectedTagIds(final List<String> deletedTags) {
+            final List<Long> tagIds = new ArrayList<>();
+            if (!ifTagsSelected()) {
+                return tagIds;
             }
-        }
-
-        private void doAssignments() {
-            final StringBuilder errorMessage = new StringBuilder();
-            String dsAssignmentFailedMsg = null;
-            String tagAssignmentFailedMsg = null;
-            if (ifTargetsCreatedSuccessfully()) {
-                if (ifTagsSelected()) {
-                    tagAssignmentFailedMsg = tagAssignment();
-                }
-                if (ifDsSelected()) {
-                    dsAssignmentFailedMsg = saveAllAssignments();
+            for (final TagData tagData : targetBulkTokenTags.getTokensAdded().values()) {
+                if (tagManagement.findTargetTagById(tagData.getId()) == null) {
+                    deletedTags.add(tagData.getName());
+                } else {
+                    tagIds.add(tagData.getId());
                 }
             }
-            displayValidationMessage(errorMessage, dsAssignmentFailedMsg, tagAssignmentFailedMsg);
+            return tagIds;
         }
 
-        private String saveAllAssignments() {
-            final ActionType actionType = ActionType.FORCED;
-            final long forcedTimeStamp = new Date().getTime();
-            final TargetBulkUpload targetBulkUpload = managementUIState.getTargetTableFilters().getBulkUpload();
-            final List<String> targetsList = targetBulkUpload.getTargetsCreated();
+        /**
+         * @return the ID of the selected distribution set or <code>null</code>
+         *         if none is selected or it no longer exists
+         */
+        private Long getSelectedDistributionSetId() {
+            if (!ifDsSelected()) {
+                return null;
+            }
             final DistributionSetIdName dsSelected = (DistributionSetIdName) comboBox.getValue();
             if (distributionSetManagement.findDistributionSetById(dsSelected.getId()) == null) {
-                return i18n.get("message.bulk.upload.assignment.failed");
+                return null;
             }
-            deploymentManagement.assignDistributionSet(targetBulkUpload.getDsNameAndVersion().getId(), actionType,
-                    forcedTimeStamp, targetsList);
-            return null;
+            return dsSelected.getId();
         }
 
-        private String tagAssignment() {
-            final Map<Long, TagData> tokensSelected = targetBulkTokenTags.getTokensAdded();
-            final List<String> deletedTags = new ArrayList<>();
-            for (final TagData tagData : tokensSelected.values()) {
-                if (tagManagement.findTargetTagById(tagData.getId()) == null) {
-                    deletedTags.add(tagData.getName());
-                } else {
-                    targetManagement.toggleTagAssignment(
-                            managementUIState.getTargetTableFilters().getBulkUpload().getTargetsCreated(),
-                            tagData.getName());
-                }
-            }
+        private String getTagAssignmentFailedMsg(final List<String> deletedTags) {
             if (deletedTags.isEmpty()) {
                 return null;
             }
@@ -352,13 +282,6 @@ public class BulkUploadHandler extends CustomComponent
             return comboBox.getValue() != null;
         }
 
-        /**
-         * @return
-         */
-        private boolean ifTargetsCreatedSuccessfully() {
-            return !managementUIState.getTargetTableFilters().getBulkUpload().getTargetsCreated().isEmpty();
-        }
-
         /**
          * @param errorMessage
          * @param dsAssignmentFailedMsg
@@ -379,40 +302,6 @@ public class BulkUploadHandler extends CustomComponent
                 eventBus.publish(this, new BulkUploadValidationMessageEvent(errorMessage.toString()));
             }
         }
-
-        private void addNewTarget(final String controllerId, final String name) {
-            final String newControllerId = HawkbitCommonUtil.trimAndNullIfEmpty(controllerId);
-            if (mandatoryCheck(newControllerId) && duplicateCheck(newControllerId)) {
-                final String newName = HawkbitCommonUtil.trimAndNullIfEmpty(name);
-                final String newDesc = HawkbitCommonUtil.trimAndNullIfEmpty(descTextArea.getValue());
-
-                /* create new target entity */
-                targetManagement.createTarget(entityFactory.target().create().controllerId(newControllerId)
-                        .name(newName).description(newDesc));
-                managementUIState.getTargetTableFilters().getBulkUpload().getTargetsCreated().add(newControllerId);
-                successfullTargetCount++;
-            }
-
-        }
-    }
-
-    private boolean mandatoryCheck(final String newControlllerId) {
-        if (newControlllerId == null) {
-            failedTargetCount++;
-            return false;
-        } else {
-            return true;
-        }
-    }
-
-    private boolean duplicateCheck(final String newControlllerId) {
-        final Target existingTarget = targetManagement.findTargetByControllerID(newControlllerId.trim());
-        if (existingTarget != null) {
-            failedTargetCount++;
-            return false;
-        } else {
-            return true;
-        }
     }
 
     private static class NullOutputStream extends OutputStream {
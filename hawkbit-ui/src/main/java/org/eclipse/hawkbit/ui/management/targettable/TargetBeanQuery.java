@@ -52,6 +52,8 @@ public class TargetBeanQuery extends AbstractBeanQuery<ProxyTarget> {
 
     private static final long serialVersionUID = -5645680058303167558L;
 
+    private static final FilterParams NO_FILTER = new FilterParams(null, null, null, null, null);
+
     private Sort sort = new Sort(TARGET_TABLE_CREATE_AT_SORT_ORDER, "id");
     private transient Collection<TargetUpdateStatus> status;
     private transient Boolean overdueState;
@@ -64,6 +66,9 @@ public class TargetBeanQuery extends AbstractBeanQuery<ProxyTarget> {
     private Long pinnedDistId;
     private TargetFilterQuery targetFilterQuery;
     private ManagementUIState managementUIState;
+    private boolean sortedById = true;
+    private int nextIndex;
+    private Long lastLoadedId;
 
     /**
      * Parametric Constructor.
@@ -97,6 +102,7 @@ public class TargetBeanQuery extends AbstractBeanQuery<ProxyTarget> {
         }
 
         if (!isEmpty(sortStates)) {
+            sortedById = false;
 
             sort = new Sort(sortStates[0] ? ASC : DESC, (String) sortIds[0]);
 
@@ -118,7 +124,18 @@ public class TargetBeanQuery extends AbstractBeanQuery<ProxyTarget> {
         if (pinnedDistId != null) {
             targetBeans = getTargetManagement().findTargetsAllOrderByLinkedDistributionSet(
                     new OffsetBasedPageRequest(startIndex, SPUIDefinitions.PAGE_SIZE, sort), pinnedDistId,
-                    new FilterParams(distributionId, status, overdueState, searchText, noTagClicked, targetTags));
+                    getFilterParams());
+        } else if (sortedById && (startIndex == 0 || startIndex == nextIndex)) {
+            // continue after the last loaded target instead of skipping all
+            // targets up to the start index
+            final Long afterId = startIndex == 0 ? null : lastLoadedId;
+            if (null != targetFilterQuery) {
+                targetBeans = getTargetManagement().findTargetsAllAfter(afterId, targetFilterQuery.getQuery(),
+                        SPUIDefinitions.PAGE_SIZE);
+            } else {
+                targetBeans = getTargetManagement().findTargetByFiltersAfter(afterId,
+                        isAnyFilterSelected() ? getFilterParams() : NO_FILTER, SPUIDefinitions.PAGE_SIZE);
+            }
         } else if (null != targetFilterQuery) {
             targetBeans = getTargetManagement().findTargetsAll(targetFilterQuery,
                     new PageRequest(startIndex / SPUIDefinitions.PAGE_SIZE, SPUIDefinitions.PAGE_SIZE, sort));
@@ -163,7 +180,9 @@ public class TargetBeanQuery extends AbstractBeanQuery<ProxyTarget> {
             prxyTarget.setPollStatusToolTip(
                     HawkbitCommonUtil.getPollStatusToolTip(prxyTarget.getTargetInfo().getPollStatus(), getI18N()));
             proxyTargetBeans.add(prxyTarget);
+            lastLoadedId = targ.getId();
         }
+        nextIndex = startIndex + proxyTargetBeans.size();
         return proxyTargetBeans;
     }
 
@@ -186,15 +205,14 @@ public class TargetBeanQuery extends AbstractBeanQuery<ProxyTarget> {
 
     @Override
     public int size() {
-        final long totSize = getTargetManagement().countTargetsAll();
+        final long totSize = getTargetManagement().countTargetByFiltersCached(NO_FILTER);
         long size;
         if (null != targetFilterQuery) {
-            size = getTargetManagement().countTargetByTargetFilterQuery(targetFilterQuery);
+            size = getTargetManagement().countTargetByTargetFilterQueryCached(targetFilterQuery);
         } else if (!isAnyFilterSelected()) {
             size = totSize;
         } else {
-            size = getTargetManagement().countTargetByFilters(status, overdueState, searchText, distributionId,
-                    noTagClicked, targetTags);
+            size = getTargetManagement().countTargetByFiltersCached(getFilterParams());
         }
 
         final ManagementUIState tmpManagementUIState = getManagementUIState();
@@ -209,6 +227,10 @@ public class TargetBeanQuery extends AbstractBeanQuery<ProxyTarget> {
         return (int) size;
     }
 
+    private FilterParams getFilterParams() {
+        return new FilterParams(distributionId, status, overdueState, searchText, noTagClicked, targetTags);
+    }
+
     private boolean isAnyFilterSelected() {
         final boolean isFilterSelected = isTagSelected() || isOverdueFilterEnabled();
         return isFilterSelected || CollectionUtils.isNotEmpty(status) || distributionId != null
@@ -12,10 +12,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
-import org.eclipse.hawkbit.repository.DeploymentManagement;
 import org.eclipse.hawkbit.repository.SpPermissionChecker;
 import org.eclipse.hawkbit.repository.TagManagement;
-import org.eclipse.hawkbit.repository.TargetManagement;
 import org.eclipse.hawkbit.ui.UiProperties;
 import org.eclipse.hawkbit.ui.common.DistributionSetIdName;
 import org.eclipse.hawkbit.ui.common.builder.TextAreaBuilder;
@@ -64,16 +62,12 @@ import com.vaadin.ui.themes.ValoTheme;
 public class TargetBulkUpdateWindowLayout extends CustomComponent {
     private final I18N i18n;
 
-    private final transient TargetManagement targetManagement;
-
     private final transient EventBus.UIEventBus eventBus;
 
     private final TargetBulkTokenTags targetBulkTokenTags;
 
     private final ManagementUIState managementUIState;
 
-    private final transient DeploymentManagement deploymentManagement;
-
     private final UiProperties uiproperties;
 
     private static final long serialVersionUID = -6659290471705262389L;
@@ -90,17 +84,14 @@ public class TargetBulkUpdateWindowLayout extends CustomComponent {
     private Button minimizeButton;
     private Button closeButton;
 
-    TargetBulkUpdateWindowLayout(final I18N i18n, final TargetManagement targetManagement, final UIEventBus eventBus,
-            final ManagementUIState managementUIState, final DeploymentManagement deploymentManagement,
+    TargetBulkUpdateWindowLayout(final I18N i18n, final UIEventBus eventBus, final ManagementUIState managementUIState,
             final UiProperties uiproperties, final SpPermissionChecker checker, final UINotification uinotification,
             final TagManagement tagManagement) {
         this.i18n = i18n;
-        this.targetManagement = targetManagement;
         this.eventBus = eventBus;
         this.targetBulkTokenTags = new TargetBulkTokenTags(checker, i18n, uinotification, eventBus, managementUIState,
                 tagManagement);
         this.managementUIState = managementUIState;
-        this.deploymentManagement = deploymentManagement;
         this.uiproperties = uiproperties;
 
         createRequiredComponents();
@@ -164,8 +155,8 @@ public class TargetBulkUpdateWindowLayout extends CustomComponent {
     }
 
     private BulkUploadHandler getBulkUploadHandler() {
-        final BulkUploadHandler bulkUploadHandler = new BulkUploadHandler(this, targetManagement, managementUIState,
-                deploymentManagement, i18n, UI.getCurrent());
+        final BulkUploadHandler bulkUploadHandler = new BulkUploadHandler(this, managementUIState, i18n,
+                UI.getCurrent());
         bulkUploadHandler.buildLayout();
         bulkUploadHandler.addStyleName(SPUIStyleDefinitions.BULK_UPLOAD_BUTTON);
         return bulkUploadHandler;
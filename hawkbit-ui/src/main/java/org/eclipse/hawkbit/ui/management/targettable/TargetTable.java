@@ -55,7 +55,9 @@ import org.eclipse.hawkbit.ui.management.state.TargetTableFilters;
 import org.eclipse.hawkbit.ui.push.CancelTargetAssignmentEventContainer;
 import org.eclipse.hawkbit.ui.push.TargetCreatedEventContainer;
 import org.eclipse.hawkbit.ui.push.TargetDeletedEventContainer;
+import org.eclipse.hawkbit.ui.push.TargetTagAssignmentEventContainer;
 import org.eclipse.hawkbit.ui.push.TargetUpdatedEventContainer;
+import org.eclipse.hawkbit.ui.push.event.EventBufferOverflowEvent;
 import org.eclipse.hawkbit.ui.utils.AssignInstalledDSTooltipGenerator;
 import org.eclipse.hawkbit.ui.utils.HawkbitCommonUtil;
 import org.eclipse.hawkbit.ui.utils.I18N;
@@ -129,6 +131,13 @@ public class TargetTable extends AbstractTable<Target, TargetIdName> {
         setDataAvailable(getContainerDataSource().size() != 0);
     }
 
+    @EventBusListenerMethod(scope = EventScope.UI)
+    // Exception squid:S1172 - event not needed
+    @SuppressWarnings({ "squid:S1172" })
+    void onEventBufferOverflow(final EventBufferOverflowEvent event) {
+        refreshTargets();
+    }
+
     @EventBusListenerMethod(scope = EventScope.UI)
     void onTargetDeletedEvents(final TargetDeletedEventContainer eventContainer) {
         final LazyQueryContainer targetContainer = (LazyQueryContainer) getContainerDataSource();
@@ -193,6 +202,14 @@ public class TargetTable extends AbstractTable<Target, TargetIdName> {
         refreshTargets();
     }
 
+    @EventBusListenerMethod(scope = EventScope.UI)
+    void onTargetTagAssignmentEvents(final TargetTagAssignmentEventContainer eventContainer) {
+        // targets might have left or entered the tag filter
+        if (isFilterEnabled()) {
+            refreshTargets();
+        }
+    }
+
     @EventBusListenerMethod(scope = EventScope.UI)
     void onEvent(final PinUnpinEvent pinUnpinEvent) {
         UI.getCurrent().access(() -> {
@@ -10,7 +10,6 @@ package org.eclipse.hawkbit.ui.management.targettable;
 
 import java.util.Set;
 
-import org.eclipse.hawkbit.repository.DeploymentManagement;
 import org.eclipse.hawkbit.repository.EntityFactory;
 import org.eclipse.hawkbit.repository.SpPermissionChecker;
 import org.eclipse.hawkbit.repository.TagManagement;
@@ -73,16 +72,15 @@ public class TargetTableHeader extends AbstractTableHeader {
     TargetTableHeader(final I18N i18n, final SpPermissionChecker permChecker, final UIEventBus eventbus,
             final UINotification notification, final ManagementUIState managementUIState,
             final ManagementViewClientCriterion managementViewClientCriterion, final TargetManagement targetManagement,
-            final DeploymentManagement deploymentManagement, final UiProperties uiproperties, final UIEventBus eventBus,
-            final EntityFactory entityFactory, final UINotification uinotification, final TagManagement tagManagement,
-            final TargetTable targetTable) {
+            final UiProperties uiproperties, final UIEventBus eventBus, final EntityFactory entityFactory,
+            final UINotification uinotification, final TagManagement tagManagement, final TargetTable targetTable) {
         super(i18n, permChecker, eventbus, managementUIState, null, null);
         this.notification = notification;
         this.managementViewClientCriterion = managementViewClientCriterion;
         this.targetAddUpdateWindow = new TargetAddUpdateWindowLayout(i18n, targetManagement, eventBus, uinotification,
                 entityFactory, targetTable);
-        this.targetBulkUpdateWindow = new TargetBulkUpdateWindowLayout(i18n, targetManagement, eventBus,
-                managementUIState, deploymentManagement, uiproperties, permChecker, uinotification, tagManagement);
+        this.targetBulkUpdateWindow = new TargetBulkUpdateWindowLayout(i18n, eventBus, managementUIState, uiproperties,
+                permChecker, uinotification, tagManagement);
 
         onLoadRestoreState();
     }
@@ -8,7 +8,6 @@
  */
 package org.eclipse.hawkbit.ui.management.targettable;
 
-import org.eclipse.hawkbit.repository.DeploymentManagement;
 import org.eclipse.hawkbit.repository.EntityFactory;
 import org.eclipse.hawkbit.repository.SpPermissionChecker;
 import org.eclipse.hawkbit.repository.TagManagement;
@@ -40,16 +39,15 @@ public class TargetTableLayout extends AbstractTableLayout {
     public TargetTableLayout(final UIEventBus eventBus, final TargetTable targetTable,
             final TargetManagement targetManagement, final EntityFactory entityFactory, final I18N i18n,
             final UIEventBus eventbus, final UINotification notification, final ManagementUIState managementUIState,
-            final ManagementViewClientCriterion managementViewClientCriterion,
-            final DeploymentManagement deploymentManagement, final UiProperties uiproperties,
+            final ManagementViewClientCriterion managementViewClientCriterion, final UiProperties uiproperties,
             final SpPermissionChecker permissionChecker, final UINotification uinotification,
             final TagManagement tagManagement) {
         this.eventBus = eventBus;
         this.targetDetails = new TargetDetails(i18n, eventbus, permissionChecker, managementUIState, uinotification,
                 tagManagement, targetManagement, entityFactory, targetTable);
         this.targetTableHeader = new TargetTableHeader(i18n, permissionChecker, eventBus, notification,
-                managementUIState, managementViewClientCriterion, targetManagement, deploymentManagement, uiproperties,
-                eventbus, entityFactory, uinotification, tagManagement, targetTable);
+                managementUIState, managementViewClientCriterion, targetManagement, uiproperties, eventbus,
+                entityFactory, uinotification, tagManagement, targetTable);
 
         super.init(targetTableHeader, targetTable, targetDetails);
     }
@@ -10,36 +10,26 @@ package org.eclipse.hawkbit.ui.push;
 
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.BlockingDeque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.LinkedBlockingDeque;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.im.authentication.TenantAwareAuthenticationDetails;
 import org.eclipse.hawkbit.repository.event.TenantAwareEvent;
-import org.eclipse.hawkbit.repository.event.remote.entity.ActionCreatedEvent;
-import org.eclipse.hawkbit.repository.event.remote.entity.ActionUpdatedEvent;
-import org.eclipse.hawkbit.repository.event.remote.entity.RolloutGroupCreatedEvent;
-import org.eclipse.hawkbit.repository.event.remote.entity.RolloutGroupUpdatedEvent;
-import org.eclipse.hawkbit.repository.event.remote.entity.RolloutUpdatedEvent;
-import org.eclipse.hawkbit.repository.model.Rollout;
-import org.eclipse.hawkbit.repository.model.RolloutGroup;
-import org.eclipse.hawkbit.ui.push.event.RolloutChangeEvent;
-import org.eclipse.hawkbit.ui.push.event.RolloutGroupChangeEvent;
+import org.eclipse.hawkbit.repository.event.remote.RemoteIdEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetTagAssignmentEvent;
+import org.eclipse.hawkbit.ui.push.event.EventBufferOverflowEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.ApplicationEvent;
-import org.springframework.context.ApplicationListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 import org.vaadin.spring.events.EventBus;
-import org.vaadin.spring.events.EventBus.SessionEventBus;
 import org.vaadin.spring.events.EventBus.UIEventBus;
 
 import com.vaadin.server.VaadinSession;
@@ -48,45 +38,58 @@ import com.vaadin.server.WrappedSession;
 import com.vaadin.ui.UI;
 
 /**
- * An {@link EventPushStrategy} implementation which retrieves events from
- * {@link com.google.common.eventbus.EventBus} and store them first in a queue
- * where they will dispatched every 2 seconds to the {@link EventBus} in a
- * Vaadin access thread {@link UI#access(Runnable)}.
+ * An {@link EventPushStrategy} implementation which buffers the events offered
+ * by the {@link EventPushDispatcher} where they will be dispatched every second
+ * to the {@link EventBus} in a Vaadin access thread {@link UI#access(Runnable)}.
  *
  * This strategy avoids blocking UIs when too many events are fired and
  * dispatched to the UI thread. The UI will freeze in the time. To avoid that
  * all events are collected first and same events are merged to a list of events
- * before they dispatched to the UI thread.
+ * before they dispatched to the UI thread. Events of the same type for the same
+ * entity are coalesced, i.e. only the latest one is dispatched. If more events
+ * are fired than the buffer holds the buffered events are dropped and a single
+ * {@link EventBufferOverflowEvent} is dispatched instead which tells the views
+ * to reload their content.
  *
  * The strategy also verifies the current tenant in the session with the tenant
  * in the event and only forwards event from the right tenant to the UI.
  *
  */
-public class DelayedEventBusPushStrategy implements EventPushStrategy, ApplicationListener<ApplicationEvent> {
+public class DelayedEventBusPushStrategy implements EventPushStrategy {
 
     private static final Logger LOG = LoggerFactory.getLogger(DelayedEventBusPushStrategy.class);
 
     private static final int BLOCK_SIZE = 10_000;
-    private final BlockingDeque<org.eclipse.hawkbit.repository.event.TenantAwareEvent> queue = new LinkedBlockingDeque<>(
-            BLOCK_SIZE);
+
+    private static final Map<Class<?>, Constructor<?>> CONTAINER_CONSTRUCTORS = new ConcurrentHashMap<>();
+
+    private final Map<EventKey, TenantAwareEvent> buffer = new LinkedHashMap<>();
+    private boolean overflow;
+
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+
     private int uiid = -1;
+    private UI vaadinUI;
+    private String tenant;
 
-    private final ScheduledExecutorService executorService;
+    private final EventPushDispatcher dispatcher;
 
     private final transient EventBus.UIEventBus eventBus;
 
     private final UIEventProvider eventProvider;
-    private ScheduledFuture<?> jobHandle;
 
-    public DelayedEventBusPushStrategy(final ScheduledExecutorService executorService, final UIEventBus eventBus,
-            final UIEventProvider eventProvider) {
-        this.executorService = executorService;
+    /**
+     * Constructor.
+     *
+     * @param dispatcher
+     *            which offers the events of the tenant of the UI
+     * @param eventBus
+     *            of the UI to publish the events on
+     */
+    public DelayedEventBusPushStrategy(final EventPushDispatcher dispatcher, final UIEventBus eventBus) {
+        this.dispatcher = dispatcher;
         this.eventBus = eventBus;
-        this.eventProvider = eventProvider;
-    }
-
-    private boolean isEventProvided(final org.eclipse.hawkbit.repository.event.TenantAwareEvent event) {
-        return eventProvider.getEvents().containsKey(event.getClass());
+        this.eventProvider = dispatcher.getEventProvider();
     }
 
     @Override
@@ -95,217 +98,242 @@ public class DelayedEventBusPushStrategy implements EventPushStrategy, Applicati
         LOG.info("Initialize delayed event push strategy for UI {}", uiid);
         if (vaadinUI.getSession() == null) {
             LOG.error("Vaadin session of UI {} is null! Event push disabled!", uiid);
+            return;
         }
 
-        jobHandle = executorService.scheduleWithFixedDelay(new DispatchRunnable(vaadinUI, vaadinUI.getSession()),
-                10_000, 1_000, TimeUnit.MILLISECONDS);
+        tenant = getTenant(getUserContext(vaadinUI.getSession().getSession()));
+        if (tenant == null) {
+            LOG.error("Tenant of UI {} is unknown! Event push disabled!", uiid);
+            return;
+        }
+
+        this.vaadinUI = vaadinUI;
+        dispatcher.register(tenant, this);
     }
 
     @Override
     public void clean() {
-        LOG.info("Cleanup delayed event push strategy for UI", uiid);
-        jobHandle.cancel(true);
-        queue.clear();
-    }
-
-    private final class DispatchRunnable implements Runnable {
-
-        private final UI vaadinUI;
-        private final VaadinSession vaadinSession;
-
-        private DispatchRunnable(final UI ui, final VaadinSession session) {
-            vaadinUI = ui;
-            vaadinSession = session;
+        LOG.info("Cleanup delayed event push strategy for UI {}", uiid);
+        if (tenant != null) {
+            dispatcher.unregister(tenant, this);
         }
+        synchronized (buffer) {
+            buffer.clear();
+            overflow = false;
+        }
+    }
 
-        @Override
-        public void run() {
-            LOG.debug("UI EventBus aggregator started for UI {}", vaadinUI.getUIId());
-            final long timestamp = System.currentTimeMillis();
-
-            final int size = queue.size();
-            if (size <= 0) {
-                LOG.debug("UI EventBus aggregator for UI {} has nothing to do.", vaadinUI.getUIId());
-                return;
-            }
-
-            final WrappedSession wrappedSession = vaadinSession.getSession();
-            if (wrappedSession == null) {
+    /**
+     * Buffers the given event until the next dispatch. Replaces an already
+     * buffered event of the same type for the same entity.
+     *
+     * @param event
+     *            to buffer
+     */
+    void offer(final TenantAwareEvent event) {
+        final EventKey key = new EventKey(event);
+        synchronized (buffer) {
+            if (overflow) {
                 return;
             }
-
-            final List<TenantAwareEvent> events = new ArrayList<>(size);
-            final int eventsSize = queue.drainTo(events);
-
-            if (events.isEmpty()) {
-                LOG.debug("UI EventBus aggregator for UI {} has nothing to do.", vaadinUI.getUIId());
+            if (buffer.size() >= BLOCK_SIZE && !buffer.containsKey(key)) {
+                LOG.warn("Event buffer limit of UI {} is reached, dropping {} events and reloading the views!", uiid,
+                        buffer.size());
+                buffer.clear();
+                overflow = true;
                 return;
             }
-
-            LOG.debug("UI EventBus aggregator dispatches {} events for session {} for UI {}", eventsSize, vaadinSession,
-                    vaadinUI.getUIId());
-
-            doDispatch(events, wrappedSession);
-
-            LOG.debug("UI EventBus aggregator done with sending {} events in {} ms for UI {}", eventsSize,
-                    System.currentTimeMillis() - timestamp, vaadinUI.getUIId());
-
+            buffer.put(key, event);
         }
+    }
 
-        /**
-         * Checks if the tenant within the event is equal with the current
-         * tenant in the context.
-         *
-         * @param userContext
-         *            the security context of the current session
-         * @param event
-         *            the event to dispatch to the UI
-         * @return {@code true} if the event can be dispatched to the UI
-         *         otherwise {@code false}
-         */
-        private boolean eventSecurityCheck(final SecurityContext userContext,
-                final org.eclipse.hawkbit.repository.event.TenantAwareEvent event) {
-            if (userContext == null || userContext.getAuthentication() == null) {
+    /**
+     * Marks the strategy as dispatching if it has pending events.
+     *
+     * @return <code>true</code> if {@link #dispatch()} has to be called
+     */
+    boolean startDispatch() {
+        synchronized (buffer) {
+            if (buffer.isEmpty() && !overflow) {
                 return false;
             }
-            final Object tenantAuthenticationDetails = userContext.getAuthentication().getDetails();
-            if (tenantAuthenticationDetails instanceof TenantAwareAuthenticationDetails) {
-                return ((TenantAwareAuthenticationDetails) tenantAuthenticationDetails).getTenant()
-                        .equalsIgnoreCase(event.getTenant());
-            }
-            return false;
-        }
-
-        private void doDispatch(final List<org.eclipse.hawkbit.repository.event.TenantAwareEvent> events,
-                final WrappedSession wrappedSession) {
-            final SecurityContext userContext = (SecurityContext) wrappedSession
-                    .getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
-            final SecurityContext oldContext = SecurityContextHolder.getContext();
-            try {
-                SecurityContextHolder.setContext(userContext);
-
-                final List<EventContainer<TenantAwareEvent>> groupedEvents = groupEvents(events, userContext,
-                        eventProvider);
-
-                vaadinUI.access(() -> {
-                    if (vaadinSession.getState() != State.OPEN) {
-                        return;
-                    }
-                    LOG.debug("UI EventBus aggregator of UI {} got lock on session.", vaadinUI.getUIId());
-                    groupedEvents.forEach(holder -> eventBus.publish(vaadinUI, holder));
-                    LOG.debug("UI EventBus aggregator of UI {} left lock on session.", vaadinUI.getUIId());
-                }).get();
-            } catch (InterruptedException | ExecutionException e) {
-                LOG.warn("Wait for Vaadin session for UI {} interrupted!", vaadinUI.getUIId(), e);
-            } finally {
-                SecurityContextHolder.setContext(oldContext);
-            }
         }
+        return dispatching.compareAndSet(false, true);
+    }
 
-        @SuppressWarnings("unchecked")
-        private List<EventContainer<TenantAwareEvent>> groupEvents(final List<TenantAwareEvent> events,
-                final SecurityContext userContext, final UIEventProvider eventProvider) {
-
-            return events.stream().filter(event -> eventSecurityCheck(userContext, event))
-                    .collect(Collectors.groupingBy(TenantAwareEvent::getClass)).entrySet().stream().map(entry -> {
-                        EventContainer<TenantAwareEvent> holder = null;
-                        try {
-                            final Constructor<TenantAwareEvent> declaredConstructor = (Constructor<TenantAwareEvent>) eventProvider
-                                    .getEvents().get(entry.getKey()).getDeclaredConstructor(List.class);
-                            declaredConstructor.setAccessible(true);
-
-                            holder = (EventContainer<TenantAwareEvent>) declaredConstructor
-                                    .newInstance(entry.getValue());
-                        } catch (final ReflectiveOperationException e) {
-                            LOG.error("Failed to create EventHolder!", e);
-                        }
-
-                        return holder;
-                    }).collect(Collectors.toList());
-        }
+    void cancelDispatch() {
+        dispatching.set(false);
     }
 
     /**
-     * An application event publisher subscriber which subscribes
-     * {@link TenantAwareEvent} from the repository to dispatch these events to
-     * the UI {@link SessionEventBus} .
-     * 
-     * @param applicationEvent
-     *            the entity event which has been published from the repository
+     * Dispatches the buffered events to the UI.
      */
-    @Override
-    @Async
-    public void onApplicationEvent(final ApplicationEvent applicationEvent) {
-        if (!(applicationEvent instanceof org.eclipse.hawkbit.repository.event.TenantAwareEvent)) {
-            return;
+    void dispatch() {
+        try {
+            doDispatch();
+        } catch (final RuntimeException e) {
+            LOG.error("UI EventBus aggregator failed for UI {}", uiid, e);
+        } finally {
+            dispatching.set(false);
         }
+    }
 
-        final org.eclipse.hawkbit.repository.event.TenantAwareEvent event = (TenantAwareEvent) applicationEvent;
+    private void doDispatch() {
+        LOG.debug("UI EventBus aggregator started for UI {}", uiid);
+        final long timestamp = System.currentTimeMillis();
 
-        collectRolloutEvent(event);
-        // to dispatch too many events which are not interested on the UI
-        if (!isEventProvided(event)) {
-            LOG.trace("Event is not supported in the UI!!! Dropped event is {}", event);
+        final VaadinSession vaadinSession = vaadinUI.getSession();
+        final WrappedSession wrappedSession = vaadinSession == null ? null : vaadinSession.getSession();
+        if (wrappedSession == null) {
             return;
         }
-        offerEvent(event);
-    }
 
-    private void offerEventIfNotContains(final org.eclipse.hawkbit.repository.event.TenantAwareEvent event) {
-        if (queue.contains(event)) {
+        final List<TenantAwareEvent> events;
+        final boolean reload;
+        synchronized (buffer) {
+            events = new ArrayList<>(buffer.values());
+            buffer.clear();
+            reload = overflow;
+            overflow = false;
+        }
+
+        if (events.isEmpty() && !reload) {
+            LOG.debug("UI EventBus aggregator for UI {} has nothing to do.", uiid);
             return;
         }
-        offerEvent(event);
-    }
 
-    private void offerEvent(final org.eclipse.hawkbit.repository.event.TenantAwareEvent event) {
-        if (!queue.offer(event)) {
-            LOG.warn("Deque limit is reached, cannot add more events!!! Dropped event is {}", event);
+        LOG.debug("UI EventBus aggregator dispatches {} events for session {} for UI {}", events.size(),
+                vaadinSession, uiid);
+
+        final SecurityContext userContext = getUserContext(wrappedSession);
+        final SecurityContext oldContext = SecurityContextHolder.getContext();
+        try {
+            SecurityContextHolder.setContext(userContext);
+
+            final List<EventContainer<TenantAwareEvent>> groupedEvents = groupEvents(events, userContext);
+
+            vaadinUI.access(() -> {
+                if (vaadinSession.getState() != State.OPEN) {
+                    return;
+                }
+                LOG.debug("UI EventBus aggregator of UI {} got lock on session.", uiid);
+                if (reload) {
+                    eventBus.publish(vaadinUI, EventBufferOverflowEvent.getInstance());
+                }
+                groupedEvents.forEach(holder -> eventBus.publish(vaadinUI, holder));
+                LOG.debug("UI EventBus aggregator of UI {} left lock on session.", uiid);
+            }).get();
+        } catch (final InterruptedException e) {
+            LOG.warn("Wait for Vaadin session for UI {} interrupted!", uiid, e);
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            LOG.warn("Wait for Vaadin session for UI {} interrupted!", uiid, e);
+        } finally {
+            SecurityContextHolder.setContext(oldContext);
         }
+
+        LOG.debug("UI EventBus aggregator done with sending {} events in {} ms for UI {}", events.size(),
+                System.currentTimeMillis() - timestamp, uiid);
     }
 
-    private void collectRolloutEvent(final TenantAwareEvent event) {
-        Long rolloutId = null;
-        Long rolloutGroupId = null;
-        if (event instanceof ActionCreatedEvent) {
-            rolloutId = getRolloutId(((ActionCreatedEvent) event).getEntity().getRollout());
-            rolloutGroupId = getRolloutGroupId(((ActionCreatedEvent) event).getEntity().getRolloutGroup());
-        } else if (event instanceof ActionUpdatedEvent) {
-            rolloutId = getRolloutId(((ActionUpdatedEvent) event).getEntity().getRollout());
-            rolloutGroupId = getRolloutGroupId(((ActionUpdatedEvent) event).getEntity().getRolloutGroup());
-        } else if (event instanceof RolloutUpdatedEvent) {
-            rolloutId = ((RolloutUpdatedEvent) event).getEntityId();
-        } else if (event instanceof RolloutGroupCreatedEvent) {
-            rolloutId = ((RolloutGroupCreatedEvent) event).getRolloutId();
-            rolloutGroupId = ((RolloutGroupCreatedEvent) event).getEntityId();
-        } else if (event instanceof RolloutGroupUpdatedEvent) {
-            final RolloutGroup rolloutGroup = ((RolloutGroupUpdatedEvent) event).getEntity();
-            rolloutId = rolloutGroup.getRollout().getId();
-            rolloutGroupId = rolloutGroup.getId();
+    private List<EventContainer<TenantAwareEvent>> groupEvents(final List<TenantAwareEvent> events,
+            final SecurityContext userContext) {
+        final String userTenant = getTenant(userContext);
+        if (userTenant == null) {
+            return new ArrayList<>();
         }
 
-        if (rolloutId == null) {
-            return;
+        return events.stream().filter(event -> userTenant.equalsIgnoreCase(event.getTenant()))
+                .collect(Collectors.groupingBy(TenantAwareEvent::getClass, LinkedHashMap::new, Collectors.toList()))
+                .entrySet().stream().map(entry -> createContainer(entry.getKey(), entry.getValue()))
+                .filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private EventContainer<TenantAwareEvent> createContainer(final Class<?> eventType,
+            final List<TenantAwareEvent> events) {
+        final Class<?> containerType = eventProvider.getEvents().get(eventType);
+        if (containerType == null) {
+            return null;
+        }
+        try {
+            return (EventContainer<TenantAwareEvent>) CONTAINER_CONSTRUCTORS
+                    .computeIfAbsent(containerType, DelayedEventBusPushStrategy::getContainerConstructor)
+                    .newInstance(events);
+        } catch (final ReflectiveOperationException | IllegalStateException e) {
+            LOG.error("Failed to create EventHolder!", e);
+            return null;
         }
-        offerEventIfNotContains(new RolloutChangeEvent(event.getTenant(), rolloutId));
+    }
 
-        if (rolloutGroupId != null) {
-            offerEventIfNotContains(new RolloutGroupChangeEvent(event.getTenant(), rolloutId, rolloutGroupId));
+    private static Constructor<?> getContainerConstructor(final Class<?> containerType) {
+        try {
+            final Constructor<?> constructor = containerType.getDeclaredConstructor(List.class);
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (final NoSuchMethodException e) {
+            throw new IllegalStateException("Event container " + containerType + " has no list constructor", e);
         }
     }
 
-    private static Long getRolloutGroupId(final RolloutGroup rolloutGroup) {
-        if (rolloutGroup != null) {
-            return rolloutGroup.getId();
+    private static SecurityContext getUserContext(final WrappedSession wrappedSession) {
+        if (wrappedSession == null) {
+            return null;
         }
-        return null;
+        return (SecurityContext) wrappedSession
+                .getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
     }
 
-    private static Long getRolloutId(final Rollout rollout) {
-        if (rollout != null) {
-            return rollout.getId();
+    /**
+     * @param userContext
+     *            the security context of the session
+     * @return the tenant of the user or <code>null</code> if the user is not
+     *         authenticated
+     */
+    private static String getTenant(final SecurityContext userContext) {
+        if (userContext == null || userContext.getAuthentication() == null) {
+            return null;
+        }
+        final Object tenantAuthenticationDetails = userContext.getAuthentication().getDetails();
+        if (tenantAuthenticationDetails instanceof TenantAwareAuthenticationDetails) {
+            return ((TenantAwareAuthenticationDetails) tenantAuthenticationDetails).getTenant();
         }
         return null;
     }
 
+    /**
+     * Identifies the events which are coalesced in the buffer, i.e. events of
+     * the same type for the same entity. Events without entity ID and the
+     * {@link TargetTagAssignmentEvent}s, which carry the targets of one chunk
+     * of an assignment, are identified by their equality.
+     */
+    private static final class EventKey {
+
+        private final Class<?> type;
+        private final Object id;
+
+        private EventKey(final TenantAwareEvent event) {
+            type = event.getClass();
+            final Long entityId = event instanceof RemoteIdEvent && !(event instanceof TargetTagAssignmentEvent)
+                    ? ((RemoteIdEvent) event).getEntityId() : null;
+            id = entityId != null ? entityId : event;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + id.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof EventKey)) {
+                return false;
+            }
+            final EventKey other = (EventKey) obj;
+            return type.equals(other.type) && id.equals(other.id);
+        }
+    }
 }
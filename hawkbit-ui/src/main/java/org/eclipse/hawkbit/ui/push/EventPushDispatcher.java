@@ -0,0 +1,221 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.ui.push;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.hawkbit.repository.event.TenantAwareEvent;
+import org.eclipse.hawkbit.repository.event.remote.ActionBulkCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.ActionCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.ActionUpdatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.RolloutGroupCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.RolloutGroupUpdatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.RolloutUpdatedEvent;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.RolloutGroup;
+import org.eclipse.hawkbit.ui.push.event.RolloutChangeEvent;
+import org.eclipse.hawkbit.ui.push.event.RolloutGroupChangeEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * Shared fan-out of the {@link TenantAwareEvent}s to the
+ * {@link DelayedEventBusPushStrategy}s of all UIs. The dispatcher is the only
+ * application listener of the UI push, i.e. every event is inspected once and
+ * only offered to the UIs of the tenant of the event, independent of the
+ * number of open UIs.
+ *
+ * A single job triggers the dispatch of all UIs which have pending events
+ * every second. The dispatch of a UI runs on the executor so that a UI waiting
+ * for its session lock does not delay the other UIs.
+ */
+public class EventPushDispatcher implements ApplicationListener<ApplicationEvent> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EventPushDispatcher.class);
+
+    private static final long INITIAL_DELAY = 10_000;
+
+    private static final long DISPATCH_INTERVAL = 1_000;
+
+    private final ConcurrentMap<String, Set<DelayedEventBusPushStrategy>> strategiesByTenant = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService executorService;
+
+    private final UIEventProvider eventProvider;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    /**
+     * Constructor.
+     *
+     * @param executorService
+     *            to run the dispatch job and the dispatch of the UIs
+     * @param eventProvider
+     *            which holds the events supported by the UI
+     */
+    public EventPushDispatcher(final ScheduledExecutorService executorService, final UIEventProvider eventProvider) {
+        this.executorService = executorService;
+        this.eventProvider = eventProvider;
+    }
+
+    /**
+     * Registers the strategy of a UI to receive the events of the given tenant.
+     *
+     * @param tenant
+     *            of the UI
+     * @param strategy
+     *            of the UI
+     */
+    public void register(final String tenant, final DelayedEventBusPushStrategy strategy) {
+        strategiesByTenant.computeIfAbsent(tenantKey(tenant), key -> ConcurrentHashMap.newKeySet()).add(strategy);
+
+        if (started.compareAndSet(false, true)) {
+            executorService.scheduleWithFixedDelay(this::dispatch, INITIAL_DELAY, DISPATCH_INTERVAL,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Removes the strategy of a UI.
+     *
+     * @param tenant
+     *            of the UI
+     * @param strategy
+     *            of the UI
+     */
+    public void unregister(final String tenant, final DelayedEventBusPushStrategy strategy) {
+        strategiesByTenant.computeIfPresent(tenantKey(tenant), (key, strategies) -> {
+            strategies.remove(strategy);
+            return strategies.isEmpty() ? null : strategies;
+        });
+    }
+
+    UIEventProvider getEventProvider() {
+        return eventProvider;
+    }
+
+    private void dispatch() {
+        // a failure must not cancel the periodic execution of the job
+        try {
+            strategiesByTenant.values().forEach(strategies -> strategies.forEach(this::dispatch));
+        } catch (final RuntimeException e) {
+            LOG.error("Dispatch of UI events failed, retrying with next run.", e);
+        }
+    }
+
+    private void dispatch(final DelayedEventBusPushStrategy strategy) {
+        if (!strategy.startDispatch()) {
+            return;
+        }
+        try {
+            executorService.execute(strategy::dispatch);
+        } catch (final RuntimeException e) {
+            // also releases the UI if the executor fails otherwise than by
+            // rejection
+            LOG.warn("Dispatch of UI events rejected, retrying with next run.", e);
+            strategy.cancelDispatch();
+        }
+    }
+
+    /**
+     * An application event publisher subscriber which subscribes
+     * {@link TenantAwareEvent} from the repository and offers them to the UIs
+     * of the tenant of the event.
+     *
+     * @param applicationEvent
+     *            the entity event which has been published from the repository
+     */
+    @Override
+    public void onApplicationEvent(final ApplicationEvent applicationEvent) {
+        if (!(applicationEvent instanceof TenantAwareEvent)) {
+            return;
+        }
+
+        final TenantAwareEvent event = (TenantAwareEvent) applicationEvent;
+        final Set<DelayedEventBusPushStrategy> strategies = strategiesByTenant.get(tenantKey(event.getTenant()));
+        if (strategies == null || strategies.isEmpty()) {
+            return;
+        }
+
+        final List<TenantAwareEvent> uiEvents = new ArrayList<>(3);
+        collectRolloutEvent(event, uiEvents);
+        // to dispatch too many events which are not interested on the UI
+        if (eventProvider.getEvents().containsKey(event.getClass())) {
+            uiEvents.add(event);
+        } else {
+            LOG.trace("Event is not supported in the UI!!! Dropped event is {}", event);
+        }
+
+        if (uiEvents.isEmpty()) {
+            return;
+        }
+        strategies.forEach(strategy -> uiEvents.forEach(strategy::offer));
+    }
+
+    private static void collectRolloutEvent(final TenantAwareEvent event, final List<TenantAwareEvent> uiEvents) {
+        Long rolloutId = null;
+        Long rolloutGroupId = null;
+        if (event instanceof ActionCreatedEvent) {
+            rolloutId = getRolloutId(((ActionCreatedEvent) event).getEntity().getRollout());
+            rolloutGroupId = getRolloutGroupId(((ActionCreatedEvent) event).getEntity().getRolloutGroup());
+        } else if (event instanceof ActionBulkCreatedEvent) {
+            rolloutId = ((ActionBulkCreatedEvent) event).getRolloutId();
+            rolloutGroupId = ((ActionBulkCreatedEvent) event).getRolloutGroupId();
+        } else if (event instanceof ActionUpdatedEvent) {
+            rolloutId = getRolloutId(((ActionUpdatedEvent) event).getEntity().getRollout());
+            rolloutGroupId = getRolloutGroupId(((ActionUpdatedEvent) event).getEntity().getRolloutGroup());
+        } else if (event instanceof RolloutUpdatedEvent) {
+            rolloutId = ((RolloutUpdatedEvent) event).getEntityId();
+        } else if (event instanceof RolloutGroupCreatedEvent) {
+            rolloutId = ((RolloutGroupCreatedEvent) event).getRolloutId();
+            rolloutGroupId = ((RolloutGroupCreatedEvent) event).getEntityId();
+        } else if (event instanceof RolloutGroupUpdatedEvent) {
+            final RolloutGroup rolloutGroup = ((RolloutGroupUpdatedEvent) event).getEntity();
+            rolloutId = rolloutGroup.getRollout().getId();
+            rolloutGroupId = rolloutGroup.getId();
+        }
+
+        if (rolloutId == null) {
+            return;
+        }
+        uiEvents.add(new RolloutChangeEvent(event.getTenant(), rolloutId));
+
+        if (rolloutGroupId != null) {
+            uiEvents.add(new RolloutGroupChangeEvent(event.getTenant(), rolloutId, rolloutGroupId));
+        }
+    }
+
+    private static Long getRolloutGroupId(final RolloutGroup rolloutGroup) {
+        if (rolloutGroup != null) {
+            return rolloutGroup.getId();
+        }
+        return null;
+    }
+
+    private static Long getRolloutId(final Rollout rollout) {
+        if (rollout != null) {
+            return rollout.getId();
+        }
+        return null;
+    }
+
+    private static String tenantKey(final String tenant) {
+        return tenant == null ? "" : tenant.toUpperCase(Locale.ENGLISH);
+    }
+}
@@ -0,0 +1,29 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.ui.push.event;
+
+/**
+ * Event which is published to the UI instead of the single entity events if
+ * more events have been fired since the last push than the UI buffers. The
+ * views have to reload their whole content as they missed changes.
+ */
+public final class EventBufferOverflowEvent {
+
+    private static final EventBufferOverflowEvent INSTANCE = new EventBufferOverflowEvent();
+
+    private EventBufferOverflowEvent() {
+    }
+
+    /**
+     * @return the event
+     */
+    public static EventBufferOverflowEvent getInstance() {
+        return INSTANCE;
+    }
+}
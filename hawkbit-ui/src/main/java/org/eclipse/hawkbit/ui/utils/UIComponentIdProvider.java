@@ -222,6 +222,11 @@ public final class UIComponentIdProvider {
      */
     public static final String ACTION_HISTORY_TABLE_FORCE_QUIT_ID = "action.history.table.action.force.quit";
 
+    /**
+     * Action history table load more Id.
+     */
+    public static final String ACTION_HISTORY_TABLE_LOAD_MORE_ID = "action.history.table.load.more";
+
     /**
      * ID for option group save timeforced
      */
@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.ui.push;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.im.authentication.TenantAwareAuthenticationDetails;
+import org.eclipse.hawkbit.repository.event.TenantAwareEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetTagAssignmentEvent;
+import org.eclipse.hawkbit.ui.push.event.EventBufferOverflowEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.vaadin.spring.events.EventBus.UIEventBus;
+
+import com.vaadin.server.VaadinSession;
+import com.vaadin.server.VaadinSession.State;
+import com.vaadin.server.WrappedSession;
+import com.vaadin.ui.UI;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Management UI")
+@Stories("UI Event Push")
+@RunWith(MockitoJUnitRunner.class)
+public class EventPushDispatcherTest {
+
+    private static final String TENANT = "DEFAULT";
+    private static final String OTHER_TENANT = "OTHER";
+
+    @Mock
+    private ScheduledExecutorService executorService;
+
+    private EventPushDispatcher underTest;
+
+    private Runnable dispatchJob;
+
+    @Before
+    public void before() {
+        final Map<Class<? extends TenantAwareEvent>, Class<?>> events = new HashMap<>();
+        events.put(TargetDeletedEvent.class, TargetDeletedEventContainer.class);
+        events.put(TargetTagAssignmentEvent.class, TargetTagAssignmentEventContainer.class);
+        underTest = new EventPushDispatcher(executorService, new UIEventProvider() {
+            @Override
+            public Map<Class<? extends TenantAwareEvent>, Class<?>> getEvents() {
+                return events;
+            }
+        });
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        }).when(executorService).execute(any(Runnable.class));
+    }
+
+    @Test
+    @Description("Verifies that the events of the same type for the same entity are coalesced to the latest one.")
+    public void eventsAreCoalescedPerEntity() {
+        final UIEventBus eventBus = registerUI(TENANT);
+        final TargetDeletedEvent first = new TargetDeletedEvent(TENANT, 1L, "app");
+        final TargetDeletedEvent other = new TargetDeletedEvent(TENANT, 2L, "app");
+        final TargetDeletedEvent latest = new TargetDeletedEvent(TENANT, 1L, "app");
+
+        underTest.onApplicationEvent(first);
+        underTest.onApplicationEvent(other);
+        underTest.onApplicationEvent(latest);
+        dispatchJob.run();
+
+        final List<Object> published = getPublished(eventBus, 1);
+        assertThat(((TargetDeletedEventContainer) published.get(0)).getEvents()).containsExactly(latest, other);
+    }
+
+    @Test
+    @Description("Verifies that the assignment events of the chunks of a tag assignment are not coalesced.")
+    public void tagAssignmentEventsAreNotCoalesced() {
+        final UIEventBus eventBus = registerUI(TENANT);
+        final TargetTagAssignmentEvent first = new TargetTagAssignmentEvent(TENANT, 1L, Arrays.asList(1L, 2L),
+                Collections.emptyList(), "app");
+        final TargetTagAssignmentEvent second = new TargetTagAssignmentEvent(TENANT, 1L, Arrays.asList(3L),
+                Collections.emptyList(), "app");
+
+        underTest.onApplicationEvent(first);
+        underTest.onApplicationEvent(second);
+        dispatchJob.run();
+
+        final List<Object> published = getPublished(eventBus, 1);
+        assertThat(((TargetTagAssignmentEventContainer) published.get(0)).getEvents()).containsExactly(first, second);
+    }
+
+    @Test
+    @Description("Verifies that the buffered events are dropped on an overflow of the buffer and that the views "
+            + "are told to reload their content instead.")
+    public void overflowDropsEventsAndReloadsViews() {
+        final UIEventBus eventBus = registerUI(TENANT);
+
+        for (long id = 0; id <= 10_000; id++) {
+            underTest.onApplicationEvent(new TargetDeletedEvent(TENANT, id, "app"));
+        }
+        underTest.onApplicationEvent(new TargetDeletedEvent(TENANT, 42L, "app"));
+        dispatchJob.run();
+
+        assertThat(getPublished(eventBus, 1)).containsOnly(EventBufferOverflowEvent.getInstance());
+    }
+
+    @Test
+    @Description("Verifies that an event is only offered to the UIs of the tenant of the event.")
+    public void eventsAreFannedOutToTheUIsOfTheirTenant() {
+        final UIEventBus first = registerUI(TENANT);
+        final UIEventBus second = registerUI(TENANT);
+        final UIEventBus other = registerUI(OTHER_TENANT);
+
+        underTest.onApplicationEvent(new TargetDeletedEvent(TENANT.toLowerCase(), 1L, "app"));
+        dispatchJob.run();
+
+        assertThat(getPublished(first, 1)).hasSize(1);
+        assertThat(getPublished(second, 1)).hasSize(1);
+        verify(other, never()).publish(any(), any());
+    }
+
+    @Test
+    @Description("Verifies that a failed dispatch neither escapes the periodic job nor blocks the next dispatch of "
+            + "the UI.")
+    public void failedDispatchIsRetriedWithNextRun() {
+        final UIEventBus eventBus = registerUI(TENANT);
+        underTest.onApplicationEvent(new TargetDeletedEvent(TENANT, 1L, "app"));
+        doThrow(new IllegalStateException("executor failed")).doAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        }).when(executorService).execute(any(Runnable.class));
+
+        dispatchJob.run();
+        verify(eventBus, never()).publish(any(), any());
+
+        dispatchJob.run();
+        assertThat(getPublished(eventBus, 1)).hasSize(1);
+    }
+
+    private UIEventBus registerUI(final String tenant) {
+        final UIEventBus eventBus = mock(UIEventBus.class);
+        final UI ui = mock(UI.class);
+        final VaadinSession vaadinSession = mock(VaadinSession.class);
+        final WrappedSession wrappedSession = mock(WrappedSession.class);
+        final TestingAuthenticationToken authentication = new TestingAuthenticationToken("user", "password");
+        authentication.setDetails(new TenantAwareAuthenticationDetails(tenant, false));
+        final SecurityContext securityContext = new SecurityContextImpl();
+        securityContext.setAuthentication(authentication);
+
+        when(ui.getSession()).thenReturn(vaadinSession);
+        when(ui.access(any(Runnable.class))).thenAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return CompletableFuture.completedFuture(null);
+        });
+        when(vaadinSession.getSession()).thenReturn(wrappedSession);
+        when(vaadinSession.getState()).thenReturn(State.OPEN);
+        when(wrappedSession.getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY))
+                .thenReturn(securityContext);
+
+        new DelayedEventBusPushStrategy(underTest, eventBus).init(ui);
+
+        if (dispatchJob == null) {
+            final ArgumentCaptor<Runnable> job = ArgumentCaptor.forClass(Runnable.class);
+            verify(executorService).scheduleWithFixedDelay(job.capture(), anyLong(), anyLong(),
+                    eq(TimeUnit.MILLISECONDS));
+            dispatchJob = job.getValue();
+        }
+        return eventBus;
+    }
+
+    private static List<Object> getPublished(final UIEventBus eventBus, final int count) {
+        final ArgumentCaptor<Object> published = ArgumentCaptor.forClass(Object.class);
+        verify(eventBus, times(count)).publish(any(UI.class), published.capture());
+        return published.getAllValues();
+    }
+}